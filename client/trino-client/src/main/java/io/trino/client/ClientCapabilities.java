@@ -23,5 +23,11 @@ public enum ClientCapabilities
     //   time(p) without time zone
     //   interval X(p1) to Y(p2)
     // When this capability is not set, the server returns datetime types with precision = 3
-    PARAMETRIC_DATETIME;
+    PARAMETRIC_DATETIME,
+    // Whether clients can decode the data of QueryResults encoded as ColumnarData
+    // When this capability is not set, the server always returns the data as JSON
+    COLUMNAR_DATA,
+    // Whether clients can download the data of the query directly from the output segments listed in QueryResults
+    // When this capability is not set, the server always returns the data from the coordinator
+    DIRECT_RESULTS;
 }
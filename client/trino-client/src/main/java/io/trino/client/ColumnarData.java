@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.client;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.trino.client.ClientStandardTypes.BIGINT;
+import static io.trino.client.ClientStandardTypes.BOOLEAN;
+import static io.trino.client.ClientStandardTypes.DOUBLE;
+import static io.trino.client.ClientStandardTypes.INTEGER;
+import static io.trino.client.ClientStandardTypes.REAL;
+import static io.trino.client.ClientStandardTypes.SMALLINT;
+import static io.trino.client.ClientStandardTypes.TINYINT;
+import static io.trino.client.ClientStandardTypes.VARBINARY;
+import static io.trino.client.ClientStandardTypes.VARCHAR;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Binary columnar encoding of the data of {@link QueryResults}, used instead of JSON when the client
+ * declares {@link ClientCapabilities#COLUMNAR_DATA} and all the columns have one of the supported types.
+ * <p>
+ * All numbers are little endian. The data starts with the number of rows as an int, followed by each column:
+ * <ul>
+ * <li>a byte which is 1 when the column has nulls, followed by a byte for each row which is 1 for a null</li>
+ * <li>the values of the rows which are not null: a byte for {@code boolean} and {@code tinyint},
+ * a short for {@code smallint}, an int for {@code integer}, a long for {@code bigint}, the bits of the float
+ * and of the double for {@code real} and {@code double}, the length as an int followed by the bytes for
+ * {@code varbinary} and the UTF-8 bytes for {@code varchar}</li>
+ * </ul>
+ * The values are decoded to the same Java values as the JSON data.
+ */
+public final class ColumnarData
+{
+    private ColumnarData() {}
+
+    public static List<List<Object>> decode(List<Column> columns, byte[] data)
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(LITTLE_ENDIAN);
+        int rowCount = buffer.getInt();
+        Object[][] rows = new Object[rowCount][columns.size()];
+        for (int column = 0; column < columns.size(); column++) {
+            String type = columns.get(column).getTypeSignature().getRawType();
+            boolean[] nulls = new boolean[rowCount];
+            if (buffer.get() != 0) {
+                for (int row = 0; row < rowCount; row++) {
+                    nulls[row] = buffer.get() != 0;
+                }
+            }
+            for (int row = 0; row < rowCount; row++) {
+                if (!nulls[row]) {
+                    rows[row][column] = decodeValue(type, buffer);
+                }
+            }
+        }
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Unexpected data after the last column");
+        }
+
+        List<List<Object>> result = new ArrayList<>(rowCount);
+        for (Object[] row : rows) {
+            result.add(unmodifiableList(Arrays.asList(row)));
+        }
+        return unmodifiableList(result);
+    }
+
+    private static Object decodeValue(String type, ByteBuffer buffer)
+    {
+        switch (type) {
+            case BOOLEAN:
+                return buffer.get() != 0;
+            case TINYINT:
+                return buffer.get();
+            case SMALLINT:
+                return buffer.getShort();
+            case INTEGER:
+                return buffer.getInt();
+            case BIGINT:
+                return buffer.getLong();
+            case REAL:
+                return buffer.getFloat();
+            case DOUBLE:
+                return buffer.getDouble();
+            case VARCHAR: {
+                int length = buffer.getInt();
+                String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, UTF_8);
+                buffer.position(buffer.position() + length);
+                return value;
+            }
+            case VARBINARY: {
+                byte[] value = new byte[buffer.getInt()];
+                buffer.get(value);
+                return value;
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported type for columnar data: " + type);
+        }
+    }
+}
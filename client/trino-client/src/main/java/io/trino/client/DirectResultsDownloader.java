@@ -0,0 +1,223 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.client;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.units.Duration;
+import okhttp3.Authenticator;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.net.HttpHeaders.AUTHORIZATION;
+import static java.lang.String.format;
+import static java.net.HttpURLConnection.HTTP_NO_CONTENT;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static java.net.HttpURLConnection.HTTP_UNAVAILABLE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Downloads the data of a query directly from the output segments listed in
+ * {@link QueryResults#getSegments()}, instead of from the coordinator. The segments
+ * which are not complete are fetched in parallel.
+ * <p>
+ * The workers only check the key in the URIs of the segments, so the credentials of the
+ * client are not sent to them.
+ */
+@ThreadSafe
+class DirectResultsDownloader
+{
+    private static final String PAGE_NEXT_TOKEN = "X-Trino-Page-End-Sequence-Id";
+    private static final String BUFFER_COMPLETE = "X-Trino-Buffer-Complete";
+
+    private final OkHttpClient httpClient;
+    private final Function<HttpUrl, Request.Builder> requestFactory;
+    private final Duration requestTimeout;
+    private final Map<URI, Segment> segments = new LinkedHashMap<>();
+
+    public DirectResultsDownloader(OkHttpClient httpClient, Function<HttpUrl, Request.Builder> requestFactory, Duration requestTimeout)
+    {
+        this.httpClient = withoutCredentials(requireNonNull(httpClient, "httpClient is null"));
+        requireNonNull(requestFactory, "requestFactory is null");
+        this.requestFactory = url -> requestFactory.apply(url).removeHeader(AUTHORIZATION);
+        this.requestTimeout = requireNonNull(requestTimeout, "requestTimeout is null");
+    }
+
+    private static OkHttpClient withoutCredentials(OkHttpClient httpClient)
+    {
+        // the client authenticates to the coordinator with interceptors or authenticators
+        OkHttpClient.Builder builder = httpClient.newBuilder()
+                .authenticator(Authenticator.NONE);
+        builder.interceptors().clear();
+        builder.networkInterceptors().clear();
+        return builder.build();
+    }
+
+    public synchronized void addSegments(List<URI> uris)
+    {
+        // the coordinator renews the keys in the query of the URIs, so the segments are identified without the query
+        for (URI uri : uris) {
+            HttpUrl url = HttpUrl.get(uri);
+            URI location = url.newBuilder()
+                    .query(null)
+                    .build()
+                    .uri();
+            segments.computeIfAbsent(location, ignored -> new Segment()).setUrl(url);
+        }
+    }
+
+    public synchronized boolean hasActiveSegments()
+    {
+        return segments.values().stream().anyMatch(segment -> !segment.isComplete());
+    }
+
+    /**
+     * Fetches the next rows from all the segments which are not complete. The result is empty
+     * when no segment has data available.
+     */
+    public List<List<Object>> fetch(List<Column> columns)
+    {
+        requireNonNull(columns, "columns is null");
+
+        List<ListenableFuture<List<List<Object>>>> futures;
+        synchronized (this) {
+            futures = segments.values().stream()
+                    .filter(segment -> !segment.isComplete())
+                    .map(segment -> segment.fetch(columns))
+                    .collect(toImmutableList());
+        }
+
+        ImmutableList.Builder<List<Object>> rows = ImmutableList.builder();
+        for (ListenableFuture<List<List<Object>>> future : futures) {
+            rows.addAll(Futures.getUnchecked(future));
+        }
+        return rows.build();
+    }
+
+    private class Segment
+    {
+        private HttpUrl url;
+        private long token;
+        private boolean complete;
+        private long lastSuccessNanos = System.nanoTime();
+
+        public synchronized void setUrl(HttpUrl url)
+        {
+            this.url = requireNonNull(url, "url is null");
+        }
+
+        public synchronized boolean isComplete()
+        {
+            return complete;
+        }
+
+        public synchronized ListenableFuture<List<List<Object>>> fetch(List<Column> columns)
+        {
+            Request request = requestFactory.apply(url.newBuilder()
+                    .addPathSegment(String.valueOf(token))
+                    .build())
+                    .build();
+
+            SettableFuture<List<List<Object>>> result = SettableFuture.create();
+            httpClient.newCall(request).enqueue(new Callback()
+            {
+                @Override
+                public void onFailure(Call call, IOException e)
+                {
+                    try {
+                        result.set(failed(request, e));
+                    }
+                    catch (RuntimeException t) {
+                        result.setException(t);
+                    }
+                }
+
+                @Override
+                public void onResponse(Call call, Response response)
+                {
+                    try (ResponseBody body = response.body()) {
+                        if (response.code() == HTTP_UNAVAILABLE) {
+                            result.set(failed(request, null));
+                            return;
+                        }
+                        if (response.code() != HTTP_OK && response.code() != HTTP_NO_CONTENT) {
+                            throw new RuntimeException(format("Error fetching results at %s returned HTTP %s", request.url(), response.code()));
+                        }
+                        List<List<Object>> rows = ImmutableList.of();
+                        if (response.code() == HTTP_OK) {
+                            rows = ColumnarData.decode(columns, body.bytes());
+                        }
+                        succeeded(
+                                Long.parseLong(requireNonNull(response.header(PAGE_NEXT_TOKEN), "next token header is missing")),
+                                Boolean.parseBoolean(response.header(BUFFER_COMPLETE)));
+                        result.set(rows);
+                    }
+                    catch (Throwable t) {
+                        result.setException(t);
+                    }
+                }
+            });
+            return result;
+        }
+
+        private synchronized void succeeded(long nextToken, boolean bufferComplete)
+        {
+            lastSuccessNanos = System.nanoTime();
+            // requesting the next token acknowledges the rows received so far
+            token = nextToken;
+            if (bufferComplete && !complete) {
+                complete = true;
+                // the worker releases the segment once it is deleted
+                httpClient.newCall(requestFactory.apply(url).delete().build()).enqueue(new Callback()
+                {
+                    @Override
+                    public void onFailure(Call call, IOException e) {}
+
+                    @Override
+                    public void onResponse(Call call, Response response)
+                    {
+                        response.close();
+                    }
+                });
+            }
+        }
+
+        private synchronized List<List<Object>> failed(Request request, IOException cause)
+        {
+            // the same token is requested again, until the request timeout elapses
+            Duration sinceSuccess = Duration.nanosSince(lastSuccessNanos);
+            if (sinceSuccess.compareTo(requestTimeout) > 0) {
+                throw new RuntimeException(format("Error fetching results at %s (duration: %s)", request.url(), sinceSuccess), cause);
+            }
+            return ImmutableList.of();
+        }
+    }
+}
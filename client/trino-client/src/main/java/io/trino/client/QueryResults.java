@@ -45,6 +45,24 @@ public class QueryResults
     private final List<Warning> warnings;
     private final String updateType;
     private final Long updateCount;
+    private final byte[] columnarData;
+    private final List<URI> segments;
+
+    public QueryResults(
+            String id,
+            URI infoUri,
+            URI partialCancelUri,
+            URI nextUri,
+            List<Column> columns,
+            List<List<Object>> data,
+            StatementStats stats,
+            QueryError error,
+            List<Warning> warnings,
+            String updateType,
+            Long updateCount)
+    {
+        this(id, infoUri, partialCancelUri, nextUri, columns, data, stats, error, warnings, updateType, updateCount, null, null);
+    }
 
     @JsonCreator
     public QueryResults(
@@ -58,7 +76,9 @@ public class QueryResults
             @JsonProperty("error") QueryError error,
             @JsonProperty("warnings") List<Warning> warnings,
             @JsonProperty("updateType") String updateType,
-            @JsonProperty("updateCount") Long updateCount)
+            @JsonProperty("updateCount") Long updateCount,
+            @JsonProperty("columnarData") byte[] columnarData,
+            @JsonProperty("segments") List<URI> segments)
     {
         this(
                 id,
@@ -66,12 +86,14 @@ public class QueryResults
                 partialCancelUri,
                 nextUri,
                 columns,
-                fixData(columns, data),
+                columnarData != null ? ColumnarData.decode(columns, columnarData) : fixData(columns, data),
                 stats,
                 error,
                 firstNonNull(warnings, ImmutableList.of()),
                 updateType,
-                updateCount);
+                updateCount,
+                null,
+                segments);
     }
 
     public QueryResults(
@@ -86,6 +108,28 @@ public class QueryResults
             List<Warning> warnings,
             String updateType,
             Long updateCount)
+    {
+        this(id, infoUri, partialCancelUri, nextUri, columns, data, stats, error, warnings, updateType, updateCount, null, null);
+    }
+
+    /**
+     * @param columnarData data encoded as {@link ColumnarData}, when it is not returned as JSON {@code data}
+     * @param segments URIs from which the client downloads the data directly, instead of from the coordinator
+     */
+    public QueryResults(
+            String id,
+            URI infoUri,
+            URI partialCancelUri,
+            URI nextUri,
+            List<Column> columns,
+            Iterable<List<Object>> data,
+            StatementStats stats,
+            QueryError error,
+            List<Warning> warnings,
+            String updateType,
+            Long updateCount,
+            byte[] columnarData,
+            List<URI> segments)
     {
         this.id = requireNonNull(id, "id is null");
         this.infoUri = requireNonNull(infoUri, "infoUri is null");
@@ -94,11 +138,14 @@ public class QueryResults
         this.columns = (columns != null) ? ImmutableList.copyOf(columns) : null;
         this.data = (data != null) ? unmodifiableIterable(data) : null;
         checkArgument(data == null || columns != null, "data present without columns");
+        checkArgument(columnarData == null || (columns != null && data == null), "columnar data present without columns or with data");
         this.stats = requireNonNull(stats, "stats is null");
         this.error = error;
         this.warnings = ImmutableList.copyOf(requireNonNull(warnings, "warnings is null"));
         this.updateType = updateType;
         this.updateCount = updateCount;
+        this.columnarData = columnarData;
+        this.segments = (segments != null) ? ImmutableList.copyOf(segments) : null;
     }
 
     @JsonProperty
@@ -185,6 +232,28 @@ public class QueryResults
         return updateCount;
     }
 
+    /**
+     * Returns the data encoded as {@link ColumnarData}. It is only present on the server, since
+     * the client decodes it to {@link #getData()}.
+     */
+    @Nullable
+    @JsonProperty
+    public byte[] getColumnarData()
+    {
+        return columnarData;
+    }
+
+    /**
+     * Returns the URIs of the output segments of the query, when the client downloads the data directly
+     * from the workers. The data of the segments is encoded as {@link ColumnarData}.
+     */
+    @Nullable
+    @JsonProperty
+    public List<URI> getSegments()
+    {
+        return segments;
+    }
+
     @Override
     public String toString()
     {
@@ -195,6 +264,8 @@ public class QueryResults
                 .add("nextUri", nextUri)
                 .add("columns", columns)
                 .add("hasData", data != null)
+                .add("hasColumnarData", columnarData != null)
+                .add("segments", segments)
                 .add("stats", stats)
                 .add("error", error)
                 .add("updateType", updateType)
@@ -15,6 +15,7 @@ package io.trino.client;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
@@ -43,6 +44,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
@@ -57,6 +59,7 @@ import static java.net.HttpURLConnection.HTTP_UNAUTHORIZED;
 import static java.net.HttpURLConnection.HTTP_UNAVAILABLE;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 @ThreadSafe
 class StatementClientV1
@@ -64,6 +67,8 @@ class StatementClientV1
 {
     private static final MediaType MEDIA_TYPE_TEXT = MediaType.parse("text/plain; charset=utf-8");
     private static final JsonCodec<QueryResults> QUERY_RESULTS_CODEC = jsonCodec(QueryResults.class);
+    // while the data is downloaded from the segments, the coordinator is still polled at this interval to keep the query alive
+    private static final Duration DIRECT_RESULTS_STATUS_INTERVAL = new Duration(1, SECONDS);
 
     private static final Splitter SESSION_HEADER_SPLITTER = Splitter.on('=').limit(2).trimResults();
     private static final String USER_AGENT_VALUE = StatementClientV1.class.getSimpleName() +
@@ -73,6 +78,7 @@ class StatementClientV1
     private final OkHttpClient httpClient;
     private final String query;
     private final AtomicReference<QueryResults> currentResults = new AtomicReference<>();
+    private final AtomicLong lastStatusRequestNanos = new AtomicLong(System.nanoTime());
     private final AtomicReference<String> setCatalog = new AtomicReference<>();
     private final AtomicReference<String> setSchema = new AtomicReference<>();
     private final AtomicReference<String> setPath = new AtomicReference<>();
@@ -88,6 +94,7 @@ class StatementClientV1
     private final String user;
     private final String clientCapabilities;
     private final boolean compressionDisabled;
+    private final DirectResultsDownloader directResults;
 
     private final AtomicReference<State> state = new AtomicReference<>(State.RUNNING);
 
@@ -104,6 +111,7 @@ class StatementClientV1
         this.user = session.getUser().orElse(session.getPrincipal());
         this.clientCapabilities = Joiner.on(",").join(ClientCapabilities.values());
         this.compressionDisabled = session.isCompressionDisabled();
+        this.directResults = new DirectResultsDownloader(httpClient, this::prepareRequest, requestTimeoutNanos);
 
         Request request = buildQueryRequest(session, query);
 
@@ -327,13 +335,40 @@ class StatementClientV1
             return false;
         }
 
+        List<List<Object>> directRows = ImmutableList.of();
+        if (directResults.hasActiveSegments()) {
+            try {
+                directRows = directResults.fetch(currentResults.get().getColumns());
+            }
+            catch (RuntimeException e) {
+                state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+                throw e;
+            }
+            if (!directRows.isEmpty() && Duration.nanosSince(lastStatusRequestNanos.get()).compareTo(DIRECT_RESULTS_STATUS_INTERVAL) < 0) {
+                currentResults.set(withData(currentResults.get(), directRows));
+                return true;
+            }
+        }
+
         URI nextUri = currentStatusInfo().getNextUri();
         if (nextUri == null) {
+            if (!directRows.isEmpty()) {
+                currentResults.set(withData(currentResults.get(), directRows));
+                return true;
+            }
             state.compareAndSet(State.RUNNING, State.FINISHED);
             return false;
         }
 
-        Request request = prepareRequest(HttpUrl.get(nextUri)).build();
+        HttpUrl url = HttpUrl.get(nextUri);
+        if (!directRows.isEmpty()) {
+            // the rows are already available, so do not wait for the query status to change
+            url = url.newBuilder()
+                    .addQueryParameter("maxWait", "0s")
+                    .build();
+        }
+        Request request = prepareRequest(url).build();
+        lastStatusRequestNanos.set(System.nanoTime());
 
         Exception cause = null;
         long start = System.nanoTime();
@@ -379,6 +414,9 @@ class StatementClientV1
 
             if ((response.getStatusCode() == HTTP_OK) && response.hasValue()) {
                 processResponse(response.getHeaders(), response.getValue());
+                if (!directRows.isEmpty()) {
+                    currentResults.set(withData(currentResults.get(), directRows));
+                }
                 return true;
             }
 
@@ -431,9 +469,31 @@ class StatementClientV1
             clearTransactionId.set(true);
         }
 
+        if (results.getSegments() != null) {
+            directResults.addSegments(results.getSegments());
+        }
+
         currentResults.set(results);
     }
 
+    private static QueryResults withData(QueryResults results, List<List<Object>> data)
+    {
+        return new QueryResults(
+                results.getId(),
+                results.getInfoUri(),
+                results.getPartialCancelUri(),
+                results.getNextUri(),
+                results.getColumns(),
+                (Iterable<List<Object>>) data,
+                results.getStats(),
+                results.getError(),
+                results.getWarnings(),
+                results.getUpdateType(),
+                results.getUpdateCount(),
+                null,
+                results.getSegments());
+    }
+
     private RuntimeException requestFailedException(String task, Request request, JsonResponse<QueryResults> response)
     {
         if (!response.hasValue()) {
@@ -0,0 +1,152 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.client;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.Duration;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static com.google.common.net.HttpHeaders.AUTHORIZATION;
+import static io.trino.client.OkHttpUtil.basicAuth;
+import static io.trino.client.OkHttpUtil.tokenAuth;
+import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
+import static java.net.HttpURLConnection.HTTP_NO_CONTENT;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Test(singleThreaded = true)
+public class TestDirectResultsDownloader
+{
+    private static final List<Column> COLUMNS = ImmutableList.of(new Column("_col0", "bigint", new ClientTypeSignature("bigint")));
+    // one bigint column with the rows 123 and null
+    private static final byte[] DATA = Base64.getDecoder().decode("AgAAAAEAAXsAAAAAAAAA");
+
+    private MockWebServer server;
+    private DirectResultsDownloader downloader;
+
+    @BeforeMethod(alwaysRun = true)
+    public void setup()
+            throws Exception
+    {
+        server = new MockWebServer();
+        server.start();
+
+        downloader = new DirectResultsDownloader(new OkHttpClient(), url -> new Request.Builder().url(url), new Duration(1, MINUTES));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void teardown()
+            throws IOException
+    {
+        server.close();
+        server = null;
+        downloader = null;
+    }
+
+    @Test
+    public void testDownload()
+            throws Exception
+    {
+        server.enqueue(segmentResponse(HTTP_OK, 1, false).setBody(new Buffer().write(DATA)));
+        server.enqueue(segmentResponse(HTTP_NO_CONTENT, 1, false));
+        server.enqueue(segmentResponse(HTTP_NO_CONTENT, 1, true));
+        server.enqueue(new MockResponse());
+
+        assertThat(downloader.hasActiveSegments()).isFalse();
+        downloader.addSegments(ImmutableList.of(segmentUri("key1")));
+        // segments are listed again in every response of the coordinator
+        downloader.addSegments(ImmutableList.of(segmentUri("key1")));
+        assertThat(downloader.hasActiveSegments()).isTrue();
+
+        assertThat(downloader.fetch(COLUMNS)).containsExactly(ImmutableList.of(123L), Arrays.asList((Object) null));
+        // the coordinator renews the key of the segment
+        downloader.addSegments(ImmutableList.of(segmentUri("key2")));
+        assertThat(downloader.fetch(COLUMNS)).isEmpty();
+        assertThat(downloader.hasActiveSegments()).isTrue();
+        assertThat(downloader.fetch(COLUMNS)).isEmpty();
+        assertThat(downloader.hasActiveSegments()).isFalse();
+
+        assertRequest(server.takeRequest(), "GET", "/v1/download/task.0.0.0/0/0?key=key1");
+        assertRequest(server.takeRequest(), "GET", "/v1/download/task.0.0.0/0/1?key=key2");
+        assertRequest(server.takeRequest(), "GET", "/v1/download/task.0.0.0/0/1?key=key2");
+        assertRequest(server.takeRequest(), "DELETE", "/v1/download/task.0.0.0/0?key=key2");
+    }
+
+    @Test
+    public void testCredentialsNotSent()
+            throws Exception
+    {
+        server.enqueue(segmentResponse(HTTP_NO_CONTENT, 0, false));
+
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .addInterceptor(tokenAuth("token"))
+                .addNetworkInterceptor(basicAuth("user", "password"))
+                .build();
+        DirectResultsDownloader downloader = new DirectResultsDownloader(
+                httpClient,
+                url -> new Request.Builder().url(url).header(AUTHORIZATION, "Bearer token"),
+                new Duration(1, MINUTES));
+        downloader.addSegments(ImmutableList.of(segmentUri("key")));
+        assertThat(downloader.fetch(COLUMNS)).isEmpty();
+
+        RecordedRequest request = server.takeRequest();
+        assertRequest(request, "GET", "/v1/download/task.0.0.0/0/0?key=key");
+        assertThat(request.getHeader(AUTHORIZATION)).isNull();
+    }
+
+    @Test
+    public void testErrorResponse()
+    {
+        server.enqueue(new MockResponse().setResponseCode(HTTP_INTERNAL_ERROR));
+
+        downloader.addSegments(ImmutableList.of(segmentUri("key")));
+        assertThatThrownBy(() -> downloader.fetch(COLUMNS))
+                .hasMessageContaining("returned HTTP 500");
+    }
+
+    private URI segmentUri(String key)
+    {
+        return server.url("/v1/download/task.0.0.0/0?key=" + key).uri();
+    }
+
+    private static MockResponse segmentResponse(int status, long nextToken, boolean complete)
+    {
+        return new MockResponse()
+                .setResponseCode(status)
+                .addHeader("X-Trino-Page-End-Sequence-Id", nextToken)
+                .addHeader("X-Trino-Buffer-Complete", complete);
+    }
+
+    private static void assertRequest(RecordedRequest request, String method, String path)
+    {
+        assertThat(request.getMethod()).isEqualTo(method);
+        assertThat(request.getPath()).isEqualTo(path);
+    }
+}
@@ -13,10 +13,12 @@
  */
 package io.trino.client;
 
+import com.google.common.collect.ImmutableList;
 import io.airlift.json.JsonCodec;
 import org.testng.annotations.Test;
 
 import static io.airlift.json.JsonCodec.jsonCodec;
+import static java.util.Collections.singletonList;
 import static org.testng.Assert.assertEquals;
 
 public class TestQueryResults
@@ -62,4 +64,43 @@ public class TestQueryResults
         QueryResults results = QUERY_RESULTS_CODEC.fromJson(goldenValue);
         assertEquals(results.getId(), "20160128_214710_00012_rk68b");
     }
+
+    @Test
+    public void testColumnarData()
+    {
+        String value = "{\n" +
+                "  \"id\" : \"20160128_214710_00012_rk68b\",\n" +
+                "  \"infoUri\" : \"http://localhost:54855/query.html?20160128_214710_00012_rk68b\",\n" +
+                "  \"columns\" : [ {\n" +
+                "    \"name\" : \"_col0\",\n" +
+                "    \"type\" : \"bigint\",\n" +
+                "    \"typeSignature\" : {\n" +
+                "      \"rawType\" : \"bigint\",\n" +
+                "      \"arguments\" : [ ]\n" +
+                "    }\n" +
+                "  } ],\n" +
+                "  \"columnarData\" : \"AgAAAAEAAXsAAAAAAAAA\",\n" +
+                "  \"stats\" : {\n" +
+                "    \"state\" : \"FINISHED\",\n" +
+                "    \"queued\" : false,\n" +
+                "    \"scheduled\" : false,\n" +
+                "    \"nodes\" : 0,\n" +
+                "    \"totalSplits\" : 0,\n" +
+                "    \"queuedSplits\" : 0,\n" +
+                "    \"runningSplits\" : 0,\n" +
+                "    \"completedSplits\" : 0,\n" +
+                "    \"cpuTimeMillis\" : 0,\n" +
+                "    \"wallTimeMillis\" : 0,\n" +
+                "    \"queuedTimeMillis\" : 0,\n" +
+                "    \"elapsedTimeMillis\" : 0,\n" +
+                "    \"processedRows\" : 0,\n" +
+                "    \"processedBytes\" : 0,\n" +
+                "    \"peakMemoryBytes\" : 0\n" +
+                "  }\n" +
+                "}";
+
+        // two rows of a bigint column, the second one is null
+        QueryResults results = QUERY_RESULTS_CODEC.fromJson(value);
+        assertEquals(results.getData(), ImmutableList.of(ImmutableList.of(123L), singletonList(null)));
+    }
 }
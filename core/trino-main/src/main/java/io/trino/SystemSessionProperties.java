@@ -13,12 +13,15 @@
  */
 package io.trino;
 
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.trino.execution.DynamicFilterConfig;
 import io.trino.execution.QueryManagerConfig;
 import io.trino.execution.TaskManagerConfig;
+import io.trino.execution.buffer.CompressionCodec;
 import io.trino.execution.scheduler.NodeSchedulerConfig;
 import io.trino.memory.MemoryManagerConfig;
 import io.trino.memory.NodeMemoryConfig;
@@ -30,7 +33,9 @@ import io.trino.sql.analyzer.FeaturesConfig.JoinReorderingStrategy;
 
 import javax.inject.Inject;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 
@@ -42,10 +47,13 @@ import static io.trino.spi.session.PropertyMetadata.booleanProperty;
 import static io.trino.spi.session.PropertyMetadata.doubleProperty;
 import static io.trino.spi.session.PropertyMetadata.enumProperty;
 import static io.trino.spi.session.PropertyMetadata.integerProperty;
+import static io.trino.spi.session.PropertyMetadata.longProperty;
 import static io.trino.spi.session.PropertyMetadata.stringProperty;
 import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.VarcharType.VARCHAR;
 import static java.lang.Math.min;
 import static java.lang.String.format;
+import static java.util.Locale.ENGLISH;
 
 public final class SystemSessionProperties
 {
@@ -135,6 +143,20 @@ public final class SystemSessionProperties
     public static final String OMIT_DATETIME_TYPE_PRECISION = "omit_datetime_type_precision";
     public static final String USE_LEGACY_WINDOW_FILTER_PUSHDOWN = "use_legacy_window_filter_pushdown";
     public static final String MAX_UNACKNOWLEDGED_SPLITS_PER_TASK = "max_unacknowledged_splits_per_task";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_ENABLED = "adaptive_partial_aggregation_enabled";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS = "adaptive_partial_aggregation_min_rows";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD = "adaptive_partial_aggregation_unique_rows_ratio_threshold";
+    public static final String FLAT_GROUP_BY_HASH_ENABLED = "flat_group_by_hash_enabled";
+    public static final String SKEWED_JOIN_KEYS = "skewed_join_keys";
+    public static final String ADAPTIVE_JOIN_DISTRIBUTION_ENABLED = "adaptive_join_distribution_enabled";
+    public static final String JOIN_OPERATOR_UNSPILL_MEMORY_LIMIT = "join_operator_unspill_memory_limit";
+    public static final String EXCHANGE_COMPRESSION_CODEC = "exchange_compression_codec";
+    public static final String EXCHANGE_ADAPTIVE_COMPRESSION_ENABLED = "exchange_adaptive_compression_enabled";
+    public static final String EXCHANGE_SPOOLING_ENABLED = "exchange_spooling_enabled";
+    public static final String EXCHANGE_TASK_RETRY_ATTEMPTS = "exchange_task_retry_attempts";
+    public static final String TASK_SCHEDULING_GROUP = "task_scheduling_group";
+    public static final String TASK_SCHEDULING_WEIGHT = "task_scheduling_weight";
+    public static final String OFFLOAD_BLOCKING_PAGE_SOURCES = "offload_blocking_page_sources";
 
     private final List<PropertyMetadata<?>> sessionProperties;
 
@@ -615,7 +637,88 @@ public final class SystemSessionProperties
                         nodeSchedulerConfig.getMaxUnacknowledgedSplitsPerTask(),
                         false,
                         value -> validateIntegerValue(value, MAX_UNACKNOWLEDGED_SPLITS_PER_TASK, 1, false),
-                        object -> object));
+                        object -> object),
+                booleanProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_ENABLED,
+                        "When enabled, partial aggregation might be adaptively turned off when it does not provide any performance gain",
+                        featuresConfig.isAdaptivePartialAggregationEnabled(),
+                        false),
+                longProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS,
+                        "Minimum number of processed rows before partial aggregation might be adaptively turned off",
+                        featuresConfig.getAdaptivePartialAggregationMinRows(),
+                        false),
+                doubleProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD,
+                        "Ratio between aggregation output and input rows above which partial aggregation might be adaptively turned off",
+                        featuresConfig.getAdaptivePartialAggregationUniqueRowsRatioThreshold(),
+                        false),
+                booleanProperty(
+                        FLAT_GROUP_BY_HASH_ENABLED,
+                        "Use row oriented hash table for group by keys of supported types",
+                        featuresConfig.isFlatGroupByHashEnabled(),
+                        false),
+                new PropertyMetadata<>(
+                        SKEWED_JOIN_KEYS,
+                        "Join key values to spread across partitions of inner and left partitioned joins on a single key, as column:value[,value...] separated by ';', " +
+                                "for example custkey:0,-1;status:unknown. Column names are case insensitive, and values are parsed as integers, yyyy-mm-dd dates or text " +
+                                "depending on the type of the join key",
+                        VARCHAR,
+                        String.class,
+                        null,
+                        false,
+                        value -> {
+                            String stringValue = (String) value;
+                            parseSkewedJoinKeys(stringValue);
+                            return stringValue;
+                        },
+                        value -> value),
+                booleanProperty(
+                        ADAPTIVE_JOIN_DISTRIBUTION_ENABLED,
+                        "Use the build side size observed in previous queries as a hint to choose join distribution",
+                        featuresConfig.isAdaptiveJoinDistributionEnabled(),
+                        false),
+                dataSizeProperty(
+                        JOIN_OPERATOR_UNSPILL_MEMORY_LIMIT,
+                        "Spilled join build partitions larger than this are split into sub-partitions before they are unspilled",
+                        featuresConfig.getJoinOperatorUnspillMemoryLimit(),
+                        false),
+                enumProperty(
+                        EXCHANGE_COMPRESSION_CODEC,
+                        "Codec used to compress exchanged pages when exchange compression is enabled",
+                        CompressionCodec.class,
+                        featuresConfig.getExchangeCompressionCodec(),
+                        false),
+                booleanProperty(
+                        EXCHANGE_ADAPTIVE_COMPRESSION_ENABLED,
+                        "Skip compressing exchanged pages with block encodings which did not compress recently",
+                        featuresConfig.isExchangeAdaptiveCompressionEnabled(),
+                        false),
+                booleanProperty(
+                        EXCHANGE_SPOOLING_ENABLED,
+                        "Write the output of intermediate stages to the exchange spool, so that failed tasks can be retried",
+                        featuresConfig.isExchangeSpoolingEnabled(),
+                        false),
+                integerProperty(
+                        EXCHANGE_TASK_RETRY_ATTEMPTS,
+                        "Number of times a failed task of a stage with spooled output is retried",
+                        featuresConfig.getExchangeTaskRetryAttempts(),
+                        false),
+                stringProperty(
+                        TASK_SCHEDULING_GROUP,
+                        "Resource group which shares the worker threads with the tasks of the query. Set by the coordinator",
+                        null,
+                        true),
+                integerProperty(
+                        TASK_SCHEDULING_WEIGHT,
+                        "Share of the worker threads of the resource group of the query, relative to other groups. Set by the coordinator",
+                        1,
+                        true),
+                booleanProperty(
+                        OFFLOAD_BLOCKING_PAGE_SOURCES,
+                        "Read from connectors which block on I/O on a separate thread pool, instead of on the threads processing splits",
+                        taskManagerConfig.isOffloadBlockingPageSources(),
+                        false));
     }
 
     public List<PropertyMetadata<?>> getSessionProperties()
@@ -946,6 +1049,25 @@ public final class SystemSessionProperties
         return OptionalInt.of(value);
     }
 
+    private static Map<String, List<String>> parseSkewedJoinKeys(String value)
+    {
+        if (value == null) {
+            return ImmutableMap.of();
+        }
+        Map<String, List<String>> skewedJoinKeys = new LinkedHashMap<>();
+        for (String column : Splitter.on(';').trimResults().omitEmptyStrings().split(value)) {
+            List<String> parts = Splitter.on(':').limit(2).trimResults().splitToList(column);
+            List<String> values = parts.size() == 2 ? Splitter.on(',').trimResults().omitEmptyStrings().splitToList(parts.get(1)) : ImmutableList.of();
+            if (parts.get(0).isEmpty() || values.isEmpty()) {
+                throw new TrinoException(INVALID_SESSION_PROPERTY, format("%s must be a list of column:value[,value...] separated by ';': %s", SKEWED_JOIN_KEYS, value));
+            }
+            if (skewedJoinKeys.put(parts.get(0).toLowerCase(ENGLISH), values) != null) {
+                throw new TrinoException(INVALID_SESSION_PROPERTY, format("%s contains column %s more than once", SKEWED_JOIN_KEYS, parts.get(0)));
+            }
+        }
+        return ImmutableMap.copyOf(skewedJoinKeys);
+    }
+
     private static void validateValueIsPowerOfTwo(Object value, String property)
     {
         int intValue = (int) value;
@@ -1097,4 +1219,77 @@ public final class SystemSessionProperties
     {
         return session.getSystemProperty(MAX_UNACKNOWLEDGED_SPLITS_PER_TASK, Integer.class);
     }
+
+    public static boolean isAdaptivePartialAggregationEnabled(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_ENABLED, Boolean.class);
+    }
+
+    public static long getAdaptivePartialAggregationMinRows(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS, Long.class);
+    }
+
+    public static double getAdaptivePartialAggregationUniqueRowsRatioThreshold(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD, Double.class);
+    }
+
+    public static boolean isFlatGroupByHashEnabled(Session session)
+    {
+        return session.getSystemProperty(FLAT_GROUP_BY_HASH_ENABLED, Boolean.class);
+    }
+
+    /**
+     * @return skewed join key values by lower case column name
+     */
+    public static Map<String, List<String>> getSkewedJoinKeys(Session session)
+    {
+        return parseSkewedJoinKeys(session.getSystemProperty(SKEWED_JOIN_KEYS, String.class));
+    }
+
+    public static boolean isAdaptiveJoinDistributionEnabled(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_JOIN_DISTRIBUTION_ENABLED, Boolean.class);
+    }
+
+    public static DataSize getJoinOperatorUnspillMemoryLimit(Session session)
+    {
+        return session.getSystemProperty(JOIN_OPERATOR_UNSPILL_MEMORY_LIMIT, DataSize.class);
+    }
+
+    public static CompressionCodec getExchangeCompressionCodec(Session session)
+    {
+        return isExchangeCompressionEnabled(session) ? session.getSystemProperty(EXCHANGE_COMPRESSION_CODEC, CompressionCodec.class) : CompressionCodec.NONE;
+    }
+
+    public static boolean isExchangeAdaptiveCompressionEnabled(Session session)
+    {
+        return session.getSystemProperty(EXCHANGE_ADAPTIVE_COMPRESSION_ENABLED, Boolean.class);
+    }
+
+    public static boolean isExchangeSpoolingEnabled(Session session)
+    {
+        return session.getSystemProperty(EXCHANGE_SPOOLING_ENABLED, Boolean.class);
+    }
+
+    public static int getExchangeTaskRetryAttempts(Session session)
+    {
+        return session.getSystemProperty(EXCHANGE_TASK_RETRY_ATTEMPTS, Integer.class);
+    }
+
+    public static Optional<String> getTaskSchedulingGroup(Session session)
+    {
+        return Optional.ofNullable(session.getSystemProperty(TASK_SCHEDULING_GROUP, String.class));
+    }
+
+    public static int getTaskSchedulingWeight(Session session)
+    {
+        return session.getSystemProperty(TASK_SCHEDULING_WEIGHT, Integer.class);
+    }
+
+    public static boolean isOffloadBlockingPageSources(Session session)
+    {
+        return session.getSystemProperty(OFFLOAD_BLOCKING_PAGE_SOURCES, Boolean.class);
+    }
 }
@@ -0,0 +1,286 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.cost;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import io.trino.execution.StageInfo;
+import io.trino.sql.planner.PlanFragment;
+import io.trino.sql.planner.iterative.Lookup;
+import io.trino.sql.planner.plan.AggregationNode;
+import io.trino.sql.planner.plan.ExchangeNode;
+import io.trino.sql.planner.plan.FilterNode;
+import io.trino.sql.planner.plan.JoinNode;
+import io.trino.sql.planner.plan.JoinNode.EquiJoinClause;
+import io.trino.sql.planner.plan.LimitNode;
+import io.trino.sql.planner.plan.PlanFragmentId;
+import io.trino.sql.planner.plan.PlanNode;
+import io.trino.sql.planner.plan.PlanNodeId;
+import io.trino.sql.planner.plan.ProjectNode;
+import io.trino.sql.planner.plan.RemoteSourceNode;
+import io.trino.sql.planner.plan.TableScanNode;
+import io.trino.sql.planner.plan.ValuesNode;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.execution.StageState.FINISHED;
+import static io.trino.sql.planner.iterative.Lookup.noLookup;
+import static io.trino.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static io.trino.sql.planner.plan.AggregationNode.Step.PARTIAL;
+import static io.trino.sql.planner.plan.ExchangeNode.Scope.LOCAL;
+import static io.trino.sql.planner.plan.JoinNode.Type.LEFT;
+import static io.trino.sql.planner.plan.JoinNode.Type.RIGHT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.HOURS;
+
+/**
+ * Remembers the actual size of join build sides observed in finished queries,
+ * so that the planning of the next query with the same build side has a hint
+ * of its size when the estimates are unknown.
+ * <p>
+ * When a query finishes, the build sides of the joins in its final plan are
+ * identified by a signature of their plan subtree, and the output size of the
+ * stages feeding each build side is recorded under that signature. Nothing is
+ * kept for a query while it runs.
+ */
+@ThreadSafe
+public class JoinBuildSideHistory
+{
+    private static final int MAX_OBSERVED_BUILD_SIDES = 10_000;
+
+    // observations expire since the underlying data changes over time
+    private final Cache<String, Long> observedSizes = CacheBuilder.newBuilder()
+            .maximumSize(MAX_OBSERVED_BUILD_SIDES)
+            .expireAfterWrite(1, HOURS)
+            .build();
+
+    public OptionalLong getObservedSize(String signature)
+    {
+        Long size = observedSizes.getIfPresent(signature);
+        if (size == null) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(size);
+    }
+
+    public void recordObservedSize(String signature, long sizeInBytes)
+    {
+        observedSizes.put(signature, sizeInBytes);
+    }
+
+    /**
+     * Records the build side sizes of the joins in the plan of a finished query. A build side is
+     * only recorded when it is entirely produced by other stages that all finished.
+     */
+    public void recordBuildSideSizes(PlanNode plan, StageInfo outputStage)
+    {
+        Map<PlanNodeId, String> signatures = getBuildSideSignatures(plan);
+        if (signatures.isEmpty()) {
+            return;
+        }
+
+        Map<PlanFragmentId, StageInfo> stages = new HashMap<>();
+        collectStages(outputStage, stages);
+
+        for (StageInfo stage : stages.values()) {
+            List<JoinNode> joinNodes = searchFrom(stage.getPlan().getRoot())
+                    .where(JoinNode.class::isInstance)
+                    .findAll();
+            for (JoinNode joinNode : joinNodes) {
+                String signature = signatures.get(joinNode.getId());
+                if (signature != null) {
+                    getBuildSideSize(joinNode.getRight(), stages)
+                            .ifPresent(size -> recordObservedSize(signature, size));
+                }
+            }
+        }
+    }
+
+    private static Map<PlanNodeId, String> getBuildSideSignatures(PlanNode plan)
+    {
+        // the fragments keep the ids of the join nodes of the plan
+        ImmutableMap.Builder<PlanNodeId, String> signatures = ImmutableMap.builder();
+        List<JoinNode> joinNodes = searchFrom(plan)
+                .where(JoinNode.class::isInstance)
+                .findAll();
+        for (JoinNode joinNode : joinNodes) {
+            getSignature(joinNode.getRight(), noLookup())
+                    .ifPresent(signature -> signatures.put(joinNode.getId(), signature));
+        }
+        return signatures.build();
+    }
+
+    private static void collectStages(StageInfo stage, Map<PlanFragmentId, StageInfo> stages)
+    {
+        PlanFragment fragment = stage.getPlan();
+        if (fragment != null) {
+            stages.put(fragment.getId(), stage);
+        }
+        for (StageInfo subStage : stage.getSubStages()) {
+            collectStages(subStage, stages);
+        }
+    }
+
+    private static OptionalLong getBuildSideSize(PlanNode buildSide, Map<PlanFragmentId, StageInfo> stages)
+    {
+        boolean transformsRemoteSources = searchFrom(buildSide)
+                .where(node -> !(node instanceof RemoteSourceNode || node instanceof ProjectNode || isLocalExchange(node)))
+                .matches();
+        if (transformsRemoteSources) {
+            // the size of the build side differs from the size of its inputs
+            return OptionalLong.empty();
+        }
+
+        List<RemoteSourceNode> remoteSources = searchFrom(buildSide)
+                .where(RemoteSourceNode.class::isInstance)
+                .findAll();
+        if (remoteSources.isEmpty()) {
+            return OptionalLong.empty();
+        }
+
+        long size = 0;
+        for (RemoteSourceNode remoteSource : remoteSources) {
+            for (PlanFragmentId fragmentId : remoteSource.getSourceFragmentIds()) {
+                StageInfo stage = stages.get(fragmentId);
+                if (stage == null || stage.getState() != FINISHED) {
+                    return OptionalLong.empty();
+                }
+                size += stage.getStageStats().getOutputDataSize().toBytes();
+            }
+        }
+        return OptionalLong.of(size);
+    }
+
+    private static boolean isLocalExchange(PlanNode node)
+    {
+        return node instanceof ExchangeNode && ((ExchangeNode) node).getScope() == LOCAL;
+    }
+
+    /**
+     * Computes a signature of the plan subtree, which is equal for subtrees producing the same data.
+     * The signature is the same for the subtree when the join distribution is chosen and in the final
+     * plan, so it ignores projections, exchanges, partial aggregations and limits, and the order of
+     * the sides of joins. Subtrees containing nodes other than table scans, filters, projections,
+     * aggregations, joins, values and limits have no signature.
+     */
+    public static Optional<String> getSignature(PlanNode node, Lookup lookup)
+    {
+        return appendSignature(node, lookup)
+                .map(signature -> Hashing.sha256().hashString(signature, UTF_8).toString());
+    }
+
+    private static Optional<String> appendSignature(PlanNode node, Lookup lookup)
+    {
+        node = lookup.resolve(node);
+        if (node instanceof ProjectNode ||
+                node instanceof ExchangeNode ||
+                (node instanceof AggregationNode && ((AggregationNode) node).getStep() == PARTIAL) ||
+                (node instanceof LimitNode && ((LimitNode) node).isPartial())) {
+            // added or split by the optimizers which run after the join distribution is chosen
+            List<String> sources = new ArrayList<>();
+            for (PlanNode source : node.getSources()) {
+                Optional<String> signature = appendSignature(source, lookup);
+                if (signature.isEmpty()) {
+                    return Optional.empty();
+                }
+                sources.add(signature.get());
+            }
+            return Optional.of(String.join(",", sources));
+        }
+
+        StringBuilder builder = new StringBuilder();
+        builder.append(node.getClass().getSimpleName()).append('[');
+        List<PlanNode> sources = node.getSources();
+        if (node instanceof TableScanNode) {
+            TableScanNode tableScan = (TableScanNode) node;
+            builder.append(tableScan.getTable())
+                    .append(tableScan.getAssignments())
+                    .append(tableScan.getEnforcedConstraint());
+        }
+        else if (node instanceof FilterNode) {
+            builder.append(((FilterNode) node).getPredicate());
+        }
+        else if (node instanceof AggregationNode) {
+            // the arguments of a final aggregation are the intermediate results of the partial one
+            AggregationNode aggregation = (AggregationNode) node;
+            builder.append(aggregation.getGroupingKeys());
+            aggregation.getAggregations().forEach((symbol, function) -> builder.append(symbol)
+                    .append(function.getResolvedFunction().getSignature())
+                    .append(function.isDistinct()));
+        }
+        else if (node instanceof JoinNode) {
+            JoinNode join = (JoinNode) node;
+            if (join.getType() == RIGHT) {
+                join = join.flipChildren();
+            }
+            List<String> criteria = join.getCriteria().stream()
+                    .map(JoinBuildSideHistory::normalizeClause)
+                    .sorted()
+                    .collect(toImmutableList());
+            builder.append(join.getType())
+                    .append(criteria)
+                    .append(join.getFilter());
+            sources = join.getSources();
+            if (join.getType() != LEFT) {
+                // the order of the sides of inner and full joins is chosen by the optimizers
+                Optional<String> left = appendSignature(sources.get(0), lookup);
+                Optional<String> right = appendSignature(sources.get(1), lookup);
+                if (left.isEmpty() || right.isEmpty()) {
+                    return Optional.empty();
+                }
+                List<String> sides = new ArrayList<>(List.of(left.get(), right.get()));
+                sides.sort(null);
+                builder.append(String.join(",", sides)).append(']');
+                return Optional.of(builder.toString());
+            }
+        }
+        else if (node instanceof ValuesNode) {
+            ValuesNode values = (ValuesNode) node;
+            builder.append(values.getRowCount())
+                    .append(values.getRows());
+        }
+        else if (node instanceof LimitNode) {
+            builder.append(((LimitNode) node).getCount());
+        }
+        else {
+            return Optional.empty();
+        }
+        for (PlanNode source : sources) {
+            Optional<String> signature = appendSignature(source, lookup);
+            if (signature.isEmpty()) {
+                return Optional.empty();
+            }
+            builder.append(signature.get());
+        }
+        builder.append(']');
+        return Optional.of(builder.toString());
+    }
+
+    private static String normalizeClause(EquiJoinClause clause)
+    {
+        String left = clause.getLeft().getName();
+        String right = clause.getRight().getName();
+        return left.compareTo(right) <= 0 ? left + "=" + right : right + "=" + left;
+    }
+}
@@ -13,9 +13,12 @@
  */
 package io.trino.dispatcher;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.AbstractFuture;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.trino.Session;
+import io.trino.client.ClientCapabilities;
 import io.trino.execution.QueryIdGenerator;
 import io.trino.execution.QueryInfo;
 import io.trino.execution.QueryManagerConfig;
@@ -27,12 +30,15 @@ import io.trino.execution.resourcegroups.ResourceGroupManager;
 import io.trino.metadata.SessionPropertyManager;
 import io.trino.security.AccessControl;
 import io.trino.server.BasicQueryInfo;
+import io.trino.server.ResourceGroupInfo;
+import io.trino.server.ServerConfig;
 import io.trino.server.SessionContext;
 import io.trino.server.SessionPropertyDefaults;
 import io.trino.server.SessionSupplier;
 import io.trino.server.protocol.Slug;
 import io.trino.spi.QueryId;
 import io.trino.spi.TrinoException;
+import io.trino.spi.resourcegroups.ResourceGroupId;
 import io.trino.spi.resourcegroups.SelectionContext;
 import io.trino.spi.resourcegroups.SelectionCriteria;
 import io.trino.transaction.TransactionManager;
@@ -49,12 +55,19 @@ import java.util.concurrent.Executor;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.math.LongMath.saturatedMultiply;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.trino.SystemSessionProperties.FORCE_SINGLE_NODE_OUTPUT;
+import static io.trino.SystemSessionProperties.TASK_SCHEDULING_GROUP;
+import static io.trino.SystemSessionProperties.TASK_SCHEDULING_WEIGHT;
 import static io.trino.execution.QueryState.QUEUED;
 import static io.trino.execution.QueryState.RUNNING;
+import static io.trino.spi.StandardErrorCode.INVALID_SESSION_PROPERTY;
 import static io.trino.spi.StandardErrorCode.QUERY_TEXT_TOO_LARGE;
 import static io.trino.util.StatementUtils.getQueryType;
 import static io.trino.util.StatementUtils.isTransactionControlStatement;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
@@ -71,6 +84,7 @@ public class DispatchManager
     private final SessionPropertyDefaults sessionPropertyDefaults;
 
     private final int maxQueryLength;
+    private final boolean directResultsDownloadEnabled;
 
     private final Executor dispatchExecutor;
 
@@ -90,6 +104,7 @@ public class DispatchManager
             SessionSupplier sessionSupplier,
             SessionPropertyDefaults sessionPropertyDefaults,
             QueryManagerConfig queryManagerConfig,
+            ServerConfig serverConfig,
             DispatchExecutor dispatchExecutor)
     {
         this.queryIdGenerator = requireNonNull(queryIdGenerator, "queryIdGenerator is null");
@@ -104,6 +119,7 @@ public class DispatchManager
 
         requireNonNull(queryManagerConfig, "queryManagerConfig is null");
         this.maxQueryLength = queryManagerConfig.getMaxQueryLength();
+        this.directResultsDownloadEnabled = requireNonNull(serverConfig, "serverConfig is null").isQueryResultsDirectDownloadEnabled();
 
         this.dispatchExecutor = requireNonNull(dispatchExecutor, "dispatchExecutor is null").getExecutor();
 
@@ -191,6 +207,8 @@ public class DispatchManager
 
             // apply system default session properties (does not override user set properties)
             session = sessionPropertyDefaults.newSessionWithDefaultProperties(session, queryType, selectionContext.getResourceGroupId());
+            session = withTaskSchedulingGroup(session, selectionContext.getResourceGroupId(), resourceGroupManager);
+            session = withDirectResults(session);
 
             // mark existing transaction as active
             transactionManager.activateTransaction(session, isTransactionControlStatement(preparedQuery.getStatement()), accessControl);
@@ -228,6 +246,49 @@ public class DispatchManager
         }
     }
 
+    /**
+     * Workers share their threads between the resource groups of the tasks, in proportion to the product of the
+     * scheduling weights of the groups on the path to the root group. A group which does not exist yet has the
+     * default weight for its first query. The properties are set by the coordinator only, so users cannot
+     * choose the group or the weight of their tasks.
+     */
+    private static Session withTaskSchedulingGroup(Session session, ResourceGroupId resourceGroupId, ResourceGroupManager<?> resourceGroupManager)
+    {
+        // defaults do not override set properties, and sessions in a transaction keep their properties
+        for (String property : ImmutableList.of(TASK_SCHEDULING_GROUP, TASK_SCHEDULING_WEIGHT)) {
+            if (session.getSystemProperties().containsKey(property)) {
+                throw new TrinoException(INVALID_SESSION_PROPERTY, format("Session property %s is set by the coordinator and cannot be set by users", property));
+            }
+        }
+        // properties cannot be added to a session in a transaction
+        if (session.getTransactionId().isPresent()) {
+            return session;
+        }
+        long weight = 1;
+        for (ResourceGroupInfo group : resourceGroupManager.tryGetPathToRoot(resourceGroupId).orElse(ImmutableList.of())) {
+            weight = saturatedMultiply(weight, max(group.getSchedulingWeight(), 1));
+        }
+        return session.withDefaultProperties(
+                ImmutableMap.of(
+                        TASK_SCHEDULING_GROUP, resourceGroupId.toString(),
+                        TASK_SCHEDULING_WEIGHT, String.valueOf(min(weight, Integer.MAX_VALUE))),
+                ImmutableMap.of());
+    }
+
+    /**
+     * Clients which download the results directly from the workers get one segment per task of the
+     * output stage, so the output stage is not forced to a single task, unless the session says so.
+     */
+    private Session withDirectResults(Session session)
+    {
+        if (!directResultsDownloadEnabled ||
+                !session.getClientCapabilities().contains(ClientCapabilities.DIRECT_RESULTS.toString()) ||
+                session.getTransactionId().isPresent()) {
+            return session;
+        }
+        return session.withDefaultProperties(ImmutableMap.of(FORCE_SINGLE_NODE_OUTPUT, "false"), ImmutableMap.of());
+    }
+
     private boolean queryCreated(DispatchQuery dispatchQuery)
     {
         boolean queryAdded = queryTracker.addQuery(dispatchQuery);
@@ -0,0 +1,48 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.exchange;
+
+import io.airlift.slice.SliceInput;
+import io.trino.execution.TaskId;
+import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
+import io.trino.spi.QueryId;
+
+/**
+ * Storage for the output of tasks, which is read by the tasks of the consuming stage instead of
+ * being fetched from the output buffers of the producing tasks. The output of a task becomes
+ * visible to readers only once it is committed, so the output of a failed attempt of a task is
+ * never read, and the task can be retried on another node.
+ */
+public interface ExchangeSpool
+{
+    /**
+     * Creates a sink for the output of an attempt of the task.
+     */
+    ExchangeSpoolSink createSink(TaskId taskId, String taskInstanceId);
+
+    /**
+     * Returns whether the output of the task was committed by one of its attempts.
+     */
+    boolean isCommitted(TaskId taskId);
+
+    /**
+     * Opens the serialized pages of the committed output of the task for the buffer.
+     */
+    SliceInput openBuffer(TaskId taskId, OutputBufferId bufferId);
+
+    /**
+     * Removes the output of all the tasks of the query.
+     */
+    void removeQuery(QueryId queryId);
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.exchange;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+public class ExchangeSpoolConfig
+{
+    private Optional<Path> spoolPath = Optional.empty();
+
+    public Optional<Path> getSpoolPath()
+    {
+        return spoolPath;
+    }
+
+    @Config("exchange.spool-path")
+    @ConfigDescription("Directory for spooled exchanges, which must be shared by all the nodes")
+    public ExchangeSpoolConfig setSpoolPath(String spoolPath)
+    {
+        this.spoolPath = Optional.ofNullable(spoolPath).map(Paths::get);
+        return this;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.exchange;
+
+import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
+import io.trino.execution.buffer.SerializedPage;
+
+import java.util.List;
+
+public interface ExchangeSpoolSink
+{
+    /**
+     * Appends the pages to the output for the buffer.
+     */
+    void add(OutputBufferId bufferId, List<SerializedPage> pages);
+
+    /**
+     * Appends the pages to the output for all the buffers.
+     */
+    void addBroadcast(List<SerializedPage> pages);
+
+    long getRetainedSizeInBytes();
+
+    /**
+     * Makes the output visible to readers. If another attempt of the task already
+     * committed its output, that output is kept and this one is discarded.
+     */
+    void commit();
+
+    /**
+     * Discards the output.
+     */
+    void abort();
+}
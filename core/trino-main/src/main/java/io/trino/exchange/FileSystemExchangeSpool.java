@@ -0,0 +1,242 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.exchange;
+
+import com.google.common.io.Closer;
+import io.airlift.log.Logger;
+import io.airlift.slice.InputStreamSliceInput;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+import io.trino.execution.TaskId;
+import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
+import io.trino.execution.buffer.SerializedPage;
+import io.trino.spi.QueryId;
+import io.trino.spi.TrinoException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.inject.Inject;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.slice.Slices.EMPTY_SLICE;
+import static io.trino.execution.buffer.PagesSerdeUtil.writeSerializedPages;
+import static io.trino.spi.StandardErrorCode.CONFIGURATION_INVALID;
+import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.isDirectory;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.newInputStream;
+import static java.nio.file.Files.newOutputStream;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ExchangeSpool} on a file system. The output of a task is written to a directory per
+ * attempt, with a file per buffer, and committed by renaming that directory to the directory of
+ * the task. Nodes can only read the output of tasks on other nodes when the spool directory is
+ * on a file system shared by all of them.
+ */
+public class FileSystemExchangeSpool
+        implements ExchangeSpool
+{
+    private static final Logger log = Logger.get(FileSystemExchangeSpool.class);
+
+    private static final String BROADCAST_FILE_NAME = "broadcast";
+    private static final String DATA_FILE_SUFFIX = ".data";
+    private static final String ATTEMPT_DIRECTORY_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Optional<Path> spoolPath;
+
+    @Inject
+    public FileSystemExchangeSpool(ExchangeSpoolConfig config)
+    {
+        this(config.getSpoolPath());
+    }
+
+    public FileSystemExchangeSpool(Optional<Path> spoolPath)
+    {
+        this.spoolPath = requireNonNull(spoolPath, "spoolPath is null");
+    }
+
+    @Override
+    public ExchangeSpoolSink createSink(TaskId taskId, String taskInstanceId)
+    {
+        Path attemptDirectory = getQueryDirectory(taskId.getQueryId()).resolve(taskId + "." + taskInstanceId + ATTEMPT_DIRECTORY_SUFFIX);
+        try {
+            createDirectories(attemptDirectory);
+        }
+        catch (IOException e) {
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to create exchange spool directory", e);
+        }
+        return new FileSystemExchangeSpoolSink(attemptDirectory, getTaskDirectory(taskId));
+    }
+
+    @Override
+    public boolean isCommitted(TaskId taskId)
+    {
+        return isDirectory(getTaskDirectory(taskId));
+    }
+
+    @Override
+    public SliceInput openBuffer(TaskId taskId, OutputBufferId bufferId)
+    {
+        Path taskDirectory = getTaskDirectory(taskId);
+        checkState(isDirectory(taskDirectory), "Output of task %s is not committed", taskId);
+        try {
+            for (String fileName : List.of(bufferId.toString(), BROADCAST_FILE_NAME)) {
+                Path file = taskDirectory.resolve(fileName + DATA_FILE_SUFFIX);
+                if (exists(file)) {
+                    return new InputStreamSliceInput(newInputStream(file), BUFFER_SIZE);
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to read from exchange spool", e);
+        }
+        // no pages were written for the buffer
+        return EMPTY_SLICE.getInput();
+    }
+
+    @Override
+    public void removeQuery(QueryId queryId)
+    {
+        Path queryDirectory = getQueryDirectory(queryId);
+        try {
+            deleteRecursively(queryDirectory, ALLOW_INSECURE);
+        }
+        catch (NoSuchFileException ignored) {
+            // no task of the query spooled its output
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn(e, "Failed to remove exchange spool directory %s", queryDirectory);
+        }
+    }
+
+    private Path getTaskDirectory(TaskId taskId)
+    {
+        return getQueryDirectory(taskId.getQueryId()).resolve(taskId.toString());
+    }
+
+    private Path getQueryDirectory(QueryId queryId)
+    {
+        return spoolPath
+                .orElseThrow(() -> new TrinoException(CONFIGURATION_INVALID, "Exchange spooling requires exchange.spool-path to be configured"))
+                .resolve(queryId.toString());
+    }
+
+    @NotThreadSafe
+    private static class FileSystemExchangeSpoolSink
+            implements ExchangeSpoolSink
+    {
+        private final Path attemptDirectory;
+        private final Path taskDirectory;
+        private final Map<String, SliceOutput> outputs = new HashMap<>();
+
+        public FileSystemExchangeSpoolSink(Path attemptDirectory, Path taskDirectory)
+        {
+            this.attemptDirectory = requireNonNull(attemptDirectory, "attemptDirectory is null");
+            this.taskDirectory = requireNonNull(taskDirectory, "taskDirectory is null");
+        }
+
+        @Override
+        public void add(OutputBufferId bufferId, List<SerializedPage> pages)
+        {
+            write(bufferId.toString(), pages);
+        }
+
+        @Override
+        public void addBroadcast(List<SerializedPage> pages)
+        {
+            write(BROADCAST_FILE_NAME, pages);
+        }
+
+        private void write(String fileName, List<SerializedPage> pages)
+        {
+            try {
+                SliceOutput output = outputs.get(fileName);
+                if (output == null) {
+                    output = new OutputStreamSliceOutput(newOutputStream(attemptDirectory.resolve(fileName + DATA_FILE_SUFFIX)), BUFFER_SIZE);
+                    outputs.put(fileName, output);
+                }
+                writeSerializedPages(output, pages);
+            }
+            catch (IOException e) {
+                throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to write to exchange spool", e);
+            }
+        }
+
+        @Override
+        public long getRetainedSizeInBytes()
+        {
+            return (long) outputs.size() * BUFFER_SIZE;
+        }
+
+        @Override
+        public void commit()
+        {
+            try {
+                closeOutputs();
+                if (!exists(taskDirectory)) {
+                    move(attemptDirectory, taskDirectory, ATOMIC_MOVE);
+                    return;
+                }
+            }
+            catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // another attempt committed at the same time
+            }
+            catch (IOException e) {
+                throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to commit exchange spool output", e);
+            }
+            abort();
+        }
+
+        @Override
+        public void abort()
+        {
+            try {
+                closeOutputs();
+                deleteRecursively(attemptDirectory, ALLOW_INSECURE);
+            }
+            catch (NoSuchFileException ignored) {
+                // the directory of the query was already removed
+            }
+            catch (IOException | RuntimeException e) {
+                log.warn(e, "Failed to remove exchange spool directory %s", attemptDirectory);
+            }
+        }
+
+        private void closeOutputs()
+                throws IOException
+        {
+            try (Closer closer = Closer.create()) {
+                outputs.values().forEach(closer::register);
+                outputs.clear();
+            }
+        }
+    }
+}
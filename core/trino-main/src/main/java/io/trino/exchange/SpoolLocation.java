@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.exchange;
+
+import io.trino.execution.TaskId;
+import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Location of the output of a task for a buffer in the {@link ExchangeSpool}. It is used as
+ * the location of a remote split in place of the URI of the output buffer of the task.
+ */
+public final class SpoolLocation
+{
+    private static final String SCHEME = "spool";
+
+    private final TaskId taskId;
+    private final OutputBufferId bufferId;
+
+    public SpoolLocation(TaskId taskId, OutputBufferId bufferId)
+    {
+        this.taskId = requireNonNull(taskId, "taskId is null");
+        this.bufferId = requireNonNull(bufferId, "bufferId is null");
+    }
+
+    public static boolean isSpoolLocation(URI location)
+    {
+        return SCHEME.equals(location.getScheme());
+    }
+
+    public static SpoolLocation fromUri(URI location)
+    {
+        checkArgument(isSpoolLocation(location), "Not a spool location: %s", location);
+        List<String> parts = List.of(location.getPath().split("/"));
+        checkArgument(parts.size() == 3 && parts.get(0).isEmpty(), "Invalid spool location: %s", location);
+        return new SpoolLocation(TaskId.valueOf(parts.get(1)), OutputBufferId.fromString(parts.get(2)));
+    }
+
+    public TaskId getTaskId()
+    {
+        return taskId;
+    }
+
+    public OutputBufferId getBufferId()
+    {
+        return bufferId;
+    }
+
+    public URI toUri()
+    {
+        return URI.create(SCHEME + ":/" + taskId + "/" + bufferId);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SpoolLocation that = (SpoolLocation) o;
+        return taskId.equals(that.taskId) &&
+                bufferId.equals(that.bufferId);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(taskId, bufferId);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("taskId", taskId)
+                .add("bufferId", bufferId)
+                .toString();
+    }
+}
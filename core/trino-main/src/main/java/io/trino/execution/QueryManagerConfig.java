@@ -57,6 +57,7 @@ public class QueryManagerConfig
 
     private Duration remoteTaskMaxErrorDuration = new Duration(5, TimeUnit.MINUTES);
     private int remoteTaskMaxCallbackThreads = 1000;
+    private boolean remoteTaskSmileEncodingEnabled;
 
     private String queryExecutionPolicy = "all-at-once";
     private Duration queryMaxRunTime = new Duration(100, TimeUnit.DAYS);
@@ -338,6 +339,19 @@ public class QueryManagerConfig
         return this;
     }
 
+    public boolean isRemoteTaskSmileEncodingEnabled()
+    {
+        return remoteTaskSmileEncodingEnabled;
+    }
+
+    @Config("query.remote-task.smile-encoding-enabled")
+    @ConfigDescription("Request task status and task info from workers in the binary Smile format instead of JSON")
+    public QueryManagerConfig setRemoteTaskSmileEncodingEnabled(boolean remoteTaskSmileEncodingEnabled)
+    {
+        this.remoteTaskSmileEncodingEnabled = remoteTaskSmileEncodingEnabled;
+        return this;
+    }
+
     @NotNull
     public String getQueryExecutionPolicy()
     {
@@ -22,7 +22,9 @@ import io.trino.Session;
 import io.trino.SystemSessionProperties;
 import io.trino.connector.CatalogName;
 import io.trino.cost.CostCalculator;
+import io.trino.cost.JoinBuildSideHistory;
 import io.trino.cost.StatsCalculator;
+import io.trino.exchange.ExchangeSpool;
 import io.trino.execution.QueryPreparer.PreparedQuery;
 import io.trino.execution.StateMachine.StateChangeListener;
 import io.trino.execution.buffer.OutputBuffers;
@@ -86,8 +88,11 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Throwables.throwIfInstanceOf;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.units.DataSize.succinctBytes;
+import static io.trino.SystemSessionProperties.isAdaptiveJoinDistributionEnabled;
 import static io.trino.SystemSessionProperties.isEnableDynamicFiltering;
+import static io.trino.SystemSessionProperties.isExchangeSpoolingEnabled;
 import static io.trino.execution.QueryState.FAILED;
+import static io.trino.execution.QueryState.FINISHED;
 import static io.trino.execution.QueryState.PLANNING;
 import static io.trino.execution.buffer.OutputBuffers.BROADCAST_PARTITION_ID;
 import static io.trino.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
@@ -132,6 +137,7 @@ public class SqlQueryExecution
     private final StatsCalculator statsCalculator;
     private final CostCalculator costCalculator;
     private final DynamicFilterService dynamicFilterService;
+    private final JoinBuildSideHistory joinBuildSideHistory;
 
     private SqlQueryExecution(
             PreparedQuery preparedQuery,
@@ -159,6 +165,8 @@ public class SqlQueryExecution
             StatsCalculator statsCalculator,
             CostCalculator costCalculator,
             DynamicFilterService dynamicFilterService,
+            JoinBuildSideHistory joinBuildSideHistory,
+            ExchangeSpool exchangeSpool,
             WarningCollector warningCollector)
     {
         try (SetThreadName ignored = new SetThreadName("Query-%s", stateMachine.getQueryId())) {
@@ -180,6 +188,8 @@ public class SqlQueryExecution
             this.statsCalculator = requireNonNull(statsCalculator, "statsCalculator is null");
             this.costCalculator = requireNonNull(costCalculator, "costCalculator is null");
             this.dynamicFilterService = requireNonNull(dynamicFilterService, "dynamicFilterService is null");
+            this.joinBuildSideHistory = requireNonNull(joinBuildSideHistory, "joinBuildSideHistory is null");
+            requireNonNull(exchangeSpool, "exchangeSpool is null");
 
             checkArgument(scheduleSplitBatchSize > 0, "scheduleSplitBatchSize must be greater than 0");
             this.scheduleSplitBatchSize = scheduleSplitBatchSize;
@@ -197,6 +207,21 @@ public class SqlQueryExecution
                         dynamicFilterService.getDynamicFilteringStats(stateMachine.getQueryId(), stateMachine.getSession()));
             });
 
+            // record the actual size of join build sides of the final plan for planning of subsequent queries
+            if (isAdaptiveJoinDistributionEnabled(stateMachine.getSession())) {
+                stateMachine.addQueryInfoStateChangeListener(finalQueryInfo -> {
+                    Plan plan = queryPlan.get();
+                    if (finalQueryInfo.getState() == FINISHED && plan != null) {
+                        finalQueryInfo.getOutputStage().ifPresent(outputStage -> joinBuildSideHistory.recordBuildSideSizes(plan.getRoot(), outputStage));
+                    }
+                });
+            }
+
+            // the spooled output of the stages is removed once all the tasks are done
+            if (isExchangeSpoolingEnabled(stateMachine.getSession())) {
+                stateMachine.addQueryInfoStateChangeListener(finalQueryInfo -> exchangeSpool.removeQuery(finalQueryInfo.getQueryId()));
+            }
+
             // when the query finishes cache the final query info, and clear the reference to the output stage
             AtomicReference<SqlQueryScheduler> queryScheduler = this.queryScheduler;
             stateMachine.addStateChangeListener(state -> {
@@ -735,6 +760,8 @@ public class SqlQueryExecution
         private final StatsCalculator statsCalculator;
         private final CostCalculator costCalculator;
         private final DynamicFilterService dynamicFilterService;
+        private final JoinBuildSideHistory joinBuildSideHistory;
+        private final ExchangeSpool exchangeSpool;
 
         @Inject
         SqlQueryExecutionFactory(
@@ -759,7 +786,9 @@ public class SqlQueryExecution
                 SplitSchedulerStats schedulerStats,
                 StatsCalculator statsCalculator,
                 CostCalculator costCalculator,
-                DynamicFilterService dynamicFilterService)
+                DynamicFilterService dynamicFilterService,
+                JoinBuildSideHistory joinBuildSideHistory,
+                ExchangeSpool exchangeSpool)
         {
             requireNonNull(config, "config is null");
             this.schedulerStats = requireNonNull(schedulerStats, "schedulerStats is null");
@@ -784,6 +813,8 @@ public class SqlQueryExecution
             this.statsCalculator = requireNonNull(statsCalculator, "statsCalculator is null");
             this.costCalculator = requireNonNull(costCalculator, "costCalculator is null");
             this.dynamicFilterService = requireNonNull(dynamicFilterService, "dynamicFilterService is null");
+            this.joinBuildSideHistory = requireNonNull(joinBuildSideHistory, "joinBuildSideHistory is null");
+            this.exchangeSpool = requireNonNull(exchangeSpool, "exchangeSpool is null");
         }
 
         @Override
@@ -823,6 +854,8 @@ public class SqlQueryExecution
                     statsCalculator,
                     costCalculator,
                     dynamicFilterService,
+                    joinBuildSideHistory,
+                    exchangeSpool,
                     warningCollector);
         }
     }
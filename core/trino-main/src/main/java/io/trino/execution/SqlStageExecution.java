@@ -13,21 +13,28 @@
  */
 package io.trino.execution;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import io.airlift.log.Logger;
 import io.airlift.units.Duration;
 import io.trino.Session;
+import io.trino.exchange.SpoolLocation;
 import io.trino.execution.StateMachine.StateChangeListener;
 import io.trino.execution.buffer.OutputBuffers;
+import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
+import io.trino.execution.scheduler.NodeSelector;
 import io.trino.execution.scheduler.SplitSchedulerStats;
 import io.trino.failuredetector.FailureDetector;
 import io.trino.metadata.InternalNode;
 import io.trino.metadata.Split;
 import io.trino.server.DynamicFilterService;
+import io.trino.spi.ErrorType;
+import io.trino.spi.HostAddress;
 import io.trino.spi.TrinoException;
 import io.trino.split.RemoteSplit;
 import io.trino.sql.planner.PlanFragment;
@@ -41,6 +48,7 @@ import javax.annotation.concurrent.ThreadSafe;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -64,13 +72,18 @@ import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
 import static io.trino.failuredetector.FailureDetector.State.GONE;
 import static io.trino.operator.ExchangeOperator.REMOTE_CONNECTOR_ID;
+import static io.trino.spi.ErrorType.INSUFFICIENT_RESOURCES;
+import static io.trino.spi.ErrorType.USER_ERROR;
 import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static io.trino.spi.StandardErrorCode.REMOTE_HOST_GONE;
+import static java.lang.Math.max;
 import static java.util.Objects.requireNonNull;
 
 @ThreadSafe
 public final class SqlStageExecution
 {
+    private static final Logger log = Logger.get(SqlStageExecution.class);
+
     private final StageStateMachine stateMachine;
     private final RemoteTaskFactory remoteTaskFactory;
     private final NodeTaskMap nodeTaskMap;
@@ -78,10 +91,18 @@ public final class SqlStageExecution
     private final Executor executor;
     private final FailureDetector failureDetector;
     private final DynamicFilterService dynamicFilterService;
+    // the output of the tasks is written to the exchange spool
+    private final boolean outputSpooled;
+    // the output of the source stages is read from the exchange spool
+    private final boolean inputsSpooled;
+    private final int maxTaskRetries;
+    private final Optional<NodeSelector> retryNodeSelector;
 
     private final Map<PlanFragmentId, RemoteSourceNode> exchangeSources;
 
+    // failed tasks which are retried are replaced by the new attempt under the node of the first attempt
     private final Map<InternalNode, Set<RemoteTask>> tasks = new ConcurrentHashMap<>();
+    private final Map<TaskId, RemoteTask> currentAttempts = new ConcurrentHashMap<>();
 
     @GuardedBy("this")
     private final AtomicInteger nextTaskId = new AtomicInteger();
@@ -103,6 +124,21 @@ public final class SqlStageExecution
     @GuardedBy("this")
     private final Set<PlanFragmentId> completeSourceFragments = newConcurrentHashSet();
 
+    // splits of the partitioned sources, which are assigned again to the retry of a task
+    @GuardedBy("this")
+    private final Map<TaskId, Multimap<PlanNodeId, Split>> taskSplits = new HashMap<>();
+    @GuardedBy("this")
+    private final Multimap<TaskId, PlanNodeId> taskNoMoreSplits = HashMultimap.create();
+    @GuardedBy("this")
+    private final Map<TaskId, OptionalInt> taskTotalPartitions = new HashMap<>();
+    @GuardedBy("this")
+    private final Map<TaskId, InternalNode> taskNodes = new HashMap<>();
+    @GuardedBy("this")
+    private final Map<TaskId, Integer> taskRetries = new HashMap<>();
+    // nodes on which an attempt of the task failed, which are not selected for its retries
+    @GuardedBy("this")
+    private final Multimap<TaskId, InternalNode> taskFailedNodes = HashMultimap.create();
+
     private final AtomicReference<OutputBuffers> outputBuffers = new AtomicReference<>();
 
     private final ListenerManager<Set<Lifespan>> completedLifespansChangeListeners = new ListenerManager<>();
@@ -119,6 +155,41 @@ public final class SqlStageExecution
             FailureDetector failureDetector,
             DynamicFilterService dynamicFilterService,
             SplitSchedulerStats schedulerStats)
+    {
+        return createSqlStageExecution(
+                stageId,
+                fragment,
+                tables,
+                remoteTaskFactory,
+                session,
+                summarizeTaskInfo,
+                nodeTaskMap,
+                executor,
+                failureDetector,
+                dynamicFilterService,
+                schedulerStats,
+                false,
+                false,
+                0,
+                Optional.empty());
+    }
+
+    public static SqlStageExecution createSqlStageExecution(
+            StageId stageId,
+            PlanFragment fragment,
+            Map<PlanNodeId, TableInfo> tables,
+            RemoteTaskFactory remoteTaskFactory,
+            Session session,
+            boolean summarizeTaskInfo,
+            NodeTaskMap nodeTaskMap,
+            ExecutorService executor,
+            FailureDetector failureDetector,
+            DynamicFilterService dynamicFilterService,
+            SplitSchedulerStats schedulerStats,
+            boolean outputSpooled,
+            boolean inputsSpooled,
+            int maxTaskRetries,
+            Optional<NodeSelector> retryNodeSelector)
     {
         requireNonNull(stageId, "stageId is null");
         requireNonNull(fragment, "fragment is null");
@@ -130,6 +201,8 @@ public final class SqlStageExecution
         requireNonNull(failureDetector, "failureDetector is null");
         requireNonNull(dynamicFilterService, "dynamicFilterService is null");
         requireNonNull(schedulerStats, "schedulerStats is null");
+        checkArgument(maxTaskRetries >= 0, "maxTaskRetries is negative");
+        checkArgument(maxTaskRetries == 0 || retryNodeSelector.isPresent(), "retryNodeSelector is required to retry tasks");
 
         SqlStageExecution sqlStageExecution = new SqlStageExecution(
                 new StageStateMachine(stageId, session, fragment, tables, executor, schedulerStats),
@@ -138,7 +211,11 @@ public final class SqlStageExecution
                 summarizeTaskInfo,
                 executor,
                 failureDetector,
-                dynamicFilterService);
+                dynamicFilterService,
+                outputSpooled,
+                inputsSpooled,
+                maxTaskRetries,
+                retryNodeSelector);
         sqlStageExecution.initialize();
         return sqlStageExecution;
     }
@@ -150,7 +227,11 @@ public final class SqlStageExecution
             boolean summarizeTaskInfo,
             Executor executor,
             FailureDetector failureDetector,
-            DynamicFilterService dynamicFilterService)
+            DynamicFilterService dynamicFilterService,
+            boolean outputSpooled,
+            boolean inputsSpooled,
+            int maxTaskRetries,
+            Optional<NodeSelector> retryNodeSelector)
     {
         this.stateMachine = stateMachine;
         this.remoteTaskFactory = requireNonNull(remoteTaskFactory, "remoteTaskFactory is null");
@@ -159,6 +240,10 @@ public final class SqlStageExecution
         this.executor = requireNonNull(executor, "executor is null");
         this.failureDetector = requireNonNull(failureDetector, "failureDetector is null");
         this.dynamicFilterService = requireNonNull(dynamicFilterService, "dynamicFilterService is null");
+        this.outputSpooled = outputSpooled;
+        this.inputsSpooled = inputsSpooled;
+        this.maxTaskRetries = maxTaskRetries;
+        this.retryNodeSelector = requireNonNull(retryNodeSelector, "retryNodeSelector is null");
 
         ImmutableMap.Builder<PlanFragmentId, RemoteSourceNode> fragmentToExchangeSource = ImmutableMap.builder();
         for (RemoteSourceNode remoteSourceNode : stateMachine.getFragment().getRemoteSourceNodes()) {
@@ -324,8 +409,7 @@ public final class SqlStageExecution
         for (RemoteTask task : getAllTasks()) {
             ImmutableMultimap.Builder<PlanNodeId, Split> newSplits = ImmutableMultimap.builder();
             for (RemoteTask sourceTask : sourceTasks) {
-                URI exchangeLocation = sourceTask.getTaskStatus().getSelf();
-                newSplits.put(remoteSource.getId(), createRemoteSplitFor(task.getTaskId(), exchangeLocation));
+                newSplits.put(remoteSource.getId(), createRemoteSplitFor(task.getTaskId(), sourceTask));
             }
             task.addSplits(newSplits.build());
         }
@@ -346,6 +430,9 @@ public final class SqlStageExecution
     public synchronized void setOutputBuffers(OutputBuffers outputBuffers)
     {
         requireNonNull(outputBuffers, "outputBuffers is null");
+        if (outputSpooled) {
+            outputBuffers = outputBuffers.withSpooling();
+        }
 
         while (true) {
             OutputBuffers currentOutputBuffers = this.outputBuffers.get();
@@ -417,6 +504,9 @@ public final class SqlStageExecution
         else {
             task = tasks.iterator().next();
             task.addSplits(splits);
+            if (isTaskRetryEnabled()) {
+                taskSplits.get(task.getTaskId()).putAll(splits);
+            }
         }
         if (noMoreSplitsNotification.size() > 1) {
             // The assumption that `noMoreSplitsNotification.size() <= 1` currently holds.
@@ -426,6 +516,9 @@ public final class SqlStageExecution
         }
         for (Entry<PlanNodeId, Lifespan> entry : noMoreSplitsNotification.entries()) {
             task.noMoreSplits(entry.getKey(), entry.getValue());
+            if (isTaskRetryEnabled() && entry.getValue().isTaskWide()) {
+                taskNoMoreSplits.put(task.getTaskId(), entry.getKey());
+            }
         }
         return newTasks.build();
     }
@@ -434,13 +527,27 @@ public final class SqlStageExecution
     {
         checkArgument(!allTasks.contains(taskId), "A task with id %s already exists", taskId);
 
+        RemoteTask task = createTask(node, taskId, sourceSplits, totalPartitions);
+        if (isTaskRetryEnabled()) {
+            taskSplits.put(taskId, ArrayListMultimap.create(sourceSplits));
+            taskTotalPartitions.put(taskId, totalPartitions);
+        }
+
+        allTasks.add(taskId);
+        tasks.computeIfAbsent(node, key -> newConcurrentHashSet()).add(task);
+        startTask(task);
+        return task;
+    }
+
+    private synchronized RemoteTask createTask(InternalNode node, TaskId taskId, Multimap<PlanNodeId, Split> sourceSplits, OptionalInt totalPartitions)
+    {
         ImmutableMultimap.Builder<PlanNodeId, Split> initialSplits = ImmutableMultimap.builder();
         initialSplits.putAll(sourceSplits);
 
         sourceTasks.forEach((planNodeId, task) -> {
-            TaskStatus status = task.getTaskStatus();
-            if (status.getState() != TaskState.FINISHED) {
-                initialSplits.put(planNodeId, createRemoteSplitFor(taskId, status.getSelf()));
+            // the output of finished tasks is still available in the exchange spool
+            if (inputsSpooled || task.getTaskStatus().getState() != TaskState.FINISHED) {
+                initialSplits.put(planNodeId, createRemoteSplitFor(taskId, task));
             }
         });
 
@@ -460,13 +567,21 @@ public final class SqlStageExecution
 
         completeSources.forEach(task::noMoreSplits);
 
-        allTasks.add(taskId);
-        tasks.computeIfAbsent(node, key -> newConcurrentHashSet()).add(task);
+        currentAttempts.put(taskId, task);
+        taskNodes.put(taskId, node);
         nodeTaskMap.addTask(node, task);
 
-        task.addStateChangeListener(new StageTaskListener());
-        task.addFinalTaskInfoListener(this::updateFinalTaskInfo);
+        task.addStateChangeListener(new StageTaskListener(task));
+        task.addFinalTaskInfoListener(taskInfo -> {
+            if (isCurrentAttempt(task)) {
+                updateFinalTaskInfo(taskInfo);
+            }
+        });
+        return task;
+    }
 
+    private synchronized void startTask(RemoteTask task)
+    {
         if (!stateMachine.getState().isDone()) {
             task.start();
         }
@@ -474,8 +589,97 @@ public final class SqlStageExecution
             // stage finished while we were scheduling this task
             task.abort();
         }
+    }
 
-        return task;
+    private boolean isCurrentAttempt(RemoteTask task)
+    {
+        return currentAttempts.get(task.getTaskId()) == task;
+    }
+
+    private boolean isTaskRetryEnabled()
+    {
+        // a task can only be retried when its output is not read before it is committed, and its input can be read again
+        return outputSpooled &&
+                maxTaskRetries > 0 &&
+                (inputsSpooled || stateMachine.getFragment().getRemoteSourceNodes().isEmpty()) &&
+                !stateMachine.getFragment().getStageExecutionDescriptor().isStageGroupedExecution();
+    }
+
+    /**
+     * Replaces the failed attempt of a task with a new attempt on a node it has not failed on, which gets the same splits.
+     * The new attempt has the same task id, so that the consumers read its output from the exchange spool.
+     */
+    @GuardedBy("this")
+    private boolean retryTask(RemoteTask failedTask, TaskStatus taskStatus)
+    {
+        if (!isTaskRetryEnabled()) {
+            return false;
+        }
+        boolean retryable = taskStatus.getFailures().stream()
+                .map(ExecutionFailureInfo::getErrorCode)
+                .allMatch(errorCode -> errorCode == null || isRetryable(errorCode.getType()));
+        TaskId taskId = failedTask.getTaskId();
+        int retries = taskRetries.getOrDefault(taskId, 0);
+        if (!retryable || retries >= maxTaskRetries) {
+            return false;
+        }
+
+        InternalNode failedNode = taskNodes.get(taskId);
+        taskFailedNodes.put(taskId, failedNode);
+        Optional<InternalNode> retryNode = selectRetryNode(taskId);
+        if (retryNode.isEmpty()) {
+            return false;
+        }
+        InternalNode node = retryNode.get();
+        taskRetries.put(taskId, retries + 1);
+        log.debug("Retrying task %s failed on node %s on node %s", taskId, failedNode.getNodeIdentifier(), node.getNodeIdentifier());
+
+        RemoteTask task = createTask(node, taskId, taskSplits.get(taskId), taskTotalPartitions.get(taskId));
+        for (PlanNodeId source : taskNoMoreSplits.get(taskId)) {
+            task.noMoreSplits(source, Lifespan.taskWide());
+        }
+        for (Set<RemoteTask> nodeTasks : tasks.values()) {
+            if (nodeTasks.remove(failedTask)) {
+                nodeTasks.add(task);
+            }
+        }
+        flushingTasks.remove(taskId);
+        startTask(task);
+        return true;
+    }
+
+    /**
+     * Selects a node on which no attempt of the task failed, and which can read all the splits of the task
+     */
+    @GuardedBy("this")
+    private Optional<InternalNode> selectRetryNode(TaskId taskId)
+    {
+        NodeSelector nodeSelector = retryNodeSelector.orElseThrow();
+        Set<InternalNode> excludedNodes = ImmutableSet.copyOf(taskFailedNodes.get(taskId));
+        List<Split> localSplits = taskSplits.get(taskId).values().stream()
+                .filter(split -> !split.getCatalogName().equals(REMOTE_CONNECTOR_ID) && !split.isRemotelyAccessible())
+                .collect(toImmutableList());
+        if (localSplits.isEmpty()) {
+            return nodeSelector.selectRandomNodes(1, excludedNodes).stream().findFirst();
+        }
+        // splits which are not remotely accessible are only read on the nodes at their addresses
+        return nodeSelector.selectRandomNodes(max(nodeSelector.allNodes().size(), 1), excludedNodes).stream()
+                .filter(node -> localSplits.stream().allMatch(split -> isAddressOf(node, split.getAddresses())))
+                .findFirst();
+    }
+
+    private static boolean isAddressOf(InternalNode node, List<HostAddress> addresses)
+    {
+        HostAddress nodeAddress = node.getHostAndPort();
+        // an address without a port is the address of all the nodes on the host
+        return addresses.stream()
+                .anyMatch(address -> address.hasPort() ? address.equals(nodeAddress) : address.getHostText().equals(nodeAddress.getHostText()));
+    }
+
+    private static boolean isRetryable(ErrorType errorType)
+    {
+        // the same failure is expected from another attempt
+        return errorType != USER_ERROR && errorType != INSUFFICIENT_RESOURCES;
     }
 
     public Set<InternalNode> getScheduledNodes()
@@ -488,18 +692,25 @@ public final class SqlStageExecution
         stateMachine.recordGetSplitTime(start);
     }
 
-    private static Split createRemoteSplitFor(TaskId taskId, URI taskLocation)
+    private Split createRemoteSplitFor(TaskId taskId, RemoteTask sourceTask)
     {
         // Fetch the results from the buffer assigned to the task based on id
-        URI splitLocation = uriBuilderFrom(taskLocation).appendPath("results").appendPath(String.valueOf(taskId.getId())).build();
+        URI splitLocation;
+        if (inputsSpooled) {
+            splitLocation = new SpoolLocation(sourceTask.getTaskId(), new OutputBufferId(taskId.getId())).toUri();
+        }
+        else {
+            splitLocation = uriBuilderFrom(sourceTask.getTaskStatus().getSelf()).appendPath("results").appendPath(String.valueOf(taskId.getId())).build();
+        }
         return new Split(REMOTE_CONNECTOR_ID, new RemoteSplit(splitLocation), Lifespan.taskWide());
     }
 
-    private synchronized void updateTaskStatus(TaskStatus taskStatus)
+    private synchronized void updateTaskStatus(RemoteTask task, TaskStatus taskStatus)
     {
         try {
             StageState stageState = getState();
-            if (stageState.isDone()) {
+            // the status of a replaced attempt is ignored
+            if (stageState.isDone() || !isCurrentAttempt(task)) {
                 return;
             }
 
@@ -507,6 +718,9 @@ public final class SqlStageExecution
 
             switch (taskState) {
                 case FAILED:
+                    if (retryTask(task, taskStatus)) {
+                        break;
+                    }
                     RuntimeException failure = taskStatus.getFailures().stream()
                             .findFirst()
                             .map(this::rewriteTransportFailure)
@@ -607,20 +821,28 @@ public final class SqlStageExecution
     private class StageTaskListener
             implements StateChangeListener<TaskStatus>
     {
+        private final RemoteTask task;
         private long previousUserMemory;
         private long previousSystemMemory;
         private long previousRevocableMemory;
         private final Set<Lifespan> completedDriverGroups = new HashSet<>();
 
+        public StageTaskListener(RemoteTask task)
+        {
+            this.task = requireNonNull(task, "task is null");
+        }
+
         @Override
         public void stateChanged(TaskStatus taskStatus)
         {
             try {
                 updateMemoryUsage(taskStatus);
-                updateCompletedDriverGroups(taskStatus);
+                if (isCurrentAttempt(task)) {
+                    updateCompletedDriverGroups(taskStatus);
+                }
             }
             finally {
-                updateTaskStatus(taskStatus);
+                updateTaskStatus(task, taskStatus);
             }
         }
 
@@ -70,10 +70,13 @@ import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static io.trino.SystemSessionProperties.getInitialSplitsPerNode;
 import static io.trino.SystemSessionProperties.getMaxDriversPerTask;
 import static io.trino.SystemSessionProperties.getSplitConcurrencyAdjustmentInterval;
+import static io.trino.SystemSessionProperties.getTaskSchedulingGroup;
+import static io.trino.SystemSessionProperties.getTaskSchedulingWeight;
 import static io.trino.execution.SqlTaskExecution.SplitsState.ADDING_SPLITS;
 import static io.trino.execution.SqlTaskExecution.SplitsState.FINISHED;
 import static io.trino.execution.SqlTaskExecution.SplitsState.NO_MORE_SPLITS;
 import static io.trino.operator.PipelineExecutionStrategy.UNGROUPED_EXECUTION;
+import static java.lang.Math.max;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 import static java.util.function.Function.identity;
@@ -258,6 +261,8 @@ public class SqlTaskExecution
     {
         TaskHandle taskHandle = taskExecutor.addTask(
                 taskStateMachine.getTaskId(),
+                getTaskSchedulingGroup(taskContext.getSession()),
+                max(getTaskSchedulingWeight(taskContext.getSession()), 1),
                 outputBuffer::getUtilization,
                 getInitialSplitsPerNode(taskContext.getSession()),
                 getSplitConcurrencyAdjustmentInterval(taskContext.getSession()),
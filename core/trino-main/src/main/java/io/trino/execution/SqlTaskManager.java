@@ -28,6 +28,7 @@ import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.trino.Session;
 import io.trino.event.SplitMonitor;
+import io.trino.exchange.ExchangeSpool;
 import io.trino.execution.DynamicFiltersCollector.VersionedDynamicFilterDomains;
 import io.trino.execution.StateMachine.StateChangeListener;
 import io.trino.execution.buffer.BufferResult;
@@ -42,6 +43,7 @@ import io.trino.memory.NodeMemoryConfig;
 import io.trino.memory.QueryContext;
 import io.trino.spi.QueryId;
 import io.trino.spi.TrinoException;
+import io.trino.spi.type.Type;
 import io.trino.spiller.LocalSpillManager;
 import io.trino.spiller.NodeSpillConfig;
 import io.trino.sql.planner.LocalExecutionPlanner;
@@ -131,10 +133,12 @@ public class SqlTaskManager
             NodeMemoryConfig nodeMemoryConfig,
             LocalSpillManager localSpillManager,
             NodeSpillConfig nodeSpillConfig,
-            GcMonitor gcMonitor)
+            GcMonitor gcMonitor,
+            ExchangeSpool exchangeSpool)
     {
         requireNonNull(nodeInfo, "nodeInfo is null");
         requireNonNull(config, "config is null");
+        requireNonNull(exchangeSpool, "exchangeSpool is null");
         infoCacheTime = config.getInfoMaxAge();
         clientTimeout = config.getClientTimeout();
 
@@ -172,6 +176,7 @@ public class SqlTaskManager
                         sqlTask -> finishedTaskStats.merge(sqlTask.getIoStats()),
                         maxBufferSize,
                         maxBroadcastBufferSize,
+                        exchangeSpool,
                         failedTasks)));
     }
 
@@ -414,6 +419,22 @@ public class SqlTaskManager
         return tasks.getUnchecked(taskId).getTaskResults(bufferId, startingSequenceId, maxSize);
     }
 
+    @Override
+    public Optional<List<Type>> getTaskOutputTypes(TaskId taskId)
+    {
+        requireNonNull(taskId, "taskId is null");
+
+        return tasks.getUnchecked(taskId).getOutputTypes();
+    }
+
+    @Override
+    public Optional<String> getTaskUser(TaskId taskId)
+    {
+        requireNonNull(taskId, "taskId is null");
+
+        return tasks.getUnchecked(taskId).getUser();
+    }
+
     @Override
     public void acknowledgeTaskResults(TaskId taskId, OutputBufferId bufferId, long sequenceId)
     {
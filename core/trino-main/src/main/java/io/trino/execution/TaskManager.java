@@ -22,6 +22,7 @@ import io.trino.execution.buffer.BufferResult;
 import io.trino.execution.buffer.OutputBuffers;
 import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
 import io.trino.memory.MemoryPoolAssignmentsRequest;
+import io.trino.spi.type.Type;
 import io.trino.sql.planner.PlanFragment;
 
 import java.util.List;
@@ -110,6 +111,16 @@ public interface TaskManager
      */
     ListenableFuture<BufferResult> getTaskResults(TaskId taskId, OutputBufferId bufferId, long startingSequenceId, DataSize maxSize);
 
+    /**
+     * Gets the types of the results of a task, if the task has been created with its fragment.
+     */
+    Optional<List<Type>> getTaskOutputTypes(TaskId taskId);
+
+    /**
+     * Gets the user running a task, if the task has been created with its fragment.
+     */
+    Optional<String> getTaskUser(TaskId taskId);
+
     /**
      * Acknowledges previously received results.
      */
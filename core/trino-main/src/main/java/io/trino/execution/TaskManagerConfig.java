@@ -74,6 +74,10 @@ public class TaskManagerConfig
     private int taskYieldThreads = 3;
 
     private BigDecimal levelTimeMultiplier = new BigDecimal(2.0);
+    private int splitQueueStripes = 1;
+    private boolean offloadBlockingPageSources;
+    private int blockingPageSourceThreads = 100;
+    private boolean resourceGroupSchedulingEnabled;
 
     @MinDuration("1ms")
     @MaxDuration("10s")
@@ -209,6 +213,60 @@ public class TaskManagerConfig
         return this;
     }
 
+    @Min(1)
+    public int getSplitQueueStripes()
+    {
+        return splitQueueStripes;
+    }
+
+    @Config("task.split-queue-stripes")
+    @ConfigDescription("Number of independently locked parts of the queue of splits waiting for a thread")
+    public TaskManagerConfig setSplitQueueStripes(int splitQueueStripes)
+    {
+        this.splitQueueStripes = splitQueueStripes;
+        return this;
+    }
+
+    public boolean isOffloadBlockingPageSources()
+    {
+        return offloadBlockingPageSources;
+    }
+
+    @Config("task.offload-blocking-page-sources")
+    @ConfigDescription("Read from connectors which block on I/O on a separate thread pool, instead of on the threads processing splits")
+    public TaskManagerConfig setOffloadBlockingPageSources(boolean offloadBlockingPageSources)
+    {
+        this.offloadBlockingPageSources = offloadBlockingPageSources;
+        return this;
+    }
+
+    @Min(1)
+    public int getBlockingPageSourceThreads()
+    {
+        return blockingPageSourceThreads;
+    }
+
+    @Config("task.blocking-page-source-threads")
+    @ConfigDescription("Maximum number of threads reading from connectors which block on I/O")
+    public TaskManagerConfig setBlockingPageSourceThreads(int blockingPageSourceThreads)
+    {
+        this.blockingPageSourceThreads = blockingPageSourceThreads;
+        return this;
+    }
+
+    public boolean isResourceGroupSchedulingEnabled()
+    {
+        return resourceGroupSchedulingEnabled;
+    }
+
+    @Config("task.resource-group-scheduling-enabled")
+    @ConfigDescription("Share worker threads between resource groups in proportion to their scheduling weights")
+    public TaskManagerConfig setResourceGroupSchedulingEnabled(boolean resourceGroupSchedulingEnabled)
+    {
+        this.resourceGroupSchedulingEnabled = resourceGroupSchedulingEnabled;
+        return this;
+    }
+
     @Min(1)
     public int getMaxWorkerThreads()
     {
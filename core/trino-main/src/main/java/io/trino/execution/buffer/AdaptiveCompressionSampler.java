@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.buffer;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.spi.Page;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.Math.min;
+
+/**
+ * Decides whether pages are worth compressing, based on how well earlier pages with the same
+ * block encodings compressed. After a page which does not compress, an increasing number of
+ * pages with the same encodings are serialized without trying to compress them, so that
+ * incompressible columns, like random or already encoded values, do not cost compression time.
+ */
+@NotThreadSafe
+class AdaptiveCompressionSampler
+{
+    private static final int MAX_SKIPPED_PAGES = 64;
+    private static final int MAX_TRACKED_ENCODINGS = 128;
+
+    private final Map<List<String>, EncodingsStatistics> statistics = new HashMap<>();
+
+    EncodingsStatistics getStatistics(Page page)
+    {
+        ImmutableList.Builder<String> encodings = ImmutableList.builderWithExpectedSize(page.getChannelCount());
+        for (int channel = 0; channel < page.getChannelCount(); channel++) {
+            encodings.add(page.getBlock(channel).getEncodingName());
+        }
+        if (statistics.size() >= MAX_TRACKED_ENCODINGS) {
+            statistics.clear();
+        }
+        return statistics.computeIfAbsent(encodings.build(), ignored -> new EncodingsStatistics());
+    }
+
+    static class EncodingsStatistics
+    {
+        private int skipInterval;
+        private int pagesToSkip;
+
+        boolean shouldCompress()
+        {
+            if (pagesToSkip > 0) {
+                pagesToSkip--;
+                return false;
+            }
+            return true;
+        }
+
+        void recordCompression(boolean compressible)
+        {
+            if (compressible) {
+                skipInterval = 0;
+                return;
+            }
+            skipInterval = min(skipInterval == 0 ? 1 : skipInterval * 2, MAX_SKIPPED_PAGES);
+            pagesToSkip = skipInterval;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.buffer;
+
+import io.airlift.compress.Compressor;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.compress.snappy.SnappyCompressor;
+import io.airlift.compress.snappy.SnappyDecompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
+import io.trino.execution.buffer.PageCodecMarker.MarkerSet;
+
+import java.util.Optional;
+
+import static io.trino.execution.buffer.PageCodecMarker.COMPRESSED;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Compression of serialized pages. The codec of a page is recorded in its {@link PageCodecMarker}s,
+ * so pages can be decompressed regardless of the codec the reader is configured with.
+ */
+public enum CompressionCodec
+{
+    NONE(Optional.empty()),
+    // LZ4 pages are only marked as compressed, as they were before other codecs were supported
+    LZ4(Optional.empty()),
+    ZSTD(Optional.of(PageCodecMarker.ZSTD)),
+    SNAPPY(Optional.of(PageCodecMarker.SNAPPY));
+
+    private final Optional<PageCodecMarker> codecMarker;
+
+    CompressionCodec(Optional<PageCodecMarker> codecMarker)
+    {
+        this.codecMarker = requireNonNull(codecMarker, "codecMarker is null");
+    }
+
+    public Compressor createCompressor()
+    {
+        switch (this) {
+            case LZ4:
+                return new Lz4Compressor();
+            case ZSTD:
+                return new ZstdCompressor();
+            case SNAPPY:
+                return new SnappyCompressor();
+            case NONE:
+                break;
+        }
+        throw new IllegalStateException("No compressor for " + this);
+    }
+
+    public Decompressor createDecompressor()
+    {
+        switch (this) {
+            case LZ4:
+                return new Lz4Decompressor();
+            case ZSTD:
+                return new ZstdDecompressor();
+            case SNAPPY:
+                return new SnappyDecompressor();
+            case NONE:
+                break;
+        }
+        throw new IllegalStateException("No decompressor for " + this);
+    }
+
+    void addMarkers(MarkerSet markers)
+    {
+        if (this != NONE) {
+            markers.add(COMPRESSED);
+            codecMarker.ifPresent(markers::add);
+        }
+    }
+
+    static CompressionCodec fromMarkers(byte markers)
+    {
+        if (!COMPRESSED.isSet(markers)) {
+            return NONE;
+        }
+        for (CompressionCodec codec : values()) {
+            if (codec.codecMarker.isPresent() && codec.codecMarker.get().isSet(markers)) {
+                return codec;
+            }
+        }
+        return LZ4;
+    }
+}
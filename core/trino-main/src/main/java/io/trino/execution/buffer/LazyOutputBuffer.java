@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.concurrent.ExtendedSettableFuture;
 import io.airlift.units.DataSize;
+import io.trino.exchange.ExchangeSpool;
 import io.trino.execution.StateMachine;
 import io.trino.execution.StateMachine.StateChangeListener;
 import io.trino.execution.TaskId;
@@ -48,12 +49,14 @@ public class LazyOutputBuffer
         implements OutputBuffer
 {
     private final StateMachine<BufferState> state;
+    private final TaskId taskId;
     private final String taskInstanceId;
     private final DataSize maxBufferSize;
     private final DataSize maxBroadcastBufferSize;
     private final Supplier<LocalMemoryContext> systemMemoryContextSupplier;
     private final Executor executor;
     private final Runnable notifyStatusChanged;
+    private final ExchangeSpool exchangeSpool;
 
     // Note: this is a write once field, so an unsynchronized volatile read that returns a non-null value is safe, but if a null value is observed instead
     // a subsequent synchronized read is required to ensure the writing thread can complete any in-flight initialization
@@ -73,9 +76,10 @@ public class LazyOutputBuffer
             DataSize maxBufferSize,
             DataSize maxBroadcastBufferSize,
             Supplier<LocalMemoryContext> systemMemoryContextSupplier,
-            Runnable notifyStatusChanged)
+            Runnable notifyStatusChanged,
+            ExchangeSpool exchangeSpool)
     {
-        requireNonNull(taskId, "taskId is null");
+        this.taskId = requireNonNull(taskId, "taskId is null");
         this.taskInstanceId = requireNonNull(taskInstanceId, "taskInstanceId is null");
         this.executor = requireNonNull(executor, "executor is null");
         state = new StateMachine<>(taskId + "-buffer", executor, OPEN, TERMINAL_BUFFER_STATES);
@@ -84,6 +88,7 @@ public class LazyOutputBuffer
         checkArgument(maxBufferSize.toBytes() > 0, "maxBufferSize must be at least 1");
         this.systemMemoryContextSupplier = requireNonNull(systemMemoryContextSupplier, "systemMemoryContextSupplier is null");
         this.notifyStatusChanged = requireNonNull(notifyStatusChanged, "notifyStatusChanged is null");
+        this.exchangeSpool = requireNonNull(exchangeSpool, "exchangeSpool is null");
     }
 
     @Override
@@ -158,16 +163,21 @@ public class LazyOutputBuffer
                     if (state.get().isTerminal()) {
                         return;
                     }
-                    switch (newOutputBuffers.getType()) {
-                        case PARTITIONED:
-                            outputBuffer = new PartitionedOutputBuffer(taskInstanceId, state, newOutputBuffers, maxBufferSize, systemMemoryContextSupplier, executor);
-                            break;
-                        case BROADCAST:
-                            outputBuffer = new BroadcastOutputBuffer(taskInstanceId, state, maxBroadcastBufferSize, systemMemoryContextSupplier, executor, notifyStatusChanged);
-                            break;
-                        case ARBITRARY:
-                            outputBuffer = new ArbitraryOutputBuffer(taskInstanceId, state, maxBufferSize, systemMemoryContextSupplier, executor);
-                            break;
+                    if (newOutputBuffers.isSpooled()) {
+                        outputBuffer = new SpoolingOutputBuffer(state, newOutputBuffers, exchangeSpool.createSink(taskId, taskInstanceId), systemMemoryContextSupplier);
+                    }
+                    else {
+                        switch (newOutputBuffers.getType()) {
+                            case PARTITIONED:
+                                outputBuffer = new PartitionedOutputBuffer(taskInstanceId, state, newOutputBuffers, maxBufferSize, systemMemoryContextSupplier, executor);
+                                break;
+                            case BROADCAST:
+                                outputBuffer = new BroadcastOutputBuffer(taskInstanceId, state, maxBroadcastBufferSize, systemMemoryContextSupplier, executor, notifyStatusChanged);
+                                break;
+                            case ARBITRARY:
+                                outputBuffer = new ArbitraryOutputBuffer(taskInstanceId, state, maxBufferSize, systemMemoryContextSupplier, executor);
+                                break;
+                        }
                     }
 
                     // process pending aborts and reads outside of synchronized lock
@@ -41,7 +41,7 @@ public final class OutputBuffers
 
     public static OutputBuffers createInitialEmptyOutputBuffers(BufferType type)
     {
-        return new OutputBuffers(type, 0, false, ImmutableMap.of());
+        return new OutputBuffers(type, 0, false, ImmutableMap.of(), false);
     }
 
     public static OutputBuffers createInitialEmptyOutputBuffers(PartitioningHandle partitioningHandle)
@@ -56,7 +56,7 @@ public final class OutputBuffers
         else {
             type = PARTITIONED;
         }
-        return new OutputBuffers(type, 0, false, ImmutableMap.of());
+        return new OutputBuffers(type, 0, false, ImmutableMap.of(), false);
     }
 
     public enum BufferType
@@ -70,6 +70,7 @@ public final class OutputBuffers
     private final long version;
     private final boolean noMoreBufferIds;
     private final Map<OutputBufferId, Integer> buffers;
+    private final boolean spooled;
 
     // Visible only for Jackson... Use the "with" methods instead
     @JsonCreator
@@ -77,12 +78,14 @@ public final class OutputBuffers
             @JsonProperty("type") BufferType type,
             @JsonProperty("version") long version,
             @JsonProperty("noMoreBufferIds") boolean noMoreBufferIds,
-            @JsonProperty("buffers") Map<OutputBufferId, Integer> buffers)
+            @JsonProperty("buffers") Map<OutputBufferId, Integer> buffers,
+            @JsonProperty("spooled") boolean spooled)
     {
         this.type = type;
         this.version = version;
         this.buffers = ImmutableMap.copyOf(requireNonNull(buffers, "buffers is null"));
         this.noMoreBufferIds = noMoreBufferIds;
+        this.spooled = spooled;
     }
 
     @JsonProperty
@@ -109,10 +112,20 @@ public final class OutputBuffers
         return buffers;
     }
 
+    /**
+     * Whether the output is written to the exchange spool, from which readers get it, instead of being buffered.
+     */
+    @JsonProperty
+    public boolean isSpooled()
+    {
+        return spooled;
+    }
+
     public void checkValidTransition(OutputBuffers newOutputBuffers)
     {
         requireNonNull(newOutputBuffers, "newOutputBuffers is null");
         checkState(type == newOutputBuffers.getType(), "newOutputBuffers has a different type");
+        checkState(spooled == newOutputBuffers.isSpooled(), "newOutputBuffers has a different spooling");
 
         if (noMoreBufferIds) {
             checkArgument(this.equals(newOutputBuffers), "Expected buffer to not change after no more buffers is set");
@@ -138,7 +151,7 @@ public final class OutputBuffers
     @Override
     public int hashCode()
     {
-        return Objects.hash(version, noMoreBufferIds, buffers);
+        return Objects.hash(version, noMoreBufferIds, buffers, spooled);
     }
 
     @Override
@@ -153,7 +166,8 @@ public final class OutputBuffers
         OutputBuffers other = (OutputBuffers) obj;
         return Objects.equals(this.version, other.version) &&
                 Objects.equals(this.noMoreBufferIds, other.noMoreBufferIds) &&
-                Objects.equals(this.buffers, other.buffers);
+                Objects.equals(this.buffers, other.buffers) &&
+                this.spooled == other.spooled;
     }
 
     @Override
@@ -164,6 +178,7 @@ public final class OutputBuffers
                 .add("version", version)
                 .add("noMoreBufferIds", noMoreBufferIds)
                 .add("bufferIds", buffers)
+                .add("spooled", spooled)
                 .toString();
     }
 
@@ -186,7 +201,8 @@ public final class OutputBuffers
                 ImmutableMap.<OutputBufferId, Integer>builder()
                         .putAll(buffers)
                         .put(bufferId, partition)
-                        .build());
+                        .build(),
+                spooled);
     }
 
     public OutputBuffers withBuffers(Map<OutputBufferId, Integer> buffers)
@@ -218,7 +234,7 @@ public final class OutputBuffers
         // add the existing buffers
         newBuffers.putAll(this.buffers);
 
-        return new OutputBuffers(type, version + 1, false, newBuffers);
+        return new OutputBuffers(type, version + 1, false, newBuffers, spooled);
     }
 
     public OutputBuffers withNoMoreBufferIds()
@@ -227,7 +243,16 @@ public final class OutputBuffers
             return this;
         }
 
-        return new OutputBuffers(type, version + 1, true, buffers);
+        return new OutputBuffers(type, version + 1, true, buffers, spooled);
+    }
+
+    public OutputBuffers withSpooling()
+    {
+        if (spooled) {
+            return this;
+        }
+
+        return new OutputBuffers(type, version, noMoreBufferIds, buffers, true);
     }
 
     private void checkHasBuffer(OutputBufferId bufferId, int partition)
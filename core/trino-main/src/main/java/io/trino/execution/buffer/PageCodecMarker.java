@@ -26,7 +26,10 @@ import static com.google.common.base.Preconditions.checkArgument;
 public enum PageCodecMarker
 {
     COMPRESSED(1),
-    ENCRYPTED(2);
+    ENCRYPTED(2),
+    // codec of a compressed page, which is LZ4 when neither is set
+    ZSTD(3),
+    SNAPPY(4);
 
     private final int mask;
 
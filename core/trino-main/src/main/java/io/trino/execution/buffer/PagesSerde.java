@@ -18,6 +18,7 @@ import io.airlift.compress.Decompressor;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
+import io.trino.execution.buffer.AdaptiveCompressionSampler.EncodingsStatistics;
 import io.trino.execution.buffer.PageCodecMarker.MarkerSet;
 import io.trino.spi.Page;
 import io.trino.spi.block.BlockEncodingSerde;
@@ -25,11 +26,14 @@ import io.trino.spiller.SpillCipher;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
-import static io.trino.execution.buffer.PageCodecMarker.COMPRESSED;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.trino.execution.buffer.CompressionCodec.NONE;
 import static io.trino.execution.buffer.PageCodecMarker.ENCRYPTED;
 import static io.trino.execution.buffer.PagesSerdeUtil.readRawPage;
 import static io.trino.execution.buffer.PagesSerdeUtil.writeRawPage;
@@ -43,16 +47,23 @@ public class PagesSerde
     private static final double MINIMUM_COMPRESSION_RATIO = 0.8;
 
     private final BlockEncodingSerde blockEncodingSerde;
+    private final CompressionCodec compressionCodec;
     private final Optional<Compressor> compressor;
-    private final Optional<Decompressor> decompressor;
+    // pages are decompressed with the codec they were compressed with
+    private final Map<CompressionCodec, Decompressor> decompressors;
+    private final Optional<AdaptiveCompressionSampler> adaptiveCompressionSampler;
     private final Optional<SpillCipher> spillCipher;
 
-    public PagesSerde(BlockEncodingSerde blockEncodingSerde, Optional<Compressor> compressor, Optional<Decompressor> decompressor, Optional<SpillCipher> spillCipher)
+    public PagesSerde(BlockEncodingSerde blockEncodingSerde, CompressionCodec compressionCodec, boolean adaptiveCompression, Optional<SpillCipher> spillCipher)
     {
         this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
-        checkArgument(compressor.isPresent() == decompressor.isPresent(), "compressor and decompressor must both be present or both be absent");
-        this.compressor = requireNonNull(compressor, "compressor is null");
-        this.decompressor = requireNonNull(decompressor, "decompressor is null");
+        this.compressionCodec = requireNonNull(compressionCodec, "compressionCodec is null");
+        checkArgument(!adaptiveCompression || compressionCodec != NONE, "adaptive compression requires a compression codec");
+        this.compressor = compressionCodec == NONE ? Optional.empty() : Optional.of(compressionCodec.createCompressor());
+        this.decompressors = Arrays.stream(CompressionCodec.values())
+                .filter(codec -> codec != NONE)
+                .collect(toImmutableMap(codec -> codec, CompressionCodec::createDecompressor));
+        this.adaptiveCompressionSampler = adaptiveCompression ? Optional.of(new AdaptiveCompressionSampler()) : Optional.empty();
         this.spillCipher = requireNonNull(spillCipher, "spillCipher is null");
     }
 
@@ -71,7 +82,8 @@ public class PagesSerde
             int uncompressedSize = serializationBuffer.size();
             MarkerSet markers = MarkerSet.empty();
 
-            if (compressor.isPresent()) {
+            Optional<EncodingsStatistics> encodingsStatistics = adaptiveCompressionSampler.map(sampler -> sampler.getStatistics(page));
+            if (compressor.isPresent() && encodingsStatistics.map(EncodingsStatistics::shouldCompress).orElse(true)) {
                 byte[] compressed = context.acquireBuffer(compressor.get().maxCompressedLength(uncompressedSize));
                 int compressedSize = compressor.get().compress(
                         slice.byteArray(),
@@ -81,9 +93,11 @@ public class PagesSerde
                         0,
                         compressed.length);
 
-                if ((((double) compressedSize) / uncompressedSize) <= MINIMUM_COMPRESSION_RATIO) {
+                boolean compressible = (((double) compressedSize) / uncompressedSize) <= MINIMUM_COMPRESSION_RATIO;
+                encodingsStatistics.ifPresent(statistics -> statistics.recordCompression(compressible));
+                if (compressible) {
                     slice = Slices.wrappedBuffer(compressed, 0, compressedSize);
-                    markers.add(COMPRESSED);
+                    compressionCodec.addMarkers(markers);
                     inUseTempBuffer = compressed; // Track the compression buffer as in use
                 }
                 else {
@@ -151,11 +165,11 @@ public class PagesSerde
         }
 
         if (serializedPage.isCompressed()) {
-            checkState(decompressor.isPresent(), "Page is compressed, but decompressor is missing");
+            Decompressor decompressor = decompressors.get(CompressionCodec.fromMarkers(serializedPage.getPageCodecMarkers()));
 
             int uncompressedSize = serializedPage.getUncompressedSizeInBytes();
             byte[] decompressed = context.acquireBuffer(uncompressedSize);
-            checkState(decompressor.get().decompress(
+            checkState(decompressor.decompress(
                     slice.byteArray(),
                     slice.byteArrayOffset(),
                     slice.length(),
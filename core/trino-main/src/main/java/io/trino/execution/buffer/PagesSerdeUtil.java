@@ -14,6 +14,7 @@
 package io.trino.execution.buffer;
 
 import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
@@ -26,8 +27,11 @@ import io.trino.spi.block.BlockEncodingSerde;
 import java.util.Iterator;
 import java.util.List;
 
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
 import static io.trino.block.BlockSerdeUtil.readBlock;
 import static io.trino.block.BlockSerdeUtil.writeBlock;
+import static io.trino.execution.buffer.PageCodecMarker.COMPRESSED;
+import static io.trino.execution.buffer.PageCodecMarker.ENCRYPTED;
 import static java.util.Arrays.asList;
 import static java.util.Objects.requireNonNull;
 
@@ -42,6 +46,11 @@ public final class PagesSerdeUtil
      */
     public static final long NO_CHECKSUM = 0x0123456789abcdefL;
 
+    /**
+     * Size of the fields written by {@link #writeSerializedPage(SliceOutput, SerializedPage)} before the slice of the page.
+     */
+    public static final int SERIALIZED_PAGE_HEADER_SIZE = Integer.BYTES + Byte.BYTES + Integer.BYTES + Integer.BYTES;
+
     static void writeRawPage(Page page, SliceOutput output, BlockEncodingSerde serde)
     {
         output.writeInt(page.getChannelCount());
@@ -103,6 +112,15 @@ public final class PagesSerdeUtil
         return size;
     }
 
+    public static long getSerializedPagesSize(List<SerializedPage> pages)
+    {
+        long size = 0;
+        for (SerializedPage page : pages) {
+            size += SERIALIZED_PAGE_HEADER_SIZE + page.getSizeInBytes();
+        }
+        return size;
+    }
+
     public static long calculateChecksum(List<SerializedPage> pages)
     {
         XxHash64 hash = new XxHash64();
@@ -171,6 +189,49 @@ public final class PagesSerdeUtil
         return new SerializedPageReader(sliceInput);
     }
 
+    /**
+     * Reads the pages written back to back into a single buffer, without allocating a slice for every page.
+     * When all the pages are compressed or encrypted, they are views of the buffer, since deserializing them
+     * copies their data anyway. Otherwise all the pages are copied: the blocks deserialized from an uncompressed
+     * page can reference the slice of the page, and would then retain the whole buffer, and the views next to
+     * a copied page would retain the buffer while accounting only for their own part of it.
+     */
+    public static List<SerializedPage> readSerializedPages(Slice buffer)
+    {
+        boolean views = isCompressedOrEncrypted(buffer);
+        ImmutableList.Builder<SerializedPage> pages = ImmutableList.builder();
+        SliceInput input = buffer.getInput();
+        while (input.isReadable()) {
+            int positionCount = input.readInt();
+            PageCodecMarker.MarkerSet markers = PageCodecMarker.MarkerSet.fromByteValue(input.readByte());
+            int uncompressedSizeInBytes = input.readInt();
+            int sizeInBytes = input.readInt();
+            Slice slice = input.readSlice(sizeInBytes);
+            if (views) {
+                pages.add(new SerializedPage(slice, markers, positionCount, uncompressedSizeInBytes, slice.length()));
+            }
+            else {
+                pages.add(new SerializedPage(Slices.copyOf(slice), markers, positionCount, uncompressedSizeInBytes));
+            }
+        }
+        return pages.build();
+    }
+
+    private static boolean isCompressedOrEncrypted(Slice buffer)
+    {
+        SliceInput input = buffer.getInput();
+        while (input.isReadable()) {
+            input.skip(SIZE_OF_INT);
+            PageCodecMarker.MarkerSet markers = PageCodecMarker.MarkerSet.fromByteValue(input.readByte());
+            if (!markers.contains(COMPRESSED) && !markers.contains(ENCRYPTED)) {
+                return false;
+            }
+            input.skip(SIZE_OF_INT);
+            input.skip(input.readInt());
+        }
+        return true;
+    }
+
     private static class SerializedPageReader
             extends AbstractIterator<SerializedPage>
     {
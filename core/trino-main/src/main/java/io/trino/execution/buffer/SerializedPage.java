@@ -30,14 +30,25 @@ public class SerializedPage
     private final int positionCount;
     private final int uncompressedSizeInBytes;
     private final byte pageCodecMarkers;
+    private final long retainedSizeInBytes;
 
     public SerializedPage(Slice slice, PageCodecMarker.MarkerSet markers, int positionCount, int uncompressedSizeInBytes)
+    {
+        this(slice, markers, positionCount, uncompressedSizeInBytes, requireNonNull(slice, "slice is null").getRetainedSize());
+    }
+
+    /**
+     * @param sliceRetainedSizeInBytes memory retained by the slice. It is smaller than {@link Slice#getRetainedSize()}
+     * when the slice is a view of a buffer shared by several pages, so that the buffer is not accounted for every page.
+     */
+    SerializedPage(Slice slice, PageCodecMarker.MarkerSet markers, int positionCount, int uncompressedSizeInBytes, long sliceRetainedSizeInBytes)
     {
         this.slice = requireNonNull(slice, "slice is null");
         this.positionCount = positionCount;
         checkArgument(uncompressedSizeInBytes >= 0, "uncompressedSizeInBytes is negative");
         this.uncompressedSizeInBytes = uncompressedSizeInBytes;
         this.pageCodecMarkers = requireNonNull(markers, "markers is null").byteValue();
+        this.retainedSizeInBytes = INSTANCE_SIZE + sliceRetainedSizeInBytes;
         //  Encrypted pages may include arbitrary overhead from ciphers, sanity checks skipped
         if (!markers.contains(ENCRYPTED)) {
             if (markers.contains(COMPRESSED)) {
@@ -61,7 +72,7 @@ public class SerializedPage
 
     public long getRetainedSizeInBytes()
     {
-        return INSTANCE_SIZE + slice.getRetainedSize();
+        return retainedSizeInBytes;
     }
 
     public int getPositionCount()
@@ -0,0 +1,304 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.buffer;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
+import io.trino.exchange.ExchangeSpoolSink;
+import io.trino.execution.StateMachine;
+import io.trino.execution.StateMachine.StateChangeListener;
+import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
+import io.trino.memory.context.LocalMemoryContext;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.trino.execution.buffer.BufferState.FAILED;
+import static io.trino.execution.buffer.BufferState.FINISHED;
+import static io.trino.execution.buffer.BufferState.NO_MORE_BUFFERS;
+import static io.trino.execution.buffer.BufferState.NO_MORE_PAGES;
+import static io.trino.execution.buffer.BufferState.OPEN;
+import static io.trino.execution.buffer.OutputBuffers.BufferType.BROADCAST;
+import static io.trino.execution.buffer.OutputBuffers.BufferType.PARTITIONED;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Output buffer which writes the pages to an {@link io.trino.exchange.ExchangeSpool} instead of
+ * keeping them until they are read. Readers get the pages from the spool, so the buffer never
+ * blocks the producer, and it is finished as soon as the output is committed, which happens when
+ * no more pages will be added.
+ */
+public class SpoolingOutputBuffer
+        implements OutputBuffer
+{
+    private static final ListenableFuture<?> NOT_FULL = immediateFuture(null);
+
+    private final StateMachine<BufferState> state;
+    private final Supplier<LocalMemoryContext> systemMemoryContextSupplier;
+
+    @GuardedBy("this")
+    private final ExchangeSpoolSink sink;
+    @GuardedBy("this")
+    private OutputBuffers outputBuffers;
+    @GuardedBy("this")
+    private List<OutputBufferId> arbitraryBufferIds;
+    @GuardedBy("this")
+    private int nextArbitraryBuffer;
+    @GuardedBy("this")
+    private boolean sinkClosed;
+    @GuardedBy("this")
+    private long reservedBytes;
+
+    private final AtomicLong totalPagesAdded = new AtomicLong();
+    private final AtomicLong totalRowsAdded = new AtomicLong();
+    private final AtomicLong peakMemoryUsage = new AtomicLong();
+
+    public SpoolingOutputBuffer(
+            StateMachine<BufferState> state,
+            OutputBuffers outputBuffers,
+            ExchangeSpoolSink sink,
+            Supplier<LocalMemoryContext> systemMemoryContextSupplier)
+    {
+        this.state = requireNonNull(state, "state is null");
+        requireNonNull(outputBuffers, "outputBuffers is null");
+        checkArgument(outputBuffers.isSpooled(), "Expected a spooled output buffer descriptor");
+        this.outputBuffers = outputBuffers;
+        this.sink = requireNonNull(sink, "sink is null");
+        // the memory context is only available once the task context is created
+        this.systemMemoryContextSupplier = Suppliers.memoize(requireNonNull(systemMemoryContextSupplier, "systemMemoryContextSupplier is null")::get);
+    }
+
+    @Override
+    public void addStateChangeListener(StateChangeListener<BufferState> stateChangeListener)
+    {
+        state.addStateChangeListener(stateChangeListener);
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return state.get() == FINISHED;
+    }
+
+    @Override
+    public double getUtilization()
+    {
+        return 0.0;
+    }
+
+    @Override
+    public boolean isOverutilized()
+    {
+        return false;
+    }
+
+    @Override
+    public OutputBufferInfo getInfo()
+    {
+        BufferState state = this.state.get();
+        return new OutputBufferInfo(
+                "SPOOLING",
+                state,
+                state.canAddBuffers(),
+                state.canAddPages(),
+                0,
+                0,
+                totalRowsAdded.get(),
+                totalPagesAdded.get(),
+                ImmutableList.of());
+    }
+
+    @Override
+    public synchronized void setOutputBuffers(OutputBuffers newOutputBuffers)
+    {
+        requireNonNull(newOutputBuffers, "newOutputBuffers is null");
+
+        // ignore buffers added after query finishes, which can happen when a query is canceled
+        // also ignore old versions, which is normal
+        if (state.get().isTerminal() || outputBuffers.getVersion() >= newOutputBuffers.getVersion()) {
+            return;
+        }
+
+        outputBuffers.checkValidTransition(newOutputBuffers);
+        outputBuffers = newOutputBuffers;
+        if (outputBuffers.isNoMoreBufferIds()) {
+            state.compareAndSet(OPEN, NO_MORE_BUFFERS);
+        }
+    }
+
+    @Override
+    public ListenableFuture<BufferResult> get(OutputBufferId bufferId, long token, DataSize maxSize)
+    {
+        throw new IllegalStateException("Pages of a spooled output are read from the exchange spool");
+    }
+
+    @Override
+    public void acknowledge(OutputBufferId bufferId, long token)
+    {
+        // pages are not kept in the buffer
+    }
+
+    @Override
+    public void abort(OutputBufferId bufferId)
+    {
+        // pages are not kept in the buffer
+    }
+
+    @Override
+    public ListenableFuture<?> isFull()
+    {
+        return NOT_FULL;
+    }
+
+    @Override
+    public void enqueue(List<SerializedPage> pages)
+    {
+        requireNonNull(pages, "pages is null");
+        synchronized (this) {
+            if (outputBuffers.getType() == PARTITIONED) {
+                checkState(outputBuffers.getBuffers().size() == 1, "Expected exactly one partition");
+                add(new OutputBufferId(0), pages);
+            }
+            else if (outputBuffers.getType() == BROADCAST) {
+                add(null, pages);
+            }
+            else {
+                // pages are distributed to the buffers known when the first page is added
+                if (arbitraryBufferIds == null) {
+                    checkState(outputBuffers.isNoMoreBufferIds(), "Pages of an arbitrary spooled output can only be added once all the buffers are known");
+                    arbitraryBufferIds = ImmutableList.copyOf(outputBuffers.getBuffers().keySet());
+                }
+                for (SerializedPage page : pages) {
+                    add(arbitraryBufferIds.get(nextArbitraryBuffer), ImmutableList.of(page));
+                    nextArbitraryBuffer = (nextArbitraryBuffer + 1) % arbitraryBufferIds.size();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void enqueue(int partition, List<SerializedPage> pages)
+    {
+        requireNonNull(pages, "pages is null");
+        synchronized (this) {
+            checkState(outputBuffers.getType() == PARTITIONED, "Expected a partitioned output");
+            // each buffer of a partitioned output reads the partition with the same number
+            add(new OutputBufferId(partition), pages);
+        }
+    }
+
+    @GuardedBy("this")
+    private void add(OutputBufferId bufferId, List<SerializedPage> pages)
+    {
+        // ignore pages after "no more pages" is set
+        // this can happen with a limit query
+        if (!state.get().canAddPages() || sinkClosed) {
+            return;
+        }
+
+        if (bufferId == null) {
+            sink.addBroadcast(pages);
+        }
+        else {
+            sink.add(bufferId, pages);
+        }
+
+        long rowCount = 0;
+        for (SerializedPage page : pages) {
+            rowCount += page.getPositionCount();
+        }
+        totalRowsAdded.addAndGet(rowCount);
+        totalPagesAdded.addAndGet(pages.size());
+        updateMemoryUsage(sink.getRetainedSizeInBytes());
+    }
+
+    @Override
+    public void setNoMorePages()
+    {
+        state.compareAndSet(OPEN, NO_MORE_PAGES);
+        state.compareAndSet(NO_MORE_BUFFERS, NO_MORE_PAGES);
+        commit();
+    }
+
+    private synchronized void commit()
+    {
+        if (sinkClosed || state.get().isTerminal()) {
+            return;
+        }
+        sinkClosed = true;
+        try {
+            sink.commit();
+        }
+        catch (RuntimeException e) {
+            sink.abort();
+            throw e;
+        }
+        finally {
+            updateMemoryUsage(0);
+        }
+        state.setIf(FINISHED, oldState -> !oldState.isTerminal());
+    }
+
+    @Override
+    public void destroy()
+    {
+        // ignore destroy if the buffer already in a terminal state.
+        if (state.setIf(FINISHED, oldState -> !oldState.isTerminal())) {
+            abortSink();
+        }
+    }
+
+    @Override
+    public void fail()
+    {
+        // ignore fail if the buffer already in a terminal state.
+        if (state.setIf(FAILED, oldState -> !oldState.isTerminal())) {
+            abortSink();
+        }
+    }
+
+    private synchronized void abortSink()
+    {
+        if (!sinkClosed) {
+            sinkClosed = true;
+            sink.abort();
+        }
+        updateMemoryUsage(0);
+    }
+
+    @Override
+    public long getPeakMemoryUsage()
+    {
+        return peakMemoryUsage.get();
+    }
+
+    @GuardedBy("this")
+    private void updateMemoryUsage(long bytes)
+    {
+        if (bytes == reservedBytes) {
+            return;
+        }
+        reservedBytes = bytes;
+        systemMemoryContextSupplier.get().setBytes(bytes);
+        peakMemoryUsage.accumulateAndGet(bytes, Math::max);
+    }
+}
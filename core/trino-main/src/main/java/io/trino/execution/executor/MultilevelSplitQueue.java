@@ -26,10 +26,14 @@ import javax.inject.Inject;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.PriorityQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -37,47 +41,73 @@ import static com.google.common.base.Preconditions.checkState;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+/**
+ * Queue of the splits waiting for a runner thread.
+ * <p>
+ * The waiting splits are spread over stripes, each with its own lock, so that the runner threads
+ * do not all contend on a single lock when the splits are short. A split is added to a random
+ * stripe, and a thread takes a split from a random stripe, or from the next stripes when it is
+ * empty. The scheduled time of the levels and of the scheduling groups is shared by all the stripes,
+ * so the fairness between levels and groups is kept, although it is only approximate across stripes.
+ */
 @ThreadSafe
 public class MultilevelSplitQueue
 {
     static final int[] LEVEL_THRESHOLD_SECONDS = {0, 1, 10, 60, 300};
     static final long LEVEL_CONTRIBUTION_CAP = SECONDS.toNanos(30);
 
-    @GuardedBy("lock")
-    private final List<PriorityQueue<PrioritizedSplitRunner>> levelWaitingSplits;
+    private final Stripe[] stripes;
+    // waiting splits of each level in all the stripes, incremented before a split is added to a stripe
+    private final AtomicInteger[] levelWaitingSplits = new AtomicInteger[LEVEL_THRESHOLD_SECONDS.length];
+    // released after a split is added to a stripe, there can be more permits than waiting splits when splits are removed
+    private final Semaphore splitsAvailable = new Semaphore(0);
+    // group of the tasks which are not scheduled with a resource group
+    private final SchedulingGroup defaultGroup = new SchedulingGroup("default", 1);
 
     private final AtomicLong[] levelScheduledTime = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
 
     private final AtomicLong[] levelMinPriority;
     private final List<CounterStat> selectedLevelCounters;
 
-    private final ReentrantLock lock = new ReentrantLock();
-    private final Condition notEmpty = lock.newCondition();
-
     private final double levelTimeMultiplier;
 
     @Inject
     public MultilevelSplitQueue(TaskManagerConfig taskManagerConfig)
     {
-        this(taskManagerConfig.getLevelTimeMultiplier().doubleValue());
+        this(taskManagerConfig.getLevelTimeMultiplier().doubleValue(), taskManagerConfig.getSplitQueueStripes());
     }
 
     public MultilevelSplitQueue(double levelTimeMultiplier)
     {
+        this(levelTimeMultiplier, 1);
+    }
+
+    public MultilevelSplitQueue(double levelTimeMultiplier, int stripeCount)
+    {
+        checkArgument(stripeCount > 0, "stripeCount must be at least 1");
         this.levelMinPriority = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
-        this.levelWaitingSplits = new ArrayList<>(LEVEL_THRESHOLD_SECONDS.length);
         ImmutableList.Builder<CounterStat> counters = ImmutableList.builder();
 
         for (int i = 0; i < LEVEL_THRESHOLD_SECONDS.length; i++) {
             levelScheduledTime[i] = new AtomicLong();
             levelMinPriority[i] = new AtomicLong(-1);
-            levelWaitingSplits.add(new PriorityQueue<>());
+            levelWaitingSplits[i] = new AtomicInteger();
             counters.add(new CounterStat());
         }
 
         this.selectedLevelCounters = counters.build();
 
         this.levelTimeMultiplier = levelTimeMultiplier;
+
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public SchedulingGroup getDefaultGroup()
+    {
+        return defaultGroup;
     }
 
     private void addLevelTime(int level, long nanos)
@@ -101,93 +131,64 @@ public class MultilevelSplitQueue
 
         split.setReady();
         int level = split.getPriority().getLevel();
-        lock.lock();
-        try {
-            if (levelWaitingSplits.get(level).isEmpty()) {
-                // Accesses to levelScheduledTime are not synchronized, so we have a data race
-                // here - our level time math will be off. However, the staleness is bounded by
-                // the fact that only running splits that complete during this computation
-                // can update the level time. Therefore, this is benign.
-                long level0Time = getLevel0TargetTime();
-                long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
-                long delta = levelExpectedTime - levelScheduledTime[level].get();
-                levelScheduledTime[level].addAndGet(delta);
-            }
-
-            levelWaitingSplits.get(level).offer(split);
-            notEmpty.signal();
-        }
-        finally {
-            lock.unlock();
+        if (levelWaitingSplits[level].getAndIncrement() == 0) {
+            // Accesses to levelScheduledTime are not synchronized, so we have a data race
+            // here - our level time math will be off. However, the staleness is bounded by
+            // the fact that only running splits that complete during this computation
+            // can update the level time. Therefore, this is benign.
+            long level0Time = getLevel0TargetTime();
+            long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
+            long delta = levelExpectedTime - levelScheduledTime[level].get();
+            levelScheduledTime[level].addAndGet(delta);
         }
+
+        stripes[ThreadLocalRandom.current().nextInt(stripes.length)].offer(level, split);
+        splitsAvailable.release();
     }
 
     public PrioritizedSplitRunner take()
             throws InterruptedException
     {
         while (true) {
-            lock.lockInterruptibly();
-            try {
-                PrioritizedSplitRunner result;
-                while ((result = pollSplit()) == null) {
-                    notEmpty.await();
-                }
+            splitsAvailable.acquire();
+            PrioritizedSplitRunner result = pollSplit();
+            if (result == null) {
+                // the split of the permit was removed
+                continue;
+            }
 
-                if (result.updateLevelPriority()) {
-                    offer(result);
-                    continue;
-                }
+            if (result.updateLevelPriority()) {
+                offer(result);
+                continue;
+            }
 
-                int selectedLevel = result.getPriority().getLevel();
-                levelMinPriority[selectedLevel].set(result.getPriority().getLevelPriority());
-                selectedLevelCounters.get(selectedLevel).update(1);
+            int selectedLevel = result.getPriority().getLevel();
+            levelMinPriority[selectedLevel].set(result.getPriority().getLevelPriority());
+            selectedLevelCounters.get(selectedLevel).update(1);
 
-                return result;
-            }
-            finally {
-                lock.unlock();
-            }
+            return result;
         }
     }
 
     /**
-     * Trino attempts to give each level a target amount of scheduled time, which is configurable
-     * using levelTimeMultiplier.
-     * <p>
-     * This function selects the level that has the lowest ratio of actual to the target time
-     * with the objective of minimizing deviation from the target scheduled time. From this level,
-     * we pick the split with the lowest priority.
+     * Polls the stripes, starting from a random one, until a split is found or there are no
+     * waiting splits. A split which is being added to a stripe is already counted as waiting.
      */
-    @GuardedBy("lock")
     private PrioritizedSplitRunner pollSplit()
     {
-        long targetScheduledTime = getLevel0TargetTime();
-        double worstRatio = 1;
-        int selectedLevel = -1;
-        for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
-            if (!levelWaitingSplits.get(level).isEmpty()) {
-                long levelTime = levelScheduledTime[level].get();
-                double ratio = levelTime == 0 ? 0 : targetScheduledTime / (1.0 * levelTime);
-                if (selectedLevel == -1 || ratio > worstRatio) {
-                    worstRatio = ratio;
-                    selectedLevel = level;
+        int start = ThreadLocalRandom.current().nextInt(stripes.length);
+        do {
+            for (int i = 0; i < stripes.length; i++) {
+                PrioritizedSplitRunner result = stripes[(start + i) % stripes.length].poll();
+                if (result != null) {
+                    return result;
                 }
             }
-
-            targetScheduledTime /= levelTimeMultiplier;
-        }
-
-        if (selectedLevel == -1) {
-            return null;
         }
-
-        PrioritizedSplitRunner result = levelWaitingSplits.get(selectedLevel).poll();
-        checkState(result != null, "pollSplit cannot return null");
-
-        return result;
+        while (size() > 0);
+        return null;
     }
 
-    @GuardedBy("lock")
     private long getLevel0TargetTime()
     {
         long level0TargetTime = levelScheduledTime[0].get();
@@ -247,27 +248,13 @@ public class MultilevelSplitQueue
     public void remove(PrioritizedSplitRunner split)
     {
         checkArgument(split != null, "split is null");
-        lock.lock();
-        try {
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                level.remove(split);
-            }
-        }
-        finally {
-            lock.unlock();
-        }
+        removeAll(ImmutableList.of(split));
     }
 
     public void removeAll(Collection<PrioritizedSplitRunner> splits)
     {
-        lock.lock();
-        try {
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                level.removeAll(splits);
-            }
-        }
-        finally {
-            lock.unlock();
+        for (Stripe stripe : stripes) {
+            stripe.removeAll(splits);
         }
     }
 
@@ -279,17 +266,11 @@ public class MultilevelSplitQueue
 
     public int size()
     {
-        lock.lock();
-        try {
-            int total = 0;
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                total += level.size();
-            }
-            return total;
-        }
-        finally {
-            lock.unlock();
+        int total = 0;
+        for (AtomicInteger levelSplits : levelWaitingSplits) {
+            total += levelSplits.get();
         }
+        return total;
     }
 
     public static int computeLevel(long threadUsageNanos)
@@ -374,4 +355,173 @@ public class MultilevelSplitQueue
     {
         return selectedLevelCounters.get(4);
     }
+
+    @ThreadSafe
+    private class Stripe
+    {
+        private final ReentrantLock lock = new ReentrantLock();
+        // groups with waiting splits in the stripe, in the order they were added
+        @GuardedBy("lock")
+        private final Map<SchedulingGroup, GroupSplits> waitingGroups = new LinkedHashMap<>();
+        @GuardedBy("lock")
+        private final int[] levelWaitingSplits = new int[LEVEL_THRESHOLD_SECONDS.length];
+
+        public void offer(int level, PrioritizedSplitRunner split)
+        {
+            SchedulingGroup group = split.getTaskHandle().getSchedulingGroup();
+            lock.lock();
+            try {
+                GroupSplits groupSplits = waitingGroups.get(group);
+                if (groupSplits == null) {
+                    // a group which had no waiting splits catches up with the waiting groups
+                    waitingGroups.keySet().stream()
+                            .mapToLong(SchedulingGroup::getVirtualTime)
+                            .min()
+                            .ifPresent(group::catchUp);
+                    groupSplits = new GroupSplits();
+                    waitingGroups.put(group, groupSplits);
+                }
+                groupSplits.add(level, split);
+                levelWaitingSplits[level]++;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Trino attempts to give each level a target amount of scheduled time, which is configurable
+         * using levelTimeMultiplier.
+         * <p>
+         * This function selects the level that has the lowest ratio of actual to the target time
+         * with the objective of minimizing deviation from the target scheduled time. From this level,
+         * we pick the split with the lowest priority of the {@link SchedulingGroup} with the lowest
+         * virtual time, so that groups get the threads in proportion to their weights.
+         */
+        public PrioritizedSplitRunner poll()
+        {
+            lock.lock();
+            try {
+                long targetScheduledTime = getLevel0TargetTime();
+                double worstRatio = 1;
+                int selectedLevel = -1;
+                for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+                    if (levelWaitingSplits[level] > 0) {
+                        long levelTime = levelScheduledTime[level].get();
+                        double ratio = levelTime == 0 ? 0 : targetScheduledTime / (1.0 * levelTime);
+                        if (selectedLevel == -1 || ratio > worstRatio) {
+                            worstRatio = ratio;
+                            selectedLevel = level;
+                        }
+                    }
+
+                    targetScheduledTime /= levelTimeMultiplier;
+                }
+
+                if (selectedLevel == -1) {
+                    return null;
+                }
+
+                SchedulingGroup selectedGroup = null;
+                for (Map.Entry<SchedulingGroup, GroupSplits> entry : waitingGroups.entrySet()) {
+                    SchedulingGroup group = entry.getKey();
+                    if (entry.getValue().hasSplits(selectedLevel) && (selectedGroup == null || group.getVirtualTime() < selectedGroup.getVirtualTime())) {
+                        selectedGroup = group;
+                    }
+                }
+                checkState(selectedGroup != null, "pollSplit cannot return null");
+
+                GroupSplits groupSplits = waitingGroups.get(selectedGroup);
+                PrioritizedSplitRunner result = groupSplits.poll(selectedLevel);
+                checkState(result != null, "pollSplit cannot return null");
+                if (groupSplits.isEmpty()) {
+                    waitingGroups.remove(selectedGroup);
+                }
+                levelWaitingSplits[selectedLevel]--;
+                MultilevelSplitQueue.this.levelWaitingSplits[selectedLevel].decrementAndGet();
+
+                return result;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        public void removeAll(Collection<PrioritizedSplitRunner> splits)
+        {
+            lock.lock();
+            try {
+                for (PrioritizedSplitRunner split : splits) {
+                    SchedulingGroup group = split.getTaskHandle().getSchedulingGroup();
+                    GroupSplits groupSplits = waitingGroups.get(group);
+                    if (groupSplits == null) {
+                        continue;
+                    }
+                    int level = groupSplits.remove(split);
+                    if (level >= 0) {
+                        if (groupSplits.isEmpty()) {
+                            waitingGroups.remove(group);
+                        }
+                        levelWaitingSplits[level]--;
+                        MultilevelSplitQueue.this.levelWaitingSplits[level].decrementAndGet();
+                    }
+                }
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Waiting splits of a scheduling group in a stripe.
+     */
+    private static class GroupSplits
+    {
+        private final List<PriorityQueue<PrioritizedSplitRunner>> levelWaitingSplits = new ArrayList<>(LEVEL_THRESHOLD_SECONDS.length);
+        private int size;
+
+        GroupSplits()
+        {
+            for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+                levelWaitingSplits.add(new PriorityQueue<>());
+            }
+        }
+
+        boolean isEmpty()
+        {
+            return size == 0;
+        }
+
+        boolean hasSplits(int level)
+        {
+            return !levelWaitingSplits.get(level).isEmpty();
+        }
+
+        void add(int level, PrioritizedSplitRunner split)
+        {
+            levelWaitingSplits.get(level).offer(split);
+            size++;
+        }
+
+        PrioritizedSplitRunner poll(int level)
+        {
+            PrioritizedSplitRunner split = levelWaitingSplits.get(level).poll();
+            if (split != null) {
+                size--;
+            }
+            return split;
+        }
+
+        int remove(PrioritizedSplitRunner split)
+        {
+            for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+                if (levelWaitingSplits.get(level).remove(split)) {
+                    size--;
+                    return level;
+                }
+            }
+            return -1;
+        }
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.executor;
+
+import io.airlift.stats.CounterStat;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.execution.executor.MultilevelSplitQueue.LEVEL_CONTRIBUTION_CAP;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Tasks of a resource group, which share the worker threads with the tasks of other groups
+ * in proportion to the scheduling weight of the group.
+ * <p>
+ * The share of a group is tracked with its virtual time, which is the scheduled time of its
+ * splits divided by its weight. {@link MultilevelSplitQueue} runs the waiting split of the group
+ * with the lowest virtual time, among the groups with waiting splits in the selected level.
+ */
+@ThreadSafe
+public class SchedulingGroup
+{
+    private final String name;
+    private volatile int weight;
+
+    // scheduled time of the splits of the group, divided by the weight
+    private final AtomicLong virtualTime = new AtomicLong();
+    private final AtomicInteger tasks = new AtomicInteger();
+
+    private final CounterStat scheduledTimeMicros = new CounterStat();
+    private final CounterStat cpuTimeMicros = new CounterStat();
+
+    public SchedulingGroup(String name, int weight)
+    {
+        this.name = requireNonNull(name, "name is null");
+        setWeight(weight);
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    @Managed
+    public int getWeight()
+    {
+        return weight;
+    }
+
+    public void setWeight(int weight)
+    {
+        checkArgument(weight > 0, "weight must be positive");
+        this.weight = weight;
+    }
+
+    @Managed
+    public int getTasks()
+    {
+        return tasks.get();
+    }
+
+    int addTask()
+    {
+        return tasks.incrementAndGet();
+    }
+
+    int removeTask()
+    {
+        return tasks.decrementAndGet();
+    }
+
+    @Managed
+    public long getVirtualTime()
+    {
+        return virtualTime.get();
+    }
+
+    /**
+     * Charges the group for the time a split ran. As for the levels, the contribution of a
+     * single quanta is capped, so that a hung split does not starve the group.
+     */
+    void addScheduledNanos(long quantaNanos)
+    {
+        virtualTime.addAndGet(min(quantaNanos, LEVEL_CONTRIBUTION_CAP) / weight);
+        scheduledTimeMicros.update(quantaNanos / 1000);
+    }
+
+    void addCpuNanos(long cpuNanos)
+    {
+        cpuTimeMicros.update(cpuNanos / 1000);
+    }
+
+    /**
+     * A group which had no waiting splits did not use its share, and would otherwise
+     * monopolize the threads until it catches up with the groups which kept running.
+     */
+    void catchUp(long minimumVirtualTime)
+    {
+        virtualTime.accumulateAndGet(minimumVirtualTime, Math::max);
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getScheduledTimeMicros()
+    {
+        return scheduledTimeMicros;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getCpuTimeMicros()
+    {
+        return cpuTimeMicros;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("name", name)
+                .add("weight", weight)
+                .add("virtualTime", virtualTime)
+                .toString();
+    }
+}
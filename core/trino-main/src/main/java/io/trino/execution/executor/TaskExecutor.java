@@ -29,6 +29,8 @@ import io.trino.execution.TaskId;
 import io.trino.execution.TaskManagerConfig;
 import io.trino.spi.TrinoException;
 import io.trino.version.EmbedVersion;
+import org.weakref.jmx.JmxException;
+import org.weakref.jmx.MBeanExporter;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
@@ -39,11 +41,13 @@ import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
 import java.util.SortedSet;
@@ -93,6 +97,8 @@ public class TaskExecutor
     private final int guaranteedNumberOfDriversPerTask;
     private final int maximumNumberOfDriversPerTask;
     private final EmbedVersion embedVersion;
+    private final boolean resourceGroupSchedulingEnabled;
+    private final Optional<MBeanExporter> exporter;
 
     private final Ticker ticker;
 
@@ -102,6 +108,12 @@ public class TaskExecutor
     @GuardedBy("this")
     private final List<TaskHandle> tasks;
 
+    /**
+     * Scheduling groups of the resource groups with tasks on this worker.
+     */
+    @GuardedBy("this")
+    private final Map<String, SchedulingGroup> schedulingGroups = new HashMap<>();
+
     /**
      * All splits registered with the task executor.
      */
@@ -157,7 +169,7 @@ public class TaskExecutor
     private volatile boolean closed;
 
     @Inject
-    public TaskExecutor(TaskManagerConfig config, EmbedVersion embedVersion, MultilevelSplitQueue splitQueue)
+    public TaskExecutor(TaskManagerConfig config, EmbedVersion embedVersion, MultilevelSplitQueue splitQueue, MBeanExporter exporter)
     {
         this(requireNonNull(config, "config is null").getMaxWorkerThreads(),
                 config.getMinDrivers(),
@@ -165,6 +177,8 @@ public class TaskExecutor
                 config.getMaxDriversPerTask(),
                 embedVersion,
                 splitQueue,
+                config.isResourceGroupSchedulingEnabled(),
+                Optional.of(requireNonNull(exporter, "exporter is null")),
                 Ticker.systemTicker());
     }
 
@@ -189,6 +203,21 @@ public class TaskExecutor
             EmbedVersion embedVersion,
             MultilevelSplitQueue splitQueue,
             Ticker ticker)
+    {
+        this(runnerThreads, minDrivers, guaranteedNumberOfDriversPerTask, maximumNumberOfDriversPerTask, embedVersion, splitQueue, false, Optional.empty(), ticker);
+    }
+
+    @VisibleForTesting
+    public TaskExecutor(
+            int runnerThreads,
+            int minDrivers,
+            int guaranteedNumberOfDriversPerTask,
+            int maximumNumberOfDriversPerTask,
+            EmbedVersion embedVersion,
+            MultilevelSplitQueue splitQueue,
+            boolean resourceGroupSchedulingEnabled,
+            Optional<MBeanExporter> exporter,
+            Ticker ticker)
     {
         checkArgument(runnerThreads > 0, "runnerThreads must be at least 1");
         checkArgument(guaranteedNumberOfDriversPerTask > 0, "guaranteedNumberOfDriversPerTask must be at least 1");
@@ -200,6 +229,8 @@ public class TaskExecutor
         this.executorMBean = new ThreadPoolExecutorMBean((ThreadPoolExecutor) executor);
         this.runnerThreads = runnerThreads;
         this.embedVersion = requireNonNull(embedVersion, "embedVersion is null");
+        this.resourceGroupSchedulingEnabled = resourceGroupSchedulingEnabled;
+        this.exporter = requireNonNull(exporter, "exporter is null");
 
         this.ticker = requireNonNull(ticker, "ticker is null");
 
@@ -255,20 +286,67 @@ public class TaskExecutor
             int initialSplitConcurrency,
             Duration splitConcurrencyAdjustFrequency,
             OptionalInt maxDriversPerTask)
+    {
+        return addTask(taskId, Optional.empty(), 1, utilizationSupplier, initialSplitConcurrency, splitConcurrencyAdjustFrequency, maxDriversPerTask);
+    }
+
+    /**
+     * @param schedulingGroup resource group of the task. When scheduling by resource group is enabled, the
+     * groups share the threads in proportion to their {@code schedulingWeight}
+     */
+    public synchronized TaskHandle addTask(
+            TaskId taskId,
+            Optional<String> schedulingGroup,
+            int schedulingWeight,
+            DoubleSupplier utilizationSupplier,
+            int initialSplitConcurrency,
+            Duration splitConcurrencyAdjustFrequency,
+            OptionalInt maxDriversPerTask)
     {
         requireNonNull(taskId, "taskId is null");
+        requireNonNull(schedulingGroup, "schedulingGroup is null");
         requireNonNull(utilizationSupplier, "utilizationSupplier is null");
         checkArgument(maxDriversPerTask.isEmpty() || maxDriversPerTask.getAsInt() <= maximumNumberOfDriversPerTask,
                 "maxDriversPerTask cannot be greater than the configured value");
 
         log.debug("Task scheduled " + taskId);
 
-        TaskHandle taskHandle = new TaskHandle(taskId, waitingSplits, utilizationSupplier, initialSplitConcurrency, splitConcurrencyAdjustFrequency, maxDriversPerTask);
+        SchedulingGroup group = waitingSplits.getDefaultGroup();
+        if (resourceGroupSchedulingEnabled && schedulingGroup.isPresent()) {
+            group = schedulingGroups.computeIfAbsent(schedulingGroup.get(), name -> {
+                SchedulingGroup newGroup = new SchedulingGroup(name, schedulingWeight);
+                exportGroup(newGroup, true);
+                return newGroup;
+            });
+            // the weight of the group can be changed while it has tasks
+            group.setWeight(schedulingWeight);
+        }
+        group.addTask();
+
+        TaskHandle taskHandle = new TaskHandle(taskId, waitingSplits, group, utilizationSupplier, initialSplitConcurrency, splitConcurrencyAdjustFrequency, maxDriversPerTask);
 
         tasks.add(taskHandle);
         return taskHandle;
     }
 
+    private void exportGroup(SchedulingGroup group, boolean export)
+    {
+        if (exporter.isEmpty()) {
+            return;
+        }
+        try {
+            if (export) {
+                exporter.get().exportWithGeneratedName(group, SchedulingGroup.class, group.getName());
+            }
+            else {
+                exporter.get().unexportWithGeneratedName(SchedulingGroup.class, group.getName());
+            }
+        }
+        catch (JmxException e) {
+            log.error(e, "Error %s scheduling group %s", export ? "exporting" : "unexporting", group.getName());
+        }
+    }
+
     public void removeTask(TaskHandle taskHandle)
     {
         try (SetThreadName ignored = new SetThreadName("Task-%s", taskHandle.getTaskId())) {
@@ -283,7 +361,12 @@ public class TaskExecutor
     {
         List<PrioritizedSplitRunner> splits;
         synchronized (this) {
-            tasks.remove(taskHandle);
+            if (tasks.remove(taskHandle)) {
+                SchedulingGroup group = taskHandle.getSchedulingGroup();
+                if (group.removeTask() == 0 && schedulingGroups.remove(group.getName(), group)) {
+                    exportGroup(group, false);
+                }
+            }
             splits = taskHandle.destroy();
 
             // stop tracking splits (especially blocked splits which may never unblock)
@@ -541,6 +624,12 @@ public class TaskExecutor
         return tasks.size();
     }
 
+    @Managed
+    public synchronized int getSchedulingGroups()
+    {
+        return schedulingGroups.size();
+    }
+
     @Managed
     public int getRunnerThreads()
     {
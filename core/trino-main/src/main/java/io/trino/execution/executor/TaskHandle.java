@@ -57,6 +57,7 @@ public class TaskHandle
 
     protected final AtomicReference<Priority> priority = new AtomicReference<>(new Priority(0, 0));
     private final MultilevelSplitQueue splitQueue;
+    private final SchedulingGroup schedulingGroup;
     private final OptionalInt maxDriversPerTask;
 
     public TaskHandle(
@@ -66,9 +67,22 @@ public class TaskHandle
             int initialSplitConcurrency,
             Duration splitConcurrencyAdjustFrequency,
             OptionalInt maxDriversPerTask)
+    {
+        this(taskId, splitQueue, splitQueue.getDefaultGroup(), utilizationSupplier, initialSplitConcurrency, splitConcurrencyAdjustFrequency, maxDriversPerTask);
+    }
+
+    public TaskHandle(
+            TaskId taskId,
+            MultilevelSplitQueue splitQueue,
+            SchedulingGroup schedulingGroup,
+            DoubleSupplier utilizationSupplier,
+            int initialSplitConcurrency,
+            Duration splitConcurrencyAdjustFrequency,
+            OptionalInt maxDriversPerTask)
     {
         this.taskId = requireNonNull(taskId, "taskId is null");
         this.splitQueue = requireNonNull(splitQueue, "splitQueue is null");
+        this.schedulingGroup = requireNonNull(schedulingGroup, "schedulingGroup is null");
         this.utilizationSupplier = requireNonNull(utilizationSupplier, "utilizationSupplier is null");
         this.maxDriversPerTask = requireNonNull(maxDriversPerTask, "maxDriversPerTask is null");
         this.concurrencyController = new SplitConcurrencyController(
@@ -80,6 +94,7 @@ public class TaskHandle
     {
         concurrencyController.update(durationNanos, utilizationSupplier.getAsDouble(), runningLeafSplits.size());
         scheduledNanos += durationNanos;
+        schedulingGroup.addScheduledNanos(durationNanos);
 
         Priority newPriority = splitQueue.updatePriority(priority.get(), durationNanos, scheduledNanos);
 
@@ -114,6 +129,11 @@ public class TaskHandle
         return taskId;
     }
 
+    public SchedulingGroup getSchedulingGroup()
+    {
+        return schedulingGroup;
+    }
+
     public OptionalInt getMaxDriversPerTask()
     {
         return maxDriversPerTask;
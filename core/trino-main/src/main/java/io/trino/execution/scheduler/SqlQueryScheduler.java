@@ -82,7 +82,9 @@ import static io.airlift.concurrent.MoreFutures.tryGetFutureValue;
 import static io.airlift.concurrent.MoreFutures.whenAnyComplete;
 import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
 import static io.trino.SystemSessionProperties.getConcurrentLifespansPerNode;
+import static io.trino.SystemSessionProperties.getExchangeTaskRetryAttempts;
 import static io.trino.SystemSessionProperties.getWriterMinSize;
+import static io.trino.SystemSessionProperties.isExchangeSpoolingEnabled;
 import static io.trino.connector.CatalogName.isInternalSystemConnector;
 import static io.trino.execution.BasicStageStats.aggregateBasicStageStats;
 import static io.trino.execution.SqlStageExecution.createSqlStageExecution;
@@ -196,6 +198,8 @@ public class SqlQueryScheduler
         OutputBufferId rootBufferId = Iterables.getOnlyElement(rootOutputBuffers.getBuffers().keySet());
         List<SqlStageExecution> stages = createStages(
                 (fragmentId, tasks, noMoreExchangeLocations) -> updateQueryOutputLocations(queryStateMachine, rootBufferId, tasks, noMoreExchangeLocations),
+                // the output of the root stage is read by the client while the query runs
+                false,
                 new AtomicInteger(),
                 plan.withBucketToPartition(Optional.of(new int[1])),
                 nodeScheduler,
@@ -281,6 +285,7 @@ public class SqlQueryScheduler
 
     private List<SqlStageExecution> createStages(
             ExchangeLocationsConsumer parent,
+            boolean outputSpooled,
             AtomicInteger nextStageId,
             StageExecutionPlan plan,
             NodeScheduler nodeScheduler,
@@ -299,6 +304,10 @@ public class SqlQueryScheduler
         ImmutableList.Builder<SqlStageExecution> stages = ImmutableList.builder();
 
         StageId stageId = new StageId(queryStateMachine.getQueryId(), nextStageId.getAndIncrement());
+        PartitioningHandle partitioningHandle = plan.getFragment().getPartitioning();
+        // scaled writers add tasks while the sources run, which the spooled output of the sources does not support
+        boolean inputsSpooled = isExchangeSpoolingEnabled(session) && !partitioningHandle.equals(SCALED_WRITER_DISTRIBUTION);
+        int taskRetryAttempts = outputSpooled ? getExchangeTaskRetryAttempts(session) : 0;
         SqlStageExecution stage = createSqlStageExecution(
                 stageId,
                 plan.getFragment(),
@@ -310,7 +319,11 @@ public class SqlQueryScheduler
                 queryExecutor,
                 failureDetector,
                 dynamicFilterService,
-                schedulerStats);
+                schedulerStats,
+                outputSpooled,
+                inputsSpooled,
+                taskRetryAttempts,
+                taskRetryAttempts > 0 ? Optional.of(nodeScheduler.createNodeSelector(session, Optional.empty())) : Optional.empty());
         stages.add(stage);
 
         // function to create child stages recursively by supplying the bucket partitioning (according to parent's partitioning)
@@ -319,6 +332,7 @@ public class SqlQueryScheduler
             for (StageExecutionPlan subStagePlan : plan.getSubStages()) {
                 List<SqlStageExecution> subTree = createStages(
                         stage::addExchangeLocations,
+                        inputsSpooled,
                         nextStageId,
                         subStagePlan.withBucketToPartition(bucketToPartition),
                         nodeScheduler,
@@ -342,7 +356,6 @@ public class SqlQueryScheduler
         };
 
         Set<SqlStageExecution> childStages;
-        PartitioningHandle partitioningHandle = plan.getFragment().getPartitioning();
         if (partitioningHandle.equals(SOURCE_DISTRIBUTION)) {
             // nodes are selected dynamically based on the constraints of the splits and the system load
             Entry<PlanNodeId, SplitSource> entry = Iterables.getOnlyElement(plan.getSplitSources().entrySet());
@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.Session;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import io.trino.sql.gen.JoinFilterFunctionCompiler.JoinFilterFunctionFactory;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.operator.JoinUtils.channelsToPages;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link JoinHashSupplier} counterpart for joins on a single BIGINT, INTEGER or DATE key.
+ */
+public class BigintJoinHashSupplier
+        implements LookupSourceSupplier
+{
+    private final Session session;
+    private final BigintPagesHash pagesHash;
+    private final LongArrayList addresses;
+    private final List<Page> pages;
+    private final Optional<PositionLinks.Factory> positionLinks;
+    private final Optional<JoinFilterFunctionFactory> filterFunctionFactory;
+    private final List<JoinFilterFunctionFactory> searchFunctionFactories;
+
+    public BigintJoinHashSupplier(
+            Session session,
+            PagesHashStrategy pagesHashStrategy,
+            LongArrayList addresses,
+            List<List<Block>> channels,
+            Optional<JoinFilterFunctionFactory> filterFunctionFactory,
+            Optional<Integer> sortChannel,
+            List<JoinFilterFunctionFactory> searchFunctionFactories,
+            Integer joinChannel,
+            Type joinChannelType)
+    {
+        this.session = requireNonNull(session, "session is null");
+        this.addresses = requireNonNull(addresses, "addresses is null");
+        this.filterFunctionFactory = requireNonNull(filterFunctionFactory, "filterFunctionFactory is null");
+        this.searchFunctionFactories = ImmutableList.copyOf(searchFunctionFactories);
+        requireNonNull(channels, "channels is null");
+        requireNonNull(pagesHashStrategy, "pagesHashStrategy is null");
+        requireNonNull(joinChannel, "joinChannel is null");
+        checkArgument(BigintPagesHash.isSupportedJoinType(joinChannelType), "Unsupported join channel type: %s", joinChannelType);
+
+        PositionLinks.FactoryBuilder positionLinksFactoryBuilder;
+        if (sortChannel.isPresent()) {
+            checkArgument(filterFunctionFactory.isPresent(), "filterFunctionFactory not set while sortChannel set");
+            positionLinksFactoryBuilder = SortedPositionLinks.builder(
+                    addresses.size(),
+                    pagesHashStrategy,
+                    addresses);
+        }
+        else {
+            positionLinksFactoryBuilder = ArrayPositionLinks.builder(addresses.size());
+        }
+
+        this.pages = channelsToPages(channels);
+        this.pagesHash = new BigintPagesHash(addresses, pagesHashStrategy, positionLinksFactoryBuilder, channels.get(joinChannel), joinChannelType);
+        this.positionLinks = positionLinksFactoryBuilder.isEmpty() ? Optional.empty() : Optional.of(positionLinksFactoryBuilder.build());
+    }
+
+    @Override
+    public long getHashCollisions()
+    {
+        return pagesHash.getHashCollisions();
+    }
+
+    @Override
+    public double getExpectedHashCollisions()
+    {
+        return pagesHash.getExpectedHashCollisions();
+    }
+
+    @Override
+    public long checksum()
+    {
+        return positionLinks.map(PositionLinks.Factory::checksum).orElse(0L);
+    }
+
+    @Override
+    public BigintJoinHash get()
+    {
+        // We need to create new JoinFilterFunction per each thread using it, since those functions
+        // are not thread safe...
+        Optional<JoinFilterFunction> filterFunction =
+                filterFunctionFactory.map(factory -> factory.create(session.toConnectorSession(), addresses, pages));
+        return new BigintJoinHash(
+                pagesHash,
+                filterFunction,
+                positionLinks.map(links -> {
+                    List<JoinFilterFunction> searchFunctions = searchFunctionFactories.stream()
+                            .map(factory -> factory.create(session.toConnectorSession(), addresses, pages))
+                            .collect(toImmutableList());
+                    return links.create(searchFunctions);
+                }));
+    }
+}
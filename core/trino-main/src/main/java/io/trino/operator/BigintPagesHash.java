@@ -0,0 +1,224 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.trino.operator.SyntheticAddress.decodePosition;
+import static io.trino.operator.SyntheticAddress.decodeSliceIndex;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.util.HashCollisionsEstimator.estimateNumberOfHashCollisions;
+import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Variant of {@link PagesHash} for a single BIGINT, INTEGER or DATE join key.
+ * Key values are copied to a primitive array parallel to the hash table, so
+ * neither building nor probing go through the {@link PagesHashStrategy}
+ * to compare keys.
+ */
+// This implementation assumes arrays used in the hash are always a power of 2
+public final class BigintPagesHash
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BigintPagesHash.class).instanceSize();
+    private final LongArrayList addresses;
+    private final PagesHashStrategy pagesHashStrategy;
+
+    private final int channelCount;
+    private final boolean intKey;
+    private final int mask;
+    private final int[] key;
+    private final long[] values;
+    private final long size;
+
+    private final long hashCollisions;
+    private final double expectedHashCollisions;
+
+    public BigintPagesHash(
+            LongArrayList addresses,
+            PagesHashStrategy pagesHashStrategy,
+            PositionLinks.FactoryBuilder positionLinks,
+            List<Block> joinChannel,
+            Type joinChannelType)
+    {
+        this.addresses = requireNonNull(addresses, "addresses is null");
+        this.pagesHashStrategy = requireNonNull(pagesHashStrategy, "pagesHashStrategy is null");
+        this.channelCount = pagesHashStrategy.getChannelCount();
+        requireNonNull(joinChannel, "joinChannel is null");
+        this.intKey = isIntKey(requireNonNull(joinChannelType, "joinChannelType is null"));
+
+        // reserve memory for the arrays
+        int hashSize = HashCommon.arraySize(addresses.size(), 0.75f);
+
+        mask = hashSize - 1;
+        key = new int[hashSize];
+        Arrays.fill(key, -1);
+        values = new long[hashSize];
+
+        long hashCollisionsLocal = 0;
+        for (int position = 0; position < addresses.size(); position++) {
+            long pageAddress = addresses.getLong(position);
+            Block block = joinChannel.get(decodeSliceIndex(pageAddress));
+            int blockPosition = decodePosition(pageAddress);
+            if (block.isNull(blockPosition)) {
+                continue;
+            }
+
+            long value = readValue(block, blockPosition);
+            int pos = getHashPosition(value, mask);
+
+            // look for an empty slot or a slot containing this key
+            int realPosition = position;
+            while (key[pos] != -1) {
+                if (values[pos] == value) {
+                    // found a slot for this key
+                    // link the new key position to the current key position
+                    realPosition = positionLinks.link(realPosition, key[pos]);
+
+                    // key[pos] updated outside of this loop
+                    break;
+                }
+                // increment position and mask to handler wrap around
+                pos = (pos + 1) & mask;
+                hashCollisionsLocal++;
+            }
+
+            key[pos] = realPosition;
+            values[pos] = value;
+        }
+
+        size = sizeOf(addresses.elements()) + pagesHashStrategy.getSizeInBytes() +
+                sizeOf(key) + sizeOf(values);
+        hashCollisions = hashCollisionsLocal;
+        expectedHashCollisions = estimateNumberOfHashCollisions(addresses.size(), hashSize);
+    }
+
+    public static boolean isSupportedJoinType(Type type)
+    {
+        return type.equals(BIGINT) || isIntKey(type);
+    }
+
+    private static boolean isIntKey(Type type)
+    {
+        return type.equals(INTEGER) || type.equals(DATE);
+    }
+
+    public int getChannelCount()
+    {
+        return channelCount;
+    }
+
+    public int getPositionCount()
+    {
+        return addresses.size();
+    }
+
+    public long getInMemorySizeInBytes()
+    {
+        return INSTANCE_SIZE + size;
+    }
+
+    public long getHashCollisions()
+    {
+        return hashCollisions;
+    }
+
+    public double getExpectedHashCollisions()
+    {
+        return expectedHashCollisions;
+    }
+
+    public int getAddressIndex(int position, Page hashChannelsPage)
+    {
+        Block block = hashChannelsPage.getBlock(0);
+        if (block.isNull(position)) {
+            return -1;
+        }
+
+        long value = readValue(block, position);
+        int pos = getHashPosition(value, mask);
+
+        while (key[pos] != -1) {
+            if (values[pos] == value) {
+                return key[pos];
+            }
+            // increment position and mask to handler wrap around
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    public void getAddressIndexes(int[] positions, int positionCount, Page hashChannelsPage, long[] result)
+    {
+        Block block = hashChannelsPage.getBlock(0);
+        long[] probeValues = new long[positionCount];
+        int[] hashPositions = new int[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            probeValues[i] = readValue(block, positions[i]);
+            hashPositions[i] = getHashPosition(probeValues[i], mask);
+        }
+
+        // Read the slots of all probe positions before comparing any of the values,
+        // so the cache misses of many probe positions overlap.
+        for (int i = 0; i < positionCount; i++) {
+            result[i] = key[hashPositions[i]];
+        }
+
+        for (int i = 0; i < positionCount; i++) {
+            int pos = hashPositions[i];
+            int currentKey = (int) result[i];
+            while (currentKey != -1 && values[pos] != probeValues[i]) {
+                // increment position and mask to handler wrap around
+                pos = (pos + 1) & mask;
+                currentKey = key[pos];
+            }
+            result[i] = currentKey;
+        }
+    }
+
+    public void appendTo(long position, PageBuilder pageBuilder, int outputChannelOffset)
+    {
+        long pageAddress = addresses.getLong(toIntExact(position));
+        int blockIndex = decodeSliceIndex(pageAddress);
+        int blockPosition = decodePosition(pageAddress);
+
+        pagesHashStrategy.appendTo(blockIndex, blockPosition, pageBuilder, outputChannelOffset);
+    }
+
+    private long readValue(Block block, int position)
+    {
+        if (intKey) {
+            return block.getInt(position, 0);
+        }
+        return block.getLong(position, 0);
+    }
+
+    private static int getHashPosition(long value, long mask)
+    {
+        return (int) (murmurHash3(value) & mask);
+    }
+}
@@ -55,6 +55,12 @@ final class EmptyLookupSource
         return -1;
     }
 
+    @Override
+    public boolean supportsBatchedJoinPositions()
+    {
+        return true;
+    }
+
     @Override
     public long getNextJoinPosition(long currentJoinPosition, int probePosition, Page allProbeChannelsPage)
     {
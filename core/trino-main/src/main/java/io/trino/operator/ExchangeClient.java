@@ -19,10 +19,11 @@ import com.google.common.util.concurrent.SettableFuture;
 import io.airlift.http.client.HttpClient;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
+import io.trino.exchange.ExchangeSpool;
 import io.trino.execution.buffer.PageCodecMarker;
 import io.trino.execution.buffer.SerializedPage;
 import io.trino.memory.context.LocalMemoryContext;
-import io.trino.operator.HttpPageBufferClient.ClientCallback;
+import io.trino.operator.PageBufferClient.ClientCallback;
 import io.trino.operator.WorkProcessor.ProcessState;
 import io.trino.sql.analyzer.FeaturesConfig.DataIntegrityVerification;
 
@@ -50,7 +51,9 @@ import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static io.airlift.slice.Slices.EMPTY_SLICE;
+import static io.trino.exchange.SpoolLocation.isSpoolLocation;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 @ThreadSafe
 public class ExchangeClient
@@ -58,6 +61,7 @@ public class ExchangeClient
 {
     private static final SerializedPage NO_MORE_PAGES = new SerializedPage(EMPTY_SLICE, PageCodecMarker.MarkerSet.empty(), 0, 0);
     private static final ListenableFuture<?> NOT_BLOCKED = immediateFuture(null);
+    private static final Duration SPOOL_COMMIT_POLL_INTERVAL = new Duration(100, MILLISECONDS);
 
     private final String selfAddress;
     private final DataIntegrityVerification dataIntegrityVerification;
@@ -68,16 +72,17 @@ public class ExchangeClient
     private final boolean acknowledgePages;
     private final HttpClient httpClient;
     private final ScheduledExecutorService scheduler;
+    private final ExchangeSpool exchangeSpool;
 
     @GuardedBy("this")
     private boolean noMoreLocations;
 
-    private final ConcurrentMap<URI, HttpPageBufferClient> allClients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<URI, PageBufferClient> allClients = new ConcurrentHashMap<>();
 
     @GuardedBy("this")
-    private final Deque<HttpPageBufferClient> queuedClients = new LinkedList<>();
+    private final Deque<PageBufferClient> queuedClients = new LinkedList<>();
 
-    private final Set<HttpPageBufferClient> completedClients = newConcurrentHashSet();
+    private final Set<PageBufferClient> completedClients = newConcurrentHashSet();
     private final LinkedBlockingDeque<SerializedPage> pageBuffer = new LinkedBlockingDeque<>();
 
     @GuardedBy("this")
@@ -111,7 +116,8 @@ public class ExchangeClient
             HttpClient httpClient,
             ScheduledExecutorService scheduler,
             LocalMemoryContext systemMemoryContext,
-            Executor pageBufferClientCallbackExecutor)
+            Executor pageBufferClientCallbackExecutor,
+            ExchangeSpool exchangeSpool)
     {
         this.selfAddress = requireNonNull(selfAddress, "selfAddress is null");
         this.dataIntegrityVerification = requireNonNull(dataIntegrityVerification, "dataIntegrityVerification is null");
@@ -125,6 +131,7 @@ public class ExchangeClient
         this.systemMemoryContext = systemMemoryContext;
         this.maxBufferRetainedSizeInBytes = Long.MIN_VALUE;
         this.pageBufferClientCallbackExecutor = requireNonNull(pageBufferClientCallbackExecutor, "pageBufferClientCallbackExecutor is null");
+        this.exchangeSpool = requireNonNull(exchangeSpool, "exchangeSpool is null");
     }
 
     public ExchangeClientStatus getStatus()
@@ -133,7 +140,7 @@ public class ExchangeClient
         // It does not guarantee a consistent view between different exchange clients.
         // Guaranteeing a consistent view introduces significant lock contention.
         ImmutableList.Builder<PageBufferClientStatus> pageBufferClientStatusBuilder = ImmutableList.builder();
-        for (HttpPageBufferClient client : allClients.values()) {
+        for (PageBufferClient client : allClients.values()) {
             pageBufferClientStatusBuilder.add(client.getStatus());
         }
         List<PageBufferClientStatus> pageBufferClientStatus = pageBufferClientStatusBuilder.build();
@@ -163,17 +170,30 @@ public class ExchangeClient
 
         checkState(!noMoreLocations, "No more locations already set");
 
-        HttpPageBufferClient client = new HttpPageBufferClient(
-                selfAddress,
-                httpClient,
-                dataIntegrityVerification,
-                maxResponseSize,
-                maxErrorDuration,
-                acknowledgePages,
-                location,
-                new ExchangeClientCallback(),
-                scheduler,
-                pageBufferClientCallbackExecutor);
+        PageBufferClient client;
+        if (isSpoolLocation(location)) {
+            client = new SpoolPageBufferClient(
+                    exchangeSpool,
+                    location,
+                    maxResponseSize,
+                    SPOOL_COMMIT_POLL_INTERVAL,
+                    new ExchangeClientCallback(),
+                    scheduler,
+                    pageBufferClientCallbackExecutor);
+        }
+        else {
+            client = new HttpPageBufferClient(
+                    selfAddress,
+                    httpClient,
+                    dataIntegrityVerification,
+                    maxResponseSize,
+                    maxErrorDuration,
+                    acknowledgePages,
+                    location,
+                    new ExchangeClientCallback(),
+                    scheduler,
+                    pageBufferClientCallbackExecutor);
+        }
         allClients.put(location, client);
         queuedClients.add(client);
 
@@ -270,7 +290,7 @@ public class ExchangeClient
             return;
         }
 
-        for (HttpPageBufferClient client : allClients.values()) {
+        for (PageBufferClient client : allClients.values()) {
             closeQuietly(client);
         }
         pageBuffer.clear();
@@ -312,7 +332,7 @@ public class ExchangeClient
         clientCount -= pendingClients;
 
         for (int i = 0; i < clientCount; i++) {
-            HttpPageBufferClient client = queuedClients.poll();
+            PageBufferClient client = queuedClients.poll();
             if (client == null) {
                 // no more clients available
                 return;
@@ -395,7 +415,7 @@ public class ExchangeClient
         }
     }
 
-    private synchronized void requestComplete(HttpPageBufferClient client)
+    private synchronized void requestComplete(PageBufferClient client)
     {
         if (!queuedClients.contains(client)) {
             queuedClients.add(client);
@@ -403,7 +423,7 @@ public class ExchangeClient
         scheduleRequestIfNecessary();
     }
 
-    private synchronized void clientFinished(HttpPageBufferClient client)
+    private synchronized void clientFinished(PageBufferClient client)
     {
         requireNonNull(client, "client is null");
         completedClients.add(client);
@@ -438,7 +458,7 @@ public class ExchangeClient
             implements ClientCallback
     {
         @Override
-        public boolean addPages(HttpPageBufferClient client, List<SerializedPage> pages)
+        public boolean addPages(PageBufferClient client, List<SerializedPage> pages)
         {
             requireNonNull(client, "client is null");
             requireNonNull(pages, "pages is null");
@@ -446,20 +466,20 @@ public class ExchangeClient
         }
 
         @Override
-        public void requestComplete(HttpPageBufferClient client)
+        public void requestComplete(PageBufferClient client)
         {
             requireNonNull(client, "client is null");
             ExchangeClient.this.requestComplete(client);
         }
 
         @Override
-        public void clientFinished(HttpPageBufferClient client)
+        public void clientFinished(PageBufferClient client)
         {
             ExchangeClient.this.clientFinished(client);
         }
 
         @Override
-        public void clientFailed(HttpPageBufferClient client, Throwable cause)
+        public void clientFailed(PageBufferClient client, Throwable cause)
         {
             requireNonNull(client, "client is null");
             requireNonNull(cause, "cause is null");
@@ -467,7 +487,7 @@ public class ExchangeClient
         }
     }
 
-    private static void closeQuietly(HttpPageBufferClient client)
+    private static void closeQuietly(PageBufferClient client)
     {
         try {
             client.close();
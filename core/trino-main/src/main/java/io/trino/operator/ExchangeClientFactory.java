@@ -18,6 +18,7 @@ import io.airlift.http.client.HttpClient;
 import io.airlift.node.NodeInfo;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
+import io.trino.exchange.ExchangeSpool;
 import io.trino.memory.context.LocalMemoryContext;
 import io.trino.sql.analyzer.FeaturesConfig;
 import io.trino.sql.analyzer.FeaturesConfig.DataIntegrityVerification;
@@ -48,6 +49,7 @@ public class ExchangeClientFactory
     private final DataSize maxResponseSize;
     private final boolean acknowledgePages;
     private final ScheduledExecutorService scheduler;
+    private final ExchangeSpool exchangeSpool;
     private final ThreadPoolExecutorMBean executorMBean;
     private final ExecutorService pageBufferClientCallbackExecutor;
 
@@ -57,7 +59,8 @@ public class ExchangeClientFactory
             FeaturesConfig featuresConfig,
             ExchangeClientConfig config,
             @ForExchange HttpClient httpClient,
-            @ForExchange ScheduledExecutorService scheduler)
+            @ForExchange ScheduledExecutorService scheduler,
+            ExchangeSpool exchangeSpool)
     {
         this(
                 nodeInfo,
@@ -69,7 +72,8 @@ public class ExchangeClientFactory
                 config.isAcknowledgePages(),
                 config.getPageBufferClientMaxCallbackThreads(),
                 httpClient,
-                scheduler);
+                scheduler,
+                exchangeSpool);
     }
 
     public ExchangeClientFactory(
@@ -82,7 +86,8 @@ public class ExchangeClientFactory
             boolean acknowledgePages,
             int pageBufferClientMaxCallbackThreads,
             HttpClient httpClient,
-            ScheduledExecutorService scheduler)
+            ScheduledExecutorService scheduler,
+            ExchangeSpool exchangeSpool)
     {
         this.nodeInfo = requireNonNull(nodeInfo, "nodeInfo is null");
         this.dataIntegrityVerification = requireNonNull(dataIntegrityVerification, "dataIntegrityVerification is null");
@@ -99,6 +104,7 @@ public class ExchangeClientFactory
         this.maxResponseSize = DataSize.ofBytes(maxResponseSizeBytes);
 
         this.scheduler = requireNonNull(scheduler, "scheduler is null");
+        this.exchangeSpool = requireNonNull(exchangeSpool, "exchangeSpool is null");
 
         this.pageBufferClientCallbackExecutor = newFixedThreadPool(pageBufferClientMaxCallbackThreads, daemonThreadsNamed("page-buffer-client-callback-%s"));
         this.executorMBean = new ThreadPoolExecutorMBean((ThreadPoolExecutor) pageBufferClientCallbackExecutor);
@@ -135,6 +141,7 @@ public class ExchangeClientFactory
                 httpClient,
                 scheduler,
                 systemMemoryContext,
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                exchangeSpool);
     }
 }
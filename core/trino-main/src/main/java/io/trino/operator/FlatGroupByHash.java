@@ -0,0 +1,802 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.trino.operator.scalar.CombineHashFunction;
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.TrinoException;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.LongArrayBlock;
+import io.trino.spi.block.RunLengthEncodedBlock;
+import io.trino.spi.type.DecimalType;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.VarbinaryType;
+import io.trino.spi.type.VarcharType;
+import io.trino.sql.planner.optimizations.HashGenerationOptimizer;
+import io.trino.type.BlockTypeOperators;
+import io.trino.type.BlockTypeOperators.BlockPositionHashCode;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.trino.spi.StandardErrorCode.GENERIC_INSUFFICIENT_RESOURCES;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.BooleanType.BOOLEAN;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.SmallintType.SMALLINT;
+import static io.trino.spi.type.TinyintType.TINYINT;
+import static io.trino.util.HashCollisionsEstimator.estimateNumberOfHashCollisions;
+import static it.unimi.dsi.fastutil.HashCommon.arraySize;
+import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
+import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link GroupByHash} which keeps every group in a fixed size, row oriented record.
+ * A record contains the raw hash of the group followed by the values of all the key channels.
+ * Fixed width values are stored inline, while variable width values are stored as
+ * an offset and length into a separate variable width data array. All records are stored
+ * in one contiguous byte array ordered by group id, so a hash table probe touches the
+ * hash table slot and a single record.
+ * <p>
+ * Only key types which have a binary representation that is consistent with their equality
+ * semantics are supported, see {@link #isSupportedType(Type)}.
+ */
+// This implementation assumes arrays used in the hash are always a power of 2
+public class FlatGroupByHash
+        implements GroupByHash
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(FlatGroupByHash.class).instanceSize();
+    private static final float FILL_RATIO = 0.75f;
+
+    private static final byte KIND_LONG = 0;
+    private static final byte KIND_INT = 1;
+    private static final byte KIND_SHORT = 2;
+    private static final byte KIND_BYTE = 3;
+    private static final byte KIND_BOOLEAN = 4;
+    private static final byte KIND_VARIABLE_WIDTH = 5;
+
+    private static final int RAW_HASH_OFFSET = 0;
+    private static final int VALUE_IS_NULL = 1;
+    private static final int VALUE_IS_NOT_NULL = 0;
+
+    private final List<Type> types;
+    private final List<Type> hashTypes;
+    private final int[] channels;
+    private final Optional<Integer> inputHashChannel;
+    private final HashGenerator hashGenerator;
+    private final List<BlockPositionHashCode> hashCodeOperators;
+
+    // record layout
+    private final byte[] kinds;
+    private final int[] fieldOffsets;
+    private final int recordSize;
+
+    private int hashCapacity;
+    private int maxFill;
+    private int mask;
+    private int[] groupIdsByHash;
+    private byte[] rawHashByHashPosition;
+
+    // records ordered by group id
+    private byte[] records;
+    private Slice recordsSlice;
+
+    // values of variable width keys
+    private byte[] variableWidthData;
+    private Slice variableWidthDataSlice;
+    private int variableWidthDataSize;
+
+    private int nextGroupId;
+    private long hashCollisions;
+    private double expectedHashCollisions;
+
+    // reserve enough memory before rehash
+    private final UpdateMemory updateMemory;
+    private long preallocatedMemoryInBytes;
+    private long currentPageSizeInBytes;
+
+    public FlatGroupByHash(
+            List<? extends Type> hashTypes,
+            int[] hashChannels,
+            Optional<Integer> inputHashChannel,
+            int expectedSize,
+            BlockTypeOperators blockTypeOperators,
+            UpdateMemory updateMemory)
+    {
+        this.hashTypes = ImmutableList.copyOf(requireNonNull(hashTypes, "hashTypes is null"));
+        requireNonNull(hashChannels, "hashChannels is null");
+        requireNonNull(blockTypeOperators, "blockTypeOperators is null");
+        checkArgument(hashTypes.size() == hashChannels.length, "hashTypes and hashChannels have different sizes");
+        checkArgument(expectedSize > 0, "expectedSize must be greater than zero");
+        checkArgument(hashTypes.stream().allMatch(FlatGroupByHash::isSupportedType), "Unsupported types: %s", hashTypes);
+
+        this.inputHashChannel = requireNonNull(inputHashChannel, "inputHashChannel is null");
+        this.types = inputHashChannel.isPresent() ? ImmutableList.copyOf(Iterables.concat(hashTypes, ImmutableList.of(BIGINT))) : this.hashTypes;
+        this.channels = hashChannels.clone();
+        this.hashGenerator = inputHashChannel.isPresent() ? new PrecomputedHashGenerator(inputHashChannel.get()) : new InterpretedHashGenerator(this.hashTypes, hashChannels, blockTypeOperators);
+        this.hashCodeOperators = this.hashTypes.stream()
+                .map(blockTypeOperators::getHashCodeOperator)
+                .collect(toImmutableList());
+
+        this.kinds = new byte[hashChannels.length];
+        this.fieldOffsets = new int[hashChannels.length];
+        int offset = RAW_HASH_OFFSET + Long.BYTES;
+        for (int i = 0; i < hashChannels.length; i++) {
+            kinds[i] = getKind(this.hashTypes.get(i));
+            fieldOffsets[i] = offset;
+            // null flag followed by the value
+            offset += Byte.BYTES + getFieldSize(kinds[i]);
+        }
+        this.recordSize = offset;
+
+        hashCapacity = arraySize(expectedSize, FILL_RATIO);
+        maxFill = calculateMaxFill(hashCapacity);
+        mask = hashCapacity - 1;
+        groupIdsByHash = new int[hashCapacity];
+        Arrays.fill(groupIdsByHash, -1);
+        rawHashByHashPosition = new byte[hashCapacity];
+
+        records = new byte[getRecordsSize(maxFill)];
+        recordsSlice = Slices.wrappedBuffer(records);
+        variableWidthData = new byte[0];
+        variableWidthDataSlice = Slices.wrappedBuffer(variableWidthData);
+
+        // This interface is used for actively reserving memory (push model) for rehash.
+        // The caller can also query memory usage on this object (pull model)
+        this.updateMemory = requireNonNull(updateMemory, "updateMemory is null");
+    }
+
+    public static boolean isSupportedType(Type type)
+    {
+        return type.equals(BIGINT) ||
+                type.equals(INTEGER) ||
+                type.equals(SMALLINT) ||
+                type.equals(TINYINT) ||
+                type.equals(DATE) ||
+                type.equals(BOOLEAN) ||
+                (type instanceof DecimalType && ((DecimalType) type).isShort()) ||
+                type instanceof VarcharType ||
+                type instanceof VarbinaryType;
+    }
+
+    private static byte getKind(Type type)
+    {
+        if (type.equals(BIGINT) || type instanceof DecimalType) {
+            return KIND_LONG;
+        }
+        if (type.equals(INTEGER) || type.equals(DATE)) {
+            return KIND_INT;
+        }
+        if (type.equals(SMALLINT)) {
+            return KIND_SHORT;
+        }
+        if (type.equals(TINYINT)) {
+            return KIND_BYTE;
+        }
+        if (type.equals(BOOLEAN)) {
+            return KIND_BOOLEAN;
+        }
+        return KIND_VARIABLE_WIDTH;
+    }
+
+    private static int getFieldSize(byte kind)
+    {
+        switch (kind) {
+            case KIND_LONG:
+                return Long.BYTES;
+            case KIND_INT:
+                return Integer.BYTES;
+            case KIND_SHORT:
+                return Short.BYTES;
+            case KIND_BYTE:
+            case KIND_BOOLEAN:
+                return Byte.BYTES;
+            case KIND_VARIABLE_WIDTH:
+                // offset and length in the variable width data
+                return Integer.BYTES + Integer.BYTES;
+            default:
+                throw new IllegalArgumentException("Unsupported kind: " + kind);
+        }
+    }
+
+    @Override
+    public long getRawHash(int groupId)
+    {
+        return recordsSlice.getLong(getRecordOffset(groupId) + RAW_HASH_OFFSET);
+    }
+
+    @Override
+    public long getEstimatedSize()
+    {
+        return INSTANCE_SIZE +
+                sizeOf(groupIdsByHash) +
+                sizeOf(rawHashByHashPosition) +
+                sizeOf(records) +
+                sizeOf(variableWidthData) +
+                preallocatedMemoryInBytes;
+    }
+
+    @Override
+    public long getHashCollisions()
+    {
+        return hashCollisions;
+    }
+
+    @Override
+    public double getExpectedHashCollisions()
+    {
+        return expectedHashCollisions + estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+    }
+
+    @Override
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    @Override
+    public int getGroupCount()
+    {
+        return nextGroupId;
+    }
+
+    @Override
+    public void appendValuesTo(int groupId, PageBuilder pageBuilder, int outputChannelOffset)
+    {
+        int recordOffset = getRecordOffset(groupId);
+        for (int i = 0; i < channels.length; i++) {
+            BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(outputChannelOffset + i);
+            int fieldOffset = recordOffset + fieldOffsets[i];
+            if (recordsSlice.getByte(fieldOffset) == VALUE_IS_NULL) {
+                blockBuilder.appendNull();
+                continue;
+            }
+
+            int valueOffset = fieldOffset + Byte.BYTES;
+            Type type = hashTypes.get(i);
+            switch (kinds[i]) {
+                case KIND_LONG:
+                    type.writeLong(blockBuilder, recordsSlice.getLong(valueOffset));
+                    break;
+                case KIND_INT:
+                    type.writeLong(blockBuilder, recordsSlice.getInt(valueOffset));
+                    break;
+                case KIND_SHORT:
+                    type.writeLong(blockBuilder, recordsSlice.getShort(valueOffset));
+                    break;
+                case KIND_BYTE:
+                    type.writeLong(blockBuilder, recordsSlice.getByte(valueOffset));
+                    break;
+                case KIND_BOOLEAN:
+                    type.writeBoolean(blockBuilder, recordsSlice.getByte(valueOffset) != 0);
+                    break;
+                case KIND_VARIABLE_WIDTH:
+                    type.writeSlice(
+                            blockBuilder,
+                            variableWidthDataSlice,
+                            recordsSlice.getInt(valueOffset),
+                            recordsSlice.getInt(valueOffset + Integer.BYTES));
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported kind: " + kinds[i]);
+            }
+        }
+        if (inputHashChannel.isPresent()) {
+            BIGINT.writeLong(pageBuilder.getBlockBuilder(outputChannelOffset + channels.length), getRawHash(groupId));
+        }
+    }
+
+    @Override
+    public Work<?> addPage(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        if (isRunLengthEncoded(page)) {
+            return new AddRunLengthEncodedPageWork(page);
+        }
+        return new AddPageWork(page);
+    }
+
+    @Override
+    public Work<GroupByIdBlock> getGroupIds(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        if (isRunLengthEncoded(page)) {
+            return new GetRunLengthEncodedGroupIdsWork(page);
+        }
+        return new GetGroupIdsWork(page);
+    }
+
+    @Override
+    public boolean contains(int position, Page page, int[] hashChannels)
+    {
+        long rawHash = HashGenerationOptimizer.INITIAL_HASH_VALUE;
+        for (int i = 0; i < hashChannels.length; i++) {
+            rawHash = CombineHashFunction.getHash(rawHash, hashCodeOperators.get(i).hashCodeNullSafe(page.getBlock(hashChannels[i]), position));
+        }
+        return contains(position, page, hashChannels, rawHash);
+    }
+
+    @Override
+    public boolean contains(int position, Page page, int[] hashChannels, long rawHash)
+    {
+        int hashPosition = (int) getHashPosition(rawHash, mask);
+
+        // look for a slot containing this key
+        while (groupIdsByHash[hashPosition] != -1) {
+            if (rawHashByHashPosition[hashPosition] == (byte) rawHash && recordNotDistinctFromRow(groupIdsByHash[hashPosition], rawHash, position, page, hashChannels)) {
+                // found an existing slot for this key
+                return true;
+            }
+            // increment position and mask to handle wrap around
+            hashPosition = (hashPosition + 1) & mask;
+        }
+
+        return false;
+    }
+
+    @VisibleForTesting
+    @Override
+    public int getCapacity()
+    {
+        return hashCapacity;
+    }
+
+    private int putIfAbsent(int position, Page page)
+    {
+        long rawHash = hashGenerator.hashPosition(position, page);
+        int hashPosition = (int) getHashPosition(rawHash, mask);
+
+        // look for an empty slot or a slot containing this key
+        while (true) {
+            int groupId = groupIdsByHash[hashPosition];
+            if (groupId == -1) {
+                break;
+            }
+            if (rawHashByHashPosition[hashPosition] == (byte) rawHash && recordNotDistinctFromRow(groupId, rawHash, position, page, channels)) {
+                // found an existing slot for this key
+                return groupId;
+            }
+            // increment position and mask to handle wrap around
+            hashPosition = (hashPosition + 1) & mask;
+            hashCollisions++;
+        }
+
+        return addNewGroup(hashPosition, position, page, rawHash);
+    }
+
+    private int addNewGroup(int hashPosition, int position, Page page, long rawHash)
+    {
+        // record group id in hash
+        int groupId = nextGroupId++;
+        groupIdsByHash[hashPosition] = groupId;
+        rawHashByHashPosition[hashPosition] = (byte) rawHash;
+
+        // write the record
+        int recordOffset = getRecordOffset(groupId);
+        recordsSlice.setLong(recordOffset + RAW_HASH_OFFSET, rawHash);
+        for (int i = 0; i < channels.length; i++) {
+            Block block = page.getBlock(channels[i]);
+            int fieldOffset = recordOffset + fieldOffsets[i];
+            if (block.isNull(position)) {
+                recordsSlice.setByte(fieldOffset, VALUE_IS_NULL);
+                continue;
+            }
+
+            recordsSlice.setByte(fieldOffset, VALUE_IS_NOT_NULL);
+            int valueOffset = fieldOffset + Byte.BYTES;
+            switch (kinds[i]) {
+                case KIND_LONG:
+                    recordsSlice.setLong(valueOffset, block.getLong(position, 0));
+                    break;
+                case KIND_INT:
+                    recordsSlice.setInt(valueOffset, block.getInt(position, 0));
+                    break;
+                case KIND_SHORT:
+                    recordsSlice.setShort(valueOffset, block.getShort(position, 0));
+                    break;
+                case KIND_BYTE:
+                case KIND_BOOLEAN:
+                    recordsSlice.setByte(valueOffset, block.getByte(position, 0));
+                    break;
+                case KIND_VARIABLE_WIDTH:
+                    int length = block.getSliceLength(position);
+                    int offset = appendVariableWidthData(block.getSlice(position, 0, length));
+                    recordsSlice.setInt(valueOffset, offset);
+                    recordsSlice.setInt(valueOffset + Integer.BYTES, length);
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported kind: " + kinds[i]);
+            }
+        }
+
+        // increase capacity, if necessary
+        if (needRehash()) {
+            tryRehash();
+        }
+        return groupId;
+    }
+
+    private boolean recordNotDistinctFromRow(int groupId, long rawHash, int position, Page page, int[] hashChannels)
+    {
+        int recordOffset = getRecordOffset(groupId);
+        if (recordsSlice.getLong(recordOffset + RAW_HASH_OFFSET) != rawHash) {
+            return false;
+        }
+
+        for (int i = 0; i < hashChannels.length; i++) {
+            Block block = page.getBlock(hashChannels[i]);
+            int fieldOffset = recordOffset + fieldOffsets[i];
+            boolean recordIsNull = recordsSlice.getByte(fieldOffset) == VALUE_IS_NULL;
+            if (block.isNull(position)) {
+                if (!recordIsNull) {
+                    return false;
+                }
+                continue;
+            }
+            if (recordIsNull) {
+                return false;
+            }
+
+            int valueOffset = fieldOffset + Byte.BYTES;
+            switch (kinds[i]) {
+                case KIND_LONG:
+                    if (block.getLong(position, 0) != recordsSlice.getLong(valueOffset)) {
+                        return false;
+                    }
+                    break;
+                case KIND_INT:
+                    if (block.getInt(position, 0) != recordsSlice.getInt(valueOffset)) {
+                        return false;
+                    }
+                    break;
+                case KIND_SHORT:
+                    if (block.getShort(position, 0) != recordsSlice.getShort(valueOffset)) {
+                        return false;
+                    }
+                    break;
+                case KIND_BYTE:
+                case KIND_BOOLEAN:
+                    if (block.getByte(position, 0) != recordsSlice.getByte(valueOffset)) {
+                        return false;
+                    }
+                    break;
+                case KIND_VARIABLE_WIDTH:
+                    int length = recordsSlice.getInt(valueOffset + Integer.BYTES);
+                    if (block.getSliceLength(position) != length ||
+                            !block.bytesEqual(position, 0, variableWidthDataSlice, recordsSlice.getInt(valueOffset), length)) {
+                        return false;
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported kind: " + kinds[i]);
+            }
+        }
+        return true;
+    }
+
+    private int appendVariableWidthData(Slice value)
+    {
+        int offset = variableWidthDataSize;
+        long newSize = (long) offset + value.length();
+        if (newSize > variableWidthData.length) {
+            long newCapacity = max(newSize, max(1024, variableWidthData.length * 2L));
+            if (newCapacity > Integer.MAX_VALUE) {
+                if (newSize > Integer.MAX_VALUE) {
+                    throw new TrinoException(GENERIC_INSUFFICIENT_RESOURCES, "Size of variable width data in hash table cannot exceed 2GB");
+                }
+                newCapacity = Integer.MAX_VALUE;
+            }
+            variableWidthData = Arrays.copyOf(variableWidthData, toIntExact(newCapacity));
+            variableWidthDataSlice = Slices.wrappedBuffer(variableWidthData);
+        }
+        variableWidthDataSlice.setBytes(offset, value);
+        variableWidthDataSize = toIntExact(newSize);
+        return offset;
+    }
+
+    private int getRecordOffset(int groupId)
+    {
+        return groupId * recordSize;
+    }
+
+    private int getRecordsSize(int groupCount)
+    {
+        long size = (long) groupCount * recordSize;
+        if (size > Integer.MAX_VALUE) {
+            throw new TrinoException(GENERIC_INSUFFICIENT_RESOURCES, "Size of hash table records cannot exceed 2GB");
+        }
+        return (int) size;
+    }
+
+    private boolean needRehash()
+    {
+        return nextGroupId >= maxFill;
+    }
+
+    private boolean tryRehash()
+    {
+        long newCapacityLong = hashCapacity * 2L;
+        if (newCapacityLong > Integer.MAX_VALUE) {
+            throw new TrinoException(GENERIC_INSUFFICIENT_RESOURCES, "Size of hash table cannot exceed 1 billion entries");
+        }
+        int newCapacity = toIntExact(newCapacityLong);
+        int newMaxFill = calculateMaxFill(newCapacity);
+
+        // An estimate of how much extra memory is needed before we can go ahead and expand the hash table.
+        // This includes the new capacity for groupIdsByHash, rawHashByHashPosition and records as well as the size of the current page
+        preallocatedMemoryInBytes = (newCapacity - hashCapacity) * (long) (Integer.BYTES + Byte.BYTES) +
+                (newMaxFill - maxFill) * (long) recordSize +
+                currentPageSizeInBytes;
+        if (!updateMemory.update()) {
+            // reserved memory but has exceeded the limit
+            return false;
+        }
+        preallocatedMemoryInBytes = 0;
+
+        expectedHashCollisions += estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+
+        int newMask = newCapacity - 1;
+        int[] newGroupIdsByHash = new int[newCapacity];
+        Arrays.fill(newGroupIdsByHash, -1);
+        byte[] newRawHashByHashPosition = new byte[newCapacity];
+
+        // records are ordered by group id, so there is no need to look at the old hash table
+        for (int groupId = 0; groupId < nextGroupId; groupId++) {
+            long rawHash = getRawHash(groupId);
+
+            // find an empty slot for the group
+            int hashPosition = (int) getHashPosition(rawHash, newMask);
+            while (newGroupIdsByHash[hashPosition] != -1) {
+                hashPosition = (hashPosition + 1) & newMask;
+                hashCollisions++;
+            }
+
+            // record the mapping
+            newGroupIdsByHash[hashPosition] = groupId;
+            newRawHashByHashPosition[hashPosition] = (byte) rawHash;
+        }
+
+        this.mask = newMask;
+        this.hashCapacity = newCapacity;
+        this.maxFill = newMaxFill;
+        this.groupIdsByHash = newGroupIdsByHash;
+        this.rawHashByHashPosition = newRawHashByHashPosition;
+        this.records = Arrays.copyOf(records, getRecordsSize(newMaxFill));
+        this.recordsSlice = Slices.wrappedBuffer(records);
+        return true;
+    }
+
+    private boolean isRunLengthEncoded(Page page)
+    {
+        for (int channel : channels) {
+            if (!(page.getBlock(channel) instanceof RunLengthEncodedBlock)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long getHashPosition(long rawHash, int mask)
+    {
+        return murmurHash3(rawHash) & mask;
+    }
+
+    private static int calculateMaxFill(int hashSize)
+    {
+        checkArgument(hashSize > 0, "hashSize must be greater than 0");
+        int maxFill = (int) Math.ceil(hashSize * FILL_RATIO);
+        if (maxFill == hashSize) {
+            maxFill--;
+        }
+        checkArgument(hashSize > maxFill, "hashSize must be larger than maxFill");
+        return maxFill;
+    }
+
+    private class AddPageWork
+            implements Work<Void>
+    {
+        private final Page page;
+
+        private int lastPosition;
+
+        public AddPageWork(Page page)
+        {
+            this.page = requireNonNull(page, "page is null");
+        }
+
+        @Override
+        public boolean process()
+        {
+            int positionCount = page.getPositionCount();
+            checkState(lastPosition <= positionCount, "position count out of bound");
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // putIfAbsent will rehash automatically if rehash is needed, unless there isn't enough memory to do so.
+            // Therefore needRehash will not generally return true even if we have just crossed the capacity boundary.
+            while (lastPosition < positionCount && !needRehash()) {
+                // get the group for the current row
+                putIfAbsent(lastPosition, page);
+                lastPosition++;
+            }
+            return lastPosition == positionCount;
+        }
+
+        @Override
+        public Void getResult()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class AddRunLengthEncodedPageWork
+            implements Work<Void>
+    {
+        private final Page page;
+
+        private boolean finished;
+
+        public AddRunLengthEncodedPageWork(Page page)
+        {
+            this.page = requireNonNull(page, "page is null");
+        }
+
+        @Override
+        public boolean process()
+        {
+            checkState(!finished);
+            if (page.getPositionCount() == 0) {
+                finished = true;
+                return true;
+            }
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // Only needs to process the first row since it is Run Length Encoded
+            putIfAbsent(0, page);
+            finished = true;
+
+            return true;
+        }
+
+        @Override
+        public Void getResult()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class GetGroupIdsWork
+            implements Work<GroupByIdBlock>
+    {
+        private final long[] groupIds;
+        private final Page page;
+
+        private boolean finished;
+        private int lastPosition;
+
+        public GetGroupIdsWork(Page page)
+        {
+            this.page = requireNonNull(page, "page is null");
+            // we know the exact size required for the block
+            this.groupIds = new long[page.getPositionCount()];
+        }
+
+        @Override
+        public boolean process()
+        {
+            int positionCount = page.getPositionCount();
+            checkState(lastPosition <= positionCount, "position count out of bound");
+            checkState(!finished);
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // putIfAbsent will rehash automatically if rehash is needed, unless there isn't enough memory to do so.
+            // Therefore needRehash will not generally return true even if we have just crossed the capacity boundary.
+            while (lastPosition < positionCount && !needRehash()) {
+                // output the group id for this row
+                groupIds[lastPosition] = putIfAbsent(lastPosition, page);
+                lastPosition++;
+            }
+            return lastPosition == positionCount;
+        }
+
+        @Override
+        public GroupByIdBlock getResult()
+        {
+            checkState(lastPosition == page.getPositionCount(), "process has not yet finished");
+            checkState(!finished, "result has produced");
+            finished = true;
+            return new GroupByIdBlock(nextGroupId, new LongArrayBlock(groupIds.length, Optional.empty(), groupIds));
+        }
+    }
+
+    private class GetRunLengthEncodedGroupIdsWork
+            implements Work<GroupByIdBlock>
+    {
+        private final Page page;
+
+        int groupId = -1;
+        private boolean processFinished;
+        private boolean resultProduced;
+
+        public GetRunLengthEncodedGroupIdsWork(Page page)
+        {
+            this.page = requireNonNull(page, "page is null");
+        }
+
+        @Override
+        public boolean process()
+        {
+            checkState(!processFinished);
+            if (page.getPositionCount() == 0) {
+                processFinished = true;
+                return true;
+            }
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // Only needs to process the first row since it is Run Length Encoded
+            groupId = putIfAbsent(0, page);
+            processFinished = true;
+            return true;
+        }
+
+        @Override
+        public GroupByIdBlock getResult()
+        {
+            checkState(processFinished);
+            checkState(!resultProduced);
+            resultProduced = true;
+
+            return new GroupByIdBlock(
+                    nextGroupId,
+                    new RunLengthEncodedBlock(
+                            BIGINT.createFixedSizeBlockBuilder(1).writeLong(groupId).build(),
+                            page.getPositionCount()));
+        }
+    }
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static io.trino.SystemSessionProperties.isDictionaryAggregationEnabled;
+import static io.trino.SystemSessionProperties.isFlatGroupByHashEnabled;
 import static io.trino.operator.UpdateMemory.NOOP;
 import static io.trino.spi.type.BigintType.BIGINT;
 
@@ -39,7 +40,7 @@ public interface GroupByHash
             JoinCompiler joinCompiler,
             BlockTypeOperators blockTypeOperators)
     {
-        return createGroupByHash(hashTypes, hashChannels, inputHashChannel, expectedSize, isDictionaryAggregationEnabled(session), joinCompiler, blockTypeOperators, NOOP);
+        return createGroupByHash(hashTypes, hashChannels, inputHashChannel, expectedSize, isDictionaryAggregationEnabled(session), isFlatGroupByHashEnabled(session), joinCompiler, blockTypeOperators, NOOP);
     }
 
     static GroupByHash createGroupByHash(
@@ -51,10 +52,28 @@ public interface GroupByHash
             JoinCompiler joinCompiler,
             BlockTypeOperators blockTypeOperators,
             UpdateMemory updateMemory)
+    {
+        return createGroupByHash(hashTypes, hashChannels, inputHashChannel, expectedSize, processDictionary, false, joinCompiler, blockTypeOperators, updateMemory);
+    }
+
+    static GroupByHash createGroupByHash(
+            List<? extends Type> hashTypes,
+            int[] hashChannels,
+            Optional<Integer> inputHashChannel,
+            int expectedSize,
+            boolean processDictionary,
+            boolean flatGroupByHashEnabled,
+            JoinCompiler joinCompiler,
+            BlockTypeOperators blockTypeOperators,
+            UpdateMemory updateMemory)
     {
         if (hashTypes.size() == 1 && hashTypes.get(0).equals(BIGINT) && hashChannels.length == 1) {
             return new BigintGroupByHash(hashChannels[0], inputHashChannel.isPresent(), expectedSize, updateMemory);
         }
+        // dictionary processing relies on the per-dictionary group id cache of MultiChannelGroupByHash
+        if (flatGroupByHashEnabled && !processDictionary && hashTypes.stream().allMatch(FlatGroupByHash::isSupportedType)) {
+            return new FlatGroupByHash(hashTypes, hashChannels, inputHashChannel, expectedSize, blockTypeOperators, updateMemory);
+        }
         return new MultiChannelGroupByHash(hashTypes, hashChannels, inputHashChannel, expectedSize, processDictionary, joinCompiler, blockTypeOperators, updateMemory);
     }
 
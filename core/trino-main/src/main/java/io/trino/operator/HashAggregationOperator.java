@@ -23,6 +23,8 @@ import io.trino.operator.aggregation.AccumulatorFactory;
 import io.trino.operator.aggregation.builder.HashAggregationBuilder;
 import io.trino.operator.aggregation.builder.InMemoryHashAggregationBuilder;
 import io.trino.operator.aggregation.builder.SpillableHashAggregationBuilder;
+import io.trino.operator.aggregation.partial.PartialAggregationController;
+import io.trino.operator.aggregation.partial.SkipAggregationBuilder;
 import io.trino.operator.scalar.CombineHashFunction;
 import io.trino.spi.Page;
 import io.trino.spi.PageBuilder;
@@ -38,6 +40,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
@@ -74,6 +77,7 @@ public class HashAggregationOperator
         private final JoinCompiler joinCompiler;
         private final BlockTypeOperators blockTypeOperators;
         private final boolean useSystemMemory;
+        private final Optional<PartialAggregationController> partialAggregationController;
 
         private boolean closed;
 
@@ -114,7 +118,8 @@ public class HashAggregationOperator
                     },
                     joinCompiler,
                     blockTypeOperators,
-                    useSystemMemory);
+                    useSystemMemory,
+                    Optional.empty());
         }
 
         public HashAggregationOperatorFactory(
@@ -135,7 +140,8 @@ public class HashAggregationOperator
                 SpillerFactory spillerFactory,
                 JoinCompiler joinCompiler,
                 BlockTypeOperators blockTypeOperators,
-                boolean useSystemMemory)
+                boolean useSystemMemory,
+                Optional<PartialAggregationController> partialAggregationController)
         {
             this(operatorId,
                     planNodeId,
@@ -155,7 +161,8 @@ public class HashAggregationOperator
                     spillerFactory,
                     joinCompiler,
                     blockTypeOperators,
-                    useSystemMemory);
+                    useSystemMemory,
+                    partialAggregationController);
         }
 
         @VisibleForTesting
@@ -178,7 +185,8 @@ public class HashAggregationOperator
                 SpillerFactory spillerFactory,
                 JoinCompiler joinCompiler,
                 BlockTypeOperators blockTypeOperators,
-                boolean useSystemMemory)
+                boolean useSystemMemory,
+                Optional<PartialAggregationController> partialAggregationController)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -199,6 +207,7 @@ public class HashAggregationOperator
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
             this.blockTypeOperators = requireNonNull(blockTypeOperators, "blockTypeOperators is null");
             this.useSystemMemory = useSystemMemory;
+            this.partialAggregationController = requireNonNull(partialAggregationController, "partialAggregationController is null");
         }
 
         @Override
@@ -225,7 +234,8 @@ public class HashAggregationOperator
                     spillerFactory,
                     joinCompiler,
                     blockTypeOperators,
-                    useSystemMemory);
+                    useSystemMemory,
+                    partialAggregationController);
             return hashAggregationOperator;
         }
 
@@ -257,7 +267,8 @@ public class HashAggregationOperator
                     spillerFactory,
                     joinCompiler,
                     blockTypeOperators,
-                    useSystemMemory);
+                    useSystemMemory,
+                    partialAggregationController.map(PartialAggregationController::duplicate));
         }
     }
 
@@ -279,6 +290,7 @@ public class HashAggregationOperator
     private final JoinCompiler joinCompiler;
     private final BlockTypeOperators blockTypeOperators;
     private final boolean useSystemMemory;
+    private final Optional<PartialAggregationController> partialAggregationController;
 
     private final List<Type> types;
     private final HashCollisionsCounter hashCollisionsCounter;
@@ -293,6 +305,13 @@ public class HashAggregationOperator
     // for yield when memory is not available
     private Work<?> unfinishedWork;
 
+    // for adaptive partial aggregation
+    private long numberOfInputRowsProcessed;
+    private long numberOfUniqueRowsProduced;
+    private long aggregatedInputPositions;
+    private long skippedInputPositions;
+    private boolean partialAggregationDisabled;
+
     public HashAggregationOperator(
             OperatorContext operatorContext,
             List<Type> groupByTypes,
@@ -311,12 +330,15 @@ public class HashAggregationOperator
             SpillerFactory spillerFactory,
             JoinCompiler joinCompiler,
             BlockTypeOperators blockTypeOperators,
-            boolean useSystemMemory)
+            boolean useSystemMemory,
+            Optional<PartialAggregationController> partialAggregationController)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.partialAggregationController = requireNonNull(partialAggregationController, "partialAggregationController is null");
         requireNonNull(step, "step is null");
         requireNonNull(accumulatorFactories, "accumulatorFactories is null");
         requireNonNull(operatorContext, "operatorContext is null");
+        checkArgument(partialAggregationController.isEmpty() || step == Step.PARTIAL, "partialAggregationController should be present only for partial aggregation");
 
         this.groupByTypes = ImmutableList.copyOf(groupByTypes);
         this.groupByChannels = ImmutableList.copyOf(groupByChannels);
@@ -336,7 +358,16 @@ public class HashAggregationOperator
         this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
         this.blockTypeOperators = requireNonNull(blockTypeOperators, "blockTypeOperators is null");
         this.hashCollisionsCounter = new HashCollisionsCounter(operatorContext);
-        operatorContext.setInfoSupplier(hashCollisionsCounter);
+        if (partialAggregationController.isPresent()) {
+            operatorContext.setInfoSupplier(() -> new PartialAggregationInfo(
+                    hashCollisionsCounter.get(),
+                    aggregatedInputPositions,
+                    skippedInputPositions,
+                    partialAggregationDisabled ? 1 : 0));
+        }
+        else {
+            operatorContext.setInfoSupplier(hashCollisionsCounter);
+        }
         this.useSystemMemory = useSystemMemory;
 
         this.memoryContext = operatorContext.localUserMemoryContext();
@@ -387,7 +418,11 @@ public class HashAggregationOperator
 
         if (aggregationBuilder == null) {
             // TODO: We ignore spillEnabled here if any aggregate has ORDER BY clause or DISTINCT because they are not yet implemented for spilling.
-            if (step.isOutputPartial() || !spillEnabled || hasOrderBy() || hasDistinct()) {
+            if (partialAggregationController.isPresent() && partialAggregationController.get().isPartialAggregationDisabled()) {
+                partialAggregationDisabled = true;
+                aggregationBuilder = new SkipAggregationBuilder(groupByChannels, hashChannel, accumulatorFactories, memoryContext);
+            }
+            else if (step.isOutputPartial() || !spillEnabled || hasOrderBy() || hasDistinct()) {
                 aggregationBuilder = new InMemoryHashAggregationBuilder(
                         accumulatorFactories,
                         step,
@@ -431,6 +466,14 @@ public class HashAggregationOperator
             checkState(!aggregationBuilder.isFull(), "Aggregation buffer is full");
         }
 
+        if (aggregationBuilder instanceof SkipAggregationBuilder) {
+            skippedInputPositions += page.getPositionCount();
+        }
+        else {
+            aggregatedInputPositions += page.getPositionCount();
+            numberOfInputRowsProcessed += page.getPositionCount();
+        }
+
         // process the current page; save the unfinished work if we are waiting for memory
         unfinishedWork = aggregationBuilder.processPage(page);
         if (unfinishedWork.process()) {
@@ -514,7 +557,11 @@ public class HashAggregationOperator
             return null;
         }
 
-        return outputPages.getResult();
+        Page result = outputPages.getResult();
+        if (aggregationBuilder instanceof InMemoryHashAggregationBuilder) {
+            numberOfUniqueRowsProduced += result.getPositionCount();
+        }
+        return result;
     }
 
     @Override
@@ -532,6 +579,11 @@ public class HashAggregationOperator
     private void closeAggregationBuilder()
     {
         outputPages = null;
+        if (aggregationBuilder instanceof InMemoryHashAggregationBuilder) {
+            partialAggregationController.ifPresent(controller -> controller.onFlush(numberOfInputRowsProcessed, numberOfUniqueRowsProduced));
+        }
+        numberOfInputRowsProcessed = 0;
+        numberOfUniqueRowsProduced = 0;
         if (aggregationBuilder != null) {
             aggregationBuilder.recordHashCollisions(hashCollisionsCounter);
             aggregationBuilder.close();
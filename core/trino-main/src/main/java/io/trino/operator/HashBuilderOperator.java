@@ -17,9 +17,13 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.Closer;
 import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
 import io.trino.execution.Lifespan;
 import io.trino.memory.context.LocalMemoryContext;
 import io.trino.spi.Page;
+import io.trino.spi.type.Type;
+import io.trino.spiller.PartitioningSpiller;
+import io.trino.spiller.PartitioningSpillerFactory;
 import io.trino.spiller.SingleStreamSpiller;
 import io.trino.spiller.SingleStreamSpillerFactory;
 import io.trino.sql.gen.JoinFilterFunctionCompiler.JoinFilterFunctionFactory;
@@ -30,20 +34,27 @@ import javax.annotation.concurrent.ThreadSafe;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.Queue;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static io.airlift.concurrent.MoreFutures.checkSuccess;
 import static io.airlift.concurrent.MoreFutures.getDone;
+import static io.trino.operator.SubPartitionFunction.MAX_HASH_BITS;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
@@ -68,6 +79,8 @@ public class HashBuilderOperator
         private final int expectedPositions;
         private final boolean spillEnabled;
         private final SingleStreamSpillerFactory singleStreamSpillerFactory;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
+        private final DataSize unspillMemoryLimit;
 
         private final Map<Lifespan, Integer> partitionIndexManager = new HashMap<>();
 
@@ -86,7 +99,9 @@ public class HashBuilderOperator
                 int expectedPositions,
                 PagesIndex.Factory pagesIndexFactory,
                 boolean spillEnabled,
-                SingleStreamSpillerFactory singleStreamSpillerFactory)
+                SingleStreamSpillerFactory singleStreamSpillerFactory,
+                PartitioningSpillerFactory partitioningSpillerFactory,
+                DataSize unspillMemoryLimit)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -104,6 +119,8 @@ public class HashBuilderOperator
             this.pagesIndexFactory = requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
             this.spillEnabled = spillEnabled;
             this.singleStreamSpillerFactory = requireNonNull(singleStreamSpillerFactory, "singleStreamSpillerFactory is null");
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+            this.unspillMemoryLimit = requireNonNull(unspillMemoryLimit, "unspillMemoryLimit is null");
 
             this.expectedPositions = expectedPositions;
         }
@@ -130,7 +147,9 @@ public class HashBuilderOperator
                     expectedPositions,
                     pagesIndexFactory,
                     spillEnabled,
-                    singleStreamSpillerFactory);
+                    singleStreamSpillerFactory,
+                    partitioningSpillerFactory,
+                    unspillMemoryLimit);
         }
 
         @Override
@@ -174,6 +193,11 @@ public class HashBuilderOperator
          */
         INPUT_SPILLED,
 
+        /**
+         * Spilled input is too large to be unspilled at once and is being split into sub-partitions
+         */
+        INPUT_SPLITTING,
+
         /**
          * Spilled input is being unspilled
          */
@@ -191,6 +215,7 @@ public class HashBuilderOperator
     }
 
     private static final double INDEX_COMPACTION_ON_REVOCATION_TARGET = 0.8;
+    private static final int MAX_SPLIT_PARTITION_BITS = 5;
 
     private final OperatorContext operatorContext;
     private final LocalMemoryContext localUserMemoryContext;
@@ -210,6 +235,8 @@ public class HashBuilderOperator
 
     private final boolean spillEnabled;
     private final SingleStreamSpillerFactory singleStreamSpillerFactory;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
+    private final long unspillMemoryLimit;
 
     private final HashCollisionsCounter hashCollisionsCounter;
 
@@ -221,7 +248,17 @@ public class HashBuilderOperator
     private Optional<ListenableFuture<List<Page>>> unspillInProgress = Optional.empty();
     @Nullable
     private LookupSourceSupplier lookupSourceSupplier;
-    private OptionalLong lookupSourceChecksum = OptionalLong.empty();
+
+    // spilled partition, or sub-partition of it, which is being unspilled
+    @Nullable
+    private SpilledPartition spilledPartition;
+    // sub-partitions waiting to be unspilled after the current one, in the order they are consumed
+    private final Deque<SpilledPartition> pendingSpilledPartitions = new ArrayDeque<>();
+    @Nullable
+    private Iterator<Page> splitInput;
+    @Nullable
+    private SplitSpilledPartition splitSpilledPartition;
+    private final List<PartitioningSpiller> subPartitionSpillers = new ArrayList<>();
 
     private Optional<Runnable> finishMemoryRevoke = Optional.empty();
 
@@ -238,7 +275,9 @@ public class HashBuilderOperator
             int expectedPositions,
             PagesIndex.Factory pagesIndexFactory,
             boolean spillEnabled,
-            SingleStreamSpillerFactory singleStreamSpillerFactory)
+            SingleStreamSpillerFactory singleStreamSpillerFactory,
+            PartitioningSpillerFactory partitioningSpillerFactory,
+            DataSize unspillMemoryLimit)
     {
         requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
 
@@ -263,6 +302,8 @@ public class HashBuilderOperator
 
         this.spillEnabled = spillEnabled;
         this.singleStreamSpillerFactory = requireNonNull(singleStreamSpillerFactory, "singleStreamSpillerFactory is null");
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+        this.unspillMemoryLimit = requireNonNull(unspillMemoryLimit, "unspillMemoryLimit is null").toBytes();
     }
 
     @Override
@@ -291,13 +332,16 @@ public class HashBuilderOperator
                 return lookupSourceNotNeeded.orElseThrow(() -> new IllegalStateException("Lookup source built, but disposal future not set"));
 
             case INPUT_SPILLED:
-                return spilledLookupSourceHandle.getUnspillingOrDisposeRequested();
+                return getSpilledPartition().handle.getUnspillingOrDisposeRequested();
+
+            case INPUT_SPLITTING:
+                return spillInProgress;
 
             case INPUT_UNSPILLING:
                 return unspillInProgress.orElseThrow(() -> new IllegalStateException("Unspilling in progress, but unspilling future not set"));
 
             case INPUT_UNSPILLED_AND_BUILT:
-                return spilledLookupSourceHandle.getDisposeRequested();
+                return getSpilledPartition().handle.getDisposeRequested();
 
             case CLOSED:
                 return NOT_BLOCKED;
@@ -386,8 +430,9 @@ public class HashBuilderOperator
                 index.clear();
                 localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
                 localRevocableMemoryContext.setBytes(0);
-                lookupSourceChecksum = OptionalLong.of(lookupSourceSupplier.checksum());
+                OptionalLong lookupSourceChecksum = OptionalLong.of(lookupSourceSupplier.checksum());
                 lookupSourceSupplier = null;
+                spilledPartition = SpilledPartition.spilledInput(spilledLookupSourceHandle, getSpiller(), lookupSourceChecksum);
                 state = State.INPUT_SPILLED;
             });
             return spillIndex();
@@ -451,14 +496,18 @@ public class HashBuilderOperator
                 return;
 
             case INPUT_SPILLED:
-                if (spilledLookupSourceHandle.getDisposeRequested().isDone()) {
-                    close();
+                if (getSpilledPartition().handle.getDisposeRequested().isDone()) {
+                    unspillNextPartition();
                 }
                 else {
                     unspillLookupSourceIfRequested();
                 }
                 return;
 
+            case INPUT_SPLITTING:
+                splitSpilledPartition();
+                return;
+
             case INPUT_UNSPILLING:
                 finishLookupSourceUnspilling();
                 return;
@@ -518,13 +567,15 @@ public class HashBuilderOperator
             return;
         }
         checkSuccess(spillInProgress, "spilling failed");
+        spilledPartition = SpilledPartition.spilledInput(spilledLookupSourceHandle, getSpiller(), OptionalLong.empty());
         state = State.INPUT_SPILLED;
     }
 
     private void unspillLookupSourceIfRequested()
     {
         checkState(state == State.INPUT_SPILLED);
-        if (!spilledLookupSourceHandle.getUnspillingRequested().isDone()) {
+        SpilledPartition spilledPartition = getSpilledPartition();
+        if (!spilledPartition.handle.getUnspillingRequested().isDone()) {
             // Nothing to do yet.
             return;
         }
@@ -532,12 +583,105 @@ public class HashBuilderOperator
         verify(spiller.isPresent());
         verify(unspillInProgress.isEmpty());
 
-        localUserMemoryContext.setBytes(getSpiller().getSpilledPagesInMemorySize() + index.getEstimatedSize().toBytes());
-        unspillInProgress = Optional.of(getSpiller().getAllSpilledPages());
+        if (spilledPartition.sizeInBytes > unspillMemoryLimit && spilledPartition.canBeSplit()) {
+            startSplittingSpilledPartition();
+            return;
+        }
+
+        localUserMemoryContext.setBytes(spilledPartition.sizeInBytes + index.getEstimatedSize().toBytes());
+        unspillInProgress = Optional.of(spilledPartition.allPages.get());
 
         state = State.INPUT_UNSPILLING;
     }
 
+    private void startSplittingSpilledPartition()
+    {
+        SpilledPartition spilledPartition = getSpilledPartition();
+        // enough sub-partitions for each of them to fit within the limit, assuming an even split
+        long subPartitionsNeeded = (spilledPartition.sizeInBytes + unspillMemoryLimit - 1) / unspillMemoryLimit;
+        int partitionBits = Math.max(1, Long.SIZE - Long.numberOfLeadingZeros(subPartitionsNeeded - 1));
+        partitionBits = Math.min(partitionBits, MAX_SPLIT_PARTITION_BITS);
+        partitionBits = Math.min(partitionBits, MAX_HASH_BITS - spilledPartition.hashBitOffset);
+
+        CountingPartitionFunction partitionFunction = new CountingPartitionFunction(new SubPartitionFunction(getHashGenerator(), spilledPartition.hashBitOffset, partitionBits));
+        PartitioningSpiller subPartitionSpiller = partitioningSpillerFactory.create(
+                index.getTypes(),
+                partitionFunction,
+                operatorContext.getSpillContext().newLocalSpillContext(),
+                operatorContext.newAggregateSystemMemoryContext());
+        subPartitionSpillers.add(subPartitionSpiller);
+
+        splitInput = spilledPartition.pages.get();
+        splitSpilledPartition = new SplitSpilledPartition(subPartitionSpiller, partitionFunction, partitionBits);
+        state = State.INPUT_SPLITTING;
+        splitSpilledPartition();
+    }
+
+    private void splitSpilledPartition()
+    {
+        checkState(state == State.INPUT_SPLITTING);
+        verify(splitInput != null && splitSpilledPartition != null);
+
+        while (spillInProgress.isDone()) {
+            checkSuccess(spillInProgress, "spilling failed");
+            if (!splitInput.hasNext()) {
+                finishSplittingSpilledPartition();
+                return;
+            }
+            // all rows go to the sub-partitions, none is retained
+            spillInProgress = splitSpilledPartition.spiller.partitionAndSpill(splitInput.next(), partition -> true).getSpillingFuture();
+        }
+    }
+
+    private void finishSplittingSpilledPartition()
+    {
+        SpilledPartition spilledPartition = getSpilledPartition();
+        PartitioningSpiller subPartitionSpiller = splitSpilledPartition.spiller;
+        long[] rowCounts = splitSpilledPartition.partitionFunction.getRowCounts();
+        long totalRows = Arrays.stream(rowCounts).sum();
+
+        List<SpilledPartition> subPartitions = new ArrayList<>();
+        for (int partition = 0; partition < rowCounts.length; partition++) {
+            int subPartition = partition;
+            long sizeInBytes = totalRows == 0 ? 0 : (long) ((double) spilledPartition.sizeInBytes * rowCounts[partition] / totalRows);
+            subPartitions.add(new SpilledPartition(
+                    new SpilledLookupSourceHandle(),
+                    () -> subPartitionSpiller.getSpilledPages(subPartition),
+                    () -> subPartitionSpiller.getAllSpilledPages(subPartition),
+                    sizeInBytes,
+                    spilledPartition.hashBitOffset + splitSpilledPartition.partitionBits,
+                    // do not split further when all rows share the same hash bits, e.g. because they have the same key
+                    rowCounts[partition] < totalRows,
+                    OptionalLong.empty()));
+        }
+        splitInput = null;
+        int hashBitOffset = spilledPartition.hashBitOffset;
+        int partitionBits = splitSpilledPartition.partitionBits;
+        splitSpilledPartition = null;
+
+        spilledPartition.handle.setSubPartitions(
+                hashBitOffset,
+                partitionBits,
+                subPartitions.stream()
+                        .map(SpilledPartition::getHandle)
+                        .collect(toImmutableList()));
+        // sub-partitions are consumed before the remaining sub-partitions of the enclosing partition
+        for (int partition = subPartitions.size() - 1; partition >= 0; partition--) {
+            pendingSpilledPartitions.addFirst(subPartitions.get(partition));
+        }
+        unspillNextPartition();
+    }
+
+    private void unspillNextPartition()
+    {
+        spilledPartition = pendingSpilledPartitions.poll();
+        if (spilledPartition == null) {
+            close();
+            return;
+        }
+        state = State.INPUT_SPILLED;
+    }
+
     private void finishLookupSourceUnspilling()
     {
         checkState(state == State.INPUT_UNSPILLING);
@@ -561,12 +705,14 @@ public class HashBuilderOperator
             localUserMemoryContext.setBytes(memoryRetainedByRemainingPages + index.getEstimatedSize().toBytes());
         }
 
+        unspillInProgress = Optional.empty();
+
         LookupSourceSupplier partition = buildLookupSource();
-        lookupSourceChecksum.ifPresent(checksum ->
+        getSpilledPartition().lookupSourceChecksum.ifPresent(checksum ->
                 checkState(partition.checksum() == checksum, "Unspilled lookupSource checksum does not match original one"));
         localUserMemoryContext.setBytes(partition.get().getInMemorySizeInBytes());
 
-        spilledLookupSourceHandle.setLookupSource(partition);
+        getSpilledPartition().handle.setLookupSource(partition);
 
         state = State.INPUT_UNSPILLED_AND_BUILT;
     }
@@ -574,14 +720,15 @@ public class HashBuilderOperator
     private void disposeUnspilledLookupSourceIfRequested()
     {
         checkState(state == State.INPUT_UNSPILLED_AND_BUILT);
-        if (!spilledLookupSourceHandle.getDisposeRequested().isDone()) {
+        if (!getSpilledPartition().handle.getDisposeRequested().isDone()) {
             return;
         }
 
         index.clear();
         localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
+        lookupSourceSupplier = null;
 
-        close();
+        unspillNextPartition();
     }
 
     private LookupSourceSupplier buildLookupSource()
@@ -610,6 +757,23 @@ public class HashBuilderOperator
         return spiller.orElseThrow(() -> new IllegalStateException("Spiller not created"));
     }
 
+    private SpilledPartition getSpilledPartition()
+    {
+        return requireNonNull(spilledPartition, "spilledPartition is null");
+    }
+
+    private HashGenerator getHashGenerator()
+    {
+        // must produce the same hash as the probe side, which is also used to assign rows to partitions
+        if (preComputedHashChannel.isPresent()) {
+            return new PrecomputedHashGenerator(preComputedHashChannel.getAsInt());
+        }
+        List<Type> hashChannelTypes = hashChannels.stream()
+                .map(index.getTypes()::get)
+                .collect(toImmutableList());
+        return new InterpretedHashGenerator(hashChannelTypes, hashChannels, lookupSourceFactory.getBlockTypeOperators());
+    }
+
     @Override
     public void close()
     {
@@ -619,12 +783,17 @@ public class HashBuilderOperator
         // close() can be called in any state, due for example to query failure, and must clean resource up unconditionally
 
         lookupSourceSupplier = null;
+        spilledPartition = null;
+        pendingSpilledPartitions.clear();
+        splitInput = null;
+        splitSpilledPartition = null;
         state = State.CLOSED;
         finishMemoryRevoke = finishMemoryRevoke.map(ifPresent -> () -> {});
 
         try (Closer closer = Closer.create()) {
             closer.register(index::clear);
             spiller.ifPresent(closer::register);
+            subPartitionSpillers.forEach(closer::register);
             closer.register(() -> localUserMemoryContext.setBytes(0));
             closer.register(() -> localRevocableMemoryContext.setBytes(0));
         }
@@ -632,4 +801,101 @@ public class HashBuilderOperator
             throw new RuntimeException(e);
         }
     }
+
+    private static class SpilledPartition
+    {
+        private final SpilledLookupSourceHandle handle;
+        private final Supplier<Iterator<Page>> pages;
+        private final Supplier<ListenableFuture<List<Page>>> allPages;
+        private final long sizeInBytes;
+        private final int hashBitOffset;
+        private final boolean splittable;
+        private final OptionalLong lookupSourceChecksum;
+
+        public static SpilledPartition spilledInput(SpilledLookupSourceHandle handle, SingleStreamSpiller spiller, OptionalLong lookupSourceChecksum)
+        {
+            return new SpilledPartition(
+                    handle,
+                    spiller::getSpilledPages,
+                    spiller::getAllSpilledPages,
+                    spiller.getSpilledPagesInMemorySize(),
+                    0,
+                    true,
+                    lookupSourceChecksum);
+        }
+
+        public SpilledPartition(
+                SpilledLookupSourceHandle handle,
+                Supplier<Iterator<Page>> pages,
+                Supplier<ListenableFuture<List<Page>>> allPages,
+                long sizeInBytes,
+                int hashBitOffset,
+                boolean splittable,
+                OptionalLong lookupSourceChecksum)
+        {
+            this.handle = requireNonNull(handle, "handle is null");
+            this.pages = requireNonNull(pages, "pages is null");
+            this.allPages = requireNonNull(allPages, "allPages is null");
+            this.sizeInBytes = sizeInBytes;
+            this.hashBitOffset = hashBitOffset;
+            this.splittable = splittable;
+            this.lookupSourceChecksum = requireNonNull(lookupSourceChecksum, "lookupSourceChecksum is null");
+        }
+
+        public SpilledLookupSourceHandle getHandle()
+        {
+            return handle;
+        }
+
+        public boolean canBeSplit()
+        {
+            return splittable && hashBitOffset < MAX_HASH_BITS;
+        }
+    }
+
+    private static class SplitSpilledPartition
+    {
+        private final PartitioningSpiller spiller;
+        private final CountingPartitionFunction partitionFunction;
+        private final int partitionBits;
+
+        public SplitSpilledPartition(PartitioningSpiller spiller, CountingPartitionFunction partitionFunction, int partitionBits)
+        {
+            this.spiller = requireNonNull(spiller, "spiller is null");
+            this.partitionFunction = requireNonNull(partitionFunction, "partitionFunction is null");
+            this.partitionBits = partitionBits;
+        }
+    }
+
+    private static class CountingPartitionFunction
+            implements PartitionFunction
+    {
+        private final PartitionFunction partitionFunction;
+        private final long[] rowCounts;
+
+        public CountingPartitionFunction(PartitionFunction partitionFunction)
+        {
+            this.partitionFunction = requireNonNull(partitionFunction, "partitionFunction is null");
+            this.rowCounts = new long[partitionFunction.getPartitionCount()];
+        }
+
+        @Override
+        public int getPartitionCount()
+        {
+            return partitionFunction.getPartitionCount();
+        }
+
+        @Override
+        public int getPartition(Page page, int position)
+        {
+            int partition = partitionFunction.getPartition(page, position);
+            rowCounts[partition]++;
+            return partition;
+        }
+
+        public long[] getRowCounts()
+        {
+            return rowCounts;
+        }
+    }
 }
@@ -15,6 +15,7 @@ package io.trino.operator;
 
 import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
 import com.google.common.net.MediaType;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -27,8 +28,9 @@ import io.airlift.http.client.Response;
 import io.airlift.http.client.ResponseHandler;
 import io.airlift.http.client.ResponseTooLargeException;
 import io.airlift.log.Logger;
-import io.airlift.slice.InputStreamSliceInput;
+import io.airlift.slice.Slice;
 import io.airlift.slice.SliceInput;
+import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.trino.execution.buffer.SerializedPage;
@@ -42,8 +44,8 @@ import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.io.BufferedReader;
-import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.util.List;
@@ -58,6 +60,8 @@ import java.util.concurrent.atomic.AtomicLong;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static com.google.common.net.HttpHeaders.CONTENT_ENCODING;
+import static com.google.common.net.HttpHeaders.CONTENT_LENGTH;
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
 import static io.airlift.http.client.HttpStatus.familyForStatusCode;
 import static io.airlift.http.client.Request.Builder.prepareDelete;
@@ -83,6 +87,7 @@ import static io.trino.spi.StandardErrorCode.REMOTE_BUFFER_CLOSE_FAILED;
 import static io.trino.spi.StandardErrorCode.REMOTE_TASK_MISMATCH;
 import static io.trino.util.Failures.REMOTE_TASK_MISMATCH_ERROR;
 import static io.trino.util.Failures.WORKER_NODE_ERROR;
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
@@ -91,29 +96,10 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 @ThreadSafe
 public final class HttpPageBufferClient
-        implements Closeable
+        implements PageBufferClient
 {
     private static final Logger log = Logger.get(HttpPageBufferClient.class);
 
-    /**
-     * For each request, the addPage method will be called zero or more times,
-     * followed by either requestComplete or clientFinished (if buffer complete).  If the client is
-     * closed, requestComplete or bufferFinished may never be called.
-     * <p/>
-     * <b>NOTE:</b> Implementations of this interface are not allowed to perform
-     * blocking operations.
-     */
-    public interface ClientCallback
-    {
-        boolean addPages(HttpPageBufferClient client, List<SerializedPage> pages);
-
-        void requestComplete(HttpPageBufferClient client);
-
-        void clientFinished(HttpPageBufferClient client);
-
-        void clientFailed(HttpPageBufferClient client, Throwable cause);
-    }
-
     private final String selfAddress;
     private final HttpClient httpClient;
     private final DataIntegrityVerification dataIntegrityVerification;
@@ -204,6 +190,7 @@ public final class HttpPageBufferClient
         this.backoff = new Backoff(maxErrorDuration, ticker);
     }
 
+    @Override
     public synchronized PageBufferClientStatus getStatus()
     {
         String state;
@@ -276,6 +263,7 @@ public final class HttpPageBufferClient
         }
     }
 
+    @Override
     public synchronized void scheduleRequest()
     {
         if (closed || (future != null) || scheduled) {
@@ -641,27 +629,43 @@ public final class HttpPageBufferClient
                 long nextToken = getNextToken(response, uri);
                 boolean complete = getComplete(response, uri);
 
-                try (SliceInput input = new InputStreamSliceInput(response.getInputStream())) {
-                    int magic = input.readInt();
-                    if (magic != SERIALIZED_PAGES_MAGIC) {
-                        throw new IllegalStateException(format("Invalid stream header, expected 0x%08x, but was 0x%08x", SERIALIZED_PAGES_MAGIC, magic));
-                    }
-                    long checksum = input.readLong();
-                    int pagesCount = input.readInt();
-                    List<SerializedPage> pages = ImmutableList.copyOf(readSerializedPages(input));
-                    verifyChecksum(checksum, pages);
-                    checkState(pages.size() == pagesCount, "Wrong number of pages, expected %s, but read %s", pagesCount, pages.size());
-                    return createPagesResponse(taskInstanceId, token, nextToken, pages, complete);
-                }
-                catch (IOException e) {
-                    throw new RuntimeException(e);
+                SliceInput input = readResponseBody(response).getInput();
+                int magic = input.readInt();
+                if (magic != SERIALIZED_PAGES_MAGIC) {
+                    throw new IllegalStateException(format("Invalid stream header, expected 0x%08x, but was 0x%08x", SERIALIZED_PAGES_MAGIC, magic));
                 }
+                long checksum = input.readLong();
+                int pagesCount = input.readInt();
+                List<SerializedPage> pages = readSerializedPages(input.readSlice(input.available()));
+                verifyChecksum(checksum, pages);
+                checkState(pages.size() == pagesCount, "Wrong number of pages, expected %s, but read %s", pagesCount, pages.size());
+                return createPagesResponse(taskInstanceId, token, nextToken, pages, complete);
             }
             catch (PageTransportErrorException e) {
                 throw new PageTransportErrorException(fromUri(uri), format("Error fetching %s: %s", request.getUri().toASCIIString(), e.getMessage()), e);
             }
         }
 
+        /**
+         * Reads the whole response into one buffer, which the pages are then sliced from.
+         */
+        private static Slice readResponseBody(Response response)
+        {
+            try (InputStream input = response.getInputStream()) {
+                String contentLength = response.getHeader(CONTENT_LENGTH);
+                // the length is of the encoded content when the response is compressed
+                if (contentLength == null || response.getHeader(CONTENT_ENCODING) != null) {
+                    return Slices.wrappedBuffer(ByteStreams.toByteArray(input));
+                }
+                byte[] body = new byte[toIntExact(Long.parseLong(contentLength))];
+                ByteStreams.readFully(input, body);
+                return Slices.wrappedBuffer(body);
+            }
+            catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
         private void verifyChecksum(long readChecksum, List<SerializedPage> pages)
         {
             if (dataIntegrityVerificationEnabled) {
@@ -92,6 +92,33 @@ public final class JoinHash
         return startJoinPosition(addressIndex, position, allChannelsPage);
     }
 
+    @Override
+    public boolean supportsBatchedJoinPositions()
+    {
+        return true;
+    }
+
+    @Override
+    public void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, long[] rawHashes, long[] joinPositions)
+    {
+        pagesHash.getAddressIndexes(positions, positionCount, hashChannelsPage, rawHashes, joinPositions);
+        startJoinPositions(positions, positionCount, allChannelsPage, joinPositions);
+    }
+
+    @Override
+    public void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, long[] joinPositions)
+    {
+        pagesHash.getAddressIndexes(positions, positionCount, hashChannelsPage, joinPositions);
+        startJoinPositions(positions, positionCount, allChannelsPage, joinPositions);
+    }
+
+    private void startJoinPositions(int[] positions, int positionCount, Page allProbeChannelsPage, long[] joinPositions)
+    {
+        for (int i = 0; i < positionCount; i++) {
+            joinPositions[i] = startJoinPosition((int) joinPositions[i], positions[i], allProbeChannelsPage);
+        }
+    }
+
     private long startJoinPosition(int currentJoinPosition, int probePosition, Page allProbeChannelsPage)
     {
         if (currentJoinPosition == -1) {
@@ -16,6 +16,9 @@ package io.trino.operator;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
 
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
@@ -53,6 +56,12 @@ public class JoinProbe
 
     private int position = -1;
 
+    // join positions looked up in a batch for positions starting from batchStartPosition
+    @Nullable
+    private LookupSource batchLookupSource;
+    private int batchStartPosition;
+    private long[] batchJoinPositions;
+
     private JoinProbe(int[] probeOutputChannels, Page page, List<Integer> probeJoinChannels, OptionalInt probeHashChannel)
     {
         this.probeOutputChannels = probeOutputChannels;
@@ -86,6 +95,12 @@ public class JoinProbe
 
     public long getCurrentJoinPosition(LookupSource lookupSource)
     {
+        if (lookupSource.supportsBatchedJoinPositions()) {
+            if (lookupSource != batchLookupSource) {
+                lookupJoinPositions(lookupSource);
+            }
+            return batchJoinPositions[position - batchStartPosition];
+        }
         if (currentRowContainsNull()) {
             return -1;
         }
@@ -106,7 +121,50 @@ public class JoinProbe
         return page;
     }
 
+    /**
+     * Looks up join positions of all remaining positions of the page at once. Hashing the whole
+     * batch before probing lets the hash table accesses of different positions overlap, which
+     * matters when the lookup source does not fit in the CPU caches.
+     */
+    private void lookupJoinPositions(LookupSource lookupSource)
+    {
+        int batchSize = positionCount - position;
+        int[] positions = new int[batchSize];
+        int nonNullPositionCount = 0;
+        for (int i = position; i < positionCount; i++) {
+            if (!rowContainsNull(i)) {
+                positions[nonNullPositionCount] = i;
+                nonNullPositionCount++;
+            }
+        }
+
+        long[] joinPositions = new long[nonNullPositionCount];
+        if (probeHashBlock.isPresent()) {
+            long[] rawHashes = new long[nonNullPositionCount];
+            for (int i = 0; i < nonNullPositionCount; i++) {
+                rawHashes[i] = BIGINT.getLong(probeHashBlock.get(), positions[i]);
+            }
+            lookupSource.getJoinPositions(positions, nonNullPositionCount, probePage, page, rawHashes, joinPositions);
+        }
+        else {
+            lookupSource.getJoinPositions(positions, nonNullPositionCount, probePage, page, joinPositions);
+        }
+
+        batchJoinPositions = new long[batchSize];
+        Arrays.fill(batchJoinPositions, -1);
+        for (int i = 0; i < nonNullPositionCount; i++) {
+            batchJoinPositions[positions[i] - position] = joinPositions[i];
+        }
+        batchStartPosition = position;
+        batchLookupSource = lookupSource;
+    }
+
     private boolean currentRowContainsNull()
+    {
+        return rowContainsNull(position);
+    }
+
+    private boolean rowContainsNull(int position)
     {
         for (Block probeBlock : probeBlocks) {
             if (probeBlock.isNull(position)) {
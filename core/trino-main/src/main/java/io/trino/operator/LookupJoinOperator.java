@@ -14,7 +14,6 @@
 package io.trino.operator;
 
 import com.google.common.io.Closer;
-import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.trino.memory.context.MemoryTrackingContext;
 import io.trino.operator.JoinProbe.JoinProbeFactory;
@@ -35,12 +34,16 @@ import io.trino.spiller.PartitioningSpillerFactory;
 import javax.annotation.Nullable;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.function.IntFunction;
 import java.util.function.IntPredicate;
 import java.util.function.Supplier;
 
@@ -50,7 +53,7 @@ import static com.google.common.base.Suppliers.memoize;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.base.Verify.verifyNotNull;
 import static com.google.common.collect.Iterators.singletonIterator;
-import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static io.airlift.concurrent.MoreFutures.addSuccessCallback;
 import static io.airlift.concurrent.MoreFutures.checkSuccess;
 import static io.airlift.concurrent.MoreFutures.getDone;
@@ -178,6 +181,9 @@ public class LookupJoinOperator
         private long joinPosition = -1;
         private int joinSourcePositions;
         private boolean currentProbePositionProducedRow;
+        // restored row whose join position has to be looked up again, skipping the matches it already produced
+        private boolean restartJoinPosition;
+        private int matchesToSkip;
 
         private Optional<PartitioningSpiller> spiller = Optional.empty();
         private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
@@ -308,6 +314,10 @@ public class LookupJoinOperator
 
         private void processProbe(LookupSource lookupSource)
         {
+            if (restartJoinPosition) {
+                joinPosition = probe.getCurrentJoinPosition(lookupSource);
+                restartJoinPosition = false;
+            }
             do {
                 if (probe.getPosition() >= 0) {
                     if (!joinCurrentPosition(lookupSource, yieldSignal)) {
@@ -340,10 +350,15 @@ public class LookupJoinOperator
             // while we have a position on lookup side to join against...
             while (joinPosition >= 0) {
                 if (lookupSource.isJoinPositionEligible(joinPosition, probe.getPosition(), probe.getPage())) {
-                    currentProbePositionProducedRow = true;
+                    if (matchesToSkip > 0) {
+                        matchesToSkip--;
+                    }
+                    else {
+                        currentProbePositionProducedRow = true;
 
-                    pageBuilder.appendRow(probe, lookupSource, joinPosition);
-                    joinSourcePositions++;
+                        pageBuilder.appendRow(probe, lookupSource, joinPosition);
+                        joinSourcePositions++;
+                    }
                 }
 
                 if (outputSingleMatch && currentProbePositionProducedRow) {
@@ -483,7 +498,16 @@ public class LookupJoinOperator
         {
             probe = joinProbeFactory.createJoinProbe(savedRow.row);
             verify(probe.advanceNextPosition());
-            joinPosition = savedRow.joinPositionWithinPartition;
+            if (savedRow.restartJoinPosition && savedRow.joinPositionWithinPartition >= 0) {
+                // Positions within a sub-partition differ from positions within the partition it was split from. Rows with equal
+                // keys stay in the same sub-partition in the same order, so the matches of the row are found in the same order.
+                joinPosition = -1;
+                restartJoinPosition = true;
+                matchesToSkip = savedRow.joinSourcePositions;
+            }
+            else {
+                joinPosition = savedRow.joinPositionWithinPartition;
+            }
             currentProbePositionProducedRow = savedRow.currentProbePositionProducedRow;
             joinSourcePositions = savedRow.joinSourcePositions;
             spillEpoch = NO_SPILL_EPOCH; // irrelevant
@@ -528,19 +552,17 @@ public class LookupJoinOperator
         private final LookupSourceFactory lookupSourceFactory;
         private final ListenableFuture<LookupSourceProvider> lookupSourceProvider;
         private final JoinStatisticsCounter statisticsCounter;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
         private final PageJoiner sourcePagesJoiner;
         private final WorkProcessor<Page> joinedSourcePages;
 
         private boolean closed;
 
         @Nullable
-        private ListenableFuture<PartitionedConsumption<Supplier<LookupSource>>> partitionedConsumption;
-        @Nullable
-        private Iterator<Partition<Supplier<LookupSource>>> lookupPartitions;
-        @Nullable
-        private Partition<Supplier<LookupSource>> previousPartition;
+        private ListenableFuture<PartitionedConsumption<UnspilledLookupSource>> partitionedConsumption;
+        // spilled partitions being joined, followed by the partitions their sub-partitions were split from
         @Nullable
-        private ListenableFuture<Supplier<LookupSource>> previousPartitionLookupSource;
+        private Deque<SpilledPartitions> spilledPartitions;
 
         private SpillingJoinProcessor(
                 ProcessorContext processorContext,
@@ -572,6 +594,7 @@ public class LookupJoinOperator
             this.lookupSourceFactory = requireNonNull(lookupSourceFactory, "lookupSourceFactory is null");
             this.lookupSourceProvider = requireNonNull(lookupSourceProvider, "lookupSourceProvider is null");
             this.statisticsCounter = requireNonNull(statisticsCounter, "statisticsCounter is null");
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
             sourcePagesJoiner = new PageJoiner(
                     processorContext,
                     probeTypes,
@@ -606,48 +629,89 @@ public class LookupJoinOperator
                 return ProcessState.blocked(partitionedConsumption);
             }
 
-            if (lookupPartitions == null) {
-                lookupPartitions = getDone(partitionedConsumption).beginConsumption();
+            if (spilledPartitions == null) {
+                spilledPartitions = new ArrayDeque<>();
+                spilledPartitions.push(new SpilledPartitions(
+                        getDone(partitionedConsumption).beginConsumption(),
+                        partitionNumber -> sourcePagesJoiner.getSpiller()
+                                .map(spiller -> spiller.getSpilledPages(partitionNumber))
+                                .orElse(emptyIterator()),
+                        sourcePagesJoiner.getSpilledRows()));
             }
 
-            if (previousPartition != null) {
-                // If we had no rows for the previous spill partition, we would finish before it is unspilled.
-                // Partition must be loaded before it can be released. // TODO remove this constraint
-                if (!previousPartitionLookupSource.isDone()) {
-                    return ProcessState.blocked(previousPartitionLookupSource);
+            while (!spilledPartitions.isEmpty()) {
+                SpilledPartitions partitions = spilledPartitions.peek();
+
+                if (partitions.current != null) {
+                    // Partition must be loaded before it can be released.
+                    if (!partitions.currentLookupSource.isDone()) {
+                        return ProcessState.blocked(partitions.currentLookupSource);
+                    }
+
+                    if (!partitions.currentJoined) {
+                        UnspilledLookupSource lookupSource = getDone(partitions.currentLookupSource);
+                        if (!lookupSource.isSubPartitioned()) {
+                            partitions.currentJoined = true;
+                            return ProcessState.ofResult(joinUnspilledPages(partitions, lookupSource.getLookupSource()));
+                        }
+
+                        ListenableFuture<?> spillInProgress = spillSubPartitions(partitions, lookupSource);
+                        if (!spillInProgress.isDone()) {
+                            return ProcessState.blocked(spillInProgress);
+                        }
+                        checkSuccess(spillInProgress, "spilling failed");
+                        partitions.currentJoined = true;
+                        spilledPartitions.push(partitions.createSubPartitions(lookupSource, hashGenerator));
+                        continue;
+                    }
+
+                    partitions.releaseCurrent();
                 }
 
-                previousPartition.release();
-                previousPartition = null;
-                previousPartitionLookupSource = null;
-            }
+                if (!partitions.remaining.hasNext()) {
+                    spilledPartitions.pop();
+                    continue;
+                }
 
-            if (!lookupPartitions.hasNext()) {
-                close();
-                return ProcessState.finished();
+                partitions.loadNext();
             }
 
-            Partition<Supplier<LookupSource>> partition = lookupPartitions.next();
-            previousPartition = partition;
-            previousPartitionLookupSource = partition.load();
+            close();
+            return ProcessState.finished();
+        }
 
-            return ProcessState.ofResult(joinUnspilledPages(partition));
+        private ListenableFuture<?> spillSubPartitions(SpilledPartitions partitions, UnspilledLookupSource lookupSource)
+        {
+            if (partitions.subPartitionSpiller == null) {
+                // the partition was too large for the build side to unspill, so probe rows are split the same way
+                partitions.subPartitionSpiller = partitioningSpillerFactory.create(
+                        probeTypes,
+                        lookupSource.createSubPartitionFunction(hashGenerator),
+                        processorContext.getSpillContext().newLocalSpillContext(),
+                        processorContext.getMemoryTrackingContext().newAggregateSystemMemoryContext());
+                partitions.unsplitPages = partitions.probePages.apply(partitions.current.number());
+            }
+
+            while (partitions.spillInProgress.isDone()) {
+                checkSuccess(partitions.spillInProgress, "spilling failed");
+                if (!partitions.unsplitPages.hasNext()) {
+                    break;
+                }
+                // all rows go to the sub-partitions, none is retained
+                partitions.spillInProgress = partitions.subPartitionSpiller.partitionAndSpill(partitions.unsplitPages.next(), partition -> true).getSpillingFuture();
+            }
+            return partitions.spillInProgress;
         }
 
-        private WorkProcessor<Page> joinUnspilledPages(Partition<Supplier<LookupSource>> partition)
+        private WorkProcessor<Page> joinUnspilledPages(SpilledPartitions partitions, Supplier<LookupSource> lookupSource)
         {
-            int partitionNumber = partition.number();
-            WorkProcessor<Page> unspilledInputPages = WorkProcessor.fromIterator(sourcePagesJoiner.getSpiller()
-                    .map(spiller -> spiller.getSpilledPages(partitionNumber))
-                    .orElse(emptyIterator()));
-            Iterator<SavedRow> savedRow = Optional.ofNullable(sourcePagesJoiner.getSpilledRows().remove(partitionNumber))
+            int partitionNumber = partitions.current.number();
+            WorkProcessor<Page> unspilledInputPages = WorkProcessor.fromIterator(partitions.probePages.apply(partitionNumber));
+            Iterator<SavedRow> savedRow = Optional.ofNullable(partitions.savedRows.remove(partitionNumber))
                     .map(row -> (Iterator<SavedRow>) singletonIterator(row))
                     .orElse(emptyIterator());
 
-            ListenableFuture<LookupSourceProvider> unspilledLookupSourceProvider = Futures.transform(
-                    partition.load(),
-                    supplier -> new StaticLookupSourceProvider(supplier.get()),
-                    directExecutor());
+            ListenableFuture<LookupSourceProvider> unspilledLookupSourceProvider = immediateFuture(new StaticLookupSourceProvider(lookupSource.get()));
 
             return unspilledInputPages.transform(new PageJoiner(
                     processorContext,
@@ -678,6 +742,9 @@ public class LookupJoinOperator
 
                 closer.register(sourcePagesJoiner::close);
                 sourcePagesJoiner.getSpiller().ifPresent(closer::register);
+                if (spilledPartitions != null) {
+                    spilledPartitions.forEach(partitions -> closer.register(partitions::closeSubPartitionSpiller));
+                }
             }
             catch (IOException e) {
                 throw new RuntimeException(e);
@@ -685,6 +752,80 @@ public class LookupJoinOperator
         }
     }
 
+    /**
+     * Spilled partitions, or sub-partitions of a spilled partition, consumed together with the spilled probe rows belonging to them.
+     */
+    private static class SpilledPartitions
+    {
+        private final Iterator<Partition<UnspilledLookupSource>> remaining;
+        private final IntFunction<Iterator<Page>> probePages;
+        private final Map<Integer, SavedRow> savedRows;
+
+        @Nullable
+        private Partition<UnspilledLookupSource> current;
+        @Nullable
+        private ListenableFuture<UnspilledLookupSource> currentLookupSource;
+        private boolean currentJoined;
+
+        // probe rows of the current partition, when it is split into sub-partitions
+        @Nullable
+        private PartitioningSpiller subPartitionSpiller;
+        @Nullable
+        private Iterator<Page> unsplitPages;
+        private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
+
+        private SpilledPartitions(Iterator<Partition<UnspilledLookupSource>> remaining, IntFunction<Iterator<Page>> probePages, Map<Integer, SavedRow> savedRows)
+        {
+            this.remaining = requireNonNull(remaining, "remaining is null");
+            this.probePages = requireNonNull(probePages, "probePages is null");
+            this.savedRows = requireNonNull(savedRows, "savedRows is null");
+        }
+
+        private void loadNext()
+        {
+            current = remaining.next();
+            currentLookupSource = current.load();
+            currentJoined = false;
+        }
+
+        private SpilledPartitions createSubPartitions(UnspilledLookupSource lookupSource, HashGenerator hashGenerator)
+        {
+            PartitioningSpiller subPartitionSpiller = requireNonNull(this.subPartitionSpiller, "subPartitionSpiller is null");
+            Map<Integer, SavedRow> subPartitionSavedRows = new HashMap<>();
+            SavedRow savedRow = savedRows.remove(current.number());
+            if (savedRow != null) {
+                PartitionFunction partitionFunction = lookupSource.createSubPartitionFunction(hashGenerator);
+                subPartitionSavedRows.put(partitionFunction.getPartition(savedRow.row, 0), savedRow.forSubPartition());
+            }
+            return new SpilledPartitions(
+                    lookupSource.getSubPartitions().beginConsumption(),
+                    subPartitionSpiller::getSpilledPages,
+                    subPartitionSavedRows);
+        }
+
+        private void releaseCurrent()
+        {
+            current.release();
+            current = null;
+            currentLookupSource = null;
+            closeSubPartitionSpiller();
+        }
+
+        private void closeSubPartitionSpiller()
+        {
+            unsplitPages = null;
+            if (subPartitionSpiller != null) {
+                try {
+                    subPartitionSpiller.close();
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                subPartitionSpiller = null;
+            }
+        }
+    }
+
     // This class must be public because LookupJoinOperator is isolated.
     public static class SpillInfoSnapshot
     {
@@ -739,13 +880,29 @@ public class LookupJoinOperator
          */
         public final int joinSourcePositions;
 
+        /**
+         * Whether the row is joined with a sub-partition of the partition {@link #joinPositionWithinPartition} refers to
+         */
+        public final boolean restartJoinPosition;
+
         public SavedRow(Page page, int position, long joinPositionWithinPartition, boolean currentProbePositionProducedRow, int joinSourcePositions)
         {
-            this.row = page.getSingleValuePage(position);
+            this(page.getSingleValuePage(position), joinPositionWithinPartition, currentProbePositionProducedRow, joinSourcePositions, false);
+        }
+
+        private SavedRow(Page row, long joinPositionWithinPartition, boolean currentProbePositionProducedRow, int joinSourcePositions, boolean restartJoinPosition)
+        {
+            this.row = requireNonNull(row, "row is null");
 
             this.joinPositionWithinPartition = joinPositionWithinPartition;
             this.currentProbePositionProducedRow = currentProbePositionProducedRow;
             this.joinSourcePositions = joinSourcePositions;
+            this.restartJoinPosition = restartJoinPosition;
+        }
+
+        public SavedRow forSubPartition()
+        {
+            return new SavedRow(row, joinPositionWithinPartition, currentProbePositionProducedRow, joinSourcePositions, true);
         }
     }
 }
@@ -36,6 +36,33 @@ public interface LookupSource
 
     long getJoinPosition(int position, Page hashChannelsPage, Page allChannelsPage);
 
+    /**
+     * Whether {@link #getJoinPositions} can be used to look up join positions of probe positions
+     * ahead of joining them. Lookup sources that change their state during lookups must not support this.
+     */
+    default boolean supportsBatchedJoinPositions()
+    {
+        return false;
+    }
+
+    /**
+     * Looks up the first join position of each of the first {@code positionCount} probe {@code positions}
+     * and stores it in {@code joinPositions}. Probe positions with null join keys must not be passed.
+     */
+    default void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, long[] rawHashes, long[] joinPositions)
+    {
+        for (int i = 0; i < positionCount; i++) {
+            joinPositions[i] = getJoinPosition(positions[i], hashChannelsPage, allChannelsPage, rawHashes[i]);
+        }
+    }
+
+    default void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, long[] joinPositions)
+    {
+        for (int i = 0; i < positionCount; i++) {
+            joinPositions[i] = getJoinPosition(positions[i], hashChannelsPage, allChannelsPage);
+        }
+    }
+
     long getNextJoinPosition(long currentJoinPosition, int probePosition, Page allProbeChannelsPage);
 
     void appendTo(long position, PageBuilder pageBuilder, int outputChannelOffset);
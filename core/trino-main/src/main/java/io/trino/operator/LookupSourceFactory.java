@@ -18,7 +18,6 @@ import io.trino.spi.type.Type;
 
 import java.util.List;
 import java.util.OptionalInt;
-import java.util.function.Supplier;
 
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static java.util.Collections.emptyList;
@@ -34,7 +33,7 @@ public interface LookupSourceFactory
 
     int partitions();
 
-    default ListenableFuture<PartitionedConsumption<Supplier<LookupSource>>> finishProbeOperator(OptionalInt lookupJoinsCount)
+    default ListenableFuture<PartitionedConsumption<UnspilledLookupSource>> finishProbeOperator(OptionalInt lookupJoinsCount)
     {
         return immediateFuture(new PartitionedConsumption<>(
                 1,
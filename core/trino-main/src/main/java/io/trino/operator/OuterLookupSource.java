@@ -87,6 +87,24 @@ public final class OuterLookupSource
         return lookupSource.getJoinPosition(position, hashChannelsPage, allChannelsPage);
     }
 
+    @Override
+    public boolean supportsBatchedJoinPositions()
+    {
+        return lookupSource.supportsBatchedJoinPositions();
+    }
+
+    @Override
+    public void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, long[] rawHashes, long[] joinPositions)
+    {
+        lookupSource.getJoinPositions(positions, positionCount, hashChannelsPage, allChannelsPage, rawHashes, joinPositions);
+    }
+
+    @Override
+    public void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, long[] joinPositions)
+    {
+        lookupSource.getJoinPositions(positions, positionCount, hashChannelsPage, allChannelsPage, joinPositions);
+    }
+
     @Override
     public long getNextJoinPosition(long currentJoinPosition, int probePosition, Page allProbeChannelsPage)
     {
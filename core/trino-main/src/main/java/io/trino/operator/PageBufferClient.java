@@ -0,0 +1,55 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import io.trino.execution.buffer.SerializedPage;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * Client fetching the pages of one location of an {@link ExchangeClient}.
+ */
+public interface PageBufferClient
+        extends Closeable
+{
+    /**
+     * For each request, the addPage method will be called zero or more times,
+     * followed by either requestComplete or clientFinished (if buffer complete).  If the client is
+     * closed, requestComplete or bufferFinished may never be called.
+     * <p/>
+     * <b>NOTE:</b> Implementations of this interface are not allowed to perform
+     * blocking operations.
+     */
+    interface ClientCallback
+    {
+        boolean addPages(PageBufferClient client, List<SerializedPage> pages);
+
+        void requestComplete(PageBufferClient client);
+
+        void clientFinished(PageBufferClient client);
+
+        void clientFailed(PageBufferClient client, Throwable cause);
+    }
+
+    PageBufferClientStatus getStatus();
+
+    /**
+     * Schedules a request for more pages, unless a request is already scheduled or running.
+     */
+    void scheduleRequest();
+
+    @Override
+    void close();
+}
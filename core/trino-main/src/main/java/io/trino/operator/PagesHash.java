@@ -168,6 +168,43 @@ public final class PagesHash
         return -1;
     }
 
+    public void getAddressIndexes(int[] positions, int positionCount, Page hashChannelsPage, long[] result)
+    {
+        long[] rawHashes = new long[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            rawHashes[i] = pagesHashStrategy.hashRow(positions[i], hashChannelsPage);
+        }
+        getAddressIndexes(positions, positionCount, hashChannelsPage, rawHashes, result);
+    }
+
+    public void getAddressIndexes(int[] positions, int positionCount, Page hashChannelsPage, long[] rawHashes, long[] result)
+    {
+        // Compute all hash table positions first and then read the corresponding slots in a separate loop.
+        // The slot reads do not depend on each other, so the cache misses of many probe positions overlap
+        // instead of being serialized with key comparisons.
+        int[] hashPositions = new int[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            hashPositions[i] = getHashPosition(rawHashes[i], mask);
+        }
+        for (int i = 0; i < positionCount; i++) {
+            result[i] = key[hashPositions[i]];
+        }
+
+        for (int i = 0; i < positionCount; i++) {
+            int pos = hashPositions[i];
+            int currentKey = (int) result[i];
+            while (currentKey != -1) {
+                if (positionEqualsCurrentRowIgnoreNulls(currentKey, (byte) rawHashes[i], positions[i], hashChannelsPage)) {
+                    break;
+                }
+                // increment position and mask to handler wrap around
+                pos = (pos + 1) & mask;
+                currentKey = key[pos];
+            }
+            result[i] = currentKey;
+        }
+    }
+
     public void appendTo(long position, PageBuilder pageBuilder, int outputChannelOffset)
     {
         long pageAddress = addresses.getLong(toIntExact(position));
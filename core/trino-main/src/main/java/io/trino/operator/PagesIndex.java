@@ -78,6 +78,8 @@ public class PagesIndex
 {
     private static final int INSTANCE_SIZE = ClassLayout.parseClass(PagesIndex.class).instanceSize();
     private static final Logger log = Logger.get(PagesIndex.class);
+    // below this size building the normalized keys costs more than sorting with the comparator
+    private static final int RADIX_SORT_MIN_POSITIONS = 1024;
 
     private final OrderingCompiler orderingCompiler;
     private final JoinCompiler joinCompiler;
@@ -88,6 +90,7 @@ public class PagesIndex
     private final ObjectArrayList<Block>[] channels;
     private final IntArrayList positionCounts;
     private final boolean eagerCompact;
+    private final boolean radixSortEnabled;
 
     private int pageCount;
     private int nextBlockToCompact;
@@ -101,7 +104,8 @@ public class PagesIndex
             BlockTypeOperators blockTypeOperators,
             List<Type> types,
             int expectedPositions,
-            boolean eagerCompact)
+            boolean eagerCompact,
+            boolean radixSortEnabled)
     {
         this.orderingCompiler = requireNonNull(orderingCompiler, "orderingCompiler is null");
         this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
@@ -109,6 +113,7 @@ public class PagesIndex
         this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
         this.valueAddresses = new LongArrayList(expectedPositions);
         this.eagerCompact = eagerCompact;
+        this.radixSortEnabled = radixSortEnabled;
 
         //noinspection unchecked
         channels = (ObjectArrayList<Block>[]) new ObjectArrayList[types.size()];
@@ -134,16 +139,23 @@ public class PagesIndex
         private static final JoinCompiler JOIN_COMPILER = new JoinCompiler(TYPE_OPERATORS);
         private static final BlockTypeOperators TYPE_OPERATOR_FACTORY = new BlockTypeOperators(TYPE_OPERATORS);
         private final boolean eagerCompact;
+        private final boolean radixSortEnabled;
 
         public TestingFactory(boolean eagerCompact)
+        {
+            this(eagerCompact, true);
+        }
+
+        public TestingFactory(boolean eagerCompact, boolean radixSortEnabled)
         {
             this.eagerCompact = eagerCompact;
+            this.radixSortEnabled = radixSortEnabled;
         }
 
         @Override
         public PagesIndex newPagesIndex(List<Type> types, int expectedPositions)
         {
-            return new PagesIndex(ORDERING_COMPILER, JOIN_COMPILER, TYPE_OPERATOR_FACTORY, types, expectedPositions, eagerCompact);
+            return new PagesIndex(ORDERING_COMPILER, JOIN_COMPILER, TYPE_OPERATOR_FACTORY, types, expectedPositions, eagerCompact, radixSortEnabled);
         }
     }
 
@@ -153,6 +165,7 @@ public class PagesIndex
         private final OrderingCompiler orderingCompiler;
         private final JoinCompiler joinCompiler;
         private final boolean eagerCompact;
+        private final boolean radixSortEnabled;
         private final BlockTypeOperators blockTypeOperators;
 
         @Inject
@@ -161,13 +174,14 @@ public class PagesIndex
             this.orderingCompiler = requireNonNull(orderingCompiler, "orderingCompiler is null");
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
             this.eagerCompact = requireNonNull(featuresConfig, "featuresConfig is null").isPagesIndexEagerCompactionEnabled();
+            this.radixSortEnabled = featuresConfig.isPagesIndexRadixSortEnabled();
             this.blockTypeOperators = requireNonNull(blockTypeOperators, "blockTypeOperators is null");
         }
 
         @Override
         public PagesIndex newPagesIndex(List<Type> types, int expectedPositions)
         {
-            return new PagesIndex(orderingCompiler, joinCompiler, blockTypeOperators, types, expectedPositions, eagerCompact);
+            return new PagesIndex(orderingCompiler, joinCompiler, blockTypeOperators, types, expectedPositions, eagerCompact, radixSortEnabled);
         }
     }
 
@@ -390,7 +404,14 @@ public class PagesIndex
 
     public void sort(List<Integer> sortChannels, List<SortOrder> sortOrders, int startPosition, int endPosition)
     {
-        createPagesIndexComparator(sortChannels, sortOrders).sort(this, startPosition, endPosition);
+        PagesIndexOrdering ordering = createPagesIndexComparator(sortChannels, sortOrders);
+        if (radixSortEnabled && endPosition - startPosition >= RADIX_SORT_MIN_POSITIONS && PagesIndexRadixSorter.isSupported(types.get(sortChannels.get(0)))) {
+            // the comparator is only needed for positions with the same leading key
+            Optional<PagesIndexOrdering> tieBreaker = sortChannels.size() > 1 ? Optional.of(ordering) : Optional.empty();
+            PagesIndexRadixSorter.sort(this, sortChannels.get(0), sortOrders.get(0), tieBreaker, startPosition, endPosition);
+            return;
+        }
+        ordering.sort(this, startPosition, endPosition);
     }
 
     public boolean positionNotDistinctFromPosition(PagesHashStrategy partitionHashStrategy, int leftPosition, int rightPosition)
@@ -0,0 +1,319 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.trino.spi.block.Block;
+import io.trino.spi.connector.SortOrder;
+import io.trino.spi.type.DecimalType;
+import io.trino.spi.type.Type;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static io.trino.operator.SyntheticAddress.decodePosition;
+import static io.trino.operator.SyntheticAddress.decodeSliceIndex;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.RealType.REAL;
+import static io.trino.spi.type.SmallintType.SMALLINT;
+import static io.trino.spi.type.TinyintType.TINYINT;
+import static java.lang.Double.doubleToLongBits;
+import static java.lang.Float.floatToIntBits;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.min;
+
+/**
+ * Sorts a range of a {@link PagesIndex} by a fixed-width sort key with a radix sort.
+ * <p>
+ * The values of the sort key are normalized into longs which compare as unsigned numbers
+ * in the same order as the values compare in the requested {@link SortOrder}. Nulls do not
+ * have a normalized key and are moved to the start or the end of the range first. The
+ * addresses are then partitioned in place by the most significant byte of the keys until
+ * the partitions fit in the scratch arrays, which are ordered with a LSD radix sort one byte
+ * at a time, skipping the bytes which are the same for all the keys. This bounds the memory
+ * used by the sort, independent of the number of positions. Positions with equal keys are
+ * ordered by the remaining sort keys with the comparator.
+ */
+final class PagesIndexRadixSorter
+{
+    private static final int BITS_PER_PASS = 8;
+    private static final int BUCKETS = 1 << BITS_PER_PASS;
+    private static final int BUCKET_MASK = BUCKETS - 1;
+    private static final int PASSES = Long.SIZE / BITS_PER_PASS;
+
+    // the four scratch arrays take 128kB
+    @VisibleForTesting
+    static final int MAX_CHUNK_POSITIONS = 4096;
+
+    private final PagesIndex pagesIndex;
+    private final Type type;
+    private final ObjectArrayList<Block> blocks;
+    private final boolean ascending;
+    private final Optional<PagesIndexOrdering> tieBreaker;
+    private final long[] addresses;
+
+    private final long[] keys;
+    private final long[] values;
+    private final long[] targetKeys;
+    private final long[] targetValues;
+    private final int[][] histograms = new int[PASSES][BUCKETS];
+
+    private PagesIndexRadixSorter(PagesIndex pagesIndex, int channel, SortOrder sortOrder, Optional<PagesIndexOrdering> tieBreaker, int maxChunkPositions)
+    {
+        this.pagesIndex = pagesIndex;
+        this.type = pagesIndex.getTypes().get(channel);
+        this.blocks = pagesIndex.getChannel(channel);
+        this.ascending = sortOrder.isAscending();
+        this.tieBreaker = tieBreaker;
+        this.addresses = pagesIndex.getValueAddresses().elements();
+
+        this.keys = new long[maxChunkPositions];
+        this.values = new long[maxChunkPositions];
+        this.targetKeys = new long[maxChunkPositions];
+        this.targetValues = new long[maxChunkPositions];
+    }
+
+    static boolean isSupported(Type type)
+    {
+        return type.equals(BIGINT) ||
+                type.equals(INTEGER) ||
+                type.equals(SMALLINT) ||
+                type.equals(TINYINT) ||
+                type.equals(DATE) ||
+                type.equals(DOUBLE) ||
+                type.equals(REAL) ||
+                (type instanceof DecimalType && ((DecimalType) type).isShort());
+    }
+
+    /**
+     * @param tieBreaker ordering of all the sort keys, used for positions with equal keys. It can be empty
+     * when the key is the only sort key.
+     */
+    static void sort(PagesIndex pagesIndex, int channel, SortOrder sortOrder, Optional<PagesIndexOrdering> tieBreaker, int startPosition, int endPosition)
+    {
+        long[] addresses = pagesIndex.getValueAddresses().elements();
+        ObjectArrayList<Block> blocks = pagesIndex.getChannel(channel);
+
+        // nulls are swapped to the requested end of the range
+        int nonNullsStart = startPosition;
+        int nonNullsEnd = endPosition;
+        if (sortOrder.isNullsFirst()) {
+            for (int position = startPosition; position < endPosition; position++) {
+                if (isNull(blocks, addresses[position])) {
+                    swap(addresses, position, nonNullsStart);
+                    nonNullsStart++;
+                }
+            }
+        }
+        else {
+            for (int position = endPosition - 1; position >= startPosition; position--) {
+                if (isNull(blocks, addresses[position])) {
+                    nonNullsEnd--;
+                    swap(addresses, position, nonNullsEnd);
+                }
+            }
+        }
+
+        int nullsStart = sortOrder.isNullsFirst() ? startPosition : nonNullsEnd;
+        int nullsEnd = sortOrder.isNullsFirst() ? nonNullsStart : endPosition;
+        if (tieBreaker.isPresent() && nullsEnd - nullsStart > 1) {
+            tieBreaker.get().sort(pagesIndex, nullsStart, nullsEnd);
+        }
+
+        int nonNullCount = nonNullsEnd - nonNullsStart;
+        if (nonNullCount < 2) {
+            return;
+        }
+        PagesIndexRadixSorter sorter = new PagesIndexRadixSorter(pagesIndex, channel, sortOrder, tieBreaker, min(nonNullCount, MAX_CHUNK_POSITIONS));
+        sorter.sort(nonNullsStart, nonNullsEnd, Long.SIZE - BITS_PER_PASS);
+    }
+
+    /**
+     * Sorts the non null positions of the range, whose keys are equal in the bytes above {@code shift}.
+     */
+    private void sort(int startPosition, int endPosition, int shift)
+    {
+        int positionCount = endPosition - startPosition;
+        if (positionCount < 2) {
+            return;
+        }
+        if (positionCount <= keys.length) {
+            sortChunk(startPosition, endPosition);
+            return;
+        }
+        if (shift < 0) {
+            // all the keys are equal
+            if (tieBreaker.isPresent()) {
+                tieBreaker.get().sort(pagesIndex, startPosition, endPosition);
+            }
+            return;
+        }
+
+        int[] bucketEnds = new int[BUCKETS];
+        for (int position = startPosition; position < endPosition; position++) {
+            bucketEnds[bucket(addresses[position], shift)]++;
+        }
+        int[] bucketStarts = new int[BUCKETS];
+        int offset = startPosition;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            bucketStarts[bucket] = offset;
+            offset += bucketEnds[bucket];
+            bucketEnds[bucket] = offset;
+        }
+
+        // American flag sort: each address is swapped into the next free slot of its bucket
+        int[] nextPositions = bucketStarts.clone();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            while (nextPositions[bucket] < bucketEnds[bucket]) {
+                long address = addresses[nextPositions[bucket]];
+                int target = bucket(address, shift);
+                if (target == bucket) {
+                    nextPositions[bucket]++;
+                }
+                else {
+                    addresses[nextPositions[bucket]] = addresses[nextPositions[target]];
+                    addresses[nextPositions[target]] = address;
+                    nextPositions[target]++;
+                }
+            }
+        }
+
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            sort(bucketStarts[bucket], bucketEnds[bucket], shift - BITS_PER_PASS);
+        }
+    }
+
+    private void sortChunk(int startPosition, int endPosition)
+    {
+        int positionCount = endPosition - startPosition;
+        for (int i = 0; i < positionCount; i++) {
+            long address = addresses[startPosition + i];
+            keys[i] = key(address);
+            values[i] = address;
+        }
+
+        radixSort(positionCount);
+        System.arraycopy(values, 0, addresses, startPosition, positionCount);
+
+        if (tieBreaker.isEmpty()) {
+            return;
+        }
+        PagesIndexOrdering ordering = tieBreaker.get();
+        int runStart = 0;
+        for (int i = 1; i <= positionCount; i++) {
+            if (i == positionCount || keys[i] != keys[runStart]) {
+                if (i - runStart > 1) {
+                    ordering.sort(pagesIndex, startPosition + runStart, startPosition + i);
+                }
+                runStart = i;
+            }
+        }
+    }
+
+    private int bucket(long address, int shift)
+    {
+        return (int) (key(address) >>> shift) & BUCKET_MASK;
+    }
+
+    private long key(long address)
+    {
+        long key = normalizeKey(type, blocks.get(decodeSliceIndex(address)), decodePosition(address));
+        return ascending ? key : ~key;
+    }
+
+    private static boolean isNull(ObjectArrayList<Block> blocks, long address)
+    {
+        return blocks.get(decodeSliceIndex(address)).isNull(decodePosition(address));
+    }
+
+    private static void swap(long[] addresses, int left, int right)
+    {
+        long address = addresses[left];
+        addresses[left] = addresses[right];
+        addresses[right] = address;
+    }
+
+    private static long normalizeKey(Type type, Block block, int position)
+    {
+        if (type.equals(DOUBLE)) {
+            // same order as Double.compare, which puts -0.0 before 0.0 and NaN last
+            long bits = doubleToLongBits(DOUBLE.getDouble(block, position));
+            return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+        }
+        if (type.equals(REAL)) {
+            int bits = floatToIntBits(intBitsToFloat((int) REAL.getLong(block, position)));
+            return (bits < 0 ? ~bits : bits ^ Integer.MIN_VALUE) & 0xFFFF_FFFFL;
+        }
+        // flipping the sign bit makes signed values compare as unsigned
+        return type.getLong(block, position) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Sorts the first {@code count} keys as unsigned longs, moving the values along with them.
+     */
+    private void radixSort(int count)
+    {
+        for (int[] histogram : histograms) {
+            Arrays.fill(histogram, 0);
+        }
+        for (int i = 0; i < count; i++) {
+            long key = keys[i];
+            for (int pass = 0; pass < PASSES; pass++) {
+                histograms[pass][(int) (key >>> (pass * BITS_PER_PASS)) & BUCKET_MASK]++;
+            }
+        }
+
+        long[] sourceKeys = keys;
+        long[] sourceValues = values;
+        long[] destinationKeys = targetKeys;
+        long[] destinationValues = targetValues;
+        for (int pass = 0; pass < PASSES; pass++) {
+            int shift = pass * BITS_PER_PASS;
+            int[] histogram = histograms[pass];
+            if (histogram[(int) (sourceKeys[0] >>> shift) & BUCKET_MASK] == count) {
+                // all the keys have the same byte
+                continue;
+            }
+
+            int offset = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                int bucketCount = histogram[bucket];
+                histogram[bucket] = offset;
+                offset += bucketCount;
+            }
+            for (int i = 0; i < count; i++) {
+                long key = sourceKeys[i];
+                int target = histogram[(int) (key >>> shift) & BUCKET_MASK]++;
+                destinationKeys[target] = key;
+                destinationValues[target] = sourceValues[i];
+            }
+
+            long[] swap = sourceKeys;
+            sourceKeys = destinationKeys;
+            destinationKeys = swap;
+            swap = sourceValues;
+            sourceValues = destinationValues;
+            destinationValues = swap;
+        }
+
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, count);
+            System.arraycopy(sourceValues, 0, values, 0, count);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.trino.util.Mergeable;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+public class PartialAggregationInfo
+        implements Mergeable<PartialAggregationInfo>, OperatorInfo
+{
+    private final HashCollisionsInfo hashCollisionsInfo;
+    private final long aggregatedInputPositions;
+    private final long skippedInputPositions;
+    private final long partialAggregationDisabledCount;
+
+    @JsonCreator
+    public PartialAggregationInfo(
+            @JsonProperty("hashCollisionsInfo") HashCollisionsInfo hashCollisionsInfo,
+            @JsonProperty("aggregatedInputPositions") long aggregatedInputPositions,
+            @JsonProperty("skippedInputPositions") long skippedInputPositions,
+            @JsonProperty("partialAggregationDisabledCount") long partialAggregationDisabledCount)
+    {
+        this.hashCollisionsInfo = requireNonNull(hashCollisionsInfo, "hashCollisionsInfo is null");
+        this.aggregatedInputPositions = aggregatedInputPositions;
+        this.skippedInputPositions = skippedInputPositions;
+        this.partialAggregationDisabledCount = partialAggregationDisabledCount;
+    }
+
+    @JsonProperty
+    public HashCollisionsInfo getHashCollisionsInfo()
+    {
+        return hashCollisionsInfo;
+    }
+
+    /**
+     * Number of input positions processed while partial aggregation was enabled.
+     */
+    @JsonProperty
+    public long getAggregatedInputPositions()
+    {
+        return aggregatedInputPositions;
+    }
+
+    /**
+     * Number of input positions passed through as intermediate rows after partial aggregation was disabled.
+     */
+    @JsonProperty
+    public long getSkippedInputPositions()
+    {
+        return skippedInputPositions;
+    }
+
+    /**
+     * Number of operators which disabled partial aggregation.
+     */
+    @JsonProperty
+    public long getPartialAggregationDisabledCount()
+    {
+        return partialAggregationDisabledCount;
+    }
+
+    @Override
+    public PartialAggregationInfo mergeWith(PartialAggregationInfo other)
+    {
+        return new PartialAggregationInfo(
+                hashCollisionsInfo.mergeWith(other.getHashCollisionsInfo()),
+                aggregatedInputPositions + other.getAggregatedInputPositions(),
+                skippedInputPositions + other.getSkippedInputPositions(),
+                partialAggregationDisabledCount + other.getPartialAggregationDisabledCount());
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("hashCollisionsInfo", hashCollisionsInfo)
+                .add("aggregatedInputPositions", aggregatedInputPositions)
+                .add("skippedInputPositions", skippedInputPositions)
+                .add("partialAggregationDisabledCount", partialAggregationDisabledCount)
+                .toString();
+    }
+}
@@ -150,6 +150,73 @@ public class PartitionedLookupSource
         return encodePartitionedJoinPosition(partition, toIntExact(joinPosition));
     }
 
+    @Override
+    public boolean supportsBatchedJoinPositions()
+    {
+        return Arrays.stream(lookupSources).allMatch(LookupSource::supportsBatchedJoinPositions);
+    }
+
+    @Override
+    public void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, long[] joinPositions)
+    {
+        long[] rawHashes = new long[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            rawHashes[i] = partitionGenerator.getRawHash(hashChannelsPage, positions[i]);
+        }
+        getJoinPositions(positions, positionCount, hashChannelsPage, allChannelsPage, rawHashes, joinPositions);
+    }
+
+    @Override
+    public void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, long[] rawHashes, long[] joinPositions)
+    {
+        if (lookupSources.length == 1) {
+            lookupSources[0].getJoinPositions(positions, positionCount, hashChannelsPage, allChannelsPage, rawHashes, joinPositions);
+            for (int i = 0; i < positionCount; i++) {
+                if (joinPositions[i] >= 0) {
+                    joinPositions[i] = encodePartitionedJoinPosition(0, toIntExact(joinPositions[i]));
+                }
+            }
+            return;
+        }
+
+        // group probe positions by partition, preserving their order within a partition
+        int[] partitions = new int[positionCount];
+        int[] partitionOffsets = new int[lookupSources.length + 1];
+        for (int i = 0; i < positionCount; i++) {
+            partitions[i] = partitionGenerator.getPartition(rawHashes[i]);
+            partitionOffsets[partitions[i] + 1]++;
+        }
+        for (int partition = 0; partition < lookupSources.length; partition++) {
+            partitionOffsets[partition + 1] += partitionOffsets[partition];
+        }
+        int[] nextIndexes = Arrays.copyOf(partitionOffsets, lookupSources.length);
+        int[] groupedIndexes = new int[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            groupedIndexes[nextIndexes[partitions[i]]++] = i;
+        }
+
+        int[] partitionPositions = new int[positionCount];
+        long[] partitionRawHashes = new long[positionCount];
+        long[] partitionJoinPositions = new long[positionCount];
+        for (int partition = 0; partition < lookupSources.length; partition++) {
+            int start = partitionOffsets[partition];
+            int count = partitionOffsets[partition + 1] - start;
+            if (count == 0) {
+                continue;
+            }
+            for (int i = 0; i < count; i++) {
+                int index = groupedIndexes[start + i];
+                partitionPositions[i] = positions[index];
+                partitionRawHashes[i] = rawHashes[index];
+            }
+            lookupSources[partition].getJoinPositions(partitionPositions, count, hashChannelsPage, allChannelsPage, partitionRawHashes, partitionJoinPositions);
+            for (int i = 0; i < count; i++) {
+                long joinPosition = partitionJoinPositions[i];
+                joinPositions[groupedIndexes[start + i]] = joinPosition < 0 ? joinPosition : encodePartitionedJoinPosition(partition, toIntExact(joinPosition));
+            }
+        }
+    }
+
     @Override
     public long getNextJoinPosition(long currentJoinPosition, int probePosition, Page allProbeChannelsPage)
     {
@@ -39,10 +39,12 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
 import java.util.function.IntPredicate;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static com.google.common.util.concurrent.Futures.nonCancellationPropagating;
 import static com.google.common.util.concurrent.Futures.transform;
@@ -96,7 +98,7 @@ public final class PartitionedLookupSourceFactory
     private OptionalInt partitionedConsumptionParticipants = OptionalInt.empty();
 
     @GuardedBy("lock")
-    private final SettableFuture<PartitionedConsumption<Supplier<LookupSource>>> partitionedConsumption = SettableFuture.create();
+    private final SettableFuture<PartitionedConsumption<UnspilledLookupSource>> partitionedConsumption = SettableFuture.create();
 
     /**
      * Cached LookupSource on behalf of LookupJoinOperator (represented by SpillAwareLookupSourceProvider). LookupSource instantiation has non-negligible cost.
@@ -134,6 +136,11 @@ public final class PartitionedLookupSourceFactory
         return outputTypes;
     }
 
+    public BlockTypeOperators getBlockTypeOperators()
+    {
+        return blockTypeOperators;
+    }
+
     // partitions is final, so we don't need a lock to read its length here
     @SuppressWarnings("FieldAccessNotGuarded")
     @Override
@@ -296,7 +303,7 @@ public final class PartitionedLookupSourceFactory
     }
 
     @Override
-    public ListenableFuture<PartitionedConsumption<Supplier<LookupSource>>> finishProbeOperator(OptionalInt lookupJoinsCount)
+    public ListenableFuture<PartitionedConsumption<UnspilledLookupSource>> finishProbeOperator(OptionalInt lookupJoinsCount)
     {
         lock.writeLock().lock();
         try {
@@ -347,9 +354,34 @@ public final class PartitionedLookupSourceFactory
         }
     }
 
-    private ListenableFuture<Supplier<LookupSource>> loadSpilledLookupSource(int partitionNumber)
+    private ListenableFuture<UnspilledLookupSource> loadSpilledLookupSource(int partitionNumber)
+    {
+        lock.readLock().lock();
+        try {
+            return loadSpilledLookupSource(getSpilledLookupSourceHandle(partitionNumber), partitionedConsumptionParticipants.getAsInt());
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static ListenableFuture<UnspilledLookupSource> loadSpilledLookupSource(SpilledLookupSourceHandle handle, int participants)
     {
-        return getSpilledLookupSourceHandle(partitionNumber).getLookupSource();
+        return transform(
+                handle.getLookupSource(),
+                lookupSource -> {
+                    if (!lookupSource.isSubPartitioned()) {
+                        return lookupSource;
+                    }
+                    // sub-partitions are consumed by the same probe operators as the partition they were split from
+                    List<SpilledLookupSourceHandle> subPartitionHandles = lookupSource.getSubPartitionHandles();
+                    return lookupSource.withSubPartitions(new PartitionedConsumption<>(
+                            participants,
+                            IntStream.range(0, subPartitionHandles.size()).boxed().collect(toImmutableList()),
+                            subPartition -> loadSpilledLookupSource(subPartitionHandles.get(subPartition), participants),
+                            subPartition -> subPartitionHandles.get(subPartition).dispose()));
+                },
+                directExecutor());
     }
 
     private void disposeSpilledLookupSource(int partitionNumber)
@@ -310,6 +310,8 @@ public class PartitionedOutputOperator
         private final OutputBuffer outputBuffer;
         private final List<Type> sourceTypes;
         private final PartitionFunction partitionFunction;
+        @Nullable
+        private final SkewedPartitionFunction skewedPartitionFunction; // when present, send the position to every partition if it holds a replicated skewed key
         private final int[] partitionChannels;
         @Nullable
         private final Block[] partitionConstantBlocks; // when null, no constants are present. Only non-null elements are constants
@@ -335,6 +337,7 @@ public class PartitionedOutputOperator
                 OperatorContext operatorContext)
         {
             this.partitionFunction = requireNonNull(partitionFunction, "partitionFunction is null");
+            this.skewedPartitionFunction = partitionFunction instanceof SkewedPartitionFunction ? (SkewedPartitionFunction) partitionFunction : null;
             this.partitionChannels = Ints.toArray(requireNonNull(partitionChannels, "partitionChannels is null"));
             Block[] partitionConstantBlocks = requireNonNull(partitionConstants, "partitionConstants is null").stream()
                     .map(constant -> constant.map(NullableValue::asBlock).orElse(null))
@@ -410,7 +413,8 @@ public class PartitionedOutputOperator
             Page partitionFunctionArgs = getPartitionFunctionArguments(page);
             for (int position = 0; position < page.getPositionCount(); position++) {
                 boolean shouldReplicate = (replicatesAnyRow && !hasAnyRowBeenReplicated) ||
-                        nullChannel.isPresent() && page.getBlock(nullChannel.getAsInt()).isNull(position);
+                        nullChannel.isPresent() && page.getBlock(nullChannel.getAsInt()).isNull(position) ||
+                        skewedPartitionFunction != null && skewedPartitionFunction.isReplicated(partitionFunctionArgs, position);
                 if (shouldReplicate) {
                     for (PageBuilder pageBuilder : pageBuilders) {
                         appendRow(pageBuilder, page, position);
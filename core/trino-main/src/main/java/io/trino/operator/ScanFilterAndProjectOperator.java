@@ -254,6 +254,7 @@ public class ScanFilterAndProjectOperator
                 source = pageSourceProvider.createPageSource(session, split, table, columns, dynamicFilter);
             }
 
+            // record sets offloaded to AsyncPageSource are read as pages, so they are processed by the page processor
             if (source instanceof RecordPageSource) {
                 cursor = ((RecordPageSource) source).getCursor();
                 return ofResult(processColumnSource());
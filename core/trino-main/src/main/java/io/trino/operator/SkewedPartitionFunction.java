@@ -0,0 +1,129 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import io.airlift.slice.Slice;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.VarcharType;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.SmallintType.SMALLINT;
+import static io.trino.spi.type.TinyintType.TINYINT;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Partition function for a hash partitioned join input where a few key values
+ * dominate the data. Rows holding one of the skewed values are either spread
+ * round-robin over all partitions (probe side) or reported as replicated
+ * (build side); all other rows are partitioned by the delegate function.
+ * <p>
+ * The key is read from channel {@code keyChannel} of the arguments page, which
+ * follows the channels consumed by the delegate.
+ */
+public class SkewedPartitionFunction
+        implements PartitionFunction
+{
+    private final PartitionFunction delegate;
+    private final int keyChannel;
+    private final Type keyType;
+    private final boolean replicateSkewedRows;
+    private final LongOpenHashSet longValues;
+    private final ObjectOpenHashSet<Slice> sliceValues;
+    private final int partitionCount;
+    private int counter;
+
+    public SkewedPartitionFunction(PartitionFunction delegate, int keyChannel, Type keyType, List<Object> skewedValues, boolean replicateSkewedRows)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        checkArgument(keyChannel >= 0, "keyChannel is negative");
+        this.keyChannel = keyChannel;
+        this.keyType = requireNonNull(keyType, "keyType is null");
+        checkArgument(isSupportedType(keyType), "Unsupported skewed key type: %s", keyType);
+        requireNonNull(skewedValues, "skewedValues is null");
+        this.replicateSkewedRows = replicateSkewedRows;
+        this.partitionCount = delegate.getPartitionCount();
+
+        if (keyType.getJavaType() == long.class) {
+            longValues = new LongOpenHashSet(skewedValues.size());
+            sliceValues = null;
+            for (Object value : skewedValues) {
+                longValues.add((long) value);
+            }
+        }
+        else {
+            longValues = null;
+            sliceValues = new ObjectOpenHashSet<>(skewedValues.size());
+            for (Object value : skewedValues) {
+                sliceValues.add((Slice) value);
+            }
+        }
+    }
+
+    public static boolean isSupportedType(Type type)
+    {
+        return type.equals(BIGINT) ||
+                type.equals(INTEGER) ||
+                type.equals(SMALLINT) ||
+                type.equals(TINYINT) ||
+                type.equals(DATE) ||
+                type instanceof VarcharType;
+    }
+
+    @Override
+    public int getPartitionCount()
+    {
+        return partitionCount;
+    }
+
+    @Override
+    public int getPartition(Page page, int position)
+    {
+        if (!replicateSkewedRows && isSkewed(page, position)) {
+            int partition = counter % partitionCount;
+            counter = (counter + 1) & 0x7fff_ffff;
+            return partition;
+        }
+        return delegate.getPartition(page, position);
+    }
+
+    /**
+     * @return true when the row must be sent to every partition instead of the one
+     * returned by {@link #getPartition(Page, int)}
+     */
+    public boolean isReplicated(Page page, int position)
+    {
+        return replicateSkewedRows && isSkewed(page, position);
+    }
+
+    private boolean isSkewed(Page page, int position)
+    {
+        Block block = page.getBlock(keyChannel);
+        if (block.isNull(position)) {
+            return false;
+        }
+        if (longValues != null) {
+            return longValues.contains(keyType.getLong(block, position));
+        }
+        return sliceValues.contains(keyType.getSlice(block, position));
+    }
+}
@@ -21,6 +21,7 @@ import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.util.List;
 import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -45,7 +46,10 @@ final class SpilledLookupSourceHandle
 
     @GuardedBy("this")
     @Nullable
-    private SettableFuture<Supplier<LookupSource>> unspilledLookupSource;
+    private SettableFuture<UnspilledLookupSource> unspilledLookupSource;
+
+    @GuardedBy("this")
+    private List<SpilledLookupSourceHandle> subPartitions = ImmutableList.of();
 
     private final SettableFuture<?> disposeRequested = SettableFuture.create();
 
@@ -56,7 +60,7 @@ final class SpilledLookupSourceHandle
         return unspillingRequested;
     }
 
-    public synchronized ListenableFuture<Supplier<LookupSource>> getLookupSource()
+    public synchronized ListenableFuture<UnspilledLookupSource> getLookupSource()
     {
         assertState(State.SPILLED);
         unspillingRequested.set(null);
@@ -74,6 +78,28 @@ final class SpilledLookupSourceHandle
             return;
         }
 
+        produce(UnspilledLookupSource.lookupSource(lookupSource));
+    }
+
+    /**
+     * Sets the handles of sub-partitions the spilled partition was split into, because it was too large to be unspilled at once.
+     */
+    public synchronized void setSubPartitions(int hashBitOffset, int partitionBits, List<SpilledLookupSourceHandle> subPartitions)
+    {
+        requireNonNull(subPartitions, "subPartitions is null");
+
+        if (state == State.DISPOSED) {
+            subPartitions.forEach(SpilledLookupSourceHandle::dispose);
+            return;
+        }
+
+        this.subPartitions = ImmutableList.copyOf(subPartitions);
+        produce(UnspilledLookupSource.subPartitioned(hashBitOffset, partitionBits, subPartitions));
+    }
+
+    @GuardedBy("this")
+    private void produce(UnspilledLookupSource lookupSource)
+    {
         assertState(State.UNSPILLING);
         checkState(unspilledLookupSource != null, "unspilledLookupSource not set");
         unspilledLookupSource.set(lookupSource);
@@ -86,6 +112,8 @@ final class SpilledLookupSourceHandle
         disposeRequested.set(null);
         unspilledLookupSource = null; // let the memory go
         setState(State.DISPOSED);
+        subPartitions.forEach(SpilledLookupSourceHandle::dispose);
+        subPartitions = ImmutableList.of();
     }
 
     public SettableFuture<?> getDisposeRequested()
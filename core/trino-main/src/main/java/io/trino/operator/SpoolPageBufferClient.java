@@ -0,0 +1,310 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.log.Logger;
+import io.airlift.slice.SliceInput;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.trino.exchange.ExchangeSpool;
+import io.trino.exchange.SpoolLocation;
+import io.trino.execution.buffer.SerializedPage;
+import org.joda.time.DateTime;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.trino.execution.buffer.PagesSerdeUtil.readSerializedPages;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Reads the pages of a {@link SpoolLocation} from the {@link ExchangeSpool}. Until the output of
+ * the task is committed, the client only checks for the commit, at most once every {@code commitPollInterval}.
+ * Pages are then read from the spool in batches of about {@code maxResponseSize} bytes.
+ */
+@ThreadSafe
+public final class SpoolPageBufferClient
+        implements PageBufferClient
+{
+    private static final Logger log = Logger.get(SpoolPageBufferClient.class);
+
+    private final ExchangeSpool exchangeSpool;
+    private final URI location;
+    private final SpoolLocation spoolLocation;
+    private final DataSize maxResponseSize;
+    private final Duration commitPollInterval;
+    private final ClientCallback clientCallback;
+    private final ScheduledExecutorService scheduler;
+    private final Executor pageBufferClientCallbackExecutor;
+
+    @GuardedBy("this")
+    private boolean closed;
+    @GuardedBy("this")
+    private boolean scheduled;
+    @GuardedBy("this")
+    private boolean running;
+    @GuardedBy("this")
+    private boolean completed;
+    @GuardedBy("this")
+    private boolean committed;
+    @GuardedBy("this")
+    private SliceInput input;
+    @GuardedBy("this")
+    private Iterator<SerializedPage> pages;
+    @GuardedBy("this")
+    private DateTime lastUpdate = DateTime.now();
+
+    private final AtomicLong rowsReceived = new AtomicLong();
+    private final AtomicInteger pagesReceived = new AtomicInteger();
+
+    private final AtomicInteger requestsScheduled = new AtomicInteger();
+    private final AtomicInteger requestsCompleted = new AtomicInteger();
+    private final AtomicInteger requestsFailed = new AtomicInteger();
+
+    public SpoolPageBufferClient(
+            ExchangeSpool exchangeSpool,
+            URI location,
+            DataSize maxResponseSize,
+            Duration commitPollInterval,
+            ClientCallback clientCallback,
+            ScheduledExecutorService scheduler,
+            Executor pageBufferClientCallbackExecutor)
+    {
+        this.exchangeSpool = requireNonNull(exchangeSpool, "exchangeSpool is null");
+        this.location = requireNonNull(location, "location is null");
+        this.spoolLocation = SpoolLocation.fromUri(location);
+        this.maxResponseSize = requireNonNull(maxResponseSize, "maxResponseSize is null");
+        this.commitPollInterval = requireNonNull(commitPollInterval, "commitPollInterval is null");
+        this.clientCallback = requireNonNull(clientCallback, "clientCallback is null");
+        this.scheduler = requireNonNull(scheduler, "scheduler is null");
+        this.pageBufferClientCallbackExecutor = requireNonNull(pageBufferClientCallbackExecutor, "pageBufferClientCallbackExecutor is null");
+    }
+
+    @Override
+    public synchronized PageBufferClientStatus getStatus()
+    {
+        String state;
+        if (closed) {
+            state = "closed";
+        }
+        else if (running) {
+            state = "running";
+        }
+        else if (scheduled) {
+            state = "scheduled";
+        }
+        else if (completed) {
+            state = "completed";
+        }
+        else {
+            state = "queued";
+        }
+
+        return new PageBufferClientStatus(
+                location,
+                state,
+                lastUpdate,
+                rowsReceived.get(),
+                pagesReceived.get(),
+                OptionalLong.empty(),
+                OptionalInt.empty(),
+                requestsScheduled.get(),
+                requestsCompleted.get(),
+                requestsFailed.get(),
+                committed ? "reading spool" : "waiting for commit");
+    }
+
+    @Override
+    public synchronized void scheduleRequest()
+    {
+        if (closed || completed || running || scheduled) {
+            return;
+        }
+        scheduled = true;
+
+        // reads start right away, checks for the commit are spaced out
+        long delayMillis = committed || requestsScheduled.get() == 0 ? 0 : commitPollInterval.toMillis();
+        scheduler.schedule(() -> pageBufferClientCallbackExecutor.execute(this::readPages), delayMillis, MILLISECONDS);
+
+        lastUpdate = DateTime.now();
+        requestsScheduled.incrementAndGet();
+    }
+
+    private void readPages()
+    {
+        Iterator<SerializedPage> pages;
+        synchronized (this) {
+            scheduled = false;
+            if (closed) {
+                return;
+            }
+            running = true;
+            pages = this.pages;
+        }
+
+        List<SerializedPage> result;
+        boolean finished;
+        try {
+            if (pages == null) {
+                if (!exchangeSpool.isCommitted(spoolLocation.getTaskId())) {
+                    requestDone(ImmutableList.of(), false);
+                    return;
+                }
+                pages = openSpool();
+                if (pages == null) {
+                    // closed while opening
+                    return;
+                }
+            }
+
+            ImmutableList.Builder<SerializedPage> builder = ImmutableList.builder();
+            long bytes = 0;
+            while (bytes < maxResponseSize.toBytes() && pages.hasNext()) {
+                SerializedPage page = pages.next();
+                builder.add(page);
+                bytes += page.getSizeInBytes();
+            }
+            result = builder.build();
+            finished = !pages.hasNext();
+        }
+        catch (RuntimeException e) {
+            boolean wasClosed;
+            synchronized (this) {
+                running = false;
+                wasClosed = closed;
+                lastUpdate = DateTime.now();
+            }
+            requestsFailed.incrementAndGet();
+            requestsCompleted.incrementAndGet();
+            // reads fail once the input is closed
+            if (!wasClosed) {
+                clientCallback.clientFailed(this, e);
+            }
+            return;
+        }
+
+        requestDone(result, finished);
+    }
+
+    private synchronized Iterator<SerializedPage> openSpool()
+    {
+        if (closed) {
+            running = false;
+            return null;
+        }
+        committed = true;
+        input = exchangeSpool.openBuffer(spoolLocation.getTaskId(), spoolLocation.getBufferId());
+        pages = readSerializedPages(input);
+        return pages;
+    }
+
+    private void requestDone(List<SerializedPage> result, boolean finished)
+    {
+        for (SerializedPage page : result) {
+            rowsReceived.addAndGet(page.getPositionCount());
+        }
+        pagesReceived.addAndGet(result.size());
+        requestsCompleted.incrementAndGet();
+
+        if (!result.isEmpty() && !clientCallback.addPages(this, result)) {
+            // the exchange client is closed
+            synchronized (this) {
+                running = false;
+            }
+            return;
+        }
+
+        synchronized (this) {
+            running = false;
+            if (finished) {
+                completed = true;
+                closeInput();
+            }
+            lastUpdate = DateTime.now();
+        }
+
+        // callbacks are invoked without holding the lock, as they call back into this client
+        if (finished) {
+            clientCallback.clientFinished(this);
+        }
+        else {
+            clientCallback.requestComplete(this);
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        closed = true;
+        closeInput();
+        lastUpdate = DateTime.now();
+    }
+
+    @GuardedBy("this")
+    private void closeInput()
+    {
+        if (input == null) {
+            return;
+        }
+        try {
+            input.close();
+        }
+        catch (UncheckedIOException e) {
+            log.warn(e, "Failed to close exchange spool input for %s", location);
+        }
+        input = null;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SpoolPageBufferClient that = (SpoolPageBufferClient) o;
+        return location.equals(that.location);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return location.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("location", location)
+                .add("status", getStatus().getState())
+                .toString();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import io.airlift.slice.XxHash64;
+import io.trino.spi.Page;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Splits a spilled partition of a hash join into sub-partitions. The partition is chosen by
+ * the upper 32 bits of the mixed hash, which are independent of the lower bits used by
+ * {@link io.trino.operator.exchange.LocalPartitionGenerator} to choose the partition itself.
+ * Every level of splitting uses the next {@code partitionBits} bits, starting at {@code hashBitOffset}.
+ */
+public class SubPartitionFunction
+        implements PartitionFunction
+{
+    public static final int MAX_HASH_BITS = Integer.SIZE;
+
+    private final HashGenerator hashGenerator;
+    private final int hashBitOffset;
+    private final int partitionCount;
+    private final int hashMask;
+
+    public SubPartitionFunction(HashGenerator hashGenerator, int hashBitOffset, int partitionBits)
+    {
+        this.hashGenerator = requireNonNull(hashGenerator, "hashGenerator is null");
+        checkArgument(hashBitOffset >= 0, "hashBitOffset is negative");
+        checkArgument(partitionBits > 0, "partitionBits must be positive");
+        checkArgument(hashBitOffset + partitionBits <= MAX_HASH_BITS, "not enough hash bits left to split partition");
+        this.hashBitOffset = hashBitOffset;
+        this.partitionCount = 1 << partitionBits;
+        this.hashMask = partitionCount - 1;
+    }
+
+    @Override
+    public int getPartitionCount()
+    {
+        return partitionCount;
+    }
+
+    @Override
+    public int getPartition(Page page, int position)
+    {
+        long rawHash = hashGenerator.hashPosition(position, page);
+        // same mixing as LocalPartitionGenerator
+        long hash = XxHash64.hash(Long.reverse(rawHash));
+        return (int) (hash >>> (Integer.SIZE + hashBitOffset)) & hashMask;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nullable;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A spilled partition of the build side after it was requested back. The partition is either
+ * unspilled as a whole into a lookup source, or, when it is too large to fit in memory, split by
+ * {@link SubPartitionFunction} into sub-partitions which are unspilled one by one.
+ */
+public final class UnspilledLookupSource
+{
+    @Nullable
+    private final Supplier<LookupSource> lookupSource;
+    private final int hashBitOffset;
+    private final int partitionBits;
+    private final List<SpilledLookupSourceHandle> subPartitionHandles;
+    @Nullable
+    private final PartitionedConsumption<UnspilledLookupSource> subPartitions;
+
+    private UnspilledLookupSource(
+            @Nullable Supplier<LookupSource> lookupSource,
+            int hashBitOffset,
+            int partitionBits,
+            List<SpilledLookupSourceHandle> subPartitionHandles,
+            @Nullable PartitionedConsumption<UnspilledLookupSource> subPartitions)
+    {
+        this.lookupSource = lookupSource;
+        this.hashBitOffset = hashBitOffset;
+        this.partitionBits = partitionBits;
+        this.subPartitionHandles = ImmutableList.copyOf(requireNonNull(subPartitionHandles, "subPartitionHandles is null"));
+        this.subPartitions = subPartitions;
+    }
+
+    static UnspilledLookupSource lookupSource(Supplier<LookupSource> lookupSource)
+    {
+        return new UnspilledLookupSource(requireNonNull(lookupSource, "lookupSource is null"), 0, 0, ImmutableList.of(), null);
+    }
+
+    static UnspilledLookupSource subPartitioned(int hashBitOffset, int partitionBits, List<SpilledLookupSourceHandle> subPartitionHandles)
+    {
+        checkArgument(subPartitionHandles.size() == 1 << partitionBits, "expected %s sub-partitions, got %s", 1 << partitionBits, subPartitionHandles.size());
+        return new UnspilledLookupSource(null, hashBitOffset, partitionBits, subPartitionHandles, null);
+    }
+
+    UnspilledLookupSource withSubPartitions(PartitionedConsumption<UnspilledLookupSource> subPartitions)
+    {
+        checkState(isSubPartitioned(), "partition is not split into sub-partitions");
+        return new UnspilledLookupSource(null, hashBitOffset, partitionBits, subPartitionHandles, requireNonNull(subPartitions, "subPartitions is null"));
+    }
+
+    public boolean isSubPartitioned()
+    {
+        return lookupSource == null;
+    }
+
+    public Supplier<LookupSource> getLookupSource()
+    {
+        checkState(lookupSource != null, "partition is split into sub-partitions");
+        return lookupSource;
+    }
+
+    public SubPartitionFunction createSubPartitionFunction(HashGenerator hashGenerator)
+    {
+        checkState(isSubPartitioned(), "partition is not split into sub-partitions");
+        return new SubPartitionFunction(hashGenerator, hashBitOffset, partitionBits);
+    }
+
+    List<SpilledLookupSourceHandle> getSubPartitionHandles()
+    {
+        return subPartitionHandles;
+    }
+
+    public PartitionedConsumption<UnspilledLookupSource> getSubPartitions()
+    {
+        checkState(subPartitions != null, "sub-partitions are not consumable");
+        return subPartitions;
+    }
+}
@@ -30,6 +30,8 @@ import io.trino.operator.window.FrameInfo;
 import io.trino.operator.window.FramedWindowFunction;
 import io.trino.operator.window.Partitioner;
 import io.trino.operator.window.PartitionerSupplier;
+import io.trino.operator.window.RegularWindowPartitioner;
+import io.trino.operator.window.StreamingWindowPartition;
 import io.trino.operator.window.WindowPartition;
 import io.trino.spi.Page;
 import io.trino.spi.PageBuilder;
@@ -312,6 +314,9 @@ public class WindowOperator
                     sortChannels,
                     windowFunctionDefinitions);
 
+            // merged pages are sorted, so partitions can be processed while they are read back when all functions allow it
+            boolean streamMergedPartitions = partitioner instanceof RegularWindowPartitioner && StreamingWindowPartition.isSupported(windowFunctions);
+
             this.spillablePagesToPagesIndexes = Optional.of(new SpillablePagesToPagesIndexes(
                     inMemoryPagesIndexWithHashStrategies,
                     mergedPagesIndexWithHashStrategies,
@@ -319,11 +324,11 @@ public class WindowOperator
                     orderChannels,
                     ordering,
                     spillerFactory,
-                    orderingCompiler.compilePageWithPositionComparator(sourceTypes, unGroupedOrderChannels, unGroupedOrdering)));
+                    orderingCompiler.compilePageWithPositionComparator(sourceTypes, unGroupedOrderChannels, unGroupedOrdering),
+                    streamMergedPartitions ? Optional.of(sortChannels) : Optional.empty()));
 
             this.outputPages = pageBuffer.pages()
                     .flatTransform(spillablePagesToPagesIndexes.get())
-                    .flatMap(this::pagesIndexToWindowPartitions)
                     .transform(new WindowPartitionsToOutputPages());
         }
         else {
@@ -640,8 +645,77 @@ public class WindowOperator
         }
     }
 
+    private class PagesToStreamingWindowPartitions
+            implements Transformation<Page, WindowPartition>
+    {
+        final List<Type> sourceTypes;
+        final List<Integer> sortChannels;
+        final PagesIndexWithHashStrategies pagesIndexWithHashStrategies;
+        final LocalMemoryContext memoryContext;
+
+        StreamingWindowPartition partition;
+        Page partitionKeys;
+        int pendingInputPosition;
+
+        PagesToStreamingWindowPartitions(List<Type> sourceTypes, List<Integer> sortChannels, PagesIndexWithHashStrategies pagesIndexWithHashStrategies)
+        {
+            this.sourceTypes = sourceTypes;
+            this.sortChannels = sortChannels;
+            // only the hash strategies are used, as rows are buffered by the partitions
+            this.pagesIndexWithHashStrategies = pagesIndexWithHashStrategies;
+            this.memoryContext = operatorContext.aggregateUserMemoryContext().newLocalMemoryContext(PagesToStreamingWindowPartitions.class.getSimpleName());
+        }
+
+        @Override
+        public TransformationState<WindowPartition> process(Page pendingInput)
+        {
+            boolean finishing = pendingInput == null;
+            if (finishing) {
+                if (partition == null) {
+                    memoryContext.close();
+                    return TransformationState.finished();
+                }
+                return finishPartition();
+            }
+
+            Page partitionKeysPage = pendingInput.getColumns(pagesIndexWithHashStrategies.preGroupedPartitionChannels);
+            PagesHashStrategy partitionHashStrategy = pagesIndexWithHashStrategies.preGroupedPartitionHashStrategy;
+            if (partition != null && !partitionHashStrategy.rowNotDistinctFromRow(0, partitionKeys, pendingInputPosition, partitionKeysPage)) {
+                // the remaining page starts with a new partition
+                return finishPartition();
+            }
+
+            if (partition == null) {
+                partition = new StreamingWindowPartition(sourceTypes, outputChannels, windowFunctions, sortChannels, pagesIndexWithHashStrategies.peerGroupHashStrategy);
+                partitionKeys = partitionKeysPage.getSingleValuePage(pendingInputPosition);
+            }
+
+            int partitionEnd = findGroupEnd(partitionKeysPage, partitionHashStrategy, pendingInputPosition);
+            partition.addPage(pendingInput.getRegion(pendingInputPosition, partitionEnd - pendingInputPosition));
+            memoryContext.setBytes(partition.getRetainedSizeInBytes());
+
+            if (partitionEnd < pendingInput.getPositionCount()) {
+                pendingInputPosition = partitionEnd;
+                return finishPartition();
+            }
+
+            pendingInputPosition = 0;
+            // rows of the partition which can already be processed
+            return TransformationState.ofResult(partition);
+        }
+
+        TransformationState<WindowPartition> finishPartition()
+        {
+            StreamingWindowPartition finishedPartition = partition;
+            finishedPartition.finish();
+            partition = null;
+            partitionKeys = null;
+            return TransformationState.ofResult(finishedPartition, false);
+        }
+    }
+
     private class SpillablePagesToPagesIndexes
-            implements Transformation<Page, WorkProcessor<PagesIndexWithHashStrategies>>
+            implements Transformation<Page, WorkProcessor<WindowPartition>>
     {
         final PagesIndexWithHashStrategies inMemoryPagesIndexWithHashStrategies;
         final PagesIndexWithHashStrategies mergedPagesIndexWithHashStrategies;
@@ -652,6 +726,7 @@ public class WindowOperator
         final LocalMemoryContext localUserMemoryContext;
         final SpillerFactory spillerFactory;
         final PageWithPositionComparator pageWithPositionComparator;
+        final Optional<List<Integer>> streamingSortChannels;
 
         boolean spillingWhenConvertingRevocableMemory;
         boolean resetPagesIndex;
@@ -669,7 +744,8 @@ public class WindowOperator
                 List<Integer> orderChannels,
                 List<SortOrder> ordering,
                 SpillerFactory spillerFactory,
-                PageWithPositionComparator pageWithPositionComparator)
+                PageWithPositionComparator pageWithPositionComparator,
+                Optional<List<Integer>> streamingSortChannels)
         {
             this.inMemoryPagesIndexWithHashStrategies = inMemoryPagesIndexWithHashStrategies;
             this.mergedPagesIndexWithHashStrategies = mergedPagesIndexWithHashStrategies;
@@ -680,13 +756,14 @@ public class WindowOperator
             this.localRevocableMemoryContext = operatorContext.aggregateRevocableMemoryContext().newLocalMemoryContext(SpillablePagesToPagesIndexes.class.getSimpleName());
             this.spillerFactory = spillerFactory;
             this.pageWithPositionComparator = pageWithPositionComparator;
+            this.streamingSortChannels = streamingSortChannels;
 
             this.currentSpillGroupRowPage = Optional.empty();
             this.spiller = Optional.empty();
         }
 
         @Override
-        public TransformationState<WorkProcessor<PagesIndexWithHashStrategies>> process(Page pendingInput)
+        public TransformationState<WorkProcessor<WindowPartition>> process(Page pendingInput)
         {
             if (spillingWhenConvertingRevocableMemory) {
                 // Spill could already be finished by Driver (via WindowOperator#finishMemoryRevoke), but finishRevokeMemory will take care of that
@@ -733,7 +810,7 @@ public class WindowOperator
             spiller = Optional.empty();
         }
 
-        TransformationState<WorkProcessor<PagesIndexWithHashStrategies>> fullGroupBuffered()
+        TransformationState<WorkProcessor<WindowPartition>> fullGroupBuffered()
         {
             // Convert revocable memory to user memory as inMemoryPagesIndexWithHashStrategies holds on to memory so we no longer can revoke
             if (localRevocableMemoryContext.getBytes() > 0) {
@@ -803,10 +880,11 @@ public class WindowOperator
             updateMemoryUsage(false);
         }
 
-        WorkProcessor<PagesIndexWithHashStrategies> unspill()
+        WorkProcessor<WindowPartition> unspill()
         {
             if (spiller.isEmpty()) {
-                return WorkProcessor.fromIterable(ImmutableList.of(inMemoryPagesIndexWithHashStrategies));
+                return WorkProcessor.fromIterable(ImmutableList.of(inMemoryPagesIndexWithHashStrategies))
+                        .flatMap(WindowOperator.this::pagesIndexToWindowPartitions);
             }
 
             List<WorkProcessor<Page>> sortedStreams = ImmutableList.<WorkProcessor<Page>>builder()
@@ -823,7 +901,12 @@ public class WindowOperator
                     operatorContext.aggregateUserMemoryContext(),
                     operatorContext.getDriverContext().getYieldSignal());
 
-            return mergedPages.transform(new PagesToPagesIndexes(mergedPagesIndexWithHashStrategies, ImmutableList.of(), ImmutableList.of()));
+            if (streamingSortChannels.isPresent()) {
+                return mergedPages.transform(new PagesToStreamingWindowPartitions(sourceTypes, streamingSortChannels.get(), mergedPagesIndexWithHashStrategies));
+            }
+
+            return mergedPages.transform(new PagesToPagesIndexes(mergedPagesIndexWithHashStrategies, ImmutableList.of(), ImmutableList.of()))
+                    .flatMap(WindowOperator.this::pagesIndexToWindowPartitions);
         }
 
         void updateMemoryUsage(boolean revocablePagesIndex)
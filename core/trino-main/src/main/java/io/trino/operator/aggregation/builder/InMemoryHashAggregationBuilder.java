@@ -49,6 +49,7 @@ import java.util.OptionalLong;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.trino.SystemSessionProperties.isDictionaryAggregationEnabled;
+import static io.trino.SystemSessionProperties.isFlatGroupByHashEnabled;
 import static io.trino.operator.GroupByHash.createGroupByHash;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static java.util.Objects.requireNonNull;
@@ -111,6 +112,7 @@ public class InMemoryHashAggregationBuilder
                 hashChannel,
                 expectedGroups,
                 isDictionaryAggregationEnabled(operatorContext.getSession()),
+                isFlatGroupByHashEnabled(operatorContext.getSession()),
                 joinCompiler,
                 blockTypeOperators,
                 updateMemory);
@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.aggregation.partial;
+
+import io.trino.operator.HashAggregationOperator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Controls whether partial aggregation is enabled for all {@link HashAggregationOperator}
+ * instances created by a single factory. Partial aggregation is disabled once enough rows
+ * have been processed and the observed reduction (unique rows produced to rows processed)
+ * is too poor for the hashing to pay off.
+ */
+public class PartialAggregationController
+{
+    private final long minNumberOfRowsProcessed;
+    private final double uniqueRowsRatioThreshold;
+
+    private volatile boolean partialAggregationDisabled;
+    private long totalRowsProcessed;
+    private long totalUniqueRowsProduced;
+
+    public PartialAggregationController(long minNumberOfRowsProcessed, double uniqueRowsRatioThreshold)
+    {
+        checkArgument(minNumberOfRowsProcessed >= 0, "minNumberOfRowsProcessed must be at least 0");
+        checkArgument(uniqueRowsRatioThreshold >= 0, "uniqueRowsRatioThreshold must be at least 0");
+        this.minNumberOfRowsProcessed = minNumberOfRowsProcessed;
+        this.uniqueRowsRatioThreshold = uniqueRowsRatioThreshold;
+    }
+
+    public boolean isPartialAggregationDisabled()
+    {
+        return partialAggregationDisabled;
+    }
+
+    public synchronized void onFlush(long rowsProcessed, long uniqueRowsProduced)
+    {
+        if (partialAggregationDisabled) {
+            return;
+        }
+
+        totalRowsProcessed += rowsProcessed;
+        totalUniqueRowsProduced += uniqueRowsProduced;
+        if (shouldDisablePartialAggregation()) {
+            partialAggregationDisabled = true;
+        }
+    }
+
+    private boolean shouldDisablePartialAggregation()
+    {
+        return totalRowsProcessed >= minNumberOfRowsProcessed
+                && ((double) totalUniqueRowsProduced / totalRowsProcessed) > uniqueRowsRatioThreshold;
+    }
+
+    public PartialAggregationController duplicate()
+    {
+        return new PartialAggregationController(minNumberOfRowsProcessed, uniqueRowsRatioThreshold);
+    }
+}
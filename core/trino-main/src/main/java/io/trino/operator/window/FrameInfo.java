@@ -19,6 +19,7 @@ import io.trino.sql.tree.WindowFrame;
 
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
@@ -34,6 +35,8 @@ public class FrameInfo
     private final int sortKeyChannelForEndComparison;
     private final int sortKeyChannel;
     private final Optional<Ordering> ordering;
+    private final OptionalLong constantStartValue;
+    private final OptionalLong constantEndValue;
 
     public FrameInfo(
             WindowFrame.Type type,
@@ -45,6 +48,22 @@ public class FrameInfo
             Optional<Integer> sortKeyChannelForEndComparison,
             Optional<Integer> sortKeyChannel,
             Optional<Ordering> ordering)
+    {
+        this(type, startType, startChannel, sortKeyChannelForStartComparison, endType, endChannel, sortKeyChannelForEndComparison, sortKeyChannel, ordering, OptionalLong.empty(), OptionalLong.empty());
+    }
+
+    public FrameInfo(
+            WindowFrame.Type type,
+            FrameBound.Type startType,
+            Optional<Integer> startChannel,
+            Optional<Integer> sortKeyChannelForStartComparison,
+            FrameBound.Type endType,
+            Optional<Integer> endChannel,
+            Optional<Integer> sortKeyChannelForEndComparison,
+            Optional<Integer> sortKeyChannel,
+            Optional<Ordering> ordering,
+            OptionalLong constantStartValue,
+            OptionalLong constantEndValue)
     {
         this.type = requireNonNull(type, "type is null");
         this.startType = requireNonNull(startType, "startType is null");
@@ -55,6 +74,8 @@ public class FrameInfo
         this.sortKeyChannelForEndComparison = requireNonNull(sortKeyChannelForEndComparison, "sortKeyChannelForEndComparison is null").orElse(-1);
         this.sortKeyChannel = requireNonNull(sortKeyChannel, "sortKeyChannel is null").orElse(-1);
         this.ordering = requireNonNull(ordering, "ordering is null");
+        this.constantStartValue = requireNonNull(constantStartValue, "constantStartValue is null");
+        this.constantEndValue = requireNonNull(constantEndValue, "constantEndValue is null");
     }
 
     public WindowFrame.Type getType()
@@ -102,10 +123,20 @@ public class FrameInfo
         return ordering;
     }
 
+    public OptionalLong getConstantStartValue()
+    {
+        return constantStartValue;
+    }
+
+    public OptionalLong getConstantEndValue()
+    {
+        return constantEndValue;
+    }
+
     @Override
     public int hashCode()
     {
-        return Objects.hash(type, startType, startChannel, sortKeyChannelForStartComparison, endType, endChannel, sortKeyChannelForEndComparison, sortKeyChannel, ordering);
+        return Objects.hash(type, startType, startChannel, sortKeyChannelForStartComparison, endType, endChannel, sortKeyChannelForEndComparison, sortKeyChannel, ordering, constantStartValue, constantEndValue);
     }
 
     @Override
@@ -129,7 +160,9 @@ public class FrameInfo
                 Objects.equals(this.endChannel, other.endChannel) &&
                 Objects.equals(this.sortKeyChannelForEndComparison, other.sortKeyChannelForEndComparison) &&
                 Objects.equals(this.sortKeyChannel, other.sortKeyChannel) &&
-                Objects.equals(this.ordering, other.ordering);
+                Objects.equals(this.ordering, other.ordering) &&
+                Objects.equals(this.constantStartValue, other.constantStartValue) &&
+                Objects.equals(this.constantEndValue, other.constantEndValue);
     }
 
     @Override
@@ -145,6 +178,8 @@ public class FrameInfo
                 .add("sortKeyChannelForEndComparison", sortKeyChannelForEndComparison)
                 .add("sortKeyChannel", sortKeyChannel)
                 .add("ordering", ordering)
+                .add("constantStartValue", constantStartValue)
+                .add("constantEndValue", constantEndValue)
                 .toString();
     }
 }
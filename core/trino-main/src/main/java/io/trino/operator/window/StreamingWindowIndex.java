@@ -0,0 +1,188 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.window;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.function.WindowIndex;
+import io.trino.spi.type.Type;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Window index over the rows of a partition which are buffered while the partition is streamed.
+ * Rows are addressed by their position in the partition. Only the rows from the last released
+ * position onwards are available, and the size of the partition is not known.
+ */
+class StreamingWindowIndex
+        implements WindowIndex
+{
+    private final List<Type> types;
+
+    private final List<Page> pages = new ArrayList<>();
+    private final IntArrayList pageStarts = new IntArrayList();
+    // pages before this one were released
+    private int firstPage;
+    private int positionCount;
+    private long retainedSizeInBytes;
+
+    private int currentPage;
+
+    StreamingWindowIndex(List<Type> types)
+    {
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+    }
+
+    void addPage(Page page)
+    {
+        if (page.getPositionCount() == 0) {
+            return;
+        }
+        pages.add(page);
+        pageStarts.add(positionCount);
+        positionCount += page.getPositionCount();
+        retainedSizeInBytes += page.getRetainedSizeInBytes();
+    }
+
+    /**
+     * Releases the pages holding only rows before the given position.
+     */
+    void releaseBefore(int position)
+    {
+        while (firstPage < pages.size() && pageStarts.getInt(firstPage) + pages.get(firstPage).getPositionCount() <= position) {
+            retainedSizeInBytes -= pages.get(firstPage).getRetainedSizeInBytes();
+            pages.set(firstPage, null);
+            firstPage++;
+        }
+        if (firstPage > 16 && firstPage * 2 > pages.size()) {
+            pages.subList(0, firstPage).clear();
+            pageStarts.removeElements(0, firstPage);
+            currentPage = Math.max(0, currentPage - firstPage);
+            firstPage = 0;
+        }
+    }
+
+    int getPositionCount()
+    {
+        return positionCount;
+    }
+
+    long getRetainedSizeInBytes()
+    {
+        return retainedSizeInBytes;
+    }
+
+    /**
+     * Not supported, since the size of the partition is not known while it is streamed.
+     * {@link StreamingWindowPartition#isSupported} rejects the functions which call it.
+     */
+    @Override
+    public int size()
+    {
+        throw new IllegalStateException("Size of a partition is not known while it is streamed");
+    }
+
+    @Override
+    public boolean isNull(int channel, int position)
+    {
+        return getBlock(channel, position).isNull(blockPosition(position));
+    }
+
+    @Override
+    public boolean getBoolean(int channel, int position)
+    {
+        return types.get(channel).getBoolean(getBlock(channel, position), blockPosition(position));
+    }
+
+    @Override
+    public long getLong(int channel, int position)
+    {
+        return types.get(channel).getLong(getBlock(channel, position), blockPosition(position));
+    }
+
+    @Override
+    public double getDouble(int channel, int position)
+    {
+        return types.get(channel).getDouble(getBlock(channel, position), blockPosition(position));
+    }
+
+    @Override
+    public Slice getSlice(int channel, int position)
+    {
+        return types.get(channel).getSlice(getBlock(channel, position), blockPosition(position));
+    }
+
+    @Override
+    public Block getSingleValueBlock(int channel, int position)
+    {
+        return getBlock(channel, position).getSingleValueBlock(blockPosition(position));
+    }
+
+    @Override
+    public Object getObject(int channel, int position)
+    {
+        return types.get(channel).getObject(getBlock(channel, position), blockPosition(position));
+    }
+
+    @Override
+    public void appendTo(int channel, int position, BlockBuilder output)
+    {
+        types.get(channel).appendTo(getBlock(channel, position), blockPosition(position), output);
+    }
+
+    private Block getBlock(int channel, int position)
+    {
+        seek(position);
+        return pages.get(currentPage).getBlock(channel);
+    }
+
+    private int blockPosition(int position)
+    {
+        // always called after seek
+        return position - pageStarts.getInt(currentPage);
+    }
+
+    private void seek(int position)
+    {
+        checkArgument(position < positionCount, "position %s is not buffered yet", position);
+        checkArgument(firstPage < pages.size() && position >= pageStarts.getInt(firstPage), "position %s is no longer buffered", position);
+        if (currentPage >= firstPage && currentPage < pages.size()) {
+            int start = pageStarts.getInt(currentPage);
+            if (position >= start && position < start + pages.get(currentPage).getPositionCount()) {
+                return;
+            }
+        }
+        int page = Arrays.binarySearch(pageStarts.elements(), firstPage, pages.size(), position);
+        currentPage = page >= 0 ? page : -page - 2;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("positionCount", positionCount)
+                .add("bufferedPages", pages.size() - firstPage)
+                .toString();
+    }
+}
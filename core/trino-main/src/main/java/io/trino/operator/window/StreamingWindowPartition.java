@@ -0,0 +1,321 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.window;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.operator.PagesHashStrategy;
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.function.WindowFunction;
+import io.trino.spi.type.Type;
+import io.trino.sql.tree.FrameBound;
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.sql.tree.FrameBound.Type.CURRENT_ROW;
+import static io.trino.sql.tree.FrameBound.Type.FOLLOWING;
+import static io.trino.sql.tree.FrameBound.Type.PRECEDING;
+import static io.trino.sql.tree.FrameBound.Type.UNBOUNDED_PRECEDING;
+import static io.trino.sql.tree.WindowFrame.Type.ROWS;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Window partition which is computed while its rows arrive, instead of after the whole partition
+ * is buffered. This is possible when every window function only needs rows within a fixed distance
+ * of the current row: ranking functions which do not depend on the partition size, and functions
+ * over {@code ROWS} frames with constant offsets. Only those rows are kept in memory.
+ * <p>
+ * Rows are added with {@link #addPage(Page)}, and {@link #hasNext()} is true as long as there are
+ * rows whose frames are complete. After {@link #finish()} all remaining rows can be processed.
+ */
+public final class StreamingWindowPartition
+        implements WindowPartition
+{
+    private final StreamingWindowIndex windowIndex;
+    private final int[] outputChannels;
+    private final List<FramedWindowFunction> windowFunctions;
+    private final List<Optional<StreamingFrame>> frames;
+    private final int[] sortChannels;
+    private final PagesHashStrategy peerGroupHashStrategy;
+    // rows before the current one which are still accessed
+    private final int rowsPreceding;
+    // rows after the current one which must be present before it can be processed
+    private final int rowsFollowing;
+
+    private final IntArrayFIFOQueue peerGroupStarts = new IntArrayFIFOQueue();
+    private Page lastSortKeys;
+    private int peerGroupStart;
+    private int currentPosition;
+    private boolean finished;
+
+    public StreamingWindowPartition(
+            List<Type> types,
+            int[] outputChannels,
+            List<FramedWindowFunction> windowFunctions,
+            List<Integer> sortChannels,
+            PagesHashStrategy peerGroupHashStrategy)
+    {
+        checkArgument(isSupported(windowFunctions), "window functions cannot be streamed");
+        this.windowIndex = new StreamingWindowIndex(types);
+        this.outputChannels = requireNonNull(outputChannels, "outputChannels is null");
+        this.windowFunctions = ImmutableList.copyOf(requireNonNull(windowFunctions, "windowFunctions is null"));
+        this.frames = windowFunctions.stream()
+                .map(StreamingWindowPartition::getFrame)
+                .collect(toImmutableList());
+        this.sortChannels = sortChannels.stream().mapToInt(Integer::intValue).toArray();
+        this.peerGroupHashStrategy = requireNonNull(peerGroupHashStrategy, "peerGroupHashStrategy is null");
+
+        // the previous row is needed to detect peer groups and to move frames forward
+        int rowsPreceding = 1;
+        int rowsFollowing = 0;
+        for (Optional<StreamingFrame> frame : frames) {
+            if (frame.isPresent()) {
+                rowsPreceding = max(rowsPreceding, frame.get().getRowsPreceding());
+                rowsFollowing = max(rowsFollowing, frame.get().getRowsFollowing());
+            }
+        }
+        this.rowsPreceding = rowsPreceding;
+        this.rowsFollowing = rowsFollowing;
+
+        for (FramedWindowFunction windowFunction : windowFunctions) {
+            windowFunction.getFunction().reset(windowIndex);
+        }
+    }
+
+    /**
+     * Returns whether all the window functions can be computed with {@link StreamingWindowPartition}.
+     * The size of the partition is not known while it is streamed, so only functions which never call
+     * {@link io.trino.spi.function.WindowIndex#size()} are supported. All other functions, such as
+     * {@code ntile}, {@code percent_rank}, {@code cume_dist}, {@code lead} and functions provided by
+     * plugins, are computed over a buffered partition.
+     */
+    public static boolean isSupported(List<FramedWindowFunction> windowFunctions)
+    {
+        if (windowFunctions.isEmpty()) {
+            return false;
+        }
+        for (FramedWindowFunction windowFunction : windowFunctions) {
+            WindowFunction function = windowFunction.getFunction();
+            if (isRankingFunction(function)) {
+                continue;
+            }
+            FrameInfo frame = windowFunction.getFrame();
+            if (function instanceof AggregateWindowFunction && isRunningFrame(frame)) {
+                continue;
+            }
+            if (frame.getType() != ROWS || !isBounded(frame.getStartType(), frame.getConstantStartValue()) || !isBounded(frame.getEndType(), frame.getConstantEndValue())) {
+                return false;
+            }
+            // functions which only access the rows of their frame
+            if (!(function instanceof AggregateWindowFunction || function instanceof FirstValueFunction || function instanceof LastValueFunction || function instanceof NthValueFunction)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // functions which depend neither on the frame nor on the size of the partition or the peer group
+    private static boolean isRankingFunction(WindowFunction function)
+    {
+        return function instanceof RowNumberFunction || function instanceof RankFunction || function instanceof DenseRankFunction;
+    }
+
+    private static boolean isBounded(FrameBound.Type type, OptionalLong value)
+    {
+        return type == CURRENT_ROW || ((type == PRECEDING || type == FOLLOWING) && isValidOffset(value));
+    }
+
+    private static boolean isValidOffset(OptionalLong value)
+    {
+        return value.isPresent() && value.getAsLong() >= 0 && value.getAsLong() < Integer.MAX_VALUE;
+    }
+
+    // an aggregation over a frame starting at the beginning of the partition only accumulates the rows entering the frame
+    private static boolean isRunningFrame(FrameInfo frame)
+    {
+        return frame.getType() == ROWS &&
+                frame.getStartType() == UNBOUNDED_PRECEDING &&
+                (frame.getEndType() == CURRENT_ROW || (frame.getEndType() == FOLLOWING && isValidOffset(frame.getConstantEndValue())));
+    }
+
+    private static Optional<StreamingFrame> getFrame(FramedWindowFunction windowFunction)
+    {
+        if (isRankingFunction(windowFunction.getFunction())) {
+            return Optional.empty();
+        }
+        FrameInfo frame = windowFunction.getFrame();
+        return Optional.of(new StreamingFrame(
+                frame.getStartType() == UNBOUNDED_PRECEDING,
+                offset(frame.getStartType(), frame.getConstantStartValue()),
+                offset(frame.getEndType(), frame.getConstantEndValue())));
+    }
+
+    private static long offset(FrameBound.Type type, OptionalLong value)
+    {
+        switch (type) {
+            case UNBOUNDED_PRECEDING:
+            case CURRENT_ROW:
+                return 0;
+            case PRECEDING:
+                return -value.orElseThrow();
+            case FOLLOWING:
+                return value.orElseThrow();
+            default:
+                throw new IllegalArgumentException("Unsupported frame bound: " + type);
+        }
+    }
+
+    public void addPage(Page page)
+    {
+        checkState(!finished, "partition is finished");
+        if (page.getPositionCount() == 0) {
+            return;
+        }
+        Page sortKeys = page.getColumns(sortChannels);
+        int pageStart = windowIndex.getPositionCount();
+        if (lastSortKeys == null || !peerGroupHashStrategy.rowNotDistinctFromRow(0, lastSortKeys, 0, sortKeys)) {
+            peerGroupStarts.enqueue(pageStart);
+        }
+        for (int position = 1; position < page.getPositionCount(); position++) {
+            if (!peerGroupHashStrategy.rowNotDistinctFromRow(position - 1, sortKeys, position, sortKeys)) {
+                peerGroupStarts.enqueue(pageStart + position);
+            }
+        }
+        lastSortKeys = sortKeys.getSingleValuePage(page.getPositionCount() - 1);
+        windowIndex.addPage(page);
+    }
+
+    /**
+     * Marks that all the rows of the partition were added.
+     */
+    public void finish()
+    {
+        finished = true;
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        return windowIndex.getRetainedSizeInBytes();
+    }
+
+    @Override
+    public int getPartitionStart()
+    {
+        return 0;
+    }
+
+    @Override
+    public int getPartitionEnd()
+    {
+        return windowIndex.getPositionCount();
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (finished) {
+            return currentPosition < windowIndex.getPositionCount();
+        }
+        return currentPosition < windowIndex.getPositionCount() - rowsFollowing;
+    }
+
+    @Override
+    public void processNextRow(PageBuilder pageBuilder)
+    {
+        checkState(hasNext(), "No more rows available in partition");
+
+        // copy output channels
+        pageBuilder.declarePosition();
+        int channel = 0;
+        while (channel < outputChannels.length) {
+            windowIndex.appendTo(outputChannels[channel], currentPosition, pageBuilder.getBlockBuilder(channel));
+            channel++;
+        }
+
+        while (!peerGroupStarts.isEmpty() && peerGroupStarts.firstInt() <= currentPosition) {
+            peerGroupStart = peerGroupStarts.dequeueInt();
+        }
+
+        // the last row of the partition is only known once the partition is finished
+        int lastPosition = finished ? windowIndex.getPositionCount() - 1 : Integer.MAX_VALUE;
+        for (int i = 0; i < windowFunctions.size(); i++) {
+            int frameStart = -1;
+            int frameEnd = -1;
+            Optional<StreamingFrame> frame = frames.get(i);
+            if (frame.isPresent()) {
+                long start = frame.get().getStart(currentPosition);
+                long end = frame.get().getEnd(currentPosition);
+                if (start <= lastPosition && end >= 0 && start <= end) {
+                    frameStart = toIntExact(max(start, 0));
+                    frameEnd = toIntExact(min(end, lastPosition));
+                }
+            }
+            // ranking functions get no frame, and the end of the peer group is not known yet
+            windowFunctions.get(i).getFunction().processRow(
+                    pageBuilder.getBlockBuilder(channel),
+                    peerGroupStart,
+                    currentPosition,
+                    frameStart,
+                    frameEnd);
+            channel++;
+        }
+
+        currentPosition++;
+        windowIndex.releaseBefore(currentPosition - rowsPreceding);
+    }
+
+    private static class StreamingFrame
+    {
+        private final boolean unboundedStart;
+        private final long startOffset;
+        private final long endOffset;
+
+        StreamingFrame(boolean unboundedStart, long startOffset, long endOffset)
+        {
+            this.unboundedStart = unboundedStart;
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+        }
+
+        long getStart(int position)
+        {
+            return unboundedStart ? 0 : position + startOffset;
+        }
+
+        long getEnd(int position)
+        {
+            return position + endOffset;
+        }
+
+        int getRowsPreceding()
+        {
+            // one more row, since the previous frame may still be removed from an aggregation
+            return unboundedStart ? 0 : toIntExact(max(0, -startOffset) + 1);
+        }
+
+        int getRowsFollowing()
+        {
+            return toIntExact(max(0, endOffset));
+        }
+    }
+}
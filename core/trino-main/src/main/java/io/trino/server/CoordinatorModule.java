@@ -30,6 +30,7 @@ import io.trino.cost.CostCalculator.EstimatedExchanges;
 import io.trino.cost.CostCalculatorUsingExchanges;
 import io.trino.cost.CostCalculatorWithEstimatedExchanges;
 import io.trino.cost.CostComparator;
+import io.trino.cost.JoinBuildSideHistory;
 import io.trino.cost.StatsAndCosts;
 import io.trino.cost.StatsCalculatorModule;
 import io.trino.cost.TaskCountEstimator;
@@ -78,6 +79,7 @@ import io.trino.operator.ForScheduler;
 import io.trino.server.protocol.ExecutingStatementResource;
 import io.trino.server.protocol.QueryInfoUrlFactory;
 import io.trino.server.remotetask.RemoteTaskStats;
+import io.trino.server.remotetask.SmileObjectMapperProvider;
 import io.trino.server.ui.WebUiModule;
 import io.trino.server.ui.WorkerResource;
 import io.trino.spi.memory.ClusterMemoryPoolManager;
@@ -215,6 +217,9 @@ public class CoordinatorModule
         binder.bind(CostCalculator.class).annotatedWith(EstimatedExchanges.class).to(CostCalculatorWithEstimatedExchanges.class).in(Scopes.SINGLETON);
         binder.bind(CostComparator.class).in(Scopes.SINGLETON);
 
+        // join build side history
+        binder.bind(JoinBuildSideHistory.class).in(Scopes.SINGLETON);
+
         // dynamic filtering service
         binder.bind(DynamicFilterService.class).in(Scopes.SINGLETON);
 
@@ -234,6 +239,7 @@ public class CoordinatorModule
 
         // execution scheduler
         jsonCodecBinder(binder).bindJsonCodec(TaskUpdateRequest.class);
+        binder.bind(SmileObjectMapperProvider.class).in(Scopes.SINGLETON);
         binder.bind(RemoteTaskFactory.class).to(HttpRemoteTaskFactory.class).in(Scopes.SINGLETON);
         newExporter(binder).export(RemoteTaskFactory.class).withGeneratedName();
 
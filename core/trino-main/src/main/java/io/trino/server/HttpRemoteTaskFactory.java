@@ -18,6 +18,7 @@ import io.airlift.concurrent.BoundedExecutor;
 import io.airlift.concurrent.ThreadPoolExecutorMBean;
 import io.airlift.http.client.HttpClient;
 import io.airlift.json.JsonCodec;
+import io.airlift.json.JsonCodecFactory;
 import io.airlift.units.Duration;
 import io.trino.Session;
 import io.trino.execution.DynamicFiltersCollector.VersionedDynamicFilterDomains;
@@ -36,6 +37,7 @@ import io.trino.metadata.Split;
 import io.trino.operator.ForScheduler;
 import io.trino.server.remotetask.HttpRemoteTask;
 import io.trino.server.remotetask.RemoteTaskStats;
+import io.trino.server.remotetask.SmileObjectMapperProvider;
 import io.trino.sql.planner.PlanFragment;
 import io.trino.sql.planner.plan.PlanNodeId;
 import org.weakref.jmx.Managed;
@@ -44,6 +46,7 @@ import org.weakref.jmx.Nested;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
@@ -64,6 +67,8 @@ public class HttpRemoteTaskFactory
     private final JsonCodec<VersionedDynamicFilterDomains> dynamicFilterDomainsCodec;
     private final JsonCodec<TaskInfo> taskInfoCodec;
     private final JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec;
+    private final Optional<JsonCodec<TaskStatus>> taskStatusSmileCodec;
+    private final Optional<JsonCodec<TaskInfo>> taskInfoSmileCodec;
     private final Duration maxErrorDuration;
     private final Duration taskStatusRefreshMaxWait;
     private final Duration taskInfoUpdateInterval;
@@ -85,6 +90,7 @@ public class HttpRemoteTaskFactory
             JsonCodec<VersionedDynamicFilterDomains> dynamicFilterDomainsCodec,
             JsonCodec<TaskInfo> taskInfoCodec,
             JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec,
+            SmileObjectMapperProvider smileObjectMapperProvider,
             RemoteTaskStats stats,
             DynamicFilterService dynamicFilterService)
     {
@@ -94,6 +100,15 @@ public class HttpRemoteTaskFactory
         this.dynamicFilterDomainsCodec = dynamicFilterDomainsCodec;
         this.taskInfoCodec = taskInfoCodec;
         this.taskUpdateRequestCodec = taskUpdateRequestCodec;
+        if (config.isRemoteTaskSmileEncodingEnabled()) {
+            JsonCodecFactory smileCodecFactory = new JsonCodecFactory(smileObjectMapperProvider);
+            this.taskStatusSmileCodec = Optional.of(smileCodecFactory.jsonCodec(TaskStatus.class));
+            this.taskInfoSmileCodec = Optional.of(smileCodecFactory.jsonCodec(TaskInfo.class));
+        }
+        else {
+            this.taskStatusSmileCodec = Optional.empty();
+            this.taskInfoSmileCodec = Optional.empty();
+        }
         this.maxErrorDuration = config.getRemoteTaskMaxErrorDuration();
         this.taskStatusRefreshMaxWait = taskConfig.getStatusRefreshMaxWait();
         this.taskInfoUpdateInterval = taskConfig.getInfoUpdateInterval();
@@ -151,8 +166,10 @@ public class HttpRemoteTaskFactory
                 taskInfoUpdateInterval,
                 summarizeTaskInfo,
                 taskStatusCodec,
+                taskStatusSmileCodec,
                 dynamicFilterDomainsCodec,
                 taskInfoCodec,
+                taskInfoSmileCodec,
                 taskUpdateRequestCodec,
                 partitionedSplitCountTracker,
                 stats,
@@ -18,18 +18,22 @@ import io.airlift.http.client.HttpRequestFilter;
 import io.airlift.http.client.Request;
 import io.airlift.log.Logger;
 import io.airlift.node.NodeInfo;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.trino.server.security.InternalPrincipal;
+import io.trino.spi.QueryId;
 import io.trino.spi.security.Identity;
 
 import javax.inject.Inject;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.Response;
 
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.Date;
+import java.util.Optional;
 
 import static io.airlift.http.client.Request.Builder.fromRequest;
 import static io.trino.server.ServletSecurityUtils.setAuthenticatedIdentity;
@@ -44,8 +48,10 @@ public class InternalAuthenticationManager
     private static final Logger log = Logger.get(InternalAuthenticationManager.class);
 
     private static final String TRINO_INTERNAL_BEARER = "X-Trino-Internal-Bearer";
+    private static final String RESULTS_DOWNLOAD_USER_CLAIM = "user";
 
     private final byte[] hmac;
+    private final byte[] resultsDownloadHmac;
     private final String nodeId;
 
     @Inject
@@ -73,6 +79,9 @@ public class InternalAuthenticationManager
         requireNonNull(sharedSecret, "sharedSecret is null");
         requireNonNull(nodeId, "nodeId is null");
         this.hmac = Hashing.sha256().hashString(sharedSecret, UTF_8).asBytes();
+        // the results download keys are given to clients, so they are signed with a different key,
+        // which cannot be used for internal authentication
+        this.resultsDownloadHmac = Hashing.hmacSha256(hmac).hashString("results-download", UTF_8).asBytes();
         this.nodeId = nodeId;
     }
 
@@ -112,6 +121,41 @@ public class InternalAuthenticationManager
                 .build();
     }
 
+    /**
+     * Creates the key which lets clients outside of the cluster download the results of the query
+     * run by the user, without internal authentication, until the key expires.
+     */
+    public String createResultsDownloadKey(QueryId queryId, String user, Instant expiration)
+    {
+        return Jwts.builder()
+                .signWith(SignatureAlgorithm.HS256, resultsDownloadHmac)
+                .setSubject(queryId.toString())
+                .claim(RESULTS_DOWNLOAD_USER_CLAIM, user)
+                .setExpiration(Date.from(expiration))
+                .compact();
+    }
+
+    /**
+     * Returns the user the key was created for, if the key is a valid results download key for the query.
+     */
+    public Optional<String> getResultsDownloadUser(QueryId queryId, String key)
+    {
+        Claims claims;
+        try {
+            claims = Jwts.parser()
+                    .setSigningKey(resultsDownloadHmac)
+                    .parseClaimsJws(key)
+                    .getBody();
+        }
+        catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!queryId.toString().equals(claims.getSubject())) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(claims.get(RESULTS_DOWNLOAD_USER_CLAIM, String.class));
+    }
+
     private String generateJwt()
     {
         return Jwts.builder()
@@ -36,9 +36,11 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.List;
 
+import static com.google.common.net.HttpHeaders.CONTENT_LENGTH;
 import static io.trino.TrinoMediaTypes.TRINO_PAGES;
 import static io.trino.execution.buffer.PagesSerdeUtil.NO_CHECKSUM;
 import static io.trino.execution.buffer.PagesSerdeUtil.calculateChecksum;
+import static io.trino.execution.buffer.PagesSerdeUtil.getSerializedPagesSize;
 import static io.trino.execution.buffer.PagesSerdeUtil.writeSerializedPages;
 import static java.util.Objects.requireNonNull;
 
@@ -48,6 +50,8 @@ public class PagesResponseWriter
         implements MessageBodyWriter<List<SerializedPage>>
 {
     public static final int SERIALIZED_PAGES_MAGIC = 0xfea4f001;
+    // magic, checksum and number of pages
+    public static final int SERIALIZED_PAGES_HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
 
     private static final MediaType TRINO_PAGES_TYPE = MediaType.valueOf(TRINO_PAGES);
     private static final Type LIST_GENERIC_TOKEN;
@@ -94,6 +98,8 @@ public class PagesResponseWriter
             OutputStream output)
             throws IOException, WebApplicationException
     {
+        // the length allows the client to read the response into a single buffer of the right size
+        httpHeaders.putSingle(CONTENT_LENGTH, SERIALIZED_PAGES_HEADER_SIZE + getSerializedPagesSize(serializedPages));
         try {
             SliceOutput sliceOutput = new OutputStreamSliceOutput(output);
             sliceOutput.writeInt(SERIALIZED_PAGES_MAGIC);
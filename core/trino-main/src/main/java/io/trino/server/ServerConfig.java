@@ -14,7 +14,9 @@
 package io.trino.server;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.units.Duration;
+import io.airlift.units.MinDuration;
 
 import javax.validation.constraints.NotNull;
 
@@ -28,6 +30,8 @@ public class ServerConfig
     private boolean includeExceptionInResponse = true;
     private Duration gracePeriod = new Duration(2, MINUTES);
     private boolean queryResultsCompressionEnabled = true;
+    private boolean queryResultsDirectDownloadEnabled;
+    private Duration queryResultsDirectDownloadKeyExpiration = new Duration(10, MINUTES);
     private Optional<String> queryInfoUrlTemplate = Optional.empty();
 
     public boolean isCoordinator()
@@ -78,6 +82,34 @@ public class ServerConfig
         return this;
     }
 
+    public boolean isQueryResultsDirectDownloadEnabled()
+    {
+        return queryResultsDirectDownloadEnabled;
+    }
+
+    @Config("query-results.direct-download-enabled")
+    @ConfigDescription("Let capable clients download query results directly from the workers")
+    public ServerConfig setQueryResultsDirectDownloadEnabled(boolean queryResultsDirectDownloadEnabled)
+    {
+        this.queryResultsDirectDownloadEnabled = queryResultsDirectDownloadEnabled;
+        return this;
+    }
+
+    @NotNull
+    @MinDuration("1s")
+    public Duration getQueryResultsDirectDownloadKeyExpiration()
+    {
+        return queryResultsDirectDownloadKeyExpiration;
+    }
+
+    @Config("query-results.direct-download-key-expiration")
+    @ConfigDescription("How long the keys of the direct download locations are valid, the coordinator renews them while the query runs")
+    public ServerConfig setQueryResultsDirectDownloadKeyExpiration(Duration queryResultsDirectDownloadKeyExpiration)
+    {
+        this.queryResultsDirectDownloadKeyExpiration = queryResultsDirectDownloadKeyExpiration;
+        return this;
+    }
+
     @NotNull
     public Optional<String> getQueryInfoUrlTemplate()
     {
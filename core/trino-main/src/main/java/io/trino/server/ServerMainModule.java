@@ -41,6 +41,9 @@ import io.trino.dynamiccatalog.DynamicCatalogService;
 import io.trino.dynamiccatalog.DynamicCatalogStore;
 import io.trino.dynamiccatalog.DynamicCatalogStoreConfig;
 import io.trino.event.SplitMonitor;
+import io.trino.exchange.ExchangeSpool;
+import io.trino.exchange.ExchangeSpoolConfig;
+import io.trino.exchange.FileSystemExchangeSpool;
 import io.trino.execution.DynamicFilterConfig;
 import io.trino.execution.DynamicFiltersCollector.VersionedDynamicFilterDomains;
 import io.trino.execution.ExecutionFailureInfo;
@@ -151,6 +154,7 @@ import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.inject.multibindings.Multibinder.newSetBinder;
 import static com.google.inject.multibindings.OptionalBinder.newOptionalBinder;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
@@ -268,6 +272,14 @@ public class ServerMainModule
         // task execution
         jaxrsBinder(binder).bind(TaskResource.class);
         newExporter(binder).export(TaskResource.class).withGeneratedName();
+        if (serverConfig.isQueryResultsDirectDownloadEnabled()) {
+            // clients download the results without internal authentication, with keys signed with the shared secret,
+            // so the secret must not default to a known value, like the environment name
+            checkArgument(
+                    buildConfigObject(InternalCommunicationConfig.class).getSharedSecret().isPresent(),
+                    "internal-communication.shared-secret must be set when query-results.direct-download-enabled is set");
+            jaxrsBinder(binder).bind(TaskResultsDownloadResource.class);
+        }
         jaxrsBinder(binder).bind(TaskExecutorResource.class);
         newExporter(binder).export(TaskExecutorResource.class).withGeneratedName();
         binder.bind(TaskManagementExecutor.class).in(Scopes.SINGLETON);
@@ -335,6 +347,10 @@ public class ServerMainModule
         binder.bind(ExchangeExecutionMBean.class).in(Scopes.SINGLETON);
         newExporter(binder).export(ExchangeExecutionMBean.class).withGeneratedName();
 
+        // exchange spool
+        configBinder(binder).bindConfig(ExchangeSpoolConfig.class);
+        binder.bind(ExchangeSpool.class).to(FileSystemExchangeSpool.class).in(Scopes.SINGLETON);
+
         // execution
         binder.bind(LocationFactory.class).to(HttpLocationFactory.class).in(Scopes.SINGLETON);
 
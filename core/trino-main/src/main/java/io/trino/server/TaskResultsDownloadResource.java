@@ -0,0 +1,204 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.server;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.concurrent.BoundedExecutor;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.trino.execution.TaskId;
+import io.trino.execution.TaskManager;
+import io.trino.execution.buffer.BufferResult;
+import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
+import io.trino.execution.buffer.PagesSerde;
+import io.trino.execution.buffer.PagesSerdeFactory;
+import io.trino.execution.buffer.SerializedPage;
+import io.trino.server.protocol.ColumnarDataEncoder;
+import io.trino.server.security.ResourceSecurity;
+import io.trino.spi.Page;
+import io.trino.spi.block.BlockEncodingSerde;
+import io.trino.spi.type.Type;
+
+import javax.inject.Inject;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.ForbiddenException;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.google.common.collect.Iterables.transform;
+import static io.airlift.concurrent.MoreFutures.addTimeout;
+import static io.airlift.jaxrs.AsyncResponseHandler.bindAsyncResponse;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.trino.TrinoMediaTypes.TRINO_COLUMNAR_DATA;
+import static io.trino.server.InternalHeaders.TRINO_BUFFER_COMPLETE;
+import static io.trino.server.InternalHeaders.TRINO_MAX_SIZE;
+import static io.trino.server.InternalHeaders.TRINO_PAGE_NEXT_TOKEN;
+import static io.trino.server.InternalHeaders.TRINO_PAGE_TOKEN;
+import static io.trino.server.security.ResourceSecurity.AccessType.PUBLIC;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Lets clients download the results of their queries directly from the output buffers of the tasks
+ * on this node. The clients are not authenticated by the node, so the requests carry a key, which
+ * the coordinator creates for the query and the user running it.
+ */
+@Path("/v1/download")
+public class TaskResultsDownloadResource
+{
+    private static final Duration ADDITIONAL_WAIT_TIME = new Duration(5, SECONDS);
+    private static final Duration DEFAULT_MAX_WAIT_TIME = new Duration(2, SECONDS);
+    private static final DataSize DEFAULT_MAX_SIZE = DataSize.of(16, MEGABYTE);
+
+    private final TaskManager taskManager;
+    private final InternalAuthenticationManager internalAuthenticationManager;
+    private final PagesSerde serde;
+    private final Executor responseExecutor;
+    private final ScheduledExecutorService timeoutExecutor;
+
+    @Inject
+    public TaskResultsDownloadResource(
+            TaskManager taskManager,
+            InternalAuthenticationManager internalAuthenticationManager,
+            BlockEncodingSerde blockEncodingSerde,
+            @ForAsyncHttp BoundedExecutor responseExecutor,
+            @ForAsyncHttp ScheduledExecutorService timeoutExecutor)
+    {
+        this.taskManager = requireNonNull(taskManager, "taskManager is null");
+        this.internalAuthenticationManager = requireNonNull(internalAuthenticationManager, "internalAuthenticationManager is null");
+        // the serde decompresses pages with the codec they were compressed with
+        this.serde = new PagesSerdeFactory(requireNonNull(blockEncodingSerde, "blockEncodingSerde is null"), false).createPagesSerde();
+        this.responseExecutor = requireNonNull(responseExecutor, "responseExecutor is null");
+        this.timeoutExecutor = requireNonNull(timeoutExecutor, "timeoutExecutor is null");
+    }
+
+    @ResourceSecurity(PUBLIC)
+    @GET
+    @Path("{taskId}/{bufferId}/{token}")
+    @Produces(TRINO_COLUMNAR_DATA)
+    public void downloadResults(
+            @PathParam("taskId") TaskId taskId,
+            @PathParam("bufferId") OutputBufferId bufferId,
+            @PathParam("token") long token,
+            @QueryParam("key") String key,
+            @HeaderParam(TRINO_MAX_SIZE) DataSize maxSize,
+            @Suspended AsyncResponse asyncResponse)
+    {
+        requireNonNull(taskId, "taskId is null");
+        requireNonNull(bufferId, "bufferId is null");
+        checkResultsDownloadKey(taskId, key);
+
+        ListenableFuture<BufferResult> bufferResultFuture = taskManager.getTaskResults(taskId, bufferId, token, maxSize == null ? DEFAULT_MAX_SIZE : maxSize);
+        Duration waitTime = randomizeWaitTime(DEFAULT_MAX_WAIT_TIME);
+        bufferResultFuture = addTimeout(
+                bufferResultFuture,
+                () -> BufferResult.emptyResults(taskManager.getTaskInstanceId(taskId), token, false),
+                waitTime,
+                timeoutExecutor);
+
+        // the pages are encoded as columnar data, since the clients do not understand the serialized pages
+        ListenableFuture<Response> responseFuture = Futures.transform(bufferResultFuture, result -> {
+            List<SerializedPage> serializedPages = result.getSerializedPages();
+
+            byte[] entity = null;
+            Status status;
+            if (serializedPages.isEmpty()) {
+                status = Status.NO_CONTENT;
+            }
+            else {
+                List<Type> types = taskManager.getTaskOutputTypes(taskId)
+                        .orElseThrow(() -> new IllegalStateException("Task has results but no output types: " + taskId));
+                List<Page> pages = ImmutableList.copyOf(transform(serializedPages, serde::deserialize));
+                entity = ColumnarDataEncoder.encode(types, pages);
+                status = Status.OK;
+            }
+
+            return Response.status(status)
+                    .entity(entity)
+                    .header(TRINO_PAGE_TOKEN, result.getToken())
+                    .header(TRINO_PAGE_NEXT_TOKEN, result.getNextToken())
+                    .header(TRINO_BUFFER_COMPLETE, result.isBufferComplete())
+                    .build();
+        }, responseExecutor);
+
+        // For hard timeout, add an additional time to max wait for thread scheduling contention and GC
+        Duration timeout = new Duration(waitTime.toMillis() + ADDITIONAL_WAIT_TIME.toMillis(), MILLISECONDS);
+        bindAsyncResponse(asyncResponse, responseFuture, responseExecutor)
+                .withTimeout(timeout,
+                        Response.status(Status.NO_CONTENT)
+                                .header(TRINO_PAGE_TOKEN, token)
+                                .header(TRINO_PAGE_NEXT_TOKEN, token)
+                                .header(TRINO_BUFFER_COMPLETE, false)
+                                .build());
+    }
+
+    @ResourceSecurity(PUBLIC)
+    @DELETE
+    @Path("{taskId}/{bufferId}")
+    public void abortDownload(
+            @PathParam("taskId") TaskId taskId,
+            @PathParam("bufferId") OutputBufferId bufferId,
+            @QueryParam("key") String key)
+    {
+        requireNonNull(taskId, "taskId is null");
+        requireNonNull(bufferId, "bufferId is null");
+        checkResultsDownloadKey(taskId, key);
+
+        taskManager.abortTaskResults(taskId, bufferId);
+    }
+
+    private void checkResultsDownloadKey(TaskId taskId, String key)
+    {
+        // the key is checked before the task is looked up, since looking up a task creates it
+        if (key == null) {
+            throw new ForbiddenException();
+        }
+        String user = internalAuthenticationManager.getResultsDownloadUser(taskId.getQueryId(), key)
+                .orElseThrow(ForbiddenException::new);
+
+        Optional<String> taskUser = taskManager.getTaskUser(taskId);
+        if (taskUser.isEmpty()) {
+            // the coordinator lists the task before the task receives its fragment, so the client retries
+            throw new ServiceUnavailableException();
+        }
+        if (!taskUser.get().equals(user)) {
+            throw new ForbiddenException();
+        }
+    }
+
+    private static Duration randomizeWaitTime(Duration waitTime)
+    {
+        // Randomize in [T/2, T], so wait is not near zero and the client-supplied max wait time is respected
+        long halfWaitMillis = waitTime.toMillis() / 2;
+        return new Duration(halfWaitMillis + ThreadLocalRandom.current().nextLong(halfWaitMillis), MILLISECONDS);
+    }
+}
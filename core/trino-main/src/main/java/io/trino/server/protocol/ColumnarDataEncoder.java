@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.server.protocol;
+
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import io.trino.client.ColumnarData;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.VarbinaryType;
+import io.trino.spi.type.VarcharType;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.BooleanType.BOOLEAN;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.RealType.REAL;
+import static io.trino.spi.type.SmallintType.SMALLINT;
+import static io.trino.spi.type.TinyintType.TINYINT;
+import static java.lang.Math.toIntExact;
+
+/**
+ * Encodes pages as {@link ColumnarData}.
+ */
+public final class ColumnarDataEncoder
+{
+    private ColumnarDataEncoder() {}
+
+    public static boolean isSupported(Type type)
+    {
+        return type.equals(BOOLEAN) ||
+                type.equals(TINYINT) ||
+                type.equals(SMALLINT) ||
+                type.equals(INTEGER) ||
+                type.equals(BIGINT) ||
+                type.equals(REAL) ||
+                type.equals(DOUBLE) ||
+                type instanceof VarcharType ||
+                type instanceof VarbinaryType;
+    }
+
+    public static byte[] encode(List<Type> types, List<Page> pages)
+    {
+        long rowCount = 0;
+        long sizeInBytes = 0;
+        for (Page page : pages) {
+            rowCount += page.getPositionCount();
+            sizeInBytes += page.getSizeInBytes();
+        }
+
+        DynamicSliceOutput output = new DynamicSliceOutput(toIntExact(Integer.BYTES + sizeInBytes + rowCount * types.size()));
+        output.writeInt(toIntExact(rowCount));
+        for (int channel = 0; channel < types.size(); channel++) {
+            ValueWriter valueWriter = valueWriter(types.get(channel));
+
+            boolean hasNulls = false;
+            for (Page page : pages) {
+                hasNulls |= page.getBlock(channel).mayHaveNull();
+            }
+            output.writeBoolean(hasNulls);
+            if (hasNulls) {
+                for (Page page : pages) {
+                    Block block = page.getBlock(channel);
+                    for (int position = 0; position < block.getPositionCount(); position++) {
+                        output.writeBoolean(block.isNull(position));
+                    }
+                }
+            }
+
+            for (Page page : pages) {
+                Block block = page.getBlock(channel);
+                for (int position = 0; position < block.getPositionCount(); position++) {
+                    if (!block.isNull(position)) {
+                        valueWriter.write(output, block, position);
+                    }
+                }
+            }
+        }
+        return output.slice().getBytes();
+    }
+
+    private static ValueWriter valueWriter(Type type)
+    {
+        if (type.equals(BOOLEAN)) {
+            return (output, block, position) -> output.writeBoolean(BOOLEAN.getBoolean(block, position));
+        }
+        if (type.equals(TINYINT)) {
+            return (output, block, position) -> output.writeByte((int) TINYINT.getLong(block, position));
+        }
+        if (type.equals(SMALLINT)) {
+            return (output, block, position) -> output.writeShort((int) SMALLINT.getLong(block, position));
+        }
+        if (type.equals(INTEGER) || type.equals(REAL)) {
+            // the bits of a real are stored as an int
+            return (output, block, position) -> output.writeInt((int) type.getLong(block, position));
+        }
+        if (type.equals(BIGINT)) {
+            return (output, block, position) -> output.writeLong(BIGINT.getLong(block, position));
+        }
+        if (type.equals(DOUBLE)) {
+            return (output, block, position) -> output.writeDouble(DOUBLE.getDouble(block, position));
+        }
+        checkArgument(type instanceof VarcharType || type instanceof VarbinaryType, "Unsupported type for columnar data: %s", type);
+        return (output, block, position) -> {
+            Slice slice = type.getSlice(block, position);
+            output.writeInt(slice.length());
+            output.writeBytes(slice);
+        };
+    }
+
+    private interface ValueWriter
+    {
+        void write(SliceOutput output, Block block, int position);
+    }
+}
@@ -28,6 +28,7 @@ import io.trino.memory.context.SimpleLocalMemoryContext;
 import io.trino.operator.ExchangeClient;
 import io.trino.operator.ExchangeClientSupplier;
 import io.trino.server.ForStatementResource;
+import io.trino.server.InternalAuthenticationManager;
 import io.trino.server.ServerConfig;
 import io.trino.server.security.ResourceSecurity;
 import io.trino.spi.QueryId;
@@ -54,6 +55,7 @@ import javax.ws.rs.core.UriInfo;
 import java.net.URLEncoder;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
@@ -93,6 +95,8 @@ public class ExecutingStatementResource
     private final ConcurrentMap<QueryId, Query> queries = new ConcurrentHashMap<>();
     private final ScheduledExecutorService queryPurger = newSingleThreadScheduledExecutor(threadsNamed("execution-query-purger"));
     private final boolean compressionEnabled;
+    private final Optional<Duration> directDownloadKeyExpiration;
+    private final InternalAuthenticationManager internalAuthenticationManager;
 
     @Inject
     public ExecutingStatementResource(
@@ -102,7 +106,8 @@ public class ExecutingStatementResource
             QueryInfoUrlFactory queryInfoUrlTemplate,
             @ForStatementResource BoundedExecutor responseExecutor,
             @ForStatementResource ScheduledExecutorService timeoutExecutor,
-            ServerConfig serverConfig)
+            ServerConfig serverConfig,
+            InternalAuthenticationManager internalAuthenticationManager)
     {
         this.queryManager = requireNonNull(queryManager, "queryManager is null");
         this.exchangeClientSupplier = requireNonNull(exchangeClientSupplier, "exchangeClientSupplier is null");
@@ -111,6 +116,8 @@ public class ExecutingStatementResource
         this.responseExecutor = requireNonNull(responseExecutor, "responseExecutor is null");
         this.timeoutExecutor = requireNonNull(timeoutExecutor, "timeoutExecutor is null");
         this.compressionEnabled = requireNonNull(serverConfig, "serverConfig is null").isQueryResultsCompressionEnabled();
+        this.directDownloadKeyExpiration = serverConfig.isQueryResultsDirectDownloadEnabled() ? Optional.of(serverConfig.getQueryResultsDirectDownloadKeyExpiration()) : Optional.empty();
+        this.internalAuthenticationManager = requireNonNull(internalAuthenticationManager, "internalAuthenticationManager is null");
 
         queryPurger.scheduleWithFixedDelay(
                 () -> {
@@ -192,7 +199,9 @@ public class ExecutingStatementResource
                     exchangeClient,
                     responseExecutor,
                     timeoutExecutor,
-                    blockEncodingSerde);
+                    blockEncodingSerde,
+                    directDownloadKeyExpiration,
+                    internalAuthenticationManager);
         });
         return query;
     }
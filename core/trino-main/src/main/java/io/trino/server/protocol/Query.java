@@ -13,6 +13,7 @@
  */
 package io.trino.server.protocol;
 
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -49,6 +50,7 @@ import io.trino.execution.buffer.PagesSerde;
 import io.trino.execution.buffer.PagesSerdeFactory;
 import io.trino.execution.buffer.SerializedPage;
 import io.trino.operator.ExchangeClient;
+import io.trino.server.InternalAuthenticationManager;
 import io.trino.spi.ErrorCode;
 import io.trino.spi.Page;
 import io.trino.spi.QueryId;
@@ -79,7 +81,9 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import java.net.URI;
+import java.time.Instant;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -97,6 +101,7 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.addTimeout;
+import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
 import static io.trino.SystemSessionProperties.isExchangeCompressionEnabled;
 import static io.trino.execution.QueryState.FAILED;
 import static io.trino.server.protocol.QueryResultRows.queryResultRowsBuilder;
@@ -132,6 +137,8 @@ class Query
 
     private final PagesSerde serde;
     private final boolean supportsParametricDateTime;
+    private final Optional<Duration> directDownloadKeyExpiration;
+    private final InternalAuthenticationManager internalAuthenticationManager;
 
     @GuardedBy("this")
     private OptionalLong nextToken = OptionalLong.of(0);
@@ -184,6 +191,12 @@ class Query
     @GuardedBy("this")
     private Long updateCount;
 
+    @GuardedBy("this")
+    private boolean directResults;
+
+    @GuardedBy("this")
+    private final Set<URI> segments = new LinkedHashSet<>();
+
     public static Query create(
             Session session,
             Slug slug,
@@ -192,9 +205,11 @@ class Query
             ExchangeClient exchangeClient,
             Executor dataProcessorExecutor,
             ScheduledExecutorService timeoutExecutor,
-            BlockEncodingSerde blockEncodingSerde)
+            BlockEncodingSerde blockEncodingSerde,
+            Optional<Duration> directDownloadKeyExpiration,
+            InternalAuthenticationManager internalAuthenticationManager)
     {
-        Query result = new Query(session, slug, queryManager, queryInfoUrl, exchangeClient, dataProcessorExecutor, timeoutExecutor, blockEncodingSerde);
+        Query result = new Query(session, slug, queryManager, queryInfoUrl, exchangeClient, dataProcessorExecutor, timeoutExecutor, blockEncodingSerde, directDownloadKeyExpiration, internalAuthenticationManager);
 
         result.queryManager.addOutputInfoListener(result.getQueryId(), result::setQueryOutputInfo);
 
@@ -216,7 +231,9 @@ class Query
             ExchangeClient exchangeClient,
             Executor resultsProcessorExecutor,
             ScheduledExecutorService timeoutExecutor,
-            BlockEncodingSerde blockEncodingSerde)
+            BlockEncodingSerde blockEncodingSerde,
+            Optional<Duration> directDownloadKeyExpiration,
+            InternalAuthenticationManager internalAuthenticationManager)
     {
         requireNonNull(session, "session is null");
         requireNonNull(slug, "slug is null");
@@ -226,6 +243,8 @@ class Query
         requireNonNull(resultsProcessorExecutor, "resultsProcessorExecutor is null");
         requireNonNull(timeoutExecutor, "timeoutExecutor is null");
         requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
+        requireNonNull(directDownloadKeyExpiration, "directDownloadKeyExpiration is null");
+        requireNonNull(internalAuthenticationManager, "internalAuthenticationManager is null");
 
         this.queryManager = queryManager;
         this.queryId = session.getQueryId();
@@ -236,6 +255,8 @@ class Query
         this.resultsProcessorExecutor = resultsProcessorExecutor;
         this.timeoutExecutor = timeoutExecutor;
         this.supportsParametricDateTime = session.getClientCapabilities().contains(ClientCapabilities.PARAMETRIC_DATETIME.toString());
+        this.directDownloadKeyExpiration = directDownloadKeyExpiration.filter(ignored -> session.getClientCapabilities().contains(ClientCapabilities.DIRECT_RESULTS.toString()));
+        this.internalAuthenticationManager = internalAuthenticationManager;
         serde = new PagesSerdeFactory(blockEncodingSerde, isExchangeCompressionEnabled(session)).createPagesSerde();
     }
 
@@ -473,6 +494,9 @@ class Query
         startedTransactionId = queryInfo.getStartedTransactionId();
         clearTransactionId = queryInfo.isClearTransactionId();
 
+        // clients which support it get the data of simple types in a binary encoding, instead of JSON
+        Optional<byte[]> columnarData = resultRows.toColumnarData();
+
         // first time through, self is null
         QueryResults queryResults = new QueryResults(
                 queryId.toString(),
@@ -480,12 +504,14 @@ class Query
                 partialCancelUri,
                 nextResultsUri,
                 resultRows.getColumns().orElse(null),
-                resultRows.isEmpty() ? null : resultRows, // client excepts null that indicates "no data"
+                resultRows.isEmpty() || columnarData.isPresent() ? null : resultRows, // client excepts null that indicates "no data"
                 toStatementStats(queryInfo),
                 toQueryError(queryInfo, typeSerializationException),
                 mappedCopy(queryInfo.getWarnings(), Query::toClientWarning),
                 queryInfo.getUpdateType(),
-                updateCount);
+                updateCount,
+                columnarData.orElse(null),
+                directResults ? createSegmentUris() : null);
 
         // cache the new result
         lastToken = token;
@@ -574,6 +600,21 @@ class Query
             }
             columns = list.build();
             types = outputInfo.getColumnTypes();
+
+            // the coordinator reads the output of updates itself, for the update count
+            directResults = directDownloadKeyExpiration.isPresent() &&
+                    types.stream().allMatch(ColumnarDataEncoder::isSupported) &&
+                    queryManager.getQueryInfo(queryId).getUpdateType().isEmpty();
+            if (directResults) {
+                exchangeClient.close();
+            }
+        }
+
+        if (directResults) {
+            for (URI outputLocation : outputInfo.getBufferLocations()) {
+                segments.add(toSegmentLocation(outputLocation));
+            }
+            return;
         }
 
         for (URI outputLocation : outputInfo.getBufferLocations()) {
@@ -584,6 +625,30 @@ class Query
         }
     }
 
+    private static URI toSegmentLocation(URI bufferLocation)
+    {
+        // buffer locations are /v1/task/{taskId}/results/{bufferId}, while the segments are /v1/download/{taskId}/{bufferId}
+        List<String> path = Splitter.on('/').splitToList(bufferLocation.getPath());
+        checkArgument(path.size() >= 3 && path.get(path.size() - 2).equals("results"), "Unexpected buffer location: %s", bufferLocation);
+        return uriBuilderFrom(bufferLocation)
+                .replacePath("/v1/download")
+                .appendPath(path.get(path.size() - 3))
+                .appendPath(path.get(path.size() - 1))
+                .build();
+    }
+
+    private synchronized List<URI> createSegmentUris()
+    {
+        // the keys are renewed with every response, so that they only expire once the client stops polling the query
+        Instant expiration = Instant.now().plusMillis(directDownloadKeyExpiration.orElseThrow().toMillis());
+        String key = internalAuthenticationManager.createResultsDownloadKey(queryId, session.getUser(), expiration);
+        return segments.stream()
+                .map(location -> uriBuilderFrom(location)
+                        .addParameter("key", key)
+                        .build())
+                .collect(toImmutableList());
+    }
+
     private ListenableFuture<?> queryDoneFuture(QueryState currentState)
     {
         if (currentState.isDone()) {
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableList;
 import io.trino.Session;
 import io.trino.client.ClientCapabilities;
 import io.trino.client.Column;
+import io.trino.client.ColumnarData;
 import io.trino.spi.Page;
 import io.trino.spi.TrinoException;
 import io.trino.spi.block.Block;
@@ -67,10 +68,12 @@ public class QueryResultRows
 {
     private final ConnectorSession session;
     private final Optional<List<ColumnAndType>> columns;
+    private final List<Page> allPages;
     private final Deque<Page> pages;
     private final Optional<Consumer<Throwable>> exceptionConsumer;
     private final long totalRows;
     private final boolean supportsParametricDateTime;
+    private final boolean supportsColumnarData;
 
     private Page currentPage;
     private int rowPosition = -1;
@@ -80,11 +83,13 @@ public class QueryResultRows
     {
         this.session = requireNonNull(session, "session is null").toConnectorSession();
         this.columns = requireNonNull(columns, "columns is null");
-        this.pages = new ArrayDeque<>(requireNonNull(pages, "pages is null"));
+        this.allPages = ImmutableList.copyOf(requireNonNull(pages, "pages is null"));
+        this.pages = new ArrayDeque<>(pages);
         this.exceptionConsumer = Optional.ofNullable(exceptionConsumer);
         this.totalRows = countRows(pages);
         this.currentPage = this.pages.pollFirst();
         this.supportsParametricDateTime = session.getClientCapabilities().contains(ClientCapabilities.PARAMETRIC_DATETIME.toString());
+        this.supportsColumnarData = session.getClientCapabilities().contains(ClientCapabilities.COLUMNAR_DATA.toString());
 
         verify(totalRows == 0 || (totalRows > 0 && columns.isPresent()), "data present without columns and types");
     }
@@ -129,6 +134,24 @@ public class QueryResultRows
         return Optional.ofNullable(value).map(Number::longValue);
     }
 
+    /**
+     * Returns the rows encoded as {@link ColumnarData}, if the client supports it and all the columns
+     * have a type supported by the encoding. Otherwise the rows are returned as JSON by iterating them.
+     */
+    public Optional<byte[]> toColumnarData()
+    {
+        if (!supportsColumnarData || totalRows == 0) {
+            return Optional.empty();
+        }
+        List<Type> types = columns.orElseThrow().stream()
+                .map(ColumnAndType::getType)
+                .collect(toImmutableList());
+        if (!types.stream().allMatch(ColumnarDataEncoder::isSupported)) {
+            return Optional.empty();
+        }
+        return Optional.of(ColumnarDataEncoder.encode(types, allPages));
+    }
+
     @Override
     protected List<Object> computeNext()
     {
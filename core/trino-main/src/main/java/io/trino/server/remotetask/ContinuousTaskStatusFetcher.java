@@ -30,6 +30,7 @@ import io.trino.spi.TrinoException;
 
 import javax.annotation.concurrent.GuardedBy;
 
+import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -37,14 +38,16 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static com.google.common.net.HttpHeaders.ACCEPT;
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
 import static com.google.common.net.MediaType.JSON_UTF_8;
-import static io.airlift.http.client.FullJsonResponseHandler.createFullJsonResponseHandler;
 import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
 import static io.airlift.http.client.Request.Builder.prepareGet;
 import static io.airlift.units.Duration.nanosSince;
+import static io.trino.TrinoMediaTypes.JACKSON_SMILE;
 import static io.trino.server.InternalHeaders.TRINO_CURRENT_VERSION;
 import static io.trino.server.InternalHeaders.TRINO_MAX_WAIT;
+import static io.trino.server.remotetask.FullSmileResponseHandler.createFullSmileResponseHandler;
 import static io.trino.spi.StandardErrorCode.REMOTE_TASK_MISMATCH;
 import static io.trino.util.Failures.REMOTE_TASK_MISMATCH_ERROR;
 import static java.lang.String.format;
@@ -59,6 +62,7 @@ class ContinuousTaskStatusFetcher
     private final Consumer<Throwable> onFail;
     private final StateMachine<TaskStatus> taskStatus;
     private final JsonCodec<TaskStatus> taskStatusCodec;
+    private final Optional<JsonCodec<TaskStatus>> taskStatusSmileCodec;
     private final DynamicFiltersFetcher dynamicFiltersFetcher;
 
     private final Duration refreshMaxWait;
@@ -80,6 +84,7 @@ class ContinuousTaskStatusFetcher
             TaskStatus initialTaskStatus,
             Duration refreshMaxWait,
             JsonCodec<TaskStatus> taskStatusCodec,
+            Optional<JsonCodec<TaskStatus>> taskStatusSmileCodec,
             DynamicFiltersFetcher dynamicFiltersFetcher,
             Executor executor,
             HttpClient httpClient,
@@ -95,6 +100,7 @@ class ContinuousTaskStatusFetcher
 
         this.refreshMaxWait = requireNonNull(refreshMaxWait, "refreshMaxWait is null");
         this.taskStatusCodec = requireNonNull(taskStatusCodec, "taskStatusCodec is null");
+        this.taskStatusSmileCodec = requireNonNull(taskStatusSmileCodec, "taskStatusSmileCodec is null");
         this.dynamicFiltersFetcher = requireNonNull(dynamicFiltersFetcher, "dynamicFiltersFetcher is null");
 
         this.executor = requireNonNull(executor, "executor is null");
@@ -145,15 +151,18 @@ class ContinuousTaskStatusFetcher
             return;
         }
 
-        Request request = prepareGet()
+        Request.Builder requestBuilder = prepareGet()
                 .setUri(uriBuilderFrom(taskStatus.getSelf()).appendPath("status").build())
                 .setHeader(CONTENT_TYPE, JSON_UTF_8.toString())
                 .setHeader(TRINO_CURRENT_VERSION, Long.toString(taskStatus.getVersion()))
-                .setHeader(TRINO_MAX_WAIT, refreshMaxWait.toString())
-                .build();
+                .setHeader(TRINO_MAX_WAIT, refreshMaxWait.toString());
+        if (taskStatusSmileCodec.isPresent()) {
+            requestBuilder.setHeader(ACCEPT, JACKSON_SMILE);
+        }
+        Request request = requestBuilder.build();
 
         errorTracker.startRequest();
-        future = httpClient.executeAsync(request, createFullJsonResponseHandler(taskStatusCodec));
+        future = httpClient.executeAsync(request, createFullSmileResponseHandler(taskStatusCodec, taskStatusSmileCodec, stats.getStatusResponseBytes(), stats.getResponseDecodeTime()));
         currentRequestStartNanos.set(System.nanoTime());
         Futures.addCallback(future, new SimpleHttpResponseHandler<>(this, request.getUri(), stats), executor);
     }
@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.server.remotetask;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.net.MediaType;
+import io.airlift.http.client.FullJsonResponseHandler.JsonResponse;
+import io.airlift.http.client.Request;
+import io.airlift.http.client.Response;
+import io.airlift.http.client.ResponseHandler;
+import io.airlift.json.JsonCodec;
+import io.airlift.stats.DistributionStat;
+import io.airlift.stats.TimeStat;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static io.airlift.http.client.ResponseHandlerUtils.propagate;
+import static io.trino.TrinoMediaTypes.JACKSON_SMILE_TYPE;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Variant of {@link io.airlift.http.client.FullJsonResponseHandler} that also decodes
+ * Smile responses, and records the size of every response and the time spent decoding it.
+ */
+public class FullSmileResponseHandler<T>
+        implements ResponseHandler<JsonResponse<T>, RuntimeException>
+{
+    private static final MediaType MEDIA_TYPE_JSON = MediaType.create("application", "json");
+
+    private final JsonCodec<T> jsonCodec;
+    private final Optional<JsonCodec<T>> smileCodec;
+    private final DistributionStat responseBytes;
+    private final TimeStat decodeTime;
+
+    public static <T> FullSmileResponseHandler<T> createFullSmileResponseHandler(
+            JsonCodec<T> jsonCodec,
+            Optional<JsonCodec<T>> smileCodec,
+            DistributionStat responseBytes,
+            TimeStat decodeTime)
+    {
+        return new FullSmileResponseHandler<>(jsonCodec, smileCodec, responseBytes, decodeTime);
+    }
+
+    private FullSmileResponseHandler(JsonCodec<T> jsonCodec, Optional<JsonCodec<T>> smileCodec, DistributionStat responseBytes, TimeStat decodeTime)
+    {
+        this.jsonCodec = requireNonNull(jsonCodec, "jsonCodec is null");
+        this.smileCodec = requireNonNull(smileCodec, "smileCodec is null");
+        this.responseBytes = requireNonNull(responseBytes, "responseBytes is null");
+        this.decodeTime = requireNonNull(decodeTime, "decodeTime is null");
+    }
+
+    @Override
+    public JsonResponse<T> handleException(Request request, Exception exception)
+    {
+        throw propagate(request, exception);
+    }
+
+    @Override
+    public JsonResponse<T> handle(Request request, Response response)
+    {
+        byte[] bytes = readResponseBytes(response);
+        responseBytes.add(bytes.length);
+
+        Optional<JsonCodec<T>> codec = getCodec(response.getHeader(CONTENT_TYPE));
+        if (codec.isEmpty()) {
+            return new JsonResponse<>(response.getStatusCode(), response.getHeaders(), bytes);
+        }
+        long start = System.nanoTime();
+        try {
+            return new JsonResponse<>(response.getStatusCode(), response.getHeaders(), codec.get(), bytes);
+        }
+        finally {
+            decodeTime.add(System.nanoTime() - start, NANOSECONDS);
+        }
+    }
+
+    private Optional<JsonCodec<T>> getCodec(String contentType)
+    {
+        if (contentType == null) {
+            return Optional.empty();
+        }
+        MediaType mediaType = MediaType.parse(contentType);
+        if (mediaType.is(JACKSON_SMILE_TYPE)) {
+            return smileCodec;
+        }
+        if (mediaType.is(MEDIA_TYPE_JSON)) {
+            return Optional.of(jsonCodec);
+        }
+        return Optional.empty();
+    }
+
+    private static byte[] readResponseBytes(Response response)
+    {
+        try {
+            return ByteStreams.toByteArray(response.getInputStream());
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Error reading response from server", e);
+        }
+    }
+}
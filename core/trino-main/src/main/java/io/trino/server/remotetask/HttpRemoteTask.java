@@ -89,10 +89,12 @@ import static io.airlift.http.client.Request.Builder.prepareDelete;
 import static io.airlift.http.client.Request.Builder.preparePost;
 import static io.airlift.http.client.StaticBodyGenerator.createStaticBodyGenerator;
 import static io.trino.SystemSessionProperties.getMaxUnacknowledgedSplitsPerTask;
+import static io.trino.TrinoMediaTypes.JACKSON_SMILE;
 import static io.trino.execution.TaskInfo.createInitialTask;
 import static io.trino.execution.TaskState.ABORTED;
 import static io.trino.execution.TaskState.FAILED;
 import static io.trino.execution.TaskStatus.failWith;
+import static io.trino.server.remotetask.FullSmileResponseHandler.createFullSmileResponseHandler;
 import static io.trino.server.remotetask.RequestErrorTracker.logError;
 import static io.trino.util.Failures.toFailure;
 import static java.util.Objects.requireNonNull;
@@ -150,6 +152,7 @@ public final class HttpRemoteTask
     private final ScheduledExecutorService errorScheduledExecutor;
 
     private final JsonCodec<TaskInfo> taskInfoCodec;
+    private final Optional<JsonCodec<TaskInfo>> taskInfoSmileCodec;
     private final JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec;
 
     private final RequestErrorTracker updateErrorTracker;
@@ -180,8 +183,10 @@ public final class HttpRemoteTask
             Duration taskInfoUpdateInterval,
             boolean summarizeTaskInfo,
             JsonCodec<TaskStatus> taskStatusCodec,
+            Optional<JsonCodec<TaskStatus>> taskStatusSmileCodec,
             JsonCodec<VersionedDynamicFilterDomains> dynamicFilterDomainsCodec,
             JsonCodec<TaskInfo> taskInfoCodec,
+            Optional<JsonCodec<TaskInfo>> taskInfoSmileCodec,
             JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec,
             PartitionedSplitCountTracker partitionedSplitCountTracker,
             RemoteTaskStats stats,
@@ -198,6 +203,7 @@ public final class HttpRemoteTask
         requireNonNull(executor, "executor is null");
         requireNonNull(taskStatusCodec, "taskStatusCodec is null");
         requireNonNull(taskInfoCodec, "taskInfoCodec is null");
+        requireNonNull(taskInfoSmileCodec, "taskInfoSmileCodec is null");
         requireNonNull(taskUpdateRequestCodec, "taskUpdateRequestCodec is null");
         requireNonNull(partitionedSplitCountTracker, "partitionedSplitCountTracker is null");
         requireNonNull(stats, "stats is null");
@@ -214,6 +220,7 @@ public final class HttpRemoteTask
             this.errorScheduledExecutor = errorScheduledExecutor;
             this.summarizeTaskInfo = summarizeTaskInfo;
             this.taskInfoCodec = taskInfoCodec;
+            this.taskInfoSmileCodec = taskInfoSmileCodec;
             this.taskUpdateRequestCodec = taskUpdateRequestCodec;
             this.updateErrorTracker = new RequestErrorTracker(taskId, location, maxErrorDuration, errorScheduledExecutor, "updating task");
             this.partitionedSplitCountTracker = requireNonNull(partitionedSplitCountTracker, "partitionedSplitCountTracker is null");
@@ -254,6 +261,7 @@ public final class HttpRemoteTask
                     initialTask.getTaskStatus(),
                     taskStatusRefreshMaxWait,
                     taskStatusCodec,
+                    taskStatusSmileCodec,
                     dynamicFiltersFetcher,
                     executor,
                     httpClient,
@@ -267,6 +275,7 @@ public final class HttpRemoteTask
                     httpClient,
                     taskInfoUpdateInterval,
                     taskInfoCodec,
+                    taskInfoSmileCodec,
                     maxErrorDuration,
                     summarizeTaskInfo,
                     executor,
@@ -474,7 +483,15 @@ public final class HttpRemoteTask
 
     private synchronized void processTaskUpdate(TaskInfo newValue, List<TaskSource> sources)
     {
-        updateTaskInfo(newValue);
+        // The update response is always summarized, so it only refreshes the task status,
+        // and the detailed stats are left to the task info fetcher
+        taskStatusFetcher.updateTaskStatus(newValue.getTaskStatus());
+        if (summarizeTaskInfo) {
+            taskInfoFetcher.updateTaskInfo(newValue);
+        }
+        else {
+            taskInfoFetcher.updateTaskStatus(newValue.getTaskStatus());
+        }
 
         // remove acknowledged splits, which frees memory
         for (TaskSource source : sources) {
@@ -547,16 +564,21 @@ public final class HttpRemoteTask
             stats.updateWithPlanBytes(taskUpdateRequestJson.length);
         }
 
-        HttpUriBuilder uriBuilder = getHttpUriBuilder(taskStatus);
-        Request request = preparePost()
+        HttpUriBuilder uriBuilder = uriBuilderFrom(taskStatus.getSelf()).addParameter("summarize");
+        Request.Builder requestBuilder = preparePost()
                 .setUri(uriBuilder.build())
                 .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.JSON_UTF_8.toString())
-                .setBodyGenerator(createStaticBodyGenerator(taskUpdateRequestJson))
-                .build();
+                .setBodyGenerator(createStaticBodyGenerator(taskUpdateRequestJson));
+        if (taskInfoSmileCodec.isPresent()) {
+            requestBuilder.setHeader(HttpHeaders.ACCEPT, JACKSON_SMILE);
+        }
+        Request request = requestBuilder.build();
 
         updateErrorTracker.startRequest();
 
-        ListenableFuture<JsonResponse<TaskInfo>> future = httpClient.executeAsync(request, createFullJsonResponseHandler(taskInfoCodec));
+        ListenableFuture<JsonResponse<TaskInfo>> future = httpClient.executeAsync(
+                request,
+                createFullSmileResponseHandler(taskInfoCodec, taskInfoSmileCodec, stats.getUpdateResponseBytes(), stats.getResponseDecodeTime()));
         currentRequest = future;
         currentRequestStartNanos = System.nanoTime();
 
@@ -15,11 +15,14 @@ package io.trino.server.remotetask;
 
 import com.google.common.util.concurrent.AtomicDouble;
 import io.airlift.stats.DistributionStat;
+import io.airlift.stats.TimeStat;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
 import javax.annotation.concurrent.ThreadSafe;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 public class RemoteTaskStats
 {
     private final IncrementalAverage updateRoundTripMillis = new IncrementalAverage();
@@ -27,6 +30,10 @@ public class RemoteTaskStats
     private final IncrementalAverage statusRoundTripMillis = new IncrementalAverage();
     private final IncrementalAverage responseSizeBytes = new IncrementalAverage();
     private final DistributionStat updateWithPlanBytes = new DistributionStat();
+    private final DistributionStat statusResponseBytes = new DistributionStat();
+    private final DistributionStat infoResponseBytes = new DistributionStat();
+    private final DistributionStat updateResponseBytes = new DistributionStat();
+    private final TimeStat responseDecodeTime = new TimeStat(MILLISECONDS);
 
     private long requestSuccess;
     private long requestFailure;
@@ -109,6 +116,34 @@ public class RemoteTaskStats
         return updateWithPlanBytes;
     }
 
+    @Managed
+    @Nested
+    public DistributionStat getStatusResponseBytes()
+    {
+        return statusResponseBytes;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getInfoResponseBytes()
+    {
+        return infoResponseBytes;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getUpdateResponseBytes()
+    {
+        return updateResponseBytes;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getResponseDecodeTime()
+    {
+        return responseDecodeTime;
+    }
+
     @ThreadSafe
     private static class IncrementalAverage
     {
@@ -39,12 +39,14 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
+import static com.google.common.net.HttpHeaders.ACCEPT;
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
 import static com.google.common.net.MediaType.JSON_UTF_8;
-import static io.airlift.http.client.FullJsonResponseHandler.createFullJsonResponseHandler;
 import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
 import static io.airlift.http.client.Request.Builder.prepareGet;
 import static io.airlift.units.Duration.nanosSince;
+import static io.trino.TrinoMediaTypes.JACKSON_SMILE;
+import static io.trino.server.remotetask.FullSmileResponseHandler.createFullSmileResponseHandler;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
@@ -56,6 +58,7 @@ public class TaskInfoFetcher
     private final StateMachine<TaskInfo> taskInfo;
     private final StateMachine<Optional<TaskInfo>> finalTaskInfo;
     private final JsonCodec<TaskInfo> taskInfoCodec;
+    private final Optional<JsonCodec<TaskInfo>> taskInfoSmileCodec;
 
     private final long updateIntervalMillis;
     private final AtomicLong lastUpdateNanos = new AtomicLong();
@@ -87,6 +90,7 @@ public class TaskInfoFetcher
             HttpClient httpClient,
             Duration updateInterval,
             JsonCodec<TaskInfo> taskInfoCodec,
+            Optional<JsonCodec<TaskInfo>> taskInfoSmileCodec,
             Duration maxErrorDuration,
             boolean summarizeTaskInfo,
             Executor executor,
@@ -102,6 +106,7 @@ public class TaskInfoFetcher
         this.taskInfo = new StateMachine<>("task " + taskId, executor, initialTask);
         this.finalTaskInfo = new StateMachine<>("task-" + taskId, executor, Optional.empty());
         this.taskInfoCodec = requireNonNull(taskInfoCodec, "taskInfoCodec is null");
+        this.taskInfoSmileCodec = requireNonNull(taskInfoSmileCodec, "taskInfoSmileCodec is null");
 
         this.updateIntervalMillis = requireNonNull(updateInterval, "updateInterval is null").toMillis();
         this.updateScheduledExecutor = requireNonNull(updateScheduledExecutor, "updateScheduledExecutor is null");
@@ -202,17 +207,32 @@ public class TaskInfoFetcher
 
         HttpUriBuilder httpUriBuilder = uriBuilderFrom(taskStatus.getSelf());
         URI uri = summarizeTaskInfo ? httpUriBuilder.addParameter("summarize").build() : httpUriBuilder.build();
-        Request request = prepareGet()
+        Request.Builder requestBuilder = prepareGet()
                 .setUri(uri)
-                .setHeader(CONTENT_TYPE, JSON_UTF_8.toString())
-                .build();
+                .setHeader(CONTENT_TYPE, JSON_UTF_8.toString());
+        if (taskInfoSmileCodec.isPresent()) {
+            requestBuilder.setHeader(ACCEPT, JACKSON_SMILE);
+        }
+        Request request = requestBuilder.build();
 
         errorTracker.startRequest();
-        future = httpClient.executeAsync(request, createFullJsonResponseHandler(taskInfoCodec));
+        future = httpClient.executeAsync(request, createFullSmileResponseHandler(taskInfoCodec, taskInfoSmileCodec, stats.getInfoResponseBytes(), stats.getResponseDecodeTime()));
         currentRequestStartNanos.set(System.nanoTime());
         Futures.addCallback(future, new SimpleHttpResponseHandler<>(this, request.getUri(), stats), executor);
     }
 
+    /**
+     * Updates the task status of the current task info, keeping the stats from the last full fetch.
+     * A terminal status is ignored, as the final task info must carry the final stats.
+     */
+    synchronized void updateTaskStatus(TaskStatus newValue)
+    {
+        if (newValue.getState().isDone()) {
+            return;
+        }
+        updateTaskInfo(getTaskInfo().withTaskStatus(newValue));
+    }
+
     synchronized void updateTaskInfo(TaskInfo newValue)
     {
         boolean updated = taskInfo.setIf(newValue, oldValue -> {
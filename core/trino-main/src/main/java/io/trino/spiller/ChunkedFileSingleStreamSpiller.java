@@ -0,0 +1,326 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.trino.execution.buffer.PagesSerde;
+import io.trino.execution.buffer.SerializedPage;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.operator.SpillContext;
+import io.trino.spi.Page;
+import io.trino.spi.TrinoException;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.trino.execution.buffer.PagesSerdeUtil.readPages;
+import static io.trino.execution.buffer.PagesSerdeUtil.writeSerializedPage;
+import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static io.trino.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_PREFIX;
+import static io.trino.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_SUFFIX;
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.emptyIterator;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Spills pages into chunks of about {@code chunkSize} bytes, each starting at an offset aligned
+ * to {@link #CHUNK_ALIGNMENT}. A chunk holds pages serialized by {@link PagesSerde}, so every page
+ * is compressed or left as is depending on how well it compresses. The offsets and lengths of the
+ * chunks are the index of the file and are kept in memory. When reading, up to {@code readAheadChunks}
+ * chunks following the one being deserialized are read in the background with positional reads,
+ * so that consumers merging spilled pages are not blocked on the disk.
+ */
+@NotThreadSafe
+public class ChunkedFileSingleStreamSpiller
+        implements SingleStreamSpiller
+{
+    @VisibleForTesting
+    static final int CHUNK_ALIGNMENT = 4 * 1024;
+
+    private final FileHolder targetFile;
+    private final FileChannel channel;
+    private final Closer closer = Closer.create();
+    private final PagesSerde serde;
+    private final SpillerStats spillerStats;
+    private final SpillContext localSpillContext;
+    private final LocalMemoryContext memoryContext;
+    private final int chunkSize;
+    private final int readAheadChunks;
+
+    private final ListeningExecutorService executor;
+
+    // index of the file, modified only by the spilling thread
+    private final LongArrayList chunkOffsets = new LongArrayList();
+    private final IntArrayList chunkLengths = new IntArrayList();
+    private long fileSize;
+
+    private boolean writable = true;
+    private long spilledPagesInMemorySize;
+    private ListenableFuture<?> spillInProgress = Futures.immediateFuture(null);
+    private ChunkReader reader;
+
+    private final Runnable fileSystemErrorHandler;
+
+    public ChunkedFileSingleStreamSpiller(
+            PagesSerde serde,
+            ListeningExecutorService executor,
+            Path spillPath,
+            SpillerStats spillerStats,
+            SpillContext spillContext,
+            LocalMemoryContext memoryContext,
+            Optional<SpillCipher> spillCipher,
+            int chunkSize,
+            int readAheadChunks,
+            Runnable fileSystemErrorHandler)
+    {
+        this.serde = requireNonNull(serde, "serde is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        this.spillerStats = requireNonNull(spillerStats, "spillerStats is null");
+        this.localSpillContext = spillContext.newLocalSpillContext();
+        this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
+        checkArgument(chunkSize > 0, "chunkSize must be positive");
+        checkArgument(readAheadChunks >= 0, "readAheadChunks is negative");
+        this.chunkSize = chunkSize;
+        this.readAheadChunks = readAheadChunks;
+        if (requireNonNull(spillCipher, "spillCipher is null").isPresent()) {
+            closer.register(spillCipher.get()::close);
+        }
+        // Like in FileSingleStreamSpiller, the memory of the chunk buffer is reserved up front and released
+        // in close(), since writePages() can still run in the spiller thread when close() is called.
+        this.memoryContext.setBytes(chunkSize);
+        this.fileSystemErrorHandler = requireNonNull(fileSystemErrorHandler, "filesystemErrorHandler is null");
+        try {
+            this.targetFile = closer.register(new FileHolder(Files.createTempFile(spillPath, SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX)));
+            this.channel = closer.register(targetFile.newFileChannel(READ, WRITE));
+        }
+        catch (IOException e) {
+            this.fileSystemErrorHandler.run();
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to create spill file", e);
+        }
+    }
+
+    @Override
+    public ListenableFuture<?> spill(Iterator<Page> pageIterator)
+    {
+        requireNonNull(pageIterator, "pageIterator is null");
+        checkNoSpillInProgress();
+        spillInProgress = executor.submit(() -> writePages(pageIterator));
+        return spillInProgress;
+    }
+
+    @Override
+    public long getSpilledPagesInMemorySize()
+    {
+        return spilledPagesInMemorySize;
+    }
+
+    @Override
+    public Iterator<Page> getSpilledPages()
+    {
+        checkNoSpillInProgress();
+        startReading();
+        // chunks being read ahead and the chunk being deserialized
+        memoryContext.setBytes((long) chunkSize * (readAheadChunks + 1));
+        reader = new ChunkReader();
+        return reader;
+    }
+
+    @Override
+    public ListenableFuture<List<Page>> getAllSpilledPages()
+    {
+        checkNoSpillInProgress();
+        startReading();
+        // chunks are read in the calling task rather than ahead, as read ahead tasks could wait for a thread of the same executor
+        return executor.submit(() -> {
+            ImmutableList.Builder<Page> pages = ImmutableList.builder();
+            for (int chunk = 0; chunk < chunkOffsets.size(); chunk++) {
+                readPages(serde, readChunk(chunk).getInput()).forEachRemaining(pages::add);
+            }
+            return pages.build();
+        });
+    }
+
+    private void writePages(Iterator<Page> pageIterator)
+    {
+        checkState(writable, "Spilling no longer allowed. The spiller has been made non-writable on first read for subsequent reads to be consistent");
+        DynamicSliceOutput chunk = new DynamicSliceOutput(chunkSize);
+        try (PagesSerde.PagesSerdeContext context = serde.newContext()) {
+            while (pageIterator.hasNext()) {
+                Page page = pageIterator.next();
+                spilledPagesInMemorySize += page.getSizeInBytes();
+                SerializedPage serializedPage = serde.serialize(context, page);
+                long pageSize = serializedPage.getSizeInBytes();
+                localSpillContext.updateBytes(pageSize);
+                spillerStats.addToTotalSpilledBytes(pageSize);
+                writeSerializedPage(chunk, serializedPage);
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk.slice());
+                    chunk.reset();
+                }
+            }
+            if (chunk.size() > 0) {
+                writeChunk(chunk.slice());
+            }
+        }
+        catch (UncheckedIOException | IOException e) {
+            fileSystemErrorHandler.run();
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to spill pages", e);
+        }
+    }
+
+    private void writeChunk(Slice chunk)
+            throws IOException
+    {
+        ByteBuffer buffer = chunk.toByteBuffer();
+        long offset = fileSize;
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        chunkOffsets.add(offset);
+        chunkLengths.add(chunk.length());
+        // the gap up to the next aligned offset is never written
+        fileSize = alignedOffset(offset + chunk.length());
+    }
+
+    private Slice readChunk(int chunk)
+    {
+        long offset = chunkOffsets.getLong(chunk);
+        ByteBuffer buffer = ByteBuffer.allocate(chunkLengths.getInt(chunk));
+        try {
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new EOFException(format("Spill file ended before chunk %s at offset %s", chunk, offset));
+                }
+                position += read;
+            }
+        }
+        catch (IOException e) {
+            // reads ahead fail once the spiller is closed, which is not a file system error
+            if (channel.isOpen()) {
+                fileSystemErrorHandler.run();
+            }
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to read spilled pages", e);
+        }
+        return Slices.wrappedBuffer(buffer.array());
+    }
+
+    private void startReading()
+    {
+        checkState(writable, "Repeated reads are disallowed to prevent potential resource leaks");
+        writable = false;
+    }
+
+    @Override
+    public void close()
+    {
+        if (reader != null) {
+            reader.cancelReadAhead();
+        }
+        closer.register(localSpillContext);
+        closer.register(() -> memoryContext.setBytes(0));
+        try {
+            closer.close();
+        }
+        catch (IOException e) {
+            fileSystemErrorHandler.run();
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to close spiller", e);
+        }
+    }
+
+    private void checkNoSpillInProgress()
+    {
+        checkState(spillInProgress.isDone(), "spill in progress");
+    }
+
+    private static long alignedOffset(long offset)
+    {
+        return (offset + CHUNK_ALIGNMENT - 1) & -CHUNK_ALIGNMENT;
+    }
+
+    private class ChunkReader
+            extends AbstractIterator<Page>
+    {
+        private final Deque<ListenableFuture<Slice>> readAhead = new ArrayDeque<>();
+        private int nextChunk;
+        private Iterator<Page> pages = emptyIterator();
+
+        @Override
+        protected Page computeNext()
+        {
+            while (!pages.hasNext()) {
+                Slice chunk;
+                ListenableFuture<Slice> nextRead = readAhead.poll();
+                if (nextRead != null) {
+                    scheduleReadAhead();
+                    chunk = getFutureValue(nextRead);
+                }
+                else if (nextChunk < chunkOffsets.size()) {
+                    int chunkToRead = nextChunk++;
+                    scheduleReadAhead();
+                    chunk = readChunk(chunkToRead);
+                }
+                else {
+                    return endOfData();
+                }
+                pages = readPages(serde, chunk.getInput());
+            }
+            return pages.next();
+        }
+
+        private void scheduleReadAhead()
+        {
+            while (readAhead.size() < readAheadChunks && nextChunk < chunkOffsets.size()) {
+                int chunk = nextChunk++;
+                readAhead.add(executor.submit(() -> readChunk(chunk)));
+            }
+        }
+
+        private void cancelReadAhead()
+        {
+            readAhead.forEach(read -> read.cancel(false));
+            readAhead.clear();
+        }
+    }
+}
@@ -21,6 +21,8 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.inject.Inject;
 import io.airlift.log.Logger;
+import io.airlift.units.DataSize;
+import io.trino.execution.buffer.CompressionCodec;
 import io.trino.execution.buffer.PagesSerde;
 import io.trino.execution.buffer.PagesSerdeFactory;
 import io.trino.memory.context.LocalMemoryContext;
@@ -44,8 +46,11 @@ import java.util.Optional;
 
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.trino.execution.buffer.CompressionCodec.LZ4;
+import static io.trino.execution.buffer.CompressionCodec.NONE;
 import static io.trino.spi.StandardErrorCode.OUT_OF_SPILL_SPACE;
 import static io.trino.sql.analyzer.FeaturesConfig.SPILLER_SPILL_PATH;
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.createTempFile;
@@ -77,6 +82,9 @@ public class FileSingleStreamSpillerFactory
     private final SpillerStats spillerStats;
     private final double maxUsedSpaceThreshold;
     private final boolean spillEncryptionEnabled;
+    private final boolean spillChunkedFormatEnabled;
+    private final int spillChunkSize;
+    private final int spillReadAheadChunks;
     private int roundRobinIndex;
     private final LoadingCache<Path, Boolean> spillPathHealthCache;
 
@@ -91,8 +99,11 @@ public class FileSingleStreamSpillerFactory
                 spillerStats,
                 requireNonNull(featuresConfig, "featuresConfig is null").getSpillerSpillPaths(),
                 requireNonNull(featuresConfig, "featuresConfig is null").getSpillMaxUsedSpaceThreshold(),
-                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillCompressionEnabled(),
-                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillEncryptionEnabled());
+                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillCompressionEnabled() ? nodeSpillConfig.getSpillCompressionCodec() : NONE,
+                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillEncryptionEnabled(),
+                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillChunkedFormatEnabled(),
+                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").getSpillChunkSize(),
+                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").getSpillReadAheadChunks());
     }
 
     @VisibleForTesting
@@ -105,7 +116,33 @@ public class FileSingleStreamSpillerFactory
             boolean spillCompressionEnabled,
             boolean spillEncryptionEnabled)
     {
-        this.serdeFactory = new PagesSerdeFactory(blockEncodingSerde, spillCompressionEnabled);
+        this(
+                executor,
+                blockEncodingSerde,
+                spillerStats,
+                spillPaths,
+                maxUsedSpaceThreshold,
+                spillCompressionEnabled ? LZ4 : NONE,
+                spillEncryptionEnabled,
+                false,
+                DataSize.of(1, DataSize.Unit.MEGABYTE),
+                0);
+    }
+
+    @VisibleForTesting
+    public FileSingleStreamSpillerFactory(
+            ListeningExecutorService executor,
+            BlockEncodingSerde blockEncodingSerde,
+            SpillerStats spillerStats,
+            List<Path> spillPaths,
+            double maxUsedSpaceThreshold,
+            CompressionCodec spillCompressionCodec,
+            boolean spillEncryptionEnabled,
+            boolean spillChunkedFormatEnabled,
+            DataSize spillChunkSize,
+            int spillReadAheadChunks)
+    {
+        this.serdeFactory = new PagesSerdeFactory(blockEncodingSerde, spillCompressionCodec, false);
         this.executor = requireNonNull(executor, "executor is null");
         this.spillerStats = requireNonNull(spillerStats, "spillerStats cannot be null");
         requireNonNull(spillPaths, "spillPaths is null");
@@ -123,6 +160,9 @@ public class FileSingleStreamSpillerFactory
         });
         this.maxUsedSpaceThreshold = maxUsedSpaceThreshold;
         this.spillEncryptionEnabled = spillEncryptionEnabled;
+        this.spillChunkedFormatEnabled = spillChunkedFormatEnabled;
+        this.spillChunkSize = toIntExact(requireNonNull(spillChunkSize, "spillChunkSize is null").toBytes());
+        this.spillReadAheadChunks = spillReadAheadChunks;
         this.roundRobinIndex = 0;
 
         this.spillPathHealthCache = CacheBuilder.newBuilder()
@@ -168,6 +208,19 @@ public class FileSingleStreamSpillerFactory
             spillCipher = Optional.of(new AesSpillCipher());
         }
         PagesSerde serde = serdeFactory.createPagesSerdeForSpill(spillCipher);
+        if (spillChunkedFormatEnabled) {
+            return new ChunkedFileSingleStreamSpiller(
+                    serde,
+                    executor,
+                    getNextSpillPath(),
+                    spillerStats,
+                    spillContext,
+                    memoryContext,
+                    spillCipher,
+                    spillChunkSize,
+                    spillReadAheadChunks,
+                    spillPathHealthCache::invalidateAll);
+        }
         return new FileSingleStreamSpiller(
                 serde,
                 executor,
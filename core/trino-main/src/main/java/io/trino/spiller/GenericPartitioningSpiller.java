@@ -41,6 +41,7 @@ import java.util.function.Predicate;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static java.util.Objects.requireNonNull;
 
@@ -98,6 +99,16 @@ public class GenericPartitioningSpiller
         return getSpiller(partition).getSpilledPages();
     }
 
+    @Override
+    public synchronized ListenableFuture<List<Page>> getAllSpilledPages(int partition)
+    {
+        readingStarted = true;
+        spilledPartitions.remove(partition);
+        SingleStreamSpiller spiller = getSpiller(partition);
+        // the last buffer is flushed asynchronously, before the pages are read
+        return Futures.transformAsync(flush(partition), ignored -> spiller.getAllSpilledPages(), directExecutor());
+    }
+
     @Override
     public synchronized void verifyAllPartitionsRead()
     {
@@ -14,9 +14,14 @@
 package io.trino.spiller;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.configuration.LegacyConfig;
 import io.airlift.units.DataSize;
+import io.airlift.units.MaxDataSize;
+import io.airlift.units.MinDataSize;
+import io.trino.execution.buffer.CompressionCodec;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 public class NodeSpillConfig
@@ -25,8 +30,13 @@ public class NodeSpillConfig
     private DataSize queryMaxSpillPerNode = DataSize.of(100, DataSize.Unit.GIGABYTE);
 
     private boolean spillCompressionEnabled;
+    private CompressionCodec spillCompressionCodec = CompressionCodec.LZ4;
     private boolean spillEncryptionEnabled;
 
+    private boolean spillChunkedFormatEnabled;
+    private DataSize spillChunkSize = DataSize.of(1, DataSize.Unit.MEGABYTE);
+    private int spillReadAheadChunks = 2;
+
     @NotNull
     public DataSize getMaxSpillPerNode()
     {
@@ -68,6 +78,20 @@ public class NodeSpillConfig
         return this;
     }
 
+    @NotNull
+    public CompressionCodec getSpillCompressionCodec()
+    {
+        return spillCompressionCodec;
+    }
+
+    @Config("spill-compression-codec")
+    @ConfigDescription("Codec used to compress spilled pages when spill compression is enabled")
+    public NodeSpillConfig setSpillCompressionCodec(CompressionCodec spillCompressionCodec)
+    {
+        this.spillCompressionCodec = spillCompressionCodec;
+        return this;
+    }
+
     public boolean isSpillEncryptionEnabled()
     {
         return spillEncryptionEnabled;
@@ -80,4 +104,44 @@ public class NodeSpillConfig
         this.spillEncryptionEnabled = spillEncryptionEnabled;
         return this;
     }
+
+    public boolean isSpillChunkedFormatEnabled()
+    {
+        return spillChunkedFormatEnabled;
+    }
+
+    @Config("spill-chunked-format-enabled")
+    public NodeSpillConfig setSpillChunkedFormatEnabled(boolean spillChunkedFormatEnabled)
+    {
+        this.spillChunkedFormatEnabled = spillChunkedFormatEnabled;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("4kB")
+    @MaxDataSize("64MB")
+    public DataSize getSpillChunkSize()
+    {
+        return spillChunkSize;
+    }
+
+    @Config("spill-chunk-size")
+    public NodeSpillConfig setSpillChunkSize(DataSize spillChunkSize)
+    {
+        this.spillChunkSize = spillChunkSize;
+        return this;
+    }
+
+    @Min(0)
+    public int getSpillReadAheadChunks()
+    {
+        return spillReadAheadChunks;
+    }
+
+    @Config("spill-read-ahead-chunks")
+    public NodeSpillConfig setSpillReadAheadChunks(int spillReadAheadChunks)
+    {
+        this.spillReadAheadChunks = spillReadAheadChunks;
+        return this;
+    }
 }
@@ -0,0 +1,171 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.split;
+
+import io.airlift.log.Logger;
+import io.trino.spi.Page;
+import io.trino.spi.connector.ConnectorPageSource;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Page source which reads the pages of a page source that blocks on I/O, like a record cursor
+ * reading from a remote database, on a separate executor. The driver is blocked while a page
+ * is read, so that the thread running the driver can process other splits. The next page is
+ * read while the driver processes the current one.
+ */
+@ThreadSafe
+public class AsyncPageSource
+        implements ConnectorPageSource
+{
+    private static final Logger log = Logger.get(AsyncPageSource.class);
+
+    private final ConnectorPageSource delegate;
+    private final Executor executor;
+
+    // page which is read by the executor, it is null when no page is read
+    @GuardedBy("this")
+    private CompletableFuture<Page> nextPage;
+    @GuardedBy("this")
+    private boolean closed;
+
+    // the delegate is only accessed by the executor, so its state is published after every page
+    private volatile boolean delegateFinished;
+    private volatile long completedBytes;
+    private volatile long readTimeNanos;
+    private volatile long systemMemoryUsage;
+
+    public AsyncPageSource(ConnectorPageSource delegate, Executor executor)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.executor = requireNonNull(executor, "executor is null");
+    }
+
+    @Override
+    public synchronized CompletableFuture<?> isBlocked()
+    {
+        if (nextPage == null) {
+            startReading();
+        }
+        if (nextPage == null || nextPage.isDone()) {
+            return NOT_BLOCKED;
+        }
+        return nextPage;
+    }
+
+    @Override
+    public synchronized Page getNextPage()
+    {
+        if (nextPage == null) {
+            startReading();
+            return null;
+        }
+        if (!nextPage.isDone()) {
+            return null;
+        }
+        Page page = getFutureValue(nextPage);
+        nextPage = null;
+        startReading();
+        return page;
+    }
+
+    @GuardedBy("this")
+    private void startReading()
+    {
+        if (closed || delegateFinished) {
+            return;
+        }
+        nextPage = CompletableFuture.supplyAsync(this::readPage, executor);
+    }
+
+    private Page readPage()
+    {
+        try {
+            return delegate.getNextPage();
+        }
+        finally {
+            delegateFinished = delegate.isFinished();
+            completedBytes = delegate.getCompletedBytes();
+            readTimeNanos = delegate.getReadTimeNanos();
+            systemMemoryUsage = delegate.getSystemMemoryUsage();
+        }
+    }
+
+    @Override
+    public synchronized boolean isFinished()
+    {
+        return nextPage == null && delegateFinished;
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return completedBytes;
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return readTimeNanos;
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return systemMemoryUsage;
+    }
+
+    @Override
+    public synchronized void close()
+            throws IOException
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (nextPage == null || nextPage.isDone()) {
+            delegate.close();
+            return;
+        }
+        // the delegate is closed once the page being read is done, since it is not thread safe
+        nextPage.whenComplete((page, throwable) -> closeDelegate());
+    }
+
+    private void closeDelegate()
+    {
+        try {
+            delegate.close();
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn(e, "Error closing page source %s", delegate);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("delegate", delegate)
+                .toString();
+    }
+}
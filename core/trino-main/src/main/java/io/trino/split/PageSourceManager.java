@@ -13,8 +13,10 @@
  */
 package io.trino.split;
 
+import io.airlift.concurrent.BoundedExecutor;
 import io.trino.Session;
 import io.trino.connector.CatalogName;
+import io.trino.execution.TaskManagerConfig;
 import io.trino.metadata.Split;
 import io.trino.metadata.TableHandle;
 import io.trino.spi.connector.ColumnHandle;
@@ -22,20 +24,53 @@ import io.trino.spi.connector.ConnectorPageSource;
 import io.trino.spi.connector.ConnectorPageSourceProvider;
 import io.trino.spi.connector.DynamicFilter;
 import io.trino.spi.connector.EmptyPageSource;
+import io.trino.spi.connector.RecordPageSource;
 import io.trino.spi.predicate.TupleDomain;
 
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.trino.SystemSessionProperties.isOffloadBlockingPageSources;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 
 public class PageSourceManager
         implements PageSourceProvider
 {
     private final ConcurrentMap<CatalogName, ConnectorPageSourceProvider> pageSourceProviders = new ConcurrentHashMap<>();
+    private final Optional<ExecutorService> blockingPageSourceCoreExecutor;
+    // reads the pages of the page sources which block on I/O
+    private final Optional<Executor> blockingPageSourceExecutor;
+
+    public PageSourceManager()
+    {
+        this.blockingPageSourceCoreExecutor = Optional.empty();
+        this.blockingPageSourceExecutor = Optional.empty();
+    }
+
+    @Inject
+    public PageSourceManager(TaskManagerConfig config)
+    {
+        ExecutorService coreExecutor = newCachedThreadPool(daemonThreadsNamed("blocking-page-source-%s"));
+        this.blockingPageSourceCoreExecutor = Optional.of(coreExecutor);
+        this.blockingPageSourceExecutor = Optional.of(new BoundedExecutor(coreExecutor, config.getBlockingPageSourceThreads()));
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        blockingPageSourceCoreExecutor.ifPresent(ExecutorService::shutdownNow);
+    }
 
     public void addConnectorPageSourceProvider(CatalogName catalogName, ConnectorPageSourceProvider pageSourceProvider)
     {
@@ -61,13 +96,20 @@ public class PageSourceManager
         if (constraint.isNone()) {
             return new EmptyPageSource();
         }
-        return provider.createPageSource(
+        ConnectorPageSource pageSource = provider.createPageSource(
                 table.getTransaction(),
                 session.toConnectorSession(catalogName),
                 split.getConnectorSplit(),
                 table.getConnectorHandle(),
                 columns,
                 dynamicFilter);
+        // record cursors of connectors block on I/O, while the page sources read data lazily when the blocks are loaded.
+        // The cursor is then read into pages by the executor, so the rows are filtered and projected by the page processor
+        // rather than by the cursor processor of ScanFilterAndProjectOperator.
+        if (pageSource instanceof RecordPageSource && blockingPageSourceExecutor.isPresent() && isOffloadBlockingPageSources(session)) {
+            return new AsyncPageSource(pageSource, blockingPageSourceExecutor.get());
+        }
+        return pageSource;
     }
 
     private ConnectorPageSourceProvider getPageSourceProvider(CatalogName catalogName)
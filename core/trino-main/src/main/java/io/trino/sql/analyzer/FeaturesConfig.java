@@ -23,6 +23,7 @@ import io.airlift.configuration.LegacyConfig;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.airlift.units.MaxDataSize;
+import io.trino.execution.buffer.CompressionCodec;
 
 import javax.validation.constraints.DecimalMax;
 import javax.validation.constraints.DecimalMin;
@@ -93,6 +94,7 @@ public class FeaturesConfig
     private boolean unwrapCasts = true;
     private boolean forceSingleNodeOutput = true;
     private boolean pagesIndexEagerCompactionEnabled;
+    private boolean pagesIndexRadixSortEnabled = true;
     private boolean distributedSort = true;
     private boolean omitDateTimeTypePrecision;
     private int maxRecursionDepth = 10;
@@ -137,6 +139,16 @@ public class FeaturesConfig
     private DataSize filterAndProjectMinOutputPageSize = DataSize.of(500, KILOBYTE);
     private int filterAndProjectMinOutputPageRowCount = 256;
     private int maxGroupingSets = 2048;
+    private boolean adaptivePartialAggregationEnabled = true;
+    private long adaptivePartialAggregationMinRows = 100_000;
+    private double adaptivePartialAggregationUniqueRowsRatioThreshold = 0.8;
+    private boolean flatGroupByHashEnabled;
+    private boolean adaptiveJoinDistributionEnabled;
+    private DataSize joinOperatorUnspillMemoryLimit = DataSize.of(256, DataSize.Unit.MEGABYTE);
+    private CompressionCodec exchangeCompressionCodec = CompressionCodec.LZ4;
+    private boolean exchangeAdaptiveCompressionEnabled;
+    private boolean exchangeSpoolingEnabled;
+    private int exchangeTaskRetryAttempts = 3;
 
     public enum JoinReorderingStrategy
     {
@@ -860,6 +872,19 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isPagesIndexRadixSortEnabled()
+    {
+        return pagesIndexRadixSortEnabled;
+    }
+
+    @Config("pages-index.radix-sort-enabled")
+    @ConfigDescription("Sort fixed-width leading sort keys of pages indexes with a radix sort")
+    public FeaturesConfig setPagesIndexRadixSortEnabled(boolean pagesIndexRadixSortEnabled)
+    {
+        this.pagesIndexRadixSortEnabled = pagesIndexRadixSortEnabled;
+        return this;
+    }
+
     @MaxDataSize("1MB")
     public DataSize getFilterAndProjectMinOutputPageSize()
     {
@@ -1049,4 +1074,139 @@ public class FeaturesConfig
         this.tableScanNodePartitioningMinBucketToTaskRatio = tableScanNodePartitioningMinBucketToTaskRatio;
         return this;
     }
+
+    public boolean isAdaptivePartialAggregationEnabled()
+    {
+        return adaptivePartialAggregationEnabled;
+    }
+
+    @Config("adaptive-partial-aggregation.enabled")
+    @ConfigDescription("Disable partial aggregation at runtime when it does not reduce the number of rows enough")
+    public FeaturesConfig setAdaptivePartialAggregationEnabled(boolean adaptivePartialAggregationEnabled)
+    {
+        this.adaptivePartialAggregationEnabled = adaptivePartialAggregationEnabled;
+        return this;
+    }
+
+    @Min(0)
+    public long getAdaptivePartialAggregationMinRows()
+    {
+        return adaptivePartialAggregationMinRows;
+    }
+
+    @Config("adaptive-partial-aggregation.min-rows")
+    @ConfigDescription("Minimum number of processed rows before partial aggregation might be adaptively turned off")
+    public FeaturesConfig setAdaptivePartialAggregationMinRows(long adaptivePartialAggregationMinRows)
+    {
+        this.adaptivePartialAggregationMinRows = adaptivePartialAggregationMinRows;
+        return this;
+    }
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    public double getAdaptivePartialAggregationUniqueRowsRatioThreshold()
+    {
+        return adaptivePartialAggregationUniqueRowsRatioThreshold;
+    }
+
+    @Config("adaptive-partial-aggregation.unique-rows-ratio-threshold")
+    @ConfigDescription("Ratio between aggregation output and input rows above which partial aggregation might be adaptively turned off")
+    public FeaturesConfig setAdaptivePartialAggregationUniqueRowsRatioThreshold(double adaptivePartialAggregationUniqueRowsRatioThreshold)
+    {
+        this.adaptivePartialAggregationUniqueRowsRatioThreshold = adaptivePartialAggregationUniqueRowsRatioThreshold;
+        return this;
+    }
+
+    public boolean isFlatGroupByHashEnabled()
+    {
+        return flatGroupByHashEnabled;
+    }
+
+    @Config("flat-group-by-hash.enabled")
+    @ConfigDescription("Use row oriented hash table for group by keys of supported types")
+    public FeaturesConfig setFlatGroupByHashEnabled(boolean flatGroupByHashEnabled)
+    {
+        this.flatGroupByHashEnabled = flatGroupByHashEnabled;
+        return this;
+    }
+
+    public boolean isAdaptiveJoinDistributionEnabled()
+    {
+        return adaptiveJoinDistributionEnabled;
+    }
+
+    @Config("adaptive-join-distribution.enabled")
+    @ConfigDescription("Use the build side size observed in previous queries as a hint to choose join distribution")
+    public FeaturesConfig setAdaptiveJoinDistributionEnabled(boolean adaptiveJoinDistributionEnabled)
+    {
+        this.adaptiveJoinDistributionEnabled = adaptiveJoinDistributionEnabled;
+        return this;
+    }
+
+    public DataSize getJoinOperatorUnspillMemoryLimit()
+    {
+        return joinOperatorUnspillMemoryLimit;
+    }
+
+    @Config("join-operator-unspill-memory-limit")
+    @ConfigDescription("Spilled join build partitions larger than this are split into sub-partitions before they are unspilled")
+    public FeaturesConfig setJoinOperatorUnspillMemoryLimit(DataSize joinOperatorUnspillMemoryLimit)
+    {
+        this.joinOperatorUnspillMemoryLimit = joinOperatorUnspillMemoryLimit;
+        return this;
+    }
+
+    @NotNull
+    public CompressionCodec getExchangeCompressionCodec()
+    {
+        return exchangeCompressionCodec;
+    }
+
+    @Config("exchange.compression-codec")
+    @ConfigDescription("Codec used to compress exchanged pages when exchange compression is enabled")
+    public FeaturesConfig setExchangeCompressionCodec(CompressionCodec exchangeCompressionCodec)
+    {
+        this.exchangeCompressionCodec = exchangeCompressionCodec;
+        return this;
+    }
+
+    public boolean isExchangeAdaptiveCompressionEnabled()
+    {
+        return exchangeAdaptiveCompressionEnabled;
+    }
+
+    @Config("exchange.adaptive-compression-enabled")
+    @ConfigDescription("Skip compressing exchanged pages with block encodings which did not compress recently")
+    public FeaturesConfig setExchangeAdaptiveCompressionEnabled(boolean exchangeAdaptiveCompressionEnabled)
+    {
+        this.exchangeAdaptiveCompressionEnabled = exchangeAdaptiveCompressionEnabled;
+        return this;
+    }
+
+    public boolean isExchangeSpoolingEnabled()
+    {
+        return exchangeSpoolingEnabled;
+    }
+
+    @Config("exchange.spooling-enabled")
+    @ConfigDescription("Write the output of intermediate stages to the exchange spool, so that failed tasks can be retried")
+    public FeaturesConfig setExchangeSpoolingEnabled(boolean exchangeSpoolingEnabled)
+    {
+        this.exchangeSpoolingEnabled = exchangeSpoolingEnabled;
+        return this;
+    }
+
+    @Min(0)
+    public int getExchangeTaskRetryAttempts()
+    {
+        return exchangeTaskRetryAttempts;
+    }
+
+    @Config("exchange.task-retry-attempts")
+    @ConfigDescription("Number of times a failed task of a stage with spooled output is retried")
+    public FeaturesConfig setExchangeTaskRetryAttempts(int exchangeTaskRetryAttempts)
+    {
+        this.exchangeTaskRetryAttempts = exchangeTaskRetryAttempts;
+        return this;
+    }
 }
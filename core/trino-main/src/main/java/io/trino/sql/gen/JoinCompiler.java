@@ -34,6 +34,9 @@ import io.airlift.bytecode.expression.BytecodeExpressions;
 import io.airlift.bytecode.instruction.LabelNode;
 import io.airlift.jmx.CacheStatsMBean;
 import io.trino.Session;
+import io.trino.operator.BigintJoinHash;
+import io.trino.operator.BigintJoinHashSupplier;
+import io.trino.operator.BigintPagesHash;
 import io.trino.operator.JoinHash;
 import io.trino.operator.JoinHashSupplier;
 import io.trino.operator.LookupSourceSupplier;
@@ -63,6 +66,7 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.stream.IntStream;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.bytecode.Access.FINAL;
 import static io.airlift.bytecode.Access.PRIVATE;
@@ -164,6 +168,21 @@ public class JoinCompiler
     {
         Class<? extends PagesHashStrategy> pagesHashStrategyClass = internalCompileHashStrategy(types, outputChannels, joinChannels, sortChannel);
 
+        if (joinChannels.size() == 1 && BigintPagesHash.isSupportedJoinType(types.get(joinChannels.get(0)))) {
+            Class<? extends LookupSourceSupplier> bigintJoinHashSupplierClass = IsolatedClass.isolateClass(
+                    new DynamicClassLoader(getClass().getClassLoader()),
+                    LookupSourceSupplier.class,
+                    BigintJoinHashSupplier.class,
+                    BigintJoinHash.class,
+                    BigintPagesHash.class);
+
+            return new LookupSourceSupplierFactory(
+                    bigintJoinHashSupplierClass,
+                    new PagesHashStrategyFactory(pagesHashStrategyClass),
+                    Optional.of(joinChannels.get(0)),
+                    Optional.of(types.get(joinChannels.get(0))));
+        }
+
         Class<? extends LookupSourceSupplier> joinHashSupplierClass = IsolatedClass.isolateClass(
                 new DynamicClassLoader(getClass().getClassLoader()),
                 LookupSourceSupplier.class,
@@ -1014,12 +1033,32 @@ public class JoinCompiler
     {
         private final Constructor<? extends LookupSourceSupplier> constructor;
         private final PagesHashStrategyFactory pagesHashStrategyFactory;
+        // join channel and its type passed to suppliers specialized for a single join key
+        private final Optional<Integer> singleJoinChannel;
+        private final Optional<Type> singleJoinChannelType;
 
         public LookupSourceSupplierFactory(Class<? extends LookupSourceSupplier> joinHashSupplierClass, PagesHashStrategyFactory pagesHashStrategyFactory)
+        {
+            this(joinHashSupplierClass, pagesHashStrategyFactory, Optional.empty(), Optional.empty());
+        }
+
+        public LookupSourceSupplierFactory(
+                Class<? extends LookupSourceSupplier> joinHashSupplierClass,
+                PagesHashStrategyFactory pagesHashStrategyFactory,
+                Optional<Integer> singleJoinChannel,
+                Optional<Type> singleJoinChannelType)
         {
             this.pagesHashStrategyFactory = pagesHashStrategyFactory;
+            this.singleJoinChannel = requireNonNull(singleJoinChannel, "singleJoinChannel is null");
+            this.singleJoinChannelType = requireNonNull(singleJoinChannelType, "singleJoinChannelType is null");
+            checkArgument(singleJoinChannel.isPresent() == singleJoinChannelType.isPresent(), "singleJoinChannel and singleJoinChannelType must be both present or both absent");
             try {
-                constructor = joinHashSupplierClass.getConstructor(Session.class, PagesHashStrategy.class, LongArrayList.class, List.class, Optional.class, Optional.class, List.class);
+                if (singleJoinChannel.isPresent()) {
+                    constructor = joinHashSupplierClass.getConstructor(Session.class, PagesHashStrategy.class, LongArrayList.class, List.class, Optional.class, Optional.class, List.class, Integer.class, Type.class);
+                }
+                else {
+                    constructor = joinHashSupplierClass.getConstructor(Session.class, PagesHashStrategy.class, LongArrayList.class, List.class, Optional.class, Optional.class, List.class);
+                }
             }
             catch (NoSuchMethodException e) {
                 throw new RuntimeException(e);
@@ -1037,6 +1076,9 @@ public class JoinCompiler
         {
             PagesHashStrategy pagesHashStrategy = pagesHashStrategyFactory.createPagesHashStrategy(channels, hashChannel);
             try {
+                if (singleJoinChannel.isPresent()) {
+                    return constructor.newInstance(session, pagesHashStrategy, addresses, channels, filterFunctionFactory, sortChannel, searchFunctionFactories, singleJoinChannel.get(), singleJoinChannelType.get());
+                }
                 return constructor.newInstance(session, pagesHashStrategy, addresses, channels, filterFunctionFactory, sortChannel, searchFunctionFactories);
             }
             catch (ReflectiveOperationException e) {
@@ -83,6 +83,7 @@ import io.trino.operator.RowNumberOperator;
 import io.trino.operator.ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory;
 import io.trino.operator.SetBuilderOperator.SetBuilderOperatorFactory;
 import io.trino.operator.SetBuilderOperator.SetSupplier;
+import io.trino.operator.SkewedPartitionFunction;
 import io.trino.operator.SourceOperatorFactory;
 import io.trino.operator.SpatialIndexBuilderOperator.SpatialIndexBuilderOperatorFactory;
 import io.trino.operator.SpatialIndexBuilderOperator.SpatialPredicate;
@@ -104,6 +105,7 @@ import io.trino.operator.WorkProcessorPipelineSourceOperator;
 import io.trino.operator.aggregation.AccumulatorFactory;
 import io.trino.operator.aggregation.InternalAggregationFunction;
 import io.trino.operator.aggregation.LambdaProvider;
+import io.trino.operator.aggregation.partial.PartialAggregationController;
 import io.trino.operator.exchange.LocalExchange.LocalExchangeFactory;
 import io.trino.operator.exchange.LocalExchangeSinkOperator.LocalExchangeSinkOperatorFactory;
 import io.trino.operator.exchange.LocalExchangeSourceOperator.LocalExchangeSourceOperatorFactory;
@@ -218,6 +220,7 @@ import io.trino.sql.tree.Expression;
 import io.trino.sql.tree.FunctionCall;
 import io.trino.sql.tree.LambdaArgumentDeclaration;
 import io.trino.sql.tree.LambdaExpression;
+import io.trino.sql.tree.LongLiteral;
 import io.trino.sql.tree.NodeRef;
 import io.trino.sql.tree.SortItem.Ordering;
 import io.trino.sql.tree.SymbolReference;
@@ -236,6 +239,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
@@ -255,13 +259,18 @@ import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Range.closedOpen;
 import static io.airlift.concurrent.MoreFutures.addSuccessCallback;
+import static io.trino.SystemSessionProperties.getAdaptivePartialAggregationMinRows;
+import static io.trino.SystemSessionProperties.getAdaptivePartialAggregationUniqueRowsRatioThreshold;
 import static io.trino.SystemSessionProperties.getAggregationOperatorUnspillMemoryLimit;
+import static io.trino.SystemSessionProperties.getExchangeCompressionCodec;
 import static io.trino.SystemSessionProperties.getFilterAndProjectMinOutputPageRowCount;
 import static io.trino.SystemSessionProperties.getFilterAndProjectMinOutputPageSize;
+import static io.trino.SystemSessionProperties.getJoinOperatorUnspillMemoryLimit;
 import static io.trino.SystemSessionProperties.getTaskConcurrency;
 import static io.trino.SystemSessionProperties.getTaskWriterCount;
+import static io.trino.SystemSessionProperties.isAdaptivePartialAggregationEnabled;
 import static io.trino.SystemSessionProperties.isEnableLargeDynamicFilters;
-import static io.trino.SystemSessionProperties.isExchangeCompressionEnabled;
+import static io.trino.SystemSessionProperties.isExchangeAdaptiveCompressionEnabled;
 import static io.trino.SystemSessionProperties.isLateMaterializationEnabled;
 import static io.trino.SystemSessionProperties.isSpillEnabled;
 import static io.trino.SystemSessionProperties.isSpillOrderBy;
@@ -298,6 +307,7 @@ import static io.trino.sql.planner.SortExpressionExtractor.extractSortExpression
 import static io.trino.sql.planner.SystemPartitioningHandle.COORDINATOR_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_BROADCAST_DISTRIBUTION;
+import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.SCALED_WRITER_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
 import static io.trino.sql.planner.plan.AggregationNode.Step.FINAL;
@@ -470,6 +480,27 @@ public class LocalExecutionPlanner
         }
 
         PartitionFunction partitionFunction = nodePartitioningManager.getPartitionFunction(taskContext.getSession(), partitioningScheme, partitionChannelTypes);
+        if (partitioningScheme.getSkewedKeys().isPresent()) {
+            // the skewed key is passed to the partition function after the arguments of the underlying function
+            SkewedKeys skewedKeys = partitioningScheme.getSkewedKeys().get();
+            checkArgument(partitioningScheme.getPartitioning().getHandle().equals(FIXED_HASH_DISTRIBUTION), "Skewed keys require hash distribution");
+            partitionFunction = new SkewedPartitionFunction(
+                    partitionFunction,
+                    partitionChannels.size(),
+                    types.get(skewedKeys.getColumn()),
+                    skewedKeys.getValues().stream()
+                            .map(NullableValue::getValue)
+                            .collect(toImmutableList()),
+                    skewedKeys.isReplicated());
+            partitionChannels = ImmutableList.<Integer>builder()
+                    .addAll(partitionChannels)
+                    .add(outputLayout.indexOf(skewedKeys.getColumn()))
+                    .build();
+            partitionConstants = ImmutableList.<Optional<NullableValue>>builder()
+                    .addAll(partitionConstants)
+                    .add(Optional.empty())
+                    .build();
+        }
         OptionalInt nullChannel = OptionalInt.empty();
         Set<Symbol> partitioningColumns = partitioningScheme.getPartitioning().getColumns();
 
@@ -525,7 +556,7 @@ public class LocalExecutionPlanner
                                 plan.getId(),
                                 outputTypes,
                                 pagePreprocessor,
-                                new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session))),
+                                new PagesSerdeFactory(metadata.getBlockEncodingSerde(), getExchangeCompressionCodec(session), isExchangeAdaptiveCompressionEnabled(session))),
                         physicalOperation),
                 context.getDriverInstanceCount());
 
@@ -848,7 +879,7 @@ public class LocalExecutionPlanner
                     context.getNextOperatorId(),
                     node.getId(),
                     exchangeClientSupplier,
-                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session)),
+                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), getExchangeCompressionCodec(session), isExchangeAdaptiveCompressionEnabled(session)),
                     orderingCompiler,
                     types,
                     outputChannels,
@@ -868,7 +899,7 @@ public class LocalExecutionPlanner
                     context.getNextOperatorId(),
                     node.getId(),
                     exchangeClientSupplier,
-                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session)));
+                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), getExchangeCompressionCodec(session), isExchangeAdaptiveCompressionEnabled(session)));
 
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, UNGROUPED_EXECUTION);
         }
@@ -1048,7 +1079,9 @@ public class LocalExecutionPlanner
                         frameEndChannel,
                         sortKeyChannelForEndComparison,
                         sortKeyChannel,
-                        ordering);
+                        ordering,
+                        getConstantFrameOffset(frame.getOriginalStartValue()),
+                        getConstantFrameOffset(frame.getOriginalEndValue()));
 
                 WindowNode.Function function = entry.getValue();
                 ResolvedFunction resolvedFunction = function.getResolvedFunction();
@@ -1114,6 +1147,14 @@ public class LocalExecutionPlanner
             return new PhysicalOperation(operatorFactory, outputMappings.build(), context, source);
         }
 
+        private OptionalLong getConstantFrameOffset(Optional<Expression> frameOffset)
+        {
+            if (frameOffset.isPresent() && frameOffset.get() instanceof LongLiteral) {
+                return OptionalLong.of(((LongLiteral) frameOffset.get()).getValue());
+            }
+            return OptionalLong.empty();
+        }
+
         @Override
         public PhysicalOperation visitPatternRecognition(PatternRecognitionNode node, LocalExecutionPlanContext context)
         {
@@ -2518,7 +2559,9 @@ public class LocalExecutionPlanner
                     10_000,
                     pagesIndexFactory,
                     spillEnabled && partitionCount > 1,
-                    singleStreamSpillerFactory);
+                    singleStreamSpillerFactory,
+                    partitioningSpillerFactory,
+                    getJoinOperatorUnspillMemoryLimit(session));
 
             context.addDriverFactory(
                     buildContext.isInputDriver(),
@@ -3433,6 +3476,12 @@ public class LocalExecutionPlanner
             }
             else {
                 Optional<Integer> hashChannel = hashSymbol.map(channelGetter(source));
+                Optional<PartialAggregationController> partialAggregationController = Optional.empty();
+                if (step == Step.PARTIAL && isAdaptivePartialAggregationEnabled(session)) {
+                    partialAggregationController = Optional.of(new PartialAggregationController(
+                            getAdaptivePartialAggregationMinRows(session),
+                            getAdaptivePartialAggregationUniqueRowsRatioThreshold(session)));
+                }
                 return new HashAggregationOperatorFactory(
                         context.getNextOperatorId(),
                         planNodeId,
@@ -3451,7 +3500,8 @@ public class LocalExecutionPlanner
                         spillerFactory,
                         joinCompiler,
                         blockTypeOperators,
-                        useSystemMemory);
+                        useSystemMemory,
+                        partialAggregationController);
             }
         }
     }
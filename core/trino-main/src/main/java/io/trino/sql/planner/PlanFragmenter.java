@@ -199,7 +199,8 @@ public class PlanFragmenter
                         outputPartitioningScheme.getOutputLayout(),
                         outputPartitioningScheme.getHashColumn(),
                         outputPartitioningScheme.isReplicateNullsAndAny(),
-                        outputPartitioningScheme.getBucketToPartition()),
+                        outputPartitioningScheme.getBucketToPartition(),
+                        outputPartitioningScheme.getSkewedKeys()),
                 fragment.getStageExecutionDescriptor(),
                 fragment.getStatsAndCosts(),
                 fragment.getJsonRepresentation());
@@ -19,6 +19,7 @@ import io.trino.SystemSessionProperties;
 import io.trino.cost.CostCalculator;
 import io.trino.cost.CostCalculator.EstimatedExchanges;
 import io.trino.cost.CostComparator;
+import io.trino.cost.JoinBuildSideHistory;
 import io.trino.cost.StatsCalculator;
 import io.trino.cost.TaskCountEstimator;
 import io.trino.execution.TaskManagerConfig;
@@ -260,6 +261,7 @@ public class PlanOptimizers
             @EstimatedExchanges CostCalculator estimatedExchangesCostCalculator,
             CostComparator costComparator,
             TaskCountEstimator taskCountEstimator,
+            JoinBuildSideHistory joinBuildSideHistory,
             NodePartitioningManager nodePartitioningManager)
     {
         this(metadata,
@@ -275,6 +277,7 @@ public class PlanOptimizers
                 estimatedExchangesCostCalculator,
                 costComparator,
                 taskCountEstimator,
+                joinBuildSideHistory,
                 nodePartitioningManager);
     }
 
@@ -292,6 +295,7 @@ public class PlanOptimizers
             CostCalculator estimatedExchangesCostCalculator,
             CostComparator costComparator,
             TaskCountEstimator taskCountEstimator,
+            JoinBuildSideHistory joinBuildSideHistory,
             NodePartitioningManager nodePartitioningManager)
     {
         ImmutableList.Builder<PlanOptimizer> builder = ImmutableList.builder();
@@ -751,7 +755,7 @@ public class PlanOptimizers
                     statsCalculator,
                     estimatedExchangesCostCalculator,
                     ImmutableSet.of(
-                            new DetermineJoinDistributionType(costComparator, taskCountEstimator), // Must run before AddExchanges
+                            new DetermineJoinDistributionType(costComparator, taskCountEstimator, joinBuildSideHistory), // Must run before AddExchanges
                             // Must run before AddExchanges and after ReplicateSemiJoinInDelete
                             // to avoid temporarily having an invalid plan
                             new DetermineSemiJoinDistributionType(costComparator, taskCountEstimator))));
@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.planner;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import io.trino.spi.predicate.NullableValue;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Join key values that are known to dominate a hash partitioned exchange.
+ * On the probe side of a join the rows holding one of these values are
+ * spread round-robin over all partitions, while on the build side they are
+ * replicated to every partition, so each probe row still meets all of its
+ * matches exactly once.
+ */
+@Immutable
+public final class SkewedKeys
+{
+    private final Symbol column;
+    private final List<NullableValue> values;
+    private final boolean replicated;
+
+    @JsonCreator
+    public SkewedKeys(
+            @JsonProperty("column") Symbol column,
+            @JsonProperty("values") List<NullableValue> values,
+            @JsonProperty("replicated") boolean replicated)
+    {
+        this.column = requireNonNull(column, "column is null");
+        this.values = ImmutableList.copyOf(requireNonNull(values, "values is null"));
+        checkArgument(!values.isEmpty(), "values is empty");
+        checkArgument(values.stream().noneMatch(NullableValue::isNull), "values contain null");
+        this.replicated = replicated;
+    }
+
+    @JsonProperty
+    public Symbol getColumn()
+    {
+        return column;
+    }
+
+    @JsonProperty
+    public List<NullableValue> getValues()
+    {
+        return values;
+    }
+
+    /**
+     * Whether rows holding a skewed value are sent to every partition (build side),
+     * rather than distributed round-robin (probe side).
+     */
+    @JsonProperty
+    public boolean isReplicated()
+    {
+        return replicated;
+    }
+
+    public SkewedKeys translate(Function<Symbol, Symbol> translator)
+    {
+        return new SkewedKeys(translator.apply(column), values, replicated);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SkewedKeys that = (SkewedKeys) o;
+        return replicated == that.replicated &&
+                Objects.equals(column, that.column) &&
+                Objects.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(column, values, replicated);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("column", column)
+                .add("values", values)
+                .add("replicated", replicated)
+                .toString();
+    }
+}
@@ -18,6 +18,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Ordering;
 import io.airlift.units.DataSize;
 import io.trino.cost.CostComparator;
+import io.trino.cost.JoinBuildSideHistory;
 import io.trino.cost.LocalCostEstimate;
 import io.trino.cost.PlanNodeStatsEstimate;
 import io.trino.cost.StatsProvider;
@@ -37,10 +38,13 @@ import io.trino.sql.tree.Unnest;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.OptionalLong;
 
 import static io.trino.SystemSessionProperties.getJoinDistributionType;
 import static io.trino.SystemSessionProperties.getJoinMaxBroadcastTableSize;
+import static io.trino.SystemSessionProperties.isAdaptiveJoinDistributionEnabled;
 import static io.trino.cost.CostCalculatorWithEstimatedExchanges.calculateJoinCostWithoutOutput;
+import static io.trino.cost.JoinBuildSideHistory.getSignature;
 import static io.trino.sql.analyzer.FeaturesConfig.JoinDistributionType.AUTOMATIC;
 import static io.trino.sql.planner.optimizations.QueryCardinalityUtil.isAtMostScalar;
 import static io.trino.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
@@ -60,11 +64,13 @@ public class DetermineJoinDistributionType
 
     private final CostComparator costComparator;
     private final TaskCountEstimator taskCountEstimator;
+    private final JoinBuildSideHistory joinBuildSideHistory;
 
-    public DetermineJoinDistributionType(CostComparator costComparator, TaskCountEstimator taskCountEstimator)
+    public DetermineJoinDistributionType(CostComparator costComparator, TaskCountEstimator taskCountEstimator, JoinBuildSideHistory joinBuildSideHistory)
     {
         this.costComparator = requireNonNull(costComparator, "costComparator is null");
         this.taskCountEstimator = requireNonNull(taskCountEstimator, "taskCountEstimator is null");
+        this.joinBuildSideHistory = requireNonNull(joinBuildSideHistory, "joinBuildSideHistory is null");
     }
 
     @Override
@@ -123,7 +129,41 @@ public class DetermineJoinDistributionType
                 .sum();
     }
 
-    private PlanNode getCostBasedJoin(JoinNode joinNode, Context context)
+    private OptionalLong getObservedSize(PlanNode node, Context context)
+    {
+        if (!isAdaptiveJoinDistributionEnabled(context.getSession())) {
+            return OptionalLong.empty();
+        }
+        return getSignature(node, context.getLookup())
+                .map(joinBuildSideHistory::getObservedSize)
+                .orElse(OptionalLong.empty());
+    }
+
+    private boolean isObservedTooLarge(PlanNode node, Context context)
+    {
+        OptionalLong observedSize = getObservedSize(node, context);
+        return observedSize.isPresent() && observedSize.getAsLong() > getJoinMaxBroadcastTableSize(context.getSession()).toBytes();
+    }
+
+    /**
+     * A side is small when the estimated size of its source tables fits within the broadcast limit.
+     * The size observed in previous queries is only a hint: it is used when the size cannot be
+     * estimated, and it prevents replicating a side which is estimated to be small but was observed
+     * to be too large. The data may have grown since the observation, so it never overrides a known
+     * estimate which is too large.
+     */
+    private boolean isSmall(PlanNode node, Context context)
+    {
+        long joinMaxBroadcastTableSize = getJoinMaxBroadcastTableSize(context.getSession()).toBytes();
+        double estimatedSize = getSourceTablesSizeInBytes(node, context);
+        if (!Double.isNaN(estimatedSize)) {
+            return estimatedSize <= joinMaxBroadcastTableSize && !isObservedTooLarge(node, context);
+        }
+        OptionalLong observedSize = getObservedSize(node, context);
+        return observedSize.isPresent() && observedSize.getAsLong() <= joinMaxBroadcastTableSize;
+    }
+
+    private JoinNode getCostBasedJoin(JoinNode joinNode, Context context)
     {
         List<PlanNodeWithCost> possibleJoinNodes = new ArrayList<>();
 
@@ -136,20 +176,18 @@ public class DetermineJoinDistributionType
 
         // Using Ordering to facilitate rule determinism
         Ordering<PlanNodeWithCost> planNodeOrderings = costComparator.forSession(context.getSession()).onResultOf(PlanNodeWithCost::getCost);
-        return planNodeOrderings.min(possibleJoinNodes).getPlanNode();
+        return (JoinNode) planNodeOrderings.min(possibleJoinNodes).getPlanNode();
     }
 
     private JoinNode getSizeBasedJoin(JoinNode joinNode, Context context)
     {
-        DataSize joinMaxBroadcastTableSize = getJoinMaxBroadcastTableSize(context.getSession());
-
-        boolean isRightSideSmall = getSourceTablesSizeInBytes(joinNode.getRight(), context) <= joinMaxBroadcastTableSize.toBytes();
+        boolean isRightSideSmall = isSmall(joinNode.getRight(), context);
         if (isRightSideSmall && !mustPartition(joinNode)) {
             // choose right join side with small source tables as replicated build side
             return joinNode.withDistributionType(REPLICATED);
         }
 
-        boolean isLeftSideSmall = getSourceTablesSizeInBytes(joinNode.getLeft(), context) <= joinMaxBroadcastTableSize.toBytes();
+        boolean isLeftSideSmall = isSmall(joinNode.getLeft(), context);
         if (isLeftSideSmall && !mustPartition(joinNode.flipChildren())) {
             // choose join left side with small source tables as replicated build side
             return joinNode.flipChildren().withDistributionType(REPLICATED);
@@ -171,7 +209,7 @@ public class DetermineJoinDistributionType
 
     private void addJoinsWithDifferentDistributions(JoinNode joinNode, List<PlanNodeWithCost> possibleJoinNodes, Context context)
     {
-        if (!mustPartition(joinNode) && canReplicate(joinNode, context)) {
+        if (!mustPartition(joinNode) && canReplicate(joinNode, context) && !isObservedTooLarge(joinNode.getRight(), context)) {
             possibleJoinNodes.add(getJoinNodeWithCost(context, joinNode.withDistributionType(REPLICATED)));
         }
         if (!mustReplicate(joinNode, context)) {
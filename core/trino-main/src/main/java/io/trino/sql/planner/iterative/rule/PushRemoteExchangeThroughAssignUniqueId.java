@@ -80,7 +80,8 @@ public final class PushRemoteExchangeThroughAssignUniqueId
                                 removeSymbol(partitioningScheme.getOutputLayout(), assignUniqueId.getIdColumn()),
                                 partitioningScheme.getHashColumn(),
                                 partitioningScheme.isReplicateNullsAndAny(),
-                                partitioningScheme.getBucketToPartition()),
+                                partitioningScheme.getBucketToPartition(),
+                                partitioningScheme.getSkewedKeys()),
                         ImmutableList.of(assignUniqueId.getSource()),
                         ImmutableList.of(removeSymbol(getOnlyElement(node.getInputs()), assignUniqueId.getIdColumn())),
                         Optional.empty()),
@@ -23,13 +23,18 @@ import io.trino.Session;
 import io.trino.SystemSessionProperties;
 import io.trino.execution.warnings.WarningCollector;
 import io.trino.metadata.Metadata;
+import io.trino.operator.SkewedPartitionFunction;
+import io.trino.spi.TrinoException;
 import io.trino.spi.connector.GroupingProperty;
 import io.trino.spi.connector.LocalProperty;
+import io.trino.spi.predicate.NullableValue;
+import io.trino.spi.type.Type;
 import io.trino.spi.type.TypeOperators;
 import io.trino.sql.planner.DomainTranslator;
 import io.trino.sql.planner.Partitioning;
 import io.trino.sql.planner.PartitioningScheme;
 import io.trino.sql.planner.PlanNodeIdAllocator;
+import io.trino.sql.planner.SkewedKeys;
 import io.trino.sql.planner.Symbol;
 import io.trino.sql.planner.SymbolAllocator;
 import io.trino.sql.planner.TypeAnalyzer;
@@ -74,22 +79,31 @@ import io.trino.sql.planner.plan.WindowNode;
 import io.trino.sql.tree.Expression;
 import io.trino.sql.tree.SymbolReference;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.getOnlyElement;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.SystemSessionProperties.SKEWED_JOIN_KEYS;
+import static io.trino.SystemSessionProperties.getSkewedJoinKeys;
 import static io.trino.SystemSessionProperties.ignoreDownStreamPreferences;
 import static io.trino.SystemSessionProperties.isColocatedJoinEnabled;
 import static io.trino.SystemSessionProperties.isDistributedSortEnabled;
 import static io.trino.SystemSessionProperties.isForceSingleNodeOutput;
+import static io.trino.spi.StandardErrorCode.INVALID_SESSION_PROPERTY;
+import static io.trino.spi.type.DateType.DATE;
 import static io.trino.sql.planner.FragmentTableScanCounter.countSources;
 import static io.trino.sql.planner.FragmentTableScanCounter.hasMultipleSources;
 import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_DISTRIBUTION;
@@ -108,6 +122,8 @@ import static io.trino.sql.planner.plan.ExchangeNode.mergingExchange;
 import static io.trino.sql.planner.plan.ExchangeNode.partitionedExchange;
 import static io.trino.sql.planner.plan.ExchangeNode.replicatedExchange;
 import static io.trino.sql.planner.plan.ExchangeNode.roundRobinExchange;
+import static io.trino.sql.planner.plan.JoinNode.Type.INNER;
+import static io.trino.sql.planner.plan.JoinNode.Type.LEFT;
 import static java.lang.String.format;
 import static java.util.stream.Collectors.toList;
 
@@ -720,6 +736,7 @@ public class AddExchanges
             SetMultimap<Symbol, Symbol> leftToRight = createMapping(leftSymbols, rightSymbols);
 
             PlanWithProperties right;
+            Optional<List<NullableValue>> skewedValues = Optional.empty();
 
             if (left.getProperties().isNodePartitionedOn(leftSymbols) && !left.getProperties().isSingleNode()) {
                 Partitioning rightPartitioning = left.getProperties().translate(createTranslator(leftToRight)).getNodePartitioning().get();
@@ -740,15 +757,34 @@ public class AddExchanges
                             left.getProperties());
                 }
                 else {
+                    skewedValues = getSkewedJoinValues(node);
                     left = withDerivedProperties(
-                            partitionedExchange(idAllocator.getNextId(), REMOTE, left.getNode(), leftSymbols, Optional.empty()),
+                            partitionedExchange(idAllocator.getNextId(), REMOTE, left.getNode(), new PartitioningScheme(
+                                    Partitioning.create(FIXED_HASH_DISTRIBUTION, leftSymbols),
+                                    left.getNode().getOutputSymbols(),
+                                    Optional.empty(),
+                                    false,
+                                    Optional.empty(),
+                                    skewedValues.map(values -> new SkewedKeys(getOnlyElement(leftSymbols), values, false)))),
                             left.getProperties());
                     right = withDerivedProperties(
-                            partitionedExchange(idAllocator.getNextId(), REMOTE, right.getNode(), rightSymbols, Optional.empty()),
+                            partitionedExchange(idAllocator.getNextId(), REMOTE, right.getNode(), new PartitioningScheme(
+                                    Partitioning.create(FIXED_HASH_DISTRIBUTION, rightSymbols),
+                                    right.getNode().getOutputSymbols(),
+                                    Optional.empty(),
+                                    false,
+                                    Optional.empty(),
+                                    skewedValues.map(values -> new SkewedKeys(getOnlyElement(rightSymbols), values, true)))),
                             right.getProperties());
                 }
             }
 
+            if (skewedValues.isPresent()) {
+                // both sides are hash partitioned on the join keys except for the skewed values,
+                // which are spread over all partitions on the left and replicated to all partitions on the right
+                return buildJoin(node, left, right, JoinNode.DistributionType.PARTITIONED);
+            }
+
             verify(left.getProperties().isCompatibleTablePartitioningWith(right.getProperties(), leftToRight::get, metadata, session));
 
             // if colocated joins are disabled, force redistribute when using a custom partitioning
@@ -762,6 +798,77 @@ public class AddExchanges
             return buildJoin(node, left, right, JoinNode.DistributionType.PARTITIONED);
         }
 
+        /**
+         * Skewed values are only applied to inner and left joins on a single key: the build rows holding them
+         * are replicated to every partition, which would produce duplicate unmatched rows for a build side outer join.
+         */
+        private Optional<List<NullableValue>> getSkewedJoinValues(JoinNode node)
+        {
+            Map<String, List<String>> skewedJoinKeys = getSkewedJoinKeys(session);
+            if (skewedJoinKeys.isEmpty() || node.getCriteria().size() != 1 || (node.getType() != INNER && node.getType() != LEFT)) {
+                return Optional.empty();
+            }
+
+            JoinNode.EquiJoinClause clause = getOnlyElement(node.getCriteria());
+            Type type = types.get(clause.getLeft());
+            if (!type.equals(types.get(clause.getRight())) || !SkewedPartitionFunction.isSupportedType(type)) {
+                return Optional.empty();
+            }
+
+            return Stream.of(getColumnName(node.getLeft(), clause.getLeft()), getColumnName(node.getRight(), clause.getRight()))
+                    .flatMap(Optional::stream)
+                    .map(skewedJoinKeys::get)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .map(values -> values.stream()
+                            .map(value -> new NullableValue(type, parseSkewedValue(type, value)))
+                            .distinct()
+                            .collect(toImmutableList()));
+        }
+
+        /**
+         * Returns the name of the table column the values of the symbol are read from, when the symbol
+         * is the output of a table scan, passed through unchanged by the nodes above it.
+         */
+        private Optional<String> getColumnName(PlanNode node, Symbol symbol)
+        {
+            if (node instanceof TableScanNode) {
+                TableScanNode tableScan = (TableScanNode) node;
+                return Optional.ofNullable(tableScan.getAssignments().get(symbol))
+                        .map(column -> metadata.getColumnMetadata(session, tableScan.getTable(), column).getName());
+            }
+            if (node instanceof ProjectNode) {
+                Expression expression = ((ProjectNode) node).getAssignments().get(symbol);
+                if (!(expression instanceof SymbolReference)) {
+                    return Optional.empty();
+                }
+                return getColumnName(((ProjectNode) node).getSource(), Symbol.from(expression));
+            }
+            // the symbol is passed through by the node when a source outputs it, otherwise it is computed by the node
+            for (PlanNode source : node.getSources()) {
+                if (source.getOutputSymbols().contains(symbol)) {
+                    return getColumnName(source, symbol);
+                }
+            }
+            return Optional.empty();
+        }
+
+        private Object parseSkewedValue(Type type, String value)
+        {
+            try {
+                if (type.equals(DATE)) {
+                    return LocalDate.parse(value).toEpochDay();
+                }
+                if (type.getJavaType() == long.class) {
+                    return Long.parseLong(value);
+                }
+                return utf8Slice(value);
+            }
+            catch (NumberFormatException | DateTimeParseException e) {
+                throw new TrinoException(INVALID_SESSION_PROPERTY, format("Invalid %s value for %s: %s", type, SKEWED_JOIN_KEYS, value), e);
+            }
+        }
+
         private PlanWithProperties planReplicatedJoin(JoinNode node, PlanWithProperties left)
         {
             // Broadcast Join
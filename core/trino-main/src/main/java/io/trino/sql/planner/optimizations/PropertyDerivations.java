@@ -643,6 +643,13 @@ public final class PropertyDerivations
                             .constants(constants)
                             .build();
                 case REPARTITION:
+                    if (node.getPartitioningScheme().getSkewedKeys().isPresent()) {
+                        // rows holding a skewed key are spread over, or replicated to, all partitions
+                        return ActualProperties.builder()
+                                .global(arbitraryPartition())
+                                .constants(constants)
+                                .build();
+                    }
                     return ActualProperties.builder()
                             .global(partitionedOn(
                                     node.getPartitioningScheme().getPartitioning(),
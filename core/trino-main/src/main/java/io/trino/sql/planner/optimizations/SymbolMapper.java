@@ -375,7 +375,8 @@ public class SymbolMapper
                 mapAndDistinct(sourceLayout),
                 scheme.getHashColumn().map(this::map),
                 scheme.isReplicateNullsAndAny(),
-                scheme.getBucketToPartition());
+                scheme.getBucketToPartition(),
+                scheme.getSkewedKeys().map(skewedKeys -> skewedKeys.translate(this::map)));
     }
 
     public TableFinishNode map(TableFinishNode node, PlanNode source)
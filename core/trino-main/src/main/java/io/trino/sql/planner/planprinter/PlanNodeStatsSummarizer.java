@@ -19,6 +19,7 @@ import io.trino.execution.StageInfo;
 import io.trino.execution.TaskInfo;
 import io.trino.operator.HashCollisionsInfo;
 import io.trino.operator.OperatorStats;
+import io.trino.operator.PartialAggregationInfo;
 import io.trino.operator.PipelineStats;
 import io.trino.operator.TaskStats;
 import io.trino.operator.WindowInfo;
@@ -149,8 +150,14 @@ public final class PlanNodeStatsSummarizer
             for (OperatorStats operatorStats : pipelineStats.getOperatorSummaries()) {
                 PlanNodeId planNodeId = operatorStats.getPlanNodeId();
 
+                HashCollisionsInfo hashCollisionsInfo = null;
                 if (operatorStats.getInfo() instanceof HashCollisionsInfo) {
-                    HashCollisionsInfo hashCollisionsInfo = (HashCollisionsInfo) operatorStats.getInfo();
+                    hashCollisionsInfo = (HashCollisionsInfo) operatorStats.getInfo();
+                }
+                else if (operatorStats.getInfo() instanceof PartialAggregationInfo) {
+                    hashCollisionsInfo = ((PartialAggregationInfo) operatorStats.getInfo()).getHashCollisionsInfo();
+                }
+                if (hashCollisionsInfo != null) {
                     operatorHashCollisionsStats.merge(planNodeId,
                             ImmutableMap.of(
                                     operatorStats.getOperatorType(),
@@ -43,6 +43,7 @@ import io.trino.sql.planner.OrderingScheme;
 import io.trino.sql.planner.Partitioning;
 import io.trino.sql.planner.PartitioningScheme;
 import io.trino.sql.planner.PlanFragment;
+import io.trino.sql.planner.SkewedKeys;
 import io.trino.sql.planner.SubPlan;
 import io.trino.sql.planner.Symbol;
 import io.trino.sql.planner.TypeProvider;
@@ -339,6 +340,8 @@ public class PlanPrinter
                     Joiner.on(", ").join(arguments),
                     formatHash(partitioningScheme.getHashColumn())));
         }
+        partitioningScheme.getSkewedKeys().ifPresent(skewedKeys -> builder.append(indentString(1))
+                .append(format("Skewed keys: %s\n", formatSkewedKeys(skewedKeys, valuePrinter))));
         builder.append(indentString(1)).append(format("Stage Execution Strategy: %s\n", fragment.getStageExecutionDescriptor().getStageExecutionStrategy()));
 
         TypeProvider typeProvider = TypeProvider.copyOf(allFragments.stream()
@@ -1251,12 +1254,13 @@ public class PlanPrinter
                                 Joiner.on(", ").join(node.getPartitioningScheme().getPartitioning().getArguments())));
             }
             else {
-                addNode(node,
+                NodeRepresentation nodeOutput = addNode(node,
                         format("%sExchange", UPPER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, node.getScope().toString())),
                         format("[%s%s]%s",
                                 node.getType(),
                                 node.getPartitioningScheme().isReplicateNullsAndAny() ? " - REPLICATE NULLS AND ANY" : "",
                                 formatHash(node.getPartitioningScheme().getHashColumn())));
+                node.getPartitioningScheme().getSkewedKeys().ifPresent(skewedKeys -> nodeOutput.appendDetailsLine("Skewed keys: %s", formatSkewedKeys(skewedKeys, valuePrinter)));
             }
             return processChildren(node, context);
         }
@@ -1494,6 +1498,14 @@ public class PlanPrinter
         return builder.toString();
     }
 
+    private static String formatSkewedKeys(SkewedKeys skewedKeys, ValuePrinter valuePrinter)
+    {
+        List<String> values = skewedKeys.getValues().stream()
+                .map(value -> valuePrinter.castToVarchar(value.getType(), value.getValue()))
+                .collect(toImmutableList());
+        return format("%s in [%s] (%s)", skewedKeys.getColumn(), Joiner.on(", ").join(values), skewedKeys.isReplicated() ? "replicated" : "round robin");
+    }
+
     @SafeVarargs
     private static String formatHash(Optional<Symbol>... hashes)
     {
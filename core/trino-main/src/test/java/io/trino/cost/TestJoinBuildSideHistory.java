@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.cost;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.sql.planner.PlanNodeIdAllocator;
+import io.trino.sql.planner.Symbol;
+import io.trino.sql.planner.iterative.rule.test.PlanBuilder;
+import io.trino.sql.planner.plan.Assignments;
+import io.trino.sql.planner.plan.JoinNode;
+import io.trino.sql.planner.plan.PlanNode;
+import org.testng.annotations.Test;
+
+import java.util.OptionalLong;
+
+import static io.trino.metadata.MetadataManager.createTestMetadataManager;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.sql.planner.iterative.Lookup.noLookup;
+import static io.trino.sql.planner.iterative.rule.test.PlanBuilder.expression;
+import static io.trino.sql.planner.plan.JoinNode.Type.INNER;
+import static io.trino.sql.planner.plan.JoinNode.Type.LEFT;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestJoinBuildSideHistory
+{
+    private final PlanBuilder planBuilder = new PlanBuilder(new PlanNodeIdAllocator(), createTestMetadataManager());
+
+    @Test
+    public void testSignature()
+    {
+        assertEquals(signature(filteredValues("a > 5")), signature(filteredValues("a > 5")));
+        assertNotEquals(signature(filteredValues("a > 5")), signature(filteredValues("a > 6")));
+        assertNotEquals(signature(filteredValues("a > 5")), signature(planBuilder.limit(5, filteredValues("a > 5"))));
+
+        // projections are added and removed by the optimizers after the join distribution is chosen
+        Symbol a = planBuilder.symbol("a", BIGINT);
+        assertEquals(
+                signature(planBuilder.project(Assignments.identity(a), filteredValues("a > 5"))),
+                signature(filteredValues("a > 5")));
+
+        // the sides of an inner join may be flipped
+        Symbol c = planBuilder.symbol("c", BIGINT);
+        PlanNode left = filteredValues("a > 5");
+        PlanNode right = planBuilder.values(10, c);
+        assertEquals(
+                signature(planBuilder.join(INNER, left, right, new JoinNode.EquiJoinClause(a, c))),
+                signature(planBuilder.join(INNER, right, left, new JoinNode.EquiJoinClause(c, a))));
+        assertNotEquals(
+                signature(planBuilder.join(INNER, left, right, new JoinNode.EquiJoinClause(a, c))),
+                signature(planBuilder.join(LEFT, left, right, new JoinNode.EquiJoinClause(a, c))));
+
+        // plan nodes without a known effect on the output have no signature
+        assertTrue(JoinBuildSideHistory.getSignature(planBuilder.sort(ImmutableList.of(a), planBuilder.values(10, a)), noLookup()).isEmpty());
+    }
+
+    @Test
+    public void testObservedSize()
+    {
+        JoinBuildSideHistory history = new JoinBuildSideHistory();
+        String signature = signature(filteredValues("a > 5"));
+        assertEquals(history.getObservedSize(signature), OptionalLong.empty());
+
+        history.recordObservedSize(signature, 1024);
+        assertEquals(history.getObservedSize(signature), OptionalLong.of(1024));
+        assertEquals(history.getObservedSize(signature(filteredValues("a > 6"))), OptionalLong.empty());
+    }
+
+    private PlanNode filteredValues(String predicate)
+    {
+        Symbol a = planBuilder.symbol("a", BIGINT);
+        return planBuilder.filter(expression(predicate), planBuilder.values(10, a));
+    }
+
+    private static String signature(PlanNode node)
+    {
+        return JoinBuildSideHistory.getSignature(node, noLookup()).orElseThrow();
+    }
+}
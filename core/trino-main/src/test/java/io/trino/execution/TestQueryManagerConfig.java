@@ -50,6 +50,7 @@ public class TestQueryManagerConfig
                 .setRemoteTaskMinErrorDuration(new Duration(5, MINUTES))
                 .setRemoteTaskMaxErrorDuration(new Duration(5, MINUTES))
                 .setRemoteTaskMaxCallbackThreads(1000)
+                .setRemoteTaskSmileEncodingEnabled(false)
                 .setQueryExecutionPolicy("all-at-once")
                 .setQueryMaxRunTime(new Duration(100, DAYS))
                 .setQueryMaxExecutionTime(new Duration(100, DAYS))
@@ -79,6 +80,7 @@ public class TestQueryManagerConfig
                 .put("query.remote-task.min-error-duration", "30s")
                 .put("query.remote-task.max-error-duration", "60s")
                 .put("query.remote-task.max-callback-threads", "10")
+                .put("query.remote-task.smile-encoding-enabled", "true")
                 .put("query.execution-policy", "phased")
                 .put("query.max-run-time", "2h")
                 .put("query.max-execution-time", "3h")
@@ -105,6 +107,7 @@ public class TestQueryManagerConfig
                 .setRemoteTaskMinErrorDuration(new Duration(60, SECONDS))
                 .setRemoteTaskMaxErrorDuration(new Duration(60, SECONDS))
                 .setRemoteTaskMaxCallbackThreads(10)
+                .setRemoteTaskSmileEncodingEnabled(true)
                 .setQueryExecutionPolicy("phased")
                 .setQueryMaxRunTime(new Duration(2, HOURS))
                 .setQueryMaxExecutionTime(new Duration(3, HOURS))
@@ -59,6 +59,10 @@ public class TestTaskManagerConfig
                 .setTaskNotificationThreads(5)
                 .setTaskYieldThreads(3)
                 .setLevelTimeMultiplier(new BigDecimal("2"))
+                .setSplitQueueStripes(1)
+                .setOffloadBlockingPageSources(false)
+                .setBlockingPageSourceThreads(100)
+                .setResourceGroupSchedulingEnabled(false)
                 .setStatisticsCpuTimerEnabled(true));
     }
 
@@ -92,6 +96,10 @@ public class TestTaskManagerConfig
                 .put("task.task-notification-threads", "13")
                 .put("task.task-yield-threads", "8")
                 .put("task.level-time-multiplier", "2.1")
+                .put("task.split-queue-stripes", "8")
+                .put("task.offload-blocking-page-sources", "true")
+                .put("task.blocking-page-source-threads", "50")
+                .put("task.resource-group-scheduling-enabled", "true")
                 .put("task.statistics-cpu-timer-enabled", "false")
                 .build();
 
@@ -122,6 +130,10 @@ public class TestTaskManagerConfig
                 .setTaskNotificationThreads(13)
                 .setTaskYieldThreads(8)
                 .setLevelTimeMultiplier(new BigDecimal("2.1"))
+                .setSplitQueueStripes(8)
+                .setOffloadBlockingPageSources(true)
+                .setBlockingPageSourceThreads(50)
+                .setResourceGroupSchedulingEnabled(true)
                 .setStatisticsCpuTimerEnabled(false);
 
         assertFullMapping(properties, expected);
@@ -19,6 +19,8 @@ import io.trino.spi.PageBuilder;
 import io.trino.spi.block.BlockBuilder;
 import io.trino.spi.type.Type;
 import io.trino.spiller.AesSpillCipher;
+import io.trino.tpch.LineItem;
+import io.trino.tpch.LineItemGenerator;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -40,6 +42,7 @@ import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
@@ -47,6 +50,9 @@ import java.util.Random;
 import static io.airlift.slice.Slices.utf8Slice;
 import static io.trino.metadata.MetadataManager.createTestMetadataManager;
 import static io.trino.operator.PageAssertions.assertPageEquals;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.DoubleType.DOUBLE;
 import static io.trino.spi.type.VarcharType.VARCHAR;
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -86,15 +92,21 @@ public class BenchmarkPagesSerde
     @Test
     public void testBenchmarkData()
     {
-        BenchmarkData data = new BenchmarkData();
-        data.compressed = true;
-        data.initialize();
-        SerializedPage[] serializedPages = data.serializedPages;
-        PagesSerde serde = data.serde;
-        try (PagesSerde.PagesSerdeContext context = serde.newContext()) {
-            // Sanity test by deserializing and checking against the original pages
-            for (int i = 0; i < serializedPages.length; i++) {
-                assertPageEquals(BenchmarkData.TYPES, serde.deserialize(context, serializedPages[i]), data.dataPages[i]);
+        for (CompressionCodec compressionCodec : CompressionCodec.values()) {
+            for (String dataSet : ImmutableList.of("RANDOM_VARCHAR", "LINEITEM")) {
+                BenchmarkData data = new BenchmarkData();
+                data.compressionCodec = compressionCodec;
+                data.adaptiveCompression = true;
+                data.dataSet = dataSet;
+                data.initialize();
+                SerializedPage[] serializedPages = data.serializedPages;
+                PagesSerde serde = data.serde;
+                try (PagesSerde.PagesSerdeContext context = serde.newContext()) {
+                    // Sanity test by deserializing and checking against the original pages
+                    for (int i = 0; i < serializedPages.length; i++) {
+                        assertPageEquals(data.types, serde.deserialize(context, serializedPages[i]), data.dataPages[i]);
+                    }
+                }
             }
         }
     }
@@ -103,14 +115,20 @@ public class BenchmarkPagesSerde
     public static class BenchmarkData
     {
         private static final int ROW_COUNT = 15000;
-        private static final List<Type> TYPES = ImmutableList.of(VARCHAR);
+        private static final List<Type> RANDOM_VARCHAR_TYPES = ImmutableList.of(VARCHAR);
+        private static final List<Type> LINEITEM_TYPES = ImmutableList.of(BIGINT, BIGINT, DOUBLE, DOUBLE, DATE, VARCHAR, VARCHAR, VARCHAR);
         @Param({"true", "false"})
         private boolean encrypted;
-        @Param({"true", "false"})
-        private boolean compressed;
+        @Param({"NONE", "LZ4", "ZSTD", "SNAPPY"})
+        private CompressionCodec compressionCodec = CompressionCodec.LZ4;
+        @Param({"false", "true"})
+        private boolean adaptiveCompression;
+        @Param({"RANDOM_VARCHAR", "LINEITEM"})
+        private String dataSet = "RANDOM_VARCHAR";
         @Param("1000")
         private int randomSeed = 1000;
 
+        private List<Type> types;
         private PagesSerde serde;
         private Page[] dataPages;
         private SerializedPage[] serializedPages;
@@ -119,7 +137,18 @@ public class BenchmarkPagesSerde
         public void initialize()
         {
             serde = createPagesSerde();
-            dataPages = createPages();
+            switch (dataSet) {
+                case "RANDOM_VARCHAR":
+                    types = RANDOM_VARCHAR_TYPES;
+                    dataPages = createPages();
+                    break;
+                case "LINEITEM":
+                    types = LINEITEM_TYPES;
+                    dataPages = createLineItemPages();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported data set: " + dataSet);
+            }
             serializedPages = createSerializedPages();
         }
 
@@ -130,7 +159,7 @@ public class BenchmarkPagesSerde
 
         private PagesSerde createPagesSerde()
         {
-            PagesSerdeFactory serdeFactory = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), compressed);
+            PagesSerdeFactory serdeFactory = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), compressionCodec, adaptiveCompression);
             return encrypted ? serdeFactory.createPagesSerdeForSpill(Optional.of(new AesSpillCipher())) : serdeFactory.createPagesSerde();
         }
 
@@ -150,10 +179,10 @@ public class BenchmarkPagesSerde
             Random random = new Random(randomSeed);
             List<Page> pages = new ArrayList<>();
             int remainingRows = ROW_COUNT;
-            PageBuilder pageBuilder = new PageBuilder(TYPES);
+            PageBuilder pageBuilder = new PageBuilder(RANDOM_VARCHAR_TYPES);
             while (remainingRows > 0) {
                 int rows = 100 + random.nextInt(900); // 100 - 1000 rows per pass
-                List<Object>[] testRows = generateTestRows(random, TYPES, rows);
+                List<Object>[] testRows = generateTestRows(random, RANDOM_VARCHAR_TYPES, rows);
                 remainingRows -= rows;
                 for (int i = 0; i < testRows.length; i++) {
                     writeRow(testRows[i], pageBuilder.getBlockBuilder(0));
@@ -165,6 +194,33 @@ public class BenchmarkPagesSerde
             return pages.toArray(Page[]::new);
         }
 
+        private Page[] createLineItemPages()
+        {
+            List<Page> pages = new ArrayList<>();
+            PageBuilder pageBuilder = new PageBuilder(LINEITEM_TYPES);
+            Iterator<LineItem> lineItems = new LineItemGenerator(0.01, 1, 1).iterator();
+            for (int row = 0; row < ROW_COUNT && lineItems.hasNext(); row++) {
+                LineItem lineItem = lineItems.next();
+                pageBuilder.declarePosition();
+                BIGINT.writeLong(pageBuilder.getBlockBuilder(0), lineItem.getOrderKey());
+                BIGINT.writeLong(pageBuilder.getBlockBuilder(1), lineItem.getPartKey());
+                DOUBLE.writeDouble(pageBuilder.getBlockBuilder(2), lineItem.getExtendedPrice());
+                DOUBLE.writeDouble(pageBuilder.getBlockBuilder(3), lineItem.getDiscount());
+                DATE.writeLong(pageBuilder.getBlockBuilder(4), lineItem.getShipDate());
+                VARCHAR.writeString(pageBuilder.getBlockBuilder(5), lineItem.getReturnFlag());
+                VARCHAR.writeString(pageBuilder.getBlockBuilder(6), lineItem.getShipInstructions());
+                VARCHAR.writeString(pageBuilder.getBlockBuilder(7), lineItem.getComment());
+                if (pageBuilder.getPositionCount() == 1024) {
+                    pages.add(pageBuilder.build());
+                    pageBuilder.reset();
+                }
+            }
+            if (!pageBuilder.isEmpty()) {
+                pages.add(pageBuilder.build());
+            }
+            return pages.toArray(Page[]::new);
+        }
+
         private void writeRow(List<Object> testRow, BlockBuilder blockBuilder)
         {
             for (Object fieldValue : testRow) {
@@ -216,15 +272,21 @@ public class BenchmarkPagesSerde
     public static void main(String[] args)
             throws RunnerException
     {
-        BenchmarkData data = new BenchmarkData();
-        data.compressed = true; // Get usable stats on compressibility
-        data.initialize();
-        System.out.println("Page Size Avg: " + Arrays.stream(data.dataPages).mapToLong(Page::getSizeInBytes).average().getAsDouble());
-        System.out.println("Page Size Min: " + Arrays.stream(data.dataPages).mapToLong(Page::getSizeInBytes).min().getAsLong());
-        System.out.println("Page Size Max: " + Arrays.stream(data.dataPages).mapToLong(Page::getSizeInBytes).max().getAsLong());
-        System.out.println("Page Size Sum: " + Arrays.stream(data.dataPages).mapToLong(Page::getSizeInBytes).sum());
-        System.out.println("Page count: " + data.dataPages.length);
-        System.out.println("Compressed: " + Arrays.stream(data.serializedPages).filter(SerializedPage::isCompressed).count());
+        for (String dataSet : ImmutableList.of("RANDOM_VARCHAR", "LINEITEM")) {
+            BenchmarkData data = new BenchmarkData();
+            data.dataSet = dataSet;
+            data.initialize();
+            System.out.println(dataSet + " Page Size Avg: " + Arrays.stream(data.dataPages).mapToLong(Page::getSizeInBytes).average().getAsDouble());
+            System.out.println(dataSet + " Page Size Sum: " + Arrays.stream(data.dataPages).mapToLong(Page::getSizeInBytes).sum());
+            System.out.println(dataSet + " Page count: " + data.dataPages.length);
+            // Get usable stats on compressibility
+            for (CompressionCodec compressionCodec : CompressionCodec.values()) {
+                data.compressionCodec = compressionCodec;
+                data.initialize();
+                System.out.println(dataSet + " " + compressionCodec + " Serialized Size Sum: " + Arrays.stream(data.serializedPages).mapToLong(SerializedPage::getSizeInBytes).sum() +
+                        ", Compressed: " + Arrays.stream(data.serializedPages).filter(SerializedPage::isCompressed).count());
+            }
+        }
         Options options = new OptionsBuilder()
                 .verbosity(VerboseMode.NORMAL)
                 .jvmArgs("-Xms4g", "-Xmx4g")
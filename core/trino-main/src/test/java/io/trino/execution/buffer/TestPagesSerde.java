@@ -16,6 +16,7 @@ package io.trino.execution.buffer;
 import com.google.common.collect.ImmutableList;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.BlockBuilder;
@@ -24,15 +25,29 @@ import org.testng.annotations.Test;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Random;
 
+import static io.trino.block.BlockAssertions.createLongRepeatBlock;
+import static io.trino.block.BlockAssertions.createStringsBlock;
+import static io.trino.execution.buffer.CompressionCodec.NONE;
+import static io.trino.execution.buffer.CompressionCodec.ZSTD;
+import static io.trino.execution.buffer.PagesSerdeUtil.calculateChecksum;
+import static io.trino.execution.buffer.PagesSerdeUtil.getSerializedPagesSize;
 import static io.trino.execution.buffer.PagesSerdeUtil.readPages;
+import static io.trino.execution.buffer.PagesSerdeUtil.readSerializedPages;
 import static io.trino.execution.buffer.PagesSerdeUtil.writePages;
+import static io.trino.execution.buffer.PagesSerdeUtil.writeSerializedPages;
+import static io.trino.metadata.MetadataManager.createTestMetadataManager;
 import static io.trino.operator.PageAssertions.assertPageEquals;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.VarcharType.VARCHAR;
+import static java.util.Collections.nCopies;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
 
 public class TestPagesSerde
 {
@@ -60,6 +75,95 @@ public class TestPagesSerde
         assertFalse(pageIterator.hasNext());
     }
 
+    @Test
+    public void testCompressionCodecs()
+    {
+        Page page = new Page(createLongRepeatBlock(42, 1000), createStringsBlock(nCopies(1000, "alice")));
+        // pages are decompressed with the codec recorded in their markers, regardless of the codec of the reader
+        PagesSerde reader = new PagesSerde(createTestMetadataManager().getBlockEncodingSerde(), NONE, false, Optional.empty());
+        for (CompressionCodec codec : CompressionCodec.values()) {
+            PagesSerde serde = new PagesSerde(createTestMetadataManager().getBlockEncodingSerde(), codec, false, Optional.empty());
+            SerializedPage serializedPage = serialize(serde, page);
+            assertEquals(serializedPage.isCompressed(), codec != NONE);
+            assertEquals(CompressionCodec.fromMarkers(serializedPage.getPageCodecMarkers()), codec);
+            assertPageEquals(ImmutableList.of(BIGINT, VARCHAR), reader.deserialize(serializedPage), page);
+        }
+    }
+
+    @Test
+    public void testReadSerializedPagesFromBuffer()
+    {
+        Page compressible = new Page(createStringsBlock(nCopies(100, "alice")));
+        Page incompressible = new Page(createRandomBytesBlock(100));
+        PagesSerde serde = new PagesSerde(createTestMetadataManager().getBlockEncodingSerde(), ZSTD, false, Optional.empty());
+        List<SerializedPage> serializedPages = ImmutableList.of(serialize(serde, compressible), serialize(serde, incompressible), serialize(serde, compressible));
+
+        DynamicSliceOutput output = new DynamicSliceOutput(1024);
+        writeSerializedPages(output, serializedPages);
+        Slice buffer = output.slice();
+        assertEquals(buffer.length(), getSerializedPagesSize(serializedPages));
+
+        List<SerializedPage> pages = readSerializedPages(buffer);
+        assertEquals(pages.size(), 3);
+        assertEquals(calculateChecksum(pages), calculateChecksum(serializedPages));
+        assertPageEquals(ImmutableList.of(VARCHAR), serde.deserialize(pages.get(0)), compressible);
+        assertPageEquals(ImmutableList.of(VARCHAR), serde.deserialize(pages.get(1)), incompressible);
+        assertPageEquals(ImmutableList.of(VARCHAR), serde.deserialize(pages.get(2)), compressible);
+
+        // blocks of uncompressed pages can reference the slice of the page, so it is copied, and so are the other pages,
+        // which would otherwise retain the whole buffer
+        assertTrue(pages.get(0).isCompressed());
+        assertFalse(pages.get(1).isCompressed());
+        for (int page = 0; page < pages.size(); page++) {
+            assertNotSame(pages.get(page).getSlice().getBase(), buffer.getBase());
+        }
+        assertEquals(pages.get(1).getRetainedSizeInBytes(), serializedPages.get(1).getRetainedSizeInBytes());
+
+        // compressed pages are views of the buffer, and only account for their part of it
+        List<SerializedPage> compressedPages = ImmutableList.of(serialize(serde, compressible), serialize(serde, compressible));
+        output = new DynamicSliceOutput(1024);
+        writeSerializedPages(output, compressedPages);
+        buffer = output.slice();
+        pages = readSerializedPages(buffer);
+        assertEquals(pages.size(), 2);
+        for (int page = 0; page < pages.size(); page++) {
+            assertTrue(pages.get(page).isCompressed());
+            assertEquals(pages.get(page).getSlice().getBase(), buffer.getBase());
+            assertEquals(
+                    pages.get(page).getRetainedSizeInBytes(),
+                    compressedPages.get(page).getRetainedSizeInBytes() - compressedPages.get(page).getSlice().getRetainedSize() + pages.get(page).getSizeInBytes());
+            assertPageEquals(ImmutableList.of(VARCHAR), serde.deserialize(pages.get(page)), compressible);
+        }
+    }
+
+    @Test
+    public void testAdaptiveCompression()
+    {
+        PagesSerde serde = new PagesSerde(createTestMetadataManager().getBlockEncodingSerde(), ZSTD, true, Optional.empty());
+        Page incompressible = new Page(createRandomBytesBlock(100));
+        Page compressible = new Page(createStringsBlock(nCopies(100, "alice")));
+
+        assertFalse(serialize(serde, incompressible).isCompressed());
+        // the page is not compressed, since the last page with the same encodings did not compress
+        assertFalse(serialize(serde, compressible).isCompressed());
+        assertTrue(serialize(serde, compressible).isCompressed());
+
+        // incompressible pages are skipped for longer and longer
+        assertFalse(serialize(serde, incompressible).isCompressed());
+        assertFalse(serialize(serde, compressible).isCompressed());
+        assertTrue(serialize(serde, compressible).isCompressed());
+        assertFalse(serialize(serde, incompressible).isCompressed());
+        assertFalse(serialize(serde, incompressible).isCompressed());
+        assertFalse(serialize(serde, incompressible).isCompressed());
+        assertFalse(serialize(serde, compressible).isCompressed());
+        assertFalse(serialize(serde, compressible).isCompressed());
+        assertTrue(serialize(serde, compressible).isCompressed());
+
+        // pages with other encodings are sampled separately
+        assertFalse(serialize(serde, incompressible).isCompressed());
+        assertTrue(serialize(serde, new Page(createLongRepeatBlock(42, 1000))).isCompressed());
+    }
+
     @Test
     public void testBigintSerializedSize()
     {
@@ -119,6 +223,25 @@ public class TestPagesSerde
                 .hasMessage("PagesSerdeContext is already closed");
     }
 
+    private static SerializedPage serialize(PagesSerde serde, Page page)
+    {
+        try (PagesSerde.PagesSerdeContext context = serde.newContext()) {
+            return serde.serialize(context, page);
+        }
+    }
+
+    private static Block createRandomBytesBlock(int positionCount)
+    {
+        Random random = new Random(42);
+        BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(null, positionCount);
+        for (int i = 0; i < positionCount; i++) {
+            byte[] bytes = new byte[64];
+            random.nextBytes(bytes);
+            VARCHAR.writeSlice(blockBuilder, Slices.wrappedBuffer(bytes));
+        }
+        return blockBuilder.build();
+    }
+
     private static int serializedSize(List<? extends Type> types, Page expectedPage)
     {
         PagesSerde serde = new TestingPagesSerdeFactory().createPagesSerde();
@@ -0,0 +1,247 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.buffer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.trino.exchange.ExchangeSpool;
+import io.trino.exchange.FileSystemExchangeSpool;
+import io.trino.execution.StateMachine;
+import io.trino.execution.TaskId;
+import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
+import io.trino.memory.context.LocalMemoryContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.MoreFiles.listFiles;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.trino.execution.buffer.BufferState.FAILED;
+import static io.trino.execution.buffer.BufferState.FINISHED;
+import static io.trino.execution.buffer.BufferState.OPEN;
+import static io.trino.execution.buffer.BufferState.TERMINAL_BUFFER_STATES;
+import static io.trino.execution.buffer.BufferTestUtils.createPage;
+import static io.trino.execution.buffer.BufferTestUtils.serializePage;
+import static io.trino.execution.buffer.OutputBuffers.BufferType.ARBITRARY;
+import static io.trino.execution.buffer.OutputBuffers.BufferType.BROADCAST;
+import static io.trino.execution.buffer.OutputBuffers.BufferType.PARTITIONED;
+import static io.trino.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
+import static io.trino.execution.buffer.PagesSerdeUtil.readSerializedPages;
+import static io.trino.execution.buffer.TestingPagesSerdeFactory.testingPagesSerde;
+import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestSpoolingOutputBuffer
+{
+    private static final PagesSerde PAGES_SERDE = testingPagesSerde();
+    private static final OutputBufferId FIRST = new OutputBufferId(0);
+    private static final OutputBufferId SECOND = new OutputBufferId(1);
+
+    private final AtomicInteger nextTaskId = new AtomicInteger();
+    private ExecutorService executor;
+    private Path spoolPath;
+    private ExchangeSpool exchangeSpool;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed(getClass().getSimpleName() + "-%s"));
+        spoolPath = Files.createTempDirectory("exchange-spool");
+        exchangeSpool = new FileSystemExchangeSpool(Optional.of(spoolPath));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        executor.shutdownNow();
+        deleteRecursively(spoolPath, ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testPartitioned()
+    {
+        TaskId taskId = nextTaskId();
+        OutputBuffers outputBuffers = createInitialEmptyOutputBuffers(PARTITIONED)
+                .withBuffer(FIRST, 0)
+                .withBuffer(SECOND, 1)
+                .withNoMoreBufferIds()
+                .withSpooling();
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+        SpoolingOutputBuffer buffer = createSpoolingBuffer(taskId, outputBuffers, memoryContext);
+
+        buffer.enqueue(0, ImmutableList.of(serializePage(createPage(0))));
+        buffer.enqueue(1, ImmutableList.of(serializePage(createPage(1))));
+        buffer.enqueue(0, ImmutableList.of(serializePage(createPage(2))));
+        assertTrue(memoryContext.getBytes() > 0);
+        assertFalse(exchangeSpool.isCommitted(taskId));
+        assertFalse(buffer.isFinished());
+
+        buffer.setNoMorePages();
+        assertTrue(buffer.isFinished());
+        assertEquals(memoryContext.getBytes(), 0);
+        assertTrue(exchangeSpool.isCommitted(taskId));
+        assertEquals(readValues(taskId, FIRST), ImmutableList.of(0L, 2L));
+        assertEquals(readValues(taskId, SECOND), ImmutableList.of(1L));
+        assertEquals(buffer.getInfo().getTotalPagesSent(), 3);
+    }
+
+    @Test
+    public void testBroadcast()
+    {
+        TaskId taskId = nextTaskId();
+        OutputBuffers outputBuffers = createInitialEmptyOutputBuffers(BROADCAST)
+                .withBuffer(FIRST, 0)
+                .withSpooling();
+        SpoolingOutputBuffer buffer = createSpoolingBuffer(taskId, outputBuffers, newSimpleAggregatedMemoryContext().newLocalMemoryContext("test"));
+
+        buffer.enqueue(ImmutableList.of(serializePage(createPage(0)), serializePage(createPage(1))));
+        // buffers added later read the same pages
+        buffer.setOutputBuffers(outputBuffers.withBuffer(SECOND, 0).withNoMoreBufferIds());
+        buffer.setNoMorePages();
+
+        assertTrue(buffer.isFinished());
+        assertEquals(readValues(taskId, FIRST), ImmutableList.of(0L, 1L));
+        assertEquals(readValues(taskId, SECOND), ImmutableList.of(0L, 1L));
+    }
+
+    @Test
+    public void testArbitrary()
+    {
+        TaskId taskId = nextTaskId();
+        OutputBuffers outputBuffers = createInitialEmptyOutputBuffers(ARBITRARY)
+                .withBuffers(ImmutableMap.of(FIRST, 0, SECOND, 1))
+                .withNoMoreBufferIds()
+                .withSpooling();
+        SpoolingOutputBuffer buffer = createSpoolingBuffer(taskId, outputBuffers, newSimpleAggregatedMemoryContext().newLocalMemoryContext("test"));
+
+        for (int i = 0; i < 4; i++) {
+            buffer.enqueue(ImmutableList.of(serializePage(createPage(i))));
+        }
+        buffer.setNoMorePages();
+
+        assertEquals(readValues(taskId, FIRST), ImmutableList.of(0L, 2L));
+        assertEquals(readValues(taskId, SECOND), ImmutableList.of(1L, 3L));
+    }
+
+    @Test
+    public void testEmptyOutput()
+    {
+        TaskId taskId = nextTaskId();
+        OutputBuffers outputBuffers = createInitialEmptyOutputBuffers(PARTITIONED)
+                .withBuffer(FIRST, 0)
+                .withNoMoreBufferIds()
+                .withSpooling();
+        SpoolingOutputBuffer buffer = createSpoolingBuffer(taskId, outputBuffers, newSimpleAggregatedMemoryContext().newLocalMemoryContext("test"));
+        buffer.setNoMorePages();
+
+        assertTrue(exchangeSpool.isCommitted(taskId));
+        assertEquals(readValues(taskId, FIRST), ImmutableList.of());
+    }
+
+    @Test
+    public void testRetry()
+            throws Exception
+    {
+        TaskId taskId = nextTaskId();
+        OutputBuffers outputBuffers = createInitialEmptyOutputBuffers(PARTITIONED)
+                .withBuffer(FIRST, 0)
+                .withNoMoreBufferIds()
+                .withSpooling();
+
+        // the output of a failed attempt is discarded
+        SpoolingOutputBuffer failedAttempt = createSpoolingBuffer(taskId, "failed", outputBuffers);
+        failedAttempt.enqueue(0, ImmutableList.of(serializePage(createPage(0))));
+        failedAttempt.fail();
+        assertEquals(failedAttempt.getInfo().getState(), FAILED);
+        assertFalse(exchangeSpool.isCommitted(taskId));
+        assertEquals(listFiles(spoolPath.resolve(taskId.getQueryId().toString())).size(), 0);
+
+        // the first attempt to commit wins
+        SpoolingOutputBuffer firstAttempt = createSpoolingBuffer(taskId, "first", outputBuffers);
+        SpoolingOutputBuffer secondAttempt = createSpoolingBuffer(taskId, "second", outputBuffers);
+        firstAttempt.enqueue(0, ImmutableList.of(serializePage(createPage(1))));
+        secondAttempt.enqueue(0, ImmutableList.of(serializePage(createPage(2))));
+        firstAttempt.setNoMorePages();
+        secondAttempt.setNoMorePages();
+        assertEquals(readValues(taskId, FIRST), ImmutableList.of(1L));
+        assertEquals(listFiles(spoolPath.resolve(taskId.getQueryId().toString())).size(), 1);
+
+        exchangeSpool.removeQuery(taskId.getQueryId());
+        assertFalse(exchangeSpool.isCommitted(taskId));
+    }
+
+    @Test
+    public void testReadIsNotSupported()
+    {
+        OutputBuffers outputBuffers = createInitialEmptyOutputBuffers(PARTITIONED)
+                .withBuffer(FIRST, 0)
+                .withNoMoreBufferIds()
+                .withSpooling();
+        SpoolingOutputBuffer buffer = createSpoolingBuffer(nextTaskId(), outputBuffers, newSimpleAggregatedMemoryContext().newLocalMemoryContext("test"));
+        assertThatThrownBy(() -> buffer.get(FIRST, 0, BufferTestUtils.sizeOfPages(1)))
+                .isInstanceOf(IllegalStateException.class);
+        buffer.destroy();
+        assertEquals(buffer.getInfo().getState(), FINISHED);
+    }
+
+    private TaskId nextTaskId()
+    {
+        return new TaskId("query" + nextTaskId.getAndIncrement(), 0, 0);
+    }
+
+    private SpoolingOutputBuffer createSpoolingBuffer(TaskId taskId, OutputBuffers outputBuffers, LocalMemoryContext memoryContext)
+    {
+        return createSpoolingBuffer(taskId, "instance", outputBuffers, memoryContext);
+    }
+
+    private SpoolingOutputBuffer createSpoolingBuffer(TaskId taskId, String taskInstanceId, OutputBuffers outputBuffers)
+    {
+        return createSpoolingBuffer(taskId, taskInstanceId, outputBuffers, newSimpleAggregatedMemoryContext().newLocalMemoryContext("test"));
+    }
+
+    private SpoolingOutputBuffer createSpoolingBuffer(TaskId taskId, String taskInstanceId, OutputBuffers outputBuffers, LocalMemoryContext memoryContext)
+    {
+        return new SpoolingOutputBuffer(
+                new StateMachine<>("bufferState", executor, OPEN, TERMINAL_BUFFER_STATES),
+                outputBuffers,
+                exchangeSpool.createSink(taskId, taskInstanceId),
+                () -> memoryContext);
+    }
+
+    private List<Long> readValues(TaskId taskId, OutputBufferId bufferId)
+    {
+        return ImmutableList.copyOf(readSerializedPages(exchangeSpool.openBuffer(taskId, bufferId))).stream()
+                .map(PAGES_SERDE::deserialize)
+                .map(page -> BIGINT.getLong(page.getBlock(0), 0))
+                .collect(toImmutableList());
+    }
+}
@@ -13,16 +13,13 @@
  */
 package io.trino.execution.buffer;
 
-import io.airlift.compress.Compressor;
-import io.airlift.compress.Decompressor;
-import io.airlift.compress.lz4.Lz4Compressor;
-import io.airlift.compress.lz4.Lz4Decompressor;
 import io.trino.spi.Page;
 import io.trino.spi.block.BlockEncodingSerde;
 import io.trino.spiller.SpillCipher;
 
 import java.util.Optional;
 
+import static io.trino.execution.buffer.CompressionCodec.LZ4;
 import static io.trino.metadata.MetadataManager.createTestMetadataManager;
 
 public class TestingPagesSerdeFactory
@@ -38,17 +35,17 @@ public class TestingPagesSerdeFactory
     {
         return new SynchronizedPagesSerde(
                 createTestMetadataManager().getBlockEncodingSerde(),
-                Optional.of(new Lz4Compressor()),
-                Optional.of(new Lz4Decompressor()),
+                LZ4,
+                false,
                 Optional.empty());
     }
 
     private static class SynchronizedPagesSerde
             extends PagesSerde
     {
-        public SynchronizedPagesSerde(BlockEncodingSerde blockEncodingSerde, Optional<Compressor> compressor, Optional<Decompressor> decompressor, Optional<SpillCipher> spillCipher)
+        public SynchronizedPagesSerde(BlockEncodingSerde blockEncodingSerde, CompressionCodec compressionCodec, boolean adaptiveCompression, Optional<SpillCipher> spillCipher)
         {
-            super(blockEncodingSerde, compressor, decompressor, spillCipher);
+            super(blockEncodingSerde, compressionCodec, adaptiveCompression, spillCipher);
         }
 
         @Override
@@ -0,0 +1,130 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.executor;
+
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.stats.CounterStat;
+import io.airlift.stats.TimeStat;
+import io.airlift.units.Duration;
+import io.trino.execution.SplitRunner;
+import io.trino.execution.TaskId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.OptionalInt;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+
+/**
+ * Runner threads taking tiny splits from the queue and putting them back after their quanta,
+ * which makes the threads contend on the queue.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(MICROSECONDS)
+@BenchmarkMode(Throughput)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+public class BenchmarkMultilevelSplitQueue
+{
+    private static final int TASKS = 64;
+    private static final int SPLITS_PER_TASK = 64;
+
+    @Param({"1", "4", "16"})
+    private int stripes = 1;
+
+    private MultilevelSplitQueue splitQueue;
+
+    @Setup
+    public void setup()
+    {
+        splitQueue = new MultilevelSplitQueue(2, stripes);
+        CounterStat counterStat = new CounterStat();
+        TimeStat timeStat = new TimeStat();
+        for (int task = 0; task < TASKS; task++) {
+            TaskHandle taskHandle = new TaskHandle(new TaskId("query", 0, task), splitQueue, () -> 0, 1, new Duration(1, SECONDS), OptionalInt.empty());
+            for (int split = 0; split < SPLITS_PER_TASK; split++) {
+                splitQueue.offer(new PrioritizedSplitRunner(taskHandle, new TinySplit(), Ticker.systemTicker(), counterStat, counterStat, timeStat, timeStat));
+            }
+        }
+    }
+
+    @Benchmark
+    public PrioritizedSplitRunner takeAndOffer()
+            throws InterruptedException
+    {
+        PrioritizedSplitRunner split = splitQueue.take();
+        split.getTaskHandle().addScheduledNanos(1_000);
+        splitQueue.offer(split);
+        return split;
+    }
+
+    private static class TinySplit
+            implements SplitRunner
+    {
+        @Override
+        public boolean isFinished()
+        {
+            return false;
+        }
+
+        @Override
+        public ListenableFuture<?> processFor(Duration duration)
+        {
+            return Futures.immediateFuture(null);
+        }
+
+        @Override
+        public String getInfo()
+        {
+            return "tiny-split";
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    public static void main(String[] args)
+            throws Exception
+    {
+        BenchmarkMultilevelSplitQueue benchmark = new BenchmarkMultilevelSplitQueue();
+        benchmark.stripes = 4;
+        benchmark.setup();
+        benchmark.takeAndOffer();
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkMultilevelSplitQueue.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -17,15 +17,23 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.stats.CounterStat;
+import io.airlift.stats.TimeStat;
 import io.airlift.testing.TestingTicker;
 import io.airlift.units.Duration;
 import io.trino.execution.SplitRunner;
 import io.trino.execution.TaskId;
+import io.trino.version.EmbedVersion;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.Phaser;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -36,11 +44,13 @@ import static io.airlift.testing.Assertions.assertGreaterThan;
 import static io.airlift.testing.Assertions.assertLessThan;
 import static io.trino.execution.executor.MultilevelSplitQueue.LEVEL_CONTRIBUTION_CAP;
 import static io.trino.execution.executor.MultilevelSplitQueue.LEVEL_THRESHOLD_SECONDS;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 public class TestTaskExecutor
@@ -364,6 +374,128 @@ public class TestTaskExecutor
         }
     }
 
+    @Test
+    public void testSchedulingGroupWeights()
+            throws Exception
+    {
+        MultilevelSplitQueue splitQueue = new MultilevelSplitQueue(2);
+        TestingTicker ticker = new TestingTicker();
+        TaskHandle lightHandle = new TaskHandle(new TaskId("light", 0, 0), splitQueue, new SchedulingGroup("light", 1), () -> 1, 1, new Duration(1, SECONDS), OptionalInt.empty());
+        TaskHandle heavyHandle = new TaskHandle(new TaskId("heavy", 0, 0), splitQueue, new SchedulingGroup("heavy", 3), () -> 1, 1, new Duration(1, SECONDS), OptionalInt.empty());
+        for (int i = 0; i < 400; i++) {
+            splitQueue.offer(newPrioritizedSplit(lightHandle, ticker));
+            splitQueue.offer(newPrioritizedSplit(heavyHandle, ticker));
+        }
+
+        // every split runs for the same time, so the heavy group runs three times as many splits
+        int lightSplits = 0;
+        for (int i = 0; i < 400; i++) {
+            PrioritizedSplitRunner split = splitQueue.take();
+            split.getTaskHandle().addScheduledNanos(MILLISECONDS.toNanos(1));
+            if (split.getTaskHandle() == lightHandle) {
+                lightSplits++;
+            }
+        }
+        assertGreaterThan(lightSplits, 95);
+        assertLessThan(lightSplits, 105);
+        assertEquals(splitQueue.size(), 400);
+    }
+
+    @Test
+    public void testSchedulingGroupCatchUp()
+            throws Exception
+    {
+        MultilevelSplitQueue splitQueue = new MultilevelSplitQueue(2);
+        TestingTicker ticker = new TestingTicker();
+        TaskHandle busyHandle = new TaskHandle(new TaskId("busy", 0, 0), splitQueue, new SchedulingGroup("busy", 1), () -> 1, 1, new Duration(1, SECONDS), OptionalInt.empty());
+        SchedulingGroup idleGroup = new SchedulingGroup("idle", 1);
+        TaskHandle idleHandle = new TaskHandle(new TaskId("idle", 0, 0), splitQueue, idleGroup, () -> 1, 1, new Duration(1, SECONDS), OptionalInt.empty());
+
+        splitQueue.offer(newPrioritizedSplit(busyHandle, ticker));
+        splitQueue.offer(newPrioritizedSplit(busyHandle, ticker));
+        busyHandle.addScheduledNanos(MILLISECONDS.toNanos(100));
+        splitQueue.take();
+
+        // a group without waiting splits does not accumulate credit for the time it was idle
+        splitQueue.offer(newPrioritizedSplit(idleHandle, ticker));
+        assertEquals(idleGroup.getVirtualTime(), MILLISECONDS.toNanos(100));
+        assertEquals(splitQueue.size(), 2);
+    }
+
+    @Test(timeOut = 30_000)
+    public void testStripedSplitQueue()
+            throws Exception
+    {
+        MultilevelSplitQueue splitQueue = new MultilevelSplitQueue(2, 4);
+        TestingTicker ticker = new TestingTicker();
+        TaskHandle handle = new TaskHandle(new TaskId("test", 0, 0), splitQueue, () -> 1, 1, new Duration(1, SECONDS), OptionalInt.empty());
+        List<PrioritizedSplitRunner> splits = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            PrioritizedSplitRunner split = newPrioritizedSplit(handle, ticker);
+            splits.add(split);
+            splitQueue.offer(split);
+        }
+        assertEquals(splitQueue.size(), 100);
+
+        splitQueue.removeAll(splits.subList(0, 50));
+        assertEquals(splitQueue.size(), 50);
+
+        // the remaining splits are taken from all the stripes, in parallel
+        Set<PrioritizedSplitRunner> taken = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        taken.add(splitQueue.take());
+                    }
+                    return null;
+                }));
+            }
+            // the permits of the removed splits do not make a thread return without a split
+            for (int i = 0; i < 50; i++) {
+                splitQueue.offer(newPrioritizedSplit(handle, ticker));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        assertEquals(taken.size(), 100);
+        assertTrue(taken.containsAll(splits.subList(50, 100)));
+        assertEquals(splitQueue.size(), 0);
+    }
+
+    @Test
+    public void testSchedulingGroupRegistration()
+    {
+        TaskExecutor taskExecutor = new TaskExecutor(4, 8, 1, 4, new EmbedVersion("testversion"), new MultilevelSplitQueue(2), true, Optional.empty(), new TestingTicker());
+        taskExecutor.start();
+        try {
+            TaskHandle handle0 = taskExecutor.addTask(new TaskId("test0", 0, 0), Optional.of("global.a"), 2, () -> 0, 10, new Duration(1, MILLISECONDS), OptionalInt.empty());
+            TaskHandle handle1 = taskExecutor.addTask(new TaskId("test1", 0, 0), Optional.of("global.a"), 3, () -> 0, 10, new Duration(1, MILLISECONDS), OptionalInt.empty());
+            TaskHandle handle2 = taskExecutor.addTask(new TaskId("test2", 0, 0), Optional.empty(), 5, () -> 0, 10, new Duration(1, MILLISECONDS), OptionalInt.empty());
+
+            assertSame(handle0.getSchedulingGroup(), handle1.getSchedulingGroup());
+            assertEquals(handle0.getSchedulingGroup().getWeight(), 3);
+            assertEquals(handle0.getSchedulingGroup().getTasks(), 2);
+            assertEquals(handle2.getSchedulingGroup().getName(), "default");
+            assertEquals(taskExecutor.getSchedulingGroups(), 1);
+
+            taskExecutor.removeTask(handle0);
+            assertEquals(taskExecutor.getSchedulingGroups(), 1);
+            taskExecutor.removeTask(handle1);
+            assertEquals(taskExecutor.getSchedulingGroups(), 0);
+            taskExecutor.removeTask(handle2);
+        }
+        finally {
+            taskExecutor.stop();
+        }
+    }
+
     @Test(timeOut = 30_000)
     public void testMinMaxDriversPerTask()
     {
@@ -469,6 +601,18 @@ public class TestTaskExecutor
         }
     }
 
+    private static PrioritizedSplitRunner newPrioritizedSplit(TaskHandle taskHandle, TestingTicker ticker)
+    {
+        return new PrioritizedSplitRunner(
+                taskHandle,
+                new TestingJob(ticker, new Phaser(), new Phaser(), new Phaser(), 1, 0),
+                ticker,
+                new CounterStat(),
+                new CounterStat(),
+                new TimeStat(),
+                new TimeStat());
+    }
+
     private static class TestingJob
             implements SplitRunner
     {
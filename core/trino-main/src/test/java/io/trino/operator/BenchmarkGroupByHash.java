@@ -92,8 +92,9 @@ public class BenchmarkGroupByHash
                 pageBuilder.reset();
             }
         }
-        pages.add(pageBuilder.build());
-        return pageBuilder.build();
+        Page page = pageBuilder.build();
+        pages.add(page);
+        return page;
     }
 
     @Benchmark
@@ -113,8 +114,53 @@ public class BenchmarkGroupByHash
                 pageBuilder.reset();
             }
         }
-        pages.add(pageBuilder.build());
-        return pageBuilder.build();
+        Page page = pageBuilder.build();
+        pages.add(page);
+        return page;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public Object groupByHashPreComputeFlat(BenchmarkData data)
+    {
+        GroupByHash groupByHash = new FlatGroupByHash(data.getTypes(), data.getChannels(), data.getHashChannel(), EXPECTED_SIZE, TYPE_OPERATOR_FACTORY, NOOP);
+        data.getPages().forEach(p -> groupByHash.getGroupIds(p).process());
+
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        PageBuilder pageBuilder = new PageBuilder(groupByHash.getTypes());
+        for (int groupId = 0; groupId < groupByHash.getGroupCount(); groupId++) {
+            pageBuilder.declarePosition();
+            groupByHash.appendValuesTo(groupId, pageBuilder, 0);
+            if (pageBuilder.isFull()) {
+                pages.add(pageBuilder.build());
+                pageBuilder.reset();
+            }
+        }
+        Page page = pageBuilder.build();
+        pages.add(page);
+        return page;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public Object addPagePreComputeFlat(BenchmarkData data)
+    {
+        GroupByHash groupByHash = new FlatGroupByHash(data.getTypes(), data.getChannels(), data.getHashChannel(), EXPECTED_SIZE, TYPE_OPERATOR_FACTORY, NOOP);
+        data.getPages().forEach(p -> groupByHash.addPage(p).process());
+
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        PageBuilder pageBuilder = new PageBuilder(groupByHash.getTypes());
+        for (int groupId = 0; groupId < groupByHash.getGroupCount(); groupId++) {
+            pageBuilder.declarePosition();
+            groupByHash.appendValuesTo(groupId, pageBuilder, 0);
+            if (pageBuilder.isFull()) {
+                pages.add(pageBuilder.build());
+                pageBuilder.reset();
+            }
+        }
+        Page page = pageBuilder.build();
+        pages.add(page);
+        return page;
     }
 
     @Benchmark
@@ -134,8 +180,9 @@ public class BenchmarkGroupByHash
                 pageBuilder.reset();
             }
         }
-        pages.add(pageBuilder.build());
-        return pageBuilder.build();
+        Page page = pageBuilder.build();
+        pages.add(page);
+        return page;
     }
 
     @Benchmark
@@ -323,7 +370,7 @@ public class BenchmarkGroupByHash
     @State(Scope.Thread)
     public static class BenchmarkData
     {
-        @Param({"1", "5", "10", "15", "20"})
+        @Param({"1", "2", "3", "4", "5", "10", "15", "20"})
         private int channelCount = 1;
 
         // todo add more group counts when JMH support programmatic ability to set OperationsPerInvocation
@@ -397,6 +444,8 @@ public class BenchmarkGroupByHash
         data.setup();
         new BenchmarkGroupByHash().groupByHashPreCompute(data);
         new BenchmarkGroupByHash().addPagePreCompute(data);
+        new BenchmarkGroupByHash().groupByHashPreComputeFlat(data);
+        new BenchmarkGroupByHash().addPagePreComputeFlat(data);
 
         SingleChannelBenchmarkData singleChannelBenchmarkData = new SingleChannelBenchmarkData();
         singleChannelBenchmarkData.setup();
@@ -333,7 +333,9 @@ public class BenchmarkHashBuildAndJoinOperators
                 10_000,
                 new PagesIndex.TestingFactory(false),
                 false,
-                SingleStreamSpillerFactory.unsupportedSingleStreamSpillerFactory());
+                SingleStreamSpillerFactory.unsupportedSingleStreamSpillerFactory(),
+                unsupportedPartitioningSpillerFactory(),
+                DataSize.of(256, DataSize.Unit.MEGABYTE));
 
         Operator[] operators = IntStream.range(0, partitionCount)
                 .mapToObj(i -> buildContext.createTaskContext()
@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.type.Type;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static io.trino.SessionTestUtils.TEST_SESSION;
+import static io.trino.block.BlockAssertions.createIntsBlock;
+import static io.trino.block.BlockAssertions.createLongsBlock;
+import static io.trino.block.BlockAssertions.createStringsBlock;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestBigintJoinHash
+{
+    @Test
+    public void testSupportedTypes()
+    {
+        assertTrue(BigintPagesHash.isSupportedJoinType(BIGINT));
+        assertTrue(BigintPagesHash.isSupportedJoinType(INTEGER));
+        assertFalse(BigintPagesHash.isSupportedJoinType(DOUBLE));
+        assertFalse(BigintPagesHash.isSupportedJoinType(VARCHAR));
+    }
+
+    @Test
+    public void testBigintKey()
+    {
+        List<Type> types = ImmutableList.of(VARCHAR, BIGINT);
+        PagesIndex pagesIndex = new PagesIndex.TestingFactory(false).newPagesIndex(types, 10);
+        pagesIndex.addPage(new Page(
+                createStringsBlock("a", "b", "c", "d"),
+                createLongsBlock(1L, 2L, null, 1L)));
+        pagesIndex.addPage(new Page(
+                createStringsBlock("e", "f"),
+                createLongsBlock(Long.MIN_VALUE, 1L)));
+
+        LookupSource lookupSource = createLookupSource(pagesIndex, 1);
+        assertEquals(lookupSource.getJoinPositionCount(), 6);
+
+        Page probe = new Page(createLongsBlock(1L, 2L, 3L, null, Long.MIN_VALUE));
+        assertEquals(getMatches(lookupSource, probe, 0, types), ImmutableList.of("f", "d", "a"));
+        assertEquals(getMatches(lookupSource, probe, 1, types), ImmutableList.of("b"));
+        assertEquals(getMatches(lookupSource, probe, 2, types), ImmutableList.of());
+        assertEquals(getMatches(lookupSource, probe, 3, types), ImmutableList.of());
+        assertEquals(getMatches(lookupSource, probe, 4, types), ImmutableList.of("e"));
+    }
+
+    @Test
+    public void testIntegerKey()
+    {
+        List<Type> types = ImmutableList.of(INTEGER, VARCHAR);
+        PagesIndex pagesIndex = new PagesIndex.TestingFactory(false).newPagesIndex(types, 10);
+        List<Integer> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            keys.add(i % 1_000 - 500);
+            values.add(String.valueOf(i));
+        }
+        pagesIndex.addPage(new Page(createIntsBlock(keys), createStringsBlock(values)));
+
+        LookupSource lookupSource = createLookupSource(pagesIndex, 0);
+
+        Page probe = new Page(createIntsBlock(-500, 0, 499, 500));
+        assertEquals(getMatches(lookupSource, probe, 0, types).size(), 10);
+        assertThat(getMatches(lookupSource, probe, 1, types)).containsOnly("500", "1500", "2500", "3500", "4500", "5500", "6500", "7500", "8500", "9500");
+        assertEquals(getMatches(lookupSource, probe, 2, types).size(), 10);
+        assertEquals(getMatches(lookupSource, probe, 3, types).size(), 0);
+    }
+
+    private static LookupSource createLookupSource(PagesIndex pagesIndex, int joinChannel)
+    {
+        LookupSourceSupplier lookupSourceSupplier = pagesIndex.createLookupSourceSupplier(
+                TEST_SESSION,
+                ImmutableList.of(joinChannel),
+                OptionalInt.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                ImmutableList.of());
+        // the supplier is loaded in an isolated class loader
+        assertEquals(lookupSourceSupplier.getClass().getName(), BigintJoinHashSupplier.class.getName());
+        return lookupSourceSupplier.get();
+    }
+
+    private static List<String> getMatches(LookupSource lookupSource, Page probe, int position, List<Type> types)
+    {
+        PageBuilder pageBuilder = new PageBuilder(types);
+        long joinPosition = lookupSource.getJoinPosition(position, probe, probe);
+        while (joinPosition >= 0) {
+            pageBuilder.declarePosition();
+            lookupSource.appendTo(joinPosition, pageBuilder, 0);
+            joinPosition = lookupSource.getNextJoinPosition(joinPosition, position, probe);
+        }
+        Page page = pageBuilder.build();
+        int valueChannel = types.indexOf(VARCHAR);
+        ImmutableList.Builder<String> matches = ImmutableList.builder();
+        for (int i = 0; i < page.getPositionCount(); i++) {
+            matches.add(VARCHAR.getSlice(page.getBlock(valueChannel), i).toStringUtf8());
+        }
+        return matches.build();
+    }
+}
@@ -13,6 +13,7 @@
  */
 package io.trino.operator;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.util.concurrent.Futures;
@@ -26,6 +27,12 @@ import io.airlift.units.DataSize;
 import io.airlift.units.DataSize.Unit;
 import io.airlift.units.Duration;
 import io.trino.block.BlockAssertions;
+import io.trino.exchange.ExchangeSpool;
+import io.trino.exchange.ExchangeSpoolSink;
+import io.trino.exchange.FileSystemExchangeSpool;
+import io.trino.exchange.SpoolLocation;
+import io.trino.execution.TaskId;
+import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
 import io.trino.execution.buffer.PagesSerde;
 import io.trino.execution.buffer.SerializedPage;
 import io.trino.memory.context.SimpleLocalMemoryContext;
@@ -37,7 +44,10 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -48,6 +58,8 @@ import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableListMultimap.toImmutableListMultimap;
 import static com.google.common.collect.Maps.uniqueIndex;
 import static com.google.common.io.ByteStreams.toByteArray;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
 import static io.airlift.concurrent.MoreFutures.tryGetFutureValue;
@@ -117,7 +129,8 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, scheduler),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                new FileSystemExchangeSpool(Optional.empty()));
 
         exchangeClient.addLocation(location);
         exchangeClient.noMoreLocations();
@@ -139,6 +152,63 @@ public class TestExchangeClient
         assertStatus(status.getPageBufferClientStatuses().get(0), location, "closed", 3, 3, 3, "not scheduled");
     }
 
+    @Test(timeOut = 10000)
+    public void testSpoolLocation()
+            throws Exception
+    {
+        Path spoolPath = Files.createTempDirectory("exchange-spool");
+        try {
+            ExchangeSpool exchangeSpool = new FileSystemExchangeSpool(Optional.of(spoolPath));
+            TaskId taskId = new TaskId("query", 1, 0);
+            URI location = new SpoolLocation(taskId, new OutputBufferId(0)).toUri();
+
+            @SuppressWarnings("resource")
+            ExchangeClient exchangeClient = new ExchangeClient(
+                    "localhost",
+                    DataIntegrityVerification.ABORT,
+                    DataSize.of(32, Unit.MEGABYTE),
+                    DataSize.of(10, Unit.MEGABYTE),
+                    1,
+                    new Duration(1, TimeUnit.MINUTES),
+                    true,
+                    new TestingHttpClient(new MockExchangeRequestProcessor(DataSize.of(10, Unit.MEGABYTE)), scheduler),
+                    scheduler,
+                    new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
+                    pageBufferClientCallbackExecutor,
+                    exchangeSpool);
+
+            exchangeClient.addLocation(location);
+            exchangeClient.noMoreLocations();
+
+            // pages are only read once the output of the task is committed
+            sleepUninterruptibly(200, MILLISECONDS);
+            assertNull(exchangeClient.pollPage());
+            assertFalse(exchangeClient.isFinished());
+
+            ExchangeSpoolSink sink = exchangeSpool.createSink(taskId, "instance");
+            try (PagesSerde.PagesSerdeContext context = PAGES_SERDE.newContext()) {
+                for (int i = 1; i <= 3; i++) {
+                    sink.add(new OutputBufferId(0), ImmutableList.of(PAGES_SERDE.serialize(context, createPage(i))));
+                }
+            }
+            sink.commit();
+
+            assertPageEquals(getNextPage(exchangeClient), createPage(1));
+            assertPageEquals(getNextPage(exchangeClient), createPage(2));
+            assertPageEquals(getNextPage(exchangeClient), createPage(3));
+            assertNull(getNextPage(exchangeClient));
+            assertEquals(exchangeClient.isClosed(), true);
+
+            PageBufferClientStatus status = exchangeClient.getStatus().getPageBufferClientStatuses().get(0);
+            assertEquals(status.getUri(), location);
+            assertEquals(status.getState(), "closed");
+            assertEquals(status.getPagesReceived(), 3);
+        }
+        finally {
+            deleteRecursively(spoolPath, ALLOW_INSECURE);
+        }
+    }
+
     @Test(timeOut = 10000)
     public void testAddLocation()
             throws Exception
@@ -158,7 +228,8 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, newCachedThreadPool(daemonThreadsNamed(getClass().getSimpleName() + "-testAddLocation-%s"))),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                new FileSystemExchangeSpool(Optional.empty()));
 
         URI location1 = URI.create("http://localhost:8081/foo");
         processor.addPage(location1, createPage(1));
@@ -232,7 +303,8 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, newCachedThreadPool(daemonThreadsNamed(getClass().getSimpleName() + "-testBufferLimit-%s"))),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                new FileSystemExchangeSpool(Optional.empty()));
 
         exchangeClient.addLocation(location);
         exchangeClient.noMoreLocations();
@@ -387,7 +459,8 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, scheduler),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                new FileSystemExchangeSpool(Optional.empty()));
 
         exchangeClient.addLocation(location);
         exchangeClient.noMoreLocations();
@@ -419,7 +492,8 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, newCachedThreadPool(daemonThreadsNamed(getClass().getSimpleName() + "-testClose-%s"))),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                new FileSystemExchangeSpool(Optional.empty()));
         exchangeClient.addLocation(location);
         exchangeClient.noMoreLocations();
 
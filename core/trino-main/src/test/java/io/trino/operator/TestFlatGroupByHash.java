@@ -0,0 +1,226 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.DecimalType;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.TypeOperators;
+import io.trino.sql.gen.JoinCompiler;
+import io.trino.type.BlockTypeOperators;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.trino.block.BlockAssertions.createBooleansBlock;
+import static io.trino.block.BlockAssertions.createIntsBlock;
+import static io.trino.block.BlockAssertions.createLongsBlock;
+import static io.trino.block.BlockAssertions.createRLEBlock;
+import static io.trino.block.BlockAssertions.createStringsBlock;
+import static io.trino.operator.GroupByHash.createGroupByHash;
+import static io.trino.operator.PageAssertions.assertPageEquals;
+import static io.trino.operator.UpdateMemory.NOOP;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.BooleanType.BOOLEAN;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.type.TypeTestUtils.getHashBlock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestFlatGroupByHash
+{
+    private static final TypeOperators TYPE_OPERATORS = new TypeOperators();
+    private static final BlockTypeOperators TYPE_OPERATOR_FACTORY = new BlockTypeOperators(TYPE_OPERATORS);
+    private static final JoinCompiler JOIN_COMPILER = new JoinCompiler(TYPE_OPERATORS);
+
+    @Test
+    public void testSupportedTypes()
+    {
+        assertTrue(FlatGroupByHash.isSupportedType(BIGINT));
+        assertTrue(FlatGroupByHash.isSupportedType(INTEGER));
+        assertTrue(FlatGroupByHash.isSupportedType(BOOLEAN));
+        assertTrue(FlatGroupByHash.isSupportedType(VARCHAR));
+        assertTrue(FlatGroupByHash.isSupportedType(DecimalType.createDecimalType(10, 2)));
+        assertFalse(FlatGroupByHash.isSupportedType(DecimalType.createDecimalType(30, 2)));
+        assertFalse(FlatGroupByHash.isSupportedType(DOUBLE));
+    }
+
+    @Test
+    public void testFactorySelection()
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR);
+        int[] channels = {0, 1};
+        assertThat(createGroupByHash(types, channels, Optional.empty(), 10, false, true, JOIN_COMPILER, TYPE_OPERATOR_FACTORY, NOOP))
+                .isInstanceOf(FlatGroupByHash.class);
+        assertThat(createGroupByHash(types, channels, Optional.empty(), 10, false, false, JOIN_COMPILER, TYPE_OPERATOR_FACTORY, NOOP))
+                .isInstanceOf(MultiChannelGroupByHash.class);
+        assertThat(createGroupByHash(types, channels, Optional.empty(), 10, true, true, JOIN_COMPILER, TYPE_OPERATOR_FACTORY, NOOP))
+                .isInstanceOf(MultiChannelGroupByHash.class);
+        assertThat(createGroupByHash(ImmutableList.of(DOUBLE, BIGINT), channels, Optional.empty(), 10, false, true, JOIN_COMPILER, TYPE_OPERATOR_FACTORY, NOOP))
+                .isInstanceOf(MultiChannelGroupByHash.class);
+        assertThat(createGroupByHash(ImmutableList.of(BIGINT), new int[] {0}, Optional.empty(), 10, false, true, JOIN_COMPILER, TYPE_OPERATOR_FACTORY, NOOP))
+                .isInstanceOf(BigintGroupByHash.class);
+    }
+
+    @Test
+    public void testMatchesMultiChannelGroupByHash()
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR, INTEGER, BOOLEAN);
+        int[] channels = {0, 1, 2, 3};
+
+        List<Long> longs = new ArrayList<>();
+        List<String> strings = new ArrayList<>();
+        List<Integer> ints = new ArrayList<>();
+        List<Boolean> booleans = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            longs.add(i % 7 == 0 ? null : (long) (i % 97));
+            strings.add(i % 11 == 0 ? null : "value_" + (i % 13));
+            ints.add(i % 5);
+            booleans.add(i % 17 == 0 ? null : i % 2 == 0);
+        }
+        Page page = new Page(
+                createLongsBlock(longs),
+                createStringsBlock(strings),
+                createIntsBlock(ints),
+                createBooleansBlock(booleans));
+
+        for (boolean precomputedHash : new boolean[] {false, true}) {
+            Page input = page;
+            Optional<Integer> hashChannel = Optional.empty();
+            if (precomputedHash) {
+                input = page.appendColumn(getHashBlock(types, page.getBlock(0), page.getBlock(1), page.getBlock(2), page.getBlock(3)));
+                hashChannel = Optional.of(4);
+            }
+
+            GroupByHash flat = new FlatGroupByHash(types, channels, hashChannel, 1, TYPE_OPERATOR_FACTORY, NOOP);
+            GroupByHash multiChannel = new MultiChannelGroupByHash(types, channels, hashChannel, 1, false, JOIN_COMPILER, TYPE_OPERATOR_FACTORY, NOOP);
+
+            Work<GroupByIdBlock> flatWork = flat.getGroupIds(input);
+            assertTrue(flatWork.process());
+            Work<GroupByIdBlock> multiChannelWork = multiChannel.getGroupIds(input);
+            assertTrue(multiChannelWork.process());
+
+            GroupByIdBlock flatGroupIds = flatWork.getResult();
+            GroupByIdBlock multiChannelGroupIds = multiChannelWork.getResult();
+            assertEquals(flat.getGroupCount(), multiChannel.getGroupCount());
+            assertEquals(flatGroupIds.getGroupCount(), multiChannelGroupIds.getGroupCount());
+            for (int position = 0; position < input.getPositionCount(); position++) {
+                assertEquals(flatGroupIds.getGroupId(position), multiChannelGroupIds.getGroupId(position));
+                assertTrue(flat.contains(position, input, channels));
+            }
+
+            assertEquals(flat.getTypes(), multiChannel.getTypes());
+            PageBuilder flatPageBuilder = new PageBuilder(flat.getTypes());
+            PageBuilder multiChannelPageBuilder = new PageBuilder(multiChannel.getTypes());
+            for (int groupId = 0; groupId < flat.getGroupCount(); groupId++) {
+                flatPageBuilder.declarePosition();
+                flat.appendValuesTo(groupId, flatPageBuilder, 0);
+                multiChannelPageBuilder.declarePosition();
+                multiChannel.appendValuesTo(groupId, multiChannelPageBuilder, 0);
+                assertEquals(flat.getRawHash(groupId), multiChannel.getRawHash(groupId));
+            }
+            assertPageEquals(flat.getTypes(), flatPageBuilder.build(), multiChannelPageBuilder.build());
+        }
+    }
+
+    @Test
+    public void testContains()
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR);
+        int[] channels = {0, 1};
+        GroupByHash groupByHash = new FlatGroupByHash(types, channels, Optional.empty(), 10, TYPE_OPERATOR_FACTORY, NOOP);
+        assertTrue(groupByHash.addPage(new Page(createLongsBlock(1L, 2L, null), createStringsBlock("a", "b", "c"))).process());
+
+        Page probe = new Page(createLongsBlock(1L, 2L, null, 1L, null), createStringsBlock("a", "b", "c", "b", null));
+        assertTrue(groupByHash.contains(0, probe, channels));
+        assertTrue(groupByHash.contains(1, probe, channels));
+        assertTrue(groupByHash.contains(2, probe, channels));
+        assertFalse(groupByHash.contains(3, probe, channels));
+        assertFalse(groupByHash.contains(4, probe, channels));
+    }
+
+    @Test
+    public void testRunLengthEncodedInput()
+    {
+        List<Type> types = ImmutableList.of(BIGINT, BIGINT);
+        int[] channels = {0, 1};
+        GroupByHash groupByHash = new FlatGroupByHash(types, channels, Optional.empty(), 10, TYPE_OPERATOR_FACTORY, NOOP);
+
+        Work<GroupByIdBlock> work = groupByHash.getGroupIds(new Page(createRLEBlock(3, 100), createRLEBlock(4, 100)));
+        assertTrue(work.process());
+        GroupByIdBlock groupIds = work.getResult();
+        assertEquals(groupIds.getPositionCount(), 100);
+        assertEquals(groupIds.getGroupId(99), 0);
+        assertEquals(groupByHash.getGroupCount(), 1);
+    }
+
+    @Test
+    public void testMemoryReservationYield()
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR);
+        int[] channels = {0, 1};
+        int length = 1_000;
+        List<Long> longs = new ArrayList<>();
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            longs.add((long) i);
+            strings.add(String.valueOf(i));
+        }
+        Page page = new Page(createLongsBlock(longs), createStringsBlock(strings));
+
+        AtomicInteger yields = new AtomicInteger();
+        GroupByHash groupByHash = new FlatGroupByHash(types, channels, Optional.empty(), 1, TYPE_OPERATOR_FACTORY, () -> {
+            // reject every other reservation
+            return yields.incrementAndGet() % 2 == 0;
+        });
+
+        Work<GroupByIdBlock> work = groupByHash.getGroupIds(page);
+        while (!work.process()) {
+            long capacity = groupByHash.getCapacity();
+            assertTrue(groupByHash.getEstimatedSize() > 0);
+            assertEquals(groupByHash.getCapacity(), capacity);
+        }
+        GroupByIdBlock groupIds = work.getResult();
+        assertEquals(groupByHash.getGroupCount(), length);
+        for (int position = 0; position < length; position++) {
+            assertEquals(groupIds.getGroupId(position), position);
+        }
+        assertTrue(yields.get() > 1);
+
+        Block values = getValues(groupByHash, 1);
+        for (int position = 0; position < length; position++) {
+            assertEquals(VARCHAR.getSlice(values, position).toStringUtf8(), String.valueOf(position));
+        }
+    }
+
+    private static Block getValues(GroupByHash groupByHash, int channel)
+    {
+        PageBuilder pageBuilder = new PageBuilder(groupByHash.getTypes());
+        for (int groupId = 0; groupId < groupByHash.getGroupCount(); groupId++) {
+            pageBuilder.declarePosition();
+            groupByHash.appendValuesTo(groupId, pageBuilder, 0);
+        }
+        return pageBuilder.build().getBlock(channel);
+    }
+}
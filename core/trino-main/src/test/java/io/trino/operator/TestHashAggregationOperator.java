@@ -27,6 +27,7 @@ import io.trino.operator.HashAggregationOperator.HashAggregationOperatorFactory;
 import io.trino.operator.aggregation.InternalAggregationFunction;
 import io.trino.operator.aggregation.builder.HashAggregationBuilder;
 import io.trino.operator.aggregation.builder.InMemoryHashAggregationBuilder;
+import io.trino.operator.aggregation.partial.PartialAggregationController;
 import io.trino.spi.Page;
 import io.trino.spi.block.BlockBuilder;
 import io.trino.spi.block.PageBuilderStatus;
@@ -66,6 +67,8 @@ import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.airlift.units.DataSize.succinctBytes;
 import static io.trino.RowPagesBuilder.rowPagesBuilder;
 import static io.trino.SessionTestUtils.TEST_SESSION;
+import static io.trino.block.BlockAssertions.createLongsBlock;
+import static io.trino.block.BlockAssertions.createRLEBlock;
 import static io.trino.metadata.MetadataManager.createTestMetadataManager;
 import static io.trino.operator.GroupByHashYieldAssertion.GroupByHashYieldResult;
 import static io.trino.operator.GroupByHashYieldAssertion.createPagesWithDistinctHashKeys;
@@ -89,6 +92,7 @@ import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
@@ -201,7 +205,8 @@ public class TestHashAggregationOperator
                 spillerFactory,
                 joinCompiler,
                 blockTypeOperators,
-                false);
+                false,
+                Optional.empty());
 
         DriverContext driverContext = createDriverContext(memoryLimitForMerge);
 
@@ -259,7 +264,8 @@ public class TestHashAggregationOperator
                 spillerFactory,
                 joinCompiler,
                 blockTypeOperators,
-                false);
+                false,
+                Optional.empty());
 
         DriverContext driverContext = createDriverContext(memoryLimitForMerge);
         MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, BIGINT, BIGINT, BIGINT, DOUBLE, VARCHAR, BIGINT, BIGINT)
@@ -308,7 +314,8 @@ public class TestHashAggregationOperator
                 spillerFactory,
                 joinCompiler,
                 blockTypeOperators,
-                false);
+                false,
+                Optional.empty());
 
         Operator operator = operatorFactory.createOperator(driverContext);
         toPages(operator, input.iterator(), revokeMemoryWhenAddingPages);
@@ -392,7 +399,8 @@ public class TestHashAggregationOperator
                 spillerFactory,
                 joinCompiler,
                 blockTypeOperators,
-                false);
+                false,
+                Optional.empty());
 
         toPages(operatorFactory, driverContext, input, revokeMemoryWhenAddingPages);
     }
@@ -591,6 +599,74 @@ public class TestHashAggregationOperator
         assertEquals(driverContext.getMemoryUsage(), 0);
     }
 
+    @Test
+    public void testAdaptivePartialAggregation()
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+
+        PartialAggregationController partialAggregationController = new PartialAggregationController(5, 0.8);
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                hashChannels,
+                ImmutableList.of(),
+                Step.PARTIAL,
+                false,
+                ImmutableList.of(LONG_MIN.bind(ImmutableList.of(0), Optional.empty())),
+                Optional.empty(),
+                Optional.empty(),
+                100,
+                Optional.of(succinctBytes(1)), // this setting makes operator to flush after each page
+                false,
+                succinctBytes(0),
+                succinctBytes(0),
+                spillerFactory,
+                joinCompiler,
+                blockTypeOperators,
+                false,
+                Optional.of(partialAggregationController));
+
+        // at the start partial aggregation is enabled
+        assertFalse(partialAggregationController.isPartialAggregationDisabled());
+
+        // first page is aggregated, but the values are almost unique, so partial aggregation gets disabled
+        List<Page> operator1Input = rowPagesBuilder(false, hashChannels, BIGINT)
+                .addBlocksPage(createLongsBlock(0, 1, 2, 3, 4, 5, 6, 7, 8, 8))
+                .addBlocksPage(createRLEBlock(1, 10))
+                .build();
+        MaterializedResult operator1Expected = resultBuilder(TEST_SESSION, BIGINT, BIGINT)
+                .row(0L, 0L)
+                .row(1L, 1L)
+                .row(2L, 2L)
+                .row(3L, 3L)
+                .row(4L, 4L)
+                .row(5L, 5L)
+                .row(6L, 6L)
+                .row(7L, 7L)
+                .row(8L, 8L)
+                .build();
+        DriverContext driverContext = createDriverContext();
+        Operator operator1 = operatorFactory.createOperator(driverContext);
+        List<Page> operator1Output = toPages(operator1, operator1Input.subList(0, 1).iterator());
+        assertEqualsIgnoreOrder(toMaterializedResult(TEST_SESSION, operator1Expected.getTypes(), operator1Output).getMaterializedRows(), operator1Expected.getMaterializedRows());
+        assertTrue(partialAggregationController.isPartialAggregationDisabled());
+
+        // second operator passes raw values through as intermediate rows
+        MaterializedResult.Builder operator2Expected = resultBuilder(TEST_SESSION, BIGINT, BIGINT);
+        for (int i = 0; i < 10; i++) {
+            operator2Expected.row(1L, 1L);
+        }
+        Operator operator2 = operatorFactory.createOperator(createDriverContext());
+        List<Page> operator2Output = toPages(operator2, operator1Input.subList(1, 2).iterator());
+        assertEquals(toMaterializedResult(TEST_SESSION, operator1Expected.getTypes(), operator2Output).getMaterializedRows(), operator2Expected.build().getMaterializedRows());
+
+        PartialAggregationInfo info = (PartialAggregationInfo) operator2.getOperatorContext().getOperatorStats().getInfo();
+        assertEquals(info.getAggregatedInputPositions(), 0);
+        assertEquals(info.getSkippedInputPositions(), 10);
+        assertEquals(info.getPartialAggregationDisabledCount(), 1);
+    }
+
     @Test
     public void testMergeWithMemorySpill()
     {
@@ -622,7 +698,8 @@ public class TestHashAggregationOperator
                 spillerFactory,
                 joinCompiler,
                 blockTypeOperators,
-                false);
+                false,
+                Optional.empty());
 
         DriverContext driverContext = createDriverContext(smallPagesSpillThresholdSize);
 
@@ -679,7 +756,8 @@ public class TestHashAggregationOperator
                 new FailingSpillerFactory(),
                 joinCompiler,
                 blockTypeOperators,
-                false);
+                false,
+                Optional.empty());
 
         assertThatThrownBy(() -> toPages(operatorFactory, driverContext, input))
                 .isInstanceOf(RuntimeException.class)
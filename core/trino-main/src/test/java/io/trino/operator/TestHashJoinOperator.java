@@ -87,6 +87,7 @@ import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.testing.Assertions.assertEqualsIgnoreOrder;
+import static io.airlift.testing.Assertions.assertGreaterThan;
 import static io.trino.RowPagesBuilder.rowPagesBuilder;
 import static io.trino.SessionTestUtils.TEST_SESSION;
 import static io.trino.operator.OperatorAssertion.assertOperatorEquals;
@@ -122,6 +123,7 @@ public class TestHashJoinOperator
     private static final LookupJoinOperators LOOKUP_JOIN_OPERATORS = new LookupJoinOperators();
     private static final SingleStreamSpillerFactory SINGLE_STREAM_SPILLER_FACTORY = new DummySpillerFactory();
     private static final PartitioningSpillerFactory PARTITIONING_SPILLER_FACTORY = new GenericPartitioningSpillerFactory(SINGLE_STREAM_SPILLER_FACTORY);
+    private static final DataSize DEFAULT_UNSPILL_MEMORY_LIMIT = DataSize.of(256, DataSize.Unit.MEGABYTE);
     private static final BlockTypeOperators TYPE_OPERATOR_FACTORY = new BlockTypeOperators(new TypeOperators());
 
     private ExecutorService executor;
@@ -393,6 +395,22 @@ public class TestHashJoinOperator
         innerJoinWithSpill(probeHashEnabled, whenSpill, SINGLE_STREAM_SPILLER_FACTORY, PARTITIONING_SPILLER_FACTORY);
     }
 
+    @Test(dataProvider = "joinWithSpillValues")
+    public void testInnerJoinWithSpillSplittingPartitions(boolean probeHashEnabled, List<WhenSpill> whenSpill, boolean isDictionaryProcessingJoinEnabled)
+            throws Exception
+    {
+        // spilled partitions are larger than the limit, so they are split into sub-partitions
+        AtomicInteger splitPartitions = new AtomicInteger();
+        PartitioningSpillerFactory buildPartitioningSpillerFactory = (types, partitionFunction, spillContext, memoryContext) -> {
+            splitPartitions.incrementAndGet();
+            return PARTITIONING_SPILLER_FACTORY.create(types, partitionFunction, spillContext, memoryContext);
+        };
+        innerJoinWithSpill(probeHashEnabled, whenSpill, SINGLE_STREAM_SPILLER_FACTORY, PARTITIONING_SPILLER_FACTORY, buildPartitioningSpillerFactory, DataSize.ofBytes(32));
+        if (whenSpill.contains(WhenSpill.DURING_BUILD)) {
+            assertGreaterThan(splitPartitions.get(), 0);
+        }
+    }
+
     @Test(dataProvider = "joinWithFailingSpillValues")
     public void testInnerJoinWithFailingSpill(boolean probeHashEnabled, List<WhenSpill> whenSpill, WhenSpillFails whenSpillFails, boolean isDictionaryProcessingJoinEnabled)
     {
@@ -428,6 +446,18 @@ public class TestHashJoinOperator
 
     private void innerJoinWithSpill(boolean probeHashEnabled, List<WhenSpill> whenSpill, SingleStreamSpillerFactory buildSpillerFactory, PartitioningSpillerFactory joinSpillerFactory)
             throws Exception
+    {
+        innerJoinWithSpill(probeHashEnabled, whenSpill, buildSpillerFactory, joinSpillerFactory, PARTITIONING_SPILLER_FACTORY, DEFAULT_UNSPILL_MEMORY_LIMIT);
+    }
+
+    private void innerJoinWithSpill(
+            boolean probeHashEnabled,
+            List<WhenSpill> whenSpill,
+            SingleStreamSpillerFactory buildSpillerFactory,
+            PartitioningSpillerFactory joinSpillerFactory,
+            PartitioningSpillerFactory buildPartitioningSpillerFactory,
+            DataSize unspillMemoryLimit)
+            throws Exception
     {
         TaskStateMachine taskStateMachine = new TaskStateMachine(new TaskId("query", 0, 0), executor);
         TaskContext taskContext = TestingTaskContext.createTaskContext(executor, scheduledExecutor, TEST_SESSION, taskStateMachine);
@@ -450,7 +480,7 @@ public class TestHashJoinOperator
                 .addSequencePage(4, 30, 300)
                 .addSequencePage(4, 40, 400);
 
-        BuildSideSetup buildSideSetup = setupBuildSide(true, taskContext, Ints.asList(0), buildPages, Optional.of(filterFunction), true, buildSpillerFactory);
+        BuildSideSetup buildSideSetup = setupBuildSide(true, taskContext, Ints.asList(0), buildPages, Optional.of(filterFunction), true, buildSpillerFactory, buildPartitioningSpillerFactory, unspillMemoryLimit);
         JoinBridgeManager<PartitionedLookupSourceFactory> lookupSourceFactoryManager = buildSideSetup.getLookupSourceFactoryManager();
 
         // probe factory
@@ -1640,6 +1670,20 @@ public class TestHashJoinOperator
             Optional<InternalJoinFilterFunction> filterFunction,
             boolean spillEnabled,
             SingleStreamSpillerFactory singleStreamSpillerFactory)
+    {
+        return setupBuildSide(parallelBuild, taskContext, hashChannels, buildPages, filterFunction, spillEnabled, singleStreamSpillerFactory, PARTITIONING_SPILLER_FACTORY, DEFAULT_UNSPILL_MEMORY_LIMIT);
+    }
+
+    private BuildSideSetup setupBuildSide(
+            boolean parallelBuild,
+            TaskContext taskContext,
+            List<Integer> hashChannels,
+            RowPagesBuilder buildPages,
+            Optional<InternalJoinFilterFunction> filterFunction,
+            boolean spillEnabled,
+            SingleStreamSpillerFactory singleStreamSpillerFactory,
+            PartitioningSpillerFactory partitioningSpillerFactory,
+            DataSize unspillMemoryLimit)
     {
         Optional<JoinFilterFunctionFactory> filterFunctionFactory = filterFunction
                 .map(function -> (session, addresses, pages) -> new StandardJoinFilterFunction(function, addresses, pages));
@@ -1701,7 +1745,9 @@ public class TestHashJoinOperator
                 100,
                 new PagesIndex.TestingFactory(false),
                 spillEnabled,
-                singleStreamSpillerFactory);
+                singleStreamSpillerFactory,
+                partitioningSpillerFactory,
+                unspillMemoryLimit);
         return new BuildSideSetup(lookupSourceFactoryManager, buildOperatorFactory, sourceOperatorFactory, partitionCount);
     }
 
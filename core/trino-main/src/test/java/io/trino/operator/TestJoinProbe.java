@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.operator.JoinProbe.JoinProbeFactory;
+import io.trino.spi.Page;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.TypeOperators;
+import io.trino.type.BlockTypeOperators;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Supplier;
+
+import static io.trino.SessionTestUtils.TEST_SESSION;
+import static io.trino.block.BlockAssertions.createLongsBlock;
+import static io.trino.block.BlockAssertions.createStringsBlock;
+import static io.trino.operator.PartitionedLookupSource.createPartitionedLookupSourceSupplier;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.type.TypeTestUtils.getHashBlock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestJoinProbe
+{
+    private static final BlockTypeOperators TYPE_OPERATOR_FACTORY = new BlockTypeOperators(new TypeOperators());
+
+    @Test
+    public void testBatchedJoinPositions()
+    {
+        List<Type> types = ImmutableList.of(VARCHAR, BIGINT);
+        List<String> strings = new ArrayList<>();
+        List<Long> longs = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            strings.add(i % 10 == 0 ? null : String.valueOf(i % 300));
+            longs.add(i % 7 == 0 ? null : (long) (i % 300));
+        }
+        PagesIndex pagesIndex = new PagesIndex.TestingFactory(false).newPagesIndex(types, 1_000);
+        pagesIndex.addPage(new Page(createStringsBlock(strings), createLongsBlock(longs)));
+
+        List<String> probeStrings = new ArrayList<>();
+        List<Long> probeLongs = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            probeStrings.add(i % 11 == 0 ? null : String.valueOf(i));
+            probeLongs.add(i % 13 == 0 ? null : (long) i);
+        }
+        Page probePage = new Page(createStringsBlock(probeStrings), createLongsBlock(probeLongs));
+
+        for (int joinChannel = 0; joinChannel < types.size(); joinChannel++) {
+            LookupSourceSupplier lookupSourceSupplier = pagesIndex.createLookupSourceSupplier(
+                    TEST_SESSION,
+                    ImmutableList.of(joinChannel),
+                    OptionalInt.empty(),
+                    Optional.empty(),
+                    Optional.empty(),
+                    ImmutableList.of());
+            List<Type> joinTypes = ImmutableList.of(types.get(joinChannel));
+
+            assertJoinPositions(lookupSourceSupplier.get(), probePage, joinChannel, OptionalInt.empty());
+            assertJoinPositions(
+                    createPartitionedLookupSourceSupplier(ImmutableList.<Supplier<LookupSource>>of(lookupSourceSupplier), joinTypes, false, TYPE_OPERATOR_FACTORY).getLookupSource(),
+                    probePage,
+                    joinChannel,
+                    OptionalInt.empty());
+
+            Page probePageWithHash = probePage.appendColumn(getHashBlock(joinTypes, probePage.getBlock(joinChannel)));
+            assertJoinPositions(lookupSourceSupplier.get(), probePageWithHash, joinChannel, OptionalInt.of(2));
+        }
+    }
+
+    @Test
+    public void testEmptyLookupSource()
+    {
+        Page probePage = new Page(createLongsBlock(1L, null, 3L));
+        JoinProbe probe = new JoinProbeFactory(new int[] {0}, ImmutableList.of(0), OptionalInt.empty()).createJoinProbe(probePage);
+        LookupSource lookupSource = new EmptyLookupSource();
+        assertTrue(lookupSource.supportsBatchedJoinPositions());
+        while (probe.advanceNextPosition()) {
+            assertEquals(probe.getCurrentJoinPosition(lookupSource), -1);
+        }
+        assertTrue(probe.isFinished());
+    }
+
+    private static void assertJoinPositions(LookupSource lookupSource, Page probePage, int joinChannel, OptionalInt hashChannel)
+    {
+        assertTrue(lookupSource.supportsBatchedJoinPositions());
+        Page hashChannelsPage = new Page(probePage.getBlock(joinChannel));
+        JoinProbe probe = new JoinProbeFactory(new int[] {0, 1}, ImmutableList.of(joinChannel), hashChannel).createJoinProbe(probePage);
+        int matches = 0;
+        while (probe.advanceNextPosition()) {
+            int position = probe.getPosition();
+            long expected = hashChannelsPage.getBlock(0).isNull(position) ? -1 : lookupSource.getJoinPosition(position, hashChannelsPage, probePage);
+            long actual = probe.getCurrentJoinPosition(lookupSource);
+            assertEquals(actual, expected);
+            if (actual >= 0) {
+                matches++;
+            }
+        }
+        assertFalse(matches == 0);
+    }
+}
@@ -15,16 +15,29 @@ package io.trino.operator;
 
 import com.google.common.collect.ImmutableList;
 import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.connector.SortOrder;
 import io.trino.spi.type.Type;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
 
 import static io.trino.SequencePageBuilder.createSequencePage;
+import static io.trino.spi.connector.SortOrder.ASC_NULLS_LAST;
 import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DecimalType.createDecimalType;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.RealType.REAL;
 import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.testing.TestingConnectorSession.SESSION;
+import static java.lang.Float.floatToRawIntBits;
 import static java.lang.String.format;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -109,6 +122,104 @@ public class TestPagesIndex
         assertFalse(pages.hasNext());
     }
 
+    @Test(dataProvider = "sortOrders")
+    public void testRadixSort(SortOrder sortOrder)
+    {
+        for (Type type : ImmutableList.of(BIGINT, INTEGER, DOUBLE, REAL, createDecimalType(10, 2))) {
+            List<Type> types = ImmutableList.of(type, BIGINT);
+            List<Page> pages = randomPages(types);
+
+            // sorted by the first key only, and with the second key breaking the ties
+            assertRadixSort(types, pages, ImmutableList.of(0), ImmutableList.of(sortOrder));
+            assertRadixSort(types, pages, ImmutableList.of(0, 1), ImmutableList.of(sortOrder, ASC_NULLS_LAST));
+        }
+    }
+
+    @Test(dataProvider = "sortOrders")
+    public void testRadixSortLargeRuns(SortOrder sortOrder)
+    {
+        // the runs of equal keys do not fit in the scratch arrays of the sorter
+        List<Type> types = ImmutableList.of(BIGINT, BIGINT);
+        Random random = new Random(42);
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        for (int page = 0; page < 3; page++) {
+            PageBuilder pageBuilder = new PageBuilder(types);
+            for (int position = 0; position < PagesIndexRadixSorter.MAX_CHUNK_POSITIONS; position++) {
+                pageBuilder.declarePosition();
+                BIGINT.writeLong(pageBuilder.getBlockBuilder(0), random.nextInt(2));
+                BIGINT.writeLong(pageBuilder.getBlockBuilder(1), random.nextLong());
+            }
+            pages.add(pageBuilder.build());
+        }
+
+        assertRadixSort(types, pages.build(), ImmutableList.of(0, 1), ImmutableList.of(sortOrder, ASC_NULLS_LAST));
+    }
+
+    @DataProvider
+    public static Object[][] sortOrders()
+    {
+        return Stream.of(SortOrder.values())
+                .map(sortOrder -> new Object[] {sortOrder})
+                .toArray(Object[][]::new);
+    }
+
+    private static void assertRadixSort(List<Type> types, List<Page> pages, List<Integer> sortChannels, List<SortOrder> sortOrders)
+    {
+        PagesIndex expected = new PagesIndex.TestingFactory(false, false).newPagesIndex(types, 0);
+        PagesIndex actual = new PagesIndex.TestingFactory(false, true).newPagesIndex(types, 0);
+        pages.forEach(expected::addPage);
+        pages.forEach(actual::addPage);
+
+        expected.sort(sortChannels, sortOrders);
+        actual.sort(sortChannels, sortOrders);
+
+        // positions with equal sort keys can be in any order
+        for (int position = 0; position < expected.getPositionCount(); position++) {
+            for (int channel : sortChannels) {
+                Type type = types.get(channel);
+                assertEquals(
+                        type.getObjectValue(SESSION, actual.getSingleValueBlock(channel, position), 0),
+                        type.getObjectValue(SESSION, expected.getSingleValueBlock(channel, position), 0),
+                        format("value of channel %s at position %s", channel, position));
+            }
+        }
+    }
+
+    private static List<Page> randomPages(List<Type> types)
+    {
+        Random random = new Random(42);
+        double[] specialDoubles = {0.0, -0.0, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.MIN_VALUE, -Double.MAX_VALUE};
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        for (int page = 0; page < 5; page++) {
+            PageBuilder pageBuilder = new PageBuilder(types);
+            for (int position = 0; position < 1000; position++) {
+                pageBuilder.declarePosition();
+                for (int channel = 0; channel < types.size(); channel++) {
+                    Type type = types.get(channel);
+                    BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(channel);
+                    if (random.nextInt(20) == 0) {
+                        blockBuilder.appendNull();
+                    }
+                    else if (type.equals(DOUBLE)) {
+                        DOUBLE.writeDouble(blockBuilder, random.nextInt(5) == 0 ? specialDoubles[random.nextInt(specialDoubles.length)] : random.nextGaussian() * 100);
+                    }
+                    else if (type.equals(REAL)) {
+                        REAL.writeLong(blockBuilder, floatToRawIntBits(random.nextInt(10) == 0 ? Float.NaN : (float) random.nextGaussian()));
+                    }
+                    else if (type.equals(INTEGER)) {
+                        INTEGER.writeLong(blockBuilder, random.nextInt());
+                    }
+                    else {
+                        // few distinct values, so that there are ties
+                        type.writeLong(blockBuilder, channel == 0 ? random.nextInt(300) - 150 : random.nextLong());
+                    }
+                }
+            }
+            pages.add(pageBuilder.build());
+        }
+        return pages.build();
+    }
+
     private static PagesIndex newPagesIndex(List<Type> types, int expectedPositions, boolean eagerCompact)
     {
         return new PagesIndex.TestingFactory(eagerCompact).newPagesIndex(types, expectedPositions);
@@ -179,12 +179,49 @@ public class TestPartitionedOutputOperator
         assertEquals(operatorContext.getOutputPositions().getTotalCount(), PAGE_COUNT * PARTITION_COUNT * TESTING_PAGE_WITH_NULL_BLOCK.getPositionCount());
     }
 
-    private PartitionedOutputOperator createPartitionedOutputOperator(boolean shouldReplicate)
+    @Test
+    public void testOutputForReplicatedSkewedKeys()
+    {
+        PartitionFunction partitionFunction = new SkewedPartitionFunction(createPartitionFunction(), 0, BIGINT, ImmutableList.of(3L, 5L), true);
+        PartitionedOutputOperator partitionedOutputOperator = createPartitionedOutputOperator(false, partitionFunction);
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            partitionedOutputOperator.addInput(TESTING_PAGE);
+        }
+        partitionedOutputOperator.finish();
+
+        OperatorContext operatorContext = partitionedOutputOperator.getOperatorContext();
+        assertEquals(operatorContext.getOutputPositions().getTotalCount(), PAGE_COUNT * (TESTING_PAGE.getPositionCount() + 2 * (PARTITION_COUNT - 1)));
+    }
+
+    @Test
+    public void testOutputForSpreadSkewedKeys()
+    {
+        PartitionFunction partitionFunction = new SkewedPartitionFunction(createPartitionFunction(), 0, BIGINT, ImmutableList.of(3L, 5L), false);
+        PartitionedOutputOperator partitionedOutputOperator = createPartitionedOutputOperator(false, partitionFunction);
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            partitionedOutputOperator.addInput(TESTING_PAGE);
+        }
+        partitionedOutputOperator.finish();
+
+        OperatorContext operatorContext = partitionedOutputOperator.getOperatorContext();
+        assertEquals(operatorContext.getOutputPositions().getTotalCount(), PAGE_COUNT * TESTING_PAGE.getPositionCount());
+    }
+
+    private static PartitionFunction createPartitionFunction()
     {
         BlockTypeOperators blockTypeOperators = new BlockTypeOperators(new TypeOperators());
-        PartitionFunction partitionFunction = new LocalPartitionGenerator(
+        return new LocalPartitionGenerator(
                 new InterpretedHashGenerator(ImmutableList.of(BIGINT), new int[] {0}, blockTypeOperators),
                 PARTITION_COUNT);
+    }
+
+    private PartitionedOutputOperator createPartitionedOutputOperator(boolean shouldReplicate)
+    {
+        return createPartitionedOutputOperator(shouldReplicate, createPartitionFunction());
+    }
+
+    private PartitionedOutputOperator createPartitionedOutputOperator(boolean shouldReplicate, PartitionFunction partitionFunction)
+    {
         PagesSerdeFactory serdeFactory = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), false);
 
         DriverContext driverContext = TestingTaskContext.builder(executor, scheduledExecutor, TEST_SESSION)
@@ -35,6 +35,7 @@ import io.trino.spi.connector.ConnectorPageSource;
 import io.trino.spi.connector.DynamicFilter;
 import io.trino.spi.connector.FixedPageSource;
 import io.trino.spi.connector.RecordPageSource;
+import io.trino.split.AsyncPageSource;
 import io.trino.sql.gen.ExpressionCompiler;
 import io.trino.sql.gen.PageFunctionCompiler;
 import io.trino.sql.planner.plan.PlanNodeId;
@@ -51,6 +52,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
 
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static io.trino.RowPagesBuilder.rowPagesBuilder;
@@ -252,6 +254,49 @@ public class TestScanFilterAndProjectOperator
         assertEquals(actual, expected);
     }
 
+    @Test
+    public void testOffloadedRecordCursorSource()
+    {
+        List<Page> input = rowPagesBuilder(BIGINT)
+                .addSequencePage(100, 0)
+                .build();
+        DriverContext driverContext = newDriverContext();
+
+        RowExpression filter = call(
+                metadata.resolveOperator(EQUAL, ImmutableList.of(BIGINT, BIGINT)),
+                field(0, BIGINT),
+                constant(10L, BIGINT));
+        List<RowExpression> projections = ImmutableList.of(field(0, BIGINT));
+        // the cursor of an offloaded record set is read by the page source, so the rows are filtered and projected as pages
+        Supplier<CursorProcessor> cursorProcessor = () -> (session, yieldSignal, cursor, pageBuilder) -> {
+            throw new AssertionError("cursor processor must not be used for an offloaded record set");
+        };
+        Supplier<PageProcessor> pageProcessor = expressionCompiler.compilePageProcessor(Optional.of(filter), projections);
+
+        ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory factory = new ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                new PlanNodeId("0"),
+                (session, split, table, columns, dynamicFilter) -> new AsyncPageSource(new RecordPageSource(new PageRecordSet(ImmutableList.of(BIGINT), input.get(0))), directExecutor()),
+                cursorProcessor,
+                pageProcessor,
+                TEST_TABLE_HANDLE,
+                ImmutableList.of(),
+                DynamicFilter.EMPTY,
+                ImmutableList.of(BIGINT),
+                DataSize.ofBytes(0),
+                0);
+
+        SourceOperator operator = factory.createOperator(driverContext);
+        operator.addSplit(new Split(new CatalogName("test"), TestingSplit.createLocalSplit(), Lifespan.taskWide()));
+        operator.noMoreSplits();
+
+        MaterializedResult expected = toMaterializedResult(driverContext.getSession(), ImmutableList.of(BIGINT), rowPagesBuilder(BIGINT).row(10L).build());
+        MaterializedResult actual = toMaterializedResult(driverContext.getSession(), ImmutableList.of(BIGINT), toPages(operator));
+
+        assertEquals(actual, expected);
+    }
+
     @Test
     public void testPageYield()
     {
@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.spi.Page;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.block.BlockAssertions.createLongsBlock;
+import static io.trino.block.BlockAssertions.createStringsBlock;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.VarbinaryType.VARBINARY;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestSkewedPartitionFunction
+{
+    private static final int PARTITION_COUNT = 4;
+
+    @Test
+    public void testSupportedTypes()
+    {
+        assertTrue(SkewedPartitionFunction.isSupportedType(BIGINT));
+        assertTrue(SkewedPartitionFunction.isSupportedType(INTEGER));
+        assertTrue(SkewedPartitionFunction.isSupportedType(VARCHAR));
+        assertFalse(SkewedPartitionFunction.isSupportedType(DOUBLE));
+        assertFalse(SkewedPartitionFunction.isSupportedType(VARBINARY));
+    }
+
+    @Test
+    public void testSpreadSkewedRows()
+    {
+        // the hash of the row is in channel 0 and the key in channel 1
+        Page page = new Page(
+                createLongsBlock(1L, 1L, 1L, 1L, 2L, 3L),
+                createLongsBlock(7L, 7L, 7L, 7L, 8L, null));
+        SkewedPartitionFunction partitionFunction = new SkewedPartitionFunction(new ModuloPartitionFunction(), 1, BIGINT, ImmutableList.of(7L), false);
+        assertEquals(partitionFunction.getPartitionCount(), PARTITION_COUNT);
+
+        Set<Integer> skewedPartitions = new HashSet<>();
+        for (int position = 0; position < 4; position++) {
+            assertFalse(partitionFunction.isReplicated(page, position));
+            skewedPartitions.add(partitionFunction.getPartition(page, position));
+        }
+        assertEquals(skewedPartitions.size(), PARTITION_COUNT);
+
+        assertFalse(partitionFunction.isReplicated(page, 4));
+        assertEquals(partitionFunction.getPartition(page, 4), 2);
+        assertFalse(partitionFunction.isReplicated(page, 5));
+        assertEquals(partitionFunction.getPartition(page, 5), 3);
+    }
+
+    @Test
+    public void testReplicateSkewedRows()
+    {
+        Page page = new Page(
+                createLongsBlock(1L, 2L, 3L),
+                createStringsBlock("hot", "cold", null));
+        SkewedPartitionFunction partitionFunction = new SkewedPartitionFunction(new ModuloPartitionFunction(), 1, VARCHAR, ImmutableList.of(utf8Slice("hot")), true);
+
+        assertTrue(partitionFunction.isReplicated(page, 0));
+        assertFalse(partitionFunction.isReplicated(page, 1));
+        assertFalse(partitionFunction.isReplicated(page, 2));
+        assertEquals(partitionFunction.getPartition(page, 1), 2);
+        assertEquals(partitionFunction.getPartition(page, 2), 3);
+    }
+
+    private static class ModuloPartitionFunction
+            implements PartitionFunction
+    {
+        @Override
+        public int getPartitionCount()
+        {
+            return PARTITION_COUNT;
+        }
+
+        @Override
+        public int getPartition(Page page, int position)
+        {
+            return (int) (BIGINT.getLong(page.getBlock(0), position) % PARTITION_COUNT);
+        }
+    }
+}
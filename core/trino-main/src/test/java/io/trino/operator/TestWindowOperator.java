@@ -23,6 +23,7 @@ import io.trino.operator.window.FrameInfo;
 import io.trino.operator.window.LagFunction;
 import io.trino.operator.window.LastValueFunction;
 import io.trino.operator.window.LeadFunction;
+import io.trino.operator.window.NTileFunction;
 import io.trino.operator.window.NthValueFunction;
 import io.trino.operator.window.RankFunction;
 import io.trino.operator.window.ReflectionWindowFunctionSupplier;
@@ -44,6 +45,7 @@ import org.testng.annotations.Test;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -61,9 +63,12 @@ import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.BooleanType.BOOLEAN;
 import static io.trino.spi.type.DoubleType.DOUBLE;
 import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.sql.tree.FrameBound.Type.FOLLOWING;
+import static io.trino.sql.tree.FrameBound.Type.PRECEDING;
 import static io.trino.sql.tree.FrameBound.Type.UNBOUNDED_FOLLOWING;
 import static io.trino.sql.tree.FrameBound.Type.UNBOUNDED_PRECEDING;
 import static io.trino.sql.tree.WindowFrame.Type.RANGE;
+import static io.trino.sql.tree.WindowFrame.Type.ROWS;
 import static io.trino.testing.MaterializedResult.resultBuilder;
 import static io.trino.testing.TestingTaskContext.createTaskContext;
 import static java.lang.String.format;
@@ -500,6 +505,94 @@ public class TestWindowOperator
         assertOperatorEquals(operatorFactory, driverContext, input, expected, revokeMemoryWhenAddingPages);
     }
 
+    @Test(dataProvider = "spillEnabled")
+    public void testBoundedRowsFramePartition(boolean spillEnabled, boolean revokeMemoryWhenAddingPages, long memoryLimit)
+    {
+        // ROWS BETWEEN 1 PRECEDING AND 1 FOLLOWING, which lets merged spilled partitions be streamed
+        FrameInfo frame = new FrameInfo(ROWS, PRECEDING, Optional.of(3), Optional.empty(), FOLLOWING, Optional.of(3), Optional.empty(), Optional.empty(), Optional.empty(), OptionalLong.of(1), OptionalLong.of(1));
+        List<WindowFunctionDefinition> functions = ImmutableList.of(
+                window(new ReflectionWindowFunctionSupplier<>("first_value", VARCHAR, ImmutableList.<Type>of(VARCHAR), FirstValueFunction.class), VARCHAR, frame, false, ImmutableList.of(), 1),
+                window(new ReflectionWindowFunctionSupplier<>("last_value", VARCHAR, ImmutableList.<Type>of(VARCHAR), LastValueFunction.class), VARCHAR, frame, false, ImmutableList.of(), 1));
+
+        List<Page> input = rowPagesBuilder(VARCHAR, VARCHAR, BIGINT, BIGINT)
+                .row("b", "A1", 1L, 1L)
+                .row("a", "A2", 1L, 1L)
+                .row("a", "B2", 2L, 1L)
+                .pageBreak()
+                .row("b", "B1", 2L, 1L)
+                .row("a", "D2", 4L, 1L)
+                .row("a", "C2", 3L, 1L)
+                .pageBreak()
+                .row("c", "A3", 1L, 1L)
+                .build();
+
+        WindowOperatorFactory operatorFactory = createFactoryUnbounded(
+                ImmutableList.of(VARCHAR, VARCHAR, BIGINT, BIGINT),
+                Ints.asList(0, 1, 2),
+                functions,
+                Ints.asList(0),
+                Ints.asList(2),
+                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}),
+                spillEnabled);
+
+        DriverContext driverContext = createDriverContext(memoryLimit);
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, VARCHAR, BIGINT, VARCHAR, VARCHAR)
+                .row("a", "A2", 1L, "A2", "B2")
+                .row("a", "B2", 2L, "A2", "C2")
+                .row("a", "C2", 3L, "B2", "D2")
+                .row("a", "D2", 4L, "C2", "D2")
+                .row("b", "A1", 1L, "A1", "B1")
+                .row("b", "B1", 2L, "A1", "B1")
+                .row("c", "A3", 1L, "A3", "A3")
+                .build();
+
+        assertOperatorEquals(operatorFactory, driverContext, input, expected, revokeMemoryWhenAddingPages);
+    }
+
+    @Test(dataProvider = "spillEnabled")
+    public void testBoundedRowsFrameWithPartitionSizeFunction(boolean spillEnabled, boolean revokeMemoryWhenAddingPages, long memoryLimit)
+    {
+        // ntile needs the size of the partition, so merged spilled partitions are buffered instead of streamed
+        FrameInfo frame = new FrameInfo(ROWS, PRECEDING, Optional.of(3), Optional.empty(), FOLLOWING, Optional.of(3), Optional.empty(), Optional.empty(), Optional.empty(), OptionalLong.of(1), OptionalLong.of(1));
+        List<WindowFunctionDefinition> functions = ImmutableList.of(
+                window(new ReflectionWindowFunctionSupplier<>("first_value", VARCHAR, ImmutableList.<Type>of(VARCHAR), FirstValueFunction.class), VARCHAR, frame, false, ImmutableList.of(), 1),
+                window(new ReflectionWindowFunctionSupplier<>("ntile", BIGINT, ImmutableList.<Type>of(BIGINT), NTileFunction.class), BIGINT, frame, false, ImmutableList.of(), 4));
+
+        List<Page> input = rowPagesBuilder(VARCHAR, VARCHAR, BIGINT, BIGINT, BIGINT)
+                .row("b", "A1", 1L, 1L, 2L)
+                .row("a", "A2", 1L, 1L, 2L)
+                .row("a", "B2", 2L, 1L, 2L)
+                .pageBreak()
+                .row("b", "B1", 2L, 1L, 2L)
+                .row("a", "D2", 4L, 1L, 2L)
+                .row("a", "C2", 3L, 1L, 2L)
+                .pageBreak()
+                .row("c", "A3", 1L, 1L, 2L)
+                .build();
+
+        WindowOperatorFactory operatorFactory = createFactoryUnbounded(
+                ImmutableList.of(VARCHAR, VARCHAR, BIGINT, BIGINT, BIGINT),
+                Ints.asList(0, 1, 2),
+                functions,
+                Ints.asList(0),
+                Ints.asList(2),
+                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}),
+                spillEnabled);
+
+        DriverContext driverContext = createDriverContext(memoryLimit);
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, VARCHAR, BIGINT, VARCHAR, BIGINT)
+                .row("a", "A2", 1L, "A2", 1L)
+                .row("a", "B2", 2L, "A2", 1L)
+                .row("a", "C2", 3L, "B2", 2L)
+                .row("a", "D2", 4L, "C2", 2L)
+                .row("b", "A1", 1L, "A1", 1L)
+                .row("b", "B1", 2L, "A1", 2L)
+                .row("c", "A3", 1L, "A3", 1L)
+                .build();
+
+        assertOperatorEquals(operatorFactory, driverContext, input, expected, revokeMemoryWhenAddingPages);
+    }
+
     @Test(dataProvider = "spillEnabled")
     public void testLagPartition(boolean spillEnabled, boolean revokeMemoryWhenAddingPages, long memoryLimit)
     {
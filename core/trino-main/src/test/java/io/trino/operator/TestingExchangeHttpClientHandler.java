@@ -37,6 +37,7 @@ import static io.trino.server.InternalHeaders.TRINO_PAGE_TOKEN;
 import static io.trino.server.InternalHeaders.TRINO_TASK_INSTANCE_ID;
 import static io.trino.server.PagesResponseWriter.SERIALIZED_PAGES_MAGIC;
 import static java.util.Objects.requireNonNull;
+import static javax.ws.rs.core.HttpHeaders.CONTENT_LENGTH;
 import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
 import static org.testng.Assert.assertEquals;
 
@@ -84,6 +85,7 @@ public class TestingExchangeHttpClientHandler
             output.writeLong(calculateChecksum(ImmutableList.of(serializedPage)));
             output.writeInt(1);
             writeSerializedPage(output, serializedPage);
+            headers.put(CONTENT_LENGTH, String.valueOf(output.size()));
             return new TestingResponse(HttpStatus.OK, headers.build(), output.slice().getInput());
         }
         else if (taskBuffer.isFinished()) {
@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.window;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.spi.function.WindowFunction;
+import io.trino.sql.tree.FrameBound;
+import io.trino.sql.tree.WindowFrame;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static io.trino.operator.window.StreamingWindowPartition.isSupported;
+import static io.trino.sql.tree.FrameBound.Type.CURRENT_ROW;
+import static io.trino.sql.tree.FrameBound.Type.FOLLOWING;
+import static io.trino.sql.tree.FrameBound.Type.PRECEDING;
+import static io.trino.sql.tree.FrameBound.Type.UNBOUNDED_FOLLOWING;
+import static io.trino.sql.tree.FrameBound.Type.UNBOUNDED_PRECEDING;
+import static io.trino.sql.tree.WindowFrame.Type.GROUPS;
+import static io.trino.sql.tree.WindowFrame.Type.RANGE;
+import static io.trino.sql.tree.WindowFrame.Type.ROWS;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestStreamingWindowPartition
+{
+    private static final FrameInfo UNBOUNDED_FRAME = frame(RANGE, UNBOUNDED_PRECEDING, OptionalLong.empty(), UNBOUNDED_FOLLOWING, OptionalLong.empty());
+    private static final FrameInfo BOUNDED_ROWS_FRAME = frame(ROWS, PRECEDING, OptionalLong.of(2), FOLLOWING, OptionalLong.of(1));
+
+    @Test
+    public void testRankingFunctions()
+    {
+        assertTrue(isSupported(ImmutableList.of(
+                framed(new RowNumberFunction(), UNBOUNDED_FRAME),
+                framed(new RankFunction(), UNBOUNDED_FRAME),
+                framed(new DenseRankFunction(), UNBOUNDED_FRAME))));
+    }
+
+    @Test
+    public void testFrames()
+    {
+        assertTrue(isSupported(ImmutableList.of(framed(firstValue(), BOUNDED_ROWS_FRAME))));
+        assertTrue(isSupported(ImmutableList.of(framed(lastValue(), frame(ROWS, CURRENT_ROW, OptionalLong.empty(), FOLLOWING, OptionalLong.of(3))))));
+
+        // frames reaching the end of the partition
+        assertFalse(isSupported(ImmutableList.of(framed(firstValue(), UNBOUNDED_FRAME))));
+        assertFalse(isSupported(ImmutableList.of(framed(lastValue(), frame(ROWS, CURRENT_ROW, OptionalLong.empty(), UNBOUNDED_FOLLOWING, OptionalLong.empty())))));
+        // frames starting at the beginning of the partition, which only aggregations can accumulate
+        assertFalse(isSupported(ImmutableList.of(framed(firstValue(), frame(ROWS, UNBOUNDED_PRECEDING, OptionalLong.empty(), CURRENT_ROW, OptionalLong.empty())))));
+        // offsets which are not constant
+        assertFalse(isSupported(ImmutableList.of(framed(firstValue(), frame(ROWS, PRECEDING, OptionalLong.empty(), CURRENT_ROW, OptionalLong.empty())))));
+        assertFalse(isSupported(ImmutableList.of(framed(firstValue(), frame(ROWS, CURRENT_ROW, OptionalLong.empty(), FOLLOWING, OptionalLong.of(-1))))));
+        // frames bounded by values or peer groups
+        assertFalse(isSupported(ImmutableList.of(framed(firstValue(), frame(RANGE, PRECEDING, OptionalLong.of(2), FOLLOWING, OptionalLong.of(1))))));
+        assertFalse(isSupported(ImmutableList.of(framed(firstValue(), frame(GROUPS, PRECEDING, OptionalLong.of(2), FOLLOWING, OptionalLong.of(1))))));
+    }
+
+    @Test
+    public void testFunctionsUsingPartitionSize()
+    {
+        // these functions call WindowIndex.size(), so they are computed over a buffered partition
+        assertFalse(isSupported(ImmutableList.of(framed(new NTileFunction(ImmutableList.of(0)), BOUNDED_ROWS_FRAME))));
+        assertFalse(isSupported(ImmutableList.of(framed(new PercentRankFunction(), BOUNDED_ROWS_FRAME))));
+        assertFalse(isSupported(ImmutableList.of(framed(new CumulativeDistributionFunction(), BOUNDED_ROWS_FRAME))));
+        assertFalse(isSupported(ImmutableList.of(framed(new LeadFunction(ImmutableList.of(0, 1, 2), false), BOUNDED_ROWS_FRAME))));
+        assertFalse(isSupported(ImmutableList.of(framed(new LagFunction(ImmutableList.of(0, 1, 2), false), BOUNDED_ROWS_FRAME))));
+
+        // a single function which cannot be streamed prevents streaming of the partition
+        assertFalse(isSupported(ImmutableList.of(
+                framed(firstValue(), BOUNDED_ROWS_FRAME),
+                framed(new NTileFunction(ImmutableList.of(0)), BOUNDED_ROWS_FRAME))));
+        assertFalse(isSupported(ImmutableList.of()));
+    }
+
+    private static FramedWindowFunction framed(WindowFunction function, FrameInfo frame)
+    {
+        return new FramedWindowFunction(function, frame);
+    }
+
+    private static WindowFunction firstValue()
+    {
+        return new FirstValueFunction(ImmutableList.of(0), false);
+    }
+
+    private static WindowFunction lastValue()
+    {
+        return new LastValueFunction(ImmutableList.of(0), false);
+    }
+
+    private static FrameInfo frame(WindowFrame.Type type, FrameBound.Type startType, OptionalLong startValue, FrameBound.Type endType, OptionalLong endValue)
+    {
+        return new FrameInfo(
+                type,
+                startType,
+                startValue.isPresent() ? Optional.of(1) : Optional.empty(),
+                Optional.empty(),
+                endType,
+                endValue.isPresent() ? Optional.of(2) : Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                startValue,
+                endValue);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.server;
+
+import io.airlift.http.client.Request;
+import io.trino.spi.QueryId;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Optional;
+
+import static io.airlift.http.client.Request.Builder.prepareGet;
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+
+public class TestInternalAuthenticationManager
+{
+    private static final QueryId QUERY_ID = new QueryId("query");
+
+    @Test
+    public void testResultsDownloadKey()
+    {
+        InternalAuthenticationManager manager = new InternalAuthenticationManager("secret", "node");
+        Instant expiration = Instant.now().plus(10, MINUTES);
+        String key = manager.createResultsDownloadKey(QUERY_ID, "user", expiration);
+
+        // the key only depends on the shared secret, so that any node can check it
+        assertEquals(manager.getResultsDownloadUser(QUERY_ID, key), Optional.of("user"));
+        assertEquals(new InternalAuthenticationManager("secret", "other-node").getResultsDownloadUser(QUERY_ID, key), Optional.of("user"));
+
+        assertEquals(new InternalAuthenticationManager("other-secret", "node").getResultsDownloadUser(QUERY_ID, key), Optional.empty());
+        assertEquals(manager.getResultsDownloadUser(new QueryId("other_query"), key), Optional.empty());
+        assertEquals(manager.getResultsDownloadUser(QUERY_ID, key + "0"), Optional.empty());
+        assertEquals(manager.getResultsDownloadUser(QUERY_ID, "key"), Optional.empty());
+
+        String expiredKey = manager.createResultsDownloadKey(QUERY_ID, "user", Instant.now().minus(1, MINUTES));
+        assertEquals(manager.getResultsDownloadUser(QUERY_ID, expiredKey), Optional.empty());
+    }
+
+    @Test
+    public void testResultsDownloadKeyIsNotInternalBearer()
+    {
+        InternalAuthenticationManager manager = new InternalAuthenticationManager("secret", "node");
+
+        // the internal bearer token is signed with another key, so it is not a results download key
+        Request request = manager.filterRequest(prepareGet().setUri(URI.create("http://localhost")).build());
+        String bearer = request.getHeader("X-Trino-Internal-Bearer");
+        assertEquals(manager.getResultsDownloadUser(new QueryId("node"), bearer), Optional.empty());
+    }
+}
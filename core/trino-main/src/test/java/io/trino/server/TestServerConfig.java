@@ -34,6 +34,8 @@ public class TestServerConfig
                 .setIncludeExceptionInResponse(true)
                 .setGracePeriod(new Duration(2, MINUTES))
                 .setQueryResultsCompressionEnabled(true)
+                .setQueryResultsDirectDownloadEnabled(false)
+                .setQueryResultsDirectDownloadKeyExpiration(new Duration(10, MINUTES))
                 .setQueryInfoUrlTemplate(null));
     }
 
@@ -45,6 +47,8 @@ public class TestServerConfig
                 .put("http.include-exception-in-response", "false")
                 .put("shutdown.grace-period", "5m")
                 .put("query-results.compression-enabled", "false")
+                .put("query-results.direct-download-enabled", "true")
+                .put("query-results.direct-download-key-expiration", "1m")
                 .put("query.info-url-template", "https://example.com/query/${QUERY_ID}")
                 .build();
 
@@ -53,6 +57,8 @@ public class TestServerConfig
                 .setIncludeExceptionInResponse(false)
                 .setGracePeriod(new Duration(5, MINUTES))
                 .setQueryResultsCompressionEnabled(false)
+                .setQueryResultsDirectDownloadEnabled(true)
+                .setQueryResultsDirectDownloadKeyExpiration(new Duration(1, MINUTES))
                 .setQueryInfoUrlTemplate("https://example.com/query/${QUERY_ID}");
 
         assertFullMapping(properties, expected);
@@ -15,21 +15,30 @@ package io.trino.server.protocol;
 
 import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.Slices;
 import io.trino.Session;
+import io.trino.client.ClientCapabilities;
 import io.trino.client.ClientTypeSignature;
 import io.trino.client.Column;
+import io.trino.client.ColumnarData;
 import io.trino.metadata.Metadata;
 import io.trino.spi.Page;
 import io.trino.spi.TrinoException;
 import io.trino.spi.type.ArrayType;
 import io.trino.spi.type.BigintType;
 import io.trino.spi.type.BooleanType;
+import io.trino.spi.type.DoubleType;
 import io.trino.spi.type.IntegerType;
+import io.trino.spi.type.RealType;
 import io.trino.spi.type.RowType;
 import io.trino.spi.type.SmallintType;
 import io.trino.spi.type.TimestampType;
 import io.trino.spi.type.TimestampWithTimeZoneType;
+import io.trino.spi.type.TinyintType;
 import io.trino.spi.type.Type;
+import io.trino.spi.type.VarbinaryType;
+import io.trino.spi.type.VarcharType;
 import io.trino.testing.TestingSession;
 import io.trino.tests.BogusType;
 import org.testng.annotations.Test;
@@ -44,11 +53,17 @@ import static io.trino.RowPagesBuilder.rowPagesBuilder;
 import static io.trino.client.ClientStandardTypes.ARRAY;
 import static io.trino.client.ClientStandardTypes.BIGINT;
 import static io.trino.client.ClientStandardTypes.BOOLEAN;
+import static io.trino.client.ClientStandardTypes.DOUBLE;
 import static io.trino.client.ClientStandardTypes.INTEGER;
 import static io.trino.client.ClientStandardTypes.MAP;
+import static io.trino.client.ClientStandardTypes.REAL;
 import static io.trino.client.ClientStandardTypes.ROW;
+import static io.trino.client.ClientStandardTypes.SMALLINT;
 import static io.trino.client.ClientStandardTypes.TIMESTAMP;
 import static io.trino.client.ClientStandardTypes.TIMESTAMP_WITH_TIME_ZONE;
+import static io.trino.client.ClientStandardTypes.TINYINT;
+import static io.trino.client.ClientStandardTypes.VARBINARY;
+import static io.trino.client.ClientStandardTypes.VARCHAR;
 import static io.trino.metadata.MetadataManager.createTestMetadataManager;
 import static io.trino.server.protocol.QueryResultRows.queryResultRowsBuilder;
 import static io.trino.spi.type.TypeSignature.mapType;
@@ -385,6 +400,73 @@ public class TestQueryResultRows
         QueryResultRows.empty(getSession());
     }
 
+    @Test
+    public void shouldEncodeColumnarData()
+    {
+        List<Column> columns = ImmutableList.of(
+                BOOLEAN_COLUMN.apply("_col0"),
+                new Column("_col1", TINYINT, new ClientTypeSignature(TINYINT)),
+                new Column("_col2", SMALLINT, new ClientTypeSignature(SMALLINT)),
+                INT_COLUMN.apply("_col3"),
+                BIGINT_COLUMN.apply("_col4"),
+                new Column("_col5", REAL, new ClientTypeSignature(REAL)),
+                new Column("_col6", DOUBLE, new ClientTypeSignature(DOUBLE)),
+                new Column("_col7", VARCHAR, new ClientTypeSignature(VARCHAR)),
+                new Column("_col8", VARBINARY, new ClientTypeSignature(VARBINARY)));
+        List<Type> types = ImmutableList.of(
+                BooleanType.BOOLEAN,
+                TinyintType.TINYINT,
+                SmallintType.SMALLINT,
+                IntegerType.INTEGER,
+                BigintType.BIGINT,
+                RealType.REAL,
+                DoubleType.DOUBLE,
+                VarcharType.VARCHAR,
+                VarbinaryType.VARBINARY);
+
+        List<Page> pages = rowPagesBuilder(types)
+                .row(true, 1, 2, 3, 4L, 5.5f, 6.5, "seven", Slices.wrappedBuffer((byte) 8))
+                .row(null, null, null, null, null, null, null, null, null)
+                .pageBreak()
+                .row(false, -1, -2, -3, -4L, -5.5f, -6.5, "é", Slices.EMPTY_SLICE)
+                .build();
+
+        QueryResultRows rows = queryResultRowsBuilder(getColumnarDataSession())
+                .withColumnsAndTypes(columns, types)
+                .addPages(pages)
+                .build();
+
+        List<List<Object>> values = ColumnarData.decode(columns, rows.toColumnarData().orElseThrow());
+        assertThat(values).hasSize(3);
+        assertThat(values.get(0)).containsExactly(true, (byte) 1, (short) 2, 3, 4L, 5.5f, 6.5, "seven", new byte[] {8});
+        assertThat(values.get(1)).containsOnlyNulls().hasSize(9);
+        assertThat(values.get(2)).containsExactly(false, (byte) -1, (short) -2, -3, -4L, -5.5f, -6.5, "é", new byte[0]);
+    }
+
+    @Test
+    public void shouldNotEncodeColumnarDataForUnsupportedTypes()
+    {
+        List<Column> columns = ImmutableList.of(INT_COLUMN.apply("_col0"), new Column("_col1", TIMESTAMP, new ClientTypeSignature(TIMESTAMP)));
+        List<Type> types = ImmutableList.of(IntegerType.INTEGER, TimestampType.TIMESTAMP_MILLIS);
+
+        List<Page> pages = rowPagesBuilder(types)
+                .row(1, 0L)
+                .build();
+
+        QueryResultRows rows = queryResultRowsBuilder(getColumnarDataSession())
+                .withColumnsAndTypes(columns, types)
+                .addPages(pages)
+                .build();
+        assertThat(rows.toColumnarData()).isEmpty();
+
+        // the client does not support it
+        rows = queryResultRowsBuilder(getSession())
+                .withColumnsAndTypes(ImmutableList.of(INT_COLUMN.apply("_col0")), ImmutableList.of(IntegerType.INTEGER))
+                .addPages(rowPagesBuilder(IntegerType.INTEGER).row(1).build())
+                .build();
+        assertThat(rows.toColumnarData()).isEmpty();
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "columns and types size mismatch")
     public void shouldThrowWhenColumnsAndTypesSizeMismatch()
     {
@@ -469,6 +551,13 @@ public class TestQueryResultRows
                 .build();
     }
 
+    private static Session getColumnarDataSession()
+    {
+        return TestingSession.testSessionBuilder()
+                .setClientCapabilities(ImmutableSet.of(ClientCapabilities.COLUMNAR_DATA.toString()))
+                .build();
+    }
+
     private static final class TestExceptionConsumer
             implements Consumer<Throwable>
     {
@@ -22,8 +22,10 @@ import com.google.inject.Injector;
 import com.google.inject.Module;
 import com.google.inject.Provides;
 import io.airlift.bootstrap.Bootstrap;
+import io.airlift.http.client.Response;
 import io.airlift.http.client.testing.TestingHttpClient;
 import io.airlift.jaxrs.JsonMapper;
+import io.airlift.jaxrs.SmileMapper;
 import io.airlift.jaxrs.testing.JaxrsTestingHttpProcessor;
 import io.airlift.json.JsonCodec;
 import io.airlift.json.JsonModule;
@@ -97,18 +99,22 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
 
 import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
 import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static io.airlift.json.JsonBinder.jsonBinder;
 import static io.airlift.json.JsonCodecBinder.jsonCodecBinder;
 import static io.airlift.testing.Assertions.assertGreaterThanOrEqual;
 import static io.trino.SessionTestUtils.TEST_SESSION;
+import static io.trino.TrinoMediaTypes.JACKSON_SMILE;
 import static io.trino.execution.DynamicFiltersCollector.INITIAL_DYNAMIC_FILTERS_VERSION;
 import static io.trino.execution.TaskTestUtils.TABLE_SCAN_NODE_ID;
 import static io.trino.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
@@ -165,11 +171,27 @@ public class TestHttpRemoteTask
     @Test(timeOut = 30000)
     public void testRegular()
             throws Exception
+    {
+        TestingTaskResource testingTaskResource = runRegularTest(new QueryManagerConfig());
+        assertEquals(testingTaskResource.getResponseContentTypes(), ImmutableSet.of(MediaType.APPLICATION_JSON));
+    }
+
+    @Test(timeOut = 30000)
+    public void testRegularWithSmileEncoding()
+            throws Exception
+    {
+        TestingTaskResource testingTaskResource = runRegularTest(new QueryManagerConfig().setRemoteTaskSmileEncodingEnabled(true));
+        // task deletion is not negotiated, so it still returns JSON
+        assertEquals(testingTaskResource.getResponseContentTypes(), ImmutableSet.of(JACKSON_SMILE, MediaType.APPLICATION_JSON));
+    }
+
+    private TestingTaskResource runRegularTest(QueryManagerConfig queryManagerConfig)
+            throws Exception
     {
         AtomicLong lastActivityNanos = new AtomicLong(System.nanoTime());
         TestingTaskResource testingTaskResource = new TestingTaskResource(lastActivityNanos, FailureScenario.NO_FAILURE);
 
-        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource);
+        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource, queryManagerConfig);
 
         RemoteTask remoteTask = createRemoteTask(httpRemoteTaskFactory);
 
@@ -192,6 +214,7 @@ public class TestHttpRemoteTask
         poll(() -> remoteTask.getTaskInfo().getTaskStatus().getState().isDone());
 
         httpRemoteTaskFactory.stop();
+        return testingTaskResource;
     }
 
     @Test(timeOut = 30000)
@@ -211,7 +234,7 @@ public class TestHttpRemoteTask
 
         TestingTaskResource testingTaskResource = new TestingTaskResource(new AtomicLong(System.nanoTime()), FailureScenario.NO_FAILURE);
         DynamicFilterService dynamicFilterService = new DynamicFilterService(createTestMetadataManager(), new TypeOperators(), newDirectExecutorService());
-        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource, dynamicFilterService);
+        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource, dynamicFilterService, new QueryManagerConfig());
         RemoteTask remoteTask = createRemoteTask(httpRemoteTaskFactory);
 
         Map<DynamicFilterId, Domain> initialDomain = ImmutableMap.of(
@@ -318,10 +341,15 @@ public class TestHttpRemoteTask
 
     private static HttpRemoteTaskFactory createHttpRemoteTaskFactory(TestingTaskResource testingTaskResource)
     {
-        return createHttpRemoteTaskFactory(testingTaskResource, new DynamicFilterService(createTestMetadataManager(), new TypeOperators(), new DynamicFilterConfig()));
+        return createHttpRemoteTaskFactory(testingTaskResource, new QueryManagerConfig());
     }
 
-    private static HttpRemoteTaskFactory createHttpRemoteTaskFactory(TestingTaskResource testingTaskResource, DynamicFilterService dynamicFilterService)
+    private static HttpRemoteTaskFactory createHttpRemoteTaskFactory(TestingTaskResource testingTaskResource, QueryManagerConfig queryManagerConfig)
+    {
+        return createHttpRemoteTaskFactory(testingTaskResource, new DynamicFilterService(createTestMetadataManager(), new TypeOperators(), new DynamicFilterConfig()), queryManagerConfig);
+    }
+
+    private static HttpRemoteTaskFactory createHttpRemoteTaskFactory(TestingTaskResource testingTaskResource, DynamicFilterService dynamicFilterService, QueryManagerConfig queryManagerConfig)
     {
         Bootstrap app = new Bootstrap(
                 new JsonModule(),
@@ -332,6 +360,8 @@ public class TestHttpRemoteTask
                     public void configure(Binder binder)
                     {
                         binder.bind(JsonMapper.class);
+                        binder.bind(SmileMapper.class);
+                        binder.bind(SmileObjectMapperProvider.class);
                         binder.bind(Metadata.class).toInstance(createTestMetadataManager());
                         jsonBinder(binder).addDeserializerBinding(Type.class).to(TypeDeserializer.class);
                         jsonCodecBinder(binder).bindJsonCodec(TaskStatus.class);
@@ -352,16 +382,23 @@ public class TestHttpRemoteTask
                     @Provides
                     private HttpRemoteTaskFactory createHttpRemoteTaskFactory(
                             JsonMapper jsonMapper,
+                            SmileMapper smileMapper,
+                            SmileObjectMapperProvider smileObjectMapperProvider,
                             JsonCodec<TaskStatus> taskStatusCodec,
                             JsonCodec<VersionedDynamicFilterDomains> dynamicFilterDomainsCodec,
                             JsonCodec<TaskInfo> taskInfoCodec,
                             JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec)
                     {
-                        JaxrsTestingHttpProcessor jaxrsTestingHttpProcessor = new JaxrsTestingHttpProcessor(URI.create("http://fake.invalid/"), testingTaskResource, jsonMapper);
-                        TestingHttpClient testingHttpClient = new TestingHttpClient(jaxrsTestingHttpProcessor.setTrace(TRACE_HTTP));
+                        JaxrsTestingHttpProcessor jaxrsTestingHttpProcessor = new JaxrsTestingHttpProcessor(URI.create("http://fake.invalid/"), testingTaskResource, jsonMapper, smileMapper);
+                        jaxrsTestingHttpProcessor.setTrace(TRACE_HTTP);
+                        TestingHttpClient testingHttpClient = new TestingHttpClient(request -> {
+                            Response response = jaxrsTestingHttpProcessor.handle(request);
+                            testingTaskResource.recordResponseContentType(response.getHeader(CONTENT_TYPE));
+                            return response;
+                        });
                         testingTaskResource.setHttpClient(testingHttpClient);
                         return new HttpRemoteTaskFactory(
-                                new QueryManagerConfig(),
+                                queryManagerConfig,
                                 TASK_MANAGER_CONFIG,
                                 testingHttpClient,
                                 new TestSqlTaskManager.MockLocationFactory(),
@@ -369,6 +406,7 @@ public class TestHttpRemoteTask
                                 dynamicFilterDomainsCodec,
                                 taskInfoCodec,
                                 taskUpdateRequestCodec,
+                                smileObjectMapperProvider,
                                 new RemoteTaskStats(),
                                 dynamicFilterService);
                     }
@@ -445,6 +483,7 @@ public class TestHttpRemoteTask
 
         private long statusFetchCounter;
         private long dynamicFiltersFetchCounter;
+        private final Set<String> responseContentTypes = ConcurrentHashMap.newKeySet();
 
         public TestingTaskResource(AtomicLong lastActivityNanos, FailureScenario failureScenario)
         {
@@ -457,9 +496,21 @@ public class TestHttpRemoteTask
             httpClient.set(newValue);
         }
 
+        public void recordResponseContentType(String contentType)
+        {
+            if (contentType != null) {
+                responseContentTypes.add(MediaType.valueOf(contentType).toString());
+            }
+        }
+
+        public Set<String> getResponseContentTypes()
+        {
+            return ImmutableSet.copyOf(responseContentTypes);
+        }
+
         @GET
         @Path("{taskId}")
-        @Produces(MediaType.APPLICATION_JSON)
+        @Produces({MediaType.APPLICATION_JSON, JACKSON_SMILE})
         public synchronized TaskInfo getTaskInfo(
                 @PathParam("taskId") TaskId taskId,
                 @HeaderParam(TRINO_CURRENT_VERSION) Long currentVersion,
@@ -475,7 +526,7 @@ public class TestHttpRemoteTask
         @POST
         @Path("{taskId}")
         @Consumes(MediaType.APPLICATION_JSON)
-        @Produces(MediaType.APPLICATION_JSON)
+        @Produces({MediaType.APPLICATION_JSON, JACKSON_SMILE})
         public synchronized TaskInfo createOrUpdateTask(
                 @PathParam("taskId") TaskId taskId,
                 TaskUpdateRequest taskUpdateRequest,
@@ -499,7 +550,7 @@ public class TestHttpRemoteTask
 
         @GET
         @Path("{taskId}/status")
-        @Produces(MediaType.APPLICATION_JSON)
+        @Produces({MediaType.APPLICATION_JSON, JACKSON_SMILE})
         public synchronized TaskStatus getTaskStatus(
                 @PathParam("taskId") TaskId taskId,
                 @HeaderParam(TRINO_CURRENT_VERSION) Long currentVersion,
@@ -0,0 +1,180 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.airlift.units.DataSize;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.spi.Page;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.type.Type;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.MoreFiles.listFiles;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static io.trino.execution.buffer.CompressionCodec.LZ4;
+import static io.trino.execution.buffer.CompressionCodec.NONE;
+import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.trino.metadata.MetadataManager.createTestMetadataManager;
+import static io.trino.operator.PageAssertions.assertPageEquals;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.VarbinaryType.VARBINARY;
+import static io.trino.spiller.ChunkedFileSingleStreamSpiller.CHUNK_ALIGNMENT;
+import static java.lang.Double.doubleToLongBits;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestChunkedFileSingleStreamSpiller
+{
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, DOUBLE, VARBINARY);
+    private static final int PAGES_PER_SPILL = 50;
+
+    private final ListeningExecutorService executor = listeningDecorator(newCachedThreadPool());
+    private final File spillPath = Files.createTempDir();
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        executor.shutdown();
+        deleteRecursively(spillPath.toPath(), ALLOW_INSECURE);
+    }
+
+    @DataProvider
+    public static Object[][] spillOptions()
+    {
+        return new Object[][] {
+                {false, false},
+                {true, false},
+                {false, true},
+                {true, true},
+        };
+    }
+
+    @Test(dataProvider = "spillOptions")
+    public void testSpill(boolean compression, boolean encryption)
+            throws Exception
+    {
+        // every page fills a chunk
+        assertSpill(compression, encryption, DataSize.ofBytes(1), 2, false);
+        // several pages share a chunk
+        assertSpill(compression, encryption, DataSize.ofBytes(CHUNK_ALIGNMENT), 2, false);
+    }
+
+    @Test
+    public void testSpillWithoutReadAhead()
+            throws Exception
+    {
+        assertSpill(false, false, DataSize.ofBytes(1), 0, false);
+    }
+
+    @Test
+    public void testGetAllSpilledPages()
+            throws Exception
+    {
+        assertSpill(true, false, DataSize.ofBytes(1), 2, true);
+    }
+
+    @Test
+    public void testCloseWhileReadingAhead()
+            throws Exception
+    {
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+        SingleStreamSpiller spiller = createSpiller(false, false, DataSize.ofBytes(1), 4, memoryContext);
+        spiller.spill(Iterators.limit(Iterators.cycle(buildPage()), PAGES_PER_SPILL)).get();
+
+        assertTrue(spiller.getSpilledPages().hasNext());
+        spiller.close();
+        assertEquals(listFiles(spillPath.toPath()).size(), 0);
+        assertEquals(memoryContext.getBytes(), 0);
+    }
+
+    private void assertSpill(boolean compression, boolean encryption, DataSize chunkSize, int readAheadChunks, boolean readAll)
+            throws Exception
+    {
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+        SingleStreamSpiller spiller = createSpiller(compression, encryption, chunkSize, readAheadChunks, memoryContext);
+        assertTrue(spiller instanceof ChunkedFileSingleStreamSpiller);
+
+        Page page = buildPage();
+
+        // The spiller reserves the memory of a chunk in its constructor
+        assertEquals(memoryContext.getBytes(), chunkSize.toBytes());
+        spiller.spill(page).get();
+        spiller.spill(Iterators.limit(Iterators.cycle(page), PAGES_PER_SPILL)).get();
+        assertEquals(listFiles(spillPath.toPath()).size(), 1);
+        // every spill ends with a chunk which is padded to the alignment
+        assertTrue(listFiles(spillPath.toPath()).get(0).toFile().length() > CHUNK_ALIGNMENT);
+
+        List<Page> spilledPages;
+        if (readAll) {
+            spilledPages = spiller.getAllSpilledPages().get();
+        }
+        else {
+            spilledPages = ImmutableList.copyOf(spiller.getSpilledPages());
+            assertEquals(memoryContext.getBytes(), chunkSize.toBytes() * (readAheadChunks + 1));
+        }
+
+        assertEquals(spilledPages.size(), PAGES_PER_SPILL + 1);
+        for (Page spilledPage : spilledPages) {
+            assertPageEquals(TYPES, spilledPage, page);
+        }
+
+        spiller.close();
+        assertEquals(listFiles(spillPath.toPath()).size(), 0);
+        assertEquals(memoryContext.getBytes(), 0);
+    }
+
+    private SingleStreamSpiller createSpiller(boolean compression, boolean encryption, DataSize chunkSize, int readAheadChunks, LocalMemoryContext memoryContext)
+    {
+        FileSingleStreamSpillerFactory spillerFactory = new FileSingleStreamSpillerFactory(
+                executor, // executor won't be closed, because we don't call destroy() on the spiller factory
+                createTestMetadataManager().getBlockEncodingSerde(),
+                new SpillerStats(),
+                ImmutableList.of(spillPath.toPath()),
+                1.0,
+                compression ? LZ4 : NONE,
+                encryption,
+                true,
+                chunkSize,
+                readAheadChunks);
+        return spillerFactory.create(TYPES, bytes -> {}, memoryContext);
+    }
+
+    private static Page buildPage()
+    {
+        BlockBuilder col1 = BIGINT.createBlockBuilder(null, 1);
+        BlockBuilder col2 = DOUBLE.createBlockBuilder(null, 1);
+        BlockBuilder col3 = VARBINARY.createBlockBuilder(null, 1);
+
+        col1.writeLong(42).closeEntry();
+        col2.writeLong(doubleToLongBits(43.0)).closeEntry();
+        col3.writeLong(doubleToLongBits(43.0)).writeLong(1).closeEntry();
+
+        return new Page(col1.build(), col2.build(), col3.build());
+    }
+}
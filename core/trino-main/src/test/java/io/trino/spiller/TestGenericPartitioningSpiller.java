@@ -149,6 +149,29 @@ public class TestGenericPartitioningSpiller
         }
     }
 
+    @Test
+    public void testGetAllSpilledPages()
+            throws Exception
+    {
+        try (PartitioningSpiller spiller = factory.create(
+                TYPES,
+                new FourFixedPartitionsPartitionFunction(0),
+                mockSpillContext(),
+                mockMemoryContext(scheduledExecutor))) {
+            Page page = SequencePageBuilder.createSequencePage(TYPES, 10, SECOND_PARTITION_START, 5, 10, 15);
+            PartitioningSpillResult spillResult = spiller.partitionAndSpill(page, partition -> true);
+            assertEquals(spillResult.getRetained().getPositionCount(), 0);
+            getFutureValue(spillResult.getSpillingFuture());
+
+            // the page is still buffered, and is flushed before it is read
+            List<Page> spilledPages = spiller.getAllSpilledPages(1).get();
+            assertEquals(spilledPages.size(), 1);
+            assertPageEquals(TYPES, spilledPages.get(0), page);
+            assertEquals(spiller.getAllSpilledPages(0).get().size(), 0);
+            spiller.verifyAllPartitionsRead();
+        }
+    }
+
     @Test
     public void testCloseDuringReading()
             throws Exception
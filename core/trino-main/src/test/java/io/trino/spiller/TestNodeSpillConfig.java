@@ -15,6 +15,7 @@ package io.trino.spiller;
 
 import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
+import io.trino.execution.buffer.CompressionCodec;
 import org.testng.annotations.Test;
 
 import java.util.Map;
@@ -34,7 +35,11 @@ public class TestNodeSpillConfig
                 .setMaxSpillPerNode(DataSize.of(100, GIGABYTE))
                 .setQueryMaxSpillPerNode(DataSize.of(100, GIGABYTE))
                 .setSpillCompressionEnabled(false)
-                .setSpillEncryptionEnabled(false));
+                .setSpillCompressionCodec(CompressionCodec.LZ4)
+                .setSpillEncryptionEnabled(false)
+                .setSpillChunkedFormatEnabled(false)
+                .setSpillChunkSize(DataSize.of(1, MEGABYTE))
+                .setSpillReadAheadChunks(2));
     }
 
     @Test
@@ -44,14 +49,22 @@ public class TestNodeSpillConfig
                 .put("max-spill-per-node", "10MB")
                 .put("query-max-spill-per-node", "15 MB")
                 .put("spill-compression-enabled", "true")
+                .put("spill-compression-codec", "ZSTD")
                 .put("spill-encryption-enabled", "true")
+                .put("spill-chunked-format-enabled", "true")
+                .put("spill-chunk-size", "4MB")
+                .put("spill-read-ahead-chunks", "8")
                 .build();
 
         NodeSpillConfig expected = new NodeSpillConfig()
                 .setMaxSpillPerNode(DataSize.of(10, MEGABYTE))
                 .setQueryMaxSpillPerNode(DataSize.of(15, MEGABYTE))
                 .setSpillCompressionEnabled(true)
-                .setSpillEncryptionEnabled(true);
+                .setSpillCompressionCodec(CompressionCodec.ZSTD)
+                .setSpillEncryptionEnabled(true)
+                .setSpillChunkedFormatEnabled(true)
+                .setSpillChunkSize(DataSize.of(4, MEGABYTE))
+                .setSpillReadAheadChunks(8);
 
         assertFullMapping(properties, expected);
     }
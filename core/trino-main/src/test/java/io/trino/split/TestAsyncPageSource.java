@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.split;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.spi.Page;
+import io.trino.spi.connector.ConnectorPageSource;
+import io.trino.spi.connector.InMemoryRecordSet;
+import io.trino.spi.connector.RecordPageSource;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestAsyncPageSource
+{
+    @Test
+    public void testReadOnExecutor()
+            throws Exception
+    {
+        Queue<Runnable> reads = new ArrayDeque<>();
+        Executor executor = reads::add;
+        ConnectorPageSource delegate = new RecordPageSource(InMemoryRecordSet.builder(ImmutableList.of(BIGINT))
+                .addRow(1L)
+                .addRow(2L)
+                .addRow(3L)
+                .build());
+        try (ConnectorPageSource pageSource = new AsyncPageSource(delegate, executor)) {
+            // the driver is blocked until the page is read
+            assertFalse(pageSource.isBlocked().isDone());
+            assertNull(pageSource.getNextPage());
+            assertFalse(pageSource.isFinished());
+            assertEquals(reads.size(), 1);
+
+            reads.poll().run();
+            assertTrue(pageSource.isBlocked().isDone());
+            Page page = pageSource.getNextPage();
+            assertEquals(page.getPositionCount(), 3);
+            assertEquals(BIGINT.getLong(page.getBlock(0), 2), 3L);
+
+            // the record set is exhausted, so there is nothing more to read
+            assertTrue(reads.isEmpty());
+            assertTrue(pageSource.isFinished());
+            assertTrue(pageSource.isBlocked().isDone());
+        }
+    }
+
+    @Test
+    public void testCloseWhileReading()
+            throws Exception
+    {
+        Queue<Runnable> reads = new ArrayDeque<>();
+        TestingPageSource delegate = new TestingPageSource();
+        ConnectorPageSource pageSource = new AsyncPageSource(delegate, reads::add);
+        assertFalse(pageSource.isBlocked().isDone());
+
+        // the delegate is not closed while a page is read from it
+        pageSource.close();
+        assertFalse(delegate.isClosed());
+        reads.poll().run();
+        assertTrue(delegate.isClosed());
+
+        // no page is read after the page source is closed
+        assertTrue(pageSource.isBlocked().isDone());
+        assertTrue(reads.isEmpty());
+    }
+
+    private static class TestingPageSource
+            implements ConnectorPageSource
+    {
+        private boolean closed;
+
+        @Override
+        public long getCompletedBytes()
+        {
+            return 0;
+        }
+
+        @Override
+        public long getReadTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public boolean isFinished()
+        {
+            return closed;
+        }
+
+        @Override
+        public Page getNextPage()
+        {
+            return new Page(1);
+        }
+
+        @Override
+        public long getSystemMemoryUsage()
+        {
+            return 0;
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+
+        public boolean isClosed()
+        {
+            return closed;
+        }
+    }
+}
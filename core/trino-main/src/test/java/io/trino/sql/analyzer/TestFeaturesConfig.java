@@ -16,6 +16,7 @@ package io.trino.sql.analyzer;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
+import io.trino.execution.buffer.CompressionCodec;
 import io.trino.sql.analyzer.FeaturesConfig.DataIntegrityVerification;
 import io.trino.sql.analyzer.FeaturesConfig.JoinDistributionType;
 import io.trino.sql.analyzer.FeaturesConfig.JoinReorderingStrategy;
@@ -92,6 +93,7 @@ public class TestFeaturesConfig
                 .setParseDecimalLiteralsAsDouble(false)
                 .setForceSingleNodeOutput(true)
                 .setPagesIndexEagerCompactionEnabled(false)
+                .setPagesIndexRadixSortEnabled(true)
                 .setFilterAndProjectMinOutputPageSize(DataSize.of(500, KILOBYTE))
                 .setFilterAndProjectMinOutputPageRowCount(256)
                 .setUseMarkDistinct(true)
@@ -110,7 +112,17 @@ public class TestFeaturesConfig
                 .setOptimizeDuplicateInsensitiveJoins(true)
                 .setUseLegacyWindowFilterPushdown(false)
                 .setUseTableScanNodePartitioning(true)
-                .setTableScanNodePartitioningMinBucketToTaskRatio(0.5));
+                .setTableScanNodePartitioningMinBucketToTaskRatio(0.5)
+                .setAdaptivePartialAggregationEnabled(true)
+                .setAdaptivePartialAggregationMinRows(100_000)
+                .setAdaptivePartialAggregationUniqueRowsRatioThreshold(0.8)
+                .setFlatGroupByHashEnabled(false)
+                .setAdaptiveJoinDistributionEnabled(false)
+                .setJoinOperatorUnspillMemoryLimit(DataSize.valueOf("256MB"))
+                .setExchangeCompressionCodec(CompressionCodec.LZ4)
+                .setExchangeAdaptiveCompressionEnabled(false)
+                .setExchangeSpoolingEnabled(false)
+                .setExchangeTaskRetryAttempts(3));
     }
 
     @Test
@@ -167,6 +179,7 @@ public class TestFeaturesConfig
                 .put("parse-decimal-literals-as-double", "true")
                 .put("optimizer.force-single-node-output", "false")
                 .put("pages-index.eager-compaction-enabled", "true")
+                .put("pages-index.radix-sort-enabled", "false")
                 .put("filter-and-project-min-output-page-size", "1MB")
                 .put("filter-and-project-min-output-page-row-count", "2048")
                 .put("optimizer.use-mark-distinct", "false")
@@ -186,6 +199,16 @@ public class TestFeaturesConfig
                 .put("optimizer.use-legacy-window-filter-pushdown", "true")
                 .put("optimizer.use-table-scan-node-partitioning", "false")
                 .put("optimizer.table-scan-node-partitioning-min-bucket-to-task-ratio", "0.0")
+                .put("adaptive-partial-aggregation.enabled", "false")
+                .put("adaptive-partial-aggregation.min-rows", "1")
+                .put("adaptive-partial-aggregation.unique-rows-ratio-threshold", "0.99")
+                .put("flat-group-by-hash.enabled", "true")
+                .put("adaptive-join-distribution.enabled", "true")
+                .put("join-operator-unspill-memory-limit", "100MB")
+                .put("exchange.compression-codec", "ZSTD")
+                .put("exchange.adaptive-compression-enabled", "true")
+                .put("exchange.spooling-enabled", "true")
+                .put("exchange.task-retry-attempts", "5")
                 .build();
 
         FeaturesConfig expected = new FeaturesConfig()
@@ -238,6 +261,7 @@ public class TestFeaturesConfig
                 .setParseDecimalLiteralsAsDouble(true)
                 .setForceSingleNodeOutput(false)
                 .setPagesIndexEagerCompactionEnabled(true)
+                .setPagesIndexRadixSortEnabled(false)
                 .setFilterAndProjectMinOutputPageSize(DataSize.of(1, MEGABYTE))
                 .setFilterAndProjectMinOutputPageRowCount(2048)
                 .setUseMarkDistinct(false)
@@ -257,7 +281,17 @@ public class TestFeaturesConfig
                 .setOptimizeDuplicateInsensitiveJoins(false)
                 .setUseLegacyWindowFilterPushdown(true)
                 .setUseTableScanNodePartitioning(false)
-                .setTableScanNodePartitioningMinBucketToTaskRatio(0.0);
+                .setTableScanNodePartitioningMinBucketToTaskRatio(0.0)
+                .setAdaptivePartialAggregationEnabled(false)
+                .setAdaptivePartialAggregationMinRows(1)
+                .setAdaptivePartialAggregationUniqueRowsRatioThreshold(0.99)
+                .setFlatGroupByHashEnabled(true)
+                .setAdaptiveJoinDistributionEnabled(true)
+                .setJoinOperatorUnspillMemoryLimit(DataSize.valueOf("100MB"))
+                .setExchangeCompressionCodec(CompressionCodec.ZSTD)
+                .setExchangeAdaptiveCompressionEnabled(true)
+                .setExchangeSpoolingEnabled(true)
+                .setExchangeTaskRetryAttempts(5);
         assertFullMapping(properties, expected);
     }
 }
@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import io.trino.cost.CostComparator;
+import io.trino.cost.JoinBuildSideHistory;
 import io.trino.cost.PlanNodeStatsEstimate;
 import io.trino.cost.SymbolStatsEstimate;
 import io.trino.cost.TaskCountEstimator;
@@ -39,9 +40,12 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.util.Optional;
+import java.util.OptionalLong;
 
+import static io.trino.SystemSessionProperties.ADAPTIVE_JOIN_DISTRIBUTION_ENABLED;
 import static io.trino.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
 import static io.trino.SystemSessionProperties.JOIN_MAX_BROADCAST_TABLE_SIZE;
+import static io.trino.cost.JoinBuildSideHistory.getSignature;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.VarcharType.createUnboundedVarcharType;
 import static io.trino.sql.planner.assertions.PlanMatchPattern.enforceSingleRow;
@@ -266,6 +270,96 @@ public class TestDetermineJoinDistributionType
                         values(ImmutableMap.of("A1", 0))));
     }
 
+    @Test
+    public void testDoNotReplicateObservedLargeBuildSide()
+    {
+        // estimates suggest replicating A, but A was observed to be too large
+        assertJoinWithObservedSizes(true, true, OptionalLong.of(10_000_000), OptionalLong.empty())
+                .matches(join(
+                        INNER,
+                        ImmutableList.of(equiJoinClause("B1", "A1")),
+                        Optional.empty(),
+                        Optional.of(PARTITIONED),
+                        values(ImmutableMap.of("B1", 0)),
+                        values(ImmutableMap.of("A1", 0))));
+    }
+
+    @Test
+    public void testObservedSmallSizeDoesNotOverrideEstimate()
+    {
+        // B was observed to be small, but it is estimated to be too large
+        assertJoinWithObservedSizes(true, true, OptionalLong.of(100_000), OptionalLong.of(100_000))
+                .matches(join(
+                        INNER,
+                        ImmutableList.of(equiJoinClause("B1", "A1")),
+                        Optional.empty(),
+                        Optional.of(REPLICATED),
+                        values(ImmutableMap.of("B1", 0)),
+                        values(ImmutableMap.of("A1", 0))));
+    }
+
+    @Test
+    public void testReplicateObservedSmallBuildSideWhenSizeUnknown()
+    {
+        assertJoinWithObservedSizes(true, false, OptionalLong.of(10_000_000), OptionalLong.of(100_000))
+                .matches(join(
+                        INNER,
+                        ImmutableList.of(equiJoinClause("A1", "B1")),
+                        Optional.empty(),
+                        Optional.of(REPLICATED),
+                        values(ImmutableMap.of("A1", 0)),
+                        values(ImmutableMap.of("B1", 0))));
+    }
+
+    @Test
+    public void testIgnoreObservedSizesWhenDisabled()
+    {
+        assertJoinWithObservedSizes(false, true, OptionalLong.of(10_000_000), OptionalLong.of(100_000))
+                .matches(join(
+                        INNER,
+                        ImmutableList.of(equiJoinClause("B1", "A1")),
+                        Optional.empty(),
+                        Optional.of(REPLICATED),
+                        values(ImmutableMap.of("B1", 0)),
+                        values(ImmutableMap.of("A1", 0))));
+    }
+
+    private RuleAssert assertJoinWithObservedSizes(boolean adaptiveJoinDistributionEnabled, boolean sizesKnown, OptionalLong aObservedSize, OptionalLong bObservedSize)
+    {
+        VarcharType symbolType = createUnboundedVarcharType(); // variable width so that average row size is respected
+        int aRows = 100;
+        int bRows = 10_000;
+        JoinBuildSideHistory joinBuildSideHistory = new JoinBuildSideHistory();
+        return tester.assertThat(new DetermineJoinDistributionType(COST_COMPARATOR, new TaskCountEstimator(() -> NODES_COUNT), joinBuildSideHistory))
+                .setSystemProperty(JOIN_DISTRIBUTION_TYPE, JoinDistributionType.AUTOMATIC.name())
+                .setSystemProperty(JOIN_MAX_BROADCAST_TABLE_SIZE, "1MB")
+                .setSystemProperty(ADAPTIVE_JOIN_DISTRIBUTION_ENABLED, Boolean.toString(adaptiveJoinDistributionEnabled))
+                .overrideStats("valuesA", sizesKnown ? PlanNodeStatsEstimate.builder()
+                        .setOutputRowCount(aRows)
+                        .addSymbolStatistics(ImmutableMap.of(new Symbol("A1"), new SymbolStatsEstimate(0, 100, 0, 6400, 100)))
+                        .build() : PlanNodeStatsEstimate.unknown())
+                .overrideStats("valuesB", sizesKnown ? PlanNodeStatsEstimate.builder()
+                        .setOutputRowCount(bRows)
+                        .addSymbolStatistics(ImmutableMap.of(new Symbol("B1"), new SymbolStatsEstimate(0, 100, 0, 640000, 100)))
+                        .build() : PlanNodeStatsEstimate.unknown())
+                .on(p -> {
+                    Symbol a1 = p.symbol("A1", symbolType);
+                    Symbol b1 = p.symbol("B1", symbolType);
+                    ValuesNode valuesA = p.values(new PlanNodeId("valuesA"), aRows, a1);
+                    ValuesNode valuesB = p.values(new PlanNodeId("valuesB"), bRows, b1);
+                    aObservedSize.ifPresent(size -> joinBuildSideHistory.recordObservedSize(getSignature(valuesA, noLookup()).orElseThrow(), size));
+                    bObservedSize.ifPresent(size -> joinBuildSideHistory.recordObservedSize(getSignature(valuesB, noLookup()).orElseThrow(), size));
+                    return p.join(
+                            INNER,
+                            valuesA,
+                            valuesB,
+                            ImmutableList.of(new JoinNode.EquiJoinClause(a1, b1)),
+                            ImmutableList.of(a1),
+                            ImmutableList.of(b1),
+                            Optional.empty());
+                });
+    }
+
     @Test
     public void testFlipAndReplicateWhenOneTableMuchSmallerAndJoinCardinalityUnknown()
     {
@@ -841,6 +935,6 @@ public class TestDetermineJoinDistributionType
 
     private RuleAssert assertDetermineJoinDistributionType(CostComparator costComparator)
     {
-        return tester.assertThat(new DetermineJoinDistributionType(costComparator, new TaskCountEstimator(() -> NODES_COUNT)));
+        return tester.assertThat(new DetermineJoinDistributionType(costComparator, new TaskCountEstimator(() -> NODES_COUNT), new JoinBuildSideHistory()));
     }
 }
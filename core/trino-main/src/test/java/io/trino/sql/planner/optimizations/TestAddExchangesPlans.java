@@ -18,10 +18,17 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.trino.Session;
+import io.trino.execution.warnings.WarningCollector;
+import io.trino.metadata.SessionPropertyManager;
 import io.trino.plugin.tpch.TpchConnectorFactory;
+import io.trino.spi.TrinoException;
+import io.trino.spi.predicate.NullableValue;
 import io.trino.sql.analyzer.FeaturesConfig;
 import io.trino.sql.analyzer.FeaturesConfig.JoinDistributionType;
 import io.trino.sql.analyzer.FeaturesConfig.JoinReorderingStrategy;
+import io.trino.sql.planner.Plan;
+import io.trino.sql.planner.SkewedKeys;
+import io.trino.sql.planner.SubPlan;
 import io.trino.sql.planner.assertions.BasePlanTest;
 import io.trino.sql.planner.assertions.PlanMatchPattern;
 import io.trino.sql.planner.assertions.RowNumberSymbolMatcher;
@@ -31,17 +38,27 @@ import io.trino.sql.planner.plan.JoinNode.DistributionType;
 import io.trino.sql.planner.plan.MarkDistinctNode;
 import io.trino.sql.planner.plan.ValuesNode;
 import io.trino.testing.LocalQueryRunner;
+import org.intellij.lang.annotations.Language;
 import org.testng.annotations.Test;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.utf8Slice;
 import static io.trino.SystemSessionProperties.IGNORE_DOWNSTREAM_PREFERENCES;
 import static io.trino.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
 import static io.trino.SystemSessionProperties.JOIN_REORDERING_STRATEGY;
+import static io.trino.SystemSessionProperties.SKEWED_JOIN_KEYS;
 import static io.trino.SystemSessionProperties.SPILL_ENABLED;
 import static io.trino.SystemSessionProperties.TASK_CONCURRENCY;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.VarcharType.createVarcharType;
 import static io.trino.sql.analyzer.FeaturesConfig.JoinDistributionType.PARTITIONED;
 import static io.trino.sql.analyzer.FeaturesConfig.JoinReorderingStrategy.ELIMINATE_CROSS_JOINS;
+import static io.trino.sql.planner.LogicalPlanner.Stage.OPTIMIZED_AND_VALIDATED;
 import static io.trino.sql.planner.assertions.PlanMatchPattern.aggregation;
 import static io.trino.sql.planner.assertions.PlanMatchPattern.any;
 import static io.trino.sql.planner.assertions.PlanMatchPattern.anyNot;
@@ -61,6 +78,7 @@ import static io.trino.sql.planner.assertions.PlanMatchPattern.sort;
 import static io.trino.sql.planner.assertions.PlanMatchPattern.tableScan;
 import static io.trino.sql.planner.assertions.PlanMatchPattern.topN;
 import static io.trino.sql.planner.assertions.PlanMatchPattern.values;
+import static io.trino.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
 import static io.trino.sql.planner.plan.AggregationNode.Step.PARTIAL;
 import static io.trino.sql.planner.plan.ExchangeNode.Scope.LOCAL;
 import static io.trino.sql.planner.plan.ExchangeNode.Scope.REMOTE;
@@ -70,9 +88,13 @@ import static io.trino.sql.planner.plan.ExchangeNode.Type.REPLICATE;
 import static io.trino.sql.planner.plan.JoinNode.DistributionType.REPLICATED;
 import static io.trino.sql.planner.plan.JoinNode.Type.INNER;
 import static io.trino.sql.planner.plan.TopNNode.Step.FINAL;
+import static io.trino.sql.planner.planprinter.PlanPrinter.textDistributedPlan;
 import static io.trino.sql.tree.SortItem.NullOrdering.LAST;
 import static io.trino.sql.tree.SortItem.Ordering.ASCENDING;
 import static io.trino.testing.TestingSession.testSessionBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.testng.Assert.assertEquals;
 
 public class TestAddExchangesPlans
         extends BasePlanTest
@@ -441,6 +463,103 @@ public class TestAddExchangesPlans
                                         values()))));
     }
 
+    @Test
+    public void testSkewedJoinKeys()
+    {
+        Session session = Session.builder(getQueryRunner().getDefaultSession())
+                .setSystemProperty(JOIN_DISTRIBUTION_TYPE, PARTITIONED.name())
+                .setSystemProperty(JOIN_REORDERING_STRATEGY, JoinReorderingStrategy.NONE.name())
+                .setSystemProperty(SKEWED_JOIN_KEYS, "custkey:1, 2, 2;nationkey:3")
+                .build();
+
+        List<SkewedKeys> skewedKeys = getSkewedKeys("SELECT * FROM orders o JOIN customer c ON o.custkey = c.custkey", session);
+        assertEquals(skewedKeys.size(), 2);
+        assertThat(skewedKeys)
+                .extracting(SkewedKeys::isReplicated)
+                .containsExactlyInAnyOrder(false, true);
+        for (SkewedKeys keys : skewedKeys) {
+            assertThat(keys.getColumn().getName()).startsWith("custkey");
+            assertEquals(keys.getValues(), ImmutableList.of(new NullableValue(BIGINT, 1L), new NullableValue(BIGINT, 2L)));
+        }
+        assertEquals(getSkewedKeys("SELECT * FROM orders o LEFT JOIN customer c ON o.custkey = c.custkey", session).size(), 2);
+
+        // replicating build rows would duplicate unmatched build rows of outer joins
+        assertThat(getSkewedKeys("SELECT * FROM orders o RIGHT JOIN customer c ON o.custkey = c.custkey", session)).isEmpty();
+        assertThat(getSkewedKeys("SELECT * FROM orders o FULL JOIN customer c ON o.custkey = c.custkey", session)).isEmpty();
+        assertThat(getSkewedKeys("SELECT * FROM orders o JOIN customer c ON o.custkey = c.custkey AND o.orderkey = c.nationkey", session)).isEmpty();
+        assertThat(getSkewedKeys("SELECT * FROM orders o JOIN lineitem l ON o.orderkey = l.orderkey", session)).isEmpty();
+
+        // the join keys are matched with the listed columns through the table scans, not by symbol name
+        assertEquals(getSkewedKeys("SELECT * FROM orders o JOIN (SELECT custkey AS id, name FROM customer) c ON o.custkey = c.id", session).size(), 2);
+        assertThat(getSkewedKeys("SELECT * FROM (SELECT orderkey % 10 AS custkey FROM orders) o JOIN (SELECT suppkey % 10 AS custkey FROM lineitem) l ON o.custkey = l.custkey", session)).isEmpty();
+
+        String explain = getQueryRunner().inTransaction(session, transactionSession -> {
+            Plan plan = getQueryRunner().createPlan(transactionSession, "SELECT * FROM orders o JOIN customer c ON o.custkey = c.custkey", OPTIMIZED_AND_VALIDATED, false, WarningCollector.NOOP);
+            SubPlan subPlan = getQueryRunner().createSubPlans(transactionSession, plan, false);
+            return textDistributedPlan(subPlan, getQueryRunner().getMetadata(), transactionSession, false);
+        });
+        assertThat(explain)
+                .contains("in [1, 2] (round robin)")
+                .contains("in [1, 2] (replicated)");
+    }
+
+    @Test
+    public void testSkewedJoinKeyValues()
+    {
+        // the listed values are parsed as the type of the join key
+        assertThat(getSkewedKeys("SELECT * FROM orders o JOIN lineitem l ON o.orderdate = l.shipdate", skewedJoinKeys("orderdate: 1995-01-01"))).hasSize(2).allSatisfy(keys ->
+                assertEquals(keys.getValues(), ImmutableList.of(new NullableValue(DATE, LocalDate.of(1995, 1, 1).toEpochDay()))));
+        assertThat(getSkewedKeys("SELECT * FROM customer c1 JOIN customer c2 ON c1.mktsegment = c2.mktsegment", skewedJoinKeys("MKTSEGMENT:BUILDING, MACHINERY"))).hasSize(2).allSatisfy(keys ->
+                assertEquals(keys.getValues(), ImmutableList.of(new NullableValue(createVarcharType(10), utf8Slice("BUILDING")), new NullableValue(createVarcharType(10), utf8Slice("MACHINERY")))));
+
+        assertThatThrownBy(() -> getSkewedKeys("SELECT * FROM orders o JOIN customer c ON o.custkey = c.custkey", skewedJoinKeys("custkey:1,x")))
+                .isInstanceOf(TrinoException.class)
+                .hasMessage("Invalid bigint value for skewed_join_keys: x");
+        assertThatThrownBy(() -> getSkewedKeys("SELECT * FROM orders o JOIN lineitem l ON o.orderdate = l.shipdate", skewedJoinKeys("orderdate:1995-13-01")))
+                .isInstanceOf(TrinoException.class)
+                .hasMessage("Invalid date value for skewed_join_keys: 1995-13-01");
+    }
+
+    @Test
+    public void testInvalidSkewedJoinKeys()
+    {
+        SessionPropertyManager sessionPropertyManager = getQueryRunner().getMetadata().getSessionPropertyManager();
+        sessionPropertyManager.validateSystemSessionProperty(SKEWED_JOIN_KEYS, "custkey:1;;nationkey:2,3;");
+
+        assertThatThrownBy(() -> sessionPropertyManager.validateSystemSessionProperty(SKEWED_JOIN_KEYS, "custkey"))
+                .isInstanceOf(TrinoException.class)
+                .hasMessage("skewed_join_keys must be a list of column:value[,value...] separated by ';': custkey");
+        assertThatThrownBy(() -> sessionPropertyManager.validateSystemSessionProperty(SKEWED_JOIN_KEYS, "custkey:,"))
+                .isInstanceOf(TrinoException.class)
+                .hasMessage("skewed_join_keys must be a list of column:value[,value...] separated by ';': custkey:,");
+        assertThatThrownBy(() -> sessionPropertyManager.validateSystemSessionProperty(SKEWED_JOIN_KEYS, ":1"))
+                .isInstanceOf(TrinoException.class)
+                .hasMessage("skewed_join_keys must be a list of column:value[,value...] separated by ';': :1");
+        assertThatThrownBy(() -> sessionPropertyManager.validateSystemSessionProperty(SKEWED_JOIN_KEYS, "custkey:1;CUSTKEY:2"))
+                .isInstanceOf(TrinoException.class)
+                .hasMessage("skewed_join_keys contains column CUSTKEY more than once");
+    }
+
+    private Session skewedJoinKeys(String skewedJoinKeys)
+    {
+        return Session.builder(getQueryRunner().getDefaultSession())
+                .setSystemProperty(JOIN_DISTRIBUTION_TYPE, PARTITIONED.name())
+                .setSystemProperty(JOIN_REORDERING_STRATEGY, JoinReorderingStrategy.NONE.name())
+                .setSystemProperty(SKEWED_JOIN_KEYS, skewedJoinKeys)
+                .build();
+    }
+
+    private List<SkewedKeys> getSkewedKeys(@Language("SQL") String sql, Session session)
+    {
+        Plan plan = getQueryRunner().inTransaction(session, transactionSession -> getQueryRunner().createPlan(transactionSession, sql, OPTIMIZED_AND_VALIDATED, false, WarningCollector.NOOP));
+        return searchFrom(plan.getRoot())
+                .where(node -> node instanceof ExchangeNode && ((ExchangeNode) node).getScope() == REMOTE)
+                .<ExchangeNode>findAll().stream()
+                .map(exchange -> exchange.getPartitioningScheme().getSkewedKeys())
+                .flatMap(Optional::stream)
+                .collect(toImmutableList());
+    }
+
     private Session spillEnabledWithJoinDistributionType(JoinDistributionType joinDistributionType)
     {
         return Session.builder(getQueryRunner().getDefaultSession())
@@ -71,7 +71,7 @@ public class BenchmarkPagesSort
     @Benchmark
     public List<Page> runPagesIndexSortBenchmark(PagesIndexSortBenchmarkData data)
     {
-        PagesIndex.TestingFactory pagesIndexFactory = new PagesIndex.TestingFactory(false);
+        PagesIndex.TestingFactory pagesIndexFactory = new PagesIndex.TestingFactory(false, data.radixSortEnabled);
         PagesIndex pageIndex = pagesIndexFactory.newPagesIndex(data.getTypes(), data.getTotalPositions());
         for (Page page : data.getPages()) {
             pageIndex.addPage(page);
@@ -109,6 +109,9 @@ public class BenchmarkPagesSort
         @Param({"200", "400"})
         private int pagesCount = 200;
 
+        @Param({"true", "false"})
+        private boolean radixSortEnabled = true;
+
         @Setup
         public void setup()
         {
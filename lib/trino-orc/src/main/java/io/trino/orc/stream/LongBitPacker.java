@@ -30,6 +30,9 @@ public final class LongBitPacker
     // ORC uses no more than 9 bits to store run lengths (https://orc.apache.org/docs/run-length.html#direct)
     private static final int MAX_BUFFERED_POSITIONS = 512;
 
+    // a value of this many bits, starting at any bit of a byte, fits in the 8 bytes starting at that byte
+    private static final int MAX_WINDOWED_BIT_SIZE = Long.SIZE - 7;
+
     // We use this temp buffer to work around poor read performance of single bytes from Slice.
     // Benchmarks show that reading from this byte[] is ~3x faster, even after accounting for the
     // extra write to this buffer, than reading byte at a time from the InputStream.
@@ -75,8 +78,76 @@ public final class LongBitPacker
             case 64:
                 unpack64(buffer, offset, len, input);
                 break;
+            case 3:
+                unpackWindowed(buffer, offset, len, 3, input);
+                break;
+            case 5:
+                unpackWindowed(buffer, offset, len, 5, input);
+                break;
+            case 6:
+                unpackWindowed(buffer, offset, len, 6, input);
+                break;
+            case 7:
+                unpackWindowed(buffer, offset, len, 7, input);
+                break;
+            case 9:
+                unpackWindowed(buffer, offset, len, 9, input);
+                break;
+            case 10:
+                unpackWindowed(buffer, offset, len, 10, input);
+                break;
+            case 11:
+                unpackWindowed(buffer, offset, len, 11, input);
+                break;
+            case 12:
+                unpackWindowed(buffer, offset, len, 12, input);
+                break;
+            case 13:
+                unpackWindowed(buffer, offset, len, 13, input);
+                break;
+            case 14:
+                unpackWindowed(buffer, offset, len, 14, input);
+                break;
+            case 15:
+                unpackWindowed(buffer, offset, len, 15, input);
+                break;
+            case 17:
+                unpackWindowed(buffer, offset, len, 17, input);
+                break;
+            case 18:
+                unpackWindowed(buffer, offset, len, 18, input);
+                break;
+            case 19:
+                unpackWindowed(buffer, offset, len, 19, input);
+                break;
+            case 20:
+                unpackWindowed(buffer, offset, len, 20, input);
+                break;
+            case 21:
+                unpackWindowed(buffer, offset, len, 21, input);
+                break;
+            case 22:
+                unpackWindowed(buffer, offset, len, 22, input);
+                break;
+            case 23:
+                unpackWindowed(buffer, offset, len, 23, input);
+                break;
+            case 26:
+                unpackWindowed(buffer, offset, len, 26, input);
+                break;
+            case 28:
+                unpackWindowed(buffer, offset, len, 28, input);
+                break;
+            case 30:
+                unpackWindowed(buffer, offset, len, 30, input);
+                break;
             default:
-                unpackGeneric(buffer, offset, len, bitSize, input);
+                if (bitSize <= MAX_WINDOWED_BIT_SIZE) {
+                    unpackWindowed(buffer, offset, len, bitSize, input);
+                }
+                else {
+                    unpackGeneric(buffer, offset, len, bitSize, input);
+                }
         }
     }
 
@@ -107,6 +178,30 @@ public final class LongBitPacker
         }
     }
 
+    /**
+     * Unpacks values which are not byte aligned. Each value is extracted from the 8 bytes starting
+     * at the first byte of the value, which is branch free and reads the input in bulk, instead of
+     * byte at a time. Every width used by ORC has a separate call site with a constant width, so the
+     * JIT specializes the shifts and the mask for each width.
+     */
+    private void unpackWindowed(long[] buffer, int offset, int len, int bitSize, InputStream input)
+            throws IOException
+    {
+        int blockReadableBytes = (len * bitSize + 7) / 8;
+        for (int i = 0; i < blockReadableBytes; ) {
+            i += input.read(tmp, i, blockReadableBytes - i);
+        }
+        long mask = (1L << bitSize) - 1;
+        int bitOffset = 0;
+        for (int i = 0; i < len; i++) {
+            // It's safe to read 8-bytes at a time and shift, because slice is a view over tmp,
+            // which has 8 bytes of buffer space for every position
+            long value = Long.reverseBytes(getLongUnchecked(slice, bitOffset >>> 3));
+            buffer[offset + i] = (value >>> (Long.SIZE - bitSize - (bitOffset & 7))) & mask;
+            bitOffset += bitSize;
+        }
+    }
+
     private void unpack1(long[] buffer, int offset, int len, InputStream input)
             throws IOException
     {
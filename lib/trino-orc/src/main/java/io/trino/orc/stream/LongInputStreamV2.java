@@ -19,6 +19,7 @@ import io.trino.orc.checkpoint.LongStreamV2Checkpoint;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
 import static java.lang.Math.min;
 
@@ -31,6 +32,8 @@ public class LongInputStreamV2
 {
     private static final int MIN_REPEAT_SIZE = 3;
     private static final int MAX_LITERAL_SIZE = 512;
+    // patch list length is stored in 5 bits
+    private static final int MAX_PATCH_LIST_LENGTH = 31;
 
     private enum EncodingType
     {
@@ -41,6 +44,7 @@ public class LongInputStreamV2
     private final OrcInputStream input;
     private final boolean signed;
     private final long[] literals = new long[MAX_LITERAL_SIZE];
+    private final long[] unpackedPatch = new long[MAX_PATCH_LIST_LENGTH];
     private int numLiterals;
     private int used;
     private final boolean skipCorrupt;
@@ -102,38 +106,39 @@ public class LongInputStreamV2
         literals[numLiterals++] = firstVal;
 
         // if fixed bits is 0 then all values have fixed delta
-        long prevVal;
         if (fixedBits == 0) {
             // read the fixed delta value stored as vint (deltas can be negative even
             // if all number are positive)
             long fixedDelta = LongDecode.readSignedVInt(input);
 
             // add fixed deltas to adjacent values
+            long value = firstVal;
             for (int i = 0; i < length; i++) {
-                literals[numLiterals++] = literals[numLiterals - 2] + fixedDelta;
+                value += fixedDelta;
+                literals[numLiterals++] = value;
             }
         }
         else {
             long deltaBase = LongDecode.readSignedVInt(input);
             // add delta base and first value
             literals[numLiterals++] = firstVal + deltaBase;
-            prevVal = literals[numLiterals - 1];
             length -= 1;
 
             // write the unpacked values, add it to previous value and store final
             // value to result buffer. if the delta base value is negative then it
-            // is a decreasing sequence else an increasing sequence
+            // is a decreasing sequence else an increasing sequence. the direction is
+            // checked once per run, so that the loops are branch free
             packer.unpack(literals, numLiterals, length, fixedBits, input);
-            while (length > 0) {
-                if (deltaBase < 0) {
-                    literals[numLiterals] = prevVal - literals[numLiterals];
+            int end = numLiterals + length;
+            if (deltaBase < 0) {
+                for (; numLiterals < end; numLiterals++) {
+                    literals[numLiterals] = literals[numLiterals - 1] - literals[numLiterals];
                 }
-                else {
-                    literals[numLiterals] = prevVal + literals[numLiterals];
+            }
+            else {
+                for (; numLiterals < end; numLiterals++) {
+                    literals[numLiterals] = literals[numLiterals - 1] + literals[numLiterals];
                 }
-                prevVal = literals[numLiterals];
-                length--;
-                numLiterals++;
             }
         }
     }
@@ -178,13 +183,11 @@ public class LongInputStreamV2
             base = -base;
         }
 
-        // unpack the data blob
-        long[] unpacked = new long[length];
-        packer.unpack(unpacked, 0, length, fb, input);
+        // unpack the data blob directly into the result buffer
+        int start = numLiterals;
+        packer.unpack(literals, start, length, fb, input);
 
         // unpack the patch blob
-        long[] unpackedPatch = new long[patchListLength];
-
         if ((patchWidth + patchGapWidth) > 64 && !skipCorrupt) {
             throw new OrcCorruptionException(input.getOrcDataSourceId(), "Invalid RLEv2 encoded stream");
         }
@@ -192,64 +195,26 @@ public class LongInputStreamV2
         int bitSize = LongDecode.getClosestFixedBits(patchWidth + patchGapWidth);
         packer.unpack(unpackedPatch, 0, patchListLength, bitSize, input);
 
-        // apply the patch directly when decoding the packed data
-        int patchIndex = 0;
-        long currentGap;
-        long currentPatch;
+        // apply the patches in place. gaps larger than 255 are split into entries with
+        // a gap of 255 and a patch value of 0, which leave the value unchanged
         long patchMask = ((1L << patchWidth) - 1);
-        currentGap = unpackedPatch[patchIndex] >>> patchWidth;
-        currentPatch = unpackedPatch[patchIndex] & patchMask;
-        long actualGap = 0;
-
-        // special case: gap is >255 then patch value will be 0.
-        // if gap is <=255 then patch value cannot be 0
-        while (currentGap == 255 && currentPatch == 0) {
-            actualGap += 255;
-            patchIndex++;
-            currentGap = unpackedPatch[patchIndex] >>> patchWidth;
-            currentPatch = unpackedPatch[patchIndex] & patchMask;
-        }
-        // add the left over gap
-        actualGap += currentGap;
-
-        // unpack data blob, patch it (if required), add base to get final result
-        for (int i = 0; i < unpacked.length; i++) {
-            if (i == actualGap) {
-                // extract the patch value
-                long patchedValue = unpacked[i] | (currentPatch << fb);
-
-                // add base to patched value
-                literals[numLiterals++] = base + patchedValue;
-
-                // increment the patch to point to next entry in patch list
-                patchIndex++;
-
-                if (patchIndex < patchListLength) {
-                    // read the next gap and patch
-                    currentGap = unpackedPatch[patchIndex] >>> patchWidth;
-                    currentPatch = unpackedPatch[patchIndex] & patchMask;
-                    actualGap = 0;
-
-                    // special case: gap is >255 then patch will be 0. if gap is
-                    // <=255 then patch cannot be 0
-                    while (currentGap == 255 && currentPatch == 0) {
-                        actualGap += 255;
-                        patchIndex++;
-                        currentGap = unpackedPatch[patchIndex] >>> patchWidth;
-                        currentPatch = unpackedPatch[patchIndex] & patchMask;
-                    }
-                    // add the left over gap
-                    actualGap += currentGap;
-
-                    // next gap is relative to the current gap
-                    actualGap += i;
+        int position = start;
+        for (int patchIndex = 0; patchIndex < patchListLength; patchIndex++) {
+            position += (int) (unpackedPatch[patchIndex] >>> patchWidth);
+            long patch = unpackedPatch[patchIndex] & patchMask;
+            if (patch != 0) {
+                if (position >= start + length) {
+                    throw new OrcCorruptionException(input.getOrcDataSourceId(), "Invalid RLEv2 encoded stream");
                 }
-            }
-            else {
-                // no patching required. add base to unpacked value to get final value
-                literals[numLiterals++] = base + unpacked[i];
+                literals[position] |= patch << fb;
             }
         }
+
+        // add base to get final result
+        numLiterals += length;
+        for (int i = start; i < numLiterals; i++) {
+            literals[i] += base;
+        }
     }
 
     // This comes from the Apache Hive ORC code
@@ -300,9 +265,8 @@ public class LongInputStreamV2
         }
 
         // repeat the value for length times
-        for (int i = 0; i < length; i++) {
-            literals[numLiterals++] = val;
-        }
+        Arrays.fill(literals, numLiterals, numLiterals + length, val);
+        numLiterals += length;
     }
 
     /**
@@ -70,6 +70,7 @@ import static io.trino.spi.type.SmallintType.SMALLINT;
 import static io.trino.spi.type.TimestampType.TIMESTAMP_MILLIS;
 import static io.trino.spi.type.TinyintType.TINYINT;
 import static io.trino.spi.type.VarcharType.VARCHAR;
+import static java.lang.Math.min;
 import static java.nio.file.Files.readAllBytes;
 import static java.util.UUID.randomUUID;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -228,6 +229,15 @@ public class BenchmarkColumnReaders
         }
     }
 
+    @Benchmark
+    public Object readLongEncoding(BigintEncodingBenchmarkData data)
+            throws Exception
+    {
+        try (OrcRecordReader recordReader = data.createRecordReader()) {
+            return readFirstColumn(recordReader);
+        }
+    }
+
     @Benchmark
     public Object readIntNoNull(IntegerNoNullBenchmarkData data)
             throws Exception
@@ -774,6 +784,71 @@ public class BenchmarkColumnReaders
         }
     }
 
+    @State(Thread)
+    public static class BigintEncodingBenchmarkData
+            extends BenchmarkData
+    {
+        // run length encodings used by the ORC writer for these values
+        @Param({"SHORT_REPEAT", "DIRECT", "PATCHED_BASE", "DELTA"})
+        private String encoding = "DIRECT";
+
+        // bit width of the values, or of the deltas for the delta encoding
+        @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15", "16", "17", "18", "19", "20", "21", "22", "23", "24", "26", "28", "30", "32", "40", "48", "56", "64"})
+        private int bits = 64;
+
+        @Setup
+        public void setup()
+                throws Exception
+        {
+            setup(BIGINT, createValues());
+        }
+
+        private Iterator<?> createValues()
+        {
+            long mask = -1L >>> (Long.SIZE - bits);
+            List<Long> values = new ArrayList<>();
+            switch (encoding) {
+                case "SHORT_REPEAT":
+                    // runs of 3 to 10 equal values
+                    long repeated = 0;
+                    while (values.size() < ROWS) {
+                        long next = random.nextLong() & mask;
+                        repeated = next == repeated ? (next + 1) & mask : next;
+                        for (int i = 3 + random.nextInt(8); i > 0 && values.size() < ROWS; i--) {
+                            values.add(repeated);
+                        }
+                    }
+                    break;
+                case "DIRECT":
+                    for (int i = 0; i < ROWS; ++i) {
+                        values.add(random.nextLong() & mask);
+                    }
+                    break;
+                case "PATCHED_BASE":
+                    // values of half the width with a few outliers, which are patched
+                    for (int i = 0; i < ROWS; ++i) {
+                        values.add(random.nextInt(100) == 0 ? random.nextLong() & mask : random.nextLong() & (mask >>> (bits / 2)));
+                    }
+                    break;
+                case "DELTA":
+                    // increasing values, restarted for every run, so that wide deltas do not overflow
+                    long deltaMask = -1L >>> (Long.SIZE - min(bits, 54));
+                    long value = 0;
+                    for (int i = 0; i < ROWS; ++i) {
+                        if (i % 512 == 0) {
+                            value = 0;
+                        }
+                        value += random.nextLong() & deltaMask;
+                        values.add(value);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+            }
+            return values.iterator();
+        }
+    }
+
     @State(Thread)
     public static class IntegerNoNullBenchmarkData
             extends BenchmarkData
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 
 import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.trino.orc.OrcDecompressor.createOrcDecompressor;
@@ -47,6 +48,44 @@ public class TestLongStreamV2
         testWriteValue(groups);
     }
 
+    @Test
+    public void testEncodings()
+            throws IOException
+    {
+        Random random = new Random(0);
+        List<List<Long>> groups = new ArrayList<>();
+        for (int bits = 1; bits < 64; bits += 3) {
+            long mask = -1L >>> (Long.SIZE - bits);
+            List<Long> group = new ArrayList<>();
+            // short repeat
+            for (int run = 0; run < 20; run++) {
+                long value = random.nextLong() & mask;
+                for (int i = 0; i < 3 + run % 8; i++) {
+                    group.add(value);
+                }
+            }
+            // direct
+            for (int i = 0; i < 700; i++) {
+                group.add(random.nextLong() & mask);
+            }
+            // patched base, with a few outliers, and gaps larger than 255 between them
+            for (int i = 0; i < 700; i++) {
+                group.add(i % 300 == 7 ? mask : random.nextLong() & (mask >>> (bits / 2)));
+            }
+            // delta, with fixed and variable deltas in both directions
+            for (int i = 0; i < 600; i++) {
+                group.add(mask / 2 + i * (bits - 30L));
+            }
+            long value = 0;
+            for (int i = 0; i < 600; i++) {
+                value -= random.nextLong() & (mask >>> 10);
+                group.add(value);
+            }
+            groups.add(group);
+        }
+        testWriteValue(groups);
+    }
+
     @Override
     protected LongOutputStreamV2 createValueOutputStream()
     {
@@ -0,0 +1,283 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
+import io.airlift.slice.XxHash64;
+import io.trino.hive.$internal.parquet.org.apache.thrift.TException;
+import io.trino.hive.$internal.parquet.org.apache.thrift.protocol.TCompactProtocol;
+import io.trino.hive.$internal.parquet.org.apache.thrift.transport.TIOStreamTransport;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.VarbinaryType;
+import io.trino.spi.type.VarcharType;
+import org.apache.parquet.format.BloomFilterAlgorithm;
+import org.apache.parquet.format.BloomFilterCompression;
+import org.apache.parquet.format.BloomFilterHash;
+import org.apache.parquet.format.BloomFilterHeader;
+import org.apache.parquet.format.SplitBlockAlgorithm;
+import org.apache.parquet.format.Uncompressed;
+import org.apache.parquet.format.XxHash;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.OptionalLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.SmallintType.SMALLINT;
+import static io.trino.spi.type.TinyintType.TINYINT;
+import static java.lang.Math.ceil;
+import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.pow;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Split block Bloom filter, as specified by the Parquet format. The bitset is divided into
+ * blocks of eight 32-bit words, and a value sets one bit in every word of a single block.
+ * Values are hashed with XXH64 of their plain encoding.
+ */
+public final class BloomFilter
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BloomFilter.class).instanceSize();
+
+    public static final int BYTES_PER_BLOCK = 32;
+    public static final int MAXIMUM_BYTES = 128 * 1024 * 1024;
+
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int[] SALT = {0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31};
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private final int[] words;
+    private final int blockCount;
+
+    private BloomFilter(int[] words)
+    {
+        this.words = requireNonNull(words, "words is null");
+        this.blockCount = words.length / WORDS_PER_BLOCK;
+    }
+
+    public static BloomFilter create(int numBytes)
+    {
+        checkArgument(isValidSize(numBytes), "Invalid Bloom filter size: %s", numBytes);
+        return new BloomFilter(new int[numBytes / Integer.BYTES]);
+    }
+
+    public static BloomFilter fromBitset(Slice bitset)
+    {
+        checkArgument(isValidSize(bitset.length()), "Invalid Bloom filter size: %s", bitset.length());
+        int[] words = new int[bitset.length() / Integer.BYTES];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = bitset.getInt(i * Integer.BYTES);
+        }
+        return new BloomFilter(words);
+    }
+
+    public static boolean isValidSize(int numBytes)
+    {
+        return numBytes > 0 && numBytes <= MAXIMUM_BYTES && numBytes % BYTES_PER_BLOCK == 0;
+    }
+
+    /**
+     * Returns the power of two size in bytes of a filter for the number of distinct values
+     * with the false positive probability, but not more than maxBytes.
+     */
+    public static int getOptimalNumberOfBytes(long distinctValues, double fpp, int maxBytes)
+    {
+        checkArgument(fpp > 0.0 && fpp < 1.0, "fpp must be between 0 and 1");
+        checkArgument(isValidSize(maxBytes), "Invalid Bloom filter size: %s", maxBytes);
+        double bits = -WORDS_PER_BLOCK * max(distinctValues, 1) / log(1 - pow(fpp, 1.0 / WORDS_PER_BLOCK));
+        long bytes = (long) ceil(bits / Byte.SIZE);
+        if (bytes >= maxBytes) {
+            return maxBytes;
+        }
+        int numBytes = Integer.highestOneBit(max(toIntExact(bytes), BYTES_PER_BLOCK));
+        if (numBytes < bytes) {
+            numBytes <<= 1;
+        }
+        return min(numBytes, maxBytes);
+    }
+
+    public void insertHash(long hash)
+    {
+        int offset = getBlockIndex(hash) * WORDS_PER_BLOCK;
+        int key = (int) hash;
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+            words[offset + i] |= 1 << ((key * SALT[i]) >>> 27);
+        }
+    }
+
+    public boolean mightContain(long hash)
+    {
+        int offset = getBlockIndex(hash) * WORDS_PER_BLOCK;
+        int key = (int) hash;
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+            if ((words[offset + i] & (1 << ((key * SALT[i]) >>> 27))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int getBlockIndex(long hash)
+    {
+        return (int) (((hash >>> 32) * blockCount) >>> 32);
+    }
+
+    public int getNumBytes()
+    {
+        return words.length * Integer.BYTES;
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(words);
+    }
+
+    /**
+     * Writes the header and the bitset of the filter.
+     */
+    public void writeTo(SliceOutput output)
+            throws IOException
+    {
+        writeHeader(new BloomFilterHeader(
+                        getNumBytes(),
+                        BloomFilterAlgorithm.BLOCK(new SplitBlockAlgorithm()),
+                        BloomFilterHash.XXHASH(new XxHash()),
+                        BloomFilterCompression.UNCOMPRESSED(new Uncompressed())),
+                output);
+        Slice bitset = Slices.allocate(getNumBytes());
+        for (int i = 0; i < words.length; i++) {
+            bitset.setInt(i * Integer.BYTES, words[i]);
+        }
+        output.writeBytes(bitset);
+    }
+
+    public static BloomFilterHeader readHeader(InputStream input)
+            throws IOException
+    {
+        try {
+            BloomFilterHeader header = new BloomFilterHeader();
+            header.read(new TCompactProtocol(new TIOStreamTransport(input)));
+            return header;
+        }
+        catch (TException e) {
+            throw new IOException("Cannot read Bloom filter header", e);
+        }
+    }
+
+    private static void writeHeader(BloomFilterHeader header, OutputStream output)
+            throws IOException
+    {
+        try {
+            header.write(new TCompactProtocol(new TIOStreamTransport(output)));
+        }
+        catch (TException e) {
+            throw new IOException("Cannot write Bloom filter header", e);
+        }
+    }
+
+    /**
+     * Returns true for the only algorithm, hash and compression defined by the Parquet format.
+     */
+    public static boolean isSupported(BloomFilterHeader header)
+    {
+        return header.isSetAlgorithm() && header.getAlgorithm().isSetBLOCK() &&
+                header.isSetHash() && header.getHash().isSetXXHASH() &&
+                header.isSetCompression() && header.getCompression().isSetUNCOMPRESSED() &&
+                isValidSize(header.getNumBytes());
+    }
+
+    /**
+     * Returns true if values of the Trino type stored in a column of the Parquet type can be checked against a Bloom filter.
+     */
+    public static boolean isSupportedType(Type type, PrimitiveTypeName parquetType)
+    {
+        switch (parquetType) {
+            case INT32:
+                return type.equals(TINYINT) || type.equals(SMALLINT) || type.equals(INTEGER) || type.equals(DATE) || type.equals(BIGINT);
+            case INT64:
+                return type.equals(BIGINT);
+            case BINARY:
+                return type instanceof VarcharType || type instanceof VarbinaryType;
+            default:
+                // floating point values are hashed by their bits, but 0.0 and -0.0 are equal, and NaN has many bit patterns
+                return false;
+        }
+    }
+
+    /**
+     * Returns the hash of a Trino value stored in a column of the Parquet type, or empty when values
+     * of the type are not supported in Bloom filters, or the value cannot be represented in the column.
+     */
+    public static OptionalLong getHash(Type type, PrimitiveTypeName parquetType, Object value)
+    {
+        requireNonNull(value, "value is null");
+        if (!isSupportedType(type, parquetType)) {
+            return OptionalLong.empty();
+        }
+        switch (parquetType) {
+            case INT32:
+                long longValue = (long) value;
+                if (longValue != (int) longValue) {
+                    return OptionalLong.empty();
+                }
+                return OptionalLong.of(hashInt((int) longValue));
+            case INT64:
+                return OptionalLong.of(hashLong((long) value));
+            case BINARY:
+                return OptionalLong.of(hashSlice((Slice) value));
+            default:
+                throw new IllegalArgumentException("Unsupported Parquet type: " + parquetType);
+        }
+    }
+
+    public static long hashLong(long value)
+    {
+        return XxHash64.hash(value);
+    }
+
+    public static long hashInt(int value)
+    {
+        // XXH64 of the four little endian bytes of the value, with seed 0
+        long hash = PRIME64_5 + Integer.BYTES;
+        hash ^= (value & 0xFFFF_FFFFL) * PRIME64_1;
+        hash = Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+        hash ^= hash >>> 33;
+        hash *= PRIME64_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME64_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    public static long hashSlice(Slice value)
+    {
+        return XxHash64.hash(value);
+    }
+}
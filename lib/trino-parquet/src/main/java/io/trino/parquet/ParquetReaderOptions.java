@@ -28,6 +28,10 @@ public class ParquetReaderOptions
     private final DataSize maxReadBlockSize;
     private final DataSize maxMergeDistance;
     private final DataSize maxBufferSize;
+    private final boolean batchReaderEnabled;
+    private final boolean useColumnIndex;
+    private final boolean useBloomFilter;
+    private final boolean useLateFilter;
 
     public ParquetReaderOptions()
     {
@@ -35,18 +39,30 @@ public class ParquetReaderOptions
         maxReadBlockSize = DEFAULT_MAX_READ_BLOCK_SIZE;
         maxMergeDistance = DEFAULT_MAX_MERGE_DISTANCE;
         maxBufferSize = DEFAULT_MAX_BUFFER_SIZE;
+        batchReaderEnabled = true;
+        useColumnIndex = true;
+        useBloomFilter = true;
+        useLateFilter = true;
     }
 
     private ParquetReaderOptions(
             boolean ignoreStatistics,
             DataSize maxReadBlockSize,
             DataSize maxMergeDistance,
-            DataSize maxBufferSize)
+            DataSize maxBufferSize,
+            boolean batchReaderEnabled,
+            boolean useColumnIndex,
+            boolean useBloomFilter,
+            boolean useLateFilter)
     {
         this.ignoreStatistics = ignoreStatistics;
         this.maxReadBlockSize = requireNonNull(maxReadBlockSize, "maxReadBlockSize is null");
         this.maxMergeDistance = requireNonNull(maxMergeDistance, "maxMergeDistance is null");
         this.maxBufferSize = requireNonNull(maxBufferSize, "maxBufferSize is null");
+        this.batchReaderEnabled = batchReaderEnabled;
+        this.useColumnIndex = useColumnIndex;
+        this.useBloomFilter = useBloomFilter;
+        this.useLateFilter = useLateFilter;
     }
 
     public boolean isIgnoreStatistics()
@@ -69,13 +85,37 @@ public class ParquetReaderOptions
         return maxBufferSize;
     }
 
+    public boolean isBatchReaderEnabled()
+    {
+        return batchReaderEnabled;
+    }
+
+    public boolean isUseColumnIndex()
+    {
+        return useColumnIndex;
+    }
+
+    public boolean isUseBloomFilter()
+    {
+        return useBloomFilter;
+    }
+
+    public boolean isUseLateFilter()
+    {
+        return useLateFilter;
+    }
+
     public ParquetReaderOptions withIgnoreStatistics(boolean ignoreStatistics)
     {
         return new ParquetReaderOptions(
                 ignoreStatistics,
                 maxReadBlockSize,
                 maxMergeDistance,
-                maxBufferSize);
+                maxBufferSize,
+                batchReaderEnabled,
+                useColumnIndex,
+                useBloomFilter,
+                useLateFilter);
     }
 
     public ParquetReaderOptions withMaxReadBlockSize(DataSize maxReadBlockSize)
@@ -84,7 +124,11 @@ public class ParquetReaderOptions
                 ignoreStatistics,
                 maxReadBlockSize,
                 maxMergeDistance,
-                maxBufferSize);
+                maxBufferSize,
+                batchReaderEnabled,
+                useColumnIndex,
+                useBloomFilter,
+                useLateFilter);
     }
 
     public ParquetReaderOptions withMaxMergeDistance(DataSize maxMergeDistance)
@@ -93,7 +137,11 @@ public class ParquetReaderOptions
                 ignoreStatistics,
                 maxReadBlockSize,
                 maxMergeDistance,
-                maxBufferSize);
+                maxBufferSize,
+                batchReaderEnabled,
+                useColumnIndex,
+                useBloomFilter,
+                useLateFilter);
     }
 
     public ParquetReaderOptions withMaxBufferSize(DataSize maxBufferSize)
@@ -102,6 +150,62 @@ public class ParquetReaderOptions
                 ignoreStatistics,
                 maxReadBlockSize,
                 maxMergeDistance,
-                maxBufferSize);
+                maxBufferSize,
+                batchReaderEnabled,
+                useColumnIndex,
+                useBloomFilter,
+                useLateFilter);
+    }
+
+    public ParquetReaderOptions withBatchReaderEnabled(boolean batchReaderEnabled)
+    {
+        return new ParquetReaderOptions(
+                ignoreStatistics,
+                maxReadBlockSize,
+                maxMergeDistance,
+                maxBufferSize,
+                batchReaderEnabled,
+                useColumnIndex,
+                useBloomFilter,
+                useLateFilter);
+    }
+
+    public ParquetReaderOptions withUseColumnIndex(boolean useColumnIndex)
+    {
+        return new ParquetReaderOptions(
+                ignoreStatistics,
+                maxReadBlockSize,
+                maxMergeDistance,
+                maxBufferSize,
+                batchReaderEnabled,
+                useColumnIndex,
+                useBloomFilter,
+                useLateFilter);
+    }
+
+    public ParquetReaderOptions withUseBloomFilter(boolean useBloomFilter)
+    {
+        return new ParquetReaderOptions(
+                ignoreStatistics,
+                maxReadBlockSize,
+                maxMergeDistance,
+                maxBufferSize,
+                batchReaderEnabled,
+                useColumnIndex,
+                useBloomFilter,
+                useLateFilter);
+    }
+
+    public ParquetReaderOptions withUseLateFilter(boolean useLateFilter)
+    {
+        return new ParquetReaderOptions(
+                ignoreStatistics,
+                maxReadBlockSize,
+                maxMergeDistance,
+                maxBufferSize,
+                batchReaderEnabled,
+                useColumnIndex,
+                useBloomFilter,
+                useLateFilter);
     }
 }
@@ -13,12 +13,16 @@
  */
 package io.trino.parquet.predicate;
 
+import io.trino.parquet.BloomFilter;
 import io.trino.parquet.ParquetCorruptionException;
 import io.trino.parquet.ParquetDataSourceId;
+import io.trino.parquet.reader.RowRanges;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore;
 
 import java.util.Map;
+import java.util.Optional;
 
 public interface Predicate
 {
@@ -41,4 +45,25 @@ public interface Predicate
      * @param dictionary The single column dictionary
      */
     boolean matches(DictionaryDescriptor dictionary);
+
+    /**
+     * Should the Parquet Reader process a file section with the specified Bloom filter of a column.
+     * A Bloom filter can only rule out a discrete set of values, so other predicates always match.
+     *
+     * @param column the column of the Bloom filter
+     * @param bloomFilter the Bloom filter of the column in the file section
+     */
+    boolean matches(ColumnDescriptor column, BloomFilter bloomFilter);
+
+    /**
+     * Find the rows of a row group the Parquet Reader should process, based on the page
+     * statistics in the column indexes of the row group.
+     *
+     * @param rowCount the number of rows in the row group
+     * @param columnIndexStore column and offset indexes of the row group
+     * @param id Parquet file name
+     * @return the ranges of rows in pages which may match, or empty if no column index could be used
+     */
+    Optional<RowRanges> getMatchingRowRanges(long rowCount, ColumnIndexStore columnIndexStore, ParquetDataSourceId id)
+            throws ParquetCorruptionException;
 }
@@ -18,8 +18,10 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
 import io.airlift.slice.SliceInput;
+import io.trino.parquet.BloomFilter;
 import io.trino.parquet.DictionaryPage;
 import io.trino.parquet.ParquetCorruptionException;
 import io.trino.parquet.ParquetDataSource;
@@ -32,6 +34,7 @@ import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.EncodingStats;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.format.BloomFilterHeader;
 import org.apache.parquet.format.DictionaryPageHeader;
 import org.apache.parquet.format.PageHeader;
 import org.apache.parquet.format.PageType;
@@ -48,15 +51,18 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 
 import static com.google.common.base.Verify.verify;
 import static io.trino.parquet.ParquetCompressionUtils.decompress;
 import static io.trino.parquet.ParquetTypeUtils.getParquetEncoding;
+import static io.trino.parquet.reader.MetadataReader.getBloomFilterOffset;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.IntegerType.INTEGER;
 import static io.trino.spi.type.SmallintType.SMALLINT;
 import static io.trino.spi.type.TinyintType.TINYINT;
+import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static org.apache.parquet.column.Encoding.BIT_PACKED;
@@ -65,6 +71,10 @@ import static org.apache.parquet.column.Encoding.RLE;
 
 public final class PredicateUtils
 {
+    private static final Logger log = Logger.get(PredicateUtils.class);
+
+    private static final int BLOOM_FILTER_HEADER_READ_SIZE = 64;
+
     private PredicateUtils() {}
 
     public static boolean isStatisticsOverflow(Type type, ParquetIntegerStatistics parquetIntegerStatistics)
@@ -133,6 +143,55 @@ public final class PredicateUtils
         return dictionaryPredicatesMatch(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain);
     }
 
+    /**
+     * Checks the discrete values of the predicate against the Bloom filters of the columns of the row group.
+     */
+    public static boolean bloomFilterMatches(Predicate parquetPredicate, BlockMetaData block, ParquetDataSource dataSource, Map<List<String>, RichColumnDescriptor> descriptorsByPath, TupleDomain<ColumnDescriptor> parquetTupleDomain)
+    {
+        if (parquetTupleDomain.isNone()) {
+            return false;
+        }
+        for (ColumnChunkMetaData columnMetaData : block.getColumns()) {
+            RichColumnDescriptor descriptor = descriptorsByPath.get(Arrays.asList(columnMetaData.getPath().toArray()));
+            if (descriptor == null || !isColumnPredicate(descriptor, parquetTupleDomain)) {
+                continue;
+            }
+            OptionalLong bloomFilterOffset = getBloomFilterOffset(columnMetaData);
+            if (bloomFilterOffset.isEmpty()) {
+                continue;
+            }
+            Optional<BloomFilter> bloomFilter = readBloomFilter(dataSource, columnMetaData, bloomFilterOffset.getAsLong());
+            //  Early abort, predicate already filters block so no more Bloom filters need be read
+            if (bloomFilter.isPresent() && !parquetPredicate.matches(descriptor, bloomFilter.get())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Optional<BloomFilter> readBloomFilter(ParquetDataSource dataSource, ColumnChunkMetaData columnMetaData, long offset)
+    {
+        // the length of the header is only known after it is decoded
+        long headerReadSize = min(BLOOM_FILTER_HEADER_READ_SIZE, dataSource.getEstimatedSize() - offset);
+        if (headerReadSize <= 0) {
+            return Optional.empty();
+        }
+        try {
+            SliceInput headerInput = dataSource.readFully(offset, toIntExact(headerReadSize)).getInput();
+            BloomFilterHeader header = BloomFilter.readHeader(headerInput);
+            if (!BloomFilter.isSupported(header)) {
+                return Optional.empty();
+            }
+            Slice bitset = dataSource.readFully(offset + headerInput.position(), header.getNumBytes());
+            return Optional.of(BloomFilter.fromBitset(bitset));
+        }
+        catch (IOException e) {
+            // the row group is read without pruning, since a broken Bloom filter does not make the data unreadable
+            log.debug(e, "Failed to read Bloom filter of column %s in %s", columnMetaData.getPath(), dataSource.getId());
+            return Optional.empty();
+        }
+    }
+
     private static Map<ColumnDescriptor, Statistics<?>> getStatistics(BlockMetaData blockMetadata, Map<List<String>, RichColumnDescriptor> descriptorsByPath)
     {
         ImmutableMap.Builder<ColumnDescriptor, Statistics<?>> statistics = ImmutableMap.builder();
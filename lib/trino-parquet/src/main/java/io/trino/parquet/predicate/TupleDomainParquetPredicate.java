@@ -18,11 +18,13 @@ import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
+import io.trino.parquet.BloomFilter;
 import io.trino.parquet.DictionaryPage;
 import io.trino.parquet.ParquetCorruptionException;
 import io.trino.parquet.ParquetDataSourceId;
 import io.trino.parquet.RichColumnDescriptor;
 import io.trino.parquet.dictionary.Dictionary;
+import io.trino.parquet.reader.RowRanges;
 import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.Range;
 import io.trino.spi.predicate.TupleDomain;
@@ -39,14 +41,21 @@ import org.apache.parquet.column.statistics.FloatStatistics;
 import org.apache.parquet.column.statistics.IntStatistics;
 import org.apache.parquet.column.statistics.LongStatistics;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore;
+import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore.MissingOffsetIndexException;
 import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 import org.joda.time.DateTimeZone;
 
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.function.Function;
 
 import static io.trino.parquet.ParquetTimestampUtils.decode;
@@ -127,6 +136,123 @@ public class TupleDomainParquetPredicate
         return effectivePredicateDomain == null || effectivePredicateMatches(effectivePredicateDomain, dictionary);
     }
 
+    @Override
+    public boolean matches(ColumnDescriptor column, BloomFilter bloomFilter)
+    {
+        requireNonNull(bloomFilter, "bloomFilter is null");
+        if (effectivePredicate.isNone()) {
+            return false;
+        }
+        Map<ColumnDescriptor, Domain> effectivePredicateDomains = effectivePredicate.getDomains()
+                .orElseThrow(() -> new IllegalStateException("Effective predicate other than none should have domains"));
+
+        Domain effectivePredicateDomain = effectivePredicateDomains.get(column);
+        if (effectivePredicateDomain == null || effectivePredicateDomain.isNullAllowed() || !effectivePredicateDomain.getValues().isDiscreteSet()) {
+            return true;
+        }
+
+        PrimitiveTypeName parquetType = column.getPrimitiveType().getPrimitiveTypeName();
+        for (Object value : effectivePredicateDomain.getValues().getDiscreteSet()) {
+            OptionalLong hash = BloomFilter.getHash(effectivePredicateDomain.getType(), parquetType, value);
+            if (hash.isEmpty() || bloomFilter.mightContain(hash.getAsLong())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Optional<RowRanges> getMatchingRowRanges(long rowCount, ColumnIndexStore columnIndexStore, ParquetDataSourceId id)
+            throws ParquetCorruptionException
+    {
+        requireNonNull(columnIndexStore, "columnIndexStore is null");
+        if (effectivePredicate.isNone()) {
+            return Optional.of(RowRanges.empty());
+        }
+        Map<ColumnDescriptor, Domain> effectivePredicateDomains = effectivePredicate.getDomains()
+                .orElseThrow(() -> new IllegalStateException("Effective predicate other than none should have domains"));
+
+        Optional<RowRanges> matchingRowRanges = Optional.empty();
+        for (RichColumnDescriptor column : columns) {
+            Domain effectivePredicateDomain = effectivePredicateDomains.get(column);
+            if (effectivePredicateDomain == null) {
+                continue;
+            }
+
+            ColumnPath path = ColumnPath.get(column.getPath());
+            ColumnIndex columnIndex = columnIndexStore.getColumnIndex(path);
+            if (columnIndex == null) {
+                // no column index for column
+                continue;
+            }
+            OffsetIndex offsetIndex;
+            try {
+                offsetIndex = columnIndexStore.getOffsetIndex(path);
+            }
+            catch (MissingOffsetIndexException e) {
+                // page boundaries are unknown without the offset index
+                continue;
+            }
+
+            RowRanges columnRowRanges = getMatchingRowRanges(effectivePredicateDomain, rowCount, column, columnIndex, offsetIndex, id);
+            matchingRowRanges = Optional.of(matchingRowRanges
+                    .map(rowRanges -> rowRanges.intersect(columnRowRanges))
+                    .orElse(columnRowRanges));
+        }
+        return matchingRowRanges;
+    }
+
+    private RowRanges getMatchingRowRanges(
+            Domain effectivePredicateDomain,
+            long rowCount,
+            RichColumnDescriptor column,
+            ColumnIndex columnIndex,
+            OffsetIndex offsetIndex,
+            ParquetDataSourceId id)
+            throws ParquetCorruptionException
+    {
+        Type type = effectivePredicateDomain.getType();
+        List<Boolean> nullPages = columnIndex.getNullPages();
+        List<ByteBuffer> minValues = columnIndex.getMinValues();
+        List<ByteBuffer> maxValues = columnIndex.getMaxValues();
+        // null counts are optional in the column index
+        List<Long> nullCounts = columnIndex.getNullCounts();
+        int pageCount = offsetIndex.getPageCount();
+        if (nullPages.size() != pageCount) {
+            throw new ParquetCorruptionException("Column index of column \"%s\" in Parquet file \"%s\" has %s pages, but offset index has %s pages", column, id, nullPages.size(), pageCount);
+        }
+
+        RowRanges.Builder rowRanges = RowRanges.builder();
+        for (int page = 0; page < pageCount; page++) {
+            long firstRow = offsetIndex.getFirstRowIndex(page);
+            long lastRow = offsetIndex.getLastRowIndex(page, rowCount);
+            Domain domain;
+            if (nullPages.get(page)) {
+                domain = Domain.onlyNull(type);
+            }
+            else {
+                Statistics.Builder statistics = Statistics.getBuilderForReading(column.getPrimitiveType())
+                        .withMin(getBytes(minValues.get(page)))
+                        .withMax(getBytes(maxValues.get(page)));
+                if (nullCounts != null) {
+                    statistics.withNumNulls(nullCounts.get(page));
+                }
+                domain = getDomain(type, lastRow - firstRow + 1, statistics.build(), id, column.toString(), timeZone);
+            }
+            if (effectivePredicateDomain.overlaps(domain)) {
+                rowRanges.add(firstRow, lastRow + 1);
+            }
+        }
+        return rowRanges.build();
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
     private static boolean effectivePredicateMatches(Domain effectivePredicateDomain, DictionaryDescriptor dictionary)
     {
         return effectivePredicateDomain.overlaps(getDomain(effectivePredicateDomain.getType(), dictionary));
@@ -0,0 +1,40 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import io.trino.parquet.Field;
+
+public interface ColumnReader
+{
+    PageReader getPageReader();
+
+    void setPageReader(PageReader pageReader);
+
+    void prepareNextRead(int batchSize);
+
+    /**
+     * Skips rows which precede the next read, but are not part of any batch. The column must not be repeated.
+     */
+    void skipRows(int rowCount);
+
+    ColumnChunk readPrimitive(Field field);
+
+    /**
+     * Reads the values at the positions of the next batch, skipping the values at other positions.
+     * Only supported for columns without repetition, where every value is a row.
+     *
+     * @param positions positions in the batch, in increasing order
+     */
+    ColumnChunk readPrimitive(Field field, int[] positions, int positionCount);
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import io.trino.parquet.RichColumnDescriptor;
+import org.apache.parquet.schema.OriginalType;
+import org.joda.time.DateTimeZone;
+
+import static io.trino.parquet.ParquetTypeUtils.createDecimalType;
+
+public final class ColumnReaderFactory
+{
+    private ColumnReaderFactory() {}
+
+    public static ColumnReader createReader(RichColumnDescriptor descriptor, DateTimeZone timeZone, boolean batchReaderEnabled)
+    {
+        if (batchReaderEnabled && isFlat(descriptor) && createDecimalType(descriptor).isEmpty()) {
+            OriginalType originalType = descriptor.getPrimitiveType().getOriginalType();
+            switch (descriptor.getPrimitiveType().getPrimitiveTypeName()) {
+                case INT32:
+                case FLOAT:
+                    return new FlatIntColumnReader(descriptor);
+                case INT64:
+                    if (originalType != OriginalType.TIME_MICROS && originalType != OriginalType.TIMESTAMP_MICROS && originalType != OriginalType.TIMESTAMP_MILLIS) {
+                        return new FlatLongColumnReader(descriptor);
+                    }
+                    break;
+                case DOUBLE:
+                    return new FlatLongColumnReader(descriptor);
+                default:
+                    break;
+            }
+        }
+        return PrimitiveColumnReader.createReader(descriptor, timeZone);
+    }
+
+    /**
+     * A flat column is a top level column with at most one definition level and
+     * no repetition, so every value read from the column is a position in the block.
+     */
+    private static boolean isFlat(RichColumnDescriptor descriptor)
+    {
+        return descriptor.getMaxRepetitionLevel() == 0 &&
+                descriptor.getMaxDefinitionLevel() == (descriptor.isRequired() ? 0 : 1);
+    }
+}
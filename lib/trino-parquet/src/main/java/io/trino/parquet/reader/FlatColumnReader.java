@@ -0,0 +1,343 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import io.airlift.slice.Slice;
+import io.trino.parquet.DataPage;
+import io.trino.parquet.DataPageV1;
+import io.trino.parquet.DataPageV2;
+import io.trino.parquet.DictionaryPage;
+import io.trino.parquet.Field;
+import io.trino.parquet.ParquetEncoding;
+import io.trino.parquet.RichColumnDescriptor;
+import io.trino.parquet.reader.decoders.RleBitPackingHybridDecoder;
+import io.trino.parquet.reader.decoders.ValueDecoder;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import org.apache.parquet.bytes.ByteBufferInputStream;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.column.values.ValuesReader;
+import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.parquet.ParquetEncoding.RLE;
+import static io.trino.parquet.ParquetReaderUtils.toInputStream;
+import static io.trino.parquet.ValuesType.DEFINITION_LEVEL;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+
+/**
+ * Reader for top level columns of fixed width primitive values. Unlike
+ * {@link PrimitiveColumnReader}, which decodes and appends one value at a time,
+ * this reader decodes the definition levels and the values of a batch in bulk
+ * into a primitive array and builds the block directly from that array.
+ *
+ * @param <T> the primitive array type values are decoded into
+ */
+public abstract class FlatColumnReader<T>
+        implements ColumnReader
+{
+    protected final RichColumnDescriptor columnDescriptor;
+    private final int maxDefinitionLevel;
+
+    private PageReader pageReader;
+    private T dictionary;
+
+    private int nextBatchSize;
+    private int readOffset;
+
+    private int remainingValueCountInPage;
+    private ValueDecoder<int[]> definitionLevelDecoder;
+    private ValueDecoder<T> valueDecoder;
+    private int[] skippedLevels = new int[0];
+
+    protected FlatColumnReader(RichColumnDescriptor columnDescriptor)
+    {
+        this.columnDescriptor = requireNonNull(columnDescriptor, "columnDescriptor is null");
+        this.maxDefinitionLevel = columnDescriptor.getMaxDefinitionLevel();
+    }
+
+    protected abstract T allocate(int size);
+
+    protected abstract ValueDecoder<T> createPlainDecoder(Slice input);
+
+    protected abstract ValueDecoder<T> createDictionaryDecoder(Slice input, T dictionary);
+
+    protected abstract ValueDecoder<T> createDeltaBinaryPackedDecoder(Slice input);
+
+    /**
+     * Moves the {@code nonNullCount} values decoded at {@code offset} to the
+     * positions of the non-null entries of {@code isNull}.
+     */
+    protected abstract void unpackNulls(T values, boolean[] isNull, int offset, int positionCount, int nonNullCount);
+
+    protected abstract Block createBlock(Type type, int positionCount, Optional<boolean[]> isNull, T values);
+
+    @Override
+    public PageReader getPageReader()
+    {
+        return pageReader;
+    }
+
+    @Override
+    public void setPageReader(PageReader pageReader)
+    {
+        this.pageReader = requireNonNull(pageReader, "pageReader is null");
+        DictionaryPage dictionaryPage = pageReader.readDictionaryPage();
+        if (dictionaryPage != null) {
+            dictionary = allocate(dictionaryPage.getDictionarySize());
+            createPlainDecoder(dictionaryPage.getSlice()).read(dictionary, 0, dictionaryPage.getDictionarySize());
+        }
+        else {
+            dictionary = null;
+        }
+        checkArgument(pageReader.getTotalValueCount() > 0, "page is empty");
+    }
+
+    @Override
+    public void prepareNextRead(int batchSize)
+    {
+        readOffset = readOffset + nextBatchSize;
+        nextBatchSize = batchSize;
+    }
+
+    @Override
+    public void skipRows(int rowCount)
+    {
+        readOffset = readOffset + rowCount;
+    }
+
+    @Override
+    public ColumnChunk readPrimitive(Field field)
+    {
+        skip(readOffset);
+
+        int positionCount = nextBatchSize;
+        int[] definitionLevels = new int[positionCount];
+        boolean[] isNull = maxDefinitionLevel == 0 ? null : new boolean[positionCount];
+        boolean hasNull = false;
+        T values = allocate(positionCount);
+
+        int offset = 0;
+        while (offset < positionCount) {
+            if (remainingValueCountInPage == 0) {
+                readNextPage();
+            }
+            int chunkSize = min(remainingValueCountInPage, positionCount - offset);
+            hasNull |= readValues(values, isNull, definitionLevels, offset, chunkSize);
+            offset += chunkSize;
+        }
+
+        readOffset = 0;
+        nextBatchSize = 0;
+        Block block = createBlock(field.getType(), positionCount, hasNull ? Optional.of(isNull) : Optional.empty(), values);
+        return new ColumnChunk(block, definitionLevels, new int[positionCount]);
+    }
+
+    @Override
+    public ColumnChunk readPrimitive(Field field, int[] positions, int positionCount)
+    {
+        skip(readOffset);
+
+        int[] definitionLevels = new int[positionCount];
+        boolean[] isNull = maxDefinitionLevel == 0 ? null : new boolean[positionCount];
+        boolean hasNull = false;
+        T values = allocate(positionCount);
+
+        int batchPosition = 0;
+        int offset = 0;
+        while (offset < positionCount) {
+            int position = positions[offset];
+            skip(position - batchPosition);
+            batchPosition = position;
+            if (remainingValueCountInPage == 0) {
+                readNextPage();
+            }
+            // read consecutive positions of the page together
+            int chunkSize = 1;
+            while (offset + chunkSize < positionCount && chunkSize < remainingValueCountInPage && positions[offset + chunkSize] == position + chunkSize) {
+                chunkSize++;
+            }
+            hasNull |= readValues(values, isNull, definitionLevels, offset, chunkSize);
+            batchPosition += chunkSize;
+            offset += chunkSize;
+        }
+        checkArgument(batchPosition <= nextBatchSize, "position %s exceeds batchSize %s", batchPosition, nextBatchSize);
+
+        // the values following the last position are skipped before the next read
+        readOffset = nextBatchSize - batchPosition;
+        nextBatchSize = 0;
+        Block block = createBlock(field.getType(), positionCount, hasNull ? Optional.of(isNull) : Optional.empty(), values);
+        return new ColumnChunk(block, definitionLevels, new int[positionCount]);
+    }
+
+    /**
+     * Reads {@code chunkSize} values of the current page into {@code offset} of the arrays.
+     *
+     * @return whether any of the values is null
+     */
+    private boolean readValues(T values, boolean[] isNull, int[] definitionLevels, int offset, int chunkSize)
+    {
+        int nonNullCount = chunkSize;
+        if (maxDefinitionLevel > 0) {
+            definitionLevelDecoder.read(definitionLevels, offset, chunkSize);
+            nonNullCount = 0;
+            for (int i = offset; i < offset + chunkSize; i++) {
+                boolean valueIsNull = definitionLevels[i] != maxDefinitionLevel;
+                isNull[i] = valueIsNull;
+                nonNullCount += valueIsNull ? 0 : 1;
+            }
+        }
+        valueDecoder.read(values, offset, nonNullCount);
+        remainingValueCountInPage -= chunkSize;
+        if (nonNullCount != chunkSize) {
+            unpackNulls(values, isNull, offset, chunkSize, nonNullCount);
+            return true;
+        }
+        return false;
+    }
+
+    private void skip(int valueCount)
+    {
+        while (valueCount > 0) {
+            if (remainingValueCountInPage == 0) {
+                readNextPage();
+            }
+            int chunkSize = min(remainingValueCountInPage, valueCount);
+            int nonNullCount = chunkSize;
+            if (maxDefinitionLevel > 0) {
+                if (skippedLevels.length < chunkSize) {
+                    skippedLevels = new int[chunkSize];
+                }
+                definitionLevelDecoder.read(skippedLevels, 0, chunkSize);
+                nonNullCount = 0;
+                for (int i = 0; i < chunkSize; i++) {
+                    nonNullCount += skippedLevels[i] == maxDefinitionLevel ? 1 : 0;
+                }
+            }
+            valueDecoder.skip(nonNullCount);
+            remainingValueCountInPage -= chunkSize;
+            valueCount -= chunkSize;
+        }
+    }
+
+    private void readNextPage()
+    {
+        DataPage page = pageReader.readPage();
+        if (page == null) {
+            throw new ParquetDecodingException("No more data pages in column " + columnDescriptor);
+        }
+        remainingValueCountInPage = page.getValueCount();
+        if (page instanceof DataPageV1) {
+            readPageV1((DataPageV1) page);
+        }
+        else {
+            readPageV2((DataPageV2) page);
+        }
+    }
+
+    private void readPageV1(DataPageV1 page)
+    {
+        // flat columns have no repetition levels, so the page starts with the definition levels
+        Slice data = page.getSlice();
+        int valuesOffset = 0;
+        definitionLevelDecoder = null;
+        if (maxDefinitionLevel > 0) {
+            if (page.getDefinitionLevelEncoding() == RLE) {
+                int length = data.getInt(0);
+                definitionLevelDecoder = new RleBitPackingHybridDecoder(data.slice(Integer.BYTES, length), BytesUtils.getWidthFromMaxInt(maxDefinitionLevel));
+                valuesOffset = Integer.BYTES + length;
+            }
+            else {
+                ValuesReader levelsReader = page.getDefinitionLevelEncoding().getValuesReader(columnDescriptor, DEFINITION_LEVEL);
+                try {
+                    ByteBufferInputStream in = toInputStream(data);
+                    levelsReader.initFromPage(page.getValueCount(), in);
+                    valuesOffset = toIntExact(in.position());
+                }
+                catch (IOException e) {
+                    throw new ParquetDecodingException("Error reading parquet page " + page + " in column " + columnDescriptor, e);
+                }
+                definitionLevelDecoder = new LevelReaderDecoder(new LevelValuesReader(levelsReader));
+            }
+        }
+        valueDecoder = createValueDecoder(page.getValueEncoding(), data.slice(valuesOffset, data.length() - valuesOffset));
+    }
+
+    private void readPageV2(DataPageV2 page)
+    {
+        definitionLevelDecoder = null;
+        if (maxDefinitionLevel > 0) {
+            definitionLevelDecoder = new RleBitPackingHybridDecoder(page.getDefinitionLevels(), BytesUtils.getWidthFromMaxInt(maxDefinitionLevel));
+        }
+        valueDecoder = createValueDecoder(page.getDataEncoding(), page.getSlice());
+    }
+
+    private ValueDecoder<T> createValueDecoder(ParquetEncoding encoding, Slice data)
+    {
+        if (encoding.usesDictionary()) {
+            if (dictionary == null) {
+                throw new ParquetDecodingException("Dictionary is missing for Page");
+            }
+            return createDictionaryDecoder(data, dictionary);
+        }
+        PrimitiveTypeName typeName = columnDescriptor.getPrimitiveType().getPrimitiveTypeName();
+        switch (encoding) {
+            case PLAIN:
+                return createPlainDecoder(data);
+            case DELTA_BINARY_PACKED:
+                if (typeName == INT32 || typeName == INT64) {
+                    return createDeltaBinaryPackedDecoder(data);
+                }
+                break;
+            default:
+                break;
+        }
+        throw new ParquetDecodingException("Unsupported encoding " + encoding + " for " + typeName + " column " + columnDescriptor);
+    }
+
+    private static class LevelReaderDecoder
+            implements ValueDecoder<int[]>
+    {
+        private final LevelReader delegate;
+
+        public LevelReaderDecoder(LevelReader delegate)
+        {
+            this.delegate = requireNonNull(delegate, "delegate is null");
+        }
+
+        @Override
+        public void read(int[] values, int offset, int length)
+        {
+            for (int i = offset; i < offset + length; i++) {
+                values[i] = delegate.readLevel();
+            }
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            for (int i = 0; i < n; i++) {
+                delegate.readLevel();
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import io.airlift.slice.Slice;
+import io.trino.parquet.RichColumnDescriptor;
+import io.trino.parquet.reader.decoders.DeltaBinaryPackedDecoders.IntDeltaBinaryPackedDecoder;
+import io.trino.parquet.reader.decoders.DictionaryValueDecoders.IntDictionaryValueDecoder;
+import io.trino.parquet.reader.decoders.PlainValueDecoders.IntPlainValueDecoder;
+import io.trino.parquet.reader.decoders.ValueDecoder;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.IntArrayBlock;
+import io.trino.spi.block.LongArrayBlock;
+import io.trino.spi.type.Type;
+
+import java.util.Optional;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.RealType.REAL;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FLOAT;
+
+/**
+ * Batch reader for INT32 and FLOAT columns. FLOAT values are decoded as
+ * their raw 32-bit representation, which is what {@link IntArrayBlock} stores.
+ */
+public class FlatIntColumnReader
+        extends FlatColumnReader<int[]>
+{
+    private final boolean isFloat;
+
+    public FlatIntColumnReader(RichColumnDescriptor descriptor)
+    {
+        super(descriptor);
+        this.isFloat = descriptor.getPrimitiveType().getPrimitiveTypeName() == FLOAT;
+    }
+
+    @Override
+    protected int[] allocate(int size)
+    {
+        return new int[size];
+    }
+
+    @Override
+    protected ValueDecoder<int[]> createPlainDecoder(Slice input)
+    {
+        return new IntPlainValueDecoder(input);
+    }
+
+    @Override
+    protected ValueDecoder<int[]> createDictionaryDecoder(Slice input, int[] dictionary)
+    {
+        return new IntDictionaryValueDecoder(input, dictionary);
+    }
+
+    @Override
+    protected ValueDecoder<int[]> createDeltaBinaryPackedDecoder(Slice input)
+    {
+        return new IntDeltaBinaryPackedDecoder(input);
+    }
+
+    @Override
+    protected void unpackNulls(int[] values, boolean[] isNull, int offset, int positionCount, int nonNullCount)
+    {
+        int valueIndex = offset + nonNullCount - 1;
+        for (int position = offset + positionCount - 1; position > valueIndex; position--) {
+            if (isNull[position]) {
+                values[position] = 0;
+            }
+            else {
+                values[position] = values[valueIndex];
+                valueIndex--;
+            }
+        }
+    }
+
+    @Override
+    protected Block createBlock(Type type, int positionCount, Optional<boolean[]> isNull, int[] values)
+    {
+        if (isFloat ? REAL.equals(type) : (INTEGER.equals(type) || DATE.equals(type))) {
+            return new IntArrayBlock(positionCount, isNull, values);
+        }
+        if (!isFloat && BIGINT.equals(type)) {
+            long[] longValues = new long[positionCount];
+            for (int i = 0; i < positionCount; i++) {
+                longValues[i] = values[i];
+            }
+            return new LongArrayBlock(positionCount, isNull, longValues);
+        }
+
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, positionCount);
+        for (int i = 0; i < positionCount; i++) {
+            if (isNull.isPresent() && isNull.get()[i]) {
+                blockBuilder.appendNull();
+            }
+            else {
+                type.writeLong(blockBuilder, values[i]);
+            }
+        }
+        return blockBuilder.build();
+    }
+}
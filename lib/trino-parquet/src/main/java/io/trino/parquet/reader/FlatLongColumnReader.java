@@ -0,0 +1,109 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import io.airlift.slice.Slice;
+import io.trino.parquet.RichColumnDescriptor;
+import io.trino.parquet.reader.decoders.DeltaBinaryPackedDecoders.LongDeltaBinaryPackedDecoder;
+import io.trino.parquet.reader.decoders.DictionaryValueDecoders.LongDictionaryValueDecoder;
+import io.trino.parquet.reader.decoders.PlainValueDecoders.LongPlainValueDecoder;
+import io.trino.parquet.reader.decoders.ValueDecoder;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.LongArrayBlock;
+import io.trino.spi.type.Type;
+
+import java.util.Optional;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static java.lang.Double.longBitsToDouble;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+
+/**
+ * Batch reader for INT64 and DOUBLE columns. DOUBLE values are decoded as
+ * their raw 64-bit representation, which is what {@link LongArrayBlock} stores.
+ */
+public class FlatLongColumnReader
+        extends FlatColumnReader<long[]>
+{
+    private final boolean isDouble;
+
+    public FlatLongColumnReader(RichColumnDescriptor descriptor)
+    {
+        super(descriptor);
+        this.isDouble = descriptor.getPrimitiveType().getPrimitiveTypeName() != INT64;
+    }
+
+    @Override
+    protected long[] allocate(int size)
+    {
+        return new long[size];
+    }
+
+    @Override
+    protected ValueDecoder<long[]> createPlainDecoder(Slice input)
+    {
+        return new LongPlainValueDecoder(input);
+    }
+
+    @Override
+    protected ValueDecoder<long[]> createDictionaryDecoder(Slice input, long[] dictionary)
+    {
+        return new LongDictionaryValueDecoder(input, dictionary);
+    }
+
+    @Override
+    protected ValueDecoder<long[]> createDeltaBinaryPackedDecoder(Slice input)
+    {
+        return new LongDeltaBinaryPackedDecoder(input);
+    }
+
+    @Override
+    protected void unpackNulls(long[] values, boolean[] isNull, int offset, int positionCount, int nonNullCount)
+    {
+        int valueIndex = offset + nonNullCount - 1;
+        for (int position = offset + positionCount - 1; position > valueIndex; position--) {
+            if (isNull[position]) {
+                values[position] = 0;
+            }
+            else {
+                values[position] = values[valueIndex];
+                valueIndex--;
+            }
+        }
+    }
+
+    @Override
+    protected Block createBlock(Type type, int positionCount, Optional<boolean[]> isNull, long[] values)
+    {
+        if (isDouble ? DOUBLE.equals(type) : BIGINT.equals(type)) {
+            return new LongArrayBlock(positionCount, isNull, values);
+        }
+
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, positionCount);
+        for (int i = 0; i < positionCount; i++) {
+            if (isNull.isPresent() && isNull.get()[i]) {
+                blockBuilder.appendNull();
+            }
+            else if (isDouble) {
+                type.writeDouble(blockBuilder, longBitsToDouble(values[i]));
+            }
+            else {
+                type.writeLong(blockBuilder, values[i]);
+            }
+        }
+        return blockBuilder.build();
+    }
+}
@@ -33,6 +33,7 @@ import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnPath;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.internal.hadoop.metadata.IndexReference;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.PrimitiveType;
@@ -52,6 +53,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 
 import static io.trino.parquet.ParquetValidationUtils.validateParquet;
@@ -145,6 +147,15 @@ public final class MetadataReader
                             metaData.num_values,
                             metaData.total_compressed_size,
                             metaData.total_uncompressed_size);
+                    if (metaData.isSetBloom_filter_offset()) {
+                        column = new BloomFilterColumnChunkMetaData(column, metaData.getBloom_filter_offset());
+                    }
+                    if (columnChunk.isSetColumn_index_offset() && columnChunk.isSetColumn_index_length()) {
+                        column.setColumnIndexReference(new IndexReference(columnChunk.getColumn_index_offset(), columnChunk.getColumn_index_length()));
+                    }
+                    if (columnChunk.isSetOffset_index_offset() && columnChunk.isSetOffset_index_length()) {
+                        column.setOffsetIndexReference(new IndexReference(columnChunk.getOffset_index_offset(), columnChunk.getOffset_index_length()));
+                    }
                     blockMetaData.addColumn(column);
                 }
                 blockMetaData.setPath(filePath);
@@ -162,6 +173,17 @@ public final class MetadataReader
         return new ParquetMetadata(new org.apache.parquet.hadoop.metadata.FileMetaData(messageType, keyValueMetaData, fileMetaData.getCreated_by()), blocks);
     }
 
+    /**
+     * Returns the offset of the Bloom filter of a column chunk read by {@link #readFooter}, if the column chunk has one.
+     */
+    public static OptionalLong getBloomFilterOffset(ColumnChunkMetaData columnChunk)
+    {
+        if (columnChunk instanceof BloomFilterColumnChunkMetaData) {
+            return OptionalLong.of(((BloomFilterColumnChunkMetaData) columnChunk).getBloomFilterOffset());
+        }
+        return OptionalLong.empty();
+    }
+
     private static MessageType readParquetSchema(List<SchemaElement> schema)
     {
         Iterator<SchemaElement> schemaIterator = schema.iterator();
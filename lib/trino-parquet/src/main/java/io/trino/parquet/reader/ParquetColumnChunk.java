@@ -26,6 +26,7 @@ import org.apache.parquet.format.DataPageHeaderV2;
 import org.apache.parquet.format.DictionaryPageHeader;
 import org.apache.parquet.format.PageHeader;
 import org.apache.parquet.format.Util;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -40,15 +41,21 @@ public class ParquetColumnChunk
     private final Optional<String> fileCreatedBy;
     private final ColumnChunkDescriptor descriptor;
     private final BasicSliceInput input;
+    private final Optional<OffsetIndex> offsetIndex;
 
+    /**
+     * @param offsetIndex locations of the data pages in {@code data}, when it holds only some of the pages of the column chunk
+     */
     public ParquetColumnChunk(
             Optional<String> fileCreatedBy,
             ColumnChunkDescriptor descriptor,
-            Slice data)
+            Slice data,
+            Optional<OffsetIndex> offsetIndex)
     {
         this.fileCreatedBy = requireNonNull(fileCreatedBy, "fileCreatedBy is null");
         this.descriptor = descriptor;
         this.input = data.getInput();
+        this.offsetIndex = requireNonNull(offsetIndex, "offsetIndex is null");
     }
 
     protected PageHeader readPageHeader()
@@ -63,7 +70,8 @@ public class ParquetColumnChunk
         List<DataPage> pages = new ArrayList<>();
         DictionaryPage dictionaryPage = null;
         long valueCount = 0;
-        while (valueCount < descriptor.getColumnChunkMetaData().getValueCount()) {
+        int dataPageCount = 0;
+        while (hasMorePages(valueCount, dataPageCount)) {
             PageHeader pageHeader = readPageHeader();
             int uncompressedPageSize = pageHeader.getUncompressed_page_size();
             int compressedPageSize = pageHeader.getCompressed_page_size();
@@ -76,9 +84,11 @@ public class ParquetColumnChunk
                     break;
                 case DATA_PAGE:
                     valueCount += readDataPageV1(pageHeader, uncompressedPageSize, compressedPageSize, pages);
+                    dataPageCount++;
                     break;
                 case DATA_PAGE_V2:
                     valueCount += readDataPageV2(pageHeader, uncompressedPageSize, compressedPageSize, pages);
+                    dataPageCount++;
                     break;
                 default:
                     input.skip(compressedPageSize);
@@ -88,6 +98,14 @@ public class ParquetColumnChunk
         return new PageReader(descriptor.getColumnChunkMetaData().getCodec(), pages, dictionaryPage);
     }
 
+    private boolean hasMorePages(long valueCount, int dataPageCount)
+    {
+        if (offsetIndex.isPresent()) {
+            return dataPageCount < offsetIndex.get().getPageCount();
+        }
+        return valueCount < descriptor.getColumnChunkMetaData().getValueCount();
+    }
+
     private Slice getSlice(int size)
     {
         return input.readSlice(size);
@@ -0,0 +1,150 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slice;
+import io.trino.parquet.ParquetDataSource;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore;
+import org.apache.parquet.internal.hadoop.metadata.IndexReference;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Column indexes and offset indexes of the column chunks of a single row group.
+ * Indexes are read from the data source on first use.
+ */
+public class ParquetColumnIndexStore
+        implements ColumnIndexStore
+{
+    private final ParquetDataSource dataSource;
+    private final Map<ColumnPath, ColumnChunkMetaData> columnChunks;
+    private final Map<ColumnPath, Optional<ColumnIndex>> columnIndexes = new HashMap<>();
+    private Map<ColumnPath, OffsetIndex> offsetIndexes;
+
+    /**
+     * @param columns the columns which are read from the row group
+     */
+    public ParquetColumnIndexStore(ParquetDataSource dataSource, BlockMetaData block, Set<ColumnPath> columns)
+    {
+        this.dataSource = requireNonNull(dataSource, "dataSource is null");
+        requireNonNull(block, "block is null");
+        requireNonNull(columns, "columns is null");
+        ImmutableMap.Builder<ColumnPath, ColumnChunkMetaData> columnChunks = ImmutableMap.builder();
+        for (ColumnChunkMetaData chunk : block.getColumns()) {
+            if (columns.contains(chunk.getPath())) {
+                columnChunks.put(chunk.getPath(), chunk);
+            }
+        }
+        this.columnChunks = columnChunks.build();
+    }
+
+    @Override
+    public ColumnIndex getColumnIndex(ColumnPath column)
+    {
+        return columnIndexes.computeIfAbsent(column, this::readColumnIndex).orElse(null);
+    }
+
+    private Optional<ColumnIndex> readColumnIndex(ColumnPath column)
+    {
+        ColumnChunkMetaData chunk = columnChunks.get(column);
+        if (chunk == null || chunk.getColumnIndexReference() == null) {
+            return Optional.empty();
+        }
+        IndexReference reference = chunk.getColumnIndexReference();
+        Slice data = dataSource.readFully(reference.getOffset(), reference.getLength());
+        try {
+            // the index is null when the column type has no defined sort order
+            return Optional.ofNullable(ParquetMetadataConverter.fromParquetColumnIndex(chunk.getPrimitiveType(), Util.readColumnIndex(data.getInput())));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public OffsetIndex getOffsetIndex(ColumnPath column)
+    {
+        OffsetIndex offsetIndex = getOffsetIndexes().get(column);
+        if (offsetIndex == null) {
+            throw new MissingOffsetIndexException(column);
+        }
+        return offsetIndex;
+    }
+
+    public boolean hasOffsetIndex(ColumnPath column)
+    {
+        return getOffsetIndexes().containsKey(column);
+    }
+
+    private Map<ColumnPath, OffsetIndex> getOffsetIndexes()
+    {
+        if (offsetIndexes == null) {
+            offsetIndexes = readOffsetIndexes();
+        }
+        return offsetIndexes;
+    }
+
+    private Map<ColumnPath, OffsetIndex> readOffsetIndexes()
+    {
+        List<ColumnChunkMetaData> chunks = columnChunks.values().stream()
+                .filter(chunk -> chunk.getOffsetIndexReference() != null)
+                .collect(toImmutableList());
+        if (chunks.isEmpty()) {
+            return ImmutableMap.of();
+        }
+
+        // writers store the offset indexes of a row group next to each other, so read them at once
+        long start = Long.MAX_VALUE;
+        long end = 0;
+        for (ColumnChunkMetaData chunk : chunks) {
+            IndexReference reference = chunk.getOffsetIndexReference();
+            start = min(start, reference.getOffset());
+            end = max(end, reference.getOffset() + reference.getLength());
+        }
+        Slice data = dataSource.readFully(start, toIntExact(end - start));
+
+        ImmutableMap.Builder<ColumnPath, OffsetIndex> offsetIndexes = ImmutableMap.builder();
+        for (ColumnChunkMetaData chunk : chunks) {
+            IndexReference reference = chunk.getOffsetIndexReference();
+            Slice index = data.slice(toIntExact(reference.getOffset() - start), reference.getLength());
+            try {
+                offsetIndexes.put(chunk.getPath(), ParquetMetadataConverter.fromParquetOffsetIndex(Util.readOffsetIndex(index.getInput())));
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return offsetIndexes.build();
+    }
+}
@@ -13,7 +13,12 @@
  */
 package io.trino.parquet.reader;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
 import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
 import io.trino.memory.context.AggregatedMemoryContext;
 import io.trino.parquet.ChunkKey;
 import io.trino.parquet.ChunkReader;
@@ -25,6 +30,7 @@ import io.trino.parquet.ParquetDataSource;
 import io.trino.parquet.ParquetReaderOptions;
 import io.trino.parquet.PrimitiveField;
 import io.trino.parquet.RichColumnDescriptor;
+import io.trino.parquet.predicate.Predicate;
 import io.trino.spi.block.ArrayBlock;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.RowBlock;
@@ -42,25 +48,31 @@ import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndexBuilder;
 import org.apache.parquet.io.MessageColumnIO;
 import org.apache.parquet.io.PrimitiveColumnIO;
 import org.joda.time.DateTimeZone;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.trino.parquet.ParquetValidationUtils.validateParquet;
 import static io.trino.parquet.reader.ListColumnReader.calculateCollectionOffsets;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
+import static java.util.function.Function.identity;
 
 public class ParquetReader
         implements Closeable
@@ -79,7 +91,15 @@ public class ParquetReader
 
     private int currentRowGroup = -1;
     private BlockMetaData currentBlockMetadata;
-    private long currentGroupRowCount;
+    /**
+     * Rows of the current group which are read
+     */
+    private RowRanges currentGroupRowRanges = RowRanges.empty();
+    private int currentRowRange = -1;
+    /**
+     * Index in the current group of the row following the current row range
+     */
+    private long currentRowRangeEnd;
     /**
      * Index in the Parquet file of the first row of the current group
      */
@@ -90,14 +110,16 @@ public class ParquetReader
     private long nextRowInGroup;
     private int batchSize;
     private int nextBatchSize = INITIAL_BATCH_SIZE;
-    private final PrimitiveColumnReader[] columnReaders;
+    private final ColumnReader[] columnReaders;
     private final long[] maxBytesPerCell;
     private long maxCombinedBytesPerRow;
     private final ParquetReaderOptions options;
     private int maxBatchSize = MAX_VECTOR_LENGTH;
 
     private AggregatedMemoryContext currentRowGroupMemoryContext;
-    private final Map<ChunkKey, ChunkReader> chunkReaders;
+    private final List<RowRanges> blockRowRanges;
+    private final Map<ChunkKey, SelectedPages> selectedPages;
+    private final ListMultimap<ChunkKey, ChunkReader> chunkReaders;
 
     public ParquetReader(
             Optional<String> fileCreatedBy,
@@ -109,6 +131,24 @@ public class ParquetReader
             AggregatedMemoryContext systemMemoryContext,
             ParquetReaderOptions options)
             throws IOException
+    {
+        this(fileCreatedBy, messageColumnIO, blocks, firstRowsOfBlocks, dataSource, timeZone, systemMemoryContext, options, Optional.empty());
+    }
+
+    /**
+     * @param parquetPredicate predicate used to skip pages of the row groups using their column indexes
+     */
+    public ParquetReader(
+            Optional<String> fileCreatedBy,
+            MessageColumnIO messageColumnIO,
+            List<BlockMetaData> blocks,
+            Optional<List<Long>> firstRowsOfBlocks,
+            ParquetDataSource dataSource,
+            DateTimeZone timeZone,
+            AggregatedMemoryContext systemMemoryContext,
+            ParquetReaderOptions options,
+            Optional<Predicate> parquetPredicate)
+            throws IOException
     {
         this.fileCreatedBy = requireNonNull(fileCreatedBy, "fileCreatedBy is null");
         this.columns = requireNonNull(messageColumnIO, "messageColumnIO is null").getLeaves();
@@ -119,25 +159,102 @@ public class ParquetReader
         this.systemMemoryContext = requireNonNull(systemMemoryContext, "systemMemoryContext is null");
         this.currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
         this.options = requireNonNull(options, "options is null");
-        this.columnReaders = new PrimitiveColumnReader[columns.size()];
+        this.columnReaders = new ColumnReader[columns.size()];
         this.maxBytesPerCell = new long[columns.size()];
 
         firstRowsOfBlocks.ifPresent(firstRows -> {
             checkArgument(blocks.size() == firstRows.size(), "elements of firstRowsOfBlocks must correspond to blocks");
         });
 
-        Map<ChunkKey, DiskRange> ranges = new HashMap<>();
+        requireNonNull(parquetPredicate, "parquetPredicate is null");
+        Set<ColumnPath> columnPaths = columns.stream()
+                .map(column -> ColumnPath.get(column.getColumnDescriptor().getPath()))
+                .collect(toImmutableSet());
+
+        // the readers skip the rows between the row ranges by value count, which is the row count only when
+        // no column is repeated, so the pages are selected only when all the columns are flat
+        boolean useColumnIndex = parquetPredicate.isPresent() && options.isUseColumnIndex() && columns.stream()
+                .allMatch(column -> column.getColumnDescriptor().getMaxRepetitionLevel() == 0);
+
+        ImmutableList.Builder<RowRanges> blockRowRanges = ImmutableList.builder();
+        ImmutableMap.Builder<ChunkKey, SelectedPages> selectedPages = ImmutableMap.builder();
+        ImmutableListMultimap.Builder<ChunkKey, DiskRange> ranges = ImmutableListMultimap.builder();
         for (int rowGroup = 0; rowGroup < blocks.size(); rowGroup++) {
             BlockMetaData metadata = blocks.get(rowGroup);
+            RowRanges rowRanges = RowRanges.all(metadata.getRowCount());
+            ParquetColumnIndexStore columnIndexStore = null;
+            if (useColumnIndex) {
+                columnIndexStore = new ParquetColumnIndexStore(dataSource, metadata, columnPaths);
+                rowRanges = parquetPredicate.get().getMatchingRowRanges(metadata.getRowCount(), columnIndexStore, dataSource.getId())
+                        .orElse(rowRanges);
+            }
+            blockRowRanges.add(rowRanges);
+            if (rowRanges.getRowCount() == 0 && metadata.getRowCount() > 0) {
+                // no page of the row group can match
+                continue;
+            }
+            boolean filtered = rowRanges.getRowCount() < metadata.getRowCount();
+
             for (PrimitiveColumnIO column : columns) {
-                int columnId = column.getId();
+                ChunkKey key = new ChunkKey(column.getId(), rowGroup);
                 ColumnChunkMetaData chunkMetadata = getColumnChunkMetaData(metadata, column.getColumnDescriptor());
-                DiskRange range = new DiskRange(chunkMetadata.getStartingPos(), toIntExact(chunkMetadata.getTotalSize()));
-                ranges.put(new ChunkKey(columnId, rowGroup), range);
+                if (filtered && columnIndexStore.hasOffsetIndex(chunkMetadata.getPath())) {
+                    SelectedPages pages = selectPages(chunkMetadata, columnIndexStore.getOffsetIndex(chunkMetadata.getPath()), rowRanges, metadata.getRowCount());
+                    selectedPages.put(key, pages);
+                    ranges.putAll(key, pages.getDiskRanges());
+                }
+                else {
+                    ranges.put(key, new DiskRange(chunkMetadata.getStartingPos(), toIntExact(chunkMetadata.getTotalSize())));
+                }
             }
         }
+        this.blockRowRanges = blockRowRanges.build();
+        this.selectedPages = selectedPages.build();
+        this.chunkReaders = planRead(dataSource, ranges.build());
+    }
 
-        this.chunkReaders = dataSource.planRead(ranges);
+    private static ListMultimap<ChunkKey, ChunkReader> planRead(ParquetDataSource dataSource, ListMultimap<ChunkKey, DiskRange> ranges)
+    {
+        // disk ranges of different column chunks never overlap, so they identify the chunk readers
+        Map<DiskRange, ChunkReader> chunkReaders = dataSource.planRead(ranges.values().stream()
+                .collect(toImmutableMap(identity(), identity())));
+        ImmutableListMultimap.Builder<ChunkKey, ChunkReader> readers = ImmutableListMultimap.builder();
+        ranges.forEach((key, range) -> readers.put(key, chunkReaders.get(range)));
+        return readers.build();
+    }
+
+    private static SelectedPages selectPages(ColumnChunkMetaData chunkMetadata, OffsetIndex offsetIndex, RowRanges rowRanges, long rowCount)
+    {
+        List<DiskRange> diskRanges = new ArrayList<>();
+        // the dictionary page precedes the first data page
+        long firstDataPageOffset = offsetIndex.getOffset(0);
+        if (chunkMetadata.getStartingPos() < firstDataPageOffset) {
+            diskRanges.add(new DiskRange(chunkMetadata.getStartingPos(), toIntExact(firstDataPageOffset - chunkMetadata.getStartingPos())));
+        }
+
+        OffsetIndexBuilder selectedOffsetIndex = OffsetIndexBuilder.getBuilder();
+        RowRanges.Builder pageRowRanges = RowRanges.builder();
+        for (int page = 0; page < offsetIndex.getPageCount(); page++) {
+            long firstRow = offsetIndex.getFirstRowIndex(page);
+            long lastRow = offsetIndex.getLastRowIndex(page, rowCount);
+            if (!rowRanges.overlaps(firstRow, lastRow + 1)) {
+                continue;
+            }
+            long offset = offsetIndex.getOffset(page);
+            int length = offsetIndex.getCompressedPageSize(page);
+            selectedOffsetIndex.add(offset, length, firstRow);
+            pageRowRanges.add(firstRow, lastRow + 1);
+
+            DiskRange range = new DiskRange(offset, length);
+            int last = diskRanges.size() - 1;
+            if (last >= 0 && diskRanges.get(last).getEnd() == offset) {
+                diskRanges.set(last, diskRanges.get(last).span(range));
+            }
+            else {
+                diskRanges.add(range);
+            }
+        }
+        return new SelectedPages(selectedOffsetIndex.build(), pageRowRanges.build(), diskRanges);
     }
 
     @Override
@@ -160,13 +277,14 @@ public class ParquetReader
 
     public int nextBatch()
     {
-        if (nextRowInGroup >= currentGroupRowCount && !advanceToNextRowGroup()) {
+        if (nextRowInGroup >= currentRowRangeEnd && !advanceToNextRowRange()) {
             return -1;
         }
 
         batchSize = min(nextBatchSize, maxBatchSize);
         nextBatchSize = min(batchSize * BATCH_SIZE_GROWTH_FACTOR, MAX_VECTOR_LENGTH);
-        batchSize = toIntExact(min(batchSize, currentGroupRowCount - nextRowInGroup));
+        // a batch never spans multiple row ranges, so that its rows are consecutive
+        batchSize = toIntExact(min(batchSize, currentRowRangeEnd - nextRowInGroup));
 
         nextRowInGroup += batchSize;
         Arrays.stream(columnReaders)
@@ -174,6 +292,44 @@ public class ParquetReader
         return batchSize;
     }
 
+    private boolean advanceToNextRowRange()
+    {
+        long previousRowRangeEnd = currentRowRangeEnd;
+        while (currentRowRange + 1 >= currentGroupRowRanges.getRangeCount()) {
+            if (!advanceToNextRowGroup()) {
+                return false;
+            }
+            previousRowRangeEnd = 0;
+        }
+        currentRowRange++;
+        long rowRangeStart = currentGroupRowRanges.getRangeStart(currentRowRange);
+
+        // skip the rows between the ranges, which are present in the pages read for some columns
+        for (PrimitiveColumnIO column : columns) {
+            int columnId = column.getId();
+            long rowsToSkip = getPositionInColumn(columnId, rowRangeStart) - getPositionInColumn(columnId, previousRowRangeEnd);
+            if (rowsToSkip > 0) {
+                columnReaders[columnId].skipRows(toIntExact(rowsToSkip));
+            }
+        }
+
+        nextRowInGroup = rowRangeStart;
+        currentRowRangeEnd = currentGroupRowRanges.getRangeEnd(currentRowRange);
+        return true;
+    }
+
+    /**
+     * Position of a row of the current group in the values read for the column
+     */
+    private long getPositionInColumn(int columnId, long row)
+    {
+        SelectedPages pages = selectedPages.get(new ChunkKey(columnId, currentRowGroup));
+        if (pages == null) {
+            return row;
+        }
+        return pages.getPosition(row);
+    }
+
     private boolean advanceToNextRowGroup()
     {
         currentRowGroupMemoryContext.close();
@@ -187,7 +343,9 @@ public class ParquetReader
         currentBlockMetadata = blocks.get(currentRowGroup);
         firstRowIndexInGroup = firstRowsOfBlocks.map(firstRows -> firstRows.get(currentRowGroup));
         nextRowInGroup = 0L;
-        currentGroupRowCount = currentBlockMetadata.getRowCount();
+        currentGroupRowRanges = blockRowRanges.get(currentRowGroup);
+        currentRowRange = -1;
+        currentRowRangeEnd = 0L;
         initializeColumnReaders();
         return true;
     }
@@ -199,8 +357,7 @@ public class ParquetReader
         }
 
         for (int column = 0; column < columns.size(); column++) {
-            ChunkReader reader = chunkReaders.get(new ChunkKey(column, currentRowGroup));
-            if (reader != null) {
+            for (ChunkReader reader : chunkReaders.get(new ChunkKey(column, currentRowGroup))) {
                 reader.free();
             }
         }
@@ -265,37 +422,74 @@ public class ParquetReader
 
     private ColumnChunk readPrimitive(PrimitiveField field)
             throws IOException
+    {
+        ColumnChunk columnChunk = getColumnReader(field).readPrimitive(field);
+        updateMaxBytesPerCell(field.getId(), columnChunk.getBlock(), batchSize);
+        return columnChunk;
+    }
+
+    private ColumnReader getColumnReader(PrimitiveField field)
+            throws IOException
     {
         ColumnDescriptor columnDescriptor = field.getDescriptor();
         int fieldId = field.getId();
-        PrimitiveColumnReader columnReader = columnReaders[fieldId];
+        ColumnReader columnReader = columnReaders[fieldId];
         if (columnReader.getPageReader() == null) {
             validateParquet(currentBlockMetadata.getRowCount() > 0, "Row group has 0 rows");
             ColumnChunkMetaData metadata = getColumnChunkMetaData(currentBlockMetadata, columnDescriptor);
 
-            Slice data = chunkReaders.get(new ChunkKey(fieldId, currentRowGroup)).read();
+            ChunkKey key = new ChunkKey(fieldId, currentRowGroup);
+            Slice data = readChunk(chunkReaders.get(key));
             // todo this just an estimate and doesn't reflect actual retained memory
             currentRowGroupMemoryContext.newLocalMemoryContext(ParquetReader.class.getSimpleName())
                     .setBytes(data.length());
 
             ColumnChunkDescriptor descriptor = new ColumnChunkDescriptor(columnDescriptor, metadata);
-            ParquetColumnChunk columnChunk = new ParquetColumnChunk(fileCreatedBy, descriptor, data);
+            Optional<OffsetIndex> offsetIndex = Optional.ofNullable(selectedPages.get(key)).map(SelectedPages::getOffsetIndex);
+            ParquetColumnChunk columnChunk = new ParquetColumnChunk(fileCreatedBy, descriptor, data, offsetIndex);
             columnReader.setPageReader(columnChunk.readAllPages());
         }
-        ColumnChunk columnChunk = columnReader.readPrimitive(field);
+        return columnReader;
+    }
 
+    private void updateMaxBytesPerCell(int fieldId, Block block, int positionCount)
+    {
+        if (positionCount == 0) {
+            return;
+        }
         // update max size per primitive column chunk
-        long bytesPerCell = columnChunk.getBlock().getSizeInBytes() / batchSize;
+        long bytesPerCell = block.getSizeInBytes() / positionCount;
         if (maxBytesPerCell[fieldId] < bytesPerCell) {
             // update batch size
             maxCombinedBytesPerRow = maxCombinedBytesPerRow - maxBytesPerCell[fieldId] + bytesPerCell;
             maxBatchSize = toIntExact(min(maxBatchSize, max(1, options.getMaxReadBlockSize().toBytes() / maxCombinedBytesPerRow)));
             maxBytesPerCell[fieldId] = bytesPerCell;
         }
-        return columnChunk;
     }
 
-    private ColumnChunkMetaData getColumnChunkMetaData(BlockMetaData blockMetaData, ColumnDescriptor columnDescriptor)
+    private static Slice readChunk(List<ChunkReader> readers)
+    {
+        if (readers.size() == 1) {
+            return readers.get(0).read();
+        }
+        // pages selected with the column index are stored in several ranges of the file
+        List<Slice> slices = new ArrayList<>(readers.size());
+        int length = 0;
+        for (ChunkReader reader : readers) {
+            Slice slice = reader.read();
+            slices.add(slice);
+            length += slice.length();
+        }
+        Slice data = Slices.allocate(length);
+        int offset = 0;
+        for (Slice slice : slices) {
+            data.setBytes(offset, slice);
+            offset += slice.length();
+        }
+        return data;
+    }
+
+    private static ColumnChunkMetaData getColumnChunkMetaData(BlockMetaData blockMetaData, ColumnDescriptor columnDescriptor)
             throws IOException
     {
         for (ColumnChunkMetaData metadata : blockMetaData.getColumns()) {
@@ -310,7 +504,7 @@ public class ParquetReader
     {
         for (PrimitiveColumnIO columnIO : columns) {
             RichColumnDescriptor column = new RichColumnDescriptor(columnIO.getColumnDescriptor(), columnIO.getType().asPrimitiveType());
-            columnReaders[columnIO.getId()] = PrimitiveColumnReader.createReader(column, timeZone);
+            columnReaders[columnIO.getId()] = ColumnReaderFactory.createReader(column, timeZone, options.isBatchReaderEnabled());
         }
     }
 
@@ -320,6 +514,24 @@ public class ParquetReader
         return readColumnChunk(field).getBlock();
     }
 
+    /**
+     * Reads the rows at the positions of the last batch. The values of top level primitive
+     * columns at other positions are skipped without being decoded.
+     *
+     * @param positions positions in the batch, in increasing order
+     */
+    public Block readBlock(Field field, int[] positions, int positionCount)
+            throws IOException
+    {
+        if (field instanceof PrimitiveField && ((PrimitiveField) field).getDescriptor().getMaxRepetitionLevel() == 0) {
+            PrimitiveField primitiveField = (PrimitiveField) field;
+            Block block = getColumnReader(primitiveField).readPrimitive(primitiveField, positions, positionCount).getBlock();
+            updateMaxBytesPerCell(primitiveField.getId(), block, positionCount);
+            return block;
+        }
+        return readBlock(field).getPositions(positions, 0, positionCount);
+    }
+
     private ColumnChunk readColumnChunk(Field field)
             throws IOException
     {
@@ -348,4 +560,48 @@ public class ParquetReader
     {
         return systemMemoryContext;
     }
+
+    /**
+     * Pages of a column chunk which contain rows selected with the column index
+     */
+    private static class SelectedPages
+    {
+        private final OffsetIndex offsetIndex;
+        private final RowRanges pageRowRanges;
+        private final long[] positions;
+        private final List<DiskRange> diskRanges;
+
+        public SelectedPages(OffsetIndex offsetIndex, RowRanges pageRowRanges, List<DiskRange> diskRanges)
+        {
+            this.offsetIndex = requireNonNull(offsetIndex, "offsetIndex is null");
+            this.pageRowRanges = requireNonNull(pageRowRanges, "pageRowRanges is null");
+            this.diskRanges = ImmutableList.copyOf(requireNonNull(diskRanges, "diskRanges is null"));
+            this.positions = new long[pageRowRanges.getRangeCount()];
+            for (int range = 1; range < positions.length; range++) {
+                positions[range] = positions[range - 1] + pageRowRanges.getRangeEnd(range - 1) - pageRowRanges.getRangeStart(range - 1);
+            }
+        }
+
+        public OffsetIndex getOffsetIndex()
+        {
+            return offsetIndex;
+        }
+
+        public List<DiskRange> getDiskRanges()
+        {
+            return diskRanges;
+        }
+
+        /**
+         * Number of rows of the selected pages preceding the row
+         */
+        public long getPosition(long row)
+        {
+            long position = 0;
+            for (int range = 0; range < positions.length && pageRowRanges.getRangeStart(range) < row; range++) {
+                position = positions[range] + min(row, pageRowRanges.getRangeEnd(range)) - pageRowRanges.getRangeStart(range);
+            }
+            return position;
+        }
+    }
 }
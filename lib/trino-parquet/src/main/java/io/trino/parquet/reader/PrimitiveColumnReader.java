@@ -50,6 +50,7 @@ import static io.trino.spi.StandardErrorCode.NOT_SUPPORTED;
 import static java.util.Objects.requireNonNull;
 
 public abstract class PrimitiveColumnReader
+        implements ColumnReader
 {
     private static final int EMPTY_LEVEL_VALUE = -1;
     protected final RichColumnDescriptor columnDescriptor;
@@ -123,11 +124,13 @@ public abstract class PrimitiveColumnReader
         pageReader = null;
     }
 
+    @Override
     public PageReader getPageReader()
     {
         return pageReader;
     }
 
+    @Override
     public void setPageReader(PageReader pageReader)
     {
         this.pageReader = requireNonNull(pageReader, "pageReader");
@@ -148,12 +151,20 @@ public abstract class PrimitiveColumnReader
         totalValueCount = pageReader.getTotalValueCount();
     }
 
+    @Override
     public void prepareNextRead(int batchSize)
     {
         readOffset = readOffset + nextBatchSize;
         nextBatchSize = batchSize;
     }
 
+    @Override
+    public void skipRows(int rowCount)
+    {
+        readOffset = readOffset + rowCount;
+    }
+
+    @Override
     public ColumnChunk readPrimitive(Field field)
     {
         IntList definitionLevels = new IntArrayList();
@@ -176,6 +187,44 @@ public abstract class PrimitiveColumnReader
         return new ColumnChunk(blockBuilder.build(), definitionLevels.toIntArray(), repetitionLevels.toIntArray());
     }
 
+    @Override
+    public ColumnChunk readPrimitive(Field field, int[] positions, int positionCount)
+    {
+        checkArgument(columnDescriptor.getMaxRepetitionLevel() == 0, "Reading positions of repeated column %s", columnDescriptor);
+        IntList definitionLevels = new IntArrayList(positionCount);
+        IntList repetitionLevels = new IntArrayList(positionCount);
+        seek();
+        BlockBuilder blockBuilder = field.getType().createBlockBuilder(null, positionCount);
+        int valueCount = 0;
+        int index = 0;
+        while (index < positionCount) {
+            if (page == null) {
+                readNextPage();
+            }
+            int position = positions[index];
+            if (valueCount < position) {
+                int valuesToSkip = Math.min(remainingValueCountInPage, position - valueCount);
+                skipValues(valuesToSkip);
+                valueCount += valuesToSkip;
+                continue;
+            }
+            // read consecutive positions of the page together
+            int valuesToRead = 1;
+            while (index + valuesToRead < positionCount && valuesToRead < remainingValueCountInPage && positions[index + valuesToRead] == position + valuesToRead) {
+                valuesToRead++;
+            }
+            readValues(blockBuilder, valuesToRead, field.getType(), definitionLevels, repetitionLevels);
+            valueCount += valuesToRead;
+            index += valuesToRead;
+        }
+        checkArgument(valueCount <= nextBatchSize, "valueCount %s exceeds batchSize %s", valueCount, nextBatchSize);
+
+        // the values following the last position are skipped before the next read
+        readOffset = nextBatchSize - valueCount;
+        nextBatchSize = 0;
+        return new ColumnChunk(blockBuilder.build(), definitionLevels.toIntArray(), repetitionLevels.toIntArray());
+    }
+
     private void readValues(BlockBuilder blockBuilder, int valuesToRead, Type type, IntList definitionLevels, IntList repetitionLevels)
     {
         processValues(valuesToRead, () -> {
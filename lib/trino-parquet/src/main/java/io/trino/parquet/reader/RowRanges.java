@@ -0,0 +1,174 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.util.Arrays;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Sorted, non-overlapping ranges of rows within a row group. Each range
+ * is described by its first row and the row following its last row.
+ */
+public final class RowRanges
+{
+    private static final RowRanges EMPTY = new RowRanges(new long[0], new long[0]);
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long rowCount;
+
+    private RowRanges(long[] starts, long[] ends)
+    {
+        this.starts = starts;
+        this.ends = ends;
+        long rowCount = 0;
+        for (int i = 0; i < starts.length; i++) {
+            rowCount += ends[i] - starts[i];
+        }
+        this.rowCount = rowCount;
+    }
+
+    public static RowRanges empty()
+    {
+        return EMPTY;
+    }
+
+    public static RowRanges all(long rowCount)
+    {
+        checkArgument(rowCount >= 0, "rowCount is negative");
+        return new RowRanges(new long[] {0}, new long[] {rowCount});
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public int getRangeCount()
+    {
+        return starts.length;
+    }
+
+    /**
+     * Index of the first row of the range
+     */
+    public long getRangeStart(int range)
+    {
+        return starts[range];
+    }
+
+    /**
+     * Index of the row following the last row of the range
+     */
+    public long getRangeEnd(int range)
+    {
+        return ends[range];
+    }
+
+    public long getRowCount()
+    {
+        return rowCount;
+    }
+
+    /**
+     * Whether any row in {@code [start, end)} belongs to these ranges
+     */
+    public boolean overlaps(long start, long end)
+    {
+        int range = Arrays.binarySearch(ends, start);
+        // ranges ending exactly at start do not overlap it
+        range = range >= 0 ? range + 1 : -range - 1;
+        return range < starts.length && starts[range] < end;
+    }
+
+    public RowRanges intersect(RowRanges other)
+    {
+        Builder builder = builder();
+        int left = 0;
+        int right = 0;
+        while (left < starts.length && right < other.starts.length) {
+            long start = max(starts[left], other.starts[right]);
+            long end = min(ends[left], other.ends[right]);
+            if (start < end) {
+                builder.add(start, end);
+            }
+            if (ends[left] < other.ends[right]) {
+                left++;
+            }
+            else {
+                right++;
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder ranges = new StringBuilder();
+        for (int i = 0; i < starts.length; i++) {
+            if (i > 0) {
+                ranges.append(", ");
+            }
+            ranges.append('[').append(starts[i]).append(", ").append(ends[i]).append(')');
+        }
+        return toStringHelper(this)
+                .add("ranges", ranges)
+                .add("rowCount", rowCount)
+                .toString();
+    }
+
+    public static class Builder
+    {
+        private final LongArrayList starts = new LongArrayList();
+        private final LongArrayList ends = new LongArrayList();
+
+        private Builder() {}
+
+        /**
+         * Adds the rows {@code [start, end)}. Ranges must be added in order
+         * and adjacent ranges are merged.
+         */
+        public Builder add(long start, long end)
+        {
+            checkArgument(start < end, "range [%s, %s) is empty", start, end);
+            if (!ends.isEmpty()) {
+                long lastEnd = ends.getLong(ends.size() - 1);
+                checkState(lastEnd <= start, "range [%s, %s) is not after the last range", start, end);
+                if (lastEnd == start) {
+                    ends.set(ends.size() - 1, end);
+                    return this;
+                }
+            }
+            starts.add(start);
+            ends.add(end);
+            return this;
+        }
+
+        public RowRanges build()
+        {
+            if (starts.isEmpty()) {
+                return EMPTY;
+            }
+            return new RowRanges(starts.toLongArray(), ends.toLongArray());
+        }
+    }
+}
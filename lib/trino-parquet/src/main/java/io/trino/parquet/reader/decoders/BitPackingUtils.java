@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+
+/**
+ * Unpacks values stored with the little endian bit packing used by the
+ * RLE/bit-packing hybrid and the DELTA_BINARY_PACKED encodings.
+ */
+final class BitPackingUtils
+{
+    private BitPackingUtils() {}
+
+    public static void unpackInts(int[] output, int outputOffset, Slice input, int inputOffset, long firstValueIndex, int count, int bitWidth)
+    {
+        if (bitWidth == 0) {
+            for (int i = 0; i < count; i++) {
+                output[outputOffset + i] = 0;
+            }
+            return;
+        }
+        long mask = (1L << bitWidth) - 1;
+        long bitPosition = firstValueIndex * bitWidth;
+        // a value of at most 32 bits starting at any bit of a byte always fits in the 8 bytes read at that byte
+        int safeEnd = input.length() - Long.BYTES;
+        for (int i = 0; i < count; i++) {
+            int byteOffset = inputOffset + (int) (bitPosition >>> 3);
+            int shift = (int) (bitPosition & 7);
+            long word = byteOffset <= safeEnd ? input.getLong(byteOffset) : getLongPadded(input, byteOffset);
+            output[outputOffset + i] = (int) ((word >>> shift) & mask);
+            bitPosition += bitWidth;
+        }
+    }
+
+    public static void unpackLongs(long[] output, int outputOffset, Slice input, int inputOffset, long firstValueIndex, int count, int bitWidth)
+    {
+        if (bitWidth == 0) {
+            for (int i = 0; i < count; i++) {
+                output[outputOffset + i] = 0;
+            }
+            return;
+        }
+        long mask = bitWidth == Long.SIZE ? -1L : (1L << bitWidth) - 1;
+        long bitPosition = firstValueIndex * bitWidth;
+        int safeEnd = input.length() - Long.BYTES;
+        for (int i = 0; i < count; i++) {
+            int byteOffset = inputOffset + (int) (bitPosition >>> 3);
+            int shift = (int) (bitPosition & 7);
+            long word = byteOffset <= safeEnd ? input.getLong(byteOffset) : getLongPadded(input, byteOffset);
+            long value = word >>> shift;
+            if (shift + bitWidth > Long.SIZE) {
+                // the value spills into the ninth byte
+                value |= ((long) getUnsignedBytePadded(input, byteOffset + Long.BYTES)) << (Long.SIZE - shift);
+            }
+            output[outputOffset + i] = value & mask;
+            bitPosition += bitWidth;
+        }
+    }
+
+    private static long getLongPadded(Slice input, int offset)
+    {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value |= ((long) getUnsignedBytePadded(input, offset + i)) << (i * Byte.SIZE);
+        }
+        return value;
+    }
+
+    private static int getUnsignedBytePadded(Slice input, int offset)
+    {
+        if (offset >= input.length()) {
+            return 0;
+        }
+        return input.getUnsignedByte(offset);
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+import org.apache.parquet.io.ParquetDecodingException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.parquet.reader.decoders.BitPackingUtils.unpackLongs;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decoders for the DELTA_BINARY_PACKED encoding. A page starts with a header
+ * holding the block size, the number of mini blocks per block, the value count
+ * and the first value. Each block then stores its minimum delta and the bit
+ * width of every mini block, followed by the bit packed mini blocks. Deltas are
+ * unpacked and prefix summed one mini block at a time.
+ * <p>
+ * INT32 columns are decoded with 64-bit arithmetic and narrowed, which gives
+ * the same result as the 32-bit arithmetic used by the writer.
+ */
+public final class DeltaBinaryPackedDecoders
+{
+    private DeltaBinaryPackedDecoders() {}
+
+    public static final class LongDeltaBinaryPackedDecoder
+            implements ValueDecoder<long[]>
+    {
+        private final Slice input;
+        private final int miniBlocksInBlock;
+        private final int valuesInMiniBlock;
+        private final long[] miniBlock;
+        private final int[] bitWidths;
+
+        private int position;
+        private boolean firstValueRead;
+        private long previousValue;
+        private int remainingDeltas;
+
+        private long minDelta;
+        private int nextMiniBlockInBlock;
+        private int miniBlockSize;
+        private int miniBlockIndex;
+
+        public LongDeltaBinaryPackedDecoder(Slice input)
+        {
+            this.input = requireNonNull(input, "input is null");
+            int blockSize = readUnsignedVarInt();
+            miniBlocksInBlock = readUnsignedVarInt();
+            checkArgument(miniBlocksInBlock > 0 && blockSize % miniBlocksInBlock == 0, "invalid DELTA_BINARY_PACKED block size %s with %s mini blocks", blockSize, miniBlocksInBlock);
+            valuesInMiniBlock = blockSize / miniBlocksInBlock;
+            checkArgument(valuesInMiniBlock % Byte.SIZE == 0, "mini block size %s is not a multiple of 8", valuesInMiniBlock);
+            int totalValueCount = readUnsignedVarInt();
+            previousValue = readZigZagVarLong();
+            remainingDeltas = totalValueCount == 0 ? 0 : totalValueCount - 1;
+            firstValueRead = totalValueCount == 0;
+            miniBlock = new long[valuesInMiniBlock];
+            bitWidths = new int[miniBlocksInBlock];
+            nextMiniBlockInBlock = miniBlocksInBlock;
+        }
+
+        @Override
+        public void read(long[] values, int offset, int length)
+        {
+            if (length > 0 && !firstValueRead) {
+                values[offset] = previousValue;
+                firstValueRead = true;
+                offset++;
+                length--;
+            }
+            while (length > 0) {
+                if (miniBlockIndex == miniBlockSize) {
+                    readMiniBlock();
+                }
+                int chunk = min(length, miniBlockSize - miniBlockIndex);
+                System.arraycopy(miniBlock, miniBlockIndex, values, offset, chunk);
+                miniBlockIndex += chunk;
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            if (n > 0 && !firstValueRead) {
+                firstValueRead = true;
+                n--;
+            }
+            while (n > 0) {
+                if (miniBlockIndex == miniBlockSize) {
+                    readMiniBlock();
+                }
+                int chunk = min(n, miniBlockSize - miniBlockIndex);
+                miniBlockIndex += chunk;
+                n -= chunk;
+            }
+        }
+
+        private void readMiniBlock()
+        {
+            if (remainingDeltas == 0) {
+                throw new ParquetDecodingException("DELTA_BINARY_PACKED page has no more values");
+            }
+            if (nextMiniBlockInBlock == miniBlocksInBlock) {
+                minDelta = readZigZagVarLong();
+                for (int i = 0; i < miniBlocksInBlock; i++) {
+                    bitWidths[i] = input.getUnsignedByte(position++);
+                }
+                nextMiniBlockInBlock = 0;
+            }
+            int bitWidth = bitWidths[nextMiniBlockInBlock++];
+            checkArgument(bitWidth <= Long.SIZE, "invalid DELTA_BINARY_PACKED bit width %s", bitWidth);
+            miniBlockSize = min(valuesInMiniBlock, remainingDeltas);
+            unpackLongs(miniBlock, 0, input, position, 0, miniBlockSize, bitWidth);
+            // mini blocks are always padded to their full size
+            position += valuesInMiniBlock / Byte.SIZE * bitWidth;
+
+            long value = previousValue;
+            for (int i = 0; i < miniBlockSize; i++) {
+                value += minDelta + miniBlock[i];
+                miniBlock[i] = value;
+            }
+            previousValue = value;
+            remainingDeltas -= miniBlockSize;
+            miniBlockIndex = 0;
+        }
+
+        private int readUnsignedVarInt()
+        {
+            return (int) readUnsignedVarLong();
+        }
+
+        private long readZigZagVarLong()
+        {
+            long value = readUnsignedVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readUnsignedVarLong()
+        {
+            long value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = input.getUnsignedByte(position++);
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            }
+            while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+
+    public static final class IntDeltaBinaryPackedDecoder
+            implements ValueDecoder<int[]>
+    {
+        private final LongDeltaBinaryPackedDecoder delegate;
+        private long[] buffer = new long[0];
+
+        public IntDeltaBinaryPackedDecoder(Slice input)
+        {
+            this.delegate = new LongDeltaBinaryPackedDecoder(input);
+        }
+
+        @Override
+        public void read(int[] values, int offset, int length)
+        {
+            if (buffer.length < length) {
+                buffer = new long[length];
+            }
+            delegate.read(buffer, 0, length);
+            for (int i = 0; i < length; i++) {
+                values[offset + i] = (int) buffer[i];
+            }
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            delegate.skip(n);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decoders for dictionary encoded data pages. The page holds the bit width of
+ * the ids in its first byte, followed by the ids in the RLE/bit-packing hybrid
+ * encoding. Ids are decoded in bulk and then resolved against the dictionary.
+ */
+public final class DictionaryValueDecoders
+{
+    private DictionaryValueDecoders() {}
+
+    private static RleBitPackingHybridDecoder createIdsDecoder(Slice input)
+    {
+        int bitWidth = input.getUnsignedByte(0);
+        return new RleBitPackingHybridDecoder(input.slice(1, input.length() - 1), bitWidth);
+    }
+
+    public static final class LongDictionaryValueDecoder
+            implements ValueDecoder<long[]>
+    {
+        private final long[] dictionary;
+        private final RleBitPackingHybridDecoder ids;
+        private int[] idBuffer = new int[0];
+
+        public LongDictionaryValueDecoder(Slice input, long[] dictionary)
+        {
+            this.dictionary = requireNonNull(dictionary, "dictionary is null");
+            this.ids = createIdsDecoder(input);
+        }
+
+        @Override
+        public void read(long[] values, int offset, int length)
+        {
+            if (idBuffer.length < length) {
+                idBuffer = new int[length];
+            }
+            ids.read(idBuffer, 0, length);
+            for (int i = 0; i < length; i++) {
+                values[offset + i] = dictionary[idBuffer[i]];
+            }
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            ids.skip(n);
+        }
+    }
+
+    public static final class IntDictionaryValueDecoder
+            implements ValueDecoder<int[]>
+    {
+        private final int[] dictionary;
+        private final RleBitPackingHybridDecoder ids;
+        private int[] idBuffer = new int[0];
+
+        public IntDictionaryValueDecoder(Slice input, int[] dictionary)
+        {
+            this.dictionary = requireNonNull(dictionary, "dictionary is null");
+            this.ids = createIdsDecoder(input);
+        }
+
+        @Override
+        public void read(int[] values, int offset, int length)
+        {
+            if (idBuffer.length < length) {
+                idBuffer = new int[length];
+            }
+            ids.read(idBuffer, 0, length);
+            for (int i = 0; i < length; i++) {
+                values[offset + i] = dictionary[idBuffer[i]];
+            }
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            ids.skip(n);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+
+import static io.airlift.slice.Slices.wrappedIntArray;
+import static io.airlift.slice.Slices.wrappedLongArray;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decoders for the PLAIN encoding of fixed width values. Values are stored
+ * little endian back to back, so a run of values is copied into the output
+ * array with a single bulk copy.
+ */
+public final class PlainValueDecoders
+{
+    private PlainValueDecoders() {}
+
+    public static final class LongPlainValueDecoder
+            implements ValueDecoder<long[]>
+    {
+        private final Slice input;
+        private int position;
+
+        public LongPlainValueDecoder(Slice input)
+        {
+            this.input = requireNonNull(input, "input is null");
+        }
+
+        @Override
+        public void read(long[] values, int offset, int length)
+        {
+            input.getBytes(position, wrappedLongArray(values, offset, length));
+            position += length * Long.BYTES;
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            position += n * Long.BYTES;
+        }
+    }
+
+    public static final class IntPlainValueDecoder
+            implements ValueDecoder<int[]>
+    {
+        private final Slice input;
+        private int position;
+
+        public IntPlainValueDecoder(Slice input)
+        {
+            this.input = requireNonNull(input, "input is null");
+        }
+
+        @Override
+        public void read(int[] values, int offset, int length)
+        {
+            input.getBytes(position, wrappedIntArray(values, offset, length));
+            position += length * Integer.BYTES;
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            position += n * Integer.BYTES;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+import org.apache.parquet.io.ParquetDecodingException;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.parquet.reader.decoders.BitPackingUtils.unpackInts;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Batch decoder for the RLE/bit-packing hybrid encoding used for definition
+ * levels and dictionary ids.
+ */
+public final class RleBitPackingHybridDecoder
+        implements ValueDecoder<int[]>
+{
+    private final Slice input;
+    private final int bitWidth;
+    private final int byteWidth;
+
+    private int position;
+
+    private int remainingInRun;
+    private boolean rleRun;
+    private int rleValue;
+    private int packedRunOffset;
+    private int packedRunIndex;
+
+    public RleBitPackingHybridDecoder(Slice input, int bitWidth)
+    {
+        checkArgument(bitWidth >= 0 && bitWidth <= Integer.SIZE, "invalid bit width %s", bitWidth);
+        this.input = requireNonNull(input, "input is null");
+        this.bitWidth = bitWidth;
+        this.byteWidth = (bitWidth + Byte.SIZE - 1) / Byte.SIZE;
+    }
+
+    @Override
+    public void read(int[] values, int offset, int length)
+    {
+        while (length > 0) {
+            if (remainingInRun == 0) {
+                readRunHeader();
+            }
+            int chunk = min(length, remainingInRun);
+            if (rleRun) {
+                Arrays.fill(values, offset, offset + chunk, rleValue);
+            }
+            else {
+                unpackInts(values, offset, input, packedRunOffset, packedRunIndex, chunk, bitWidth);
+                packedRunIndex += chunk;
+            }
+            remainingInRun -= chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    @Override
+    public void skip(int n)
+    {
+        while (n > 0) {
+            if (remainingInRun == 0) {
+                readRunHeader();
+            }
+            int chunk = min(n, remainingInRun);
+            if (!rleRun) {
+                packedRunIndex += chunk;
+            }
+            remainingInRun -= chunk;
+            n -= chunk;
+        }
+    }
+
+    private void readRunHeader()
+    {
+        if (position >= input.length()) {
+            throw new ParquetDecodingException("RLE/bit-packed run extends past the end of the data");
+        }
+        int header = readUnsignedVarInt();
+        if ((header & 1) == 0) {
+            rleRun = true;
+            remainingInRun = header >>> 1;
+            rleValue = 0;
+            for (int i = 0; i < byteWidth; i++) {
+                rleValue |= input.getUnsignedByte(position + i) << (i * Byte.SIZE);
+            }
+            position += byteWidth;
+        }
+        else {
+            int groups = header >>> 1;
+            rleRun = false;
+            remainingInRun = groups * Byte.SIZE;
+            packedRunOffset = position;
+            packedRunIndex = 0;
+            // each group of eight values takes exactly bitWidth bytes
+            position += groups * bitWidth;
+        }
+    }
+
+    private int readUnsignedVarInt()
+    {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = input.getUnsignedByte(position++);
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+        return value;
+    }
+}
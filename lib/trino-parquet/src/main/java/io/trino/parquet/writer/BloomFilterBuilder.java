@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.writer;
+
+import io.trino.parquet.BloomFilter;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.openjdk.jol.info.ClassLayout;
+
+import javax.annotation.Nullable;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static io.airlift.slice.SizeOf.sizeOfLongArray;
+import static io.trino.parquet.BloomFilter.getHash;
+import static io.trino.parquet.BloomFilter.getOptimalNumberOfBytes;
+import static io.trino.parquet.BloomFilter.isSupportedType;
+import static io.trino.spi.type.TypeUtils.readNativeValue;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collects the distinct value hashes of a column chunk, so the Bloom filter
+ * can be sized for the number of distinct values.
+ */
+public class BloomFilterBuilder
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BloomFilterBuilder.class).instanceSize();
+    private static final int MAX_BLOOM_FILTER_BYTES = 1024 * 1024;
+
+    private final Type type;
+    private final PrimitiveTypeName parquetType;
+    private final double fpp;
+    // number of distinct values, above which the Bloom filter has the maximal size
+    private final long maxDistinctValues;
+
+    private final LongOpenHashSet hashes = new LongOpenHashSet();
+    @Nullable
+    private BloomFilter bloomFilter;
+
+    private BloomFilterBuilder(Type type, PrimitiveTypeName parquetType, double fpp)
+    {
+        this.type = requireNonNull(type, "type is null");
+        this.parquetType = requireNonNull(parquetType, "parquetType is null");
+        this.fpp = fpp;
+        long distinctValues = 1;
+        while (getOptimalNumberOfBytes(distinctValues * 2, fpp, MAX_BLOOM_FILTER_BYTES) < MAX_BLOOM_FILTER_BYTES) {
+            distinctValues *= 2;
+        }
+        this.maxDistinctValues = distinctValues;
+    }
+
+    public static Optional<BloomFilterBuilder> create(Type type, PrimitiveTypeName parquetType, double fpp)
+    {
+        if (!isSupportedType(type, parquetType)) {
+            return Optional.empty();
+        }
+        return Optional.of(new BloomFilterBuilder(type, parquetType, fpp));
+    }
+
+    public void addValues(Block block)
+    {
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (block.isNull(position)) {
+                continue;
+            }
+            OptionalLong hash = getHash(type, parquetType, readNativeValue(type, block, position));
+            if (hash.isEmpty()) {
+                continue;
+            }
+            if (bloomFilter != null) {
+                bloomFilter.insertHash(hash.getAsLong());
+            }
+            else {
+                hashes.add(hash.getAsLong());
+                if (hashes.size() > maxDistinctValues) {
+                    bloomFilter = createBloomFilter(MAX_BLOOM_FILTER_BYTES);
+                    hashes.clear();
+                    hashes.trim();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the Bloom filter of the values added since the last reset, or empty if there were no values.
+     */
+    public Optional<BloomFilter> build()
+    {
+        if (bloomFilter != null) {
+            return Optional.of(bloomFilter);
+        }
+        if (hashes.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(createBloomFilter(getOptimalNumberOfBytes(hashes.size(), fpp, MAX_BLOOM_FILTER_BYTES)));
+    }
+
+    private BloomFilter createBloomFilter(int numBytes)
+    {
+        BloomFilter bloomFilter = BloomFilter.create(numBytes);
+        LongIterator iterator = hashes.iterator();
+        while (iterator.hasNext()) {
+            bloomFilter.insertHash(iterator.nextLong());
+        }
+        return bloomFilter;
+    }
+
+    public long getRetainedBytes()
+    {
+        // the hash set is open addressing, with a load factor of at most 0.75
+        return INSTANCE_SIZE +
+                sizeOfLongArray(hashes.size() * 2) +
+                (bloomFilter == null ? 0 : bloomFilter.getRetainedSizeInBytes());
+    }
+
+    public void reset()
+    {
+        hashes.clear();
+        hashes.trim();
+        bloomFilter = null;
+    }
+}
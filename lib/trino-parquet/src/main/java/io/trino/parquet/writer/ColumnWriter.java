@@ -13,10 +13,12 @@
  */
 package io.trino.parquet.writer;
 
+import io.trino.parquet.BloomFilter;
 import org.apache.parquet.format.ColumnMetaData;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
 
@@ -40,11 +42,18 @@ public interface ColumnWriter
     {
         private final ColumnMetaData metaData;
         private final List<ParquetDataOutput> data;
+        private final Optional<BloomFilter> bloomFilter;
 
         public BufferData(List<ParquetDataOutput> data, ColumnMetaData metaData)
+        {
+            this(data, metaData, Optional.empty());
+        }
+
+        public BufferData(List<ParquetDataOutput> data, ColumnMetaData metaData, Optional<BloomFilter> bloomFilter)
         {
             this.data = requireNonNull(data, "data is null");
             this.metaData = requireNonNull(metaData, "metaData is null");
+            this.bloomFilter = requireNonNull(bloomFilter, "bloomFilter is null");
         }
 
         public ColumnMetaData getMetaData()
@@ -56,5 +65,10 @@ public interface ColumnWriter
         {
             return data;
         }
+
+        public Optional<BloomFilter> getBloomFilter()
+        {
+            return bloomFilter;
+        }
     }
 }
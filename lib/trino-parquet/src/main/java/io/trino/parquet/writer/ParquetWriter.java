@@ -19,6 +19,7 @@ import io.airlift.slice.OutputStreamSliceOutput;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
+import io.trino.parquet.BloomFilter;
 import io.trino.parquet.writer.ColumnWriter.BufferData;
 import io.trino.spi.Page;
 import io.trino.spi.type.Type;
@@ -36,6 +37,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -93,7 +95,7 @@ public class ParquetWriter
                 .withPageSize(writerOption.getMaxPageSize())
                 .build();
 
-        this.columnWriters = ParquetWriters.getColumnWriters(messageType, primitiveTypes, parquetProperties, compressionCodecName);
+        this.columnWriters = ParquetWriters.getColumnWriters(messageType, primitiveTypes, parquetProperties, compressionCodecName, writerOption);
 
         this.chunkMaxLogicalBytes = max(1, CHUNK_MAX_BYTES / 2);
     }
@@ -212,13 +214,24 @@ public class ParquetWriter
         List<ColumnMetaData> metadatas = bufferDataList.stream()
                 .map(BufferData::getMetaData)
                 .collect(toImmutableList());
-        updateRowGroups(updateColumnMetadataOffset(metadatas, stripeStartOffset));
+        List<ColumnMetaData> columnMetaData = updateColumnMetadataOffset(metadatas, stripeStartOffset);
 
         // flush pages
         bufferDataList.stream()
                 .map(BufferData::getData)
                 .flatMap(List::stream)
                 .forEach(data -> data.writeData(outputStream));
+
+        // write Bloom filters after the column chunks of the row group
+        for (int i = 0; i < bufferDataList.size(); i++) {
+            Optional<BloomFilter> bloomFilter = bufferDataList.get(i).getBloomFilter();
+            if (bloomFilter.isPresent()) {
+                columnMetaData.get(i).setBloom_filter_offset(outputStream.size());
+                bloomFilter.get().writeTo(outputStream);
+            }
+        }
+
+        updateRowGroups(columnMetaData);
     }
 
     private void writeFooter()
@@ -13,9 +13,13 @@
  */
 package io.trino.parquet.writer;
 
+import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 import org.apache.parquet.hadoop.ParquetWriter;
 
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
@@ -23,6 +27,7 @@ public class ParquetWriterOptions
 {
     private static final DataSize DEFAULT_MAX_ROW_GROUP_SIZE = DataSize.ofBytes(ParquetWriter.DEFAULT_BLOCK_SIZE);
     private static final DataSize DEFAULT_MAX_PAGE_SIZE = DataSize.ofBytes(ParquetWriter.DEFAULT_PAGE_SIZE);
+    private static final double DEFAULT_BLOOM_FILTER_FPP = 0.05;
 
     public static ParquetWriterOptions.Builder builder()
     {
@@ -31,11 +36,16 @@ public class ParquetWriterOptions
 
     private final int maxRowGroupSize;
     private final int maxPageSize;
+    private final Set<String> bloomFilterColumns;
+    private final double bloomFilterFpp;
 
-    private ParquetWriterOptions(DataSize maxBlockSize, DataSize maxPageSize)
+    private ParquetWriterOptions(DataSize maxBlockSize, DataSize maxPageSize, Set<String> bloomFilterColumns, double bloomFilterFpp)
     {
         this.maxRowGroupSize = toIntExact(requireNonNull(maxBlockSize, "maxBlockSize is null").toBytes());
         this.maxPageSize = toIntExact(requireNonNull(maxPageSize, "maxPageSize is null").toBytes());
+        this.bloomFilterColumns = ImmutableSet.copyOf(requireNonNull(bloomFilterColumns, "bloomFilterColumns is null"));
+        checkArgument(bloomFilterFpp > 0.0 && bloomFilterFpp < 1.0, "bloomFilterFpp should be > 0.0 & < 1.0");
+        this.bloomFilterFpp = bloomFilterFpp;
     }
 
     public long getMaxRowGroupSize()
@@ -48,10 +58,22 @@ public class ParquetWriterOptions
         return maxPageSize;
     }
 
+    public Set<String> getBloomFilterColumns()
+    {
+        return bloomFilterColumns;
+    }
+
+    public double getBloomFilterFpp()
+    {
+        return bloomFilterFpp;
+    }
+
     public static class Builder
     {
         private DataSize maxBlockSize = DEFAULT_MAX_ROW_GROUP_SIZE;
         private DataSize maxPageSize = DEFAULT_MAX_PAGE_SIZE;
+        private Set<String> bloomFilterColumns = ImmutableSet.of();
+        private double bloomFilterFpp = DEFAULT_BLOOM_FILTER_FPP;
 
         public Builder setMaxBlockSize(DataSize maxBlockSize)
         {
@@ -65,9 +87,21 @@ public class ParquetWriterOptions
             return this;
         }
 
+        public Builder setBloomFilterColumns(Set<String> bloomFilterColumns)
+        {
+            this.bloomFilterColumns = bloomFilterColumns;
+            return this;
+        }
+
+        public Builder setBloomFilterFpp(double bloomFilterFpp)
+        {
+            this.bloomFilterFpp = bloomFilterFpp;
+            return this;
+        }
+
         public ParquetWriterOptions build()
         {
-            return new ParquetWriterOptions(maxBlockSize, maxPageSize);
+            return new ParquetWriterOptions(maxBlockSize, maxPageSize, bloomFilterColumns, bloomFilterFpp);
         }
     }
 }
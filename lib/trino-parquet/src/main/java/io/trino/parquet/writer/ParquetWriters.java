@@ -45,6 +45,7 @@ import org.apache.parquet.schema.PrimitiveType;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.trino.spi.StandardErrorCode.NOT_SUPPORTED;
@@ -68,9 +69,9 @@ final class ParquetWriters
 {
     private ParquetWriters() {}
 
-    static List<ColumnWriter> getColumnWriters(MessageType messageType, Map<List<String>, Type> trinoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName)
+    static List<ColumnWriter> getColumnWriters(MessageType messageType, Map<List<String>, Type> trinoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName, ParquetWriterOptions writerOptions)
     {
-        WriteBuilder writeBuilder = new WriteBuilder(messageType, trinoTypes, parquetProperties, compressionCodecName);
+        WriteBuilder writeBuilder = new WriteBuilder(messageType, trinoTypes, parquetProperties, compressionCodecName, writerOptions);
         ParquetTypeVisitor.visit(messageType, writeBuilder);
         return writeBuilder.build();
     }
@@ -82,14 +83,16 @@ final class ParquetWriters
         private final Map<List<String>, Type> trinoTypes;
         private final ParquetProperties parquetProperties;
         private final CompressionCodecName compressionCodecName;
+        private final ParquetWriterOptions writerOptions;
         private final ImmutableList.Builder<ColumnWriter> builder = ImmutableList.builder();
 
-        WriteBuilder(MessageType messageType, Map<List<String>, Type> trinoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName)
+        WriteBuilder(MessageType messageType, Map<List<String>, Type> trinoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName, ParquetWriterOptions writerOptions)
         {
             this.type = requireNonNull(messageType, "messageType is null");
             this.trinoTypes = requireNonNull(trinoTypes, "trinoTypes is null");
             this.parquetProperties = requireNonNull(parquetProperties, "parquetProperties is null");
             this.compressionCodecName = requireNonNull(compressionCodecName, "compressionCodecName is null");
+            this.writerOptions = requireNonNull(writerOptions, "writerOptions is null");
         }
 
         List<ColumnWriter> build()
@@ -138,13 +141,18 @@ final class ParquetWriters
             int fieldRepetitionLevel = type.getMaxRepetitionLevel(path);
             ColumnDescriptor columnDescriptor = new ColumnDescriptor(path, primitive, fieldRepetitionLevel, fieldDefinitionLevel);
             Type trinoType = requireNonNull(trinoTypes.get(ImmutableList.copyOf(path)), "Trino type is null");
+            Optional<BloomFilterBuilder> bloomFilterBuilder = Optional.empty();
+            if (writerOptions.getBloomFilterColumns().contains(String.join(".", path))) {
+                bloomFilterBuilder = BloomFilterBuilder.create(trinoType, primitive.getPrimitiveTypeName(), writerOptions.getBloomFilterFpp());
+            }
             return new PrimitiveColumnWriter(
                     columnDescriptor,
                     getValueWriter(parquetProperties.newValuesWriter(columnDescriptor), trinoType, columnDescriptor.getPrimitiveType()),
                     parquetProperties.newDefinitionLevelEncoder(columnDescriptor),
                     parquetProperties.newRepetitionLevelEncoder(columnDescriptor),
                     compressionCodecName,
-                    parquetProperties.getPageSizeThreshold());
+                    parquetProperties.getPageSizeThreshold(),
+                    bloomFilterBuilder);
         }
 
         private String[] currentPath()
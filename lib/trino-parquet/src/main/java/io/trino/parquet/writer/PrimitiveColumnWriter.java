@@ -39,6 +39,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -88,7 +89,9 @@ public class PrimitiveColumnWriter
 
     private final int pageSizeThreshold;
 
-    public PrimitiveColumnWriter(ColumnDescriptor columnDescriptor, PrimitiveValueWriter primitiveValueWriter, RunLengthBitPackingHybridEncoder definitionLevelEncoder, RunLengthBitPackingHybridEncoder repetitionLevelEncoder, CompressionCodecName compressionCodecName, int pageSizeThreshold)
+    private final Optional<BloomFilterBuilder> bloomFilterBuilder;
+
+    public PrimitiveColumnWriter(ColumnDescriptor columnDescriptor, PrimitiveValueWriter primitiveValueWriter, RunLengthBitPackingHybridEncoder definitionLevelEncoder, RunLengthBitPackingHybridEncoder repetitionLevelEncoder, CompressionCodecName compressionCodecName, int pageSizeThreshold, Optional<BloomFilterBuilder> bloomFilterBuilder)
     {
         this.columnDescriptor = requireNonNull(columnDescriptor, "columnDescriptor is null");
         this.maxDefinitionLevel = columnDescriptor.getMaxDefinitionLevel();
@@ -100,6 +103,7 @@ public class PrimitiveColumnWriter
         this.compressionCodec = requireNonNull(compressionCodecName, "compressionCodecName is null");
         this.compressor = getCompressor(compressionCodecName);
         this.pageSizeThreshold = pageSizeThreshold;
+        this.bloomFilterBuilder = requireNonNull(bloomFilterBuilder, "bloomFilterBuilder is null");
 
         this.columnStatistics = Statistics.createStats(columnDescriptor.getPrimitiveType());
     }
@@ -122,6 +126,7 @@ public class PrimitiveColumnWriter
 
         // write values
         primitiveValueWriter.write(columnChunk.getBlock());
+        bloomFilterBuilder.ifPresent(builder -> builder.addValues(columnChunk.getBlock()));
 
         // write definition levels
         Iterator<Integer> defIterator = DefLevelIterables.getIterator(current.getDefLevelIterables());
@@ -160,7 +165,7 @@ public class PrimitiveColumnWriter
             throws IOException
     {
         checkState(closed);
-        return ImmutableList.of(new BufferData(getDataStreams(), getColumnMetaData()));
+        return ImmutableList.of(new BufferData(getDataStreams(), getColumnMetaData(), bloomFilterBuilder.flatMap(BloomFilterBuilder::build)));
     }
 
     // Returns ColumnMetaData that offset is invalid
@@ -309,7 +314,8 @@ public class PrimitiveColumnWriter
         return INSTANCE_SIZE +
                 primitiveValueWriter.getAllocatedSize() +
                 definitionLevelEncoder.getAllocatedSize() +
-                repetitionLevelEncoder.getAllocatedSize();
+                repetitionLevelEncoder.getAllocatedSize() +
+                bloomFilterBuilder.map(BloomFilterBuilder::getRetainedBytes).orElse(0L);
     }
 
     @Override
@@ -323,6 +329,7 @@ public class PrimitiveColumnWriter
         totalRows = 0;
         encodings.clear();
         this.columnStatistics = Statistics.createStats(columnDescriptor.getPrimitiveType());
+        bloomFilterBuilder.ifPresent(BloomFilterBuilder::reset);
 
         getDataStreamsCalled = false;
     }
@@ -0,0 +1,110 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet;
+
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.Slices;
+import io.airlift.slice.XxHash64;
+import org.apache.parquet.format.BloomFilterHeader;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.OptionalLong;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DecimalType.createDecimalType;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.RealType.REAL;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static java.lang.Float.floatToRawIntBits;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FLOAT;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestBloomFilter
+{
+    @Test
+    public void testHashInt()
+    {
+        for (int value : new int[] {0, 1, -1, 42, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+            Slice slice = Slices.allocate(Integer.BYTES);
+            slice.setInt(0, value);
+            assertEquals(BloomFilter.hashInt(value), XxHash64.hash(slice));
+        }
+    }
+
+    @Test
+    public void testGetHash()
+    {
+        assertEquals(BloomFilter.getHash(INTEGER, INT32, 42L), OptionalLong.of(BloomFilter.hashInt(42)));
+        assertEquals(BloomFilter.getHash(BIGINT, INT64, 42L), OptionalLong.of(BloomFilter.hashLong(42)));
+        assertEquals(BloomFilter.getHash(VARCHAR, BINARY, utf8Slice("abc")), OptionalLong.of(BloomFilter.hashSlice(utf8Slice("abc"))));
+
+        // values which do not fit in the column are never in the Bloom filter
+        assertEquals(BloomFilter.getHash(BIGINT, INT32, 1L << 40), OptionalLong.empty());
+        assertEquals(BloomFilter.getHash(createDecimalType(10, 2), INT64, 42L), OptionalLong.empty());
+
+        // 0.0 and -0.0 are equal, but have different bits
+        assertEquals(BloomFilter.getHash(DOUBLE, PrimitiveTypeName.DOUBLE, 0.0), OptionalLong.empty());
+        assertEquals(BloomFilter.getHash(REAL, FLOAT, (long) floatToRawIntBits(0.0f)), OptionalLong.empty());
+    }
+
+    @Test
+    public void testMightContain()
+    {
+        BloomFilter bloomFilter = BloomFilter.create(BloomFilter.getOptimalNumberOfBytes(1000, 0.01, 1024 * 1024));
+        for (long value = 0; value < 1000; value++) {
+            bloomFilter.insertHash(BloomFilter.hashLong(value));
+        }
+        for (long value = 0; value < 1000; value++) {
+            assertTrue(bloomFilter.mightContain(BloomFilter.hashLong(value)));
+        }
+        int falsePositives = 0;
+        for (long value = 1000; value < 11000; value++) {
+            if (bloomFilter.mightContain(BloomFilter.hashLong(value))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void testRoundTrip()
+            throws IOException
+    {
+        BloomFilter bloomFilter = BloomFilter.create(256);
+        bloomFilter.insertHash(BloomFilter.hashSlice(utf8Slice("apple")));
+
+        DynamicSliceOutput output = new DynamicSliceOutput(0);
+        bloomFilter.writeTo(output);
+
+        SliceInput input = output.slice().getInput();
+        BloomFilterHeader header = BloomFilter.readHeader(input);
+        assertTrue(BloomFilter.isSupported(header));
+        assertEquals(header.getNumBytes(), 256);
+
+        BloomFilter readBloomFilter = BloomFilter.fromBitset(input.readSlice(header.getNumBytes()));
+        assertTrue(readBloomFilter.mightContain(BloomFilter.hashSlice(utf8Slice("apple"))));
+        assertFalse(readBloomFilter.mightContain(BloomFilter.hashSlice(utf8Slice("banana"))));
+    }
+}
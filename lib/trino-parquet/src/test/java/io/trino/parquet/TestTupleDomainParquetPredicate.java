@@ -13,11 +13,13 @@
  */
 package io.trino.parquet;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.trino.parquet.predicate.DictionaryDescriptor;
 import io.trino.parquet.predicate.TupleDomainParquetPredicate;
+import io.trino.parquet.reader.RowRanges;
 import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.predicate.ValueSet;
@@ -35,13 +37,22 @@ import org.apache.parquet.column.statistics.FloatStatistics;
 import org.apache.parquet.column.statistics.IntStatistics;
 import org.apache.parquet.column.statistics.LongStatistics;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.BoundaryOrder;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.ColumnIndexBuilder;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndexBuilder;
+import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Map;
@@ -78,9 +89,11 @@ import static io.trino.spi.type.Timestamps.round;
 import static io.trino.spi.type.TinyintType.TINYINT;
 import static io.trino.spi.type.VarcharType.createUnboundedVarcharType;
 import static io.trino.spi.type.VarcharType.createVarcharType;
+import static java.lang.Double.doubleToLongBits;
 import static java.lang.Float.NaN;
 import static java.lang.Float.floatToRawIntBits;
 import static java.lang.Math.toIntExact;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.temporal.ChronoField.MICRO_OF_SECOND;
 import static java.util.Collections.singletonList;
@@ -447,6 +460,98 @@ public class TestTupleDomainParquetPredicate
         assertFalse(parquetPredicate.matches(2, ImmutableMap.of(column, longColumnStats(1024, 0x10000 + 42)), ID));
     }
 
+    @Test
+    public void testBigintMatchingRowRanges()
+            throws ParquetCorruptionException
+    {
+        RichColumnDescriptor column = new RichColumnDescriptor(
+                new ColumnDescriptor(new String[] {"path"}, INT64, 0, 0),
+                new PrimitiveType(OPTIONAL, INT64, "Test column"));
+        TupleDomain<ColumnDescriptor> effectivePredicate = TupleDomain.withColumnDomains(ImmutableMap.of(
+                column,
+                Domain.create(ValueSet.of(BIGINT, 150L, 320L), false)));
+        TupleDomainParquetPredicate parquetPredicate = new TupleDomainParquetPredicate(effectivePredicate, singletonList(column), UTC);
+
+        // five pages of 100 rows with increasing values, the last page contains only nulls
+        ColumnIndex columnIndex = ColumnIndexBuilder.build(
+                column.getPrimitiveType(),
+                BoundaryOrder.ASCENDING,
+                ImmutableList.of(false, false, false, false, true),
+                ImmutableList.of(0L, 0L, 0L, 0L, 100L),
+                ImmutableList.of(longBuffer(0), longBuffer(100), longBuffer(200), longBuffer(300), longBuffer(0)),
+                ImmutableList.of(longBuffer(99), longBuffer(199), longBuffer(299), longBuffer(399), longBuffer(0)));
+        OffsetIndexBuilder offsetIndexBuilder = OffsetIndexBuilder.getBuilder();
+        for (int page = 0; page < 5; page++) {
+            offsetIndexBuilder.add(1000 * page, 1000, 100 * page);
+        }
+        ColumnIndexStore columnIndexStore = columnIndexStore(ColumnPath.get(column.getPath()), columnIndex, offsetIndexBuilder.build());
+
+        RowRanges rowRanges = parquetPredicate.getMatchingRowRanges(500, columnIndexStore, ID).orElseThrow();
+        assertEquals(rowRanges.getRangeCount(), 2);
+        assertEquals(rowRanges.getRangeStart(0), 100);
+        assertEquals(rowRanges.getRangeEnd(0), 200);
+        assertEquals(rowRanges.getRangeStart(1), 300);
+        assertEquals(rowRanges.getRangeEnd(1), 400);
+        assertEquals(rowRanges.getRowCount(), 200);
+
+        // a column without indexes cannot be used to select pages
+        assertFalse(parquetPredicate.getMatchingRowRanges(500, columnIndexStore(ColumnPath.get("other"), columnIndex, offsetIndexBuilder.build()), ID).isPresent());
+    }
+
+    @Test
+    public void testBigintMatchesWithBloomFilter()
+    {
+        RichColumnDescriptor column = new RichColumnDescriptor(
+                new ColumnDescriptor(new String[] {"path"}, INT64, 0, 0),
+                new PrimitiveType(OPTIONAL, INT64, "Test column"));
+        BloomFilter bloomFilter = BloomFilter.create(1024);
+        for (long value = 0; value < 100; value++) {
+            bloomFilter.insertHash(BloomFilter.hashLong(value * 1000));
+        }
+
+        assertTrue(bloomFilterPredicate(column, Domain.create(ValueSet.of(BIGINT, 42_000L), false)).matches(column, bloomFilter));
+        assertTrue(bloomFilterPredicate(column, Domain.create(ValueSet.of(BIGINT, 1L, 2L, 3L, 99_000L), false)).matches(column, bloomFilter));
+        assertFalse(bloomFilterPredicate(column, Domain.create(ValueSet.of(BIGINT, 42L), false)).matches(column, bloomFilter));
+        assertFalse(bloomFilterPredicate(column, Domain.create(ValueSet.of(BIGINT, 42L, 43L, 44L), false)).matches(column, bloomFilter));
+
+        // nulls and ranges cannot be checked against a Bloom filter
+        assertTrue(bloomFilterPredicate(column, Domain.create(ValueSet.of(BIGINT, 42L), true)).matches(column, bloomFilter));
+        assertTrue(bloomFilterPredicate(column, Domain.create(ValueSet.ofRanges(range(BIGINT, 1L, true, 10L, true)), false)).matches(column, bloomFilter));
+    }
+
+    @Test
+    public void testVarcharMatchesWithBloomFilter()
+    {
+        RichColumnDescriptor column = new RichColumnDescriptor(
+                new ColumnDescriptor(new String[] {"path"}, BINARY, 0, 0),
+                new PrimitiveType(OPTIONAL, BINARY, "Test column"));
+        BloomFilter bloomFilter = BloomFilter.create(1024);
+        bloomFilter.insertHash(BloomFilter.hashSlice(utf8Slice("apple")));
+        bloomFilter.insertHash(BloomFilter.hashSlice(utf8Slice("banana")));
+
+        assertTrue(bloomFilterPredicate(column, singleValue(createUnboundedVarcharType(), utf8Slice("banana"))).matches(column, bloomFilter));
+        assertFalse(bloomFilterPredicate(column, singleValue(createUnboundedVarcharType(), utf8Slice("cherry"))).matches(column, bloomFilter));
+    }
+
+    @Test
+    public void testDoubleMatchesWithBloomFilter()
+    {
+        RichColumnDescriptor column = new RichColumnDescriptor(
+                new ColumnDescriptor(new String[] {"path"}, PrimitiveTypeName.DOUBLE, 0, 0),
+                new PrimitiveType(OPTIONAL, PrimitiveTypeName.DOUBLE, "Test column"));
+        // a writer which hashes the bits of the values only has -0.0 in the Bloom filter
+        BloomFilter bloomFilter = BloomFilter.create(1024);
+        bloomFilter.insertHash(BloomFilter.hashLong(doubleToLongBits(-0.0)));
+
+        assertTrue(bloomFilterPredicate(column, singleValue(DOUBLE, 0.0)).matches(column, bloomFilter));
+        assertTrue(bloomFilterPredicate(column, singleValue(DOUBLE, 42.0)).matches(column, bloomFilter));
+    }
+
+    private static TupleDomainParquetPredicate bloomFilterPredicate(RichColumnDescriptor column, Domain domain)
+    {
+        return new TupleDomainParquetPredicate(withColumnDomains(ImmutableMap.of(column, domain)), singletonList(column), UTC);
+    }
+
     @Test
     public void testVarcharMatchesWithDictionaryDescriptor()
     {
@@ -466,6 +571,32 @@ public class TestTupleDomainParquetPredicate
         return withColumnDomains(predicateColumns);
     }
 
+    private static ByteBuffer longBuffer(long value)
+    {
+        return ByteBuffer.allocate(Long.BYTES).order(LITTLE_ENDIAN).putLong(0, value);
+    }
+
+    private static ColumnIndexStore columnIndexStore(ColumnPath indexedColumn, ColumnIndex columnIndex, OffsetIndex offsetIndex)
+    {
+        return new ColumnIndexStore()
+        {
+            @Override
+            public ColumnIndex getColumnIndex(ColumnPath column)
+            {
+                return column.equals(indexedColumn) ? columnIndex : null;
+            }
+
+            @Override
+            public OffsetIndex getOffsetIndex(ColumnPath column)
+            {
+                if (!column.equals(indexedColumn)) {
+                    throw new MissingOffsetIndexException(column);
+                }
+                return offsetIndex;
+            }
+        };
+    }
+
     private static FloatStatistics floatColumnStats(float minimum, float maximum)
     {
         return floatColumnStats(minimum, maximum, false);
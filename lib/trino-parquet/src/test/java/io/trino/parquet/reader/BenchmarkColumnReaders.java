@@ -0,0 +1,200 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import io.trino.parquet.ParquetEncoding;
+import io.trino.parquet.PrimitiveField;
+import io.trino.parquet.RichColumnDescriptor;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static io.trino.parquet.reader.TestingColumnPages.createDescriptor;
+import static io.trino.parquet.reader.TestingColumnPages.createPageReaderFactory;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.RealType.REAL;
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Float.floatToRawIntBits;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.joda.time.DateTimeZone.UTC;
+import static org.openjdk.jmh.annotations.Scope.Thread;
+
+@SuppressWarnings("MethodMayBeStatic")
+@State(Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(3)
+@Warmup(iterations = 20, time = 500, timeUnit = MILLISECONDS)
+@Measurement(iterations = 20, time = 500, timeUnit = MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OperationsPerInvocation(BenchmarkColumnReaders.ROWS)
+public class BenchmarkColumnReaders
+{
+    public static final int ROWS = 1_000_000;
+    private static final int VALUES_PER_PAGE = 20_000;
+    private static final int BATCH_SIZE = 1024;
+    private static final int DICTIONARY = 1_000;
+
+    @Benchmark
+    public Object readIntegral(IntegralBenchmarkData data)
+    {
+        return readColumn(data);
+    }
+
+    @Benchmark
+    public Object readFloatingPoint(FloatingPointBenchmarkData data)
+    {
+        return readColumn(data);
+    }
+
+    private static List<Block> readColumn(BenchmarkData data)
+    {
+        ColumnReader reader = data.createColumnReader();
+        List<Block> blocks = new ArrayList<>();
+        for (int position = 0; position < ROWS; position += BATCH_SIZE) {
+            reader.prepareNextRead(min(BATCH_SIZE, ROWS - position));
+            blocks.add(reader.readPrimitive(data.field).getBlock());
+        }
+        return blocks;
+    }
+
+    public abstract static class BenchmarkData
+    {
+        @Param({"true", "false"})
+        public boolean batchReader = true;
+
+        @Param({"false", "true"})
+        public boolean withNulls;
+
+        @Param({"false", "true"})
+        public boolean dataPageV2;
+
+        private RichColumnDescriptor descriptor;
+        private PrimitiveField field;
+        private Supplier<PageReader> pageReaderFactory;
+
+        protected void setup(PrimitiveTypeName typeName, Type type, ParquetEncoding encoding)
+                throws Exception
+        {
+            descriptor = createDescriptor(typeName, !withNulls);
+            field = new PrimitiveField(type, 0, withNulls ? 1 : 0, !withNulls, descriptor, 0);
+
+            Random random = new Random(42);
+            long[] values = new long[ROWS];
+            boolean[] isNull = withNulls ? new boolean[ROWS] : null;
+            for (int i = 0; i < ROWS; i++) {
+                values[i] = generateValue(random, typeName, encoding.usesDictionary());
+                if (withNulls) {
+                    isNull[i] = random.nextInt(10) == 0;
+                }
+            }
+            pageReaderFactory = createPageReaderFactory(descriptor, encoding, dataPageV2, values, isNull, VALUES_PER_PAGE);
+        }
+
+        public ColumnReader createColumnReader()
+        {
+            ColumnReader reader = ColumnReaderFactory.createReader(descriptor, UTC, batchReader);
+            reader.setPageReader(pageReaderFactory.get());
+            return reader;
+        }
+
+        private static long generateValue(Random random, PrimitiveTypeName typeName, boolean dictionary)
+        {
+            switch (typeName) {
+                case INT32:
+                    return dictionary ? random.nextInt(DICTIONARY) : random.nextInt();
+                case INT64:
+                    return dictionary ? random.nextInt(DICTIONARY) * 1_000_003L : random.nextLong();
+                case FLOAT:
+                    return floatToRawIntBits(dictionary ? random.nextInt(DICTIONARY) : random.nextFloat());
+                case DOUBLE:
+                    return doubleToRawLongBits(dictionary ? random.nextInt(DICTIONARY) : random.nextDouble());
+                default:
+                    throw new IllegalArgumentException("Unsupported type " + typeName);
+            }
+        }
+    }
+
+    @State(Thread)
+    public static class IntegralBenchmarkData
+            extends BenchmarkData
+    {
+        @Param({"INT32", "INT64"})
+        public String typeName = "INT64";
+
+        @Param({"PLAIN", "PLAIN_DICTIONARY", "DELTA_BINARY_PACKED"})
+        public String encoding = "PLAIN";
+
+        @Setup
+        public void setup()
+                throws Exception
+        {
+            PrimitiveTypeName primitiveTypeName = PrimitiveTypeName.valueOf(typeName);
+            setup(primitiveTypeName, primitiveTypeName == PrimitiveTypeName.INT32 ? INTEGER : BIGINT, ParquetEncoding.valueOf(encoding));
+        }
+    }
+
+    @State(Thread)
+    public static class FloatingPointBenchmarkData
+            extends BenchmarkData
+    {
+        @Param({"FLOAT", "DOUBLE"})
+        public String typeName = "DOUBLE";
+
+        @Param({"PLAIN", "PLAIN_DICTIONARY"})
+        public String encoding = "PLAIN";
+
+        @Setup
+        public void setup()
+                throws Exception
+        {
+            PrimitiveTypeName primitiveTypeName = PrimitiveTypeName.valueOf(typeName);
+            setup(primitiveTypeName, primitiveTypeName == PrimitiveTypeName.FLOAT ? REAL : DOUBLE, ParquetEncoding.valueOf(encoding));
+        }
+    }
+
+    public static void main(String[] args)
+            throws Exception
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkColumnReaders.class.getSimpleName() + ".*")
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import io.trino.parquet.ParquetEncoding;
+import io.trino.parquet.PrimitiveField;
+import io.trino.parquet.RichColumnDescriptor;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static io.trino.parquet.ParquetEncoding.DELTA_BINARY_PACKED;
+import static io.trino.parquet.ParquetEncoding.PLAIN;
+import static io.trino.parquet.ParquetEncoding.PLAIN_DICTIONARY;
+import static io.trino.parquet.reader.TestingColumnPages.createDescriptor;
+import static io.trino.parquet.reader.TestingColumnPages.createPageReader;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.RealType.REAL;
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Float.floatToRawIntBits;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FLOAT;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.joda.time.DateTimeZone.UTC;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestFlatColumnReader
+{
+    private static final int VALUE_COUNT = 10_000;
+    private static final int VALUES_PER_PAGE = 1_500;
+
+    @Test(dataProvider = "columns")
+    public void testMatchesPrimitiveColumnReader(PrimitiveTypeName typeName, Type type, ParquetEncoding encoding, boolean dataPageV2, boolean required)
+            throws IOException
+    {
+        RichColumnDescriptor descriptor = createDescriptor(typeName, required);
+        Random random = new Random(typeName.ordinal() * 31 + encoding.ordinal());
+        long[] values = new long[VALUE_COUNT];
+        boolean[] isNull = required ? null : new boolean[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            values[i] = generateValue(random, typeName, encoding == PLAIN_DICTIONARY);
+            if (!required) {
+                // include a long run of nulls that spans a page boundary
+                isNull[i] = random.nextInt(5) == 0 || (i > 2_900 && i < 3_200);
+            }
+        }
+
+        ColumnReader flatReader = ColumnReaderFactory.createReader(descriptor, UTC, true);
+        assertTrue(flatReader instanceof FlatColumnReader, flatReader.getClass().getName());
+        flatReader.setPageReader(createPageReader(descriptor, encoding, dataPageV2, values, isNull, VALUES_PER_PAGE));
+        ColumnReader expectedReader = PrimitiveColumnReader.createReader(descriptor, UTC);
+        expectedReader.setPageReader(createPageReader(descriptor, encoding, dataPageV2, values, isNull, VALUES_PER_PAGE));
+
+        PrimitiveField field = new PrimitiveField(type, 0, required ? 0 : 1, required, descriptor, 0);
+        int position = 0;
+        int batch = 0;
+        while (position < VALUE_COUNT) {
+            int batchSize = Math.min(1 + (batch * 397) % 1024, VALUE_COUNT - position);
+            flatReader.prepareNextRead(batchSize);
+            expectedReader.prepareNextRead(batchSize);
+            // leave some batches unread, so the readers have to skip over them
+            if (batch % 4 != 3) {
+                ColumnChunk actual = flatReader.readPrimitive(field);
+                ColumnChunk expected = expectedReader.readPrimitive(field);
+                assertBlockEquals(type, actual.getBlock(), expected.getBlock());
+                assertEquals(actual.getDefinitionLevels(), expected.getDefinitionLevels());
+            }
+            position += batchSize;
+            batch++;
+        }
+    }
+
+    @DataProvider
+    public Object[][] columns()
+    {
+        Object[][] types = {
+                {INT32, INTEGER},
+                {INT32, BIGINT},
+                {INT64, BIGINT},
+                {FLOAT, REAL},
+                {PrimitiveTypeName.DOUBLE, DOUBLE},
+        };
+        List<Object[]> columns = new ArrayList<>();
+        for (Object[] type : types) {
+            PrimitiveTypeName typeName = (PrimitiveTypeName) type[0];
+            for (ParquetEncoding encoding : new ParquetEncoding[] {PLAIN, PLAIN_DICTIONARY, DELTA_BINARY_PACKED}) {
+                if (encoding == DELTA_BINARY_PACKED && typeName != INT32 && typeName != INT64) {
+                    continue;
+                }
+                for (boolean dataPageV2 : new boolean[] {false, true}) {
+                    for (boolean required : new boolean[] {false, true}) {
+                        columns.add(new Object[] {typeName, type[1], encoding, dataPageV2, required});
+                    }
+                }
+            }
+        }
+        return columns.toArray(new Object[0][]);
+    }
+
+    private static long generateValue(Random random, PrimitiveTypeName typeName, boolean fewDistinctValues)
+    {
+        int bound = fewDistinctValues ? 100 : Integer.MAX_VALUE;
+        switch (typeName) {
+            case INT32:
+                return fewDistinctValues ? random.nextInt(bound) - 50 : random.nextInt();
+            case INT64:
+                return fewDistinctValues ? random.nextInt(bound) * 1_000_000_007L : random.nextLong();
+            case FLOAT:
+                return floatToRawIntBits(random.nextInt(bound) / 7.0f);
+            case DOUBLE:
+                return doubleToRawLongBits(fewDistinctValues ? random.nextInt(bound) / 7.0 : random.nextGaussian());
+            default:
+                throw new IllegalArgumentException("Unsupported type " + typeName);
+        }
+    }
+
+    private static void assertBlockEquals(Type type, Block actual, Block expected)
+    {
+        assertEquals(actual.getPositionCount(), expected.getPositionCount());
+        for (int position = 0; position < actual.getPositionCount(); position++) {
+            assertEquals(actual.isNull(position), expected.isNull(position));
+            if (expected.isNull(position)) {
+                continue;
+            }
+            if (type == DOUBLE) {
+                assertEquals(doubleToRawLongBits(type.getDouble(actual, position)), doubleToRawLongBits(type.getDouble(expected, position)));
+            }
+            else {
+                assertEquals(type.getLong(actual, position), type.getLong(expected, position));
+            }
+        }
+    }
+}
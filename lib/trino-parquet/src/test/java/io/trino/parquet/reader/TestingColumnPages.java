@@ -0,0 +1,210 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import io.airlift.slice.Slice;
+import io.trino.parquet.DataPage;
+import io.trino.parquet.DataPageV1;
+import io.trino.parquet.DataPageV2;
+import io.trino.parquet.DictionaryPage;
+import io.trino.parquet.ParquetEncoding;
+import io.trino.parquet.RichColumnDescriptor;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriterForInteger;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriterForLong;
+import org.apache.parquet.column.values.plain.PlainValuesWriter;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static io.airlift.slice.Slices.EMPTY_SLICE;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.trino.parquet.ParquetEncoding.DELTA_BINARY_PACKED;
+import static io.trino.parquet.ParquetEncoding.PLAIN_DICTIONARY;
+import static io.trino.parquet.ParquetEncoding.RLE;
+import static io.trino.parquet.ParquetEncoding.RLE_DICTIONARY;
+import static java.lang.Double.longBitsToDouble;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static org.apache.parquet.bytes.BytesUtils.getWidthFromMaxInt;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+
+/**
+ * Builds in-memory column chunks of a single flat primitive column. Values are
+ * passed as raw bits in a {@code long[]}, and the dictionary is made of the
+ * distinct values.
+ */
+final class TestingColumnPages
+{
+    private static final int MAX_PAGE_SIZE = 64 * 1024 * 1024;
+
+    private TestingColumnPages() {}
+
+    public static RichColumnDescriptor createDescriptor(PrimitiveTypeName typeName, boolean required)
+    {
+        PrimitiveType primitiveType = required ? Types.required(typeName).named("column") : Types.optional(typeName).named("column");
+        return new RichColumnDescriptor(new ColumnDescriptor(new String[] {"column"}, primitiveType, 0, required ? 0 : 1), primitiveType);
+    }
+
+    /**
+     * @param encoding PLAIN, PLAIN_DICTIONARY or DELTA_BINARY_PACKED
+     * @param isNull null positions, or null for a column without nulls
+     */
+    public static PageReader createPageReader(RichColumnDescriptor descriptor, ParquetEncoding encoding, boolean dataPageV2, long[] values, boolean[] isNull, int valuesPerPage)
+            throws IOException
+    {
+        return createPageReaderFactory(descriptor, encoding, dataPageV2, values, isNull, valuesPerPage).get();
+    }
+
+    /**
+     * Encodes the pages once and returns a factory of readers over them, as a
+     * {@link PageReader} can only be read once.
+     */
+    public static Supplier<PageReader> createPageReaderFactory(RichColumnDescriptor descriptor, ParquetEncoding encoding, boolean dataPageV2, long[] values, boolean[] isNull, int valuesPerPage)
+            throws IOException
+    {
+        PrimitiveTypeName typeName = descriptor.getPrimitiveType().getPrimitiveTypeName();
+        boolean dictionaryEncoded = encoding.usesDictionary();
+
+        Map<Long, Integer> dictionaryIds = new LinkedHashMap<>();
+        DictionaryPage dictionaryPage = null;
+        if (dictionaryEncoded) {
+            for (int i = 0; i < values.length; i++) {
+                if (isNull == null || !isNull[i]) {
+                    dictionaryIds.putIfAbsent(values[i], dictionaryIds.size());
+                }
+            }
+            ValuesWriter writer = createPlainWriter();
+            for (long value : dictionaryIds.keySet()) {
+                writeValue(writer, typeName, value);
+            }
+            Slice slice = toSlice(writer.getBytes());
+            dictionaryPage = new DictionaryPage(slice, slice.length(), dictionaryIds.size(), PLAIN_DICTIONARY);
+        }
+        int idBitWidth = getWidthFromMaxInt(Math.max(dictionaryIds.size() - 1, 0));
+
+        List<DataPage> pages = new ArrayList<>();
+        for (int start = 0; start < values.length; start += valuesPerPage) {
+            int end = min(start + valuesPerPage, values.length);
+            RunLengthBitPackingHybridEncoder levels = new RunLengthBitPackingHybridEncoder(1, 1024, MAX_PAGE_SIZE, HeapByteBufferAllocator.getInstance());
+            RunLengthBitPackingHybridEncoder ids = new RunLengthBitPackingHybridEncoder(idBitWidth, 1024, MAX_PAGE_SIZE, HeapByteBufferAllocator.getInstance());
+            ValuesWriter writer = encoding == DELTA_BINARY_PACKED ? createDeltaWriter(typeName) : createPlainWriter();
+            int nullCount = 0;
+            for (int i = start; i < end; i++) {
+                boolean valueIsNull = isNull != null && isNull[i];
+                if (isNull != null) {
+                    levels.writeInt(valueIsNull ? 0 : 1);
+                }
+                if (valueIsNull) {
+                    nullCount++;
+                }
+                else if (dictionaryEncoded) {
+                    ids.writeInt(dictionaryIds.get(values[i]));
+                }
+                else {
+                    writeValue(writer, typeName, values[i]);
+                }
+            }
+
+            Slice data;
+            if (dictionaryEncoded) {
+                data = toSlice(BytesInput.concat(BytesInput.from(new byte[] {(byte) idBitWidth}), ids.toBytes()));
+            }
+            else {
+                data = toSlice(writer.getBytes());
+            }
+            Slice definitionLevels = isNull == null ? EMPTY_SLICE : toSlice(levels.toBytes());
+
+            int valueCount = end - start;
+            if (dataPageV2) {
+                pages.add(new DataPageV2(
+                        valueCount,
+                        nullCount,
+                        valueCount,
+                        EMPTY_SLICE,
+                        definitionLevels,
+                        dictionaryEncoded ? RLE_DICTIONARY : encoding,
+                        data,
+                        data.length() + definitionLevels.length(),
+                        null,
+                        false));
+            }
+            else {
+                BytesInput pageBytes = BytesInput.from(data.getBytes());
+                if (isNull != null) {
+                    pageBytes = BytesInput.concat(BytesInput.fromInt(definitionLevels.length()), BytesInput.from(definitionLevels.getBytes()), pageBytes);
+                }
+                Slice slice = toSlice(pageBytes);
+                pages.add(new DataPageV1(slice, valueCount, slice.length(), RLE, RLE, dictionaryEncoded ? PLAIN_DICTIONARY : encoding));
+            }
+        }
+        DictionaryPage finalDictionaryPage = dictionaryPage;
+        return () -> new PageReader(UNCOMPRESSED, pages, finalDictionaryPage);
+    }
+
+    private static ValuesWriter createPlainWriter()
+    {
+        return new PlainValuesWriter(1024, MAX_PAGE_SIZE, HeapByteBufferAllocator.getInstance());
+    }
+
+    private static ValuesWriter createDeltaWriter(PrimitiveTypeName typeName)
+    {
+        switch (typeName) {
+            case INT32:
+                return new DeltaBinaryPackingValuesWriterForInteger(1024, MAX_PAGE_SIZE, HeapByteBufferAllocator.getInstance());
+            case INT64:
+                return new DeltaBinaryPackingValuesWriterForLong(1024, MAX_PAGE_SIZE, HeapByteBufferAllocator.getInstance());
+            default:
+                throw new IllegalArgumentException("DELTA_BINARY_PACKED is not supported for " + typeName);
+        }
+    }
+
+    private static void writeValue(ValuesWriter writer, PrimitiveTypeName typeName, long value)
+    {
+        switch (typeName) {
+            case INT32:
+                writer.writeInteger(toIntExact(value));
+                return;
+            case INT64:
+                writer.writeLong(value);
+                return;
+            case FLOAT:
+                writer.writeFloat(intBitsToFloat(toIntExact(value)));
+                return;
+            case DOUBLE:
+                writer.writeDouble(longBitsToDouble(value));
+                return;
+            default:
+                throw new IllegalArgumentException("Unsupported type " + typeName);
+        }
+    }
+
+    private static Slice toSlice(BytesInput bytes)
+            throws IOException
+    {
+        return wrappedBuffer(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+import io.trino.parquet.reader.decoders.DeltaBinaryPackedDecoders.IntDeltaBinaryPackedDecoder;
+import io.trino.parquet.reader.decoders.DeltaBinaryPackedDecoders.LongDeltaBinaryPackedDecoder;
+import io.trino.parquet.reader.decoders.DictionaryValueDecoders.LongDictionaryValueDecoder;
+import io.trino.parquet.reader.decoders.PlainValueDecoders.IntPlainValueDecoder;
+import io.trino.parquet.reader.decoders.PlainValueDecoders.LongPlainValueDecoder;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriterForInteger;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriterForLong;
+import org.apache.parquet.column.values.plain.PlainValuesWriter;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntToLongFunction;
+
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static org.testng.Assert.assertEquals;
+
+public class TestValueDecoders
+{
+    private static final int VALUE_COUNT = 5_000;
+
+    @Test
+    public void testLongPlain()
+            throws IOException
+    {
+        Random random = new Random(1);
+        long[] expected = generateLongs(position -> random.nextLong());
+        ValuesWriter writer = new PlainValuesWriter(1024, 1024 * 1024, HeapByteBufferAllocator.getInstance());
+        for (long value : expected) {
+            writer.writeLong(value);
+        }
+        Slice encoded = toSlice(writer);
+        assertLongDecoder(() -> new LongPlainValueDecoder(encoded), expected);
+    }
+
+    @Test
+    public void testIntPlain()
+            throws IOException
+    {
+        Random random = new Random(2);
+        int[] expected = generateInts(position -> random.nextInt());
+        ValuesWriter writer = new PlainValuesWriter(1024, 1024 * 1024, HeapByteBufferAllocator.getInstance());
+        for (int value : expected) {
+            writer.writeInteger(value);
+        }
+        Slice encoded = toSlice(writer);
+        assertIntDecoder(() -> new IntPlainValueDecoder(encoded), expected);
+    }
+
+    @Test
+    public void testLongDeltaBinaryPacked()
+            throws IOException
+    {
+        Random random = new Random(3);
+        assertLongDeltaBinaryPacked(generateLongs(position -> random.nextLong()));
+        assertLongDeltaBinaryPacked(generateLongs(position -> 1_000_000L + position * 7L + random.nextInt(100)));
+        assertLongDeltaBinaryPacked(generateLongs(position -> 42));
+        assertLongDeltaBinaryPacked(new long[] {Long.MIN_VALUE, Long.MAX_VALUE, 0, Long.MIN_VALUE});
+        assertLongDeltaBinaryPacked(new long[] {17});
+    }
+
+    @Test
+    public void testIntDeltaBinaryPacked()
+            throws IOException
+    {
+        Random random = new Random(4);
+        assertIntDeltaBinaryPacked(generateInts(position -> random.nextInt()));
+        assertIntDeltaBinaryPacked(generateInts(position -> -position * 3 + random.nextInt(10)));
+        assertIntDeltaBinaryPacked(new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE, 0, Integer.MIN_VALUE});
+    }
+
+    @Test
+    public void testRleBitPackingHybrid()
+            throws IOException
+    {
+        Random random = new Random(5);
+        for (int bitWidth = 0; bitWidth <= 32; bitWidth++) {
+            long maxValue = 1L << bitWidth;
+            // alternate long runs of a repeated value and runs of random values, so both run types are produced
+            int[] expected = generateInts(position -> (position / 100) % 2 == 0 ? (int) (maxValue - 1) : (int) (random.nextLong() & (maxValue - 1)));
+            RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(bitWidth, 1024, 1024 * 1024, HeapByteBufferAllocator.getInstance());
+            for (int value : expected) {
+                encoder.writeInt(value);
+            }
+            Slice encoded = wrappedBuffer(encoder.toBytes().toByteArray());
+            int width = bitWidth;
+            assertIntDecoder(() -> new RleBitPackingHybridDecoder(encoded, width), expected);
+        }
+    }
+
+    @Test
+    public void testLongDictionary()
+            throws IOException
+    {
+        long[] dictionary = {7, -3, Long.MAX_VALUE, 0, 123_456_789};
+        Random random = new Random(6);
+        int[] ids = generateInts(position -> random.nextInt(dictionary.length));
+        RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(3, 1024, 1024 * 1024, HeapByteBufferAllocator.getInstance());
+        for (int id : ids) {
+            encoder.writeInt(id);
+        }
+        byte[] encodedIds = encoder.toBytes().toByteArray();
+        byte[] page = new byte[encodedIds.length + 1];
+        page[0] = 3;
+        System.arraycopy(encodedIds, 0, page, 1, encodedIds.length);
+
+        long[] expected = Arrays.stream(ids).mapToLong(id -> dictionary[id]).toArray();
+        assertLongDecoder(() -> new LongDictionaryValueDecoder(wrappedBuffer(page), dictionary), expected);
+    }
+
+    private static void assertLongDeltaBinaryPacked(long[] expected)
+            throws IOException
+    {
+        ValuesWriter writer = new DeltaBinaryPackingValuesWriterForLong(1024, 1024 * 1024, HeapByteBufferAllocator.getInstance());
+        for (long value : expected) {
+            writer.writeLong(value);
+        }
+        Slice encoded = toSlice(writer);
+        assertLongDecoder(() -> new LongDeltaBinaryPackedDecoder(encoded), expected);
+    }
+
+    private static void assertIntDeltaBinaryPacked(int[] expected)
+            throws IOException
+    {
+        ValuesWriter writer = new DeltaBinaryPackingValuesWriterForInteger(1024, 1024 * 1024, HeapByteBufferAllocator.getInstance());
+        for (int value : expected) {
+            writer.writeInteger(value);
+        }
+        Slice encoded = toSlice(writer);
+        assertIntDecoder(() -> new IntDeltaBinaryPackedDecoder(encoded), expected);
+    }
+
+    private static void assertLongDecoder(DecoderFactory<long[]> decoderFactory, long[] expected)
+    {
+        // read everything at once
+        long[] actual = new long[expected.length];
+        decoderFactory.create().read(actual, 0, expected.length);
+        assertEquals(actual, expected);
+
+        // read and skip in uneven chunks
+        ValueDecoder<long[]> decoder = decoderFactory.create();
+        actual = new long[expected.length + 3];
+        int position = 0;
+        int chunk = 1;
+        while (position < expected.length) {
+            int length = Math.min(chunk, expected.length - position);
+            if (chunk % 3 == 0) {
+                decoder.skip(length);
+            }
+            else {
+                decoder.read(actual, 3, length);
+                assertEquals(Arrays.copyOfRange(actual, 3, 3 + length), Arrays.copyOfRange(expected, position, position + length));
+            }
+            position += length;
+            chunk = chunk * 2 + 1;
+        }
+    }
+
+    private static void assertIntDecoder(DecoderFactory<int[]> decoderFactory, int[] expected)
+    {
+        int[] actual = new int[expected.length];
+        decoderFactory.create().read(actual, 0, expected.length);
+        assertEquals(actual, expected);
+
+        ValueDecoder<int[]> decoder = decoderFactory.create();
+        actual = new int[expected.length + 3];
+        int position = 0;
+        int chunk = 1;
+        while (position < expected.length) {
+            int length = Math.min(chunk, expected.length - position);
+            if (chunk % 3 == 0) {
+                decoder.skip(length);
+            }
+            else {
+                decoder.read(actual, 3, length);
+                assertEquals(Arrays.copyOfRange(actual, 3, 3 + length), Arrays.copyOfRange(expected, position, position + length));
+            }
+            position += length;
+            chunk = chunk * 2 + 1;
+        }
+    }
+
+    private static long[] generateLongs(IntToLongFunction generator)
+    {
+        long[] values = new long[VALUE_COUNT];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = generator.applyAsLong(i);
+        }
+        return values;
+    }
+
+    private static int[] generateInts(IntToLongFunction generator)
+    {
+        int[] values = new int[VALUE_COUNT];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (int) generator.applyAsLong(i);
+        }
+        return values;
+    }
+
+    private static Slice toSlice(ValuesWriter writer)
+            throws IOException
+    {
+        return wrappedBuffer(writer.getBytes().toByteArray());
+    }
+
+    private interface DecoderFactory<T>
+    {
+        ValueDecoder<T> create();
+    }
+}
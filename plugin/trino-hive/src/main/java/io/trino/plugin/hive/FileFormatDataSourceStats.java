@@ -13,6 +13,7 @@
  */
 package io.trino.plugin.hive;
 
+import io.airlift.stats.CounterStat;
 import io.airlift.stats.DistributionStat;
 import io.airlift.stats.TimeStat;
 import org.weakref.jmx.Managed;
@@ -29,6 +30,7 @@ public class FileFormatDataSourceStats
     private final TimeStat time100KBto1MB = new TimeStat(MILLISECONDS);
     private final TimeStat time1MBto10MB = new TimeStat(MILLISECONDS);
     private final TimeStat time10MBPlus = new TimeStat(MILLISECONDS);
+    private final CounterStat bloomFilterPrunedRowGroups = new CounterStat();
 
     @Managed
     @Nested
@@ -72,6 +74,13 @@ public class FileFormatDataSourceStats
         return time10MBPlus;
     }
 
+    @Managed
+    @Nested
+    public CounterStat getBloomFilterPrunedRowGroups()
+    {
+        return bloomFilterPrunedRowGroups;
+    }
+
     public void readDataBytesPerSecond(long bytes, long nanos)
     {
         readBytes.add(bytes);
@@ -93,4 +102,9 @@ public class FileFormatDataSourceStats
     {
         maxCombinedBytesPerRow.add(bytes);
     }
+
+    public void addBloomFilterPrunedRowGroups(long count)
+    {
+        bloomFilterPrunedRowGroups.update(count);
+    }
 }
@@ -40,40 +40,68 @@ public class HiveSplit
     private final long length;
     private final long estimatedFileSize;
     private final long fileModifiedTime;
-    private final Properties schema;
-    private final List<HivePartitionKey> partitionKeys;
+    private final HiveSplitPartitionInfo partitionInfo;
     private final List<HostAddress> addresses;
     private final String database;
     private final String table;
-    private final String partitionName;
     private final OptionalInt bucketNumber;
     private final int statementId;
     private final boolean forceLocalScheduling;
-    private final TableToPartitionMapping tableToPartitionMapping;
-    private final Optional<BucketConversion> bucketConversion;
-    private final Optional<BucketValidation> bucketValidation;
     private final boolean s3SelectPushdownEnabled;
     private final Optional<AcidInfo> acidInfo;
 
+    public HiveSplit(
+            String database,
+            String table,
+            String partitionName,
+            String path,
+            long start,
+            long length,
+            long estimatedFileSize,
+            long fileModifiedTime,
+            Properties schema,
+            List<HivePartitionKey> partitionKeys,
+            List<HostAddress> addresses,
+            OptionalInt bucketNumber,
+            int statementId,
+            boolean forceLocalScheduling,
+            TableToPartitionMapping tableToPartitionMapping,
+            Optional<BucketConversion> bucketConversion,
+            Optional<BucketValidation> bucketValidation,
+            boolean s3SelectPushdownEnabled,
+            Optional<AcidInfo> acidInfo)
+    {
+        this(
+                database,
+                table,
+                path,
+                start,
+                length,
+                estimatedFileSize,
+                fileModifiedTime,
+                new HiveSplitPartitionInfo(partitionName, schema, partitionKeys, tableToPartitionMapping, bucketConversion, bucketValidation),
+                addresses,
+                bucketNumber,
+                statementId,
+                forceLocalScheduling,
+                s3SelectPushdownEnabled,
+                acidInfo);
+    }
+
     @JsonCreator
     public HiveSplit(
             @JsonProperty("database") String database,
             @JsonProperty("table") String table,
-            @JsonProperty("partitionName") String partitionName,
             @JsonProperty("path") String path,
             @JsonProperty("start") long start,
             @JsonProperty("length") long length,
             @JsonProperty("estimatedFileSize") long estimatedFileSize,
             @JsonProperty("fileModifiedTime") long fileModifiedTime,
-            @JsonProperty("schema") Properties schema,
-            @JsonProperty("partitionKeys") List<HivePartitionKey> partitionKeys,
+            @JsonProperty("partitionInfo") HiveSplitPartitionInfo partitionInfo,
             @JsonProperty("addresses") List<HostAddress> addresses,
             @JsonProperty("bucketNumber") OptionalInt bucketNumber,
             @JsonProperty("statementId") int statementId,
             @JsonProperty("forceLocalScheduling") boolean forceLocalScheduling,
-            @JsonProperty("tableToPartitionMapping") TableToPartitionMapping tableToPartitionMapping,
-            @JsonProperty("bucketConversion") Optional<BucketConversion> bucketConversion,
-            @JsonProperty("bucketValidation") Optional<BucketValidation> bucketValidation,
             @JsonProperty("s3SelectPushdownEnabled") boolean s3SelectPushdownEnabled,
             @JsonProperty("acidInfo") Optional<AcidInfo> acidInfo)
     {
@@ -82,34 +110,24 @@ public class HiveSplit
         checkArgument(estimatedFileSize >= 0, "estimatedFileSize must be positive");
         requireNonNull(database, "database is null");
         requireNonNull(table, "table is null");
-        requireNonNull(partitionName, "partitionName is null");
         requireNonNull(path, "path is null");
-        requireNonNull(schema, "schema is null");
-        requireNonNull(partitionKeys, "partitionKeys is null");
+        requireNonNull(partitionInfo, "partitionInfo is null");
         requireNonNull(addresses, "addresses is null");
         requireNonNull(bucketNumber, "bucketNumber is null");
-        requireNonNull(tableToPartitionMapping, "tableToPartitionMapping is null");
-        requireNonNull(bucketConversion, "bucketConversion is null");
-        requireNonNull(bucketValidation, "bucketValidation is null");
         requireNonNull(acidInfo, "acidInfo is null");
 
         this.database = database;
         this.table = table;
-        this.partitionName = partitionName;
         this.path = path;
         this.start = start;
         this.length = length;
         this.estimatedFileSize = estimatedFileSize;
         this.fileModifiedTime = fileModifiedTime;
-        this.schema = schema;
-        this.partitionKeys = ImmutableList.copyOf(partitionKeys);
+        this.partitionInfo = partitionInfo;
         this.addresses = ImmutableList.copyOf(addresses);
         this.bucketNumber = bucketNumber;
         this.statementId = statementId;
         this.forceLocalScheduling = forceLocalScheduling;
-        this.tableToPartitionMapping = tableToPartitionMapping;
-        this.bucketConversion = bucketConversion;
-        this.bucketValidation = bucketValidation;
         this.s3SelectPushdownEnabled = s3SelectPushdownEnabled;
         this.acidInfo = acidInfo;
     }
@@ -126,10 +144,9 @@ public class HiveSplit
         return table;
     }
 
-    @JsonProperty
     public String getPartitionName()
     {
-        return partitionName;
+        return partitionInfo.getPartitionName();
     }
 
     @JsonProperty
@@ -163,15 +180,19 @@ public class HiveSplit
     }
 
     @JsonProperty
+    public HiveSplitPartitionInfo getPartitionInfo()
+    {
+        return partitionInfo;
+    }
+
     public Properties getSchema()
     {
-        return schema;
+        return partitionInfo.getSchema();
     }
 
-    @JsonProperty
     public List<HivePartitionKey> getPartitionKeys()
     {
-        return partitionKeys;
+        return partitionInfo.getPartitionKeys();
     }
 
     @JsonProperty
@@ -199,22 +220,19 @@ public class HiveSplit
         return forceLocalScheduling;
     }
 
-    @JsonProperty
     public TableToPartitionMapping getTableToPartitionMapping()
     {
-        return tableToPartitionMapping;
+        return partitionInfo.getTableToPartitionMapping();
     }
 
-    @JsonProperty
     public Optional<BucketConversion> getBucketConversion()
     {
-        return bucketConversion;
+        return partitionInfo.getBucketConversion();
     }
 
-    @JsonProperty
     public Optional<BucketValidation> getBucketValidation()
     {
-        return bucketValidation;
+        return partitionInfo.getBucketValidation();
     }
 
     @Override
@@ -247,8 +265,8 @@ public class HiveSplit
                 .put("database", database)
                 .put("table", table)
                 .put("forceLocalScheduling", forceLocalScheduling)
-                .put("partitionName", partitionName)
-                .put("deserializerClassName", getDeserializerClassName(schema))
+                .put("partitionName", partitionInfo.getPartitionName())
+                .put("deserializerClassName", getDeserializerClassName(partitionInfo.getSchema()))
                 .put("s3SelectPushdownEnabled", s3SelectPushdownEnabled)
                 .build();
     }
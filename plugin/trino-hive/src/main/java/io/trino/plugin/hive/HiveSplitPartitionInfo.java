@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.google.common.collect.ImmutableList;
+import io.trino.plugin.hive.HiveSplit.BucketConversion;
+import io.trino.plugin.hive.HiveSplit.BucketValidation;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Split properties shared by all splits of a partition. A single instance is
+ * shared by the splits of a partition, so that it is serialized only once per
+ * task update request and referenced by id from the remaining splits.
+ */
+@JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class)
+public class HiveSplitPartitionInfo
+{
+    private final String partitionName;
+    private final Properties schema;
+    private final List<HivePartitionKey> partitionKeys;
+    private final TableToPartitionMapping tableToPartitionMapping;
+    private final Optional<BucketConversion> bucketConversion;
+    private final Optional<BucketValidation> bucketValidation;
+
+    @JsonCreator
+    public HiveSplitPartitionInfo(
+            @JsonProperty("partitionName") String partitionName,
+            @JsonProperty("schema") Properties schema,
+            @JsonProperty("partitionKeys") List<HivePartitionKey> partitionKeys,
+            @JsonProperty("tableToPartitionMapping") TableToPartitionMapping tableToPartitionMapping,
+            @JsonProperty("bucketConversion") Optional<BucketConversion> bucketConversion,
+            @JsonProperty("bucketValidation") Optional<BucketValidation> bucketValidation)
+    {
+        this.partitionName = requireNonNull(partitionName, "partitionName is null");
+        this.schema = requireNonNull(schema, "schema is null");
+        this.partitionKeys = ImmutableList.copyOf(requireNonNull(partitionKeys, "partitionKeys is null"));
+        this.tableToPartitionMapping = requireNonNull(tableToPartitionMapping, "tableToPartitionMapping is null");
+        this.bucketConversion = requireNonNull(bucketConversion, "bucketConversion is null");
+        this.bucketValidation = requireNonNull(bucketValidation, "bucketValidation is null");
+    }
+
+    @JsonProperty
+    public String getPartitionName()
+    {
+        return partitionName;
+    }
+
+    @JsonProperty
+    public Properties getSchema()
+    {
+        return schema;
+    }
+
+    @JsonProperty
+    public List<HivePartitionKey> getPartitionKeys()
+    {
+        return partitionKeys;
+    }
+
+    @JsonProperty
+    public TableToPartitionMapping getTableToPartitionMapping()
+    {
+        return tableToPartitionMapping;
+    }
+
+    @JsonProperty
+    public Optional<BucketConversion> getBucketConversion()
+    {
+        return bucketConversion;
+    }
+
+    @JsonProperty
+    public Optional<BucketValidation> getBucketValidation()
+    {
+        return bucketValidation;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("partitionName", partitionName)
+                .add("partitionKeys", partitionKeys)
+                .toString();
+    }
+}
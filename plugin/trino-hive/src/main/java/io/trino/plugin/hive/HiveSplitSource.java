@@ -365,21 +365,16 @@ class HiveSplitSource
                 resultBuilder.add(new HiveSplit(
                         databaseName,
                         tableName,
-                        internalSplit.getPartitionName(),
                         internalSplit.getPath(),
                         internalSplit.getStart(),
                         splitBytes,
                         internalSplit.getEstimatedFileSize(),
                         internalSplit.getFileModifiedTime(),
-                        internalSplit.getSchema(),
-                        internalSplit.getPartitionKeys(),
+                        internalSplit.getPartitionInfo(),
                         block.getAddresses(),
                         internalSplit.getBucketNumber(),
                         internalSplit.getStatementId(),
                         internalSplit.isForceLocalScheduling(),
-                        internalSplit.getTableToPartitionMapping(),
-                        internalSplit.getBucketConversion(),
-                        internalSplit.getBucketValidation(),
                         internalSplit.isS3SelectPushdownEnabled(),
                         internalSplit.getAcidInfo()));
 
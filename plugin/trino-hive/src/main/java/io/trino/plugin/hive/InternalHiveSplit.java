@@ -47,17 +47,12 @@ public class InternalHiveSplit
     private final long end;
     private final long estimatedFileSize;
     private final long fileModifiedTime;
-    private final Properties schema;
-    private final List<HivePartitionKey> partitionKeys;
+    private final HiveSplitPartitionInfo partitionInfo;
     private final List<InternalHiveBlock> blocks;
-    private final String partitionName;
     private final OptionalInt bucketNumber;
     private final int statementId;
     private final boolean splittable;
     private final boolean forceLocalScheduling;
-    private final TableToPartitionMapping tableToPartitionMapping;
-    private final Optional<BucketConversion> bucketConversion;
-    private final Optional<BucketValidation> bucketValidation;
     private final boolean s3SelectPushdownEnabled;
     private final Optional<AcidInfo> acidInfo;
 
@@ -65,55 +60,40 @@ public class InternalHiveSplit
     private int currentBlockIndex;
 
     public InternalHiveSplit(
-            String partitionName,
             String path,
             long start,
             long end,
             long estimatedFileSize,
             long fileModifiedTime,
-            Properties schema,
-            List<HivePartitionKey> partitionKeys,
+            HiveSplitPartitionInfo partitionInfo,
             List<InternalHiveBlock> blocks,
             OptionalInt bucketNumber,
             int statementId,
             boolean splittable,
             boolean forceLocalScheduling,
-            TableToPartitionMapping tableToPartitionMapping,
-            Optional<BucketConversion> bucketConversion,
-            Optional<BucketValidation> bucketValidation,
             boolean s3SelectPushdownEnabled,
             Optional<AcidInfo> acidInfo)
     {
         checkArgument(start >= 0, "start must be positive");
         checkArgument(end >= 0, "length must be positive");
         checkArgument(estimatedFileSize >= 0, "fileSize must be positive");
-        requireNonNull(partitionName, "partitionName is null");
         requireNonNull(path, "path is null");
-        requireNonNull(schema, "schema is null");
-        requireNonNull(partitionKeys, "partitionKeys is null");
+        requireNonNull(partitionInfo, "partitionInfo is null");
         requireNonNull(blocks, "blocks is null");
         requireNonNull(bucketNumber, "bucketNumber is null");
-        requireNonNull(tableToPartitionMapping, "tableToPartitionMapping is null");
-        requireNonNull(bucketConversion, "bucketConversion is null");
-        requireNonNull(bucketValidation, "bucketValidation is null");
         requireNonNull(acidInfo, "acidInfo is null");
 
-        this.partitionName = partitionName;
         this.path = path;
         this.start = start;
         this.end = end;
         this.estimatedFileSize = estimatedFileSize;
         this.fileModifiedTime = fileModifiedTime;
-        this.schema = schema;
-        this.partitionKeys = ImmutableList.copyOf(partitionKeys);
+        this.partitionInfo = partitionInfo;
         this.blocks = ImmutableList.copyOf(blocks);
         this.bucketNumber = bucketNumber;
         this.statementId = statementId;
         this.splittable = splittable;
         this.forceLocalScheduling = forceLocalScheduling;
-        this.tableToPartitionMapping = tableToPartitionMapping;
-        this.bucketConversion = bucketConversion;
-        this.bucketValidation = bucketValidation;
         this.s3SelectPushdownEnabled = s3SelectPushdownEnabled;
         this.acidInfo = acidInfo;
     }
@@ -148,19 +128,24 @@ public class InternalHiveSplit
         return s3SelectPushdownEnabled;
     }
 
+    public HiveSplitPartitionInfo getPartitionInfo()
+    {
+        return partitionInfo;
+    }
+
     public Properties getSchema()
     {
-        return schema;
+        return partitionInfo.getSchema();
     }
 
     public List<HivePartitionKey> getPartitionKeys()
     {
-        return partitionKeys;
+        return partitionInfo.getPartitionKeys();
     }
 
     public String getPartitionName()
     {
-        return partitionName;
+        return partitionInfo.getPartitionName();
     }
 
     public OptionalInt getBucketNumber()
@@ -185,17 +170,17 @@ public class InternalHiveSplit
 
     public TableToPartitionMapping getTableToPartitionMapping()
     {
-        return tableToPartitionMapping;
+        return partitionInfo.getTableToPartitionMapping();
     }
 
     public Optional<BucketConversion> getBucketConversion()
     {
-        return bucketConversion;
+        return partitionInfo.getBucketConversion();
     }
 
     public Optional<BucketValidation> getBucketValidation()
     {
-        return bucketValidation;
+        return partitionInfo.getBucketValidation();
     }
 
     public InternalHiveBlock currentBlock()
@@ -225,10 +210,10 @@ public class InternalHiveSplit
     {
         long result = INSTANCE_SIZE +
                 estimatedSizeOf(path) +
-                estimatedSizeOf(partitionKeys, HivePartitionKey::getEstimatedSizeInBytes) +
+                estimatedSizeOf(partitionInfo.getPartitionKeys(), HivePartitionKey::getEstimatedSizeInBytes) +
                 estimatedSizeOf(blocks, InternalHiveBlock::getEstimatedSizeInBytes) +
-                estimatedSizeOf(partitionName) +
-                tableToPartitionMapping.getEstimatedSizeInBytes();
+                estimatedSizeOf(partitionInfo.getPartitionName()) +
+                partitionInfo.getTableToPartitionMapping().getEstimatedSizeInBytes();
         return toIntExact(result);
     }
 
@@ -13,6 +13,8 @@
  */
 package io.trino.plugin.hive.parquet;
 
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
 import io.trino.parquet.writer.ParquetSchemaConverter;
 import io.trino.parquet.writer.ParquetWriterOptions;
 import io.trino.plugin.hive.FileWriter;
@@ -40,9 +42,11 @@ import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 import static io.trino.plugin.hive.HiveErrorCode.HIVE_WRITER_OPEN_ERROR;
+import static io.trino.plugin.hive.HiveMetadata.PARQUET_BLOOM_FILTER_COLUMNS_KEY;
 import static io.trino.plugin.hive.HiveSessionProperties.getTimestampPrecision;
 import static io.trino.plugin.hive.util.HiveUtil.getColumnNames;
 import static io.trino.plugin.hive.util.HiveUtil.getColumnTypes;
@@ -88,6 +92,7 @@ public class ParquetFileWriterFactory
         ParquetWriterOptions parquetWriterOptions = ParquetWriterOptions.builder()
                 .setMaxPageSize(HiveSessionProperties.getParquetWriterPageSize(session))
                 .setMaxBlockSize(HiveSessionProperties.getParquetWriterBlockSize(session))
+                .setBloomFilterColumns(getBloomFilterColumns(schema))
                 .build();
 
         CompressionCodecName compressionCodecName = getCompression(conf);
@@ -126,6 +131,15 @@ public class ParquetFileWriterFactory
         }
     }
 
+    private static Set<String> getBloomFilterColumns(Properties schema)
+    {
+        String bloomFilterColumns = schema.getProperty(PARQUET_BLOOM_FILTER_COLUMNS_KEY);
+        if (bloomFilterColumns == null) {
+            return ImmutableSet.of();
+        }
+        return ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings().split(bloomFilterColumns));
+    }
+
     private static CompressionCodecName getCompression(JobConf configuration)
     {
         String compressionName = configuration.get(ParquetOutputFormat.COMPRESSION);
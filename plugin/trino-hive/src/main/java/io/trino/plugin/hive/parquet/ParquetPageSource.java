@@ -26,10 +26,16 @@ import io.trino.spi.block.LazyBlockLoader;
 import io.trino.spi.block.LongArrayBlock;
 import io.trino.spi.block.RunLengthEncodedBlock;
 import io.trino.spi.connector.ConnectorPageSource;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.Range;
+import io.trino.spi.type.DecimalType;
 import io.trino.spi.type.Type;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +43,12 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static io.trino.plugin.hive.HiveErrorCode.HIVE_BAD_DATA;
 import static io.trino.plugin.hive.HiveErrorCode.HIVE_CURSOR_ERROR;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.SmallintType.SMALLINT;
+import static io.trino.spi.type.TinyintType.TINYINT;
+import static io.trino.spi.type.TypeUtils.readNativeValue;
 import static java.lang.String.format;
 import static java.util.Collections.nCopies;
 import static java.util.Objects.requireNonNull;
@@ -52,6 +64,10 @@ public class ParquetPageSource
      * indices of its rows
      */
     private final List<Boolean> rowIndexLocations;
+    /**
+     * Filters of the columns rows are filtered on before the other columns are read
+     */
+    private final List<Optional<ValueFilter>> filters;
 
     private int batchId;
     private boolean closed;
@@ -61,34 +77,60 @@ public class ParquetPageSource
         this(parquetReader, types, nCopies(types.size(), false), fields);
     }
 
+    public ParquetPageSource(
+            ParquetReader parquetReader,
+            List<Type> types,
+            List<Boolean> rowIndexLocations,
+            List<Optional<Field>> fields)
+    {
+        this(parquetReader, types, rowIndexLocations, fields, nCopies(types.size(), Optional.empty()));
+    }
+
     /**
      * @param types Column types
      * @param rowIndexLocations Whether each column should be populated with the indices of its rows
      * @param fields List of field descriptions. Empty optionals will result in columns populated with {@code NULL}
+     * @param filterDomains Domains the values of each column must be in. Columns with a domain are read first,
+     * and the other columns are only read for the rows with values in all the domains
      */
     public ParquetPageSource(
             ParquetReader parquetReader,
             List<Type> types,
             List<Boolean> rowIndexLocations,
-            List<Optional<Field>> fields)
+            List<Optional<Field>> fields,
+            List<Optional<Domain>> filterDomains)
     {
         this.parquetReader = requireNonNull(parquetReader, "parquetReader is null");
         this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
         this.rowIndexLocations = requireNonNull(rowIndexLocations, "rowIndexLocations is null");
         this.fields = ImmutableList.copyOf(requireNonNull(fields, "fields is null"));
+        requireNonNull(filterDomains, "filterDomains is null");
 
-        // TODO: Instead of checking that the three list arguments go together correctly,
+        // TODO: Instead of checking that the list arguments go together correctly,
         //   we should do something like the ORC reader's ColumnAdatpation, using
         //   subclasses that contain only the necessary information for each column.
         checkArgument(
-                types.size() == rowIndexLocations.size() && types.size() == fields.size(),
-                "types, rowIndexLocations, and fields must correspond one-to-one-to-one");
+                types.size() == rowIndexLocations.size() && types.size() == fields.size() && types.size() == filterDomains.size(),
+                "types, rowIndexLocations, fields, and filterDomains must correspond one-to-one");
         Streams.forEachPair(
                 rowIndexLocations.stream(),
                 fields.stream(),
                 (isIndexColumn, field) -> checkArgument(
                         !(isIndexColumn && field.isPresent()),
                         "Field info for row index column must be empty Optional"));
+        Streams.forEachPair(
+                fields.stream(),
+                filterDomains.stream(),
+                (field, domain) -> checkArgument(
+                        field.isPresent() || domain.isEmpty(),
+                        "Filter domain requires field info"));
+
+        ImmutableList.Builder<Optional<ValueFilter>> filters = ImmutableList.builder();
+        for (int column = 0; column < types.size(); column++) {
+            Type type = types.get(column);
+            filters.add(filterDomains.get(column).map(domain -> createValueFilter(type, domain)));
+        }
+        this.filters = filters.build();
     }
 
     private boolean isIndexColumn(int column)
@@ -124,27 +166,20 @@ public class ParquetPageSource
     public Page getNextPage()
     {
         try {
-            batchId++;
-            int batchSize = parquetReader.nextBatch();
+            while (true) {
+                batchId++;
+                int batchSize = parquetReader.nextBatch();
 
-            if (closed || batchSize <= 0) {
-                close();
-                return null;
-            }
-
-            Block[] blocks = new Block[fields.size()];
-            for (int column = 0; column < blocks.length; column++) {
-                if (isIndexColumn(column)) {
-                    blocks[column] = getRowIndexColumn(parquetReader.lastBatchStartRow(), batchSize);
+                if (closed || batchSize <= 0) {
+                    close();
+                    return null;
                 }
-                else {
-                    Type type = types.get(column);
-                    blocks[column] = fields.get(column)
-                            .<Block>map(field -> new LazyBlock(batchSize, new ParquetBlockLoader(field)))
-                            .orElseGet(() -> RunLengthEncodedBlock.create(type, null, batchSize));
+
+                Page page = readPage(batchSize);
+                if (page != null) {
+                    return page;
                 }
             }
-            return new Page(batchSize, blocks);
         }
         catch (TrinoException e) {
             closeWithSuppression(e);
@@ -156,6 +191,114 @@ public class ParquetPageSource
         }
     }
 
+    /**
+     * Returns the rows of the batch with values in the filter domains, or null if there are none
+     */
+    private Page readPage(int batchSize)
+    {
+        Block[] blocks = new Block[fields.size()];
+
+        // the filter columns are read first, each only for the rows matching the previous filters
+        int[] positions = null;
+        int positionCount = batchSize;
+        int[][] readPositions = new int[fields.size()][];
+        int[] readPositionCounts = new int[fields.size()];
+        for (int column = 0; column < blocks.length; column++) {
+            if (filters.get(column).isEmpty()) {
+                continue;
+            }
+            Block block = readBlock(fields.get(column).get(), positions, positionCount);
+            blocks[column] = block;
+            readPositions[column] = positions;
+            readPositionCounts[column] = positionCount;
+
+            ValueFilter filter = filters.get(column).get();
+            int[] matchingPositions = new int[positionCount];
+            int matchingPositionCount = 0;
+            for (int index = 0; index < positionCount; index++) {
+                if (filter.matches(block, index)) {
+                    matchingPositions[matchingPositionCount] = positions == null ? index : positions[index];
+                    matchingPositionCount++;
+                }
+            }
+            if (matchingPositionCount == 0) {
+                return null;
+            }
+            if (matchingPositionCount < positionCount) {
+                positions = matchingPositions;
+                positionCount = matchingPositionCount;
+            }
+        }
+
+        for (int column = 0; column < blocks.length; column++) {
+            if (blocks[column] != null) {
+                blocks[column] = selectPositions(blocks[column], readPositions[column], readPositionCounts[column], positions, positionCount);
+            }
+            else if (isIndexColumn(column)) {
+                blocks[column] = getRowIndexColumn(parquetReader.lastBatchStartRow(), positions, positionCount);
+            }
+            else {
+                Type type = types.get(column);
+                int[] selectedPositions = positions;
+                int selectedPositionCount = positionCount;
+                blocks[column] = fields.get(column)
+                        .<Block>map(field -> new LazyBlock(selectedPositionCount, new ParquetBlockLoader(field, selectedPositions, selectedPositionCount)))
+                        .orElseGet(() -> RunLengthEncodedBlock.create(type, null, selectedPositionCount));
+            }
+        }
+        return new Page(positionCount, blocks);
+    }
+
+    private static ValueFilter createValueFilter(Type type, Domain domain)
+    {
+        if (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT) || type.equals(DATE) ||
+                (type instanceof DecimalType && ((DecimalType) type).isShort())) {
+            return new LongRangesFilter(type, domain);
+        }
+        return (block, position) -> domain.includesNullableValue(readNativeValue(type, block, position));
+    }
+
+    /**
+     * Selects the positions of a block read for a superset of the positions
+     */
+    private static Block selectPositions(Block block, @Nullable int[] readPositions, int readPositionCount, int[] positions, int positionCount)
+    {
+        if (readPositionCount == positionCount) {
+            return block;
+        }
+        int[] indexes = new int[positionCount];
+        int blockIndex = 0;
+        for (int index = 0; index < positionCount; index++) {
+            if (readPositions != null) {
+                while (readPositions[blockIndex] != positions[index]) {
+                    blockIndex++;
+                }
+                indexes[index] = blockIndex;
+            }
+            else {
+                indexes[index] = positions[index];
+            }
+        }
+        return block.getPositions(indexes, 0, positionCount);
+    }
+
+    private Block readBlock(Field field, @Nullable int[] positions, int positionCount)
+    {
+        String parquetDataSourceId = parquetReader.getDataSource().getId().toString();
+        try {
+            if (positions == null) {
+                return parquetReader.readBlock(field);
+            }
+            return parquetReader.readBlock(field, positions, positionCount);
+        }
+        catch (ParquetCorruptionException e) {
+            throw new TrinoException(HIVE_BAD_DATA, format("Corrupted parquet data; source=%s; %s", parquetDataSourceId, e.getMessage()), e);
+        }
+        catch (IOException e) {
+            throw new TrinoException(HIVE_CURSOR_ERROR, format("Failed reading parquet data; source= %s; %s", parquetDataSourceId, e.getMessage()), e);
+        }
+    }
+
     private void closeWithSuppression(Throwable throwable)
     {
         requireNonNull(throwable, "throwable is null");
@@ -195,11 +338,19 @@ public class ParquetPageSource
          */
         private final int expectedBatchId = batchId;
         private final Field field;
+        @Nullable
+        private final int[] positions;
+        private final int positionCount;
         private boolean loaded;
 
-        public ParquetBlockLoader(Field field)
+        /**
+         * @param positions positions of the batch to load, or null to load all positions
+         */
+        public ParquetBlockLoader(Field field, @Nullable int[] positions, int positionCount)
         {
             this.field = requireNonNull(field, "field is null");
+            this.positions = positions;
+            this.positionCount = positionCount;
         }
 
         @Override
@@ -208,29 +359,88 @@ public class ParquetPageSource
             checkState(!loaded, "Already loaded");
             checkState(batchId == expectedBatchId, "Inconsistent state; wrong batch");
 
-            Block block;
-            String parquetDataSourceId = parquetReader.getDataSource().getId().toString();
-            try {
-                block = parquetReader.readBlock(field);
-            }
-            catch (ParquetCorruptionException e) {
-                throw new TrinoException(HIVE_BAD_DATA, format("Corrupted parquet data; source=%s; %s", parquetDataSourceId, e.getMessage()), e);
-            }
-            catch (IOException e) {
-                throw new TrinoException(HIVE_CURSOR_ERROR, format("Failed reading parquet data; source= %s; %s", parquetDataSourceId, e.getMessage()), e);
-            }
+            Block block = readBlock(field, positions, positionCount);
 
             loaded = true;
             return block;
         }
     }
 
-    private static Block getRowIndexColumn(long baseIndex, int size)
+    private static Block getRowIndexColumn(long baseIndex, @Nullable int[] positions, int size)
     {
         long[] rowIndices = new long[size];
         for (int position = 0; position < size; position++) {
-            rowIndices[position] = baseIndex + position;
+            rowIndices[position] = baseIndex + (positions == null ? position : positions[position]);
         }
         return new LongArrayBlock(size, Optional.empty(), rowIndices);
     }
+
+    private interface ValueFilter
+    {
+        boolean matches(Block block, int position);
+    }
+
+    /**
+     * Matches the values of types ordered as their long representation with the ranges of a domain, without boxing them
+     */
+    private static final class LongRangesFilter
+            implements ValueFilter
+    {
+        private final Type type;
+        private final boolean nullAllowed;
+        // inclusive bounds of the ranges, in increasing order
+        private final long[] lows;
+        private final long[] highs;
+
+        public LongRangesFilter(Type type, Domain domain)
+        {
+            this.type = requireNonNull(type, "type is null");
+            this.nullAllowed = domain.isNullAllowed();
+
+            List<Range> ranges = domain.getValues().getRanges().getOrderedRanges();
+            long[] lows = new long[ranges.size()];
+            long[] highs = new long[ranges.size()];
+            int rangeCount = 0;
+            for (Range range : ranges) {
+                long low = range.isLowUnbounded() ? Long.MIN_VALUE : (long) range.getLowBoundedValue();
+                long high = range.isHighUnbounded() ? Long.MAX_VALUE : (long) range.getHighBoundedValue();
+                // the values are discrete, so exclusive bounds are replaced with the adjacent inclusive ones
+                if (!range.isLowUnbounded() && !range.isLowInclusive()) {
+                    if (low == Long.MAX_VALUE) {
+                        continue;
+                    }
+                    low++;
+                }
+                if (!range.isHighUnbounded() && !range.isHighInclusive()) {
+                    if (high == Long.MIN_VALUE) {
+                        continue;
+                    }
+                    high--;
+                }
+                if (low <= high) {
+                    lows[rangeCount] = low;
+                    highs[rangeCount] = high;
+                    rangeCount++;
+                }
+            }
+            this.lows = Arrays.copyOf(lows, rangeCount);
+            this.highs = Arrays.copyOf(highs, rangeCount);
+        }
+
+        @Override
+        public boolean matches(Block block, int position)
+        {
+            if (block.isNull(position)) {
+                return nullAllowed;
+            }
+            long value = type.getLong(block, position);
+            int range = Arrays.binarySearch(lows, value);
+            if (range >= 0) {
+                return true;
+            }
+            // the range with the greatest low bound below the value
+            range = -range - 2;
+            return range >= 0 && value <= highs[range];
+        }
+    }
 }
@@ -75,6 +75,7 @@ import static io.trino.parquet.ParquetTypeUtils.getDescriptors;
 import static io.trino.parquet.ParquetTypeUtils.getParquetTypeByName;
 import static io.trino.parquet.ParquetTypeUtils.lookupColumnByName;
 import static io.trino.parquet.predicate.PredicateUtils.buildPredicate;
+import static io.trino.parquet.predicate.PredicateUtils.bloomFilterMatches;
 import static io.trino.parquet.predicate.PredicateUtils.predicateMatches;
 import static io.trino.plugin.hive.HiveColumnHandle.ColumnType.REGULAR;
 import static io.trino.plugin.hive.HiveErrorCode.HIVE_BAD_DATA;
@@ -84,6 +85,9 @@ import static io.trino.plugin.hive.HivePageSourceProvider.projectBaseColumns;
 import static io.trino.plugin.hive.HivePageSourceProvider.projectSufficientColumns;
 import static io.trino.plugin.hive.HiveSessionProperties.getParquetMaxReadBlockSize;
 import static io.trino.plugin.hive.HiveSessionProperties.isParquetIgnoreStatistics;
+import static io.trino.plugin.hive.HiveSessionProperties.isParquetUseBloomFilter;
+import static io.trino.plugin.hive.HiveSessionProperties.isParquetUseColumnIndex;
+import static io.trino.plugin.hive.HiveSessionProperties.isParquetUseLateFilter;
 import static io.trino.plugin.hive.HiveSessionProperties.isUseParquetColumnNames;
 import static io.trino.plugin.hive.parquet.ParquetColumnIOConverter.constructField;
 import static io.trino.plugin.hive.util.HiveUtil.getDeserializerClassName;
@@ -167,7 +171,10 @@ public class ParquetPageSourceFactory
                 timeZone,
                 stats,
                 options.withIgnoreStatistics(isParquetIgnoreStatistics(session))
-                        .withMaxReadBlockSize(getParquetMaxReadBlockSize(session))));
+                        .withMaxReadBlockSize(getParquetMaxReadBlockSize(session))
+                        .withUseColumnIndex(isParquetUseColumnIndex(session))
+                        .withUseBloomFilter(isParquetUseBloomFilter(session))
+                        .withUseLateFilter(isParquetUseLateFilter(session))));
     }
 
     /**
@@ -234,8 +241,13 @@ public class ParquetPageSourceFactory
                 long firstDataPage = block.getColumns().get(0).getFirstDataPageOffset();
                 if (start <= firstDataPage && firstDataPage < start + length
                         && predicateMatches(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain)) {
-                    blocks.add(block);
-                    blockStarts.add(nextStart);
+                    if (options.isUseBloomFilter() && !bloomFilterMatches(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain)) {
+                        stats.addBloomFilterPrunedRowGroups(1);
+                    }
+                    else {
+                        blocks.add(block);
+                        blockStarts.add(nextStart);
+                    }
                 }
                 nextStart += block.getRowCount();
             }
@@ -247,7 +259,8 @@ public class ParquetPageSourceFactory
                     dataSource,
                     timeZone,
                     newSimpleAggregatedMemoryContext(),
-                    options);
+                    options,
+                    Optional.of(parquetPredicate));
         }
         catch (Exception e) {
             try {
@@ -288,18 +301,25 @@ public class ParquetPageSourceFactory
         ImmutableList.Builder<Type> trinoTypes = ImmutableList.builder();
         ImmutableList.Builder<Optional<Field>> internalFields = ImmutableList.builder();
         ImmutableList.Builder<Boolean> rowIndexColumns = ImmutableList.builder();
+        ImmutableList.Builder<Optional<Domain>> filterDomains = ImmutableList.builder();
+        Map<HiveColumnHandle, Domain> predicateDomains = effectivePredicate.getDomains().orElse(ImmutableMap.of());
         for (HiveColumnHandle column : baseColumns) {
             trinoTypes.add(column.getBaseType());
             rowIndexColumns.add(column == PARQUET_ROW_INDEX_COLUMN);
             if (column == PARQUET_ROW_INDEX_COLUMN) {
                 internalFields.add(Optional.empty());
+                filterDomains.add(Optional.empty());
             }
             else {
-                internalFields.add(Optional.ofNullable(getParquetType(column, fileSchema, useColumnNames))
-                        .flatMap(field -> {
+                Optional<Field> field = Optional.ofNullable(getParquetType(column, fileSchema, useColumnNames))
+                        .flatMap(parquetType -> {
                             String columnName = useColumnNames ? column.getBaseColumnName() : fileSchema.getFields().get(column.getBaseHiveColumnIndex()).getName();
                             return constructField(column.getBaseType(), lookupColumnByName(messageColumn, columnName));
-                        }));
+                        });
+                internalFields.add(field);
+                // rows are filtered only on columns read with the type of the predicate
+                filterDomains.add(Optional.ofNullable(predicateDomains.get(column))
+                        .filter(domain -> options.isUseLateFilter() && field.isPresent() && !domain.isAll() && domain.getType().equals(column.getBaseType())));
             }
         }
 
@@ -307,7 +327,8 @@ public class ParquetPageSourceFactory
                 parquetReader,
                 trinoTypes.build(),
                 rowIndexColumns.build(),
-                internalFields.build());
+                internalFields.build(),
+                filterDomains.build());
         return new ReaderPageSource(parquetPageSource, readerProjections);
     }
 
@@ -90,6 +90,58 @@ public class ParquetReaderConfig
         return this;
     }
 
+    public boolean isBatchReaderEnabled()
+    {
+        return options.isBatchReaderEnabled();
+    }
+
+    @Config("parquet.batch-reader.enabled")
+    @ConfigDescription("Decode flat columns of fixed width values in batches instead of one value at a time")
+    public ParquetReaderConfig setBatchReaderEnabled(boolean batchReaderEnabled)
+    {
+        options = options.withBatchReaderEnabled(batchReaderEnabled);
+        return this;
+    }
+
+    public boolean isUseColumnIndex()
+    {
+        return options.isUseColumnIndex();
+    }
+
+    @Config("parquet.use-column-index")
+    @ConfigDescription("Skip pages of row groups using the column index and offset index of Parquet files")
+    public ParquetReaderConfig setUseColumnIndex(boolean useColumnIndex)
+    {
+        options = options.withUseColumnIndex(useColumnIndex);
+        return this;
+    }
+
+    public boolean isUseBloomFilter()
+    {
+        return options.isUseBloomFilter();
+    }
+
+    @Config("parquet.use-bloom-filter")
+    @ConfigDescription("Skip row groups using the Bloom filters of Parquet files")
+    public ParquetReaderConfig setUseBloomFilter(boolean useBloomFilter)
+    {
+        options = options.withUseBloomFilter(useBloomFilter);
+        return this;
+    }
+
+    public boolean isUseLateFilter()
+    {
+        return options.isUseLateFilter();
+    }
+
+    @Config("parquet.use-late-filter")
+    @ConfigDescription("Read the filtered columns first, and drop the rows which do not match the predicate before reading the other columns")
+    public ParquetReaderConfig setUseLateFilter(boolean useLateFilter)
+    {
+        options = options.withUseLateFilter(useLateFilter);
+        return this;
+    }
+
     public ParquetReaderOptions toParquetReaderOptions()
     {
         return options;
@@ -20,6 +20,7 @@ import io.trino.plugin.hive.HiveColumnHandle;
 import io.trino.plugin.hive.HivePartitionKey;
 import io.trino.plugin.hive.HiveSplit;
 import io.trino.plugin.hive.HiveSplit.BucketConversion;
+import io.trino.plugin.hive.HiveSplitPartitionInfo;
 import io.trino.plugin.hive.InternalHiveSplit;
 import io.trino.plugin.hive.InternalHiveSplit.InternalHiveBlock;
 import io.trino.plugin.hive.TableToPartitionMapping;
@@ -68,6 +69,7 @@ public class InternalHiveSplitFactory
     private final BooleanSupplier partitionMatchSupplier;
     private final Optional<BucketConversion> bucketConversion;
     private final Optional<HiveSplit.BucketValidation> bucketValidation;
+    private final HiveSplitPartitionInfo partitionInfo;
     private final long minimumTargetSplitSizeInBytes;
     private final boolean forceLocalScheduling;
     private final boolean s3SelectPushdownEnabled;
@@ -100,6 +102,7 @@ public class InternalHiveSplitFactory
         this.tableToPartitionMapping = requireNonNull(tableToPartitionMapping, "tableToPartitionMapping is null");
         this.bucketConversion = requireNonNull(bucketConversion, "bucketConversion is null");
         this.bucketValidation = requireNonNull(bucketValidation, "bucketValidation is null");
+        this.partitionInfo = new HiveSplitPartitionInfo(partitionName, schema, partitionKeys, tableToPartitionMapping, bucketConversion, bucketValidation);
         this.forceLocalScheduling = forceLocalScheduling;
         this.s3SelectPushdownEnabled = s3SelectPushdownEnabled;
         this.transaction = requireNonNull(transaction, "transaction is null");
@@ -209,22 +212,17 @@ public class InternalHiveSplitFactory
         }
 
         return Optional.of(new InternalHiveSplit(
-                partitionName,
                 pathString,
                 start,
                 start + length,
                 estimatedFileSize,
                 fileModificationTime,
-                schema,
-                partitionKeys,
+                partitionInfo,
                 blocks,
                 bucketNumber,
                 statementId,
                 splittable,
                 forceLocalScheduling && allBlocksHaveAddress(blocks),
-                tableToPartitionMapping,
-                bucketConversion,
-                bucketValidation,
                 s3SelectPushdownEnabled && S3SelectPushdown.isCompressionCodecSupported(inputFormat, path),
                 acidInfo));
     }
@@ -3808,6 +3808,12 @@ public class TestHiveIntegrationSmokeTest
         assertThatThrownBy(() -> assertUpdate("CREATE TABLE invalid_table (col1 bigint) WITH (format = 'TEXTFILE', orc_bloom_filter_columns = ARRAY['col1'])"))
                 .hasMessageMatching("Cannot specify orc_bloom_filter_columns table property for storage format: TEXTFILE");
 
+        // PARQUET
+        assertThatThrownBy(() -> assertUpdate("CREATE TABLE invalid_table (col1 bigint) WITH (format = 'ORC', parquet_bloom_filter_columns = ARRAY['col1'])"))
+                .hasMessageMatching("Cannot specify parquet_bloom_filter_columns table property for storage format: ORC");
+        assertThatThrownBy(() -> assertUpdate("CREATE TABLE invalid_table (col1 bigint) WITH (format = 'PARQUET', parquet_bloom_filter_columns = ARRAY['col1', 'col2'])"))
+                .hasMessageMatching("Parquet Bloom filter columns \\[col2\\] not present in schema");
+
         // TEXTFILE
         assertThatThrownBy(() -> assertUpdate("CREATE TABLE test_orc_skip_header (col1 bigint) WITH (format = 'ORC', skip_header_line_count = 1)"))
                 .hasMessageMatching("Cannot specify skip_header_line_count table property for storage format: ORC");
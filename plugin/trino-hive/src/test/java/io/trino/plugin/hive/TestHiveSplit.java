@@ -26,6 +26,7 @@ import org.apache.hadoop.fs.Path;
 import org.testng.annotations.Test;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Properties;
@@ -35,6 +36,7 @@ import static io.trino.plugin.hive.HiveType.HIVE_LONG;
 import static io.trino.plugin.hive.util.HiveBucketing.BucketingVersion.BUCKETING_V1;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
 public class TestHiveSplit
 {
@@ -102,4 +104,60 @@ public class TestHiveSplit
         assertEquals(actual.isS3SelectPushdownEnabled(), expected.isS3SelectPushdownEnabled());
         assertEquals(actual.getAcidInfo().get(), expected.getAcidInfo().get());
     }
+
+    @Test
+    public void testSharedPartitionInfoJsonRoundTrip()
+    {
+        ObjectMapperProvider objectMapperProvider = new ObjectMapperProvider();
+        objectMapperProvider.setJsonDeserializers(ImmutableMap.of(Type.class, new HiveModule.TypeDeserializer(new TestingTypeManager())));
+        JsonCodec<List<HiveSplit>> codec = new JsonCodecFactory(objectMapperProvider).listJsonCodec(HiveSplit.class);
+
+        Properties schema = new Properties();
+        schema.setProperty("serialization.lib", "org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe");
+        HiveSplitPartitionInfo partitionInfo = new HiveSplitPartitionInfo(
+                "ds=2021-01-01",
+                schema,
+                ImmutableList.of(new HivePartitionKey("ds", "2021-01-01")),
+                TableToPartitionMapping.empty(),
+                Optional.empty(),
+                Optional.empty());
+
+        List<HiveSplit> expected = ImmutableList.of(
+                createSplit("path1", partitionInfo),
+                createSplit("path2", partitionInfo),
+                createSplit("path3", partitionInfo));
+
+        String json = codec.toJson(expected);
+        // the partition info is serialized once and referenced from the other splits
+        assertEquals(json.split("LazySimpleSerDe", -1).length - 1, 1);
+
+        List<HiveSplit> actual = codec.fromJson(json);
+        assertEquals(actual.size(), 3);
+        for (int i = 0; i < actual.size(); i++) {
+            assertEquals(actual.get(i).getPath(), expected.get(i).getPath());
+            assertEquals(actual.get(i).getPartitionName(), "ds=2021-01-01");
+            assertEquals(actual.get(i).getSchema(), schema);
+            assertEquals(actual.get(i).getPartitionKeys(), partitionInfo.getPartitionKeys());
+            assertSame(actual.get(i).getPartitionInfo(), actual.get(0).getPartitionInfo());
+        }
+    }
+
+    private static HiveSplit createSplit(String path, HiveSplitPartitionInfo partitionInfo)
+    {
+        return new HiveSplit(
+                "db",
+                "table",
+                path,
+                0,
+                10,
+                10,
+                0,
+                partitionInfo,
+                ImmutableList.of(),
+                OptionalInt.empty(),
+                0,
+                false,
+                false,
+                Optional.empty());
+    }
 }
@@ -310,22 +310,23 @@ public class TestHiveSplitSource
         private TestSplit(int id, OptionalInt bucketNumber, DataSize fileSize)
         {
             super(
-                    "partition-name",
                     "path",
                     0,
                     fileSize.toBytes(),
                     fileSize.toBytes(),
                     Instant.now().toEpochMilli(),
-                    properties("id", String.valueOf(id)),
-                    ImmutableList.of(),
+                    new HiveSplitPartitionInfo(
+                            "partition-name",
+                            properties("id", String.valueOf(id)),
+                            ImmutableList.of(),
+                            TableToPartitionMapping.empty(),
+                            Optional.empty(),
+                            Optional.empty()),
                     ImmutableList.of(new InternalHiveBlock(0, fileSize.toBytes(), ImmutableList.of())),
                     bucketNumber,
                     0,
                     true,
                     false,
-                    TableToPartitionMapping.empty(),
-                    Optional.empty(),
-                    Optional.empty(),
                     false,
                     Optional.empty());
         }
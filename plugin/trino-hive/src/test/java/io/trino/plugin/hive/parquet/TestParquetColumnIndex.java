@@ -0,0 +1,329 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive.parquet;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import io.trino.parquet.ParquetReaderOptions;
+import io.trino.plugin.hive.FileFormatDataSourceStats;
+import io.trino.plugin.hive.HiveColumnHandle;
+import io.trino.plugin.hive.HiveType;
+import io.trino.plugin.hive.parquet.ParquetTester.TempFile;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.connector.ConnectorPageSource;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.predicate.ValueSet;
+import io.trino.spi.type.ArrayType;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.mapred.JobConf;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.plugin.hive.HiveColumnHandle.ColumnType.REGULAR;
+import static io.trino.plugin.hive.HiveColumnHandle.createBaseColumn;
+import static io.trino.plugin.hive.HiveTestUtils.HDFS_ENVIRONMENT;
+import static io.trino.plugin.hive.HiveType.HIVE_LONG;
+import static io.trino.plugin.hive.HiveType.HIVE_STRING;
+import static io.trino.plugin.hive.parquet.ParquetPageSourceFactory.PARQUET_ROW_INDEX_COLUMN;
+import static io.trino.plugin.hive.parquet.ParquetTester.createTableProperties;
+import static io.trino.plugin.hive.parquet.ParquetTester.writeParquetColumn;
+import static io.trino.spi.predicate.Range.range;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static java.lang.String.format;
+import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory.getStandardListObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory.getStandardStructObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaLongObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaStringObjectInspector;
+import static org.apache.parquet.hadoop.ParquetOutputFormat.COMPRESSION;
+import static org.apache.parquet.hadoop.ParquetOutputFormat.ENABLE_DICTIONARY;
+import static org.apache.parquet.hadoop.ParquetOutputFormat.MIN_ROW_COUNT_FOR_PAGE_SIZE_CHECK;
+import static org.apache.parquet.hadoop.ParquetOutputFormat.PAGE_ROW_COUNT_LIMIT;
+import static org.apache.parquet.hadoop.ParquetOutputFormat.PAGE_SIZE;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.SNAPPY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.joda.time.DateTimeZone.UTC;
+import static org.testng.Assert.assertEquals;
+
+public class TestParquetColumnIndex
+{
+    private static final int ROW_COUNT = 10_000;
+
+    private static final HiveColumnHandle KEY_COLUMN = createBaseColumn("key", 0, HIVE_LONG, BIGINT, REGULAR, Optional.empty());
+    private static final HiveColumnHandle VALUE_COLUMN = createBaseColumn("value", 1, HIVE_STRING, VARCHAR, REGULAR, Optional.empty());
+    private static final HiveColumnHandle CATEGORY_COLUMN = createBaseColumn("category", 2, HIVE_STRING, VARCHAR, REGULAR, Optional.empty());
+    private static final List<HiveColumnHandle> COLUMNS = ImmutableList.of(KEY_COLUMN, VALUE_COLUMN, CATEGORY_COLUMN, PARQUET_ROW_INDEX_COLUMN);
+
+    private TempFile file;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        file = new TempFile("column-index", "parquet");
+
+        List<String> columnNames = ImmutableList.of("key", "value", "category");
+        List<ObjectInspector> objectInspectors = ImmutableList.of(javaLongObjectInspector, javaStringObjectInspector, javaStringObjectInspector);
+        writeParquetColumn(
+                createJobConf(),
+                file.getFile(),
+                SNAPPY,
+                createTableProperties(columnNames, objectInspectors),
+                getStandardStructObjectInspector(columnNames, objectInspectors),
+                new Iterator<?>[] {
+                        LongStream.range(0, ROW_COUNT).boxed().iterator(),
+                        LongStream.range(0, ROW_COUNT).mapToObj(TestParquetColumnIndex::value).iterator(),
+                        LongStream.range(0, ROW_COUNT).mapToObj(TestParquetColumnIndex::category).iterator()},
+                Optional.empty(),
+                false);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        file.close();
+        file = null;
+    }
+
+    @Test
+    public void testRange()
+    {
+        TupleDomain<HiveColumnHandle> predicate = TupleDomain.withColumnDomains(Map.of(
+                KEY_COLUMN, Domain.create(ValueSet.ofRanges(range(BIGINT, 4200L, true, 4210L, true)), false)));
+
+        List<Long> keys = readKeys(predicate, true);
+        assertThat(keys).contains(LongStream.rangeClosed(4200, 4210).boxed().toArray(Long[]::new));
+        assertThat(keys.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    public void testDisjointRanges()
+    {
+        TupleDomain<HiveColumnHandle> predicate = TupleDomain.withColumnDomains(Map.of(
+                KEY_COLUMN, Domain.create(ValueSet.of(BIGINT, 17L, 3333L, 9990L), false)));
+
+        List<Long> keys = readKeys(predicate, true);
+        assertThat(keys).contains(17L, 3333L, 9990L);
+        assertThat(keys.size()).isLessThanOrEqualTo(300);
+    }
+
+    @Test
+    public void testMultipleColumns()
+    {
+        // the value column has smaller pages than the key column
+        TupleDomain<HiveColumnHandle> predicate = TupleDomain.withColumnDomains(Map.of(
+                KEY_COLUMN, Domain.create(ValueSet.ofRanges(range(BIGINT, 5000L, true, 7000L, true)), false),
+                VALUE_COLUMN, Domain.create(ValueSet.ofRanges(range(VARCHAR, utf8Slice(value(6100)), true, utf8Slice(value(6110)), true)), false)));
+
+        List<Long> keys = readKeys(predicate, true);
+        assertThat(keys).contains(LongStream.rangeClosed(6100, 6110).boxed().toArray(Long[]::new));
+        assertThat(keys.size()).isLessThan(100);
+    }
+
+    @Test
+    public void testNoMatchingPages()
+    {
+        // both domains match the row group, but no page of the key column overlaps a matching page of the value column
+        TupleDomain<HiveColumnHandle> predicate = TupleDomain.withColumnDomains(Map.of(
+                KEY_COLUMN, Domain.create(ValueSet.ofRanges(range(BIGINT, 4200L, true, 4210L, true)), false),
+                VALUE_COLUMN, Domain.create(ValueSet.ofRanges(range(VARCHAR, utf8Slice(value(100)), true, utf8Slice(value(110)), true)), false)));
+
+        assertThat(readKeys(predicate, true)).isEmpty();
+    }
+
+    @Test
+    public void testDisabled()
+    {
+        TupleDomain<HiveColumnHandle> predicate = TupleDomain.withColumnDomains(Map.of(
+                KEY_COLUMN, Domain.create(ValueSet.ofRanges(range(BIGINT, 4200L, true, 4210L, true)), false)));
+
+        assertEquals(readKeys(predicate, false).size(), ROW_COUNT);
+    }
+
+    @Test
+    public void testRepeatedColumn()
+            throws Exception
+    {
+        ArrayType itemsType = new ArrayType(BIGINT);
+        HiveColumnHandle itemsColumn = createBaseColumn("items", 1, HiveType.valueOf("array<bigint>"), itemsType, REGULAR, Optional.empty());
+        TupleDomain<HiveColumnHandle> predicate = TupleDomain.withColumnDomains(Map.of(
+                KEY_COLUMN, Domain.create(ValueSet.ofRanges(range(BIGINT, 4200L, true, 4210L, true)), false)));
+
+        try (TempFile nestedFile = new TempFile("column-index-repeated", "parquet")) {
+            // the rows have a varying number of values in the repeated column
+            List<String> columnNames = ImmutableList.of("key", "items");
+            List<ObjectInspector> objectInspectors = ImmutableList.of(javaLongObjectInspector, getStandardListObjectInspector(javaLongObjectInspector));
+            writeParquetColumn(
+                    createJobConf(),
+                    nestedFile.getFile(),
+                    SNAPPY,
+                    createTableProperties(columnNames, objectInspectors),
+                    getStandardStructObjectInspector(columnNames, objectInspectors),
+                    new Iterator<?>[] {
+                            LongStream.range(0, ROW_COUNT).boxed().iterator(),
+                            LongStream.range(0, ROW_COUNT).mapToObj(TestParquetColumnIndex::items).iterator()},
+                    Optional.empty(),
+                    false);
+
+            List<Long> keys = new ArrayList<>();
+            try (ConnectorPageSource pageSource = createPageSource(nestedFile.getFile(), ImmutableList.of(KEY_COLUMN, itemsColumn), predicate, readerOptions())) {
+                while (!pageSource.isFinished()) {
+                    Page page = pageSource.getNextPage();
+                    if (page == null) {
+                        continue;
+                    }
+                    page = page.getLoadedPage();
+                    for (int position = 0; position < page.getPositionCount(); position++) {
+                        long key = BIGINT.getLong(page.getBlock(0), position);
+                        Block items = itemsType.getObject(page.getBlock(1), position);
+                        List<Long> values = new ArrayList<>();
+                        for (int item = 0; item < items.getPositionCount(); item++) {
+                            values.add(BIGINT.getLong(items, item));
+                        }
+                        assertEquals(values, items(key));
+                        keys.add(key);
+                    }
+                }
+            }
+            assertThat(keys).contains(LongStream.rangeClosed(4200, 4210).boxed().toArray(Long[]::new));
+        }
+    }
+
+    @Test
+    public void testReadBytes()
+    {
+        TupleDomain<HiveColumnHandle> predicate = TupleDomain.withColumnDomains(Map.of(
+                KEY_COLUMN, Domain.singleValue(BIGINT, 1234L)));
+
+        // do not merge the reads of nearby pages
+        ParquetReaderOptions options = new ParquetReaderOptions().withMaxMergeDistance(DataSize.ofBytes(0));
+        long filteredBytes = readBytes(predicate, options);
+        long allBytes = readBytes(predicate, options.withUseColumnIndex(false));
+        assertThat(filteredBytes).isLessThan(allBytes / 4);
+    }
+
+    /**
+     * The rows of the selected pages which do not match the predicate are kept, so that the tests see which pages were read
+     */
+    private static ParquetReaderOptions readerOptions()
+    {
+        return new ParquetReaderOptions().withUseLateFilter(false);
+    }
+
+    /**
+     * Reads the rows selected with the predicate and checks that the columns of every row are consistent.
+     */
+    private List<Long> readKeys(TupleDomain<HiveColumnHandle> predicate, boolean useColumnIndex)
+    {
+        List<Long> keys = new ArrayList<>();
+        try (ConnectorPageSource pageSource = createPageSource(file.getFile(), COLUMNS, predicate, readerOptions().withUseColumnIndex(useColumnIndex))) {
+            while (!pageSource.isFinished()) {
+                Page page = pageSource.getNextPage();
+                if (page == null) {
+                    continue;
+                }
+                page = page.getLoadedPage();
+                Block keyBlock = page.getBlock(0);
+                for (int position = 0; position < page.getPositionCount(); position++) {
+                    long key = BIGINT.getLong(keyBlock, position);
+                    assertEquals(VARCHAR.getSlice(page.getBlock(1), position).toStringUtf8(), value(key));
+                    assertEquals(VARCHAR.getSlice(page.getBlock(2), position).toStringUtf8(), category(key));
+                    assertEquals(BIGINT.getLong(page.getBlock(3), position), key);
+                    keys.add(key);
+                }
+            }
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return keys;
+    }
+
+    private long readBytes(TupleDomain<HiveColumnHandle> predicate, ParquetReaderOptions options)
+    {
+        try (ConnectorPageSource pageSource = createPageSource(file.getFile(), COLUMNS, predicate, options)) {
+            while (!pageSource.isFinished()) {
+                Page page = pageSource.getNextPage();
+                if (page != null) {
+                    page.getLoadedPage();
+                }
+            }
+            return pageSource.getCompletedBytes();
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static JobConf createJobConf()
+    {
+        JobConf jobConf = new JobConf();
+        jobConf.setEnum(COMPRESSION, SNAPPY);
+        jobConf.setBoolean(ENABLE_DICTIONARY, true);
+        // small pages, with boundaries at different rows in each column
+        jobConf.setInt(PAGE_ROW_COUNT_LIMIT, 100);
+        jobConf.setInt(PAGE_SIZE, 1500);
+        jobConf.setInt(MIN_ROW_COUNT_FOR_PAGE_SIZE_CHECK, 1);
+        return jobConf;
+    }
+
+    private static ConnectorPageSource createPageSource(File dataFile, List<HiveColumnHandle> columns, TupleDomain<HiveColumnHandle> predicate, ParquetReaderOptions options)
+    {
+        return ParquetPageSourceFactory.createPageSource(
+                new Path(dataFile.toURI()),
+                0,
+                dataFile.length(),
+                dataFile.length(),
+                columns,
+                predicate,
+                true,
+                HDFS_ENVIRONMENT,
+                new Configuration(false),
+                "test",
+                UTC,
+                new FileFormatDataSourceStats(),
+                options)
+                .get();
+    }
+
+    private static String value(long key)
+    {
+        return format("value-%06d-%s", key, "x".repeat((int) (key % 20)));
+    }
+
+    private static String category(long key)
+    {
+        return "category-" + (key % 7);
+    }
+
+    private static List<Long> items(long key)
+    {
+        return LongStream.range(key, key + key % 5).boxed().collect(toImmutableList());
+    }
+}
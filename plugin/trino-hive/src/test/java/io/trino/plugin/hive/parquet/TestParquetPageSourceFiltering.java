@@ -0,0 +1,246 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.hive.parquet;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.parquet.ParquetReaderOptions;
+import io.trino.plugin.hive.FileFormatDataSourceStats;
+import io.trino.plugin.hive.HiveColumnHandle;
+import io.trino.plugin.hive.parquet.ParquetTester.TempFile;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.connector.ConnectorPageSource;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.predicate.ValueSet;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.mapred.JobConf;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.plugin.hive.HiveColumnHandle.ColumnType.REGULAR;
+import static io.trino.plugin.hive.HiveColumnHandle.createBaseColumn;
+import static io.trino.plugin.hive.HiveTestUtils.HDFS_ENVIRONMENT;
+import static io.trino.plugin.hive.HiveType.HIVE_LONG;
+import static io.trino.plugin.hive.HiveType.HIVE_STRING;
+import static io.trino.plugin.hive.parquet.ParquetPageSourceFactory.PARQUET_ROW_INDEX_COLUMN;
+import static io.trino.plugin.hive.parquet.ParquetTester.createTableProperties;
+import static io.trino.plugin.hive.parquet.ParquetTester.writeParquetColumn;
+import static io.trino.spi.predicate.Range.equal;
+import static io.trino.spi.predicate.Range.greaterThan;
+import static io.trino.spi.predicate.Range.lessThan;
+import static io.trino.spi.predicate.Range.range;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static java.lang.String.format;
+import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory.getStandardStructObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaLongObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaStringObjectInspector;
+import static org.apache.parquet.hadoop.ParquetOutputFormat.COMPRESSION;
+import static org.apache.parquet.hadoop.ParquetOutputFormat.ENABLE_DICTIONARY;
+import static org.apache.parquet.hadoop.ParquetOutputFormat.MIN_ROW_COUNT_FOR_PAGE_SIZE_CHECK;
+import static org.apache.parquet.hadoop.ParquetOutputFormat.PAGE_ROW_COUNT_LIMIT;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.SNAPPY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.joda.time.DateTimeZone.UTC;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestParquetPageSourceFiltering
+{
+    private static final int ROW_COUNT = 10_000;
+
+    private static final HiveColumnHandle KEY_COLUMN = createBaseColumn("key", 0, HIVE_LONG, BIGINT, REGULAR, Optional.empty());
+    private static final HiveColumnHandle VALUE_COLUMN = createBaseColumn("value", 1, HIVE_STRING, VARCHAR, REGULAR, Optional.empty());
+    private static final HiveColumnHandle CATEGORY_COLUMN = createBaseColumn("category", 2, HIVE_STRING, VARCHAR, REGULAR, Optional.empty());
+    private static final HiveColumnHandle SCORE_COLUMN = createBaseColumn("score", 3, HIVE_LONG, BIGINT, REGULAR, Optional.empty());
+    private static final List<HiveColumnHandle> COLUMNS = ImmutableList.of(KEY_COLUMN, VALUE_COLUMN, CATEGORY_COLUMN, SCORE_COLUMN, PARQUET_ROW_INDEX_COLUMN);
+
+    private TempFile file;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        file = new TempFile("page-source-filtering", "parquet");
+
+        JobConf jobConf = new JobConf();
+        jobConf.setEnum(COMPRESSION, SNAPPY);
+        jobConf.setBoolean(ENABLE_DICTIONARY, true);
+        // several pages per batch, so that skipped values span page boundaries
+        jobConf.setInt(PAGE_ROW_COUNT_LIMIT, 50);
+        jobConf.setInt(MIN_ROW_COUNT_FOR_PAGE_SIZE_CHECK, 1);
+
+        List<String> columnNames = ImmutableList.of("key", "value", "category", "score");
+        List<ObjectInspector> objectInspectors = ImmutableList.of(javaLongObjectInspector, javaStringObjectInspector, javaStringObjectInspector, javaLongObjectInspector);
+        writeParquetColumn(
+                jobConf,
+                file.getFile(),
+                SNAPPY,
+                createTableProperties(columnNames, objectInspectors),
+                getStandardStructObjectInspector(columnNames, objectInspectors),
+                new Iterator<?>[] {
+                        LongStream.range(0, ROW_COUNT).boxed().iterator(),
+                        LongStream.range(0, ROW_COUNT).mapToObj(TestParquetPageSourceFiltering::value).iterator(),
+                        LongStream.range(0, ROW_COUNT).mapToObj(TestParquetPageSourceFiltering::category).iterator(),
+                        LongStream.range(0, ROW_COUNT).mapToObj(TestParquetPageSourceFiltering::score).iterator()},
+                Optional.empty(),
+                false);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        file.close();
+        file = null;
+    }
+
+    @Test
+    public void testNoFilter()
+    {
+        assertKeys(TupleDomain.all(), key -> true);
+    }
+
+    @Test
+    public void testSingleColumn()
+    {
+        // every page of the category column contains the value, so only late materialization selects the rows
+        TupleDomain<HiveColumnHandle> predicate = TupleDomain.withColumnDomains(Map.of(
+                CATEGORY_COLUMN, Domain.singleValue(VARCHAR, utf8Slice(category(3)))));
+
+        assertKeys(predicate, key -> key % 7 == 3);
+    }
+
+    @Test
+    public void testMultipleColumns()
+    {
+        TupleDomain<HiveColumnHandle> predicate = TupleDomain.withColumnDomains(Map.of(
+                CATEGORY_COLUMN, Domain.create(ValueSet.of(VARCHAR, utf8Slice(category(1)), utf8Slice(category(5))), false),
+                KEY_COLUMN, Domain.create(ValueSet.ofRanges(range(BIGINT, 1234L, true, 8765L, false)), false)));
+
+        assertKeys(predicate, key -> (key % 7 == 1 || key % 7 == 5) && key >= 1234 && key < 8765);
+    }
+
+    @Test
+    public void testDiscreteValuesAndExclusiveBounds()
+    {
+        TupleDomain<HiveColumnHandle> predicate = TupleDomain.withColumnDomains(Map.of(
+                KEY_COLUMN, Domain.create(ValueSet.ofRanges(
+                        lessThan(BIGINT, 3L),
+                        equal(BIGINT, 17L),
+                        range(BIGINT, 100L, false, 105L, false),
+                        equal(BIGINT, 3333L),
+                        greaterThan(BIGINT, 9990L)), false)));
+
+        assertKeys(predicate, key -> key < 3 || key == 17 || (key > 100 && key < 105) || key == 3333 || key > 9990);
+    }
+
+    @Test
+    public void testNullAllowed()
+    {
+        TupleDomain<HiveColumnHandle> predicate = TupleDomain.withColumnDomains(Map.of(
+                SCORE_COLUMN, Domain.create(ValueSet.ofRanges(range(BIGINT, 0L, true, 300L, true)), true)));
+
+        assertKeys(predicate, key -> score(key) == null || key <= 300);
+    }
+
+    @Test
+    public void testNoMatchingRows()
+    {
+        TupleDomain<HiveColumnHandle> predicate = TupleDomain.withColumnDomains(Map.of(
+                CATEGORY_COLUMN, Domain.singleValue(VARCHAR, utf8Slice(category(2))),
+                SCORE_COLUMN, Domain.singleValue(BIGINT, 3L)));
+
+        assertKeys(predicate, key -> false);
+    }
+
+    /**
+     * Reads the rows selected with the predicate and checks that they are the expected rows, with consistent columns.
+     */
+    private void assertKeys(TupleDomain<HiveColumnHandle> predicate, LongPredicate expectedKeys)
+    {
+        List<Long> keys = new ArrayList<>();
+        try (ConnectorPageSource pageSource = createPageSource(predicate)) {
+            while (!pageSource.isFinished()) {
+                Page page = pageSource.getNextPage();
+                if (page == null) {
+                    continue;
+                }
+                assertTrue(page.getPositionCount() > 0, "empty page");
+                page = page.getLoadedPage();
+                Block keyBlock = page.getBlock(0);
+                for (int position = 0; position < page.getPositionCount(); position++) {
+                    long key = BIGINT.getLong(keyBlock, position);
+                    assertEquals(VARCHAR.getSlice(page.getBlock(1), position).toStringUtf8(), value(key));
+                    assertEquals(VARCHAR.getSlice(page.getBlock(2), position).toStringUtf8(), category(key));
+                    assertEquals(page.getBlock(3).isNull(position) ? null : (Long) BIGINT.getLong(page.getBlock(3), position), score(key));
+                    assertEquals(BIGINT.getLong(page.getBlock(4), position), key);
+                    keys.add(key);
+                }
+            }
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        assertThat(keys).containsExactly(LongStream.range(0, ROW_COUNT).filter(expectedKeys).boxed().toArray(Long[]::new));
+    }
+
+    private ConnectorPageSource createPageSource(TupleDomain<HiveColumnHandle> predicate)
+    {
+        File dataFile = file.getFile();
+        return ParquetPageSourceFactory.createPageSource(
+                new Path(dataFile.toURI()),
+                0,
+                dataFile.length(),
+                dataFile.length(),
+                COLUMNS,
+                predicate,
+                true,
+                HDFS_ENVIRONMENT,
+                new Configuration(false),
+                "test",
+                UTC,
+                new FileFormatDataSourceStats(),
+                new ParquetReaderOptions())
+                .get();
+    }
+
+    private static String value(long key)
+    {
+        return format("value-%06d-%s", key, "x".repeat((int) (key % 13)));
+    }
+
+    private static String category(long key)
+    {
+        return "category-" + (key % 7);
+    }
+
+    private static Long score(long key)
+    {
+        return key % 5 == 0 ? null : key;
+    }
+}
@@ -93,6 +93,7 @@ import static io.trino.parquet.ParquetTypeUtils.getColumnIO;
 import static io.trino.parquet.ParquetTypeUtils.getDescriptors;
 import static io.trino.parquet.ParquetTypeUtils.getParquetTypeByName;
 import static io.trino.parquet.predicate.PredicateUtils.buildPredicate;
+import static io.trino.parquet.predicate.PredicateUtils.bloomFilterMatches;
 import static io.trino.parquet.predicate.PredicateUtils.predicateMatches;
 import static io.trino.plugin.hive.parquet.ParquetColumnIOConverter.constructField;
 import static io.trino.plugin.iceberg.IcebergErrorCode.ICEBERG_BAD_DATA;
@@ -473,7 +474,12 @@ public class IcebergPageSourceProvider
                 long firstDataPage = block.getColumns().get(0).getFirstDataPageOffset();
                 if (start <= firstDataPage && firstDataPage < start + length &&
                         predicateMatches(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain)) {
-                    blocks.add(block);
+                    if (options.isUseBloomFilter() && !bloomFilterMatches(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain)) {
+                        fileFormatDataSourceStats.addBloomFilterPrunedRowGroups(1);
+                    }
+                    else {
+                        blocks.add(block);
+                    }
                 }
             }
 
@@ -486,7 +492,8 @@ public class IcebergPageSourceProvider
                     dataSource,
                     UTC,
                     systemMemoryContext,
-                    options);
+                    options,
+                    Optional.of(parquetPredicate));
 
             ImmutableList.Builder<Type> trinoTypes = ImmutableList.builder();
             ImmutableList.Builder<Optional<Field>> internalFields = ImmutableList.builder();
@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution;
+
+import io.trino.Session;
+import io.trino.plugin.tpch.TpchPlugin;
+import io.trino.spi.QueryId;
+import io.trino.testing.DistributedQueryRunner;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static io.trino.SystemSessionProperties.TASK_SCHEDULING_GROUP;
+import static io.trino.SystemSessionProperties.TASK_SCHEDULING_WEIGHT;
+import static io.trino.testing.TestingSession.testSessionBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestTaskSchedulingGroup
+{
+    private DistributedQueryRunner queryRunner;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        queryRunner = DistributedQueryRunner.builder(testSessionBuilder().build())
+                .setNodeCount(1)
+                .build();
+        queryRunner.installPlugin(new TpchPlugin());
+        queryRunner.createCatalog("tpch", "tpch");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        queryRunner.close();
+        queryRunner = null;
+    }
+
+    @Test
+    public void testSetByCoordinator()
+    {
+        QueryId queryId = queryRunner.executeWithQueryId(queryRunner.getDefaultSession(), "SELECT count(*) FROM tpch.tiny.nation").getQueryId();
+
+        Map<String, String> properties = queryRunner.getCoordinator().getQueryManager().getFullQueryInfo(queryId).getSession().getSystemProperties();
+        assertThat(properties)
+                .containsEntry(TASK_SCHEDULING_GROUP, "global")
+                .containsEntry(TASK_SCHEDULING_WEIGHT, "1");
+    }
+
+    @Test
+    public void testUserCannotSetSchedulingGroup()
+    {
+        Session session = testSessionBuilder()
+                .setSystemProperty(TASK_SCHEDULING_GROUP, "admin")
+                .build();
+        assertThatThrownBy(() -> queryRunner.execute(session, "SELECT count(*) FROM tpch.tiny.nation"))
+                .hasMessageContaining("Session property task_scheduling_group is set by the coordinator and cannot be set by users");
+    }
+
+    @Test
+    public void testUserCannotSetSchedulingWeight()
+    {
+        Session session = testSessionBuilder()
+                .setSystemProperty(TASK_SCHEDULING_WEIGHT, String.valueOf(Integer.MAX_VALUE))
+                .build();
+        assertThatThrownBy(() -> queryRunner.execute(session, "SELECT count(*) FROM tpch.tiny.nation"))
+                .hasMessageContaining("Session property task_scheduling_weight is set by the coordinator and cannot be set by users");
+    }
+}
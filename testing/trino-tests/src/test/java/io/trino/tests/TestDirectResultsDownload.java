@@ -0,0 +1,310 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.tests;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Key;
+import io.airlift.http.client.HttpClient;
+import io.airlift.http.client.Request;
+import io.airlift.http.client.jetty.JettyHttpClient;
+import io.airlift.units.Duration;
+import io.trino.client.ClientSession;
+import io.trino.client.QueryResults;
+import io.trino.client.StatementClient;
+import io.trino.execution.QueryState;
+import io.trino.plugin.memory.MemoryPlugin;
+import io.trino.plugin.tpch.TpchPlugin;
+import io.trino.server.InternalAuthenticationManager;
+import io.trino.server.testing.TestingTrinoServer;
+import io.trino.spi.QueryId;
+import io.trino.testing.DistributedQueryRunner;
+import okhttp3.OkHttpClient;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
+import static io.airlift.http.client.Request.Builder.prepareDelete;
+import static io.airlift.http.client.Request.Builder.prepareGet;
+import static io.airlift.http.client.StatusResponseHandler.createStatusResponseHandler;
+import static io.airlift.testing.Closeables.closeAll;
+import static io.trino.client.StatementClientFactory.newStatementClient;
+import static io.trino.execution.QueryState.FINISHED;
+import static io.trino.testing.TestingSession.testSessionBuilder;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static javax.ws.rs.core.Response.Status.FORBIDDEN;
+import static javax.ws.rs.core.Response.Status.NOT_FOUND;
+import static javax.ws.rs.core.Response.Status.NO_CONTENT;
+import static javax.ws.rs.core.Response.Status.OK;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestDirectResultsDownload
+{
+    private DistributedQueryRunner queryRunner;
+    private HttpClient httpClient;
+    private OkHttpClient okHttpClient;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        queryRunner = DistributedQueryRunner.builder(testSessionBuilder().build())
+                .setNodeCount(2)
+                .setExtraProperties(ImmutableMap.of("query-results.direct-download-enabled", "true"))
+                .build();
+        queryRunner.installPlugin(new TpchPlugin());
+        queryRunner.createCatalog("tpch", "tpch");
+        queryRunner.installPlugin(new MemoryPlugin());
+        queryRunner.createCatalog("memory", "memory");
+
+        httpClient = new JettyHttpClient();
+        okHttpClient = new OkHttpClient();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        closeAll(queryRunner, httpClient);
+        queryRunner = null;
+        httpClient = null;
+        okHttpClient.dispatcher().executorService().shutdown();
+        okHttpClient.connectionPool().evictAll();
+        okHttpClient = null;
+    }
+
+    @Test(timeOut = 60_000)
+    public void testDownload()
+    {
+        DirectResults results = execute("SELECT nationkey, name FROM tpch.tiny.nation");
+
+        assertThat(results.segments).isNotEmpty();
+        assertThat(results.rows)
+                .hasSize(25)
+                .contains(ImmutableList.of(0L, "ALGERIA"), ImmutableList.of(24L, "UNITED STATES"));
+        assertThat(queryState(results.queryId)).isEqualTo(FINISHED);
+    }
+
+    @Test(timeOut = 60_000)
+    public void testSegmentPerWorker()
+    {
+        // the output stage is not forced to a single node, so every node running the scan serves a segment
+        DirectResults results = execute("SELECT orderkey FROM tpch.tiny.orders");
+
+        assertThat(results.segments).hasSize(queryRunner.getNodeCount());
+        assertThat(results.rows).hasSize(15000);
+        // the segments are deleted once they are complete, which lets the query finish
+        assertThat(queryState(results.queryId)).isEqualTo(FINISHED);
+    }
+
+    @Test(timeOut = 60_000)
+    public void testOrderedResults()
+    {
+        DirectResults results = execute("SELECT orderkey FROM tpch.tiny.orders ORDER BY orderkey DESC");
+
+        assertThat(results.segments).hasSize(1);
+        assertThat(results.rows).hasSize(15000);
+        assertThat(results.rows.get(0)).isEqualTo(ImmutableList.of(60000L));
+        assertThat(results.rows.get(14999)).isEqualTo(ImmutableList.of(1L));
+    }
+
+    @Test(timeOut = 60_000)
+    public void testFallbackForUnsupportedTypes()
+    {
+        // date is not supported by the columnar encoding, so the coordinator returns the rows
+        DirectResults results = execute("SELECT orderkey, orderdate FROM tpch.tiny.orders WHERE orderkey = 1");
+
+        assertThat(results.segments).isEmpty();
+        assertThat(results.rows).containsExactly(ImmutableList.of(1L, "1996-01-02"));
+        assertThat(queryState(results.queryId)).isEqualTo(FINISHED);
+    }
+
+    @Test(timeOut = 60_000)
+    public void testFallbackForUpdates()
+    {
+        // the coordinator reads the output of updates itself, for the update count
+        DirectResults results = execute("CREATE TABLE memory.default.test_direct_results AS SELECT * FROM tpch.tiny.nation");
+
+        assertThat(results.segments).isEmpty();
+        assertThat(results.updateCount).isEqualTo(25L);
+    }
+
+    @Test(timeOut = 60_000)
+    public void testDownloadKey()
+    {
+        // the output of the query does not fit in the buffers, so the query is still running while the segments are checked
+        try (StatementClient client = newStatementClient(okHttpClient, clientSession(), "SELECT orderkey FROM tpch.sf100.lineitem")) {
+            List<URI> segments = null;
+            while (client.isRunning() && (segments == null || segments.isEmpty())) {
+                segments = ((QueryResults) client.currentStatusInfo()).getSegments();
+                if (segments == null || segments.isEmpty()) {
+                    client.advance();
+                }
+            }
+            assertThat(segments).isNotEmpty();
+
+            URI segment = segments.get(0);
+            QueryId queryId = new QueryId(client.currentStatusInfo().getId());
+            InternalAuthenticationManager authenticationManager = queryRunner.getCoordinator().getInstance(Key.get(InternalAuthenticationManager.class));
+            Instant expiration = Instant.now().plusSeconds(60);
+
+            assertThat(download(segment)).isIn(OK.getStatusCode(), NO_CONTENT.getStatusCode());
+
+            assertThat(download(withoutKey(segment))).isEqualTo(FORBIDDEN.getStatusCode());
+            assertThat(download(withKey(segment, "invalid"))).isEqualTo(FORBIDDEN.getStatusCode());
+            assertThat(download(withKey(segment, authenticationManager.createResultsDownloadKey(queryId, "other_user", expiration))))
+                    .isEqualTo(FORBIDDEN.getStatusCode());
+            assertThat(download(withKey(segment, authenticationManager.createResultsDownloadKey(new QueryId("other_query"), "user", expiration))))
+                    .isEqualTo(FORBIDDEN.getStatusCode());
+            assertThat(download(withKey(segment, authenticationManager.createResultsDownloadKey(queryId, "user", Instant.now().minusSeconds(60)))))
+                    .isEqualTo(FORBIDDEN.getStatusCode());
+
+            // the buffers of other users cannot be aborted
+            Request delete = prepareDelete()
+                    .setUri(withKey(segment, authenticationManager.createResultsDownloadKey(queryId, "other_user", expiration)))
+                    .build();
+            assertThat(httpClient.execute(delete, createStatusResponseHandler()).getStatusCode()).isEqualTo(FORBIDDEN.getStatusCode());
+        }
+    }
+
+    @Test
+    public void testRequiresSharedSecret()
+    {
+        assertThatThrownBy(() -> TestingTrinoServer.builder()
+                .setProperties(ImmutableMap.of("query-results.direct-download-enabled", "true"))
+                .build()
+                .close())
+                .hasStackTraceContaining("internal-communication.shared-secret must be set when query-results.direct-download-enabled is set");
+    }
+
+    @Test
+    public void testDisabled()
+            throws Exception
+    {
+        try (TestingTrinoServer server = TestingTrinoServer.builder()
+                .setProperties(ImmutableMap.of("internal-communication.shared-secret", "secret"))
+                .build()) {
+            URI segment = uriBuilderFrom(server.getBaseUrl())
+                    .replacePath("/v1/download/query.0.0.0/0/0")
+                    .addParameter("key", "key")
+                    .build();
+            assertThat(download(segment)).isEqualTo(NOT_FOUND.getStatusCode());
+        }
+    }
+
+    private DirectResults execute(String sql)
+    {
+        ImmutableSet.Builder<URI> segments = ImmutableSet.builder();
+        ImmutableList.Builder<List<Object>> rows = ImmutableList.builder();
+        try (StatementClient client = newStatementClient(okHttpClient, clientSession(), sql)) {
+            while (client.isRunning()) {
+                List<URI> currentSegments = ((QueryResults) client.currentStatusInfo()).getSegments();
+                if (currentSegments != null) {
+                    // the keys of the segments are renewed with every response
+                    currentSegments.forEach(segment -> segments.add(withoutKey(segment)));
+                }
+                Iterable<List<Object>> data = client.currentData().getData();
+                if (data != null) {
+                    rows.addAll(data);
+                }
+                client.advance();
+            }
+            assertThat(client.finalStatusInfo().getError()).isNull();
+            return new DirectResults(
+                    new QueryId(client.finalStatusInfo().getId()),
+                    segments.build(),
+                    rows.build(),
+                    client.finalStatusInfo().getUpdateCount());
+        }
+    }
+
+    private QueryState queryState(QueryId queryId)
+    {
+        return queryRunner.getCoordinator().getQueryManager().getFullQueryInfo(queryId).getState();
+    }
+
+    private int download(URI segment)
+    {
+        Request request = prepareGet()
+                .setUri(uriBuilderFrom(segment).appendPath("0").build())
+                .build();
+        return httpClient.execute(request, createStatusResponseHandler()).getStatusCode();
+    }
+
+    private static URI withoutKey(URI segment)
+    {
+        return uriBuilderFrom(segment)
+                .replaceParameter("key")
+                .build();
+    }
+
+    private static URI withKey(URI segment, String key)
+    {
+        return uriBuilderFrom(segment)
+                .replaceParameter("key", key)
+                .build();
+    }
+
+    private ClientSession clientSession()
+    {
+        return new ClientSession(
+                queryRunner.getCoordinator().getBaseUrl(),
+                "user",
+                Optional.empty(),
+                "source",
+                Optional.empty(),
+                ImmutableSet.of(),
+                null,
+                null,
+                null,
+                null,
+                ZoneId.of("UTC"),
+                Locale.ENGLISH,
+                ImmutableMap.of(),
+                ImmutableMap.of(),
+                ImmutableMap.of(),
+                ImmutableMap.of(),
+                ImmutableMap.of(),
+                null,
+                new Duration(1, MINUTES),
+                false);
+    }
+
+    private static class DirectResults
+    {
+        private final QueryId queryId;
+        private final Set<URI> segments;
+        private final List<List<Object>> rows;
+        private final Long updateCount;
+
+        public DirectResults(QueryId queryId, Set<URI> segments, List<List<Object>> rows, Long updateCount)
+        {
+            this.queryId = queryId;
+            this.segments = segments;
+            this.rows = rows;
+            this.updateCount = updateCount;
+        }
+    }
+}